@@ -17,6 +17,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -76,6 +77,7 @@ public class Container {
   static final String ACCESS_CONTROL_ALLOW_ORIGIN_DEFAULT_VALUE = "";
   static final Long CACHE_TTL_IN_SECOND_DEFAULT_VALUE = null;
   static final Set<String> USER_METADATA_KEYS_TO_NOT_PREFIX_IN_RESPONSE_DEFAULT_VALUE = Collections.emptySet();
+  static final Map<String, Long> COMPRESSION_DICTIONARY_IDS_DEFAULT_VALUE = Collections.emptyMap();
 
   public static final short JSON_VERSION_1 = 1;
   public static final short JSON_VERSION_2 = 2;
@@ -305,7 +307,7 @@ public class Container {
           OVERRIDE_ACCOUNT_ACL_DEFAULT_VALUE, NAMED_BLOB_MODE_DEFAULT_VALUE, UNKNOWN_CONTAINER_PARENT_ACCOUNT_ID,
           UNKNOWN_CONTAINER_DELETE_TRIGGER_TIME, LAST_MODIFIED_TIME_DEFAULT_VALUE, SNAPSHOT_VERSION_DEFAULT_VALUE,
           ACCESS_CONTROL_ALLOW_ORIGIN_DEFAULT_VALUE, CACHE_TTL_IN_SECOND_DEFAULT_VALUE,
-          USER_METADATA_KEYS_TO_NOT_PREFIX_IN_RESPONSE_DEFAULT_VALUE);
+          USER_METADATA_KEYS_TO_NOT_PREFIX_IN_RESPONSE_DEFAULT_VALUE, COMPRESSION_DICTIONARY_IDS_DEFAULT_VALUE);
 
   /**
    * A container defined specifically for the blobs put without specifying target container but isPrivate flag is
@@ -324,7 +326,7 @@ public class Container {
           OVERRIDE_ACCOUNT_ACL_DEFAULT_VALUE, NAMED_BLOB_MODE_DEFAULT_VALUE, DEFAULT_PUBLIC_CONTAINER_PARENT_ACCOUNT_ID,
           DEFAULT_PRIVATE_CONTAINER_DELETE_TRIGGER_TIME, LAST_MODIFIED_TIME_DEFAULT_VALUE,
           SNAPSHOT_VERSION_DEFAULT_VALUE, ACCESS_CONTROL_ALLOW_ORIGIN_DEFAULT_VALUE, CACHE_TTL_IN_SECOND_DEFAULT_VALUE,
-          USER_METADATA_KEYS_TO_NOT_PREFIX_IN_RESPONSE_DEFAULT_VALUE);
+          USER_METADATA_KEYS_TO_NOT_PREFIX_IN_RESPONSE_DEFAULT_VALUE, COMPRESSION_DICTIONARY_IDS_DEFAULT_VALUE);
 
   /**
    * A container defined specifically for the blobs put without specifying target container but isPrivate flag is
@@ -343,7 +345,8 @@ public class Container {
           OVERRIDE_ACCOUNT_ACL_DEFAULT_VALUE, NAMED_BLOB_MODE_DEFAULT_VALUE,
           DEFAULT_PRIVATE_CONTAINER_PARENT_ACCOUNT_ID, DEFAULT_PUBLIC_CONTAINER_DELETE_TRIGGER_TIME,
           LAST_MODIFIED_TIME_DEFAULT_VALUE, SNAPSHOT_VERSION_DEFAULT_VALUE, ACCESS_CONTROL_ALLOW_ORIGIN_DEFAULT_VALUE,
-          CACHE_TTL_IN_SECOND_DEFAULT_VALUE, USER_METADATA_KEYS_TO_NOT_PREFIX_IN_RESPONSE_DEFAULT_VALUE);
+          CACHE_TTL_IN_SECOND_DEFAULT_VALUE, USER_METADATA_KEYS_TO_NOT_PREFIX_IN_RESPONSE_DEFAULT_VALUE,
+          COMPRESSION_DICTIONARY_IDS_DEFAULT_VALUE);
 
   // container field variables
   @JsonProperty(CONTAINER_ID_KEY)
@@ -373,6 +376,7 @@ public class Container {
   private final int snapshotVersion;
   private final Long cacheTtlInSecond;
   private final Set<String> userMetadataKeysToNotPrefixInResponse;
+  private final Map<String, Long> compressionDictionaryIds;
   @JsonProperty(JSON_VERSION_KEY)
   private final int version = JSON_VERSION_2; // the default version is 2
 
@@ -400,6 +404,8 @@ public class Container {
    * @param parentAccountId The id of the parent {@link Account} of this container.
    * @param lastModifiedTime created/modified time of this container.
    * @param accessControlAllowOrigin The Access-Control-Allow-Origin header field name of this container.
+   * @param compressionDictionaryIds the ids of the Zstd dictionaries to compress the blobs of this container with, by
+   *                                 content type. Can be null.
    */
   public Container(short id, String name, ContainerStatus status, String description, boolean encrypted,
       boolean previouslyEncrypted, boolean cacheable, boolean mediaScanDisabled, boolean paranoidDurabilityEnabled,
@@ -407,7 +413,7 @@ public class Container {
       Set<String> contentTypeWhitelistForFilenamesOnDownload, boolean backupEnabled, boolean overrideAccountAcl,
       NamedBlobMode namedBlobMode, short parentAccountId, long deleteTriggerTime, long lastModifiedTime,
       int snapshotVersion, String accessControlAllowOrigin, Long cacheTtlInSecond,
-      Set<String> userMetadataKeysToNotPrefixInResponse) {
+      Set<String> userMetadataKeysToNotPrefixInResponse, Map<String, Long> compressionDictionaryIds) {
     checkPreconditions(name, status, encrypted, previouslyEncrypted);
     this.id = id;
     this.name = name;
@@ -435,6 +441,7 @@ public class Container {
         this.accessControlAllowOrigin = ACCESS_CONTROL_ALLOW_ORIGIN_DEFAULT_VALUE;
         this.cacheTtlInSecond = CACHE_TTL_IN_SECOND_DEFAULT_VALUE;
         this.userMetadataKeysToNotPrefixInResponse = USER_METADATA_KEYS_TO_NOT_PREFIX_IN_RESPONSE_DEFAULT_VALUE;
+        this.compressionDictionaryIds = COMPRESSION_DICTIONARY_IDS_DEFAULT_VALUE;
         break;
       case JSON_VERSION_2:
         this.backupEnabled = backupEnabled;
@@ -456,6 +463,8 @@ public class Container {
         this.userMetadataKeysToNotPrefixInResponse =
             userMetadataKeysToNotPrefixInResponse == null ? Collections.emptySet()
                 : userMetadataKeysToNotPrefixInResponse;
+        this.compressionDictionaryIds =
+            compressionDictionaryIds == null ? Collections.emptyMap() : compressionDictionaryIds;
         break;
       default:
         throw new IllegalStateException("Unsupported container json version=" + currentJsonVersion);
@@ -647,6 +656,15 @@ public class Container {
     return userMetadataKeysToNotPrefixInResponse;
   }
 
+  /**
+   * The dictionaries are trained on the content of a type, and are distributed to the frontends separately. A new
+   * version of a dictionary gets a new id, so that blobs compressed with the previous versions can still be read.
+   * @return the ids of the Zstd dictionaries to compress the blobs of this container with, keyed by content type.
+   */
+  public Map<String, Long> getCompressionDictionaryIds() {
+    return compressionDictionaryIds;
+  }
+
   /**
    * Gets the if of the {@link Account} that owns this container.
    * @return The id of the parent {@link Account} of this container.
@@ -714,7 +732,8 @@ public class Container {
         && Objects.equals(accessControlAllowOrigin, container.accessControlAllowOrigin)
         && Objects.equals(contentTypeWhitelistForFilenamesOnDownload, container.contentTypeWhitelistForFilenamesOnDownload)
         && Objects.equals(cacheTtlInSecond, container.cacheTtlInSecond)
-        && Objects.equals(userMetadataKeysToNotPrefixInResponse, container.userMetadataKeysToNotPrefixInResponse);
+        && Objects.equals(userMetadataKeysToNotPrefixInResponse, container.userMetadataKeysToNotPrefixInResponse)
+        && Objects.equals(compressionDictionaryIds, container.compressionDictionaryIds);
     //@formatter:on
   }
 
@@ -16,6 +16,7 @@ package com.github.ambry.account;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import java.util.Map;
 import java.util.Set;
 
 import static com.github.ambry.account.Container.*;
@@ -58,6 +59,7 @@ public class ContainerBuilder {
   private Long cacheTtlInSecond = CACHE_TTL_IN_SECOND_DEFAULT_VALUE;
   private Set<String> userMetadataKeysToNotPrefixInResponse =
       USER_METADATA_KEYS_TO_NOT_PREFIX_IN_RESPONSE_DEFAULT_VALUE;
+  private Map<String, Long> compressionDictionaryIds = COMPRESSION_DICTIONARY_IDS_DEFAULT_VALUE;
 
   /**
    * Constructor. This will allow building a new {@link Container} from an existing {@link Container}. The builder will
@@ -92,6 +94,7 @@ public class ContainerBuilder {
     snapshotVersion = origin.getSnapshotVersion();
     cacheTtlInSecond = origin.getCacheTtlInSecond();
     userMetadataKeysToNotPrefixInResponse = origin.getUserMetadataKeysToNotPrefixInResponse();
+    compressionDictionaryIds = origin.getCompressionDictionaryIds();
   }
 
   /**
@@ -348,6 +351,16 @@ public class ContainerBuilder {
     return this;
   }
 
+  /**
+   * Sets the ids of the Zstd dictionaries, by content type, of the {@link Container} to build.
+   * @param compressionDictionaryIds The value to set.
+   * @return This builder.
+   */
+  public ContainerBuilder setCompressionDictionaryIds(Map<String, Long> compressionDictionaryIds) {
+    this.compressionDictionaryIds = compressionDictionaryIds;
+    return this;
+  }
+
   /**
    * Builds a {@link Container} object. {@code id}, {@code name}, {@code status}, {@code isPrivate}, and
    * {@code parentAccountId} are required before build.
@@ -363,6 +376,6 @@ public class ContainerBuilder {
         contentTypeWhitelistForFilenamesOnDownload, backupEnabled, overrideAccountAcl, namedBlobMode,
         parentAccountId == null ? UNKNOWN_CONTAINER_PARENT_ACCOUNT_ID : parentAccountId.shortValue(), deleteTriggerTime,
         lastModifiedTime, snapshotVersion, accessControlAllowOrigin, cacheTtlInSecond,
-        userMetadataKeysToNotPrefixInResponse);
+        userMetadataKeysToNotPrefixInResponse, compressionDictionaryIds);
   }
 }
@@ -48,6 +48,16 @@ public class CompressionConfig {
   static final String ALGORITHM_NAME = "router.compression.algorithm.name";
   static final String DEFAULT_ALGORITHM_NAME = "ZSTD";
 
+  // Whether to compress the data of a chunk as it arrives instead of when the chunk is complete.
+  // Streaming compression only applies when the algorithm is Zstandard.
+  static final String STREAMING_ENABLED = "router.compression.streaming.enabled";
+  static final boolean DEFAULT_STREAMING_ENABLED = false;
+
+  // The directory of the trained Zstandard dictionaries, one "<name>.dict" file per dictionary.
+  // The containers refer to the dictionaries by their ids.  Empty means no dictionary is loaded.
+  static final String DICTIONARY_DIRECTORY = "router.compression.dictionary.directory";
+  static final String DEFAULT_DICTIONARY_DIRECTORY = "";
+
   /**
    * Whether compression is enabled.
    */
@@ -87,6 +97,21 @@ public class CompressionConfig {
   @Config(ALGORITHM_NAME)
   public final String algorithmName;
 
+  /**
+   * Whether the data of a chunk is compressed as it arrives, overlapping compression with the reads of the rest of
+   * the chunk, instead of being combined and compressed when the chunk is complete.
+   */
+  @Config(STREAMING_ENABLED)
+  public final boolean isStreamingEnabled;
+
+  /**
+   * The directory to load the trained Zstandard dictionaries from.  A container compresses the blobs of a content type
+   * with the dictionary that is assigned to it in the container metadata.  Dictionaries that were replaced by newer
+   * versions must be kept in the directory, since the blobs compressed with them can only be read with them.
+   */
+  @Config(DICTIONARY_DIRECTORY)
+  public final String dictionaryDirectory;
+
   /**
    * Construct a compression config instance using a specific verifiable properties.
    * @param verifiableProperties The verifiable properties.
@@ -100,5 +125,7 @@ public class CompressionConfig {
         DEFAULT_MINIMAL_DATA_SIZE_IN_BYTES);
     minimalCompressRatio = verifiableProperties.getDouble(MINIMAL_COMPRESS_RATIO,
         DEFAULT_MINIMAL_COMPRESS_RATIO);
+    isStreamingEnabled = verifiableProperties.getBoolean(STREAMING_ENABLED, DEFAULT_STREAMING_ENABLED);
+    dictionaryDirectory = verifiableProperties.getString(DICTIONARY_DIRECTORY, DEFAULT_DICTIONARY_DIRECTORY);
   }
 }
@@ -41,9 +41,19 @@ public class CryptoServiceConfig {
   @Default("12")
   public final int cryptoServiceIvSizeInBytes;
 
+  /**
+   * The JCE provider of the AES/GCM cipher. "BC" uses BouncyCastle and "SunJCE" uses the cipher of the JDK, which is
+   * accelerated with the AES-NI and carry-less multiplication instructions of the CPU. Both providers produce the same
+   * content, so the provider can be changed without affecting blobs that are already encrypted.
+   */
+  @Config("crypto.service.provider")
+  @Default("BC")
+  public final String cryptoServiceProvider;
+
   public CryptoServiceConfig(VerifiableProperties verifiableProperties) {
     cryptoServiceEncryptionDecryptionMode =
         verifiableProperties.getString("crypto.service.encryption.decryption.mode", "GCM");
     cryptoServiceIvSizeInBytes = verifiableProperties.getInt("crypto.service.iv.size.in.bytes", 12);
+    cryptoServiceProvider = verifiableProperties.getString("crypto.service.provider", "BC");
   }
 }
@@ -40,6 +40,9 @@ public class FrontendConfig {
   public static final String MAX_JSON_REQUEST_SIZE_BYTES_KEY = PREFIX + "max.json.request.size.bytes";
   public static final String ENABLE_UNDELETE = PREFIX + "enable.undelete";
   public static final String NAMED_BLOB_DB_FACTORY = PREFIX + "named.blob.db.factory";
+  public static final String NAMED_BLOB_CACHE_MAX_ENTRIES = PREFIX + "named.blob.cache.max.entries";
+  public static final String NAMED_BLOB_CACHE_TTL_MS = PREFIX + "named.blob.cache.ttl.ms";
+  public static final String NAMED_BLOB_CACHE_NEGATIVE_TTL_MS = PREFIX + "named.blob.cache.negative.ttl.ms";
   public static final String CONTAINER_METRICS_EXCLUDED_ACCOUNTS = PREFIX + "container.metrics.excluded.accounts";
   public static final String ACCOUNT_STATS_STORE_FACTORY = PREFIX + "account.stats.store.factory";
   public static final String CONTAINER_METRICS_ENABLED_REQUEST_TYPES = PREFIX + "container.metrics.enabled.request.types";
@@ -273,6 +276,29 @@ public class FrontendConfig {
   @Default("null")
   public final String namedBlobDbFactory;
 
+  /**
+   * The maximum number of named blob lookups cached by the frontend in front of the
+   * {@link com.github.ambry.named.NamedBlobDb}. 0 disables the cache.
+   */
+  @Config(NAMED_BLOB_CACHE_MAX_ENTRIES)
+  @Default("0")
+  public final int namedBlobCacheMaxEntries;
+
+  /**
+   * How long a cached named blob record is served without going to the {@link com.github.ambry.named.NamedBlobDb}.
+   * Updates made through other frontends can be missed for up to this long.
+   */
+  @Config(NAMED_BLOB_CACHE_TTL_MS)
+  @Default("5000")
+  public final long namedBlobCacheTtlMs;
+
+  /**
+   * How long a named blob that was not found is remembered as missing. 0 disables the caching of misses.
+   */
+  @Config(NAMED_BLOB_CACHE_NEGATIVE_TTL_MS)
+  @Default("1000")
+  public final long namedBlobCacheNegativeTtlMs;
+
   /**
    * The comma separated list of account names for which container metrics should not be generated.
    */
@@ -337,6 +363,11 @@ public class FrontendConfig {
     accountStatsStoreFactory =
         verifiableProperties.getString(ACCOUNT_STATS_STORE_FACTORY, DEFAULT_ACCOUNT_STATS_STORE_FACTORY);
     namedBlobDbFactory = verifiableProperties.getString(NAMED_BLOB_DB_FACTORY, null);
+    namedBlobCacheMaxEntries =
+        verifiableProperties.getIntInRange(NAMED_BLOB_CACHE_MAX_ENTRIES, 0, 0, Integer.MAX_VALUE);
+    namedBlobCacheTtlMs = verifiableProperties.getLongInRange(NAMED_BLOB_CACHE_TTL_MS, 5000, 0, Long.MAX_VALUE);
+    namedBlobCacheNegativeTtlMs =
+        verifiableProperties.getLongInRange(NAMED_BLOB_CACHE_NEGATIVE_TTL_MS, 1000, 0, Long.MAX_VALUE);
     containerMetricsExcludedAccounts =
         Utils.splitString(verifiableProperties.getString(CONTAINER_METRICS_EXCLUDED_ACCOUNTS, ""), ",");
   }
@@ -29,6 +29,7 @@ public class MySqlNamedBlobDbConfig {
   public static final String  QUERY_STALE_DATA_MAX_RESULTS = PREFIX + "query.stale.data.max.results";
   public static final String  STALE_DATA_RETENTION_DAYS = PREFIX + "stale.data.retention.days";
   public static final String TRANSACTION_ISOLATION_LEVEL = PREFIX + "transaction.isolation.level";
+  public static final String WRITE_BATCH_MAX_SIZE = PREFIX + "write.batch.max.size";
 
   /**
    * Serialized json array containing the information about all mysql end points.
@@ -92,6 +93,15 @@ public class MySqlNamedBlobDbConfig {
   @Config(TRANSACTION_ISOLATION_LEVEL)
   public final TransactionIsolationLevel transactionIsolationLevel;
 
+  /**
+   * The maximum number of upsert and TTL update writes that are coalesced into a single transaction in the local
+   * datacenter. Up to {@link #localPoolSize} batches are written at a time, and writes that arrive meanwhile are sent
+   * together in the next batch. 1 disables the batching, so that each write is its own transaction.
+   */
+  @Config(WRITE_BATCH_MAX_SIZE)
+  @Default("1")
+  public final int writeBatchMaxSize;
+
   public MySqlNamedBlobDbConfig(VerifiableProperties verifiableProperties) {
     this.dbInfo = verifiableProperties.getString(DB_INFO);
     this.localPoolSize = verifiableProperties.getIntInRange(LOCAL_POOL_SIZE, 5, 1, Integer.MAX_VALUE);
@@ -104,5 +114,6 @@ public class MySqlNamedBlobDbConfig {
     this.transactionIsolationLevel =
         verifiableProperties.getEnum(TRANSACTION_ISOLATION_LEVEL, TransactionIsolationLevel.class,
             TransactionIsolationLevel.TRANSACTION_NONE);
+    this.writeBatchMaxSize = verifiableProperties.getIntInRange(WRITE_BATCH_MAX_SIZE, 1, 1, Integer.MAX_VALUE);
   }
 }
@@ -276,6 +276,85 @@ public class ReplicationConfig {
   public final static String REPLICATION_REQUEST_NETWORK_POLL_TIMEOUT_MS =
       "replication.request.network.poll.timeout.ms";
 
+  /**
+   * The number of bytes of a store file requested at a time when a new replica is bootstrapped by copying the files of
+   * a peer. The peer may return smaller chunks if it caps the chunk size.
+   */
+  @Config(REPLICATION_FILE_COPY_CHUNK_SIZE_IN_BYTES)
+  @Default("8 * 1024 * 1024")
+  public final int replicationFileCopyChunkSizeInBytes;
+  public final static String REPLICATION_FILE_COPY_CHUNK_SIZE_IN_BYTES = "replication.file.copy.chunk.size.in.bytes";
+
+  /**
+   * If true, a replica that is added to this node copies the sealed log segment, index segment and bloom filter files
+   * of a peer before it starts replicating, and then replicates the rest of the log from that peer. A replica falls
+   * back to replicating the whole log if no peer could be copied from.
+   */
+  @Config(REPLICATION_FILE_COPY_BOOTSTRAP_ENABLED)
+  @Default("false")
+  public final boolean replicationFileCopyBootstrapEnabled;
+  public final static String REPLICATION_FILE_COPY_BOOTSTRAP_ENABLED = "replication.file.copy.bootstrap.enabled";
+
+  /**
+   * If true, replica threads rank the remote replicas by how far the local replica lags behind them. Lagging replicas
+   * are replicated first, with larger fetch sizes and without the throttle sleep between cycles, and replicas that are
+   * caught up are backed off.
+   */
+  @Config(REPLICATION_ENABLE_LAG_AWARE_SCHEDULING)
+  @Default("false")
+  public final boolean replicationEnableLagAwareScheduling;
+  public final static String REPLICATION_ENABLE_LAG_AWARE_SCHEDULING = "replication.enable.lag.aware.scheduling";
+
+  /**
+   * With lag aware scheduling, the lag in bytes at or below which a remote replica is considered caught up.
+   */
+  @Config(REPLICATION_LAG_AWARE_CAUGHT_UP_THRESHOLD_IN_BYTES)
+  @Default("4 * 1024 * 1024")
+  public final long replicationLagAwareCaughtUpThresholdInBytes;
+  public final static String REPLICATION_LAG_AWARE_CAUGHT_UP_THRESHOLD_IN_BYTES =
+      "replication.lag.aware.caught.up.threshold.in.bytes";
+
+  /**
+   * With lag aware scheduling, the maximum multiple of {@link #replicationFetchSizeInBytes} that is fetched from a
+   * lagging remote replica in one request. The fetch size grows with the lag up to this multiple.
+   */
+  @Config(REPLICATION_LAG_AWARE_MAX_FETCH_SIZE_MULTIPLIER)
+  @Default("8")
+  public final int replicationLagAwareMaxFetchSizeMultiplier;
+  public final static String REPLICATION_LAG_AWARE_MAX_FETCH_SIZE_MULTIPLIER =
+      "replication.lag.aware.max.fetch.size.multiplier";
+
+  /**
+   * With lag aware scheduling, the time (in ms) to back off a remote replica that is caught up, even if its token
+   * still moved forward. This is in addition to {@link #replicationSyncedReplicaBackoffDurationMs}.
+   */
+  @Config(REPLICATION_LAG_AWARE_CAUGHT_UP_BACKOFF_DURATION_MS)
+  @Default("1000")
+  public final long replicationLagAwareCaughtUpBackoffDurationMs;
+  public final static String REPLICATION_LAG_AWARE_CAUGHT_UP_BACKOFF_DURATION_MS =
+      "replication.lag.aware.caught.up.backoff.duration.ms";
+
+  /**
+   * With lag aware scheduling, the number of bytes per second a replica thread may replicate from one remote host
+   * before the fetch sizes of the lagging replicas on that host stop growing. 0 means no limit.
+   */
+  @Config(REPLICATION_LAG_AWARE_PER_HOST_BANDWIDTH_BYTES_PER_SEC)
+  @Default("0")
+  public final long replicationLagAwarePerHostBandwidthBytesPerSec;
+  public final static String REPLICATION_LAG_AWARE_PER_HOST_BANDWIDTH_BYTES_PER_SEC =
+      "replication.lag.aware.per.host.bandwidth.bytes.per.sec";
+
+  /**
+   * The name of the compression algorithm, LZ4 or ZSTD, that the servers of remote datacenters may compress the
+   * messages of get responses with. Empty to not ask for compression. Only set it once all the servers understand
+   * compressed get requests.
+   */
+  @Config(REPLICATION_INTER_COLO_GET_COMPRESSION_ALGORITHM)
+  @Default("")
+  public final String replicationInterColoGetCompressionAlgorithm;
+  public final static String REPLICATION_INTER_COLO_GET_COMPRESSION_ALGORITHM =
+      "replication.inter.colo.get.compression.algorithm";
+
   /**
    * The replication manager used to replicate objects from other backend servers.
    * DEFAULT_REPLICATION_THREAD as the name suggests is the current one.
@@ -382,5 +461,25 @@ public class ReplicationConfig {
         verifiableProperties.getBoolean(REPLICATION_USING_NONBLOCKING_NETWORK_CLIENT_FOR_REMOTE_COLO, false);
     replicationUsingNonblockingNetworkClientForLocalColo =
         verifiableProperties.getBoolean(REPLICATION_USING_NONBLOCKING_NETWORK_CLIENT_FOR_LOCAL_COLO, false);
+    replicationFileCopyChunkSizeInBytes =
+        verifiableProperties.getIntInRange(REPLICATION_FILE_COPY_CHUNK_SIZE_IN_BYTES, 8 * 1024 * 1024, 1,
+            Integer.MAX_VALUE);
+    replicationFileCopyBootstrapEnabled =
+        verifiableProperties.getBoolean(REPLICATION_FILE_COPY_BOOTSTRAP_ENABLED, false);
+    replicationEnableLagAwareScheduling =
+        verifiableProperties.getBoolean(REPLICATION_ENABLE_LAG_AWARE_SCHEDULING, false);
+    replicationLagAwareCaughtUpThresholdInBytes =
+        verifiableProperties.getLongInRange(REPLICATION_LAG_AWARE_CAUGHT_UP_THRESHOLD_IN_BYTES, 4 * 1024 * 1024, 0,
+            Long.MAX_VALUE);
+    replicationLagAwareMaxFetchSizeMultiplier =
+        verifiableProperties.getIntInRange(REPLICATION_LAG_AWARE_MAX_FETCH_SIZE_MULTIPLIER, 8, 1, 1024);
+    replicationLagAwareCaughtUpBackoffDurationMs =
+        verifiableProperties.getLongInRange(REPLICATION_LAG_AWARE_CAUGHT_UP_BACKOFF_DURATION_MS, 1000, 0,
+            Long.MAX_VALUE);
+    replicationLagAwarePerHostBandwidthBytesPerSec =
+        verifiableProperties.getLongInRange(REPLICATION_LAG_AWARE_PER_HOST_BANDWIDTH_BYTES_PER_SEC, 0, 0,
+            Long.MAX_VALUE);
+    replicationInterColoGetCompressionAlgorithm =
+        verifiableProperties.getString(REPLICATION_INTER_COLO_GET_COMPRESSION_ALGORITHM, "");
   }
 }
@@ -14,6 +14,7 @@
 package com.github.ambry.config;
 
 import com.github.ambry.router.OperationTrackerScope;
+import com.github.ambry.router.PartitionSelectionStrategy;
 import com.github.ambry.utils.Utils;
 import java.util.Collections;
 import java.util.List;
@@ -156,8 +157,23 @@ public class RouterConfig {
   // Whether or not to use paranoid durability
   public static final String ROUTER_PARANOID_DURABILITY_ENABLED = "router.paranoid.durability.enabled";
 
+  // The strategy used to select the partition of each chunk of a PUT
+  public static final String ROUTER_PUT_PARTITION_SELECTION_STRATEGY = "router.put.partition.selection.strategy";
+
+  // Whether the operation controller only polls the operations that are ready to make progress
+  public static final String ROUTER_OPERATION_CONTROLLER_READINESS_TRACKING_ENABLED =
+      "router.operation.controller.readiness.tracking.enabled";
+
+  // The interval at which the operation controller polls all the operations when readiness tracking is enabled
+  public static final String ROUTER_OPERATION_CONTROLLER_FULL_POLL_INTERVAL_MS =
+      "router.operation.controller.full.poll.interval.ms";
+
+  // Whether the data chunks of a composite blob GET are fetched by all the scaling units
+  public static final String ROUTER_GET_DATA_CHUNK_SPREADING_ENABLED = "router.get.data.chunk.spreading.enabled";
+
   /**
-   * Number of independent scaling units for the router.
+   * Number of independent scaling units for the router. If 0, the router creates one scaling unit per available
+   * processor.
    */
   @Config(ROUTER_SCALING_UNIT_COUNT)
   @Default("1")
@@ -393,7 +409,9 @@ public class RouterConfig {
   public final String routerCryptoServiceFactory;
 
   /**
-   * Number of crypto jobs worker count
+   * Number of crypto jobs worker count. The chunks of a composite blob are encrypted and decrypted by separate jobs, so
+   * more than one worker lets the chunks of a blob be processed in parallel. If 0, there is one worker per available
+   * processor.
    */
   @Config(ROUTER_CRYPTO_JOBS_WORKER_COUNT)
   @Default("1")
@@ -742,6 +760,41 @@ public class RouterConfig {
   @Default("false")
   public final boolean routerParanoidDurabilityEnabled;
 
+  /**
+   * The strategy used to select the partition of each chunk of a PUT. The valid strategies are defined in
+   * {@link PartitionSelectionStrategy}. PowerOfTwoChoices uses the latency histograms of PUT requests, which are only
+   * tracked per resource if {@link #routerOperationTrackerMetricScope} is not Datacenter.
+   */
+  @Config(ROUTER_PUT_PARTITION_SELECTION_STRATEGY)
+  @Default("Random")
+  public final PartitionSelectionStrategy routerPutPartitionSelectionStrategy;
+
+  /**
+   * {@code true} if the operation controller should only poll the operations that were submitted, got a response or
+   * were signalled by a chunk fill or decryption since the last poll, instead of all the operations on every loop.
+   */
+  @Config(ROUTER_OPERATION_CONTROLLER_READINESS_TRACKING_ENABLED)
+  @Default("false")
+  public final boolean routerOperationControllerReadinessTrackingEnabled;
+
+  /**
+   * When readiness tracking is enabled, the interval at which the operation controller still polls all the operations,
+   * so that request and operation timeouts are detected.
+   */
+  @Config(ROUTER_OPERATION_CONTROLLER_FULL_POLL_INTERVAL_MS)
+  @Default("100")
+  public final long routerOperationControllerFullPollIntervalMs;
+
+  /**
+   * {@code true} if the data chunks of a composite blob GET should be fetched by operations spread over all the scaling
+   * units of the router, instead of by the scaling unit handling the GET. The chunks are still written out to the
+   * {@link com.github.ambry.router.ReadableStreamChannel} of the GET in order. This has no effect with a single
+   * scaling unit.
+   */
+  @Config(ROUTER_GET_DATA_CHUNK_SPREADING_ENABLED)
+  @Default("false")
+  public final boolean routerGetDataChunkSpreadingEnabled;
+
   /**
    * Create a RouterConfig instance.
    * @param verifiableProperties the properties map to refer to.
@@ -754,7 +807,7 @@ public class RouterConfig {
     routerBlobMetadataCacheEnabled = verifiableProperties.getBoolean(ROUTER_BLOB_METADATA_CACHE_ENABLED, false);
     routerSmallestBlobForMetadataCache =
         verifiableProperties.getLong(ROUTER_SMALLEST_BLOB_FOR_METADATA_CACHE, NUM_BYTES_IN_ONE_TB);
-    routerScalingUnitCount = verifiableProperties.getIntInRange(ROUTER_SCALING_UNIT_COUNT, 1, 1, Integer.MAX_VALUE);
+    routerScalingUnitCount = verifiableProperties.getIntInRange(ROUTER_SCALING_UNIT_COUNT, 1, 0, Integer.MAX_VALUE);
     routerHostname = verifiableProperties.getString(ROUTER_HOSTNAME);
     routerDatacenterName = verifiableProperties.getString(ROUTER_DATACENTER_NAME);
     routerScalingUnitMaxConnectionsPerPortPlainText =
@@ -815,7 +868,7 @@ public class RouterConfig {
     routerCryptoServiceFactory =
         verifiableProperties.getString(ROUTER_CRYPTO_SERVICE_FACTORY, DEFAULT_CRYPTO_SERVICE_FACTORY);
     routerCryptoJobsWorkerCount =
-        verifiableProperties.getIntInRange(ROUTER_CRYPTO_JOBS_WORKER_COUNT, 1, 1, Integer.MAX_VALUE);
+        verifiableProperties.getIntInRange(ROUTER_CRYPTO_JOBS_WORKER_COUNT, 1, 0, Integer.MAX_VALUE);
     routerTtlUpdateRequestParallelism =
         verifiableProperties.getIntInRange(ROUTER_TTL_UPDATE_REQUEST_PARALLELISM, 3, 1, Integer.MAX_VALUE);
     routerTtlUpdateSuccessTarget =
@@ -906,6 +959,15 @@ public class RouterConfig {
         verifiableProperties.getInt(ROUTER_GET_OPERATION_MIN_LOCAL_REPLICA_COUNT_TO_PRIORITIZE_LOCAL,
             DEFAULT_ROUTER_GET_OPERATION_MIN_LOCAL_REPLICA_COUNT_TO_PRIORITIZE_LOCAL);
     routerParanoidDurabilityEnabled = verifiableProperties.getBoolean(ROUTER_PARANOID_DURABILITY_ENABLED, false);
+    String partitionSelectionStrategyStr = verifiableProperties.getString(ROUTER_PUT_PARTITION_SELECTION_STRATEGY,
+        PartitionSelectionStrategy.Random.name());
+    routerPutPartitionSelectionStrategy = PartitionSelectionStrategy.valueOf(partitionSelectionStrategyStr);
+    routerOperationControllerReadinessTrackingEnabled =
+        verifiableProperties.getBoolean(ROUTER_OPERATION_CONTROLLER_READINESS_TRACKING_ENABLED, false);
+    routerOperationControllerFullPollIntervalMs =
+        verifiableProperties.getLongInRange(ROUTER_OPERATION_CONTROLLER_FULL_POLL_INTERVAL_MS, 100L, 0, Long.MAX_VALUE);
+    routerGetDataChunkSpreadingEnabled =
+        verifiableProperties.getBoolean(ROUTER_GET_DATA_CHUNK_SPREADING_ENABLED, false);
   }
 
   /**
@@ -31,6 +31,22 @@ public class ServerConfig {
   public final int serverRequestHandlerNumOfThreads;
 
 
+  /**
+   * True to give each disk of the server its own request queue and pool of request handler threads on the HTTP/2 path.
+   * Requests are routed to the queue of the disk holding the partition they are for, so a slow disk only stalls the
+   * handlers of that disk. Requests that are not for a single partition go to the shared pool.
+   */
+  @Config("server.request.handler.per.disk.enabled")
+  @Default("false")
+  public final boolean serverRequestHandlerPerDiskEnabled;
+
+  /**
+   * The number of request handler threads for each disk when server.request.handler.per.disk.enabled is true.
+   */
+  @Config("server.request.handler.num.of.threads.per.disk")
+  @Default("2")
+  public final int serverRequestHandlerNumOfThreadsPerDisk;
+
   /**
    * The number of request handler threads used by the socket-server to process requests
    */
@@ -127,6 +143,37 @@ public class ServerConfig {
   @Config("server.repair.requests.db.factory")
   public final String serverRepairRequestsDbFactory;
 
+  /**
+   * The maximum number of bytes of a store file that are returned by a single file copy chunk request. Larger requests
+   * are served up to this size.
+   */
+  @Config("server.file.copy.max.chunk.size.in.bytes")
+  @Default("8 * 1024 * 1024")
+  public final int serverFileCopyMaxChunkSizeInBytes;
+
+  /**
+   * True to compress the messages of a get response when the request accepts a compression algorithm. Only the
+   * replication of remote datacenters asks for it, see replication.inter.colo.get.compression.algorithm.
+   */
+  @Config("server.get.response.compression.enabled")
+  @Default("true")
+  public final boolean serverGetResponseCompressionEnabled;
+
+  /**
+   * The minimum size of a message in a get response for it to be compressed.
+   */
+  @Config("server.get.response.compression.min.message.size.in.bytes")
+  @Default("1024")
+  public final int serverGetResponseCompressionMinMessageSizeInBytes;
+
+  /**
+   * The minimum ratio of the original size to the compressed size of a message in a get response for the compressed
+   * message to be sent. Messages that do not compress that well are sent as they are.
+   */
+  @Config("server.get.response.compression.min.compress.ratio")
+  @Default("1.1")
+  public final double serverGetResponseCompressionMinCompressRatio;
+
   /**
    * Server execution mode
    * - Data recovery mode
@@ -144,6 +191,10 @@ public class ServerConfig {
         verifiableProperties.getInt(SERVER_REQUEST_HANDLER_NUM_SOCKET_SERVER_THREADS,
             DEFAULT_SERVER_REQUEST_HANDLER_NUM_SOCKET_SERVER_THREADS);
     serverRequestHandlerNumOfThreads = verifiableProperties.getInt("server.request.handler.num.of.threads", 7);
+    serverRequestHandlerPerDiskEnabled =
+        verifiableProperties.getBoolean("server.request.handler.per.disk.enabled", false);
+    serverRequestHandlerNumOfThreadsPerDisk =
+        verifiableProperties.getIntInRange("server.request.handler.num.of.threads.per.disk", 2, 1, Integer.MAX_VALUE);
     serverSchedulerNumOfthreads = verifiableProperties.getInt("server.scheduler.num.of.threads", 10);
     serverStatsReportsToPublish =
         Utils.splitString(verifiableProperties.getString("server.stats.reports.to.publish", ""), ",");
@@ -167,5 +218,16 @@ public class ServerConfig {
     serverSecurityServiceFactory = verifiableProperties.getString("server.security.service.factory",
         "com.github.ambry.server.AmbryServerSecurityServiceFactory");
     serverRepairRequestsDbFactory = verifiableProperties.getString("server.repair.requests.db.factory", null);
+    serverFileCopyMaxChunkSizeInBytes =
+        verifiableProperties.getIntInRange("server.file.copy.max.chunk.size.in.bytes", 8 * 1024 * 1024, 1,
+            Integer.MAX_VALUE);
+    serverGetResponseCompressionEnabled =
+        verifiableProperties.getBoolean("server.get.response.compression.enabled", true);
+    serverGetResponseCompressionMinMessageSizeInBytes =
+        verifiableProperties.getIntInRange("server.get.response.compression.min.message.size.in.bytes", 1024, 1,
+            Integer.MAX_VALUE);
+    serverGetResponseCompressionMinCompressRatio =
+        verifiableProperties.getDoubleInRange("server.get.response.compression.min.compress.ratio", 1.1, 1.0,
+            Double.MAX_VALUE);
   }
 }
@@ -183,6 +183,14 @@ public class StoreConfig {
   @Default("false")
   public final boolean storeCompactionPurgeDeleteTombstone;
 
+  /**
+   * Whether compaction looks up the latest states of all the keys of an index segment under compaction in a single
+   * batched search of the index, instead of searching the index once for every key.
+   */
+  @Config("store.compaction.batch.latest.state.lookup.enabled")
+  @Default("false")
+  public final boolean storeCompactionBatchLatestStateLookupEnabled;
+
   /**
    * When a peer went offline for more than this amount of days, we would ignore this peer's remote token when checking
    * if a delete tombstone is valid or not. If the value for this configuration is 0, then this feature is disabled.
@@ -200,6 +208,15 @@ public class StoreConfig {
   @Default("10*1024*1024")
   public final int storeCompactionMinBufferSize;
 
+  /**
+   * The number of bundles of records that the compaction copy phase reads ahead on a separate thread, while the
+   * current bundle is written to the swap spaces. Every bundle read ahead uses a buffer of
+   * {@link #storeCompactionMinBufferSize} bytes. Read ahead is disabled if 0 or if bundle reads are disabled.
+   */
+  @Config("store.compaction.read.ahead.bundle.count")
+  @Default("0")
+  public final int storeCompactionReadAheadBundleCount;
+
   /**
    *The IndexSegmentValidEntryFilter type to use for compaction.
    */
@@ -674,6 +691,142 @@ public class StoreConfig {
   public final boolean storeBlockStaleBlobStoreToStart;
   public final static String storeBlockStaleBlobStoreToStartName = "store.block.stale.blob.store.to.start";
 
+  /**
+   * True to maintain an off-heap key locator per store that maps key fingerprints to the index segments holding the
+   * key, so that lookups only search those segments instead of probing every index segment.
+   */
+  @Config(storeKeyLocatorEnabledName)
+  @Default("false")
+  public final boolean storeKeyLocatorEnabled;
+  public final static String storeKeyLocatorEnabledName = "store.key.locator.enabled";
+
+  /**
+   * True to group concurrent puts to the same store into a single commit. The first put thread that acquires the store
+   * write lock writes all pending puts to the log and adds their entries to the index in one batch.
+   */
+  @Config(storeGroupCommitEnabledName)
+  @Default("false")
+  public final boolean storeGroupCommitEnabled;
+  public final static String storeGroupCommitEnabledName = "store.group.commit.enabled";
+
+  /**
+   * The maximum number of puts that are committed together when group commit is enabled.
+   */
+  @Config(storeGroupCommitMaxBatchSizeName)
+  @Default("64")
+  public final int storeGroupCommitMaxBatchSize;
+  public final static String storeGroupCommitMaxBatchSizeName = "store.group.commit.max.batch.size";
+
+  /**
+   * True to let the {@link com.github.ambry.store.DiskIOScheduler} of each disk adapt the rates of background I/O
+   * (compaction, hard delete and stats scans) to the latency of the disk, and to share the background budget between
+   * compaction and hard delete by weight.
+   */
+  @Config(storeDiskIoSchedulerAdaptiveEnabledName)
+  @Default("false")
+  public final boolean storeDiskIoSchedulerAdaptiveEnabled;
+  public final static String storeDiskIoSchedulerAdaptiveEnabledName = "store.disk.io.scheduler.adaptive.enabled";
+
+  /**
+   * The interval in milliseconds at which the background I/O budgets of a disk are adjusted.
+   */
+  @Config(storeDiskIoSchedulerAdjustIntervalMsName)
+  @Default("1000")
+  public final int storeDiskIoSchedulerAdjustIntervalMs;
+  public final static String storeDiskIoSchedulerAdjustIntervalMsName = "store.disk.io.scheduler.adjust.interval.ms";
+
+  /**
+   * The disk read and write time per MB of application I/O, in milliseconds and weighted by size over an adjustment
+   * interval, above which background I/O is slowed down.
+   */
+  @Config(storeDiskIoSchedulerTargetLatencyPerMbMsName)
+  @Default("50")
+  public final int storeDiskIoSchedulerTargetLatencyPerMbMs;
+  public final static String storeDiskIoSchedulerTargetLatencyPerMbMsName =
+      "store.disk.io.scheduler.target.latency.per.mb.ms";
+
+  /**
+   * The lowest percentage of the configured rates that background I/O can be slowed down to.
+   */
+  @Config(storeDiskIoSchedulerMinBudgetPercentageName)
+  @Default("10")
+  public final int storeDiskIoSchedulerMinBudgetPercentage;
+  public final static String storeDiskIoSchedulerMinBudgetPercentageName =
+      "store.disk.io.scheduler.min.budget.percentage";
+
+  /**
+   * The weight of compaction when it shares the background budget of a disk with hard delete.
+   */
+  @Config(storeDiskIoSchedulerCompactionWeightName)
+  @Default("3")
+  public final int storeDiskIoSchedulerCompactionWeight;
+  public final static String storeDiskIoSchedulerCompactionWeightName = "store.disk.io.scheduler.compaction.weight";
+
+  /**
+   * The weight of hard delete when it shares the background budget of a disk with compaction.
+   */
+  @Config(storeDiskIoSchedulerHardDeleteWeightName)
+  @Default("1")
+  public final int storeDiskIoSchedulerHardDeleteWeight;
+  public final static String storeDiskIoSchedulerHardDeleteWeightName = "store.disk.io.scheduler.hard.delete.weight";
+
+  /**
+   * The size in bytes of the direct memory cache of recently read blob records that is shared by all the stores of
+   * the host. The cache is disabled if the size is 0.
+   */
+  @Config(storeBlobReadCacheSizeInBytesName)
+  @Default("0")
+  public final long storeBlobReadCacheSizeInBytes;
+  public final static String storeBlobReadCacheSizeInBytesName = "store.blob.read.cache.size.in.bytes";
+
+  /**
+   * The maximum size in bytes of a record in the blob read cache. Larger blobs only have the prefix of their record
+   * that holds the blob properties and user metadata cached.
+   */
+  @Config(storeBlobReadCacheMaxEntrySizeInBytesName)
+  @Default("65536")
+  public final int storeBlobReadCacheMaxEntrySizeInBytes;
+  public final static String storeBlobReadCacheMaxEntrySizeInBytesName =
+      "store.blob.read.cache.max.entry.size.in.bytes";
+
+  /**
+   * The number of threads per disk that start the stores of the disk. If 0, each store is started by its own thread.
+   */
+  @Config(storeStartupThreadsPerDiskName)
+  @Default("0")
+  public final int storeStartupThreadsPerDisk;
+  public final static String storeStartupThreadsPerDiskName = "store.startup.threads.per.disk";
+
+  /**
+   * If true, the CRC check of sealed index segments and the rebuild of their missing or corrupt bloom filters are not
+   * done when the store starts, but by a background task once the store is started. The task runs on a dedicated
+   * thread per disk, so that it validates one store of the disk at a time. A store whose index fails the check is shut
+   * down and disabled like a store with too many I/O errors, and validates its whole index the next time it starts.
+   */
+  @Config(storeDeferSealedIndexSegmentValidationName)
+  @Default("false")
+  public final boolean storeDeferSealedIndexSegmentValidation;
+  public final static String storeDeferSealedIndexSegmentValidationName =
+      "store.defer.sealed.index.segment.validation";
+
+  /**
+   * The max rate of I/O allowed per disk for the deferred validation of sealed index segments.
+   */
+  @Config(storeDeferredValidationBytesPerSecName)
+  @Default("50*1024*1024")
+  public final int storeDeferredValidationBytesPerSec;
+  public final static String storeDeferredValidationBytesPerSecName = "store.deferred.validation.bytes.per.sec";
+
+  /**
+   * If true, index segments use bloom filters that keep all the bits of a key in one cache line. Bloom filters that are
+   * already persisted keep their format until they are rebuilt, for instance with
+   * {@link #storeIndexRebuildBloomFilterEnabled}.
+   */
+  @Config(storeBlockedBloomFilterEnabledName)
+  @Default("false")
+  public final boolean storeBlockedBloomFilterEnabled;
+  public final static String storeBlockedBloomFilterEnabledName = "store.blocked.bloom.filter.enabled";
+
   public StoreConfig(VerifiableProperties verifiableProperties) {
     storeKeyFactory = verifiableProperties.getString("store.key.factory", "com.github.ambry.commons.BlobIdFactory");
     storeDataFlushIntervalSeconds = verifiableProperties.getLong("store.data.flush.interval.seconds", 60);
@@ -712,9 +865,13 @@ public class StoreConfig {
         verifiableProperties.getIntInRange(storeCompactionDirectIOBufferSizeName, 0, 0, 100 * 1024 * 1024);
     storeCompactionPurgeDeleteTombstone =
         verifiableProperties.getBoolean("store.compaction.purge.delete.tombstone", false);
+    storeCompactionBatchLatestStateLookupEnabled =
+        verifiableProperties.getBoolean("store.compaction.batch.latest.state.lookup.enabled", false);
 
     storeCompactionMinBufferSize =
         verifiableProperties.getIntInRange("store.compaction.min.buffer.size", 10 * 1024 * 1024, 0, Integer.MAX_VALUE);
+    storeCompactionReadAheadBundleCount =
+        verifiableProperties.getIntInRange("store.compaction.read.ahead.bundle.count", 0, 0, 16);
     storeCompactionFilter =
         verifiableProperties.getString("store.compaction.filter", "IndexSegmentValidEntryFilterWithoutUndelete");
     storeEnableHardDelete = verifiableProperties.getBoolean("store.enable.hard.delete", false);
@@ -852,5 +1009,33 @@ public class StoreConfig {
         verifiableProperties.getIntInRange(storeProactiveTestDelayInSecondsName, 60, 0, Integer.MAX_VALUE);
     storeStaleTimeInDays = verifiableProperties.getIntInRange(storeStaleTimeInDaysName, 7, 0, Integer.MAX_VALUE);
     storeBlockStaleBlobStoreToStart = verifiableProperties.getBoolean(storeBlockStaleBlobStoreToStartName, false);
+    storeKeyLocatorEnabled = verifiableProperties.getBoolean(storeKeyLocatorEnabledName, false);
+    storeGroupCommitEnabled = verifiableProperties.getBoolean(storeGroupCommitEnabledName, false);
+    storeGroupCommitMaxBatchSize =
+        verifiableProperties.getIntInRange(storeGroupCommitMaxBatchSizeName, 64, 1, Integer.MAX_VALUE);
+    storeDiskIoSchedulerAdaptiveEnabled =
+        verifiableProperties.getBoolean(storeDiskIoSchedulerAdaptiveEnabledName, false);
+    storeDiskIoSchedulerAdjustIntervalMs =
+        verifiableProperties.getIntInRange(storeDiskIoSchedulerAdjustIntervalMsName, 1000, 1, Integer.MAX_VALUE);
+    storeDiskIoSchedulerTargetLatencyPerMbMs =
+        verifiableProperties.getIntInRange(storeDiskIoSchedulerTargetLatencyPerMbMsName, 50, 1, Integer.MAX_VALUE);
+    storeDiskIoSchedulerMinBudgetPercentage =
+        verifiableProperties.getIntInRange(storeDiskIoSchedulerMinBudgetPercentageName, 10, 1, 100);
+    storeDiskIoSchedulerCompactionWeight =
+        verifiableProperties.getIntInRange(storeDiskIoSchedulerCompactionWeightName, 3, 1, Integer.MAX_VALUE);
+    storeDiskIoSchedulerHardDeleteWeight =
+        verifiableProperties.getIntInRange(storeDiskIoSchedulerHardDeleteWeightName, 1, 1, Integer.MAX_VALUE);
+    storeBlobReadCacheSizeInBytes =
+        verifiableProperties.getLongInRange(storeBlobReadCacheSizeInBytesName, 0, 0, Long.MAX_VALUE);
+    storeBlobReadCacheMaxEntrySizeInBytes =
+        verifiableProperties.getIntInRange(storeBlobReadCacheMaxEntrySizeInBytesName, 65536, 1, Integer.MAX_VALUE);
+    storeStartupThreadsPerDisk =
+        verifiableProperties.getIntInRange(storeStartupThreadsPerDiskName, 0, 0, Integer.MAX_VALUE);
+    storeDeferSealedIndexSegmentValidation =
+        verifiableProperties.getBoolean(storeDeferSealedIndexSegmentValidationName, false);
+    storeDeferredValidationBytesPerSec =
+        verifiableProperties.getIntInRange(storeDeferredValidationBytesPerSecName, 50 * 1024 * 1024, 1,
+            Integer.MAX_VALUE);
+    storeBlockedBloomFilterEnabled = verifiableProperties.getBoolean(storeBlockedBloomFilterEnabledName, false);
   }
 }
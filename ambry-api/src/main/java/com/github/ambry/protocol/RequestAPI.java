@@ -106,4 +106,24 @@ public interface RequestAPI {
   default void handleUndeleteRequest(NetworkRequest request) throws InterruptedException, IOException {
     throw new UnsupportedOperationException("Undelete request not supported on this node");
   }
+
+  /**
+   * Lists the store files of a partition that can be copied to bootstrap a new replica.
+   * @param request the request that contains the partition whose files are needed.
+   * @throws IOException if there are I/O errors carrying our the required operation.
+   * @throws InterruptedException if request processing is interrupted.
+   */
+  default void handleFileCopyMetadataRequest(NetworkRequest request) throws InterruptedException, IOException {
+    throw new UnsupportedOperationException("File copy metadata request not supported on this node");
+  }
+
+  /**
+   * Reads a range of a store file that can be copied to bootstrap a new replica.
+   * @param request the request that contains the partition, the name of the file and the range to read.
+   * @throws IOException if there are I/O errors carrying our the required operation.
+   * @throws InterruptedException if request processing is interrupted.
+   */
+  default void handleFileCopyChunkRequest(NetworkRequest request) throws InterruptedException, IOException {
+    throw new UnsupportedOperationException("File copy chunk request not supported on this node");
+  }
 }
@@ -0,0 +1,23 @@
+/*
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.router;
+
+/**
+ * The strategy used by the router to select the partition of each chunk of a PUT. Random selects a writable partition
+ * uniformly at random. PowerOfTwoChoices selects two writable partitions at random and uses the one whose local
+ * replicas are expected to respond faster, based on their recent latencies and their requests in flight.
+ */
+public enum PartitionSelectionStrategy {
+  Random, PowerOfTwoChoices
+}
@@ -13,12 +13,20 @@
  */
 package com.github.ambry.store;
 
+import java.nio.ByteBuffer;
+
+
 /**
  * Represents the index key. To make an object part of an index key,
  * this interface can be implemented
  */
 public abstract class StoreKey implements Comparable<StoreKey> {
 
+  /**
+   * Returned by {@link #compareToSerialized} when the serialized key has to be deserialized to be compared.
+   */
+  public static final int SERIALIZED_COMPARISON_UNSUPPORTED = Integer.MIN_VALUE;
+
   /**
    * The byte version of this key
    * @return A byte buffer that represents the key
@@ -53,4 +61,41 @@ public abstract class StoreKey implements Comparable<StoreKey> {
    * @return the long form of the key
    */
   public abstract String getLongForm();
+
+  /**
+   * Compares this key with a key serialized by {@link #toBytes()}, without deserializing it. The result has to be
+   * consistent with {@link #compareTo}, so that sorted serialized keys can be searched without creating a key for
+   * each of them. Keys that do not support this return {@link #SERIALIZED_COMPARISON_UNSUPPORTED}.
+   * @param buffer the buffer that holds the serialized key. Its position is not changed.
+   * @param position the absolute position of the serialized key in {@code buffer}.
+   * @return -1, 0 or 1 as this key is less than, equal to or greater than the serialized key, or
+   *         {@link #SERIALIZED_COMPARISON_UNSUPPORTED} if the serialized key has to be deserialized to be compared.
+   */
+  public int compareToSerialized(ByteBuffer buffer, int position) {
+    return SERIALIZED_COMPARISON_UNSUPPORTED;
+  }
+
+  /**
+   * Compares the bytes of a string of this key with the bytes of a string of a serialized key. The result is the same
+   * as the one of {@link String#compareTo} if the strings are equal, if one is a prefix of the other, or if the first
+   * bytes that differ are ASCII characters.
+   * @param bytes the bytes of the string of this key.
+   * @param buffer the buffer that holds the string of the serialized key. Its position is not changed.
+   * @param position the absolute position of the bytes of the string in {@code buffer}.
+   * @param length the number of bytes of the string in {@code buffer}.
+   * @return -1, 0 or 1 as the string of this key is less than, equal to or greater than the serialized string, or
+   *         {@link #SERIALIZED_COMPARISON_UNSUPPORTED} if the first bytes that differ are not both ASCII characters.
+   */
+  protected static int compareToSerializedString(byte[] bytes, ByteBuffer buffer, int position, int length) {
+    int commonLength = Math.min(bytes.length, length);
+    for (int i = 0; i < commonLength; i++) {
+      byte b = bytes[i];
+      byte other = buffer.get(position + i);
+      if (b != other) {
+        // a negative byte is part of a multi-byte character, which may not be ordered the same as a UTF-16 string.
+        return b < 0 || other < 0 ? SERIALIZED_COMPARISON_UNSUPPORTED : (b < other ? -1 : 1);
+      }
+    }
+    return Integer.signum(Integer.compare(bytes.length, length));
+  }
 }
@@ -103,9 +103,10 @@ public class AccountContainerTest {
   // Newly added fields to Container (2022/10/19)
   private List<Long> refContainerCacheTtlInSeconds;
   private List<Set<String>> refContainerUserMetadataKeysToNotPrefixInResponses;
+  private List<Map<String, Long>> refContainerCompressionDictionaryIds;
 
   private List<String> newContainerFieldNames =
-      Arrays.asList("cacheTtlInSecond", "userMetadataKeysToNotPrefixInResponse");
+      Arrays.asList("cacheTtlInSecond", "userMetadataKeysToNotPrefixInResponse", "compressionDictionaryIds");
 
   /**
    * Initialize the metadata in JsonObject for account and container.
@@ -724,9 +725,11 @@ public class AccountContainerTest {
       assertEquals(Container.CACHE_TTL_IN_SECOND_DEFAULT_VALUE, deseriazlied.getCacheTtlInSecond());
       assertEquals(USER_METADATA_KEYS_TO_NOT_PREFIX_IN_RESPONSE_DEFAULT_VALUE,
           deseriazlied.getUserMetadataKeysToNotPrefixInResponse());
+      assertEquals(COMPRESSION_DICTIONARY_IDS_DEFAULT_VALUE, deseriazlied.getCompressionDictionaryIds());
 
       Container newContainer = new ContainerBuilder(deseriazlied).setCacheTtlInSecond(container.getCacheTtlInSecond())
           .setUserMetadataKeysToNotPrefixInResponse(container.getUserMetadataKeysToNotPrefixInResponse())
+          .setCompressionDictionaryIds(container.getCompressionDictionaryIds())
           .setParentAccountId(container.getParentAccountId())
           .build();
 
@@ -833,6 +836,7 @@ public class AccountContainerTest {
         .setSnapshotVersion(container.getSnapshotVersion())
         .setCacheTtlInSecond(container.getCacheTtlInSecond())
         .setUserMetadataKeysToNotPrefixInResponse(container.getUserMetadataKeysToNotPrefixInResponse())
+        .setCompressionDictionaryIds(container.getCompressionDictionaryIds())
         .build();
   }
 
@@ -930,6 +934,11 @@ public class AccountContainerTest {
                 : refContainerUserMetadataKeysToNotPrefixInResponses.get(index);
         assertEquals("Wrong user metadata keys to not prefix in response",
             expectedUserMetadataKeysToNotPrefixInResponse, container.getUserMetadataKeysToNotPrefixInResponse());
+        Map<String, Long> expectedCompressionDictionaryIds =
+            refContainerCompressionDictionaryIds.get(index) == null ? Collections.emptyMap()
+                : refContainerCompressionDictionaryIds.get(index);
+        assertEquals("Wrong compression dictionary ids", expectedCompressionDictionaryIds,
+            container.getCompressionDictionaryIds());
         break;
       default:
         throw new IllegalStateException("Unsupported version: " + Container.getCurrentJsonVersion());
@@ -994,7 +1003,7 @@ public class AccountContainerTest {
     TestUtils.assertException(exceptionClass, () -> {
       new Container((short) 0, name, status, "description", encrypted, previouslyEncrypted, false, false, false, null, false,
           false, Collections.emptySet(), false, false, getRandomNamedBlobMode(), (short) 0, System.currentTimeMillis(),
-          System.currentTimeMillis(), 0, null, null, null);
+          System.currentTimeMillis(), 0, null, null, null, null);
     }, null);
   }
 
@@ -1040,6 +1049,7 @@ public class AccountContainerTest {
     refAccessControlAllowOriginValues = new ArrayList<>();
     refContainerCacheTtlInSeconds = new ArrayList<>();
     refContainerUserMetadataKeysToNotPrefixInResponses = new ArrayList<>();
+    refContainerCompressionDictionaryIds = new ArrayList<>();
     Set<Short> containerIdSet = new HashSet<>();
     Set<String> containerNameSet = new HashSet<>();
     for (int i = 0; i < CONTAINER_COUNT; i++) {
@@ -1074,12 +1084,16 @@ public class AccountContainerTest {
       if (i == 0) {
         refContainerContentTypeAllowListForFilenamesOnDownloadValues.add(null);
         refContainerUserMetadataKeysToNotPrefixInResponses.add(null);
+        refContainerCompressionDictionaryIds.add(null);
       } else if (i == 1) {
         refContainerContentTypeAllowListForFilenamesOnDownloadValues.add(Collections.emptySet());
         refContainerUserMetadataKeysToNotPrefixInResponses.add(Collections.emptySet());
+        refContainerCompressionDictionaryIds.add(Collections.emptyMap());
       } else {
         refContainerContentTypeAllowListForFilenamesOnDownloadValues.add(getRandomStringSet());
         refContainerUserMetadataKeysToNotPrefixInResponses.add(getRandomStringSet());
+        refContainerCompressionDictionaryIds.add(
+            Collections.singletonMap("application/json", (long) random.nextInt(Integer.MAX_VALUE) + 1));
       }
       refContainerLastModifiedTimes.add(System.currentTimeMillis());
       refContainerSnapshotVersions.add(random.nextInt());
@@ -1102,7 +1116,8 @@ public class AccountContainerTest {
           refContainerOverrideAccountAcls.get(i), refContainerNamedBlobModes.get(i), refAccountId,
           refContainerDeleteTriggerTime.get(i), refContainerLastModifiedTimes.get(i),
           refContainerSnapshotVersions.get(i), refAccessControlAllowOriginValues.get(i),
-          refContainerCacheTtlInSeconds.get(i), refContainerUserMetadataKeysToNotPrefixInResponses.get(i)));
+          refContainerCacheTtlInSeconds.get(i), refContainerUserMetadataKeysToNotPrefixInResponses.get(i),
+          refContainerCompressionDictionaryIds.get(i)));
     }
   }
 
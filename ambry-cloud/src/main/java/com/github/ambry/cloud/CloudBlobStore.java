@@ -1287,6 +1287,17 @@ public class CloudBlobStore implements Store {
   @Override
   public Set<StoreKey> findMissingKeys(List<StoreKey> keys) throws StoreException {
     Set<StoreKey> missingKeys = new HashSet<>();
+    if (cloudConfig.ambryBackupVersion.equals(CloudConfig.AMBRY_BACKUP_VERSION_2) && keys.size() > 1) {
+      // Look up all keys in one call, so that the destination can check them concurrently.
+      try {
+        Map<String, CloudBlobMetadata> cloudBlobMetadataMap = cloudDestination.getBlobMetadataAsync(
+            keys.stream().map(k -> (BlobId) k).collect(Collectors.toList())).join();
+        keys.stream().filter(k -> !cloudBlobMetadataMap.containsKey(k.getID())).forEach(missingKeys::add);
+        return missingKeys;
+      } catch (CompletionException e) {
+        // Check the keys one by one below, so that an error for one key does not hide the others.
+      }
+    }
     keys.stream().forEach(k -> {
       try {
         if (!cloudDestination.getBlobMetadata(Collections.singletonList((BlobId) k)).containsKey(k.getID())) {
@@ -14,6 +14,7 @@
 package com.github.ambry.cloud;
 
 import com.azure.core.http.rest.PagedResponse;
+import com.azure.data.tables.models.TableEntity;
 import com.azure.storage.blob.models.BlobItem;
 import com.azure.storage.blob.models.BlobListDetails;
 import com.azure.storage.blob.models.ListBlobsOptions;
@@ -22,6 +23,7 @@ import com.github.ambry.account.AccountService;
 import com.github.ambry.cloud.azure.AzureBlobLayoutStrategy;
 import com.github.ambry.cloud.azure.AzureCloudConfig;
 import com.github.ambry.cloud.azure.AzureCloudDestinationSync;
+import com.github.ambry.cloud.azure.PackedBlobEntry;
 import com.github.ambry.clustermap.ClusterMap;
 import com.github.ambry.clustermap.DataNodeId;
 import com.github.ambry.commons.BlobId;
@@ -50,6 +52,7 @@ import com.github.ambry.server.StoreManager;
 import com.github.ambry.store.MessageInfo;
 import com.github.ambry.store.StoreKey;
 import com.github.ambry.utils.AbstractByteBufHolder;
+import com.github.ambry.utils.Pair;
 import com.github.ambry.utils.Utils;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
@@ -77,6 +80,8 @@ import org.slf4j.LoggerFactory;
  */
 public class RecoveryNetworkClient implements NetworkClient {
   private final static Logger logger = LoggerFactory.getLogger(RecoveryNetworkClient.class);
+  // Prefix of the continuation token of the listing of packed blobs, which follows the listing of the Azure container
+  private final static String PACKED_BLOBS_TOKEN = "packed:";
   private final ClusterMap clustermap;
   private final StoreManager storeManager;
   private final ConcurrentHashMap<StoreKey, MessageInfo> messageInfoCache;
@@ -189,16 +194,38 @@ public class RecoveryNetworkClient implements NetworkClient {
       }
 
       // List N blobs with metadata from Azure storage from prev token position
-      ListBlobsOptions listBlobsOptions = new ListBlobsOptions()
-          .setDetails(new BlobListDetails().setRetrieveMetadata(true))
-          .setMaxResultsPerPage(azureCloudConfig.azureBlobStorageMaxResultsPerPage);
-      PagedResponse<BlobItem> response;
+      boolean listingPackedBlobs = prevToken.getToken() != null && prevToken.getToken().startsWith(PACKED_BLOBS_TOKEN);
+      List<Pair<String, Map<String, String>>> blobList = new ArrayList<>();
+      String nextToken;
       try {
-        response = azureSyncClient.getBlobStoreCached(containerName)
-            .listBlobs(listBlobsOptions, null)
-            .iterableByPage(prevToken.getToken())
-            .iterator()
-            .next();
+        if (listingPackedBlobs) {
+          // Blobs stored in packs are listed from the packed-blobs table after the blobs stored on their own
+          String tableToken = prevToken.getToken().substring(PACKED_BLOBS_TOKEN.length());
+          PagedResponse<TableEntity> response = azureSyncClient.listPackedBlobs(containerName,
+              tableToken.isEmpty() ? null : tableToken, azureCloudConfig.azureBlobStorageMaxResultsPerPage);
+          for (TableEntity tableEntity : response.getValue()) {
+            PackedBlobEntry entry = PackedBlobEntry.fromTableEntity(tableEntity);
+            blobList.add(new Pair<>(entry.getBlobName(), entry.getMetadata()));
+          }
+          nextToken = response.getContinuationToken() == null ? null
+              : PACKED_BLOBS_TOKEN + response.getContinuationToken();
+        } else {
+          ListBlobsOptions listBlobsOptions = new ListBlobsOptions()
+              .setDetails(new BlobListDetails().setRetrieveMetadata(true))
+              .setMaxResultsPerPage(azureCloudConfig.azureBlobStorageMaxResultsPerPage);
+          PagedResponse<BlobItem> response = azureSyncClient.getBlobStoreCached(containerName)
+              .listBlobs(listBlobsOptions, null)
+              .iterableByPage(prevToken.getToken())
+              .iterator()
+              .next();
+          for (BlobItem blobItem : response.getValue()) {
+            blobList.add(new Pair<>(blobItem.getName(), blobItem.getMetadata()));
+          }
+          nextToken = response.getContinuationToken();
+          if (nextToken == null && azureCloudConfig.azureBlobPackingEnabled) {
+            nextToken = PACKED_BLOBS_TOKEN;
+          }
+        }
         recoveryMetrics.listBlobsSuccessRate.mark();
         clientCallback.onListBlobs(rinfo);
       } catch (Throwable t) {
@@ -213,10 +240,10 @@ public class RecoveryNetworkClient implements NetworkClient {
       }
 
       // Extract ambry metadata
-      logger.trace("For container {}, number of blobItems from Azure = {}", containerName, response.getValue().size());
+      logger.trace("For container {}, number of blobs from Azure = {}", containerName, blobList.size());
       long bytesRead = 0, blobsRead = 0;
-      for (BlobItem blobItem: response.getValue()) {
-        MessageInfo messageInfo = getMessageInfo(blobItem);
+      for (Pair<String, Map<String, String>> blob : blobList) {
+        MessageInfo messageInfo = getMessageInfo(blob.getFirst(), blob.getSecond());
         if (messageInfo != null) {
           messageInfoList.add(messageInfo);
           messageInfoCache.put(messageInfo.getStoreKey(), messageInfo);
@@ -230,7 +257,7 @@ public class RecoveryNetworkClient implements NetworkClient {
       responseList.add(
           new ReplicaMetadataResponseInfo(rinfo.getPartitionId(), rinfo.getReplicaType(),
               new RecoveryToken(prevToken, rinfo.getPartitionId().getId(), containerName,
-                  response.getContinuationToken(), blobsRead, bytesRead),
+                  nextToken, blobsRead, bytesRead),
               messageInfoList,
               // Lag metric is useless here as we can't find out size of a container using Azure APIs
               0,
@@ -243,12 +270,12 @@ public class RecoveryNetworkClient implements NetworkClient {
   }
 
   /**
-   * Create {@link MessageInfo} object from {@link BlobItem} object.
-   * @param blobItem {@link BlobItem} object.
+   * Create {@link MessageInfo} object from the name and Ambry metadata of a blob in Azure.
+   * @param blobName name of the blob, from a {@link BlobItem} or a {@link PackedBlobEntry}.
+   * @param metadata Ambry metadata of the blob.
    * @return {@link MessageInfo} object.
    */
-  private MessageInfo getMessageInfo(BlobItem blobItem) {
-    Map<String, String> metadata = blobItem.getMetadata();
+  private MessageInfo getMessageInfo(String blobName, Map<String, String> metadata) {
     try {
       /**
        * Azure blob metadata contains a field expiryTimeMs.
@@ -261,7 +288,7 @@ public class RecoveryNetworkClient implements NetworkClient {
        *
        * We don't upload CRC during backups. This is probably an issue.
        */
-      return new MessageInfo(new BlobId(blobItem.getName(), clustermap),
+      return new MessageInfo(new BlobId(blobName, clustermap),
           Long.parseLong(metadata.get(CloudBlobMetadata.FIELD_SIZE)),
           metadata.containsKey(CloudBlobMetadata.FIELD_DELETION_TIME),
           false,
@@ -277,7 +304,7 @@ public class RecoveryNetworkClient implements NetworkClient {
     } catch (Exception e) {
       recoveryMetrics.metadataError.inc();
       logger.error("Failed to create MessageInfo for blob-id {} from Azure blob metadata due to {}",
-          blobItem.getName(), e);
+          blobName, e);
       e.printStackTrace();
     }
     return null;
@@ -16,6 +16,7 @@ package com.github.ambry.cloud.azure;
 import com.github.ambry.cloud.CloudBlobMetadata;
 import com.github.ambry.commons.BlobId;
 import com.github.ambry.utils.Utils;
+import java.util.UUID;
 
 
 /**
@@ -32,6 +33,8 @@ public class AzureBlobLayoutStrategy {
   private static final String BLOB_NAME_SEPARATOR = DASH;
   // Note: Azure container name needs to be lower case
   private static final String TOKEN_CONTAINER_NAME = "replicatokens";
+  private static final String PACK_CONTAINER_SUFFIX = "packs";
+  private static final String PACK_NAME_PREFIX = "pack" + DASH;
   private final String clusterName;
   private int currentVersion;
   private BlobContainerStrategy blobContainerStrategy;
@@ -135,6 +138,24 @@ public class AzureBlobLayoutStrategy {
     }
   }
 
+  /**
+   * Packs are kept in a container next to the container of the blobs they hold, so that they do not show up when the
+   * blobs of a container are listed, such as by compaction and recovery.
+   * @return the {@link BlobLayout} for a pack of small blobs.
+   * @param dataContainerName the Azure container of the blobs in the pack.
+   * @param packName the name of the pack, see {@link #newPackName()}.
+   */
+  public BlobLayout getPackBlobLayout(String dataContainerName, String packName) {
+    return new BlobLayout(dataContainerName + DASH + PACK_CONTAINER_SUFFIX, packName);
+  }
+
+  /**
+   * @return a new unique name for a pack of small blobs.
+   */
+  public String newPackName() {
+    return PACK_NAME_PREFIX + UUID.randomUUID();
+  }
+
   /**
    * Gets the Azure container name for the blob, depending on the configured strategy.
    * @param blobMetadata the {@link CloudBlobMetadata} to store.
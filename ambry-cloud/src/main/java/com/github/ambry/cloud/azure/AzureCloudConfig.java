@@ -63,6 +63,12 @@ public class AzureCloudConfig {
   public static final String CONTAINER_COMPACTION_COSMOS_QUERY_LIMIT = "container.compaction.cosmos.query.limit";
   public static final String CONTAINER_COMPACTION_ABS_PURGE_LIMIT = "container.compaction.abs.purge.limit";
   public static final String AZURE_STORAGE_CLIENT_REFRESH_FACTOR = "azure.storage.client.refresh.factor";
+  public static final String AZURE_SYNC_MAX_CONCURRENT_REQUESTS = "azure.sync.max.concurrent.requests";
+  public static final String AZURE_BLOB_PACKING_ENABLED = "azure.blob.packing.enabled";
+  public static final String AZURE_BLOB_PACKING_MAX_BLOB_SIZE_IN_BYTES = "azure.blob.packing.max.blob.size.in.bytes";
+  public static final String AZURE_BLOB_PACKING_MAX_PACK_SIZE_IN_BYTES = "azure.blob.packing.max.pack.size.in.bytes";
+  public static final String AZURE_BLOB_PACKING_COMPACTION_MIN_LIVE_RATIO =
+      "azure.blob.packing.compaction.min.live.ratio";
   // Per docs.microsoft.com/en-us/rest/api/storageservices/blob-batch
   public static final int MAX_PURGE_BATCH_SIZE = 256;
   public static final int DEFAULT_PURGE_BATCH_SIZE = 100;
@@ -73,6 +79,10 @@ public class AzureCloudConfig {
   public static final int DEFAULT_CONTAINER_COMPACTION_COSMOS_QUERY_LIMIT = 100;
   public static final int DEFAULT_CONTAINER_COMPACTION_ABS_PURGE_LIMIT = 100;
   public static final double DEFAULT_AZURE_STORAGE_CLIENT_REFRESH_FACTOR = 0.9F;
+  public static final int DEFAULT_AZURE_SYNC_MAX_CONCURRENT_REQUESTS = 1;
+  public static final int DEFAULT_AZURE_BLOB_PACKING_MAX_BLOB_SIZE_IN_BYTES = 16 * 1024;
+  public static final int DEFAULT_AZURE_BLOB_PACKING_MAX_PACK_SIZE_IN_BYTES = 4 * 1024 * 1024;
+  public static final double DEFAULT_AZURE_BLOB_PACKING_COMPACTION_MIN_LIVE_RATIO = 0.5;
 
   public static final int DEFAULT_NAME_SCHEME_VERSION = 0;
   public static final String DEFAULT_CONTAINER_STRATEGY = "Partition";
@@ -251,6 +261,14 @@ public class AzureCloudConfig {
   @Config(AZURE_TABLE_NAME_REPLICA_TOKENS)
   public final String azureTableNameReplicaTokens;
 
+  /**
+   * The Azure Table name for the index of packed blobs.
+   */
+  public static final String AZURE_TABLE_NAME_PACKED_BLOBS = "azure.table.name.packed.blobs";
+  public static final String DEFAULT_AZURE_TABLE_NAME_PACKED_BLOBS = "packedBlobs";
+  @Config(AZURE_TABLE_NAME_PACKED_BLOBS)
+  public final String azureTableNamePackedBlobs;
+
   /**
    * The Cosmos DB endpoint.
    */
@@ -442,6 +460,41 @@ public class AzureCloudConfig {
   @Config(AZURE_STORAGE_CLIENT_REFRESH_FACTOR)
   public double azureStorageClientRefreshFactor;
 
+  /**
+   * Maximum number of requests to Azure blob storage that AzureCloudDestinationSync runs at the same time for one batch
+   * of blobs, such as the uploads of one replication batch or the metadata lookups of one findMissingKeys call.
+   * 1 sends the requests of a batch one after another.
+   */
+  @Config(AZURE_SYNC_MAX_CONCURRENT_REQUESTS)
+  public int azureSyncMaxConcurrentRequests;
+
+  /**
+   * If true, AzureCloudDestinationSync packs the small blobs of a replication batch into packs, Azure blobs that hold
+   * many Ambry blobs back to back, instead of uploading each of them as an Azure blob of its own. The location and the
+   * metadata of each packed blob are kept in the table {@link #azureTableNamePackedBlobs}.
+   * Blobs uploaded on their own before packing was enabled are still read as they are.
+   */
+  @Config(AZURE_BLOB_PACKING_ENABLED)
+  public boolean azureBlobPackingEnabled;
+
+  /**
+   * Maximum size of a blob that is packed. Larger blobs are uploaded on their own.
+   */
+  @Config(AZURE_BLOB_PACKING_MAX_BLOB_SIZE_IN_BYTES)
+  public int azureBlobPackingMaxBlobSizeInBytes;
+
+  /**
+   * Maximum size of a pack. A replication batch with more small blobs than fit in one pack is split into several packs.
+   */
+  @Config(AZURE_BLOB_PACKING_MAX_PACK_SIZE_IN_BYTES)
+  public int azureBlobPackingMaxPackSizeInBytes;
+
+  /**
+   * Compaction rewrites a pack once the fraction of its bytes that belong to live blobs falls below this ratio.
+   */
+  @Config(AZURE_BLOB_PACKING_COMPACTION_MIN_LIVE_RATIO)
+  public double azureBlobPackingCompactionMinLiveRatio;
+
   public AzureCloudConfig(VerifiableProperties verifiableProperties) {
     // 5000 is the default size of Azure blob storage
     azureBlobStorageMaxResultsPerPage = verifiableProperties.getInt(AZURE_BLOB_STORAGE_MAX_RESULTS_PER_PAGE, 5000);
@@ -449,6 +502,8 @@ public class AzureCloudConfig {
     azureTableConnectionString = verifiableProperties.getString(AZURE_TABLE_CONNECTION_STRING, "");
     azureTableNameCorruptBlobs = verifiableProperties.getString(AZURE_TABLE_NAME_CORRUPT_BLOBS, DEFAULT_AZURE_TABLE_NAME_CORRUPT_BLOBS);
     azureTableNameReplicaTokens = verifiableProperties.getString(AZURE_TABLE_NAME_REPLICA_TOKENS, DEFAULT_AZURE_TABLE_NAME_REPLICA_TOKENS);
+    azureTableNamePackedBlobs =
+        verifiableProperties.getString(AZURE_TABLE_NAME_PACKED_BLOBS, DEFAULT_AZURE_TABLE_NAME_PACKED_BLOBS);
     cosmosEndpoint = verifiableProperties.getString(COSMOS_ENDPOINT, ""); // just add a default "" else instantiation fails
     cosmosDatabase = verifiableProperties.getString(COSMOS_DATABASE, ""); // just add a default "" else instantiation fails
     cosmosCollection = verifiableProperties.getString(COSMOS_COLLECTION, ""); // just add a default "" else instantiation fails
@@ -489,5 +544,15 @@ public class AzureCloudConfig {
         DEFAULT_CONTAINER_COMPACTION_COSMOS_QUERY_LIMIT, 1, Integer.MAX_VALUE);
     azureStorageClientRefreshFactor = verifiableProperties.getDoubleInRange(AZURE_STORAGE_CLIENT_REFRESH_FACTOR,
         DEFAULT_AZURE_STORAGE_CLIENT_REFRESH_FACTOR, 0.0, 1.0);
+    azureSyncMaxConcurrentRequests = verifiableProperties.getIntInRange(AZURE_SYNC_MAX_CONCURRENT_REQUESTS,
+        DEFAULT_AZURE_SYNC_MAX_CONCURRENT_REQUESTS, 1, 256);
+    azureBlobPackingEnabled = verifiableProperties.getBoolean(AZURE_BLOB_PACKING_ENABLED, false);
+    azureBlobPackingMaxBlobSizeInBytes = verifiableProperties.getIntInRange(AZURE_BLOB_PACKING_MAX_BLOB_SIZE_IN_BYTES,
+        DEFAULT_AZURE_BLOB_PACKING_MAX_BLOB_SIZE_IN_BYTES, 1, Integer.MAX_VALUE);
+    azureBlobPackingMaxPackSizeInBytes = verifiableProperties.getIntInRange(AZURE_BLOB_PACKING_MAX_PACK_SIZE_IN_BYTES,
+        DEFAULT_AZURE_BLOB_PACKING_MAX_PACK_SIZE_IN_BYTES, 1, Integer.MAX_VALUE);
+    azureBlobPackingCompactionMinLiveRatio =
+        verifiableProperties.getDoubleInRange(AZURE_BLOB_PACKING_COMPACTION_MIN_LIVE_RATIO,
+            DEFAULT_AZURE_BLOB_PACKING_COMPACTION_MIN_LIVE_RATIO, 0.0, 1.0);
   }
 }
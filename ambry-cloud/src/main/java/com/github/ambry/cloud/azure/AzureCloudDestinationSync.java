@@ -20,10 +20,14 @@ import com.azure.core.http.rest.Response;
 import com.azure.core.util.Context;
 import com.azure.data.tables.TableClient;
 import com.azure.data.tables.TableServiceClient;
+import com.azure.data.tables.models.ListEntitiesOptions;
 import com.azure.data.tables.models.TableEntity;
+import com.azure.data.tables.models.TableEntityUpdateMode;
 import com.azure.data.tables.models.TableErrorCode;
 import com.azure.data.tables.models.TableItem;
 import com.azure.data.tables.models.TableServiceException;
+import com.azure.data.tables.models.TableTransactionAction;
+import com.azure.data.tables.models.TableTransactionActionType;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClient;
@@ -33,6 +37,7 @@ import com.azure.storage.blob.models.BlobHttpHeaders;
 import com.azure.storage.blob.models.BlobItem;
 import com.azure.storage.blob.models.BlobListDetails;
 import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobRange;
 import com.azure.storage.blob.models.BlobRequestConditions;
 import com.azure.storage.blob.models.BlobStorageException;
 import com.azure.storage.blob.models.BlockBlobItem;
@@ -67,22 +72,33 @@ import com.github.ambry.store.StoreErrorCodes;
 import com.github.ambry.store.StoreException;
 import com.github.ambry.utils.Pair;
 import com.github.ambry.utils.Utils;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
@@ -106,17 +122,50 @@ public class AzureCloudDestinationSync implements CloudDestination {
   protected AccountService accountService;
   protected StoreConfig storeConfig;
   public static final Logger logger = LoggerFactory.getLogger(AzureCloudDestinationSync.class);
+  // Per learn.microsoft.com/en-us/rest/api/storageservices/performing-entity-group-transactions
+  protected static final int MAX_TABLE_TRANSACTION_SIZE = 100;
   ThreadLocal<AmbryCache> threadLocalMdCache;
+  // Runs the requests of a batch concurrently, see runWithBoundedConcurrency. Threads are created on demand since the
+  // bound is per batch and every replica thread may have a batch in flight.
+  protected final ExecutorService requestExecutor;
   protected class AzureBlobProperties implements AmbryCacheEntry {
 
     private final BlobProperties properties;
+    private final PackedBlobEntry packedBlobEntry;
     public AzureBlobProperties(BlobProperties properties) {
       this.properties = properties;
+      this.packedBlobEntry = null;
     }
 
+    /**
+     * Properties of a blob that is stored in a pack, see {@link AzureCloudConfig#azureBlobPackingEnabled}
+     * @param packedBlobEntry Entry of the blob in the packed-blobs table
+     */
+    public AzureBlobProperties(PackedBlobEntry packedBlobEntry) {
+      this.properties = null;
+      this.packedBlobEntry = packedBlobEntry;
+    }
+
+    /**
+     * @return Azure blob properties, or null if the blob is stored in a pack
+     */
     public BlobProperties getProperties() {
       return properties;
     }
+
+    /**
+     * @return Entry of the blob in the packed-blobs table, or null if the blob is stored on its own
+     */
+    public PackedBlobEntry getPackedBlobEntry() {
+      return packedBlobEntry;
+    }
+
+    /**
+     * @return Ambry metadata of the blob, to be changed and passed to {@link #updateBlobMetadata}
+     */
+    public Map<String, String> getMetadata() {
+      return packedBlobEntry == null ? properties.getMetadata() : packedBlobEntry.getMetadata();
+    }
   }
   /**
    * Constructor for AzureCloudDestinationSync
@@ -185,6 +234,9 @@ public class AzureCloudDestinationSync implements CloudDestination {
     StorageClient storageClient =
         Utils.getObj(azureCloudConfig.azureStorageClientClass, cloudConfig, azureCloudConfig, azureMetrics);
     threadLocalMdCache = new ThreadLocal<>();
+    AtomicInteger requestThreadCount = new AtomicInteger(0);
+    requestExecutor = Executors.newCachedThreadPool(
+        runnable -> Utils.newThread("azure-sync-request-" + requestThreadCount.incrementAndGet(), runnable, true));
     metrics = metricRegistry;
     this.azureStorageClient = storageClient.getStorageSyncClient();
     this.azureTableServiceClient = storageClient.getTableServiceClient();
@@ -203,6 +255,42 @@ public class AzureCloudDestinationSync implements CloudDestination {
     return threadLocalMdCache.get();
   }
 
+  /**
+   * Runs tasks on {@link #requestExecutor}, at most {@link AzureCloudConfig#azureSyncMaxConcurrentRequests} of them at
+   * the same time. Each worker takes the next task that has not started yet, so a slow request only holds up its own
+   * worker. If only one request is allowed at a time, the tasks run one after another on the calling thread.
+   * @param tasks Tasks to run
+   * @return A future for the result of each task, in the order of the tasks
+   */
+  protected <T> List<CompletableFuture<T>> runWithBoundedConcurrency(List<Callable<T>> tasks) {
+    List<CompletableFuture<T>> results = new ArrayList<>(tasks.size());
+    tasks.forEach(task -> results.add(new CompletableFuture<>()));
+    AtomicInteger nextTask = new AtomicInteger(0);
+    Runnable worker = () -> {
+      for (int i = nextTask.getAndIncrement(); i < tasks.size(); i = nextTask.getAndIncrement()) {
+        try {
+          results.get(i).complete(tasks.get(i).call());
+        } catch (Throwable t) {
+          results.get(i).completeExceptionally(t);
+        }
+      }
+    };
+    int maxConcurrentRequests = azureCloudConfig.azureSyncMaxConcurrentRequests;
+    if (maxConcurrentRequests == 1) {
+      worker.run();
+      return results;
+    }
+    for (int i = 0; i < Math.min(tasks.size(), maxConcurrentRequests); i++) {
+      try {
+        requestExecutor.execute(worker);
+      } catch (RejectedExecutionException e) {
+        // Closed, finish the remaining tasks on this thread.
+        worker.run();
+      }
+    }
+    return results;
+  }
+
   /**
    * Tests connection to Azure blob storage
    */
@@ -439,16 +527,67 @@ public class AzureCloudDestinationSync implements CloudDestination {
     Timer.Context storageTimer = azureMetrics.blobBatchUploadLatency.time();
     MessageSievingInputStream stream = (MessageSievingInputStream) messageSetToWrite.getStreamToWrite();
     ListIterator<InputStream> messageStreamListIter = stream.getValidMessageStreamList().listIterator();
-    boolean unused_ret = true;
+    List<Callable<Boolean>> uploads = new ArrayList<>();
+    // Small blobs to pack, by Azure container
+    Map<String, List<PackableBlob>> packableBlobs = new LinkedHashMap<>();
     for (MessageInfo messageInfo: messageSetToWrite.getMessageSetInfo()) {
       BlobId blobId = (BlobId) messageInfo.getStoreKey();
       CloudBlobMetadata cloudBlobMetadata =
           new CloudBlobMetadata(blobId, messageInfo.getOperationTimeMs(), messageInfo.getExpirationTimeInMs(),
               messageInfo.getSize(), CloudBlobMetadata.EncryptionOrigin.NONE, messageInfo.getLifeVersion());
       cloudBlobMetadata.setReplicaLocation(stream.getReplicaLocation());
-      unused_ret &= uploadBlob(blobId, messageInfo.getSize(), cloudBlobMetadata, messageStreamListIter.next());
+      InputStream blobInputStream = messageStreamListIter.next();
+      if (azureCloudConfig.azureBlobPackingEnabled
+          && messageInfo.getSize() <= azureCloudConfig.azureBlobPackingMaxBlobSizeInBytes) {
+        PackableBlob packableBlob = readPackableBlob(cloudBlobMetadata, blobInputStream);
+        packableBlobs.computeIfAbsent(packableBlob.blobLayout.containerName, key -> new ArrayList<>())
+            .add(packableBlob);
+      } else {
+        uploads.add(() -> uploadBlob(blobId, messageInfo.getSize(), cloudBlobMetadata, blobInputStream));
+      }
+    }
+    packableBlobs.forEach((containerName, blobs) -> {
+      int packStart = 0;
+      long packSize = 0;
+      for (int i = 0; i < blobs.size(); i++) {
+        long newPackSize = packSize + blobs.get(i).content.length;
+        if (i > packStart && newPackSize > azureCloudConfig.azureBlobPackingMaxPackSizeInBytes) {
+          List<PackableBlob> pack = blobs.subList(packStart, i);
+          uploads.add(() -> uploadPack(containerName, pack));
+          packStart = i;
+          newPackSize = blobs.get(i).content.length;
+        }
+        packSize = newPackSize;
+      }
+      List<PackableBlob> pack = blobs.subList(packStart, blobs.size());
+      uploads.add(() -> uploadPack(containerName, pack));
+    });
+    azureMetrics.blobBatchUploadConcurrency.update(
+        Math.min(uploads.size(), azureCloudConfig.azureSyncMaxConcurrentRequests));
+    /*
+      Wait for every upload of the batch, even if some failed, so that no upload is still reading from the stream
+      when we return. Conflicts are not errors, uploadBlob absorbs them. Any other error fails the batch and
+      replication retries it, the blobs uploaded by then will be conflicts.
+     */
+    boolean unused_ret = true;
+    Throwable firstError = null;
+    int numErrors = 0;
+    for (CompletableFuture<Boolean> result : runWithBoundedConcurrency(uploads)) {
+      try {
+        unused_ret &= result.join();
+      } catch (CompletionException e) {
+        numErrors++;
+        firstError = firstError == null ? e.getCause() : firstError;
+      }
     }
     storageTimer.stop();
+    if (firstError != null) {
+      String error = String.format("Failed to upload %s of %s blobs from %s to Azure blob storage", numErrors,
+          uploads.size(), stream.getReplicaLocation());
+      logger.error(error);
+      throw firstError instanceof CloudStorageException ? (CloudStorageException) firstError
+          : AzureCloudDestination.toCloudStorageException(error, firstError, null);
+    }
     // Unused return value
     return unused_ret;
   }
@@ -500,6 +639,7 @@ public class AzureCloudDestinationSync implements CloudDestination {
       BlobContainerClient blobContainerClient = createOrGetBlobStore(blobLayout.containerName);
       ////////////////////////////////// Upload blob to Azure blob storage ////////////////////////////////////////
       storageTimer = azureMetrics.blobUploadLatency.time();
+      azureMetrics.blobUploadsInFlight.inc();
       Response<BlockBlobItem> blockBlobItemResponse =
           blobContainerClient.getBlobClient(blobIdStr)
               .uploadWithResponse(blobParallelUploadOptions, Duration.ofMillis(cloudConfig.cloudRequestTimeout),
@@ -533,15 +673,154 @@ public class AzureCloudDestinationSync implements CloudDestination {
     } finally {
       if (storageTimer != null) {
         storageTimer.stop();
+        azureMetrics.blobUploadsInFlight.dec();
       }
     } // try-catch
     return true;
   }
 
+  /**
+   * A small blob of a replication batch, read into memory to be written to a pack
+   */
+  protected static class PackableBlob {
+    final AzureBlobLayoutStrategy.BlobLayout blobLayout;
+    final Map<String, String> metadata;
+    final byte[] content;
+
+    PackableBlob(AzureBlobLayoutStrategy.BlobLayout blobLayout, Map<String, String> metadata, byte[] content) {
+      this.blobLayout = blobLayout;
+      this.metadata = metadata;
+      this.content = content;
+    }
+  }
+
+  /**
+   * Reads a small blob of a replication batch into memory to pack it
+   * See {@link AzureCloudConfig#azureBlobPackingMaxBlobSizeInBytes}
+   * @param cloudBlobMetadata Blob metadata
+   * @param blobInputStream Stream of the blob
+   * @return {@link PackableBlob}
+   * @throws CloudStorageException
+   */
+  protected PackableBlob readPackableBlob(CloudBlobMetadata cloudBlobMetadata, InputStream blobInputStream)
+      throws CloudStorageException {
+    // setNameSchemeVersion is a remnant of legacy code. We have to set it explicitly.
+    cloudBlobMetadata.setNameSchemeVersion(azureCloudConfig.azureNameSchemeVersion);
+    AzureBlobLayoutStrategy.BlobLayout blobLayout = azureBlobLayoutStrategy.getDataBlobLayout(cloudBlobMetadata);
+    try {
+      return new PackableBlob(blobLayout, cloudBlobMetadatatoMap(cloudBlobMetadata),
+          Utils.readBytesFromStream(blobInputStream, (int) cloudBlobMetadata.getSize()));
+    } catch (IOException e) {
+      azureMetrics.blobUploadErrorCount.inc();
+      String error = String.format("Failed to read blob %s from %s to pack it because %s", blobLayout,
+          cloudBlobMetadata.getReplicaLocation(), e.getMessage());
+      logger.error(error);
+      throw AzureCloudDestination.toCloudStorageException(error, e, null);
+    }
+  }
+
+  /**
+   * Uploads small blobs as one pack, an Azure blob that holds them back to back, and indexes them in the packed-blobs
+   * table. The pack is uploaded first, so that every row of the table points to a pack that exists. If the rows cannot
+   * be inserted, the pack is left unreferenced and compaction erases it.
+   * A blob that is already in the table was uploaded by another thread, it is counted as a conflict like in
+   * {@link #uploadBlob}, and its bytes in this pack are dead from the start.
+   * @param containerName Azure container of the blobs
+   * @param blobs Blobs to pack
+   * @return Unused boolean
+   * @throws CloudStorageException
+   */
+  protected boolean uploadPack(String containerName, List<PackableBlob> blobs) throws CloudStorageException {
+    String packName = azureBlobLayoutStrategy.newPackName();
+    AzureBlobLayoutStrategy.BlobLayout packLayout = azureBlobLayoutStrategy.getPackBlobLayout(containerName, packName);
+    int packLength = blobs.stream().mapToInt(blob -> blob.content.length).sum();
+    byte[] pack = new byte[packLength];
+    List<PackedBlobEntry> packedBlobEntries = new ArrayList<>(blobs.size());
+    int packOffset = 0;
+    for (PackableBlob blob : blobs) {
+      System.arraycopy(blob.content, 0, pack, packOffset, blob.content.length);
+      packedBlobEntries.add(new PackedBlobEntry(containerName, blob.blobLayout.blobFilePath, packName, packOffset,
+          blob.content.length, packLength, blob.metadata));
+      packOffset += blob.content.length;
+    }
+    Timer.Context storageTimer = azureMetrics.packUploadLatency.time();
+    azureMetrics.blobUploadsInFlight.inc();
+    try {
+      BlobParallelUploadOptions blobParallelUploadOptions =
+          new BlobParallelUploadOptions(new ByteArrayInputStream(pack));
+      // Pack names are unique, but never overwrite a pack
+      blobParallelUploadOptions.setRequestConditions(new BlobRequestConditions().setIfNoneMatch("*"));
+      blobParallelUploadOptions.setHeaders(new BlobHttpHeaders().setContentType("application/octet-stream"));
+      createOrGetBlobStore(packLayout.containerName).getBlobClient(packLayout.blobFilePath)
+          .uploadWithResponse(blobParallelUploadOptions, Duration.ofMillis(cloudConfig.cloudRequestTimeout),
+              Context.NONE);
+      int numInserted = insertPackedBlobEntries(packedBlobEntries);
+      azureMetrics.blobUploadSuccessRate.mark(numInserted);
+      azureMetrics.blobUploadByteRate.mark(packLength);
+      azureMetrics.packedBlobUploadCount.inc(numInserted);
+      logger.trace("Successful upload of {} blobs in pack {} to Azure blob storage", numInserted, packLayout);
+      return true;
+    } catch (Exception e) {
+      azureMetrics.packUploadErrorCount.inc();
+      String error = String.format("Failed to upload %s blobs in pack %s to Azure blob storage because %s",
+          blobs.size(), packLayout, e.getMessage());
+      logger.error(error);
+      throw AzureCloudDestination.toCloudStorageException(error, e, null);
+    } finally {
+      storageTimer.stop();
+      azureMetrics.blobUploadsInFlight.dec();
+    }
+  }
+
+  /**
+   * Inserts the rows of packed blobs that share an Azure container in the packed-blobs table, in transactions of up to
+   * {@link #MAX_TABLE_TRANSACTION_SIZE} rows. If a transaction fails because one of its rows exists, its rows are
+   * inserted one by one to skip the rows that exist.
+   * @param packedBlobEntries Entries to insert
+   * @return The number of rows inserted
+   */
+  protected int insertPackedBlobEntries(List<PackedBlobEntry> packedBlobEntries) {
+    TableClient tableClient = getTableClient(azureCloudConfig.azureTableNamePackedBlobs);
+    int numInserted = 0;
+    for (int start = 0; start < packedBlobEntries.size(); start += MAX_TABLE_TRANSACTION_SIZE) {
+      List<PackedBlobEntry> batch =
+          packedBlobEntries.subList(start, Math.min(packedBlobEntries.size(), start + MAX_TABLE_TRANSACTION_SIZE));
+      List<TableTransactionAction> actions = new ArrayList<>(batch.size());
+      batch.forEach(entry -> actions.add(new TableTransactionAction(TableTransactionActionType.CREATE,
+          entry.toTableEntity())));
+      try {
+        tableClient.submitTransaction(actions);
+        numInserted += batch.size();
+        continue;
+      } catch (TableServiceException tse) {
+        logger.trace("Failed to insert {} packed blobs in one transaction due to {}", batch.size(), tse.getMessage());
+      }
+      for (PackedBlobEntry entry : batch) {
+        try {
+          tableClient.createEntity(entry.toTableEntity());
+          numInserted++;
+        } catch (TableServiceException tse) {
+          if (tse.getValue().getErrorCode() != TableErrorCode.ENTITY_ALREADY_EXISTS) {
+            throw tse;
+          }
+          // Since VCR replicates from all replicas, a blob can be uploaded by at least two threads concurrently.
+          azureMetrics.blobUploadConflictCount.inc();
+          logger.error("Failed to upload packed blob {} to Azure blob storage because it already exists", entry);
+        }
+      }
+    }
+    return numInserted;
+  }
+
+  /**
+   * Uploads a blob on {@link #requestExecutor} with the sync client, this destination has no async client.
+   * See {@link #uploadBlob} for how conflicts are handled.
+   */
   @Override
   public CompletableFuture<Boolean> uploadBlobAsync(BlobId blobId, long inputLength,
       CloudBlobMetadata cloudBlobMetadata, InputStream blobInputStream) {
-    throw new UnsupportedOperationException("uploadBlobAsync will not be implemented for AzureCloudDestinationSync");
+    return runWithBoundedConcurrency(Collections.<Callable<Boolean>>singletonList(
+        () -> uploadBlob(blobId, inputLength, cloudBlobMetadata, blobInputStream))).get(0);
   }
 
   @Override
@@ -551,7 +830,13 @@ public class AzureCloudDestinationSync implements CloudDestination {
     BlobContainerClient blobContainerClient = createOrGetBlobStore(blobLayout.containerName);
     Timer.Context storageTimer = azureMetrics.blobDownloadLatency.time();
     try {
-      blobContainerClient.getBlobClient(blobIdStr).downloadStream(outputStream);
+      try {
+        blobContainerClient.getBlobClient(blobIdStr).downloadStream(outputStream);
+      } catch (BlobStorageException bse) {
+        if (bse.getErrorCode() != BlobErrorCode.BLOB_NOT_FOUND || !downloadPackedBlob(blobLayout, outputStream)) {
+          throw bse;
+        }
+      }
       azureMetrics.blobDownloadSuccessRate.mark();
     } catch (Throwable e) {
       azureMetrics.blobDownloadErrorCount.inc();
@@ -566,6 +851,46 @@ public class AzureCloudDestinationSync implements CloudDestination {
     } // try-catch
   }
 
+  /**
+   * Downloads a blob from the pack it is stored in, with a range read of the pack
+   * @param blobLayout BlobLayout of the blob as if it were stored on its own
+   * @param outputStream Stream to write the blob to
+   * @return False if the blob is not in a pack
+   * @throws CloudStorageException
+   */
+  protected boolean downloadPackedBlob(AzureBlobLayoutStrategy.BlobLayout blobLayout, OutputStream outputStream)
+      throws CloudStorageException {
+    PackedBlobEntry packedBlobEntry = getPackedBlobEntry(blobLayout);
+    if (packedBlobEntry == null) {
+      return false;
+    }
+    AzureBlobLayoutStrategy.BlobLayout packLayout =
+        azureBlobLayoutStrategy.getPackBlobLayout(blobLayout.containerName, packedBlobEntry.getPackName());
+    try {
+      downloadPackRange(packLayout, packedBlobEntry, outputStream);
+    } catch (BlobStorageException bse) {
+      if (bse.getErrorCode() != BlobErrorCode.BLOB_NOT_FOUND) {
+        throw bse;
+      }
+      // Compaction moved the blob to another pack and erased the old one after we looked it up, look it up again.
+      packedBlobEntry = getPackedBlobEntry(blobLayout);
+      if (packedBlobEntry == null) {
+        return false;
+      }
+      packLayout = azureBlobLayoutStrategy.getPackBlobLayout(blobLayout.containerName, packedBlobEntry.getPackName());
+      downloadPackRange(packLayout, packedBlobEntry, outputStream);
+    }
+    return true;
+  }
+
+  private void downloadPackRange(AzureBlobLayoutStrategy.BlobLayout packLayout, PackedBlobEntry packedBlobEntry,
+      OutputStream outputStream) {
+    createOrGetBlobStore(packLayout.containerName).getBlobClient(packLayout.blobFilePath)
+        .downloadStreamWithResponse(outputStream,
+            new BlobRange(packedBlobEntry.getPackOffset(), packedBlobEntry.getPackedSize()), null, null, false,
+            Duration.ofMillis(cloudConfig.cloudRequestTimeout), Context.NONE);
+  }
+
   @Override
   public CompletableFuture<Void> downloadBlobAsync(BlobId blobId, OutputStream outputStream) {
     throw new UnsupportedOperationException("downloadBlobAsync will not be implemented for AzureCloudDestinationSync");
@@ -578,7 +903,10 @@ public class AzureCloudDestinationSync implements CloudDestination {
    * @return HTTP response and blob metadata
    */
   protected Response<Void> updateBlobMetadata(AzureBlobLayoutStrategy.BlobLayout blobLayout,
-      BlobProperties blobProperties, Map<String, String> metadata) {
+      AzureBlobProperties blobProperties, Map<String, String> metadata) {
+    if (blobProperties.getPackedBlobEntry() != null) {
+      return updatePackedBlobMetadata(blobLayout, blobProperties.getPackedBlobEntry(), metadata);
+    }
     BlobClient blobClient = createOrGetBlobStore(blobLayout.containerName).getBlobClient(blobLayout.blobFilePath);
     /**
      * When replicating, we might receive a TTL-UPDATE for a blob from replica-A and a DELETE for the same blob from replica-B.
@@ -598,7 +926,27 @@ public class AzureCloudDestinationSync implements CloudDestination {
      * and it is safe to update thread-local cache. If the cloud-update failed, we will never reach this line
      * and the thread-local cache will have the previous safe copy of metadata consistent with cloud.
      */
-    getThreadLocalMdCache().putObject(blobLayout.blobFilePath, new AzureBlobProperties(blobProperties));
+    getThreadLocalMdCache().putObject(blobLayout.blobFilePath, blobProperties);
+    return response;
+  }
+
+  /**
+   * Synchronously updates the metadata of a packed blob in the packed-blobs table.
+   * The update merges only the metadata fields into the row, so it cannot undo compaction moving the blob to another
+   * pack. See {@link #updateBlobMetadata} for why there is no ETag check.
+   * @param blobLayout Blob layout
+   * @param packedBlobEntry Entry of the blob in the packed-blobs table
+   * @param metadata Blob metadata
+   * @return HTTP response
+   */
+  protected Response<Void> updatePackedBlobMetadata(AzureBlobLayoutStrategy.BlobLayout blobLayout,
+      PackedBlobEntry packedBlobEntry, Map<String, String> metadata) {
+    Response<Void> response = getTableClient(azureCloudConfig.azureTableNamePackedBlobs)
+        .updateEntityWithResponse(packedBlobEntry.toMetadataUpdate(metadata), TableEntityUpdateMode.MERGE, false,
+            Duration.ofMillis(cloudConfig.cloudRequestTimeout), Context.NONE);
+    // Cache only after updating cloud, see updateBlobMetadata
+    getThreadLocalMdCache().putObject(blobLayout.blobFilePath,
+        new AzureBlobProperties(packedBlobEntry.withMetadata(metadata)));
     return response;
   }
 
@@ -608,17 +956,73 @@ public class AzureCloudDestinationSync implements CloudDestination {
    * @return Blob properties
    * @throws CloudStorageException
    */
-  protected BlobProperties getBlobPropertiesCached(AzureBlobLayoutStrategy.BlobLayout blobLayout)
+  protected AzureBlobProperties getBlobPropertiesCached(AzureBlobLayoutStrategy.BlobLayout blobLayout)
       throws CloudStorageException {
-    AzureBlobProperties entry = (AzureBlobProperties) getThreadLocalMdCache().getObject(blobLayout.blobFilePath);
-    BlobProperties blobProperties;
+    return getBlobPropertiesCached(blobLayout, getThreadLocalMdCache());
+  }
+
+  /**
+   * Returns cached blob properties from Azure
+   * If the blob is not in Azure blob storage and packing is enabled, returns its entry in the packed-blobs table.
+   * @param blobLayout BlobLayout
+   * @param mdCache Cache to look up and store the properties in, such as the thread-local cache of the thread that
+   *                asked for them when the request runs on another thread
+   * @return Blob properties
+   * @throws CloudStorageException if the blob is neither in Azure blob storage nor in a pack
+   */
+  protected AzureBlobProperties getBlobPropertiesCached(AzureBlobLayoutStrategy.BlobLayout blobLayout,
+      AmbryCache mdCache) throws CloudStorageException {
+    AzureBlobProperties entry = (AzureBlobProperties) mdCache.getObject(blobLayout.blobFilePath);
     if (entry == null) {
-      blobProperties = getBlobProperties(blobLayout);
-      getThreadLocalMdCache().putObject(blobLayout.blobFilePath, new AzureBlobProperties(blobProperties));
-    } else {
-      blobProperties = entry.getProperties();
+      try {
+        entry = new AzureBlobProperties(getBlobProperties(blobLayout));
+      } catch (CloudStorageException cse) {
+        PackedBlobEntry packedBlobEntry = isBlobNotFound(cse) ? getPackedBlobEntry(blobLayout) : null;
+        if (packedBlobEntry == null) {
+          throw cse;
+        }
+        entry = new AzureBlobProperties(packedBlobEntry);
+      }
+      mdCache.putObject(blobLayout.blobFilePath, entry);
+    }
+    return entry;
+  }
+
+  /**
+   * @return True if the exception is due to a blob missing from Azure blob storage
+   */
+  protected boolean isBlobNotFound(CloudStorageException cse) {
+    return cse.getCause() instanceof BlobStorageException
+        && ((BlobStorageException) cse.getCause()).getErrorCode() == BlobErrorCode.BLOB_NOT_FOUND;
+  }
+
+  /**
+   * Returns the entry of a blob in the packed-blobs table
+   * @param blobLayout BlobLayout of the blob as if it were stored on its own
+   * @return Entry of the blob, or null if packing is disabled or the blob is not in a pack
+   * @throws CloudStorageException
+   */
+  protected PackedBlobEntry getPackedBlobEntry(AzureBlobLayoutStrategy.BlobLayout blobLayout)
+      throws CloudStorageException {
+    if (!azureCloudConfig.azureBlobPackingEnabled) {
+      return null;
+    }
+    Timer.Context storageTimer = azureMetrics.packedBlobLookupLatency.time();
+    try {
+      return PackedBlobEntry.fromTableEntity(getTableClient(azureCloudConfig.azureTableNamePackedBlobs)
+          .getEntity(blobLayout.containerName, blobLayout.blobFilePath));
+    } catch (TableServiceException tse) {
+      if (tse.getResponse().getStatusCode() == HttpStatus.SC_NOT_FOUND) {
+        return null;
+      }
+      azureMetrics.blobGetPropertiesErrorCount.inc();
+      String error = String.format("Failed to get packed blob %s from Azure table %s due to %s", blobLayout,
+          azureCloudConfig.azureTableNamePackedBlobs, tse.getMessage());
+      logger.error(error);
+      throw AzureCloudDestination.toCloudStorageException(error, tse, null);
+    } finally {
+      storageTimer.stop();
     }
-    return blobProperties;
   }
 
   /**
@@ -670,7 +1074,7 @@ public class AzureCloudDestinationSync implements CloudDestination {
     Map<String, Object> newMetadata = new HashMap<>();
     newMetadata.put(CloudBlobMetadata.FIELD_DELETION_TIME, String.valueOf(deletionTime));
     newMetadata.put(CloudBlobMetadata.FIELD_LIFE_VERSION, lifeVersion);
-    BlobProperties blobProperties = getBlobPropertiesCached(blobLayout);
+    AzureBlobProperties blobProperties = getBlobPropertiesCached(blobLayout);
     Map<String, String> cloudMetadata = blobProperties.getMetadata();
 
     try {
@@ -737,7 +1141,7 @@ public class AzureCloudDestinationSync implements CloudDestination {
     Timer.Context storageTimer = azureMetrics.blobUndeleteLatency.time();
     AzureBlobLayoutStrategy.BlobLayout blobLayout = azureBlobLayoutStrategy.getDataBlobLayout(blobId);
     String blobIdStr = blobLayout.blobFilePath;
-    BlobProperties blobProperties = getBlobPropertiesCached(blobLayout);
+    AzureBlobProperties blobProperties = getBlobPropertiesCached(blobLayout);
     Map<String, String> cloudMetadata = blobProperties.getMetadata();
     Map<String, Object> newMetadata = new HashMap<>();
     newMetadata.put(CloudBlobMetadata.FIELD_LIFE_VERSION, lifeVersion);
@@ -830,7 +1234,8 @@ public class AzureCloudDestinationSync implements CloudDestination {
   public boolean doesBlobExist(BlobId blobId) {
     AzureBlobLayoutStrategy.BlobLayout blobLayout = azureBlobLayoutStrategy.getDataBlobLayout(blobId);
     try {
-      return createOrGetBlobStore(blobLayout.containerName).getBlobClient(blobLayout.blobFilePath).exists();
+      return createOrGetBlobStore(blobLayout.containerName).getBlobClient(blobLayout.blobFilePath).exists()
+          || getPackedBlobEntry(blobLayout) != null;
     } catch (Throwable t) {
       azureMetrics.blobCheckError.inc();
       logger.error("Failed to check if blob {} exists in Azure blob storage due to {}", blobLayout, t.getMessage());
@@ -844,7 +1249,7 @@ public class AzureCloudDestinationSync implements CloudDestination {
     Timer.Context storageTimer = azureMetrics.blobUpdateTTLLatency.time();
     AzureBlobLayoutStrategy.BlobLayout blobLayout = azureBlobLayoutStrategy.getDataBlobLayout(blobId);
     String blobIdStr = blobLayout.blobFilePath;
-    BlobProperties blobProperties = getBlobPropertiesCached(blobLayout);
+    AzureBlobProperties blobProperties = getBlobPropertiesCached(blobLayout);
     Map<String, String> cloudMetadata = blobProperties.getMetadata();
 
     // Below is the correct behavior. For ref, look at BlobStore::updateTTL and ReplicaThread::applyTtlUpdate.
@@ -946,32 +1351,66 @@ public class AzureCloudDestinationSync implements CloudDestination {
      */
     Map<String, CloudBlobMetadata> cloudBlobMetadataMap = new HashMap<>();
     for (BlobId blobId: blobIds) {
-      AzureBlobLayoutStrategy.BlobLayout blobLayout = this.azureBlobLayoutStrategy.getDataBlobLayout(blobId);
-      try {
-        BlobProperties blobProperties = getBlobPropertiesCached(blobLayout);
-        cloudBlobMetadataMap.put(blobId.getID(), CloudBlobMetadata.fromMap(blobProperties.getMetadata()));
-      } catch (CloudStorageException cse) {
-        if (cse.getCause() instanceof BlobStorageException &&
-            ((BlobStorageException) cse.getCause()).getErrorCode() == BlobErrorCode.BLOB_NOT_FOUND) {
-          /*
-            We mostly get here from findMissingKeys, and we will encounter many blobs missing from cloud before we upload them.
-           */
-          continue;
-        }
-        throw cse;
-      } catch (Throwable t) {
-        // Unknown error, increment the generic metric in azureMetrics
-        String error = String.format("Failed to get blob metadata for %s from Azure blob storage due to %s", blobLayout, t.getMessage());
-        logger.error(error);
-        throw AzureCloudDestination.toCloudStorageException(error, t, azureMetrics);
+      CloudBlobMetadata cloudBlobMetadata = getBlobMetadata(blobId, getThreadLocalMdCache());
+      if (cloudBlobMetadata != null) {
+        cloudBlobMetadataMap.put(blobId.getID(), cloudBlobMetadata);
       }
     }
     return cloudBlobMetadataMap;
   }
 
+  /**
+   * Returns the metadata of a blob from Azure
+   * @param blobId Blob ID
+   * @param mdCache Cache of blob properties to use
+   * @return Blob metadata, or null if the blob is not in Azure
+   * @throws CloudStorageException
+   */
+  protected CloudBlobMetadata getBlobMetadata(BlobId blobId, AmbryCache mdCache) throws CloudStorageException {
+    AzureBlobLayoutStrategy.BlobLayout blobLayout = this.azureBlobLayoutStrategy.getDataBlobLayout(blobId);
+    try {
+      AzureBlobProperties blobProperties = getBlobPropertiesCached(blobLayout, mdCache);
+      return CloudBlobMetadata.fromMap(blobProperties.getMetadata());
+    } catch (CloudStorageException cse) {
+      if (isBlobNotFound(cse)) {
+        /*
+          We mostly get here from findMissingKeys, and we will encounter many blobs missing from cloud before we upload them.
+         */
+        return null;
+      }
+      throw cse;
+    } catch (Throwable t) {
+      // Unknown error, increment the generic metric in azureMetrics
+      String error = String.format("Failed to get blob metadata for %s from Azure blob storage due to %s", blobLayout, t.getMessage());
+      logger.error(error);
+      throw AzureCloudDestination.toCloudStorageException(error, t, azureMetrics);
+    }
+  }
+
+  /**
+   * Looks up the metadata of the blobs concurrently on {@link #requestExecutor}, see
+   * {@link AzureCloudConfig#azureSyncMaxConcurrentRequests}. Blobs that are not in Azure are left out of the result.
+   * The lookups use the thread-local cache of the calling thread, as the sync lookups do.
+   * @param blobIds List of blob IDs
+   * @return A future for the metadata of the blobs found, that fails with the first error if any lookup failed
+   */
   @Override
   public CompletableFuture<Map<String, CloudBlobMetadata>> getBlobMetadataAsync(List<BlobId> blobIds) {
-    throw new UnsupportedOperationException("getBlobMetadataAsync will not be implemented for AzureCloudDestinationSync");
+    Timer.Context storageTimer = azureMetrics.blobBatchMetadataLatency.time();
+    AmbryCache mdCache = getThreadLocalMdCache();
+    List<Callable<CloudBlobMetadata>> lookups = new ArrayList<>(blobIds.size());
+    blobIds.forEach(blobId -> lookups.add(() -> getBlobMetadata(blobId, mdCache)));
+    List<CompletableFuture<CloudBlobMetadata>> results = runWithBoundedConcurrency(lookups);
+    return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).thenApply(unused -> {
+      Map<String, CloudBlobMetadata> cloudBlobMetadataMap = new HashMap<>();
+      for (int i = 0; i < blobIds.size(); i++) {
+        CloudBlobMetadata cloudBlobMetadata = results.get(i).join();
+        if (cloudBlobMetadata != null) {
+          cloudBlobMetadataMap.put(blobIds.get(i).getID(), cloudBlobMetadata);
+        }
+      }
+      return cloudBlobMetadataMap;
+    }).whenComplete((cloudBlobMetadataMap, throwable) -> storageTimer.stop());
   }
 
   @Override
@@ -999,27 +1438,10 @@ public class AzureCloudDestinationSync implements CloudDestination {
      */
     while (blobItemIterator.hasNext() && !stopCompaction.get()) {
       BlobItem blobItem = blobItemIterator.next();
-      Map<String, String> metadata = blobItem.getMetadata();
-      Pair<Short, Short> accountContainerIds = new Pair<>(Short.parseShort(metadata.get(CloudBlobMetadata.FIELD_ACCOUNT_ID)),
-          Short.parseShort(metadata.get(CloudBlobMetadata.FIELD_CONTAINER_ID)));
-      boolean eraseBlob = false;
-      String eraseReason;
-
-      if (metadata.containsKey(CloudBlobMetadata.FIELD_DELETION_TIME)) {
-        long deletionTime = Long.parseLong(metadata.get(CloudBlobMetadata.FIELD_DELETION_TIME));
-        eraseBlob = (deletionTime + gracePeriod) < now;
-        eraseReason = String.format("%s: (%s + %s) < %s", CloudBlobMetadata.FIELD_DELETION_TIME, deletionTime, gracePeriod, now);
-      } else if (metadata.containsKey(CloudBlobMetadata.FIELD_EXPIRATION_TIME)) {
-        long expirationTime = Long.parseLong(metadata.get(CloudBlobMetadata.FIELD_EXPIRATION_TIME));
-        eraseBlob = (expirationTime + gracePeriod) < now;
-        eraseReason = String.format("%s: (%s + %s) < %s", CloudBlobMetadata.FIELD_EXPIRATION_TIME, expirationTime, gracePeriod, now);
-      } else if (deletedContainers.contains(accountContainerIds)) {
-        eraseBlob = true;
-        eraseReason = String.format("account = %s, deleted_container = %s", accountContainerIds.getFirst(), accountContainerIds.getSecond());
-      } else {
-        // nothing to do, blob cannot be deleted
-        eraseReason = String.format("No reason to erase blob %s", blobItem.getName());
-      }
+      Pair<Boolean, String> eraseDecision =
+          getEraseDecision(blobItem.getName(), blobItem.getMetadata(), deletedContainers, now, gracePeriod);
+      boolean eraseBlob = eraseDecision.getFirst();
+      String eraseReason = eraseDecision.getSecond();
 
       if (eraseBlob) {
         if (cloudConfig.cloudCompactionDryRunEnabled) {
@@ -1053,6 +1475,236 @@ public class AzureCloudDestinationSync implements CloudDestination {
     return numBlobsPurged;
   }
 
+  /**
+   * Decides if a blob can be erased from cloud
+   * @param blobName Name of the blob
+   * @param metadata Ambry metadata of the blob
+   * @param deletedContainers Containers that are deleted
+   * @param now Current time
+   * @param gracePeriod Time to keep a blob after it is deleted or expired
+   * @return Whether the blob can be erased and the reason for it
+   */
+  protected Pair<Boolean, String> getEraseDecision(String blobName, Map<String, String> metadata,
+      Set<Pair<Short, Short>> deletedContainers, long now, long gracePeriod) {
+    Pair<Short, Short> accountContainerIds =
+        new Pair<>(Short.parseShort(metadata.get(CloudBlobMetadata.FIELD_ACCOUNT_ID)),
+            Short.parseShort(metadata.get(CloudBlobMetadata.FIELD_CONTAINER_ID)));
+    boolean eraseBlob = false;
+    String eraseReason;
+
+    if (metadata.containsKey(CloudBlobMetadata.FIELD_DELETION_TIME)) {
+      long deletionTime = Long.parseLong(metadata.get(CloudBlobMetadata.FIELD_DELETION_TIME));
+      eraseBlob = (deletionTime + gracePeriod) < now;
+      eraseReason = String.format("%s: (%s + %s) < %s", CloudBlobMetadata.FIELD_DELETION_TIME, deletionTime,
+          gracePeriod, now);
+    } else if (metadata.containsKey(CloudBlobMetadata.FIELD_EXPIRATION_TIME)) {
+      long expirationTime = Long.parseLong(metadata.get(CloudBlobMetadata.FIELD_EXPIRATION_TIME));
+      eraseBlob = (expirationTime + gracePeriod) < now;
+      eraseReason = String.format("%s: (%s + %s) < %s", CloudBlobMetadata.FIELD_EXPIRATION_TIME, expirationTime,
+          gracePeriod, now);
+    } else if (deletedContainers.contains(accountContainerIds)) {
+      eraseBlob = true;
+      eraseReason = String.format("account = %s, deleted_container = %s", accountContainerIds.getFirst(),
+          accountContainerIds.getSecond());
+    } else {
+      // nothing to do, blob cannot be deleted
+      eraseReason = String.format("No reason to erase blob %s", blobName);
+    }
+    return new Pair<>(eraseBlob, eraseReason);
+  }
+
+  /**
+   * Compacts the packs of a partition, see {@link AzureCloudConfig#azureBlobPackingEnabled}.
+   * <ol>
+   * <li>Erases the rows of packed blobs that can be erased, by the same rules as blobs stored on their own.</li>
+   * <li>Rewrites the live blobs of a pack to a new pack once less than
+   * {@link AzureCloudConfig#azureBlobPackingCompactionMinLiveRatio} of its bytes are live,
+   * and erases the old pack.</li>
+   * <li>Erases packs that no row points to.</li>
+   * </ol>
+   * Packs younger than the compaction grace period are left alone, as their rows may still be being inserted.
+   * @param containerName Azure container of the blobs in the packs
+   * @param deletedContainers Containers that are deleted
+   * @param stopCompaction Returns true if compaction must stop
+   * @return The number of packed blobs erased
+   */
+  protected int compactPacks(String containerName, Set<Pair<Short, Short>> deletedContainers,
+      Supplier<Boolean> stopCompaction) {
+    String packContainerName = azureBlobLayoutStrategy.getPackBlobLayout(containerName, "").containerName;
+    BlobContainerClient packContainerClient = azureStorageClient.getBlobContainerClient(packContainerName);
+    if (!packContainerClient.exists()) {
+      logger.trace("[COMPACT] No packs to compact for {}", containerName);
+      return 0;
+    }
+    long now = System.currentTimeMillis();
+    long gracePeriod = TimeUnit.DAYS.toMillis(cloudConfig.cloudCompactionGracePeriodDays);
+    TableClient tableClient = getTableClient(azureCloudConfig.azureTableNamePackedBlobs);
+
+    // Erase the rows that can be erased, and sum up the live bytes of each pack
+    int numBlobsPurged = 0;
+    Map<String, Long> liveBytesByPack = new HashMap<>();
+    ListEntitiesOptions listEntitiesOptions =
+        new ListEntitiesOptions().setFilter(String.format("PartitionKey eq '%s'", containerName));
+    Iterator<TableEntity> tableEntityIterator =
+        tableClient.listEntities(listEntitiesOptions, null, Context.NONE).iterator();
+    while (tableEntityIterator.hasNext() && !stopCompaction.get()) {
+      PackedBlobEntry entry = PackedBlobEntry.fromTableEntity(tableEntityIterator.next());
+      Pair<Boolean, String> eraseDecision =
+          getEraseDecision(entry.getBlobName(), entry.getMetadata(), deletedContainers, now, gracePeriod);
+      if (!eraseDecision.getFirst()) {
+        liveBytesByPack.merge(entry.getPackName(), entry.getPackedSize(), Long::sum);
+      } else if (cloudConfig.cloudCompactionDryRunEnabled) {
+        logger.trace("[DRY-RUN][COMPACT] Can erase packed blob {} because {}", entry, eraseDecision.getSecond());
+        numBlobsPurged += 1;
+        // Count it as live so that dry-run does not rewrite or erase any pack
+        liveBytesByPack.merge(entry.getPackName(), entry.getPackedSize(), Long::sum);
+      } else {
+        try {
+          tableClient.deleteEntity(entry.getContainerName(), entry.getBlobName());
+          logger.trace("[COMPACT] Erased packed blob {}, reason = {}", entry, eraseDecision.getSecond());
+          numBlobsPurged += 1;
+          azureMetrics.packCompactionEraseCount.inc();
+        } catch (Throwable t) {
+          // Keep its bytes so that its pack is not erased from under it
+          liveBytesByPack.merge(entry.getPackName(), entry.getPackedSize(), Long::sum);
+          azureMetrics.packCompactionErrorCount.inc();
+          logger.error("[COMPACT] Failed to erase packed blob {} due to {}", entry, t.getMessage());
+        }
+      }
+    }
+
+    // Rewrite or erase the packs that are old enough. List them before rewriting any, as the last-modified time of a
+    // pack has a resolution of a second and a pack written by a rewrite below could otherwise look old enough.
+    ListBlobsOptions listBlobsOptions =
+        new ListBlobsOptions().setMaxResultsPerPage(azureCloudConfig.azureBlobStorageMaxResultsPerPage);
+    List<BlobItem> packItems = new ArrayList<>();
+    for (BlobItem packItem : packContainerClient.listBlobs(listBlobsOptions, null)) {
+      if (packItem.getProperties().getLastModified().toInstant().toEpochMilli() + gracePeriod < now) {
+        packItems.add(packItem);
+      }
+    }
+    Iterator<BlobItem> packIterator = packItems.iterator();
+    while (packIterator.hasNext() && !stopCompaction.get()) {
+      BlobItem packItem = packIterator.next();
+      long packLength = packItem.getProperties().getContentLength();
+      long liveBytes = liveBytesByPack.getOrDefault(packItem.getName(), 0L);
+      if (liveBytes >= packLength * azureCloudConfig.azureBlobPackingCompactionMinLiveRatio && liveBytes > 0) {
+        continue;
+      }
+      if (cloudConfig.cloudCompactionDryRunEnabled) {
+        logger.trace("[DRY-RUN][COMPACT] Can compact pack {} with {} live bytes out of {}", packItem.getName(),
+            liveBytes, packLength);
+        continue;
+      }
+      try {
+        if (liveBytes == 0 || rewritePack(containerName, packItem.getName(), stopCompaction)) {
+          packContainerClient.getBlobClient(packItem.getName())
+              .deleteWithResponse(DeleteSnapshotsOptionType.INCLUDE, null, null, null);
+          logger.trace("[COMPACT] Erased pack {} with {} live bytes out of {}", packItem.getName(), liveBytes,
+              packLength);
+        }
+      } catch (Throwable t) {
+        azureMetrics.packCompactionErrorCount.inc();
+        logger.error("[COMPACT] Failed to compact pack {} of {} due to {}", packItem.getName(), containerName,
+            t.getMessage());
+      }
+    }
+    return numBlobsPurged;
+  }
+
+  /**
+   * Writes the live blobs of a pack to a new pack, and points their rows to it
+   * @param containerName Azure container of the blobs in the pack
+   * @param packName Name of the pack
+   * @param stopCompaction Returns true if compaction must stop
+   * @return True if every live blob was moved and the old pack can be erased
+   */
+  protected boolean rewritePack(String containerName, String packName, Supplier<Boolean> stopCompaction) {
+    TableClient tableClient = getTableClient(azureCloudConfig.azureTableNamePackedBlobs);
+    List<PackedBlobEntry> liveEntries = new ArrayList<>();
+    ListEntitiesOptions listEntitiesOptions = new ListEntitiesOptions().setFilter(
+        String.format("PartitionKey eq '%s' and %s eq '%s'", containerName, PackedBlobEntry.FIELD_PACK_NAME, packName));
+    tableClient.listEntities(listEntitiesOptions, null, Context.NONE)
+        .forEach(tableEntity -> liveEntries.add(PackedBlobEntry.fromTableEntity(tableEntity)));
+    if (liveEntries.isEmpty()) {
+      return true;
+    }
+
+    AzureBlobLayoutStrategy.BlobLayout packLayout = azureBlobLayoutStrategy.getPackBlobLayout(containerName, packName);
+    ByteArrayOutputStream oldPack = new ByteArrayOutputStream();
+    createOrGetBlobStore(packLayout.containerName).getBlobClient(packLayout.blobFilePath).downloadStream(oldPack);
+    byte[] oldPackBytes = oldPack.toByteArray();
+    List<PackableBlob> liveBlobs = new ArrayList<>(liveEntries.size());
+    for (PackedBlobEntry entry : liveEntries) {
+      byte[] content = new byte[(int) entry.getPackedSize()];
+      System.arraycopy(oldPackBytes, (int) entry.getPackOffset(), content, 0, content.length);
+      liveBlobs.add(new PackableBlob(new AzureBlobLayoutStrategy.BlobLayout(containerName, entry.getBlobName()),
+          entry.getMetadata(), content));
+    }
+
+    // Upload the new pack first, so that every row points to a pack that exists while it is moved
+    String newPackName = azureBlobLayoutStrategy.newPackName();
+    AzureBlobLayoutStrategy.BlobLayout newPackLayout =
+        azureBlobLayoutStrategy.getPackBlobLayout(containerName, newPackName);
+    int newPackLength = liveBlobs.stream().mapToInt(blob -> blob.content.length).sum();
+    byte[] newPack = new byte[newPackLength];
+    int newPackOffset = 0;
+    List<PackedBlobEntry> movedEntries = new ArrayList<>(liveEntries.size());
+    for (int i = 0; i < liveEntries.size(); i++) {
+      byte[] content = liveBlobs.get(i).content;
+      System.arraycopy(content, 0, newPack, newPackOffset, content.length);
+      movedEntries.add(liveEntries.get(i).withPackLocation(newPackName, newPackOffset, newPackLength));
+      newPackOffset += content.length;
+    }
+    BlobParallelUploadOptions blobParallelUploadOptions =
+        new BlobParallelUploadOptions(new ByteArrayInputStream(newPack));
+    blobParallelUploadOptions.setRequestConditions(new BlobRequestConditions().setIfNoneMatch("*"));
+    blobParallelUploadOptions.setHeaders(new BlobHttpHeaders().setContentType("application/octet-stream"));
+    createOrGetBlobStore(newPackLayout.containerName).getBlobClient(newPackLayout.blobFilePath)
+        .uploadWithResponse(blobParallelUploadOptions, Duration.ofMillis(cloudConfig.cloudRequestTimeout),
+            Context.NONE);
+
+    // Merge only the location into the rows, so that concurrent metadata updates are not lost
+    boolean allMoved = true;
+    for (PackedBlobEntry entry : movedEntries) {
+      if (stopCompaction.get()) {
+        return false;
+      }
+      try {
+        tableClient.updateEntityWithResponse(entry.toPackLocationUpdate(), TableEntityUpdateMode.MERGE, false,
+            Duration.ofMillis(cloudConfig.cloudRequestTimeout), Context.NONE);
+      } catch (Throwable t) {
+        allMoved = false;
+        azureMetrics.packCompactionErrorCount.inc();
+        logger.error("[COMPACT] Failed to move packed blob {} to pack {} due to {}", entry, newPackName,
+            t.getMessage());
+      }
+    }
+    azureMetrics.packCompactionRewriteCount.inc();
+    logger.trace("[COMPACT] Rewrote {} live blobs of pack {} to pack {}", movedEntries.size(), packLayout,
+        newPackLayout);
+    return allMoved;
+  }
+
+  /**
+   * Lists one page of the packed blobs of an Azure container, ordered by blob name
+   * @param containerName Azure container of the blobs
+   * @param continuationToken Continuation token of the page, or null for the first page
+   * @param maxResults Maximum number of packed blobs in the page
+   * @return Rows of the packed blobs in the packed-blobs table, see {@link PackedBlobEntry#fromTableEntity}
+   */
+  public PagedResponse<TableEntity> listPackedBlobs(String containerName, String continuationToken,
+      int maxResults) {
+    ListEntitiesOptions listEntitiesOptions = new ListEntitiesOptions()
+        .setFilter(String.format("PartitionKey eq '%s'", containerName))
+        .setTop(maxResults);
+    return getTableClient(azureCloudConfig.azureTableNamePackedBlobs)
+        .listEntities(listEntitiesOptions, null, Context.NONE)
+        .iterableByPage(continuationToken)
+        .iterator()
+        .next();
+  }
+
   /**
    *
    * @return Returns containers from account-service which are in DELETE_IN_PROGRESS state for N days
@@ -1119,6 +1771,9 @@ public class AzureCloudDestinationSync implements CloudDestination {
           break;
         }
       }
+      if (azureCloudConfig.azureBlobPackingEnabled && !stopCompaction.get()) {
+        numBlobsPurged += compactPacks(containerName, deletedContainers, stopCompaction);
+      }
     } catch (Throwable t) {
       azureMetrics.partitionCompactionErrorCount.inc();
       String error = String.format("[COMPACT] Failed to compact partition %s due to %s", partitionPath, t.getMessage());
@@ -1171,5 +1826,7 @@ public class AzureCloudDestinationSync implements CloudDestination {
   }
 
   @Override
-  public void close() throws IOException {}
+  public void close() throws IOException {
+    requestExecutor.shutdown();
+  }
 }
@@ -15,6 +15,7 @@ package com.github.ambry.cloud.azure;
 
 import com.codahale.metrics.Counter;
 import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
@@ -205,11 +206,53 @@ public class AzureMetrics {
 
   public static final String BLOB_BATCH_UPLOAD_LATENCY = "BlobBatchUploadLatency";
   public final Timer blobBatchUploadLatency;
+
+  public static final String BLOB_BATCH_UPLOAD_CONCURRENCY = "BlobBatchUploadConcurrency";
+  public final Histogram blobBatchUploadConcurrency;
+
+  public static final String BLOB_UPLOADS_IN_FLIGHT = "BlobUploadsInFlight";
+  public final Counter blobUploadsInFlight;
+
+  public static final String BLOB_BATCH_METADATA_LATENCY = "BlobBatchMetadataLatency";
+  public final Timer blobBatchMetadataLatency;
+
+  public static final String PACK_UPLOAD_LATENCY = "PackUploadLatency";
+  public final Timer packUploadLatency;
+
+  public static final String PACK_UPLOAD_ERROR_COUNT = "PackUploadErrorCount";
+  public final Counter packUploadErrorCount;
+
+  public static final String PACKED_BLOB_UPLOAD_COUNT = "PackedBlobUploadCount";
+  public final Counter packedBlobUploadCount;
+
+  public static final String PACKED_BLOB_LOOKUP_LATENCY = "PackedBlobLookupLatency";
+  public final Timer packedBlobLookupLatency;
+
+  public static final String PACK_COMPACTION_REWRITE_COUNT = "PackCompactionRewriteCount";
+  public final Counter packCompactionRewriteCount;
+
+  public static final String PACK_COMPACTION_ERASE_COUNT = "PackCompactionEraseCount";
+  public final Counter packCompactionEraseCount;
+
+  public static final String PACK_COMPACTION_ERROR_COUNT = "PackCompactionErrorCount";
+  public final Counter packCompactionErrorCount;
   public AzureMetrics(MetricRegistry registry) {
     this.metricRegistry = registry;
 
     // V2 metrics
     blobBatchUploadLatency = registry.timer(MetricRegistry.name(AzureMetrics.class, BLOB_BATCH_UPLOAD_LATENCY));
+    blobBatchUploadConcurrency =
+        registry.histogram(MetricRegistry.name(AzureMetrics.class, BLOB_BATCH_UPLOAD_CONCURRENCY));
+    blobUploadsInFlight = registry.counter(MetricRegistry.name(AzureMetrics.class, BLOB_UPLOADS_IN_FLIGHT));
+    blobBatchMetadataLatency = registry.timer(MetricRegistry.name(AzureMetrics.class, BLOB_BATCH_METADATA_LATENCY));
+    packUploadLatency = registry.timer(MetricRegistry.name(AzureMetrics.class, PACK_UPLOAD_LATENCY));
+    packUploadErrorCount = registry.counter(MetricRegistry.name(AzureMetrics.class, PACK_UPLOAD_ERROR_COUNT));
+    packedBlobUploadCount = registry.counter(MetricRegistry.name(AzureMetrics.class, PACKED_BLOB_UPLOAD_COUNT));
+    packedBlobLookupLatency = registry.timer(MetricRegistry.name(AzureMetrics.class, PACKED_BLOB_LOOKUP_LATENCY));
+    packCompactionRewriteCount =
+        registry.counter(MetricRegistry.name(AzureMetrics.class, PACK_COMPACTION_REWRITE_COUNT));
+    packCompactionEraseCount = registry.counter(MetricRegistry.name(AzureMetrics.class, PACK_COMPACTION_ERASE_COUNT));
+    packCompactionErrorCount = registry.counter(MetricRegistry.name(AzureMetrics.class, PACK_COMPACTION_ERROR_COUNT));
     blobCheckError = registry.counter(MetricRegistry.name(AzureMetrics.class, BLOB_CHECK_ERROR));
     blobCompactionErrorCount = registry.counter(MetricRegistry.name(AzureMetrics.class, BLOB_COMPACTION_ERROR_COUNT));
     blobCompactionLatency = registry.timer(MetricRegistry.name(AzureMetrics.class, BLOB_COMPACTION_LATENCY));
@@ -14,6 +14,9 @@
 package com.github.ambry.cloud.azure;
 
 import com.azure.core.http.rest.PagedResponse;
+import com.azure.core.util.Context;
+import com.azure.data.tables.TableClient;
+import com.azure.data.tables.models.ListEntitiesOptions;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.models.BlobItem;
 import com.azure.storage.blob.models.BlobListDetails;
@@ -106,19 +109,17 @@ public class AzuriteUtils {
 
   /**
    * FOR TESTS ONLY !!
-   * Clears all blobs in an Azure container
+   * Clears all blobs in an Azure container, and its packed blobs if packing is enabled
    * @param testPartitionId
    * @param azureCloudDestinationSync
    * @param verifiableProperties
    */
   public void clearContainer(PartitionId testPartitionId, AzureCloudDestinationSync azureCloudDestinationSync,
       VerifiableProperties verifiableProperties) {
-    ClusterMapConfig clusterMapConfig = new ClusterMapConfig(verifiableProperties);
-    AzureBlobLayoutStrategy
-        azureBlobLayoutStrategy = new AzureBlobLayoutStrategy(clusterMapConfig.clusterMapClusterName,
-        new AzureCloudConfig(verifiableProperties));
-    String blobContainerName = azureBlobLayoutStrategy.getClusterAwareAzureContainerName(
-        String.valueOf(testPartitionId.getId()));
+    if (azureCloudDestinationSync.azureCloudConfig.azureBlobPackingEnabled) {
+      clearPackedBlobs(testPartitionId, azureCloudDestinationSync, verifiableProperties);
+    }
+    String blobContainerName = getBlobContainerName(testPartitionId, verifiableProperties);
     BlobContainerClient blobContainerClient = azureCloudDestinationSync.getBlobStore(blobContainerName);
     if (blobContainerClient == null) {
       logger.info("Blob container {} does not exist", blobContainerName);
@@ -139,4 +140,44 @@ public class AzuriteUtils {
       }
     }
   }
+
+  /**
+   * FOR TESTS ONLY !!
+   * Clears the packs of an Azure container and the rows of their blobs in the packed-blobs table
+   * @param testPartitionId
+   * @param azureCloudDestinationSync
+   * @param verifiableProperties
+   */
+  public void clearPackedBlobs(PartitionId testPartitionId, AzureCloudDestinationSync azureCloudDestinationSync,
+      VerifiableProperties verifiableProperties) {
+    String blobContainerName = getBlobContainerName(testPartitionId, verifiableProperties);
+    TableClient tableClient =
+        azureCloudDestinationSync.getTableClient(azureCloudDestinationSync.azureCloudConfig.azureTableNamePackedBlobs);
+    ListEntitiesOptions listEntitiesOptions =
+        new ListEntitiesOptions().setFilter(String.format("PartitionKey eq '%s'", blobContainerName));
+    tableClient.listEntities(listEntitiesOptions, null, Context.NONE)
+        .forEach(tableEntity -> tableClient.deleteEntity(tableEntity.getPartitionKey(), tableEntity.getRowKey()));
+    String packContainerName =
+        azureCloudDestinationSync.azureBlobLayoutStrategy.getPackBlobLayout(blobContainerName, "").containerName;
+    BlobContainerClient packContainerClient = azureCloudDestinationSync.getBlobStore(packContainerName);
+    if (packContainerClient == null) {
+      logger.info("Pack container {} does not exist", packContainerName);
+      return;
+    }
+    packContainerClient.listBlobs().forEach(blobItem -> packContainerClient.getBlobClient(blobItem.getName()).delete());
+  }
+
+  /**
+   * Returns the Azure container of the blobs of a partition
+   * @param testPartitionId
+   * @param verifiableProperties
+   * @return Azure container name
+   */
+  private String getBlobContainerName(PartitionId testPartitionId, VerifiableProperties verifiableProperties) {
+    ClusterMapConfig clusterMapConfig = new ClusterMapConfig(verifiableProperties);
+    AzureBlobLayoutStrategy
+        azureBlobLayoutStrategy = new AzureBlobLayoutStrategy(clusterMapConfig.clusterMapClusterName,
+        new AzureCloudConfig(verifiableProperties));
+    return azureBlobLayoutStrategy.getClusterAwareAzureContainerName(String.valueOf(testPartitionId.getId()));
+  }
 }
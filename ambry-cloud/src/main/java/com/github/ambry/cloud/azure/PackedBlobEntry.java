@@ -0,0 +1,188 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.cloud.azure;
+
+import com.azure.data.tables.models.TableEntity;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * An Ambry blob that is stored in a pack, an Azure blob holding many small Ambry blobs back to back.
+ * Each packed blob has a row in the packed-blobs table. The partition key of the row is the Azure container the blob
+ * would be stored in on its own, and the row key is the blob name. The row holds the location of the blob in its pack.
+ * It also holds the Ambry metadata of the blob, which an Azure blob of its own would keep as Azure metadata.
+ */
+public class PackedBlobEntry {
+  public static final String FIELD_PACK_NAME = "packName";
+  public static final String FIELD_PACK_OFFSET = "packOffset";
+  public static final String FIELD_PACKED_SIZE = "packedSize";
+  public static final String FIELD_PACK_LENGTH = "packLength";
+  // Table service properties that are not Ambry metadata
+  private static final String[] TABLE_PROPERTY_PREFIXES = {"PartitionKey", "RowKey", "Timestamp", "odata."};
+
+  private final String containerName;
+  private final String blobName;
+  private final String packName;
+  private final long packOffset;
+  private final long packedSize;
+  private final long packLength;
+  private final Map<String, String> metadata;
+
+  /**
+   * @param containerName Azure container the blob would be stored in on its own
+   * @param blobName Name of the blob in Azure
+   * @param packName Name of the pack the blob is stored in
+   * @param packOffset Offset of the blob in the pack
+   * @param packedSize Number of bytes of the blob in the pack
+   * @param packLength Length of the whole pack, used by compaction to tell how much of the pack is live
+   * @param metadata Ambry metadata of the blob
+   */
+  public PackedBlobEntry(String containerName, String blobName, String packName, long packOffset, long packedSize,
+      long packLength, Map<String, String> metadata) {
+    this.containerName = containerName;
+    this.blobName = blobName;
+    this.packName = packName;
+    this.packOffset = packOffset;
+    this.packedSize = packedSize;
+    this.packLength = packLength;
+    this.metadata = new HashMap<>(metadata);
+  }
+
+  /**
+   * Reads an entry from a row of the packed-blobs table. Empty values are metadata fields that were removed, see
+   * {@link #toMetadataUpdate}.
+   * @param tableEntity Row of the packed-blobs table
+   * @return {@link PackedBlobEntry}
+   */
+  public static PackedBlobEntry fromTableEntity(TableEntity tableEntity) {
+    Map<String, String> metadata = new HashMap<>();
+    tableEntity.getProperties().forEach((name, value) -> {
+      if (value != null && !value.toString().isEmpty() && !isPackField(name) && !isTableProperty(name)) {
+        metadata.put(name, value.toString());
+      }
+    });
+    return new PackedBlobEntry(tableEntity.getPartitionKey(), tableEntity.getRowKey(),
+        (String) tableEntity.getProperty(FIELD_PACK_NAME), toLong(tableEntity.getProperty(FIELD_PACK_OFFSET)),
+        toLong(tableEntity.getProperty(FIELD_PACKED_SIZE)), toLong(tableEntity.getProperty(FIELD_PACK_LENGTH)),
+        metadata);
+  }
+
+  /**
+   * @return The row of the packed-blobs table for this entry
+   */
+  public TableEntity toTableEntity() {
+    TableEntity tableEntity = toPackLocationUpdate();
+    metadata.forEach(tableEntity::addProperty);
+    return tableEntity;
+  }
+
+  /**
+   * Returns a row that only holds the location of the blob, to move the blob to another pack with a merge that leaves
+   * the metadata of the row alone.
+   * @return Row of the packed-blobs table with the pack fields
+   */
+  public TableEntity toPackLocationUpdate() {
+    return new TableEntity(containerName, blobName)
+        .addProperty(FIELD_PACK_NAME, packName)
+        .addProperty(FIELD_PACK_OFFSET, packOffset)
+        .addProperty(FIELD_PACKED_SIZE, packedSize)
+        .addProperty(FIELD_PACK_LENGTH, packLength);
+  }
+
+  /**
+   * Returns a row that updates the metadata of this entry to {@code newMetadata} with a merge that leaves the location
+   * of the blob alone, so that it cannot undo a move of the blob by compaction. A merge cannot remove a property,
+   * so the fields that are not in {@code newMetadata} anymore are set to an empty value.
+   * @param newMetadata New Ambry metadata of the blob
+   * @return Row of the packed-blobs table with the metadata fields
+   */
+  public TableEntity toMetadataUpdate(Map<String, String> newMetadata) {
+    TableEntity tableEntity = new TableEntity(containerName, blobName);
+    metadata.keySet().forEach(name -> tableEntity.addProperty(name, ""));
+    newMetadata.forEach(tableEntity::addProperty);
+    return tableEntity;
+  }
+
+  /**
+   * @param newMetadata New Ambry metadata of the blob
+   * @return A copy of this entry with {@code newMetadata}
+   */
+  public PackedBlobEntry withMetadata(Map<String, String> newMetadata) {
+    return new PackedBlobEntry(containerName, blobName, packName, packOffset, packedSize, packLength, newMetadata);
+  }
+
+  /**
+   * @return A copy of this entry at another location
+   */
+  public PackedBlobEntry withPackLocation(String newPackName, long newPackOffset, long newPackLength) {
+    return new PackedBlobEntry(containerName, blobName, newPackName, newPackOffset, packedSize, newPackLength,
+        metadata);
+  }
+
+  public String getContainerName() {
+    return containerName;
+  }
+
+  public String getBlobName() {
+    return blobName;
+  }
+
+  public String getPackName() {
+    return packName;
+  }
+
+  public long getPackOffset() {
+    return packOffset;
+  }
+
+  public long getPackedSize() {
+    return packedSize;
+  }
+
+  public long getPackLength() {
+    return packLength;
+  }
+
+  /**
+   * @return A copy of the Ambry metadata of the blob
+   */
+  public Map<String, String> getMetadata() {
+    return new HashMap<>(metadata);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("(%s/%s in pack %s at %s, %s bytes)", containerName, blobName, packName, packOffset,
+        packedSize);
+  }
+
+  private static boolean isPackField(String name) {
+    return name.equals(FIELD_PACK_NAME) || name.equals(FIELD_PACK_OFFSET) || name.equals(FIELD_PACKED_SIZE)
+        || name.equals(FIELD_PACK_LENGTH);
+  }
+
+  private static boolean isTableProperty(String name) {
+    for (String prefix : TABLE_PROPERTY_PREFIXES) {
+      if (name.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static long toLong(Object value) {
+    return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(String.valueOf(value));
+  }
+}
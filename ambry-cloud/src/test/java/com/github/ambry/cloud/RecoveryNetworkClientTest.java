@@ -161,7 +161,7 @@ public class RecoveryNetworkClientTest {
             false, Collections.emptySet(),
             false, false, Container.NamedBlobMode.DISABLED, ACCOUNT_ID, 0,
             0, 0, "",
-            null, Collections.emptySet());
+            null, Collections.emptySet(), null);
   }
 
   ////////////////////////////////////////////// HELPERS ///////////////////////////////////////////////////////////
@@ -381,6 +381,54 @@ public class RecoveryNetworkClientTest {
     });
   }
 
+  /**
+   * Tests that blobs stored in packs are listed from the packed-blobs table after the blobs stored on their own.
+   * @throws Exception
+   */
+  @Test
+  public void testMetadataRecoveryClientWithPackedBlobs() throws Exception {
+    final int NUM_PACKED_BLOBS = 10;
+    // The recovery client reads the same properties
+    properties.setProperty(AzureCloudConfig.AZURE_BLOB_PACKING_ENABLED, String.valueOf(true));
+    AzureCloudDestinationSync azuriteClient = azuriteUtils.getAzuriteClient(
+        properties, mockClusterMap.getMetricRegistry(), null, null);
+    azuriteUtils.clearPackedBlobs(mockPartitionId, azuriteClient, verifiableProperties);
+    // Add NUM_PACKED_BLOBS of size BLOB_SIZE, which are packed
+    List<MessageInfo> packedBlobs = new ArrayList<>();
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    IntStream.range(0, NUM_PACKED_BLOBS).forEach(i -> {
+      BlobId blobId = CloudTestUtil.getUniqueId(testContainer.getParentAccountId(), testContainer.getId(),
+          false, mockPartitionId);
+      packedBlobs.add(new MessageInfo(blobId,
+          BLOB_SIZE, false, false, false, Utils.Infinite_Time, null,
+          testContainer.getParentAccountId(), testContainer.getId(),
+          Utils.getTimeInMsToTheNearestSec(System.currentTimeMillis()), (short) 0));
+      outputStream.write(BLOB_DATA.getBytes(), 0, (int) BLOB_SIZE);
+    });
+    InputStream blobData = new ByteBufferInputStream(ByteBuffer.wrap(outputStream.toByteArray()));
+    MessageFormatWriteSet messageWriteSet = new MessageFormatWriteSet(
+        new MessageSievingInputStream(blobData, packedBlobs, Collections.emptyList(), new MetricRegistry()),
+        packedBlobs, false);
+    azuriteClient.uploadBlobs(messageWriteSet);
+    assertEquals(NUM_PACKED_BLOBS,
+        mockClusterMap.getMetricRegistry().getCounters().get(MetricRegistry.name(AzureMetrics.class,
+            AzureMetrics.PACKED_BLOB_UPLOAD_COUNT)).getCount());
+    packedBlobs.forEach(messageInfo -> azureBlobs.put(messageInfo.getStoreKey().getID(), messageInfo));
+
+    // Pages of the Azure container, then pages of the packed-blobs table, and one more in case the last page of the
+    // table is empty
+    int numPages = (NUM_BLOBS/AZURE_BLOB_STORAGE_MAX_RESULTS_PER_PAGE) +
+        (NUM_BLOBS % AZURE_BLOB_STORAGE_MAX_RESULTS_PER_PAGE == 0 ? 0 : 1) +
+        (NUM_PACKED_BLOBS/AZURE_BLOB_STORAGE_MAX_RESULTS_PER_PAGE) +
+        (NUM_PACKED_BLOBS % AZURE_BLOB_STORAGE_MAX_RESULTS_PER_PAGE == 0 ? 0 : 1) + 1;
+    List<MessageInfo> metadataList = fetchPaginatedMetadata(null, numPages);
+    // Assert we recovered all blobIds intact, including the packed ones
+    metadataList.forEach(messageInfo -> {
+      assertEquals(String.format("Azure blob metadata does not match that in local disk"),
+          azureBlobs.get(messageInfo.getStoreKey().getID()), messageInfo);
+    });
+  }
+
   /**
    * Tests serialization of RecoveryToken
    * @throws IOException
@@ -0,0 +1,401 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.cloud.azure;
+
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.models.BlobItem;
+import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.cloud.CloudBlobMetadata;
+import com.github.ambry.cloud.CloudStorageException;
+import com.github.ambry.cloud.CloudTestUtil;
+import com.github.ambry.cloud.DummyCloudUpdateValidator;
+import com.github.ambry.clustermap.MockClusterMap;
+import com.github.ambry.clustermap.MockPartitionId;
+import com.github.ambry.commons.BlobId;
+import com.github.ambry.config.CloudConfig;
+import com.github.ambry.config.VerifiableProperties;
+import com.github.ambry.messageformat.MessageFormatWriteSet;
+import com.github.ambry.messageformat.MessageSievingInputStream;
+import com.github.ambry.store.MessageInfo;
+import com.github.ambry.utils.ByteBufferInputStream;
+import com.github.ambry.utils.Utils;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+
+/**
+ * Tests packing of small blobs by {@link AzureCloudDestinationSync} against Azurite.
+ * See {@link AzureCloudConfig#azureBlobPackingEnabled}.
+ */
+public class AzureBlobPackingTest {
+  private final AzuriteUtils azuriteUtils;
+  private final DummyCloudUpdateValidator dummyCloudUpdateValidator = new DummyCloudUpdateValidator();
+  private final MockClusterMap mockClusterMap;
+  private final MockPartitionId mockPartitionId;
+  private final Properties properties;
+  private final int NUM_BLOBS = 10;
+  private final String BLOB_DATA = "Use the Force, Luke!";
+  // Room for 3 blobs of BLOB_DATA and a one digit suffix in a pack
+  private final int MAX_PACK_SIZE = 64;
+  private final short ACCOUNT_ID = 1024, CONTAINER_ID = 2048;
+  private AzureCloudDestinationSync azuriteClient;
+  private String containerName;
+
+  public AzureBlobPackingTest() throws Exception {
+    azuriteUtils = new AzuriteUtils();
+    properties = azuriteUtils.getAzuriteConnectionProperties();
+    properties.setProperty(CloudConfig.CLOUD_COMPACTION_DRY_RUN_ENABLED, String.valueOf(false));
+    properties.setProperty(CloudConfig.CLOUD_COMPACTION_GRACE_PERIOD_DAYS, String.valueOf(0));
+    properties.setProperty(AzureCloudConfig.AZURE_NAME_SCHEME_VERSION, "1");
+    properties.setProperty(AzureCloudConfig.AZURE_BLOB_CONTAINER_STRATEGY, "Partition");
+    properties.setProperty(AzureCloudConfig.AZURE_BLOB_PACKING_ENABLED, String.valueOf(true));
+    properties.setProperty(AzureCloudConfig.AZURE_BLOB_PACKING_MAX_BLOB_SIZE_IN_BYTES, String.valueOf(MAX_PACK_SIZE));
+    properties.setProperty(AzureCloudConfig.AZURE_BLOB_PACKING_MAX_PACK_SIZE_IN_BYTES, String.valueOf(MAX_PACK_SIZE));
+    mockClusterMap = new MockClusterMap(false, true, 1, 1, 1, true, false, "localhost");
+    mockPartitionId =
+        (MockPartitionId) mockClusterMap.getAllPartitionIds(MockClusterMap.DEFAULT_PARTITION_CLASS).get(0);
+  }
+
+  ////////////////////////////////////////////// HELPERS ///////////////////////////////////////////////////////////
+
+  /**
+   * Before the test, deletes all blobs, packs and packed-blob rows of the test partition in Azurite
+   * @throws ReflectiveOperationException
+   */
+  @Before
+  public void before() throws ReflectiveOperationException {
+    // Assume Azurite is up and running
+    assumeTrue(azuriteUtils.connectToAzurite());
+    azuriteClient = createAzuriteClient(properties);
+    azuriteUtils.clearContainer(mockPartitionId, azuriteClient, new VerifiableProperties(properties));
+    containerName = azuriteClient.azureBlobLayoutStrategy.getClusterAwareAzureContainerName(
+        String.valueOf(mockPartitionId.getId()));
+  }
+
+  /**
+   * Returns a client to Azurite with its own metrics, so that tests can count the requests of each client
+   * @param properties Client properties
+   * @return {@link AzureCloudDestinationSync}
+   * @throws ReflectiveOperationException
+   */
+  private AzureCloudDestinationSync createAzuriteClient(Properties properties) throws ReflectiveOperationException {
+    return azuriteUtils.getAzuriteClient(properties, new MetricRegistry(), null, null);
+  }
+
+  /**
+   * Creates blobs that are small enough to be packed, 3 to a pack
+   * @param numBlobs Number of blobs
+   * @return Content of the blobs by blob ID, in upload order
+   */
+  private Map<BlobId, byte[]> createSmallBlobs(int numBlobs) {
+    Map<BlobId, byte[]> blobs = new LinkedHashMap<>();
+    for (int i = 0; i < numBlobs; i++) {
+      blobs.put(CloudTestUtil.getUniqueId(ACCOUNT_ID, CONTAINER_ID, false, mockPartitionId),
+          (BLOB_DATA + (i % 10)).getBytes());
+    }
+    return blobs;
+  }
+
+  /**
+   * Uploads blobs as one replication batch
+   * @param client Azurite client
+   * @param blobs Content of the blobs by blob ID
+   * @param expirationTime Expiration time of the blobs
+   * @throws IOException
+   * @throws CloudStorageException
+   */
+  private void uploadBlobs(AzureCloudDestinationSync client, Map<BlobId, byte[]> blobs, long expirationTime)
+      throws IOException, CloudStorageException {
+    List<MessageInfo> messageInfos = new ArrayList<>();
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    blobs.forEach((blobId, content) -> {
+      messageInfos.add(new MessageInfo(blobId, content.length, false, false, false, expirationTime, null, ACCOUNT_ID,
+          CONTAINER_ID, Utils.getTimeInMsToTheNearestSec(System.currentTimeMillis()), (short) 0));
+      outputStream.write(content, 0, content.length);
+    });
+    MessageFormatWriteSet messageWriteSet = new MessageFormatWriteSet(
+        new MessageSievingInputStream(new ByteBufferInputStream(ByteBuffer.wrap(outputStream.toByteArray())),
+            messageInfos, Collections.emptyList(), new MetricRegistry()), messageInfos, false);
+    client.uploadBlobs(messageWriteSet);
+  }
+
+  /**
+   * Downloads a blob
+   * @param client Azurite client
+   * @param blobId Blob ID
+   * @return Content of the blob
+   * @throws CloudStorageException
+   */
+  private byte[] downloadBlob(AzureCloudDestinationSync client, BlobId blobId) throws CloudStorageException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    client.downloadBlob(blobId, outputStream);
+    return outputStream.toByteArray();
+  }
+
+  /**
+   * Returns the row of a blob in the packed-blobs table, read with a new client so that no cached row is returned
+   * @param blobId Blob ID
+   * @return {@link PackedBlobEntry}, or null if the blob is not in a pack
+   * @throws Exception
+   */
+  private PackedBlobEntry getPackedBlobEntry(BlobId blobId) throws Exception {
+    AzureCloudDestinationSync client = createAzuriteClient(properties);
+    return client.getPackedBlobEntry(client.azureBlobLayoutStrategy.getDataBlobLayout(blobId));
+  }
+
+  /**
+   * @return Names of the packs of the test partition
+   */
+  private Set<String> listPacks() {
+    String packContainerName = azuriteClient.azureBlobLayoutStrategy.getPackBlobLayout(containerName, "").containerName;
+    BlobContainerClient packContainerClient = azuriteClient.getBlobStore(packContainerName);
+    if (packContainerClient == null) {
+      return Collections.emptySet();
+    }
+    return packContainerClient.listBlobs().stream().map(BlobItem::getName).collect(Collectors.toSet());
+  }
+
+  ////////////////////////////////////////////// TESTS ///////////////////////////////////////////////////////////
+
+  /**
+   * Tests that a batch of small blobs is uploaded as packs, and that every packed blob is read back from its pack
+   * @throws Exception
+   */
+  @Test
+  public void testUploadAndDownloadPackedBlobs() throws Exception {
+    Map<BlobId, byte[]> blobs = createSmallBlobs(NUM_BLOBS);
+    // Too large to be packed
+    BlobId largeBlobId = CloudTestUtil.getUniqueId(ACCOUNT_ID, CONTAINER_ID, false, mockPartitionId);
+    byte[] largeBlob = new byte[MAX_PACK_SIZE + 1];
+    largeBlob[0] = 42;
+    blobs.put(largeBlobId, largeBlob);
+    uploadBlobs(azuriteClient, blobs, Utils.Infinite_Time);
+
+    assertEquals(NUM_BLOBS, azuriteClient.azureMetrics.packedBlobUploadCount.getCount());
+    assertEquals(0, azuriteClient.azureMetrics.packUploadErrorCount.getCount());
+    // 3 blobs fit in a pack
+    Set<String> packs = listPacks();
+    assertEquals((NUM_BLOBS + 2) / 3, packs.size());
+    Map<String, Long> packedBytesByPack = new LinkedHashMap<>();
+    for (Map.Entry<BlobId, byte[]> blob : blobs.entrySet()) {
+      PackedBlobEntry entry = getPackedBlobEntry(blob.getKey());
+      if (blob.getKey().equals(largeBlobId)) {
+        assertNull("Large blob must not be packed", entry);
+      } else {
+        assertNotNull("Small blob must be packed", entry);
+        assertTrue(packs.contains(entry.getPackName()));
+        assertEquals(blob.getValue().length, entry.getPackedSize());
+        packedBytesByPack.merge(entry.getPackName(), entry.getPackedSize(), Long::sum);
+      }
+      assertTrue(azuriteClient.doesBlobExist(blob.getKey()));
+      // Read with a new client, so that nothing is cached
+      assertArrayEquals("Blob content does not match", blob.getValue(),
+          downloadBlob(createAzuriteClient(properties), blob.getKey()));
+    }
+    assertEquals(packs, packedBytesByPack.keySet());
+  }
+
+  /**
+   * Tests that TTL-update, delete and undelete of a packed blob merge its metadata into its row without moving it
+   * @throws Exception
+   */
+  @Test
+  public void testPackedBlobUpdates() throws Exception {
+    Map<BlobId, byte[]> blobs = createSmallBlobs(1);
+    BlobId blobId = blobs.keySet().iterator().next();
+    uploadBlobs(azuriteClient, blobs, System.currentTimeMillis() + 3600000);
+    PackedBlobEntry uploadedEntry = getPackedBlobEntry(blobId);
+    assertTrue(uploadedEntry.getMetadata().containsKey(CloudBlobMetadata.FIELD_EXPIRATION_TIME));
+
+    // TTL-update removes the expiration time
+    azuriteClient.updateBlobExpiration(blobId, Utils.Infinite_Time, dummyCloudUpdateValidator);
+    PackedBlobEntry entry = getPackedBlobEntry(blobId);
+    assertFalse(entry.getMetadata().containsKey(CloudBlobMetadata.FIELD_EXPIRATION_TIME));
+
+    // Delete sets the deletion time
+    long deletionTime = System.currentTimeMillis();
+    azuriteClient.deleteBlob(blobId, deletionTime, (short) 0, dummyCloudUpdateValidator);
+    entry = getPackedBlobEntry(blobId);
+    assertEquals(String.valueOf(deletionTime), entry.getMetadata().get(CloudBlobMetadata.FIELD_DELETION_TIME));
+    assertFalse("TTL-update must not be lost",
+        entry.getMetadata().containsKey(CloudBlobMetadata.FIELD_EXPIRATION_TIME));
+
+    // Undelete removes the deletion time and bumps the life version
+    assertEquals(1, azuriteClient.undeleteBlob(blobId, (short) 1, dummyCloudUpdateValidator));
+    entry = getPackedBlobEntry(blobId);
+    assertFalse(entry.getMetadata().containsKey(CloudBlobMetadata.FIELD_DELETION_TIME));
+    assertEquals("1", entry.getMetadata().get(CloudBlobMetadata.FIELD_LIFE_VERSION));
+
+    // The blob is still where it was uploaded
+    assertEquals(uploadedEntry.getPackName(), entry.getPackName());
+    assertEquals(uploadedEntry.getPackOffset(), entry.getPackOffset());
+    assertEquals(uploadedEntry.getPackedSize(), entry.getPackedSize());
+    assertArrayEquals(blobs.get(blobId), downloadBlob(createAzuriteClient(properties), blobId));
+  }
+
+  /**
+   * Tests that uploading packed blobs again is absorbed as a conflict and leaves their rows alone
+   * @throws Exception
+   */
+  @Test
+  public void testConflictingPackedBlobUpload() throws Exception {
+    Map<BlobId, byte[]> blobs = createSmallBlobs(NUM_BLOBS);
+    uploadBlobs(azuriteClient, blobs, Utils.Infinite_Time);
+    Map<BlobId, PackedBlobEntry> uploadedEntries = new LinkedHashMap<>();
+    for (BlobId blobId : blobs.keySet()) {
+      uploadedEntries.put(blobId, getPackedBlobEntry(blobId));
+    }
+    Set<String> uploadedPacks = listPacks();
+
+    // Another replica thread uploads the same blobs
+    AzureCloudDestinationSync otherClient = createAzuriteClient(properties);
+    uploadBlobs(otherClient, blobs, Utils.Infinite_Time);
+    assertEquals(NUM_BLOBS, otherClient.azureMetrics.blobUploadConflictCount.getCount());
+    assertEquals(0, otherClient.azureMetrics.packedBlobUploadCount.getCount());
+    assertEquals(0, otherClient.azureMetrics.packUploadErrorCount.getCount());
+
+    // The second packs are not referenced, and the rows still point to the first packs
+    assertEquals(2 * uploadedPacks.size(), listPacks().size());
+    for (Map.Entry<BlobId, byte[]> blob : blobs.entrySet()) {
+      assertEquals(uploadedEntries.get(blob.getKey()).getPackName(), getPackedBlobEntry(blob.getKey()).getPackName());
+      assertArrayEquals(blob.getValue(), downloadBlob(createAzuriteClient(properties), blob.getKey()));
+    }
+  }
+
+  /**
+   * Tests that compaction erases the rows of deleted packed blobs, rewrites packs that are mostly dead, erases packs
+   * that no row points to, and leaves packs younger than the grace period alone
+   * @throws Exception
+   */
+  @Test
+  public void testCompactPacks() throws Exception {
+    // Full packs of mostly dead blobs
+    Map<BlobId, byte[]> deadBlobs = createSmallBlobs(9);
+    uploadBlobs(azuriteClient, deadBlobs, Utils.Infinite_Time);
+    Set<String> mostlyDeadPacks = listPacks();
+    // Packs of live blobs
+    Map<BlobId, byte[]> liveBlobs = createSmallBlobs(NUM_BLOBS);
+    uploadBlobs(azuriteClient, liveBlobs, Utils.Infinite_Time);
+    Set<String> livePacks = new HashSet<>(listPacks());
+    livePacks.removeAll(mostlyDeadPacks);
+    // Unreferenced packs
+    uploadBlobs(createAzuriteClient(properties), liveBlobs, Utils.Infinite_Time);
+    Set<String> unreferencedPacks = new HashSet<>(listPacks());
+    unreferencedPacks.removeAll(mostlyDeadPacks);
+    unreferencedPacks.removeAll(livePacks);
+    assertEquals(livePacks.size(), unreferencedPacks.size());
+
+    // Delete 2 of every 3 blobs of the first packs, which leaves a third of their bytes live
+    Map<BlobId, byte[]> survivors = new LinkedHashMap<>();
+    long deletionTime = System.currentTimeMillis() - 1;
+    int i = 0;
+    for (Map.Entry<BlobId, byte[]> blob : deadBlobs.entrySet()) {
+      if (i++ % 3 == 0) {
+        survivors.put(blob.getKey(), blob.getValue());
+      } else {
+        azuriteClient.deleteBlob(blob.getKey(), deletionTime, (short) 0, dummyCloudUpdateValidator);
+      }
+    }
+    int numDeleted = deadBlobs.size() - survivors.size();
+
+    // Nothing is old enough to compact within the grace period
+    Properties gracePeriodProperties = new Properties();
+    gracePeriodProperties.putAll(properties);
+    gracePeriodProperties.setProperty(CloudConfig.CLOUD_COMPACTION_GRACE_PERIOD_DAYS, String.valueOf(1));
+    AzureCloudDestinationSync gracePeriodClient = createAzuriteClient(gracePeriodProperties);
+    assertEquals(0, gracePeriodClient.compactPacks(containerName, Collections.emptySet(), () -> false));
+    assertEquals(0, gracePeriodClient.azureMetrics.packCompactionRewriteCount.getCount());
+    Set<String> allPacks = new HashSet<>(mostlyDeadPacks);
+    allPacks.addAll(livePacks);
+    allPacks.addAll(unreferencedPacks);
+    assertEquals(allPacks, listPacks());
+
+    // Past the grace period
+    AzureCloudDestinationSync compactionClient = createAzuriteClient(properties);
+    assertEquals(numDeleted, compactionClient.compactPacks(containerName, Collections.emptySet(), () -> false));
+    assertEquals(numDeleted, compactionClient.azureMetrics.packCompactionEraseCount.getCount());
+    assertEquals(mostlyDeadPacks.size(), compactionClient.azureMetrics.packCompactionRewriteCount.getCount());
+    assertEquals(0, compactionClient.azureMetrics.packCompactionErrorCount.getCount());
+
+    Set<String> packs = listPacks();
+    assertTrue("Live packs must be kept", packs.containsAll(livePacks));
+    assertTrue("Rewritten packs must be erased", Collections.disjoint(packs, mostlyDeadPacks));
+    assertTrue("Unreferenced packs must be erased", Collections.disjoint(packs, unreferencedPacks));
+    for (BlobId blobId : deadBlobs.keySet()) {
+      PackedBlobEntry entry = getPackedBlobEntry(blobId);
+      if (survivors.containsKey(blobId)) {
+        assertFalse("Survivor must be moved to a new pack", mostlyDeadPacks.contains(entry.getPackName()));
+        assertTrue(packs.contains(entry.getPackName()));
+        assertArrayEquals(survivors.get(blobId), downloadBlob(createAzuriteClient(properties), blobId));
+      } else {
+        assertNull("Row of deleted blob must be erased", entry);
+      }
+    }
+    for (Map.Entry<BlobId, byte[]> blob : liveBlobs.entrySet()) {
+      assertTrue(livePacks.contains(getPackedBlobEntry(blob.getKey()).getPackName()));
+      assertArrayEquals(blob.getValue(), downloadBlob(createAzuriteClient(properties), blob.getKey()));
+    }
+  }
+
+  /**
+   * Tests that rewriting a pack keeps a metadata update that lands after the rows of the pack were read
+   * @throws Exception
+   */
+  @Test
+  public void testRewritePackKeepsConcurrentUpdate() throws Exception {
+    Map<BlobId, byte[]> blobs = createSmallBlobs(3);
+    uploadBlobs(azuriteClient, blobs, System.currentTimeMillis() + 3600000);
+    BlobId updatedBlobId = blobs.keySet().iterator().next();
+    String packName = getPackedBlobEntry(updatedBlobId).getPackName();
+
+    // Rewrite checks for stop before moving each row, TTL-update a blob of the pack from another client then
+    AzureCloudDestinationSync otherClient = createAzuriteClient(properties);
+    AtomicBoolean updated = new AtomicBoolean(false);
+    assertTrue(azuriteClient.rewritePack(containerName, packName, () -> {
+      if (updated.compareAndSet(false, true)) {
+        try {
+          otherClient.updateBlobExpiration(updatedBlobId, Utils.Infinite_Time, dummyCloudUpdateValidator);
+        } catch (CloudStorageException e) {
+          throw new RuntimeException(e);
+        }
+      }
+      return false;
+    }));
+    assertTrue(updated.get());
+
+    for (Map.Entry<BlobId, byte[]> blob : blobs.entrySet()) {
+      PackedBlobEntry entry = getPackedBlobEntry(blob.getKey());
+      assertNotEquals("Blob must be moved to a new pack", packName, entry.getPackName());
+      assertEquals("TTL-update must not be lost", !blob.getKey().equals(updatedBlobId),
+          entry.getMetadata().containsKey(CloudBlobMetadata.FIELD_EXPIRATION_TIME));
+      assertArrayEquals(blob.getValue(), downloadBlob(createAzuriteClient(properties), blob.getKey()));
+    }
+  }
+}
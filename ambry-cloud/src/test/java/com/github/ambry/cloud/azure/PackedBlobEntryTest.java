@@ -0,0 +1,85 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.cloud.azure;
+
+import com.azure.data.tables.models.TableEntity;
+import com.github.ambry.cloud.CloudBlobMetadata;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/** Test cases for {@link PackedBlobEntry} */
+public class PackedBlobEntryTest {
+
+  private final Map<String, String> metadata = new HashMap<>();
+
+  public PackedBlobEntryTest() {
+    metadata.put(CloudBlobMetadata.FIELD_ACCOUNT_ID, "101");
+    metadata.put(CloudBlobMetadata.FIELD_CONTAINER_ID, "5");
+    metadata.put(CloudBlobMetadata.FIELD_SIZE, "1024");
+    metadata.put(CloudBlobMetadata.FIELD_EXPIRATION_TIME, "12345");
+    metadata.put(CloudBlobMetadata.FIELD_LIFE_VERSION, "0");
+  }
+
+  /** Test that an entry is read back from its table row as it was written */
+  @Test
+  public void testTableEntityRoundTrip() {
+    PackedBlobEntry entry = new PackedBlobEntry("main-42", "blob1", "pack-1", 2048, 1024, 4096, metadata);
+    TableEntity tableEntity = entry.toTableEntity();
+    assertEquals("main-42", tableEntity.getPartitionKey());
+    assertEquals("blob1", tableEntity.getRowKey());
+    // Properties the table service adds to every row are not metadata
+    tableEntity.addProperty("Timestamp", OffsetDateTime.now());
+    tableEntity.addProperty("odata.etag", "W/\"etag\"");
+
+    PackedBlobEntry readEntry = PackedBlobEntry.fromTableEntity(tableEntity);
+    assertEquals("main-42", readEntry.getContainerName());
+    assertEquals("blob1", readEntry.getBlobName());
+    assertEquals("pack-1", readEntry.getPackName());
+    assertEquals(2048, readEntry.getPackOffset());
+    assertEquals(1024, readEntry.getPackedSize());
+    assertEquals(4096, readEntry.getPackLength());
+    assertEquals(metadata, readEntry.getMetadata());
+  }
+
+  /** Test that metadata and location updates only carry their own fields */
+  @Test
+  public void testUpdates() {
+    PackedBlobEntry entry = new PackedBlobEntry("main-42", "blob1", "pack-1", 2048, 1024, 4096, metadata);
+    Map<String, String> newMetadata = entry.getMetadata();
+    newMetadata.remove(CloudBlobMetadata.FIELD_EXPIRATION_TIME);
+    newMetadata.put(CloudBlobMetadata.FIELD_DELETION_TIME, "67890");
+    TableEntity metadataUpdate = entry.toMetadataUpdate(newMetadata);
+    assertNull("Metadata update must not move the blob", metadataUpdate.getProperty(PackedBlobEntry.FIELD_PACK_NAME));
+    assertEquals("Removed field must be cleared", "",
+        metadataUpdate.getProperty(CloudBlobMetadata.FIELD_EXPIRATION_TIME));
+    assertEquals("67890", metadataUpdate.getProperty(CloudBlobMetadata.FIELD_DELETION_TIME));
+
+    // A row merged with the update reads back without the removed field
+    TableEntity mergedRow = entry.toTableEntity();
+    metadataUpdate.getProperties().forEach(mergedRow::addProperty);
+    assertEquals(newMetadata, PackedBlobEntry.fromTableEntity(mergedRow).getMetadata());
+
+    TableEntity locationUpdate = entry.withPackLocation("pack-2", 0, 1024).toPackLocationUpdate();
+    assertNull("Location update must not change metadata",
+        locationUpdate.getProperty(CloudBlobMetadata.FIELD_LIFE_VERSION));
+    assertEquals("pack-2", locationUpdate.getProperty(PackedBlobEntry.FIELD_PACK_NAME));
+    assertEquals(0L, locationUpdate.getProperty(PackedBlobEntry.FIELD_PACK_OFFSET));
+    assertEquals(1024L, locationUpdate.getProperty(PackedBlobEntry.FIELD_PACK_LENGTH));
+  }
+}
@@ -26,6 +26,7 @@ import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -695,6 +696,9 @@ public class ClusterMapUtils {
     private Collection<? extends PartitionId> allPartitions;
     private Map<String, SortedMap<Integer, List<PartitionId>>> partitionIdsByClassAndLocalReplicaCount;
     private Map<PartitionId, List<ReplicaId>> partitionIdToLocalReplicas;
+    // published whenever the maps above are replaced, so that selecting a partition needs neither the lock nor a copy
+    // of the partitions of the class.
+    private volatile SelectionSnapshot selectionSnapshot;
     private HelixClusterManagerMetrics clusterManagerMetrics;
 
     /**
@@ -733,6 +737,8 @@ public class ClusterMapUtils {
       partitionIdToLocalReplicas = new HashMap<>();
       populatePartitionAndLocalReplicaMaps(allPartitions, partitionIdsByClassAndLocalReplicaCount,
           partitionIdToLocalReplicas, localDatacenterName);
+      selectionSnapshot =
+          createSelectionSnapshot(allPartitions, partitionIdsByClassAndLocalReplicaCount, partitionIdToLocalReplicas);
     }
 
     /**
@@ -853,32 +859,35 @@ public class ClusterMapUtils {
         Predicate<PartitionState> stateCriteria, String criteriaStr) {
       PartitionId anySuitablePartition = null;
       long startTime = SystemTime.getInstance().milliseconds();
-      List<PartitionId> partitionsInClass = new ArrayList<>();
-      rwLock.readLock().lock();
+      SelectionSnapshot snapshot = selectionSnapshot;
+      List<PartitionId> partitionsInClass = snapshot.getPartitionsInClass(partitionClass, defaultPartitionClass);
       try {
-        partitionsInClass = getPartitionsInClass(partitionClass, true);
-        int workingSize = partitionsInClass.size();
+        // the snapshot is shared, so it is only copied if the first partition tried is not suitable.
+        List<PartitionId> workingPartitions = partitionsInClass;
+        int workingSize = workingPartitions.size();
         while (workingSize > 0) {
           int randomIndex = ThreadLocalRandom.current().nextInt(workingSize);
-          PartitionId selected = partitionsInClass.get(randomIndex);
+          PartitionId selected = workingPartitions.get(randomIndex);
           if (partitionsToExclude == null || partitionsToExclude.size() == 0 || !partitionsToExclude.contains(
               selected)) {
             if (stateCriteria.test(selected.getPartitionState())) {
               anySuitablePartition = selected;
-              if (hasEnoughEligibleWritableReplicas(selected)) {
+              if (hasEnoughEligibleWritableReplicas(selected, snapshot.partitionIdToLocalReplicas)) {
                 return selected;
               }
             }
           }
+          if (workingPartitions == partitionsInClass) {
+            workingPartitions = new ArrayList<>(partitionsInClass);
+          }
           if (randomIndex != workingSize - 1) {
-            partitionsInClass.set(randomIndex, partitionsInClass.get(workingSize - 1));
+            workingPartitions.set(randomIndex, workingPartitions.get(workingSize - 1));
           }
           workingSize--;
         }
         //if we are here then that means we couldn't find any partition with all local replicas up
         return anySuitablePartition;
       } finally {
-        rwLock.readLock().unlock();
         if (anySuitablePartition != null) {
           logger.debug(
               "Partition class {}, number of partitions {}, selected partition {} for {} criteria, search time in Ms {}",
@@ -899,14 +908,17 @@ public class ClusterMapUtils {
      * all local replicas if such information is available. In case localDatacenterName is not available, all of the
      * partition's replicas should be up.
      * @param partitionId the {@link PartitionId} to check.
+     * @param partitionIdToLocalReplicas the local replicas of each partition.
      * @return true if enough replicas are eligible; false otherwise.
      */
-    private boolean hasEnoughEligibleWritableReplicas(PartitionId partitionId) {
+    private boolean hasEnoughEligibleWritableReplicas(PartitionId partitionId,
+        Map<PartitionId, List<ReplicaId>> partitionIdToLocalReplicas) {
       if (localDatacenterName != null && !localDatacenterName.isEmpty()) {
-        return areAllLocalReplicasForPartitionUp(partitionId) && areAllReplicaStatesEligibleForPut(partitionId,
-            localDatacenterName);
+        return areAllLocalReplicasForPartitionUp(partitionId, partitionIdToLocalReplicas)
+            && areAllReplicaStatesEligibleForPut(partitionId, localDatacenterName, partitionIdToLocalReplicas);
       } else {
-        return areAllReplicasForPartitionUp(partitionId) && areAllReplicaStatesEligibleForPut(partitionId, null);
+        return areAllReplicasForPartitionUp(partitionId) && areAllReplicaStatesEligibleForPut(partitionId, null,
+            partitionIdToLocalReplicas);
       }
     }
 
@@ -938,9 +950,11 @@ public class ClusterMapUtils {
     /**
      * Check whether all local replicas of the given {@link PartitionId} are up.
      * @param partitionId the {@link PartitionId} to check.
+     * @param partitionIdToLocalReplicas the local replicas of each partition.
      * @return true if all local replicas are up; false otherwise.
      */
-    private boolean areAllLocalReplicasForPartitionUp(PartitionId partitionId) {
+    private boolean areAllLocalReplicasForPartitionUp(PartitionId partitionId,
+        Map<PartitionId, List<ReplicaId>> partitionIdToLocalReplicas) {
       for (ReplicaId replica : partitionIdToLocalReplicas.get(partitionId)) {
         if (replica.isDown()) {
           return false;
@@ -981,9 +995,11 @@ public class ClusterMapUtils {
      * be either LEADER or STANDBY.)
      * @param partitionId the {@link PartitionId} to check.
      * @param dcName the datacenter which replicas come from. If null, replicas from all datacenters should be checked.
+     * @param partitionIdToLocalReplicas the local replicas of each partition.
      * @return true if all replicas are eligible for put.
      */
-    private boolean areAllReplicaStatesEligibleForPut(PartitionId partitionId, String dcName) {
+    private boolean areAllReplicaStatesEligibleForPut(PartitionId partitionId, String dcName,
+        Map<PartitionId, List<ReplicaId>> partitionIdToLocalReplicas) {
       Set<ReplicaId> eligibleReplicas = new HashSet<>();
       EnumSet.of(ReplicaState.STANDBY, ReplicaState.LEADER)
           .forEach(state -> eligibleReplicas.addAll(partitionId.getReplicaIdsByState(state, dcName)));
@@ -1075,6 +1091,8 @@ public class ClusterMapUtils {
         allPartitions = partitionsInCluster;
         partitionIdsByClassAndLocalReplicaCount = partitionSortedByReplicaCount;
         partitionIdToLocalReplicas = partitionAndLocalReplicas;
+        selectionSnapshot =
+            createSelectionSnapshot(partitionsInCluster, partitionSortedByReplicaCount, partitionAndLocalReplicas);
       } finally {
         rwLock.writeLock().unlock();
       }
@@ -1107,5 +1125,73 @@ public class ClusterMapUtils {
         replicaCountToPartitionIds.computeIfAbsent(localReplicaCount, key -> new ArrayList<>()).add(partition);
       }
     }
+
+    /**
+     * Creates the {@link SelectionSnapshot} of the given partition-selection related maps. The maps must not be
+     * modified afterwards.
+     * @param allPartitions all the partitions in cluster.
+     * @param partitionIdsByClassAndLocalReplicaCount partitions by class, sorted by local replica count.
+     * @param partitionIdToLocalReplicas a map that tracks partition to its local replicas.
+     * @return the {@link SelectionSnapshot}.
+     */
+    private SelectionSnapshot createSelectionSnapshot(Collection<? extends PartitionId> allPartitions,
+        Map<String, SortedMap<Integer, List<PartitionId>>> partitionIdsByClassAndLocalReplicaCount,
+        Map<PartitionId, List<ReplicaId>> partitionIdToLocalReplicas) {
+      Map<String, List<PartitionId>> partitionsByClass = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+      for (Map.Entry<String, SortedMap<Integer, List<PartitionId>>> entry
+          : partitionIdsByClassAndLocalReplicaCount.entrySet()) {
+        List<PartitionId> partitions = new ArrayList<>();
+        // only the partitions with replica count >= min replica count specified in ClusterMapConfig are selected
+        for (List<PartitionId> partitionIds : entry.getValue().tailMap(minimumLocalReplicaCount).values()) {
+          partitions.addAll(partitionIds);
+        }
+        partitionsByClass.put(entry.getKey(), Collections.unmodifiableList(partitions));
+      }
+      return new SelectionSnapshot(Collections.unmodifiableList(new ArrayList<>(allPartitions)), partitionsByClass,
+          partitionIdToLocalReplicas);
+    }
+  }
+
+  /**
+   * An immutable view of the partitions that {@link PartitionSelectionHelper} selects partitions from.
+   */
+  private static class SelectionSnapshot {
+    final List<PartitionId> allPartitions;
+    final Map<String, List<PartitionId>> partitionsByClass;
+    final Map<PartitionId, List<ReplicaId>> partitionIdToLocalReplicas;
+
+    /**
+     * @param allPartitions all the partitions in cluster.
+     * @param partitionsByClass the partitions of each class that have enough local replicas to be selected.
+     * @param partitionIdToLocalReplicas a map that tracks partition to its local replicas.
+     */
+    SelectionSnapshot(List<PartitionId> allPartitions, Map<String, List<PartitionId>> partitionsByClass,
+        Map<PartitionId, List<ReplicaId>> partitionIdToLocalReplicas) {
+      this.allPartitions = allPartitions;
+      this.partitionsByClass = partitionsByClass;
+      this.partitionIdToLocalReplicas = partitionIdToLocalReplicas;
+    }
+
+    /**
+     * @param partitionClass the class of the partitions desired. Can be {@code null}.
+     * @param defaultPartitionClass the default partition class to use if {@code partitionClass} is not found.
+     * @return the unmodifiable list of partitions to select from for the {@code partitionClass}. Returns all
+     *         partitions if {@code partitionClass} is {@code null}.
+     */
+    List<PartitionId> getPartitionsInClass(String partitionClass, String defaultPartitionClass) {
+      if (partitionClass == null) {
+        return allPartitions;
+      }
+      List<PartitionId> partitions = partitionsByClass.get(partitionClass);
+      if (partitions == null) {
+        partitions = partitionsByClass.get(defaultPartitionClass);
+      }
+      if (partitions == null) {
+        throw new IllegalArgumentException(
+            "No partitions for partition class = '" + partitionClass + "' or default partition class = '"
+                + defaultPartitionClass + "' found");
+      }
+      return partitions;
+    }
   }
 }
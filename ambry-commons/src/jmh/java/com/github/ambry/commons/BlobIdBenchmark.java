@@ -0,0 +1,86 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.commons;
+
+import com.github.ambry.clustermap.ClusterMap;
+import com.github.ambry.clustermap.MockClusterMap;
+import com.github.ambry.clustermap.PartitionId;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks parsing and serialization of {@link BlobId}s of the current version, which every request pays for.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlobIdBenchmark {
+  private MockClusterMap clusterMap;
+  private BlobId blobId;
+  private String blobIdString;
+  private byte[] blobIdBytes;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    clusterMap = new MockClusterMap();
+    PartitionId partitionId = clusterMap.getWritablePartitionIds(MockClusterMap.DEFAULT_PARTITION_CLASS).get(0);
+    blobId = new BlobId(CommonTestUtils.getCurrentBlobIdVersion(), BlobId.BlobIdType.NATIVE,
+        ClusterMap.UNKNOWN_DATACENTER_ID, (short) 1, (short) 1, partitionId, false, BlobId.BlobDataType.DATACHUNK);
+    blobIdString = blobId.getID();
+    blobIdBytes = blobId.toBytes();
+  }
+
+  @TearDown(Level.Trial)
+  public void cleanup() throws IOException {
+    clusterMap.cleanup();
+  }
+
+  @Benchmark
+  public BlobId parseFromString() throws IOException {
+    return new BlobId(blobIdString, clusterMap);
+  }
+
+  @Benchmark
+  public BlobId parseFromStream() throws IOException {
+    return new BlobId(new DataInputStream(new ByteArrayInputStream(blobIdBytes)), clusterMap);
+  }
+
+  @Benchmark
+  public byte[] toBytes() {
+    return blobId.toBytes();
+  }
+
+  @Benchmark
+  public String toIdString() {
+    return blobId.getID();
+  }
+}
@@ -152,6 +152,8 @@ public class BlobId extends StoreKey {
   private static final int IS_ENCRYPTED_MASK = 0x4;
   private static final int BLOB_DATA_TYPE_MASK = 0x18;
   private static final int BLOB_DATA_TYPE_SHIFT = 3;
+  // UUID#compareTo compares the halves of the UUIDs as signed longs before Java 20, and as unsigned longs since then.
+  private static final boolean UUID_HALVES_COMPARED_UNSIGNED = new UUID(-1, 0).compareTo(new UUID(0, 0)) > 0;
 
   private final short version;
   private final BlobIdType type;
@@ -172,6 +174,13 @@ public class BlobId extends StoreKey {
   private final String uuidStr;
   private final boolean isEncrypted;
   private final BlobDataType blobDataType;
+  /**
+   * The bytes of the uuid as serialized by {@link #toBytes()}, and their offset relative to the start of the serialized
+   * blob ID. Computed on the first call to {@link #compareToSerialized}, since a search compares the same key with many
+   * serialized keys. {@link #serializedUuidOffset} is written before the volatile {@link #serializedUuidBytes}.
+   */
+  private int serializedUuidOffset;
+  private volatile byte[] serializedUuidBytes;
 
   /**
    * Constructs a new BlobId by taking arguments for the required fields.
@@ -623,6 +632,58 @@ public class BlobId extends StoreKey {
     return result;
   }
 
+  /**
+   * Compares this blob ID with a serialized blob ID of version 3 or above without deserializing it. Blob IDs of
+   * version 1 and 2 are only compared this way if they are in a different version comparison group than this blob ID,
+   * since comparing them requires comparing their {@link PartitionId}s.
+   */
+  @Override
+  public int compareToSerialized(ByteBuffer buffer, int position) {
+    short otherVersion = buffer.getShort(position);
+    if (otherVersion < BLOB_ID_V1 || otherVersion > BLOB_ID_V6) {
+      return SERIALIZED_COMPARISON_UNSUPPORTED;
+    }
+    int result = Integer.signum(Short.compare(getVersionComparisonGroup(), getVersionComparisonGroup(otherVersion)));
+    if (result != 0) {
+      return result;
+    }
+    byte[] uuidBytes = serializedUuidBytes;
+    if (uuidBytes == null) {
+      // the partition is the only field of variable size before the uuid, and it has the same size in all the blob
+      // IDs of a cluster.
+      serializedUuidOffset =
+          VERSION_FIELD_LENGTH_IN_BYTES + FLAG_FIELD_LENGTH_IN_BYTES + DATACENTER_ID_FIELD_LENGTH_IN_BYTES
+              + ACCOUNT_ID_FIELD_LENGTH_IN_BYTES + CONTAINER_ID_FIELD_LENGTH_IN_BYTES + partitionId.getBytes().length;
+      uuidBytes = getUuidBytesArray();
+      serializedUuidBytes = uuidBytes;
+    }
+    int uuidPosition = position + serializedUuidOffset;
+    switch (version) {
+      case BLOB_ID_V3:
+      case BLOB_ID_V4:
+      case BLOB_ID_V5:
+        int uuidSize = buffer.getInt(uuidPosition);
+        return compareToSerializedString(uuidBytes, buffer, uuidPosition + UUID_SIZE_FIELD_LENGTH_IN_BYTES, uuidSize);
+      case BLOB_ID_V6:
+        long otherMostSigBits = buffer.getLong(uuidPosition);
+        long otherLeastSigBits = buffer.getLong(uuidPosition + Long.BYTES);
+        if (UUID_HALVES_COMPARED_UNSIGNED) {
+          result = Long.compareUnsigned(uuid.getMostSignificantBits(), otherMostSigBits);
+          if (result == 0) {
+            result = Long.compareUnsigned(uuid.getLeastSignificantBits(), otherLeastSigBits);
+          }
+        } else {
+          result = Long.compare(uuid.getMostSignificantBits(), otherMostSigBits);
+          if (result == 0) {
+            result = Long.compare(uuid.getLeastSignificantBits(), otherLeastSigBits);
+          }
+        }
+        return Integer.signum(result);
+      default:
+        return SERIALIZED_COMPARISON_UNSUPPORTED;
+    }
+  }
+
   /**
    * This gets a "version comparison group" to be used in the {@link #compareTo} method. If two blob IDs are in
    * different groups, they cannot be deemed equal to each other. This allows for comparison strategies that rely
@@ -630,6 +691,14 @@ public class BlobId extends StoreKey {
    * @return the "version comparison group" number.
    */
   private short getVersionComparisonGroup() {
+    return getVersionComparisonGroup(version);
+  }
+
+  /**
+   * @param version the version of a blob ID.
+   * @return the "version comparison group" number of a blob ID of the given version.
+   */
+  private static short getVersionComparisonGroup(short version) {
     switch (version) {
       case BLOB_ID_V1:
         return 1;
@@ -131,6 +131,25 @@ public class ServerMetrics {
   public final Histogram replicaMetadataTotalTimeInMs;
   public final Histogram replicaMetadataTotalSizeOfMessages;
 
+  public final Histogram fileCopyMetadataRequestQueueTimeInMs;
+  public final Histogram fileCopyMetadataRequestProcessingTimeInMs;
+  public final Histogram fileCopyMetadataResponseQueueTimeInMs;
+  public final Histogram fileCopyMetadataSendTimeInMs;
+  public final Histogram fileCopyMetadataTotalTimeInMs;
+
+  public final Histogram fileCopyChunkRequestQueueTimeInMs;
+  public final Histogram fileCopyChunkRequestProcessingTimeInMs;
+  public final Histogram fileCopyChunkResponseQueueTimeInMs;
+  public final Histogram fileCopyChunkSendTimeInMs;
+  public final Histogram fileCopyChunkTotalTimeInMs;
+
+  public final Histogram getResponseCompressionRatioPercent;
+  public final Histogram getResponseCompressionTimeInMicroseconds;
+  public final Counter getResponseCompressedMessageCount;
+  public final Counter getResponseCompressionSkippedMessageCount;
+  public final Counter getResponseCompressionFallbackCount;
+  public final Counter getResponseCompressionSavedBytes;
+
   public final Histogram triggerCompactionRequestQueueTimeInMs;
   public final Histogram triggerCompactionRequestProcessingTimeInMs;
   public final Histogram triggerCompactionResponseQueueTimeInMs;
@@ -204,6 +223,9 @@ public class ServerMetrics {
   public final Meter undeleteBlobRequestRate;
   public final Meter updateBlobTtlRequestRate;
   public final Meter replicaMetadataRequestRate;
+  public final Meter fileCopyMetadataRequestRate;
+  public final Meter fileCopyChunkRequestRate;
+  public final Meter fileCopyChunkBytesRate;
   public final Meter triggerCompactionRequestRate;
   public final Meter requestControlRequestRate;
   public final Meter replicationControlRequestRate;
@@ -225,6 +247,8 @@ public class ServerMetrics {
   public final Meter undeleteBlobDroppedRate;
   public final Meter updateBlobTtlDroppedRate;
   public final Meter replicaMetadataDroppedRate;
+  public final Meter fileCopyMetadataDroppedRate;
+  public final Meter fileCopyChunkDroppedRate;
   public final Meter triggerCompactionDroppedRate;
   public final Meter requestControlDroppedRate;
   public final Meter replicationControlDroppedRate;
@@ -444,6 +468,38 @@ public class ServerMetrics {
     replicaMetadataTotalSizeOfMessages =
         registry.histogram(MetricRegistry.name(requestClass, "ReplicaMetadataTotalSizeOfMessages"));
 
+    fileCopyMetadataRequestQueueTimeInMs =
+        registry.histogram(MetricRegistry.name(requestClass, "FileCopyMetadataRequestQueueTime"));
+    fileCopyMetadataRequestProcessingTimeInMs =
+        registry.histogram(MetricRegistry.name(requestClass, "FileCopyMetadataRequestProcessingTime"));
+    fileCopyMetadataResponseQueueTimeInMs =
+        registry.histogram(MetricRegistry.name(requestClass, "FileCopyMetadataResponseQueueTime"));
+    fileCopyMetadataSendTimeInMs = registry.histogram(MetricRegistry.name(requestClass, "FileCopyMetadataSendTime"));
+    fileCopyMetadataTotalTimeInMs =
+        registry.histogram(MetricRegistry.name(requestClass, "FileCopyMetadataTotalTime"));
+
+    fileCopyChunkRequestQueueTimeInMs =
+        registry.histogram(MetricRegistry.name(requestClass, "FileCopyChunkRequestQueueTime"));
+    fileCopyChunkRequestProcessingTimeInMs =
+        registry.histogram(MetricRegistry.name(requestClass, "FileCopyChunkRequestProcessingTime"));
+    fileCopyChunkResponseQueueTimeInMs =
+        registry.histogram(MetricRegistry.name(requestClass, "FileCopyChunkResponseQueueTime"));
+    fileCopyChunkSendTimeInMs = registry.histogram(MetricRegistry.name(requestClass, "FileCopyChunkSendTime"));
+    fileCopyChunkTotalTimeInMs = registry.histogram(MetricRegistry.name(requestClass, "FileCopyChunkTotalTime"));
+
+    getResponseCompressionRatioPercent =
+        registry.histogram(MetricRegistry.name(requestClass, "GetResponseCompressionRatioPercent"));
+    getResponseCompressionTimeInMicroseconds =
+        registry.histogram(MetricRegistry.name(requestClass, "GetResponseCompressionTimeInMicroseconds"));
+    getResponseCompressedMessageCount =
+        registry.counter(MetricRegistry.name(requestClass, "GetResponseCompressedMessageCount"));
+    getResponseCompressionSkippedMessageCount =
+        registry.counter(MetricRegistry.name(requestClass, "GetResponseCompressionSkippedMessageCount"));
+    getResponseCompressionFallbackCount =
+        registry.counter(MetricRegistry.name(requestClass, "GetResponseCompressionFallbackCount"));
+    getResponseCompressionSavedBytes =
+        registry.counter(MetricRegistry.name(requestClass, "GetResponseCompressionSavedBytes"));
+
     triggerCompactionRequestQueueTimeInMs =
         registry.histogram(MetricRegistry.name(requestClass, "TriggerCompactionRequestQueueTimeInMs"));
     triggerCompactionRequestProcessingTimeInMs =
@@ -565,6 +621,9 @@ public class ServerMetrics {
     replicateBlobRequestOnDeleteRate = registry.meter(MetricRegistry.name(requestClass, "ReplicateBlobRequestOnDeleteRate"));
     replicateDeleteRecordRate = registry.meter(MetricRegistry.name(requestClass, "ReplicateDeleteRecordRate"));
     replicaMetadataRequestRate = registry.meter(MetricRegistry.name(requestClass, "ReplicaMetadataRequestRate"));
+    fileCopyMetadataRequestRate = registry.meter(MetricRegistry.name(requestClass, "FileCopyMetadataRequestRate"));
+    fileCopyChunkRequestRate = registry.meter(MetricRegistry.name(requestClass, "FileCopyChunkRequestRate"));
+    fileCopyChunkBytesRate = registry.meter(MetricRegistry.name(requestClass, "FileCopyChunkBytesRate"));
     triggerCompactionRequestRate = registry.meter(MetricRegistry.name(requestClass, "TriggerCompactionRequestRate"));
     requestControlRequestRate = registry.meter(MetricRegistry.name(requestClass, "RequestControlRequestRate"));
     replicationControlRequestRate = registry.meter(MetricRegistry.name(requestClass, "ReplicationControlRequestRate"));
@@ -588,6 +647,8 @@ public class ServerMetrics {
     updateBlobTtlDroppedRate = registry.meter(MetricRegistry.name(requestClass, "UpdateBlobTtlDroppedRate"));
     replicateBlobDroppedRate = registry.meter(MetricRegistry.name(requestClass, "ReplicateBlobDroppedRate"));
     replicaMetadataDroppedRate = registry.meter(MetricRegistry.name(requestClass, "ReplicaMetadataDroppedRate"));
+    fileCopyMetadataDroppedRate = registry.meter(MetricRegistry.name(requestClass, "FileCopyMetadataDroppedRate"));
+    fileCopyChunkDroppedRate = registry.meter(MetricRegistry.name(requestClass, "FileCopyChunkDroppedRate"));
     triggerCompactionDroppedRate = registry.meter(MetricRegistry.name(requestClass, "TriggerCompactionDroppedRate"));
     requestControlDroppedRate = registry.meter(MetricRegistry.name(requestClass, "RequestControlDroppedRate"));
     replicationControlDroppedRate = registry.meter(MetricRegistry.name(requestClass, "ReplicationControlDroppedRate"));
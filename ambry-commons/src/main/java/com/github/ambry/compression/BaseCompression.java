@@ -144,6 +144,31 @@ public abstract class BaseCompression implements Compression {
         + estimateMaxCompressedDataSize(sourceDataSize);
   }
 
+  /**
+   * Get the size of the header that precedes the compressed data in the compressed buffer.  The header contains the
+   * version, the algorithm name and the original data size.
+   * @return The size of the header in bytes.
+   */
+  public int getCompressedHeaderSize() {
+    return VERSION_AND_NAME_LENGTH_AND_ORIGINAL_SIZE_SIZE + getAlgorithmNameBinary().length;
+  }
+
+  /**
+   * Write the header that precedes the compressed data to the compressed buffer, and advance its position to where the
+   * compressed data should be written.  This is used by callers that produce the compressed data themselves, for
+   * example by streaming compression.
+   * @param compressedBuffer The buffer to write the header to.  It must have at least getCompressedHeaderSize() bytes
+   *                         remaining.
+   * @param sourceDataSize The size of the original data.
+   */
+  public void writeCompressedHeader(ByteBuffer compressedBuffer, int sourceDataSize) {
+    byte[] algorithmNameBinary = getAlgorithmNameBinary();
+    compressedBuffer.put((byte) 1);
+    compressedBuffer.put((byte) algorithmNameBinary.length);
+    compressedBuffer.put(algorithmNameBinary);
+    compressedBuffer.putInt(sourceDataSize);
+  }
+
   /**
    * Get the original data size stored inside the compressed buffer.  The compressed buffer contains version,
    * algorithm name, original data size, and compressed data.  The compressedBuffer indexes will not be changed.
@@ -200,7 +225,7 @@ public abstract class BaseCompression implements Compression {
     Utils.checkNotNullOrEmpty(sourceBuffer, "sourceBuffer cannot be null or empty.");
     Utils.checkNotNullOrEmpty(compressedBuffer, "compressedBuffer cannot be null or empty.");
 
-    int overheadSize = VERSION_AND_NAME_LENGTH_AND_ORIGINAL_SIZE_SIZE + getAlgorithmNameBinary().length;
+    int overheadSize = getCompressedHeaderSize();
     if (compressedBuffer.remaining() < overheadSize) {
       throw new IllegalArgumentException("compressedBuffer " + compressedBuffer.remaining() + " is too small.");
     }
@@ -209,11 +234,7 @@ public abstract class BaseCompression implements Compression {
     int compressedBufferStartPosition = compressedBuffer.position();
     int sourceBufferStartPosition = sourceBuffer.position();
     try {
-      byte[] algorithmNameBinary = getAlgorithmNameBinary();
-      compressedBuffer.put((byte) 1);
-      compressedBuffer.put((byte) algorithmNameBinary.length);
-      compressedBuffer.put(algorithmNameBinary);
-      compressedBuffer.putInt(sourceBuffer.remaining());
+      writeCompressedHeader(compressedBuffer, sourceBuffer.remaining());
 
       // Apply compression and store the output in the compressed buffer.
       // Note: compressNative() uses less memory than buffer size and that's why it returns the actual compressed size.
@@ -14,7 +14,10 @@
 package com.github.ambry.compression;
 
 import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDecompressCtx;
+import com.github.luben.zstd.ZstdDictDecompress;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 
 /**
@@ -25,6 +28,9 @@ import java.nio.ByteBuffer;
  * <p>
  * Zstd compression level range is from negative 7 (fastest) to 22 (slowest in compression speed,
  * but best compression ratio), with level 3 as the default.
+ * <p>
+ * Data compressed with a Zstd dictionary, see {@link ZstdDictionaries}, has the id of the dictionary in its frame
+ * header.  It is decompressed with the dictionary set by {@link #setDictionaries(ZstdDictionaries)}.
  */
 public class ZstdCompression extends BaseCompressionWithLevel {
 
@@ -33,6 +39,57 @@ public class ZstdCompression extends BaseCompressionWithLevel {
    */
   public static final String ALGORITHM_NAME = "ZSTD";
 
+  // Zstd frame header fields.  See https://github.com/facebook/zstd/blob/dev/doc/zstd_compression_format.md
+  private static final int FRAME_MAGIC_NUMBER = 0xFD2FB528;
+  private static final int FRAME_HEADER_DESCRIPTOR_OFFSET = 4;
+  private static final int SINGLE_SEGMENT_FLAG = 0x20;
+  private static final int DICTIONARY_ID_FLAG_MASK = 0x03;
+  private static final int[] DICTIONARY_ID_FIELD_SIZES = {0, 1, 2, 4};
+
+  private volatile ZstdDictionaries dictionaries;
+
+  /**
+   * Set the dictionaries used to decompress data that was compressed with a dictionary.
+   * @param dictionaries The dictionaries.  Can be null if there are none.
+   */
+  public void setDictionaries(ZstdDictionaries dictionaries) {
+    this.dictionaries = dictionaries;
+  }
+
+  /**
+   * @return The dictionaries used to decompress data that was compressed with a dictionary, or null if there are none.
+   */
+  public ZstdDictionaries getDictionaries() {
+    return dictionaries;
+  }
+
+  /**
+   * Get the id of the dictionary that a Zstd frame was compressed with.  The buffer indexes are not changed.
+   * @param buffer The buffer that contains the frame.
+   * @param frameOffset The offset of the frame in the buffer.
+   * @param frameSize The size of the frame.
+   * @return The id of the dictionary, or 0 if the frame was compressed without a dictionary.
+   */
+  static long getFrameDictionaryId(ByteBuffer buffer, int frameOffset, int frameSize) {
+    if (frameSize <= FRAME_HEADER_DESCRIPTOR_OFFSET
+        || buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN).getInt(frameOffset) != FRAME_MAGIC_NUMBER) {
+      return 0;
+    }
+    int descriptor = buffer.get(frameOffset + FRAME_HEADER_DESCRIPTOR_OFFSET);
+    int dictionaryIdSize = DICTIONARY_ID_FIELD_SIZES[descriptor & DICTIONARY_ID_FLAG_MASK];
+    // The window descriptor byte is only present if the frame is not a single segment.
+    int dictionaryIdOffset =
+        frameOffset + FRAME_HEADER_DESCRIPTOR_OFFSET + 1 + ((descriptor & SINGLE_SEGMENT_FLAG) == 0 ? 1 : 0);
+    if (dictionaryIdOffset + dictionaryIdSize > frameOffset + frameSize) {
+      return 0;
+    }
+    long dictionaryId = 0;
+    for (int i = dictionaryIdSize - 1; i >= 0; i--) {
+      dictionaryId = (dictionaryId << 8) | (buffer.get(dictionaryIdOffset + i) & 0xFF);
+    }
+    return dictionaryId;
+  }
+
   /**
    * Get the unique name of this compression algorithm.
    * WARNING - Do not change the algorithm name.  See Compression interface for detail.
@@ -163,6 +220,13 @@ public class ZstdCompression extends BaseCompressionWithLevel {
           "Cannot decompress due to mismatch sourceBuffer type and compressedBuffer buffer type.");
     }
 
+    long dictionaryId = getFrameDictionaryId(compressedBuffer, compressedBufferOffset, compressedDataSize);
+    if (dictionaryId != 0) {
+      decompressWithDictionary(dictionaryId, compressedBuffer, compressedBufferOffset, compressedDataSize,
+          decompressedBuffer, decompressedBufferOffset, decompressedDataSize);
+      return;
+    }
+
     // Decompress the buffer either as both direct memory buffer or both heap buffers.
     long decompressedSize;
     if (compressedBuffer.isDirect()) {
@@ -184,4 +248,33 @@ public class ZstdCompression extends BaseCompressionWithLevel {
           decompressedBuffer.capacity(), decompressedBufferOffset, decompressedDataSize));
     }
   }
+
+  /**
+   * Decompress a Zstd frame that was compressed with a dictionary.  Parameters are the same as decompressNative().
+   * @param dictionaryId The id of the dictionary in the frame header.
+   */
+  private void decompressWithDictionary(long dictionaryId, ByteBuffer compressedBuffer, int compressedBufferOffset,
+      int compressedDataSize, ByteBuffer decompressedBuffer, int decompressedBufferOffset, int decompressedDataSize)
+      throws CompressionException {
+    ZstdDictionaries loadedDictionaries = dictionaries;
+    ZstdDictDecompress dictionary =
+        loadedDictionaries == null ? null : loadedDictionaries.getDecompressDictionary(dictionaryId);
+    if (dictionary == null) {
+      throw new CompressionException("Zstd decompression failed because dictionary " + dictionaryId
+          + " is not loaded.");
+    }
+    try (ZstdDecompressCtx context = new ZstdDecompressCtx()) {
+      context.loadDict(dictionary);
+      if (compressedBuffer.isDirect()) {
+        context.decompressDirectByteBuffer(decompressedBuffer, decompressedBufferOffset, decompressedDataSize,
+            compressedBuffer, compressedBufferOffset, compressedDataSize);
+      } else {
+        context.decompressByteArray(decompressedBuffer.array(),
+            decompressedBuffer.arrayOffset() + decompressedBufferOffset, decompressedDataSize,
+            compressedBuffer.array(), compressedBuffer.arrayOffset() + compressedBufferOffset, compressedDataSize);
+      }
+    } catch (RuntimeException ex) {
+      throw new CompressionException("Zstd decompression with dictionary " + dictionaryId + " failed.", ex);
+    }
+  }
 }
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * A set of trained Zstandard dictionaries, identified by their dictionary id.
+ * <p>
+ * Small blobs of the same kind, like JSON documents of a container, barely compress on their own but share most of
+ * their content with each other.  A dictionary trained on samples of such blobs lets Zstd compress them well.
+ * The id of the dictionary is written in the header of every Zstd frame compressed with it, so a frame can always be
+ * decompressed as long as its dictionary is still loaded.  That is why a new version of a dictionary must have a new
+ * id, and older dictionaries must be kept as long as blobs compressed with them exist.
+ * <p>
+ * This class is thread-safe.  The native dictionaries are created once and shared by all threads.
+ */
+public class ZstdDictionaries {
+
+  /**
+   * The extension of the dictionary files loaded by {@link #load(File, int)}.
+   */
+  public static final String DICTIONARY_FILE_EXTENSION = ".dict";
+
+  private final Map<Long, ZstdDictCompress> compressDictionaries = new HashMap<>();
+  private final Map<Long, ZstdDictDecompress> decompressDictionaries = new HashMap<>();
+
+  /**
+   * Create the dictionaries from their content.
+   * @param dictionaries The content of the dictionaries, as produced by {@link #train(List, int)} or by the zstd
+   *                     command line tool.
+   * @param compressionLevel The compression level to compress with.
+   */
+  public ZstdDictionaries(Collection<byte[]> dictionaries, int compressionLevel) {
+    for (byte[] dictionary : dictionaries) {
+      long dictionaryId = Zstd.getDictIdFromDict(dictionary);
+      if (dictionaryId == 0) {
+        throw new IllegalArgumentException("Zstd dictionary has no dictionary id.");
+      }
+      if (decompressDictionaries.containsKey(dictionaryId)) {
+        throw new IllegalArgumentException("Duplicate Zstd dictionary id " + dictionaryId);
+      }
+      compressDictionaries.put(dictionaryId, new ZstdDictCompress(dictionary, compressionLevel));
+      decompressDictionaries.put(dictionaryId, new ZstdDictDecompress(dictionary));
+    }
+  }
+
+  /**
+   * Load all the dictionary files, with the {@link #DICTIONARY_FILE_EXTENSION} extension, in a directory.
+   * @param directory The directory of the dictionary files.
+   * @param compressionLevel The compression level to compress with.
+   * @return The loaded dictionaries.
+   * @throws IOException if a dictionary file cannot be read.
+   */
+  public static ZstdDictionaries load(File directory, int compressionLevel) throws IOException {
+    File[] files = directory.listFiles((dir, name) -> name.endsWith(DICTIONARY_FILE_EXTENSION));
+    if (files == null) {
+      throw new IOException("Cannot list Zstd dictionaries in " + directory);
+    }
+    List<byte[]> dictionaries = new ArrayList<>();
+    for (File file : files) {
+      dictionaries.add(Files.readAllBytes(file.toPath()));
+    }
+    return new ZstdDictionaries(dictionaries, compressionLevel);
+  }
+
+  /**
+   * Train a dictionary from samples of the content to compress.
+   * @param samples The samples.  Zstd recommends a total size of about 100 times the dictionary size.
+   * @param dictionarySize The maximum size of the dictionary in bytes.
+   * @return The content of the dictionary.
+   * @throws CompressionException if the training failed, for example because there are too few samples.
+   */
+  public static byte[] train(List<byte[]> samples, int dictionarySize) throws CompressionException {
+    byte[] dictionary = new byte[dictionarySize];
+    long size = Zstd.trainFromBuffer(samples.toArray(new byte[0][]), dictionary);
+    if (Zstd.isError(size)) {
+      throw new CompressionException("Zstd dictionary training failed with error " + Zstd.getErrorName(size));
+    }
+    byte[] trainedDictionary = new byte[(int) size];
+    System.arraycopy(dictionary, 0, trainedDictionary, 0, trainedDictionary.length);
+    return trainedDictionary;
+  }
+
+  /**
+   * @return The ids of the loaded dictionaries.
+   */
+  public Set<Long> getDictionaryIds() {
+    return Collections.unmodifiableSet(decompressDictionaries.keySet());
+  }
+
+  /**
+   * @param dictionaryId The id of the dictionary.
+   * @return The dictionary to compress with, or null if the dictionary is not loaded.
+   */
+  public ZstdDictCompress getCompressDictionary(long dictionaryId) {
+    return compressDictionaries.get(dictionaryId);
+  }
+
+  /**
+   * @param dictionaryId The id of the dictionary.
+   * @return The dictionary to decompress with, or null if the dictionary is not loaded.
+   */
+  public ZstdDictDecompress getDecompressDictionary(long dictionaryId) {
+    return decompressDictionaries.get(dictionaryId);
+  }
+}
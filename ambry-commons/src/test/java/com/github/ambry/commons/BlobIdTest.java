@@ -249,6 +249,43 @@ public class BlobIdTest {
     }
   }
 
+  /**
+   * Tests that comparing blobIds with serialized blobIds gives the same results as {@link BlobId#compareTo}.
+   */
+  @Test
+  public void testSerializedComparisons() {
+    // the version check is to do this inter-version test just once (since this is a parametrized test).
+    assumeTrue(version == BLOB_ID_V1);
+    for (int i = 0; i < 100; i++) {
+      List<BlobId> blobIds = new ArrayList<>();
+      for (short version : BlobId.getAllValidVersions()) {
+        blobIds.add(getRandomBlobId(version));
+        blobIds.add(getRandomBlobId(version));
+      }
+      for (BlobId blobId : blobIds) {
+        for (BlobId otherBlobId : blobIds) {
+          byte[] otherBytes = otherBlobId.toBytes();
+          int position = random.nextInt(10);
+          ByteBuffer buffer = ByteBuffer.allocate(position + otherBytes.length);
+          buffer.position(position);
+          buffer.put(otherBytes);
+          buffer.position(1);
+          int result = blobId.compareToSerialized(buffer, position);
+          assertEquals("Position of buffer should not change", 1, buffer.position());
+          if (blobId.getVersion() >= BLOB_ID_V3 && otherBlobId.getVersion() >= BLOB_ID_V3) {
+            assertThat("blobIdV" + blobId.getVersion() + " should support comparisons with blobIdV"
+                + otherBlobId.getVersion(), result, not(SERIALIZED_COMPARISON_UNSUPPORTED));
+          }
+          if (result != SERIALIZED_COMPARISON_UNSUPPORTED) {
+            assertEquals("Comparison of blobIdV" + blobId.getVersion() + " with serialized blobIdV"
+                    + otherBlobId.getVersion() + " does not match compareTo",
+                Integer.signum(blobId.compareTo(otherBlobId)), result);
+          }
+        }
+      }
+    }
+  }
+
   /**
    * Test crafting of BlobIds.
    * Ensure that, except for the version, type, account and container, crafted id has the same constituents as the
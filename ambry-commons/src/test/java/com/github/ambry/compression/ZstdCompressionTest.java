@@ -13,6 +13,14 @@
  */
 package com.github.ambry.compression;
 
+import com.github.luben.zstd.EndDirective;
+import com.github.luben.zstd.ZstdCompressCtx;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -93,4 +101,68 @@ public class ZstdCompressionTest {
     // Test mid-buffer (with extra bytes on left and right of buffer.)
     LZ4CompressionTest.compressAndDecompressNativeTest(compression, "Test maximum compression using maximum level.", 3, 0);
   }
+
+  @Test
+  public void testCompressAndDecompressWithDictionary() throws CompressionException {
+    ZstdCompression compression = new ZstdCompression();
+    byte[] dictionary = ZstdDictionaries.train(createJsonSamples(2000), 4096);
+    ZstdDictionaries dictionaries =
+        new ZstdDictionaries(Collections.singletonList(dictionary), compression.getDefaultCompressionLevel());
+    long dictionaryId = dictionaries.getDictionaryIds().iterator().next();
+    Assert.assertTrue(dictionaryId != 0);
+    Assert.assertNotNull(dictionaries.getCompressDictionary(dictionaryId));
+    Assert.assertNull(dictionaries.getDecompressDictionary(dictionaryId + 1));
+
+    // Compress a sample with the dictionary, the same way the streaming compressor of the router does.
+    byte[] sample = createJsonSamples(1).get(0);
+    ByteBuffer compressedBuffer = ByteBuffer.allocateDirect(compression.getCompressBufferSize(sample.length));
+    compression.writeCompressedHeader(compressedBuffer, sample.length);
+    ByteBuffer sourceBuffer = ByteBuffer.allocateDirect(sample.length);
+    sourceBuffer.put(sample).flip();
+    try (ZstdCompressCtx context = new ZstdCompressCtx()) {
+      context.loadDict(dictionaries.getCompressDictionary(dictionaryId));
+      while (!context.compressDirectByteBufferStream(compressedBuffer, sourceBuffer, EndDirective.END)) {
+        // flush the frame.
+      }
+    }
+    compressedBuffer.flip();
+    int frameOffset = compression.getCompressedHeaderSize();
+    Assert.assertEquals(dictionaryId, ZstdCompression.getFrameDictionaryId(compressedBuffer, frameOffset,
+        compressedBuffer.remaining() - frameOffset));
+
+    // Decompression fails without the dictionary, and succeeds once it is loaded.
+    ByteBuffer decompressedBuffer = ByteBuffer.allocateDirect(sample.length);
+    try {
+      compression.decompress(compressedBuffer.duplicate(), decompressedBuffer.duplicate());
+      Assert.fail("Decompression should fail without the dictionary.");
+    } catch (CompressionException ex) {
+      // expected.
+    }
+    compression.setDictionaries(dictionaries);
+    Assert.assertEquals(sample.length, compression.decompress(compressedBuffer.duplicate(), decompressedBuffer));
+    byte[] decompressed = new byte[sample.length];
+    decompressedBuffer.flip();
+    decompressedBuffer.get(decompressed);
+    Assert.assertArrayEquals(sample, decompressed);
+
+    // Frames compressed without a dictionary have no dictionary id.
+    ByteBuffer plainBuffer = ByteBuffer.allocate(compression.getCompressBufferSize(sample.length));
+    int plainSize = compression.compress(ByteBuffer.wrap(sample), plainBuffer);
+    Assert.assertEquals(0, ZstdCompression.getFrameDictionaryId(plainBuffer, frameOffset, plainSize - frameOffset));
+  }
+
+  /**
+   * Create small JSON documents that share most of their content.
+   * @param count The number of documents.
+   * @return The documents.
+   */
+  private static List<byte[]> createJsonSamples(int count) {
+    Random random = new Random(count);
+    List<byte[]> samples = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      samples.add(("{\"id\":" + i + ",\"name\":\"user" + random.nextInt(100)
+          + "\",\"status\":\"active\",\"tags\":[\"x\",\"y\"]}").getBytes(StandardCharsets.UTF_8));
+    }
+    return samples;
+  }
 }
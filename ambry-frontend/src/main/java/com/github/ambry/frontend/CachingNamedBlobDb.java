@@ -0,0 +1,299 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.frontend;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.config.FrontendConfig;
+import com.github.ambry.named.DeleteResult;
+import com.github.ambry.named.NamedBlobDb;
+import com.github.ambry.named.NamedBlobRecord;
+import com.github.ambry.named.PutResult;
+import com.github.ambry.named.StaleNamedBlob;
+import com.github.ambry.protocol.GetOption;
+import com.github.ambry.protocol.NamedBlobState;
+import com.github.ambry.rest.RestServiceErrorCode;
+import com.github.ambry.rest.RestServiceException;
+import com.github.ambry.utils.Time;
+import com.github.ambry.utils.Utils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * A {@link NamedBlobDb} that caches the results of {@link #get} lookups of another {@link NamedBlobDb}, so that the
+ * requests for hot named blobs do not all go to the database.
+ * <p/>
+ * Found records are cached for {@link FrontendConfig#namedBlobCacheTtlMs} and names that are not found for
+ * {@link FrontendConfig#namedBlobCacheNegativeTtlMs}. Only lookups with {@link GetOption#None} are served from the
+ * cache, and a cached record is not served past its expiration time. The cache holds up to
+ * {@link FrontendConfig#namedBlobCacheMaxEntries} entries in a concurrent Caffeine cache, so that lookups of different
+ * names do not contend with each other.
+ * <p/>
+ * Puts, deletes and TTL updates made through this instance invalidate the cached entry of the name when they start and
+ * when they complete, and a successful put of a READY record refreshes it unless a newer version is cached. A lookup
+ * that was sent to the database before such an invalidation is not cached, since it may have read the state from before
+ * the update. The check and the update of an entry are done atomically for its name. Changes made through other
+ * frontends are only seen once the cached entry expires.
+ */
+class CachingNamedBlobDb implements NamedBlobDb {
+  private static final int GENERATION_STRIPES = 1024;
+  private final NamedBlobDb namedBlobDb;
+  private final FrontendMetrics frontendMetrics;
+  private final Time time;
+  private final long ttlMs;
+  private final long negativeTtlMs;
+  private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+  private final Cache<Key, Entry> entries;
+
+  /**
+   * @param namedBlobDb the {@link NamedBlobDb} to cache the lookups of.
+   * @param frontendConfig the {@link FrontendConfig} with the size and the TTLs of the cache.
+   * @param frontendMetrics the {@link FrontendMetrics} to record the hits and misses of the cache.
+   * @param time the {@link Time} used to expire the cached entries.
+   */
+  CachingNamedBlobDb(NamedBlobDb namedBlobDb, FrontendConfig frontendConfig, FrontendMetrics frontendMetrics,
+      Time time) {
+    this.namedBlobDb = namedBlobDb;
+    this.frontendMetrics = frontendMetrics;
+    this.time = time;
+    this.ttlMs = frontendConfig.namedBlobCacheTtlMs;
+    this.negativeTtlMs = frontendConfig.namedBlobCacheNegativeTtlMs;
+    this.entries = Caffeine.newBuilder()
+        .maximumSize(frontendConfig.namedBlobCacheMaxEntries)
+        .executor(Runnable::run)
+        .removalListener((Key key, Entry entry, RemovalCause cause) -> {
+          if (cause.wasEvicted()) {
+            frontendMetrics.namedBlobCacheEvictionCount.inc();
+          }
+        })
+        .build();
+    frontendMetrics.getMetricRegistry()
+        .gauge(MetricRegistry.name(CachingNamedBlobDb.class, "NamedBlobCacheEntryCount"), () -> this::getEntryCount);
+  }
+
+  @Override
+  public CompletableFuture<NamedBlobRecord> get(String accountName, String containerName, String blobName,
+      GetOption option) {
+    if (option != GetOption.None) {
+      return namedBlobDb.get(accountName, containerName, blobName, option);
+    }
+    Key key = new Key(accountName, containerName, blobName);
+    Entry entry = getValidEntry(key);
+    if (entry != null) {
+      if (entry.record != null) {
+        frontendMetrics.namedBlobCacheHitCount.inc();
+        return CompletableFuture.completedFuture(entry.record);
+      }
+      frontendMetrics.namedBlobCacheNegativeHitCount.inc();
+      CompletableFuture<NamedBlobRecord> future = new CompletableFuture<>();
+      future.completeExceptionally(
+          new RestServiceException("Named blob not found: " + key, RestServiceErrorCode.NotFound));
+      return future;
+    }
+    frontendMetrics.namedBlobCacheMissCount.inc();
+    // read before the lookup is sent, so that an invalidation while it is in flight is seen when it completes.
+    long generation = generations.get(getStripe(key));
+    return namedBlobDb.get(accountName, containerName, blobName, option).whenComplete((record, exception) -> {
+      if (record != null) {
+        cacheLookup(key, generation, new Entry(record, time.milliseconds() + ttlMs));
+      } else if (negativeTtlMs > 0 && isNotFound(exception)) {
+        cacheLookup(key, generation, new Entry(null, time.milliseconds() + negativeTtlMs));
+      }
+    });
+  }
+
+  @Override
+  public CompletableFuture<Page<NamedBlobRecord>> list(String accountName, String containerName, String blobNamePrefix,
+      String pageToken, Integer maxKey) {
+    return namedBlobDb.list(accountName, containerName, blobNamePrefix, pageToken, maxKey);
+  }
+
+  @Override
+  public CompletableFuture<PutResult> put(NamedBlobRecord record, NamedBlobState state, Boolean isUpsert) {
+    Key key = new Key(record.getAccountName(), record.getContainerName(), record.getBlobName());
+    invalidate(key, null);
+    return namedBlobDb.put(record, state, isUpsert).whenComplete((result, exception) -> {
+      // only a READY record is returned by the lookups.
+      boolean refresh = result != null && state == NamedBlobState.READY;
+      invalidate(key, refresh ? new Entry(result.getInsertedRecord(), time.milliseconds() + ttlMs) : null);
+    });
+  }
+
+  @Override
+  public CompletableFuture<PutResult> updateBlobTtlAndStateToReady(NamedBlobRecord record) {
+    Key key = new Key(record.getAccountName(), record.getContainerName(), record.getBlobName());
+    invalidate(key, null);
+    return namedBlobDb.updateBlobTtlAndStateToReady(record)
+        .whenComplete((result, exception) -> invalidate(key, null));
+  }
+
+  @Override
+  public CompletableFuture<DeleteResult> delete(String accountName, String containerName, String blobName) {
+    Key key = new Key(accountName, containerName, blobName);
+    invalidate(key, null);
+    return namedBlobDb.delete(accountName, containerName, blobName)
+        .whenComplete((result, exception) -> invalidate(key, null));
+  }
+
+  @Override
+  public CompletableFuture<List<StaleNamedBlob>> pullStaleBlobs() {
+    return namedBlobDb.pullStaleBlobs();
+  }
+
+  @Override
+  public CompletableFuture<Integer> cleanupStaleData(List<StaleNamedBlob> staleRecords) {
+    return namedBlobDb.cleanupStaleData(staleRecords);
+  }
+
+  @Override
+  public void close() throws IOException {
+    entries.invalidateAll();
+    namedBlobDb.close();
+  }
+
+  /**
+   * @return the number of entries in the cache.
+   */
+  int getEntryCount() {
+    return (int) entries.estimatedSize();
+  }
+
+  /**
+   * @return the entry of the key if it can still be served, after removing it if it expired.
+   */
+  private Entry getValidEntry(Key key) {
+    Entry entry = entries.getIfPresent(key);
+    if (entry == null) {
+      return null;
+    }
+    long now = time.milliseconds();
+    NamedBlobRecord record = entry.record;
+    if (entry.expiresAtMs <= now || (record != null && record.getExpirationTimeMs() != Utils.Infinite_Time
+        && record.getExpirationTimeMs() <= now)) {
+      entries.asMap().remove(key, entry);
+      return null;
+    }
+    return entry;
+  }
+
+  /**
+   * Caches the result of a lookup, unless the entry of the key was invalidated since the lookup was sent or a newer
+   * version of the record is already cached.
+   * @param key the {@link Key} of the lookup.
+   * @param generation the generation of the key when the lookup was sent.
+   * @param entry the {@link Entry} to cache.
+   */
+  private void cacheLookup(Key key, long generation, Entry entry) {
+    entries.asMap().compute(key, (k, existing) -> {
+      if (generations.get(getStripe(key)) != generation) {
+        return existing;
+      }
+      if (existing != null && existing.record != null && entry.record != null
+          && existing.record.getVersion() > entry.record.getVersion()) {
+        return existing;
+      }
+      return entry;
+    });
+  }
+
+  /**
+   * Invalidates the entry of the key, including the results of the lookups in flight.
+   * @param key the {@link Key} to invalidate.
+   * @param refreshedEntry if not {@code null}, the {@link Entry} that replaces the invalidated one, unless a newer
+   *                       version of the record is already cached by a put that completed first.
+   */
+  private void invalidate(Key key, Entry refreshedEntry) {
+    entries.asMap().compute(key, (k, existing) -> {
+      generations.incrementAndGet(getStripe(key));
+      if (refreshedEntry != null && existing != null && existing.record != null
+          && existing.record.getVersion() > refreshedEntry.record.getVersion()) {
+        return existing;
+      }
+      if (existing != null) {
+        frontendMetrics.namedBlobCacheInvalidationCount.inc();
+      }
+      return refreshedEntry;
+    });
+  }
+
+  private int getStripe(Key key) {
+    return (key.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+  }
+
+  /**
+   * @return {@code true} if the exception of a lookup means that the named blob does not exist.
+   */
+  private static boolean isNotFound(Throwable exception) {
+    Exception cause = Utils.extractFutureExceptionCause(exception);
+    return cause instanceof RestServiceException
+        && ((RestServiceException) cause).getErrorCode() == RestServiceErrorCode.NotFound;
+  }
+
+  /**
+   * The name of a named blob.
+   */
+  private static class Key {
+    private final String accountName;
+    private final String containerName;
+    private final String blobName;
+
+    Key(String accountName, String containerName, String blobName) {
+      this.accountName = accountName;
+      this.containerName = containerName;
+      this.blobName = blobName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key key = (Key) o;
+      return accountName.equals(key.accountName) && containerName.equals(key.containerName) && blobName.equals(
+          key.blobName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(accountName, containerName, blobName);
+    }
+
+    @Override
+    public String toString() {
+      return accountName + "/" + containerName + "/" + blobName;
+    }
+  }
+
+  /**
+   * A cached lookup. A {@code null} record means that the named blob was not found.
+   */
+  private static class Entry {
+    private final NamedBlobRecord record;
+    private final long expiresAtMs;
+
+    Entry(NamedBlobRecord record, long expiresAtMs) {
+      this.record = record;
+      this.expiresAtMs = expiresAtMs;
+    }
+  }
+}
@@ -291,6 +291,13 @@ public class FrontendMetrics {
   public final Histogram deleteDatasetVersionProcessingTimeInMs;
   public final Histogram updateTtlDatasetVersionProcessingTimeInMs;
   public final Histogram listDatasetVersionProcessingTimeInMs;
+
+  // Named blob cache
+  public final Counter namedBlobCacheHitCount;
+  public final Counter namedBlobCacheNegativeHitCount;
+  public final Counter namedBlobCacheMissCount;
+  public final Counter namedBlobCacheInvalidationCount;
+  public final Counter namedBlobCacheEvictionCount;
   private final MetricRegistry metricRegistry;
 
   /**
@@ -748,6 +755,18 @@ public class FrontendMetrics {
         MetricRegistry.name(TtlUpdateHandler.class, "updateTtlDatasetVersionProcessingTimeInMs"));
     listDatasetVersionProcessingTimeInMs = metricRegistry.histogram(
         MetricRegistry.name(ListDatasetVersionHandler.class, "ListDatasetVersionProcessingTimeInMs"));
+
+    // Named blob cache
+    namedBlobCacheHitCount =
+        metricRegistry.counter(MetricRegistry.name(CachingNamedBlobDb.class, "NamedBlobCacheHitCount"));
+    namedBlobCacheNegativeHitCount =
+        metricRegistry.counter(MetricRegistry.name(CachingNamedBlobDb.class, "NamedBlobCacheNegativeHitCount"));
+    namedBlobCacheMissCount =
+        metricRegistry.counter(MetricRegistry.name(CachingNamedBlobDb.class, "NamedBlobCacheMissCount"));
+    namedBlobCacheInvalidationCount =
+        metricRegistry.counter(MetricRegistry.name(CachingNamedBlobDb.class, "NamedBlobCacheInvalidationCount"));
+    namedBlobCacheEvictionCount =
+        metricRegistry.counter(MetricRegistry.name(CachingNamedBlobDb.class, "NamedBlobCacheEvictionCount"));
     this.metricRegistry = metricRegistry;
   }
 
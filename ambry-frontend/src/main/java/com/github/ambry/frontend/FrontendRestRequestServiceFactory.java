@@ -30,6 +30,7 @@ import com.github.ambry.quota.QuotaManagerFactory;
 import com.github.ambry.rest.RestRequestService;
 import com.github.ambry.rest.RestRequestServiceFactory;
 import com.github.ambry.router.Router;
+import com.github.ambry.utils.SystemTime;
 import com.github.ambry.utils.Utils;
 import java.util.Objects;
 import org.slf4j.Logger;
@@ -85,6 +86,9 @@ public class FrontendRestRequestServiceFactory implements RestRequestServiceFact
       NamedBlobDb namedBlobDb = Utils.isNullOrEmpty(frontendConfig.namedBlobDbFactory) ? null
           : Utils.<NamedBlobDbFactory>getObj(frontendConfig.namedBlobDbFactory, verifiableProperties,
               clusterMap.getMetricRegistry(), accountService).getNamedBlobDb();
+      if (namedBlobDb != null && frontendConfig.namedBlobCacheMaxEntries > 0) {
+        namedBlobDb = new CachingNamedBlobDb(namedBlobDb, frontendConfig, frontendMetrics, SystemTime.getInstance());
+      }
       IdConverterFactory idConverterFactory =
           Utils.getObj(frontendConfig.idConverterFactory, verifiableProperties, clusterMap.getMetricRegistry(),
               idSigningService, namedBlobDb);
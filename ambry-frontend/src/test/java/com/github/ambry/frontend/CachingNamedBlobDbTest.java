@@ -0,0 +1,257 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.frontend;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.config.FrontendConfig;
+import com.github.ambry.config.VerifiableProperties;
+import com.github.ambry.named.NamedBlobDb;
+import com.github.ambry.named.NamedBlobRecord;
+import com.github.ambry.named.PutResult;
+import com.github.ambry.protocol.GetOption;
+import com.github.ambry.protocol.NamedBlobState;
+import com.github.ambry.rest.RestServiceErrorCode;
+import com.github.ambry.rest.RestServiceException;
+import com.github.ambry.utils.MockTime;
+import com.github.ambry.utils.TestUtils;
+import com.github.ambry.utils.Utils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+
+/**
+ * Tests for {@link CachingNamedBlobDb}.
+ */
+public class CachingNamedBlobDbTest {
+  private static final String ACCOUNT = "account";
+  private static final String CONTAINER = "container";
+  private static final String NAME = "name";
+  private final MockTime time = new MockTime(System.currentTimeMillis());
+  private final FrontendConfig frontendConfig;
+  private final FrontendMetrics frontendMetrics;
+
+  public CachingNamedBlobDbTest() {
+    Properties properties = new Properties();
+    properties.setProperty(FrontendConfig.NAMED_BLOB_CACHE_MAX_ENTRIES, "2");
+    properties.setProperty(FrontendConfig.NAMED_BLOB_CACHE_TTL_MS, "1000");
+    properties.setProperty(FrontendConfig.NAMED_BLOB_CACHE_NEGATIVE_TTL_MS, "100");
+    frontendConfig = new FrontendConfig(new VerifiableProperties(properties));
+    frontendMetrics = new FrontendMetrics(new MetricRegistry(), frontendConfig);
+  }
+
+  /**
+   * Tests that lookups are served from the cache until the entry expires or is invalidated by an update.
+   * @throws Exception
+   */
+  @Test
+  public void cacheAndInvalidateTest() throws Exception {
+    NamedBlobDb namedBlobDb = spy(new TestNamedBlobDb(time, 10));
+    CachingNamedBlobDb cache = new CachingNamedBlobDb(namedBlobDb, frontendConfig, frontendMetrics, time);
+
+    // misses are cached for the negative TTL
+    assertNotFound(cache);
+    assertNotFound(cache);
+    assertEquals("Unexpected negative hit count", 1, frontendMetrics.namedBlobCacheNegativeHitCount.getCount());
+    time.sleep(100);
+    assertNotFound(cache);
+    verify(namedBlobDb, times(2)).get(ACCOUNT, CONTAINER, NAME, GetOption.None);
+
+    // a put refreshes the entry
+    NamedBlobRecord record = new NamedBlobRecord(ACCOUNT, CONTAINER, NAME, "id1", Utils.Infinite_Time, 1);
+    cache.put(record, NamedBlobState.READY, true).get();
+    assertEquals("Unexpected record", record, cache.get(ACCOUNT, CONTAINER, NAME).get());
+    verify(namedBlobDb, times(2)).get(ACCOUNT, CONTAINER, NAME, GetOption.None);
+    // other options always go to the database
+    cache.get(ACCOUNT, CONTAINER, NAME, GetOption.Include_All).get();
+    verify(namedBlobDb).get(ACCOUNT, CONTAINER, NAME, GetOption.Include_All);
+
+    // a put of a record that is not ready yet only invalidates the entry
+    NamedBlobRecord inProgressRecord = new NamedBlobRecord(ACCOUNT, CONTAINER, NAME, "id2", Utils.Infinite_Time, 2);
+    cache.put(inProgressRecord, NamedBlobState.IN_PROGRESS, true).get();
+    assertEquals("Entry should have been invalidated", 0, cache.getEntryCount());
+    cache.updateBlobTtlAndStateToReady(inProgressRecord).get();
+    assertEquals("Unexpected record", inProgressRecord, cache.get(ACCOUNT, CONTAINER, NAME).get());
+    assertEquals("Unexpected record", inProgressRecord, cache.get(ACCOUNT, CONTAINER, NAME).get());
+    assertEquals("Unexpected hit count", 2, frontendMetrics.namedBlobCacheHitCount.getCount());
+
+    // entries expire after the TTL
+    time.sleep(1000);
+    cache.get(ACCOUNT, CONTAINER, NAME).get();
+    verify(namedBlobDb, times(4)).get(ACCOUNT, CONTAINER, NAME, GetOption.None);
+
+    // a delete invalidates the entry
+    cache.delete(ACCOUNT, CONTAINER, NAME).get();
+    time.sleep(1);
+    try {
+      cache.get(ACCOUNT, CONTAINER, NAME).get();
+      fail("Deleted blob should not be found");
+    } catch (ExecutionException e) {
+      assertEquals("Unexpected error code", RestServiceErrorCode.Deleted,
+          ((RestServiceException) Utils.extractFutureExceptionCause(e)).getErrorCode());
+    }
+
+    // entries are evicted once the cache is full
+    for (int i = 0; i < 3; i++) {
+      cache.put(new NamedBlobRecord(ACCOUNT, CONTAINER, NAME + i, "id" + i, Utils.Infinite_Time, 1),
+          NamedBlobState.READY, true).get();
+    }
+    assertEquals("Unexpected entry count", 2, cache.getEntryCount());
+    assertEquals("Unexpected eviction count", 1, frontendMetrics.namedBlobCacheEvictionCount.getCount());
+  }
+
+  /**
+   * Tests that a lookup sent before an update is not cached, and that a record is not served past its expiration.
+   * @throws Exception
+   */
+  @Test
+  public void staleLookupTest() throws Exception {
+    NamedBlobDb namedBlobDb = mock(NamedBlobDb.class);
+    CachingNamedBlobDb cache = new CachingNamedBlobDb(namedBlobDb, frontendConfig, frontendMetrics, time);
+    NamedBlobRecord oldRecord = new NamedBlobRecord(ACCOUNT, CONTAINER, NAME, "id1", Utils.Infinite_Time, 1);
+    NamedBlobRecord newRecord = new NamedBlobRecord(ACCOUNT, CONTAINER, NAME, "id2", Utils.Infinite_Time, 2);
+    CompletableFuture<NamedBlobRecord> lookup = new CompletableFuture<>();
+    when(namedBlobDb.get(ACCOUNT, CONTAINER, NAME, GetOption.None)).thenReturn(lookup);
+    when(namedBlobDb.delete(ACCOUNT, CONTAINER, NAME)).thenReturn(new CompletableFuture<>());
+
+    CompletableFuture<NamedBlobRecord> future = cache.get(ACCOUNT, CONTAINER, NAME);
+    cache.delete(ACCOUNT, CONTAINER, NAME);
+    lookup.complete(oldRecord);
+    assertEquals("Unexpected record", oldRecord, future.get());
+    assertEquals("Lookup sent before the delete should not be cached", 0, cache.getEntryCount());
+
+    // a newer version is not replaced by an older one
+    CompletableFuture<NamedBlobRecord> slowLookup = new CompletableFuture<>();
+    when(namedBlobDb.get(ACCOUNT, CONTAINER, NAME, GetOption.None)).thenReturn(slowLookup);
+    future = cache.get(ACCOUNT, CONTAINER, NAME);
+    when(namedBlobDb.get(ACCOUNT, CONTAINER, NAME, GetOption.None)).thenReturn(
+        CompletableFuture.completedFuture(newRecord));
+    assertEquals("Unexpected record", newRecord, cache.get(ACCOUNT, CONTAINER, NAME).get());
+    slowLookup.complete(oldRecord);
+    assertEquals("Unexpected record", oldRecord, future.get());
+    assertEquals("Older version should not replace the cached one", newRecord,
+        cache.get(ACCOUNT, CONTAINER, NAME).get());
+
+    // a record is not served after it expires
+    time.sleep(1000);
+    NamedBlobRecord expiringRecord =
+        new NamedBlobRecord(ACCOUNT, CONTAINER, NAME, "id3", time.milliseconds() + 10, 3);
+    when(namedBlobDb.get(ACCOUNT, CONTAINER, NAME, GetOption.None)).thenReturn(
+        CompletableFuture.completedFuture(expiringRecord));
+    assertEquals("Unexpected record", expiringRecord, cache.get(ACCOUNT, CONTAINER, NAME).get());
+    time.sleep(10);
+    CompletableFuture<NamedBlobRecord> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new RestServiceException("Deleted", RestServiceErrorCode.Deleted));
+    when(namedBlobDb.get(ACCOUNT, CONTAINER, NAME, GetOption.None)).thenReturn(failed);
+    try {
+      cache.get(ACCOUNT, CONTAINER, NAME).get();
+      fail("Expired record should not be served");
+    } catch (ExecutionException e) {
+      assertEquals("Unexpected error code", RestServiceErrorCode.Deleted,
+          ((RestServiceException) Utils.extractFutureExceptionCause(e)).getErrorCode());
+    }
+  }
+
+  /**
+   * Tests that a put that completes after a newer put does not replace the record cached by the newer put.
+   * @throws Exception
+   */
+  @Test
+  public void outOfOrderPutsTest() throws Exception {
+    NamedBlobDb namedBlobDb = mock(NamedBlobDb.class);
+    CachingNamedBlobDb cache = new CachingNamedBlobDb(namedBlobDb, frontendConfig, frontendMetrics, time);
+    NamedBlobRecord oldRecord = new NamedBlobRecord(ACCOUNT, CONTAINER, NAME, "id1", Utils.Infinite_Time, 1);
+    NamedBlobRecord newRecord = new NamedBlobRecord(ACCOUNT, CONTAINER, NAME, "id2", Utils.Infinite_Time, 2);
+    CompletableFuture<PutResult> oldPut = new CompletableFuture<>();
+    CompletableFuture<PutResult> newPut = new CompletableFuture<>();
+    when(namedBlobDb.put(oldRecord, NamedBlobState.READY, true)).thenReturn(oldPut);
+    when(namedBlobDb.put(newRecord, NamedBlobState.READY, true)).thenReturn(newPut);
+
+    CompletableFuture<PutResult> oldFuture = cache.put(oldRecord, NamedBlobState.READY, true);
+    CompletableFuture<PutResult> newFuture = cache.put(newRecord, NamedBlobState.READY, true);
+    newPut.complete(new PutResult(newRecord));
+    newFuture.get();
+    oldPut.complete(new PutResult(oldRecord));
+    oldFuture.get();
+    assertEquals("Older put should not replace the cached record", newRecord,
+        cache.get(ACCOUNT, CONTAINER, NAME).get());
+    verify(namedBlobDb, never()).get(ACCOUNT, CONTAINER, NAME, GetOption.None);
+
+    // puts that complete in order still refresh the entry
+    NamedBlobRecord newerRecord = new NamedBlobRecord(ACCOUNT, CONTAINER, NAME, "id3", Utils.Infinite_Time, 3);
+    when(namedBlobDb.put(newerRecord, NamedBlobState.READY, true)).thenReturn(
+        CompletableFuture.completedFuture(new PutResult(newerRecord)));
+    cache.put(newerRecord, NamedBlobState.READY, true).get();
+    assertEquals("Unexpected record", newerRecord, cache.get(ACCOUNT, CONTAINER, NAME).get());
+  }
+
+  /**
+   * Tests that concurrent lookups and puts of different names are all served, and keep the cache within its size.
+   * @throws Exception
+   */
+  @Test
+  public void concurrentAccessTest() throws Exception {
+    NamedBlobDb namedBlobDb = new TestNamedBlobDb(time, 10);
+    CachingNamedBlobDb cache = new CachingNamedBlobDb(namedBlobDb, frontendConfig, frontendMetrics, time);
+    int numThreads = 4;
+    int numNames = 8;
+    for (int i = 0; i < numNames; i++) {
+      cache.put(new NamedBlobRecord(ACCOUNT, CONTAINER, NAME + i, "id" + i, Utils.Infinite_Time, 1),
+          NamedBlobState.READY, true).get();
+    }
+    ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < numThreads; t++) {
+      futures.add(executorService.submit(() -> {
+        for (int i = 0; i < 1000; i++) {
+          int n = TestUtils.RANDOM.nextInt(numNames);
+          NamedBlobRecord record = cache.get(ACCOUNT, CONTAINER, NAME + n).get();
+          assertEquals("Unexpected blob id", "id" + n, record.getBlobId());
+        }
+        return null;
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get(1, TimeUnit.MINUTES);
+    }
+    executorService.shutdown();
+    assertTrue("Cache should be within its size", cache.getEntryCount() <= 2);
+    assertEquals("Every lookup should have been counted", numThreads * 1000,
+        frontendMetrics.namedBlobCacheHitCount.getCount() + frontendMetrics.namedBlobCacheMissCount.getCount());
+  }
+
+  /**
+   * Asserts that a lookup of the named blob fails with {@link RestServiceErrorCode#NotFound}.
+   * @param cache the {@link CachingNamedBlobDb} to look up.
+   */
+  private void assertNotFound(CachingNamedBlobDb cache) throws InterruptedException {
+    try {
+      cache.get(ACCOUNT, CONTAINER, NAME).get();
+      fail("Named blob should not be found");
+    } catch (ExecutionException e) {
+      assertEquals("Unexpected error code", RestServiceErrorCode.NotFound,
+          ((RestServiceException) Utils.extractFutureExceptionCause(e)).getErrorCode());
+    }
+  }
+}
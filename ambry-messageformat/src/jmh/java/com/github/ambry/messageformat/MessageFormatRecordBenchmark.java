@@ -0,0 +1,102 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.messageformat;
+
+import com.github.ambry.account.Account;
+import com.github.ambry.account.Container;
+import com.github.ambry.store.MockId;
+import com.github.ambry.store.MockIdFactory;
+import com.github.ambry.store.StoreKey;
+import com.github.ambry.store.StoreKeyFactory;
+import com.github.ambry.utils.ByteBufferInputStream;
+import com.github.ambry.utils.Utils;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks serialization of put records with {@link PutMessageFormatInputStream} and deserialization of whole put
+ * records and of blob properties records with {@link MessageFormatRecord}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageFormatRecordBenchmark {
+  @Param({"1024", "65536", "4194304"})
+  public int blobSize;
+
+  private final StoreKeyFactory storeKeyFactory = new MockIdFactory();
+  private StoreKey key;
+  private BlobProperties properties;
+  private byte[] userMetadata;
+  private byte[] blob;
+  private byte[] record;
+  private byte[] blobPropertiesRecord;
+
+  @Setup
+  public void setup() throws IOException, MessageFormatException {
+    key = new MockId("benchmark-key");
+    properties = new BlobProperties(blobSize, "serviceId", "ownerId", "application/octet-stream", false,
+        Utils.Infinite_Time, Account.UNKNOWN_ACCOUNT_ID, Container.UNKNOWN_CONTAINER_ID, false, null, null, null);
+    userMetadata = new byte[256];
+    blob = new byte[blobSize];
+    ThreadLocalRandom.current().nextBytes(userMetadata);
+    ThreadLocalRandom.current().nextBytes(blob);
+    record = serializePutRecord();
+    ByteBuffer buffer =
+        ByteBuffer.allocate(MessageFormatRecord.BlobProperties_Format_V1.getBlobPropertiesRecordSize(properties));
+    MessageFormatRecord.BlobProperties_Format_V1.serializeBlobPropertiesRecord(buffer, properties);
+    blobPropertiesRecord = buffer.array();
+  }
+
+  @Benchmark
+  public byte[] serializePutRecord() throws IOException, MessageFormatException {
+    MessageFormatInputStream stream =
+        new PutMessageFormatInputStream(key, null, properties, ByteBuffer.wrap(userMetadata),
+            new ByteBufferInputStream(ByteBuffer.wrap(blob)), blobSize);
+    byte[] serialized = new byte[(int) stream.getSize()];
+    new DataInputStream(stream).readFully(serialized);
+    return serialized;
+  }
+
+  @Benchmark
+  public StoreKey deserializePutRecord() throws IOException, MessageFormatException {
+    BlobAll blobAll = MessageFormatRecord.deserializeBlobAll(new ByteArrayInputStream(record), storeKeyFactory);
+    blobAll.getBlobData().release();
+    return blobAll.getStoreKey();
+  }
+
+  @Benchmark
+  public BlobProperties deserializeBlobProperties() throws IOException, MessageFormatException {
+    return MessageFormatRecord.deserializeBlobProperties(new ByteArrayInputStream(blobPropertiesRecord));
+  }
+}
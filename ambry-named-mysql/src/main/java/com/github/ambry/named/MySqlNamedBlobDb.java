@@ -41,6 +41,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -52,8 +53,12 @@ import java.util.Set;
 import java.util.TimeZone;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import javax.sql.DataSource;
 import org.apache.commons.codec.binary.Base64;
@@ -67,6 +72,12 @@ import org.slf4j.LoggerFactory;
  *
  * It uses the Hikari library for connection pooling, which is a widely used and performant JDBC connection pool
  * implementation.
+ *
+ * When {@link MySqlNamedBlobDbConfig#writeBatchMaxSize} is more than 1, upserts and TTL updates are not run in their
+ * own transaction. They are queued, and written to the local datacenter in batches, each with JDBC batches in one
+ * transaction. Up to {@link MySqlNamedBlobDbConfig#localPoolSize} batches are written at a time, one per connection,
+ * and the writes that arrive while they are being written are sent in the next batches, so the number of round trips
+ * grows with the database latency rather than with the number of writes.
  */
 class MySqlNamedBlobDb implements NamedBlobDb {
   private static final Logger logger = LoggerFactory.getLogger(MySqlNamedBlobDb.class);
@@ -173,6 +184,12 @@ class MySqlNamedBlobDb implements NamedBlobDb {
   private static final String TTL_UPDATE_QUERY =
       String.format("UPDATE %s SET %s, %s = NULL WHERE %s", NAMED_BLOBS_V2, STATE_MATCH, DELETED_TS, PK_MATCH_VERSION);
 
+  /**
+   * Find if a version of a blob is present, for the TTL updates of a batch whose row counts are not reported.
+   */
+  private static final String VERSION_EXISTS_QUERY =
+      String.format("SELECT 1 FROM %s WHERE %s", NAMED_BLOBS_V2, PK_MATCH_VERSION);
+
   /**
    * Pull the stale blobs that need to be cleaned up
    * It will pull out any stale record (limit to be config.queryStaleDataMaxResults [Default 1000] records at most)
@@ -223,6 +240,11 @@ class MySqlNamedBlobDb implements NamedBlobDb {
   private final Map<String, TransactionExecutor> transactionExecutors;
   private final MySqlNamedBlobDbConfig config;
   private final Metrics metricsRecoder;
+  private final ConcurrentLinkedQueue<PendingWrite> pendingWrites = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger writeBatchesInFlight = new AtomicInteger(0);
+  private volatile boolean closed = false;
+  // counted down once close() rejects new writes, before it waits for the write batches in flight.
+  private final CountDownLatch closeStarted = new CountDownLatch(1);
 
   MySqlNamedBlobDb(AccountService accountService, MySqlNamedBlobDbConfig config, DataSourceFactory dataSourceFactory,
       String localDatacenter, MetricRegistry metricRegistry, Time time) {
@@ -251,7 +273,23 @@ class MySqlNamedBlobDb implements NamedBlobDb {
 
   @Override
   public void close() throws IOException {
+    closed = true;
+    closeStarted.countDown();
     this.transactionExecutors.values().forEach(TransactionExecutor::close);
+    // the batches in flight were written or failed while the executors shut down, so only queued writes are left.
+    failPendingWrites(newClosedException());
+  }
+
+  /**
+   * Waits until {@link #close()} rejects new writes, before it waits for the write batches in flight. Only used in
+   * tests.
+   * @param timeout the maximum time to wait.
+   * @param unit the {@link TimeUnit} of {@code timeout}.
+   * @return {@code true} if the close started within the timeout.
+   * @throws InterruptedException if interrupted while waiting.
+   */
+  boolean awaitCloseStarted(long timeout, TimeUnit unit) throws InterruptedException {
+    return closeStarted.await(timeout, unit);
   }
 
   private static class Metrics {
@@ -279,6 +317,9 @@ class MySqlNamedBlobDb implements NamedBlobDb {
 
     public final Histogram namedTtlupdateTimeInMs;
 
+    public final Histogram namedBlobWriteBatchSize;
+    public final Counter namedBlobWriteBatchFallbackCount;
+
     /**
      * Constructor to create the Metrics.
      * @param metricRegistry The {@link MetricRegistry}.
@@ -323,6 +364,11 @@ class MySqlNamedBlobDb implements NamedBlobDb {
 
       namedTtlupdateTimeInMs =
           metricRegistry.histogram(MetricRegistry.name(MySqlNamedBlobDb.class, "NamedTtlupdateTimeInMs"));
+
+      namedBlobWriteBatchSize =
+          metricRegistry.histogram(MetricRegistry.name(MySqlNamedBlobDb.class, "NamedBlobWriteBatchSize"));
+      namedBlobWriteBatchFallbackCount =
+          metricRegistry.counter(MetricRegistry.name(MySqlNamedBlobDb.class, "NamedBlobWriteBatchFallbackCount"));
     }
   }
 
@@ -355,6 +401,10 @@ class MySqlNamedBlobDb implements NamedBlobDb {
 
   @Override
   public CompletableFuture<PutResult> put(NamedBlobRecord record, NamedBlobState state, Boolean isUpsert) {
+    if (config.writeBatchMaxSize > 1 && config.dbRelyOnNewTable && isUpsert) {
+      // an upsert is a single insert, which can be batched with other writes.
+      return submitWrite(record, state);
+    }
     return executeTransactionAsync(record.getAccountName(), record.getContainerName(), true,
         (accountId, containerId, connection) -> {
           long startTime = this.time.milliseconds();
@@ -389,6 +439,9 @@ class MySqlNamedBlobDb implements NamedBlobDb {
 
   @Override
   public CompletableFuture<PutResult> updateBlobTtlAndStateToReady(NamedBlobRecord record) {
+    if (config.writeBatchMaxSize > 1) {
+      return submitWrite(record, null);
+    }
     return executeTransactionAsync(record.getAccountName(), record.getContainerName(), true,
         (accountId, containerId, connection) -> {
           long startTime = this.time.milliseconds();
@@ -451,16 +504,11 @@ class MySqlNamedBlobDb implements NamedBlobDb {
       Transaction<T> transaction, TransactionStateTracker transactionStateTracker) {
     CompletableFuture<T> future = new CompletableFuture<>();
     // Look up account and container IDs. This is common logic needed for all types of transactions.
-    Account account = accountService.getAccountByName(accountName);
-    if (account == null) {
-      future.completeExceptionally(
-          new RestServiceException("Account not found: " + accountName, RestServiceErrorCode.NotFound));
-      return future;
-    }
-    Container container = account.getContainerByName(containerName);
-    if (container == null) {
-      future.completeExceptionally(
-          new RestServiceException("Container not found: " + containerName, RestServiceErrorCode.NotFound));
+    Container container;
+    try {
+      container = getContainer(accountName, containerName);
+    } catch (RestServiceException e) {
+      future.completeExceptionally(e);
       return future;
     }
 
@@ -483,6 +531,220 @@ class MySqlNamedBlobDb implements NamedBlobDb {
     return future;
   }
 
+  /**
+   * @param accountName the account name.
+   * @param containerName the container name.
+   * @return the {@link Container} with the given names.
+   * @throws RestServiceException if the account or the container is not found.
+   */
+  private Container getContainer(String accountName, String containerName) throws RestServiceException {
+    Account account = accountService.getAccountByName(accountName);
+    if (account == null) {
+      throw new RestServiceException("Account not found: " + accountName, RestServiceErrorCode.NotFound);
+    }
+    Container container = account.getContainerByName(containerName);
+    if (container == null) {
+      throw new RestServiceException("Container not found: " + containerName, RestServiceErrorCode.NotFound);
+    }
+    return container;
+  }
+
+  /**
+   * Queue a write to be run in the next batch of writes in the local datacenter.
+   * @param record the {@link NamedBlobRecord} to insert, or to update the TTL and state of.
+   * @param state the {@link NamedBlobState} of the record to insert, or {@code null} to update the TTL and the state
+   *              of an existing record to READY.
+   * @return a {@link CompletableFuture} that will eventually contain the {@link PutResult} of this write.
+   */
+  private CompletableFuture<PutResult> submitWrite(NamedBlobRecord record, NamedBlobState state) {
+    CompletableFuture<PutResult> future = new CompletableFuture<>();
+    if (closed) {
+      future.completeExceptionally(newClosedException());
+      return future;
+    }
+    try {
+      pendingWrites.add(
+          new PendingWrite(getContainer(record.getAccountName(), record.getContainerName()), record, state, future));
+    } catch (RestServiceException e) {
+      future.completeExceptionally(e);
+      return future;
+    }
+    scheduleWriteBatchIfRequired();
+    return future;
+  }
+
+  /**
+   * Schedule batches of the pending writes while there are any, and fewer than
+   * {@link MySqlNamedBlobDbConfig#localPoolSize} batches are being written.
+   */
+  private void scheduleWriteBatchIfRequired() {
+    while (!pendingWrites.isEmpty()) {
+      if (closed) {
+        failPendingWrites(newClosedException());
+        return;
+      }
+      int inFlight = writeBatchesInFlight.get();
+      if (inFlight >= config.localPoolSize) {
+        // the writes that arrive while the batches in flight are being written are sent once one of them is done.
+        return;
+      }
+      if (!writeBatchesInFlight.compareAndSet(inFlight, inFlight + 1)) {
+        continue;
+      }
+      List<PendingWrite> batch = new ArrayList<>();
+      PendingWrite write;
+      while (batch.size() < config.writeBatchMaxSize && (write = pendingWrites.poll()) != null) {
+        batch.add(write);
+      }
+      if (batch.isEmpty()) {
+        writeBatchesInFlight.decrementAndGet();
+        continue;
+      }
+      try {
+        writeBatch(batch);
+      } catch (RejectedExecutionException e) {
+        // the executor is shut down, so neither this batch nor the writes queued after it can be written.
+        writeBatchesInFlight.decrementAndGet();
+        logger.error("Failed to schedule a batch of {} named blob records", batch.size(), e);
+        batch.forEach(pendingWrite -> pendingWrite.future.completeExceptionally(e));
+        failPendingWrites(e);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Write a batch of pending writes in one transaction in the local datacenter.
+   * @param batch the {@link PendingWrite}s to write.
+   * @throws RejectedExecutionException if the batch could not be submitted to the executor of the local datacenter.
+   */
+  private void writeBatch(List<PendingWrite> batch) {
+    transactionExecutors.get(localDatacenter).executeTransactionGeneric(false, connection -> {
+      long startTime = this.time.milliseconds();
+      runWriteBatch(batch, connection);
+      long batchTime = this.time.milliseconds() - startTime;
+      metricsRecoder.namedBlobWriteBatchSize.update(batch.size());
+      for (PendingWrite pendingWrite : batch) {
+        (pendingWrite.state != null ? metricsRecoder.namedBlobPutTimeInMs
+            : metricsRecoder.namedTtlupdateTimeInMs).update(batchTime);
+      }
+      return null;
+    }, (result, exception) -> {
+      writeBatchesInFlight.decrementAndGet();
+      if (exception == null) {
+        batch.forEach(PendingWrite::complete);
+      } else {
+        // the batch was rolled back, so run each write on its own to only fail the writes that cannot succeed.
+        logger.error("Failed to write a batch of {} named blob records, retrying them one by one", batch.size(),
+            exception);
+        metricsRecoder.namedBlobWriteBatchFallbackCount.inc();
+        batch.forEach(this::runWriteAlone);
+      }
+      scheduleWriteBatchIfRequired();
+    });
+  }
+
+  /**
+   * @return the {@link RestServiceException} to fail writes with once this db is closed.
+   */
+  private static RestServiceException newClosedException() {
+    return new RestServiceException("Named blob db is closed", RestServiceErrorCode.ServiceUnavailable);
+  }
+
+  /**
+   * Fail all the writes that are queued.
+   * @param exception the {@link Exception} to fail them with.
+   */
+  private void failPendingWrites(Exception exception) {
+    PendingWrite write;
+    while ((write = pendingWrites.poll()) != null) {
+      write.future.completeExceptionally(exception);
+    }
+  }
+
+  /**
+   * Run a write that failed in a batch in its own transaction.
+   * @param write the {@link PendingWrite} to run.
+   */
+  private void runWriteAlone(PendingWrite write) {
+    Transaction<PutResult> transaction = (accountId, containerId, connection) -> write.state != null ? run_put_v2(
+        write.record, write.state, accountId, containerId, connection)
+        : apply_ttl_update(write.record, accountId, containerId, connection);
+    try {
+      transactionExecutors.get(localDatacenter).executeTransaction(write.container, true, transaction, (result, e) -> {
+        if (e != null) {
+          write.future.completeExceptionally(e);
+        } else {
+          write.future.complete(result);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      write.future.completeExceptionally(e);
+    }
+  }
+
+  /**
+   * Write a batch of inserts and TTL updates with a JDBC batch for each type of statement. The result of each write is
+   * set in its {@link PendingWrite}, to be completed once the transaction is committed.
+   * @param batch the {@link PendingWrite}s to run.
+   * @param connection the database connection to use.
+   * @throws SQLException if the batch fails.
+   */
+  private void runWriteBatch(List<PendingWrite> batch, Connection connection) throws SQLException {
+    List<PendingWrite> inserts = batch.stream().filter(write -> write.state != null).collect(Collectors.toList());
+    List<PendingWrite> ttlUpdates = batch.stream().filter(write -> write.state == null).collect(Collectors.toList());
+    if (!inserts.isEmpty()) {
+      try (PreparedStatement statement = connection.prepareStatement(INSERT_QUERY_V2)) {
+        for (PendingWrite write : inserts) {
+          NamedBlobRecord insertedRecord = setInsertParameters(statement, write.record, write.state,
+              write.container.getParentAccountId(), write.container.getId());
+          write.result = new PutResult(insertedRecord);
+          statement.addBatch();
+        }
+        statement.executeBatch();
+      }
+    }
+    if (!ttlUpdates.isEmpty()) {
+      try (PreparedStatement statement = connection.prepareStatement(TTL_UPDATE_QUERY)) {
+        for (PendingWrite write : ttlUpdates) {
+          setTtlUpdateParameters(statement, write.record, write.container.getParentAccountId(),
+              write.container.getId());
+          statement.addBatch();
+        }
+        int[] rowCounts = statement.executeBatch();
+        for (int i = 0; i < ttlUpdates.size(); i++) {
+          PendingWrite write = ttlUpdates.get(i);
+          // a batch rewritten by the driver may not report the row count of each update.
+          boolean updated =
+              rowCounts[i] == Statement.SUCCESS_NO_INFO ? versionExists(write, connection) : rowCounts[i] > 0;
+          if (!updated) {
+            metricsRecoder.namedTtlupdateErrorCount.inc();
+            NamedBlobRecord record = write.record;
+            write.exception = buildException("TTL Update: Blob not found", RestServiceErrorCode.NotFound,
+                record.getAccountName(), record.getContainerName(), record.getBlobName());
+          } else {
+            write.result = new PutResult(write.record);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * @param write the TTL update {@link PendingWrite}.
+   * @param connection the database connection to use.
+   * @return {@code true} if the version of the blob that the TTL update is for is present.
+   * @throws SQLException if the query fails.
+   */
+  private boolean versionExists(PendingWrite write, Connection connection) throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement(VERSION_EXISTS_QUERY)) {
+      setTtlUpdateParameters(statement, write.record, write.container.getParentAccountId(), write.container.getId());
+      try (ResultSet resultSet = statement.executeQuery()) {
+        return resultSet.next();
+      }
+    }
+  }
+
   private <T> CompletableFuture<T> executeGenericTransactionAsync(boolean autoCommit, TransactionGeneric<T> transaction,
       TransactionStateTracker transactionStateTracker) {
     CompletableFuture<T> future = new CompletableFuture<>();
@@ -671,21 +933,7 @@ class MySqlNamedBlobDb implements NamedBlobDb {
     String query = "";
     NamedBlobRecord updatedRecord;
     try (PreparedStatement statement = connection.prepareStatement(INSERT_QUERY_V2)) {
-      statement.setInt(1, accountId);
-      statement.setInt(2, containerId);
-      statement.setString(3, record.getBlobName());
-      statement.setBytes(4, Base64.decodeBase64(record.getBlobId()));
-      if (record.getExpirationTimeMs() != Utils.Infinite_Time) {
-        statement.setTimestamp(5, new Timestamp(record.getExpirationTimeMs()));
-      } else {
-        statement.setTimestamp(5, null);
-      }
-      final long newVersion = buildVersion();
-      updatedRecord =
-          new NamedBlobRecord(record.getAccountName(), record.getContainerName(), record.getBlobName(),
-              record.getBlobId(), record.getExpirationTimeMs(), newVersion);
-      statement.setLong(6, newVersion);
-      statement.setInt(7, state.ordinal());
+      updatedRecord = setInsertParameters(statement, record, state, accountId, containerId);
       query = statement.toString();
       logger.debug("Putting blob name in MySql. Query {}", query);
       statement.executeUpdate();
@@ -696,14 +944,44 @@ class MySqlNamedBlobDb implements NamedBlobDb {
     return new PutResult(updatedRecord);
   }
 
+  /**
+   * Set the parameters of an {@link #INSERT_QUERY_V2} statement, with a new version for the record.
+   * @return the record with its new version.
+   */
+  private NamedBlobRecord setInsertParameters(PreparedStatement statement, NamedBlobRecord record,
+      NamedBlobState state, short accountId, short containerId) throws SQLException {
+    statement.setInt(1, accountId);
+    statement.setInt(2, containerId);
+    statement.setString(3, record.getBlobName());
+    statement.setBytes(4, Base64.decodeBase64(record.getBlobId()));
+    if (record.getExpirationTimeMs() != Utils.Infinite_Time) {
+      statement.setTimestamp(5, new Timestamp(record.getExpirationTimeMs()));
+    } else {
+      statement.setTimestamp(5, null);
+    }
+    final long newVersion = buildVersion();
+    statement.setLong(6, newVersion);
+    statement.setInt(7, state.ordinal());
+    return new NamedBlobRecord(record.getAccountName(), record.getContainerName(), record.getBlobName(),
+        record.getBlobId(), record.getExpirationTimeMs(), newVersion);
+  }
+
+  /**
+   * Set the parameters of a {@link #TTL_UPDATE_QUERY} statement.
+   */
+  private void setTtlUpdateParameters(PreparedStatement statement, NamedBlobRecord record, short accountId,
+      short containerId) throws SQLException {
+    statement.setInt(1, accountId);
+    statement.setInt(2, containerId);
+    statement.setString(3, record.getBlobName());
+    statement.setLong(4, record.getVersion());
+  }
+
   private PutResult apply_ttl_update(NamedBlobRecord record, short accountId, short containerId, Connection connection)
       throws Exception {
     String query = "";
     try (PreparedStatement statement = connection.prepareStatement(TTL_UPDATE_QUERY)) {
-      statement.setInt(1, accountId);
-      statement.setInt(2, containerId);
-      statement.setString(3, record.getBlobName());
-      statement.setLong(4, record.getVersion());
+      setTtlUpdateParameters(statement, record, accountId, containerId);
       query = statement.toString();
       logger.debug("Updating TTL in MySql. Query {}", query);
       int rowCount = statement.executeUpdate();
@@ -854,6 +1132,43 @@ class MySqlNamedBlobDb implements NamedBlobDb {
     T run(short accountId, short containerId, Connection connection) throws Exception;
   }
 
+  /**
+   * An upsert or a TTL update waiting to be written in a batch.
+   */
+  private static class PendingWrite {
+    private final Container container;
+    private final NamedBlobRecord record;
+    private final NamedBlobState state;
+    private final CompletableFuture<PutResult> future;
+    private PutResult result;
+    private Exception exception;
+
+    /**
+     * @param container the {@link Container} of the record.
+     * @param record the {@link NamedBlobRecord} to write.
+     * @param state the {@link NamedBlobState} of the record to insert, or {@code null} for a TTL update.
+     * @param future the {@link CompletableFuture} to complete with the result of the write.
+     */
+    PendingWrite(Container container, NamedBlobRecord record, NamedBlobState state,
+        CompletableFuture<PutResult> future) {
+      this.container = container;
+      this.record = record;
+      this.state = state;
+      this.future = future;
+    }
+
+    /**
+     * Complete the future of the write with the result set by the batch.
+     */
+    void complete() {
+      if (exception != null) {
+        future.completeExceptionally(exception);
+      } else {
+        future.complete(result);
+      }
+    }
+  }
+
   private interface TransactionGeneric<T> {
     T run(Connection connection) throws Exception;
   }
@@ -71,6 +71,8 @@ public class MySqlNamedBlobDbFactory implements NamedBlobDbFactory {
     hikariConfig.addDataSourceProperty("prepStmtCacheSize", "250");
     hikariConfig.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
     hikariConfig.addDataSourceProperty("useServerPrepStmts", "true");
+    // Send the JDBC batches of the batched writes in as few statements as possible
+    hikariConfig.addDataSourceProperty("rewriteBatchedStatements", "true");
     if (!config.transactionIsolationLevel.equals(TransactionIsolationLevel.TRANSACTION_NONE)) {
       hikariConfig.setTransactionIsolation(config.transactionIsolationLevel.name());
     }
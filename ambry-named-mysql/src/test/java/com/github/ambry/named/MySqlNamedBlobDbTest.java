@@ -35,6 +35,8 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.HashMap;
@@ -45,8 +47,11 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import javax.sql.DataSource;
 import org.apache.commons.codec.binary.Base64;
 import org.json.JSONArray;
@@ -167,6 +172,126 @@ public class MySqlNamedBlobDbTest {
     assertEquals("Blob Id is not matched with the record", id, namedBlobRecord.getBlobId());
   }
 
+  /**
+   * Test that concurrent upserts are coalesced into batches, with at most one batch in flight per connection of the
+   * local pool, that each write gets its own result, that the writes of a failed batch are retried on their own, and
+   * that queued writes fail once the db is closed.
+   */
+  @Test
+  public void testBatchedWrites() throws Exception {
+    MockDataSourceFactory batchDataSourceFactory = new MockDataSourceFactory();
+    MetricRegistry metricRegistry = new MetricRegistry();
+    Properties properties = new Properties();
+    JSONArray dbInfo = new JSONArray();
+    dbInfo.put(new JSONObject().put("url", "jdbc:mysql://" + localDatacenter)
+        .put("datacenter", localDatacenter)
+        .put("isWriteable", true)
+        .put("username", "test")
+        .put("password", "password"));
+    properties.setProperty(MySqlNamedBlobDbConfig.DB_INFO, dbInfo.toString());
+    properties.setProperty(MySqlNamedBlobDbConfig.DB_RELY_ON_NEW_TABLE, "true");
+    properties.setProperty(MySqlNamedBlobDbConfig.WRITE_BATCH_MAX_SIZE, "10");
+    properties.setProperty(MySqlNamedBlobDbConfig.LOCAL_POOL_SIZE, "2");
+    MySqlNamedBlobDb batchingNamedBlobDb =
+        new MySqlNamedBlobDb(accountService, new MySqlNamedBlobDbConfig(new VerifiableProperties(properties)),
+            batchDataSourceFactory, localDatacenter, metricRegistry);
+    PreparedStatement statement = mock(PreparedStatement.class);
+    Connection connection = mock(Connection.class);
+    when(connection.prepareStatement(any())).thenReturn(statement);
+    when(batchDataSourceFactory.dataSources.get(localDatacenter).getConnection()).thenReturn(connection);
+    CountDownLatch batchesStarted = new CountDownLatch(2);
+    CountDownLatch releaseBatches = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      batchesStarted.countDown();
+      releaseBatches.await();
+      return new int[0];
+    }).when(statement).executeBatch();
+
+    // a batch is written on each connection of the pool, and the writes that arrive meanwhile are sent together in
+    // the next one.
+    List<CompletableFuture<PutResult>> futures = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      futures.add(batchingNamedBlobDb.put(newRecord("blob" + i), NamedBlobState.READY, true));
+    }
+    assertTrue("Two batches should have started", batchesStarted.await(10, TimeUnit.SECONDS));
+    for (int i = 2; i < 4; i++) {
+      futures.add(batchingNamedBlobDb.put(newRecord("blob" + i), NamedBlobState.READY, true));
+    }
+    releaseBatches.countDown();
+    for (int i = 0; i < 4; i++) {
+      assertEquals("Unexpected record", "blob" + i, futures.get(i).get().getInsertedRecord().getBlobName());
+    }
+    verify(statement, times(3)).executeBatch();
+    verify(statement, times(4)).addBatch();
+    verify(connection, times(3)).commit();
+
+    // a TTL update of a record that does not exist fails
+    doReturn(new int[]{0}).when(statement).executeBatch();
+    checkErrorCode(() -> batchingNamedBlobDb.updateBlobTtlAndStateToReady(newRecord("blob0")),
+        RestServiceErrorCode.NotFound);
+    // a TTL update whose row count is not reported is checked with a query
+    ResultSet resultSet = mock(ResultSet.class);
+    when(statement.executeQuery()).thenReturn(resultSet);
+    doReturn(new int[]{Statement.SUCCESS_NO_INFO}).when(statement).executeBatch();
+    checkErrorCode(() -> batchingNamedBlobDb.updateBlobTtlAndStateToReady(newRecord("blob0")),
+        RestServiceErrorCode.NotFound);
+    when(resultSet.next()).thenReturn(true);
+    assertEquals("Unexpected record", newRecord("blob0"),
+        batchingNamedBlobDb.updateBlobTtlAndStateToReady(newRecord("blob0")).get().getInsertedRecord());
+
+    // the writes of a failed batch are retried one by one
+    doThrow(new SQLException("bad")).when(statement).executeBatch();
+    when(statement.executeUpdate()).thenReturn(1);
+    assertEquals("Unexpected record", newRecord("blob0"), batchingNamedBlobDb.updateBlobTtlAndStateToReady(
+        newRecord("blob0")).get().getInsertedRecord());
+    assertEquals("Unexpected fallback count", 1,
+        metricRegistry.counter(MetricRegistry.name(MySqlNamedBlobDb.class, "NamedBlobWriteBatchFallbackCount"))
+            .getCount());
+    verify(connection).rollback();
+
+    // the writes queued behind the batches in flight fail when the db is closed
+    CountDownLatch closingBatchesStarted = new CountDownLatch(2);
+    CountDownLatch releaseClosingBatches = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      closingBatchesStarted.countDown();
+      releaseClosingBatches.await();
+      return new int[0];
+    }).when(statement).executeBatch();
+    futures.clear();
+    for (int i = 0; i < 3; i++) {
+      futures.add(batchingNamedBlobDb.put(newRecord("blob" + i), NamedBlobState.READY, true));
+      if (i == 1) {
+        assertTrue("Two batches should have started", closingBatchesStarted.await(10, TimeUnit.SECONDS));
+      }
+    }
+    Thread closeThread = new Thread(() -> {
+      try {
+        batchingNamedBlobDb.close();
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+    closeThread.start();
+    // release the batches once close rejects new writes
+    assertTrue("Close should have started", batchingNamedBlobDb.awaitCloseStarted(10, TimeUnit.SECONDS));
+    releaseClosingBatches.countDown();
+    closeThread.join(TimeUnit.SECONDS.toMillis(10));
+    assertFalse("Close should have completed", closeThread.isAlive());
+    assertEquals("Unexpected record", "blob0", futures.get(0).get().getInsertedRecord().getBlobName());
+    assertEquals("Unexpected record", "blob1", futures.get(1).get().getInsertedRecord().getBlobName());
+    checkErrorCode(() -> futures.get(2), RestServiceErrorCode.ServiceUnavailable);
+    checkErrorCode(() -> batchingNamedBlobDb.put(newRecord("blob3"), NamedBlobState.READY, true),
+        RestServiceErrorCode.ServiceUnavailable);
+  }
+
+  /**
+   * @param blobName the name of the blob.
+   * @return a permanent {@link NamedBlobRecord} with the given name.
+   */
+  private NamedBlobRecord newRecord(String blobName) {
+    return new NamedBlobRecord(account.getName(), container.getName(), blobName, id, Utils.Infinite_Time);
+  }
+
   /**
    * @param callable an async call, where the {@link Future} is expected to be completed with an exception.
    * @param errorCode the expected {@link RestServiceErrorCode}.
@@ -0,0 +1,220 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.network;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.clustermap.DiskId;
+import com.github.ambry.clustermap.PartitionId;
+import com.github.ambry.config.NetworkConfig;
+import com.github.ambry.network.http2.Http2ServerMetrics;
+import com.github.ambry.server.EmptyRequest;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A {@link RequestResponseChannel} for the Netty based server that routes each request to a queue of the disk holding
+ * the partition of the request. Handlers of a disk receive requests through the channel returned by
+ * {@link #getDiskChannel(DiskId)}. Requests that are not for a single partition, or for a partition that is not on any
+ * of the disks, are queued in the shared {@link NettyServerRequestResponseChannel} and received through
+ * {@link #receiveRequest()}.
+ */
+public class DiskRoutingRequestResponseChannel implements RequestResponseChannel {
+  private static final Logger logger = LoggerFactory.getLogger(DiskRoutingRequestResponseChannel.class);
+  private static final String SEPARATOR = ".";
+  private final NettyServerRequestResponseChannel sharedChannel;
+  private final ServerRequestResponseHelper requestResponseHelper;
+  private final Function<PartitionId, DiskId> diskResolver;
+  private final Http2ServerMetrics http2ServerMetrics;
+  private final Map<DiskId, DiskChannel> diskChannels = new HashMap<>();
+
+  /**
+   * @param config the {@link NetworkConfig} used to create the queue of each disk.
+   * @param sharedChannel the {@link NettyServerRequestResponseChannel} for requests that are not routed to a disk. It
+   *                      is also used to send responses.
+   * @param requestResponseHelper the {@link ServerRequestResponseHelper} used to find the partition of a request.
+   * @param disks the disks to create queues for.
+   * @param diskResolver resolves the disk of a partition. Returns {@code null} if the partition is not on this server.
+   * @param http2ServerMetrics the {@link Http2ServerMetrics} to use.
+   * @param registry the {@link MetricRegistry} to register the metrics of each disk queue.
+   */
+  public DiskRoutingRequestResponseChannel(NetworkConfig config, NettyServerRequestResponseChannel sharedChannel,
+      ServerRequestResponseHelper requestResponseHelper, Collection<DiskId> disks,
+      Function<PartitionId, DiskId> diskResolver, Http2ServerMetrics http2ServerMetrics, MetricRegistry registry) {
+    this.sharedChannel = sharedChannel;
+    this.requestResponseHelper = requestResponseHelper;
+    this.diskResolver = diskResolver;
+    this.http2ServerMetrics = http2ServerMetrics;
+    for (DiskId disk : disks) {
+      diskChannels.put(disk,
+          new DiskChannel(NettyServerRequestResponseChannel.createNetworkRequestQueue(config), disk.getMountPath(),
+              registry));
+    }
+  }
+
+  /**
+   * Routes the request to the queue of the disk holding its partition, or to the shared queue.
+   */
+  @Override
+  public void sendRequest(NetworkRequest request) throws InterruptedException {
+    DiskChannel diskChannel = getDiskChannel(request);
+    if (diskChannel == null) {
+      sharedChannel.sendRequest(request);
+      return;
+    }
+    http2ServerMetrics.requestRate.mark();
+    if (diskChannel.queue.offer(request)) {
+      http2ServerMetrics.requestEnqueueTime.update(System.currentTimeMillis() - request.getStartTimeInMs());
+    } else {
+      diskChannel.droppedOnOverflowCount.inc();
+      sharedChannel.rejectRequest(request, false);
+    }
+  }
+
+  @Override
+  public NetworkRequest receiveRequest() throws InterruptedException {
+    return sharedChannel.receiveRequest();
+  }
+
+  @Override
+  public void sendResponse(Send payloadToSend, NetworkRequest originalRequest, ServerNetworkResponseMetrics metrics)
+      throws InterruptedException {
+    sharedChannel.sendResponse(payloadToSend, originalRequest, metrics);
+  }
+
+  @Override
+  public void closeConnection(NetworkRequest originalRequest) throws InterruptedException {
+    sharedChannel.closeConnection(originalRequest);
+  }
+
+  @Override
+  public void shutdown() {
+    diskChannels.values().forEach(DiskChannel::shutdown);
+    sharedChannel.shutdown();
+  }
+
+  /**
+   * @return the disks that have their own queue in this channel.
+   */
+  public Collection<DiskId> getDisks() {
+    return Collections.unmodifiableCollection(diskChannels.keySet());
+  }
+
+  /**
+   * @param disk the {@link DiskId} to get the channel of.
+   * @return the {@link RequestResponseChannel} from which the handlers of the given disk receive their requests, or
+   *         {@code null} if the disk has no queue in this channel.
+   */
+  public RequestResponseChannel getDiskChannel(DiskId disk) {
+    return diskChannels.get(disk);
+  }
+
+  /**
+   * @param request the {@link NetworkRequest} to route.
+   * @return the {@link DiskChannel} of the disk holding the partition of the request, or {@code null} if the request
+   *         should go to the shared queue.
+   */
+  private DiskChannel getDiskChannel(NetworkRequest request) {
+    if (diskChannels.isEmpty()) {
+      return null;
+    }
+    try {
+      PartitionId partitionId = requestResponseHelper.peekPartitionId(request);
+      DiskId disk = partitionId != null ? diskResolver.apply(partitionId) : null;
+      return disk != null ? diskChannels.get(disk) : null;
+    } catch (Exception e) {
+      // The request will fail to be decoded by the handler as well, which responds with the error.
+      logger.debug("Failed to read the partition of request {}", request, e);
+      return null;
+    }
+  }
+
+  /**
+   * The queue of requests for a disk. Responses are sent through the shared channel.
+   */
+  private class DiskChannel implements RequestResponseChannel {
+    private final NetworkRequestQueue queue;
+    private final Histogram requestQueuingTime;
+    private final Counter droppedOnExpiryCount;
+    private final Counter droppedOnOverflowCount;
+
+    /**
+     * @param queue the {@link NetworkRequestQueue} of the disk.
+     * @param mountPath the mount path of the disk, used as prefix of its metrics.
+     * @param registry the {@link MetricRegistry} to register the metrics of the disk queue.
+     */
+    DiskChannel(NetworkRequestQueue queue, String mountPath, MetricRegistry registry) {
+      this.queue = queue;
+      String prefix = mountPath + SEPARATOR;
+      registry.gauge(MetricRegistry.name(DiskRoutingRequestResponseChannel.class, prefix + "RequestQueueSize"),
+          () -> queue::size);
+      requestQueuingTime =
+          registry.histogram(MetricRegistry.name(DiskRoutingRequestResponseChannel.class, prefix + "RequestQueuingTime"));
+      droppedOnExpiryCount = registry.counter(
+          MetricRegistry.name(DiskRoutingRequestResponseChannel.class, prefix + "RequestDroppedOnExpiryCount"));
+      droppedOnOverflowCount = registry.counter(
+          MetricRegistry.name(DiskRoutingRequestResponseChannel.class, prefix + "RequestDroppedOnOverflowCount"));
+    }
+
+    @Override
+    public void sendRequest(NetworkRequest request) throws InterruptedException {
+      // Only used by the request handlers of the disk to signal shutdown.
+      if (!queue.offer(request)) {
+        throw new IllegalStateException("Failed to queue request " + request + " in a full disk queue");
+      }
+    }
+
+    @Override
+    public NetworkRequest receiveRequest() throws InterruptedException {
+      while (true) {
+        NetworkRequest request = queue.take();
+        if (request.equals(EmptyRequest.getInstance())) {
+          return request;
+        }
+        long queuingTime = System.currentTimeMillis() - request.getStartTimeInMs();
+        http2ServerMetrics.requestQueuingTime.update(queuingTime);
+        requestQueuingTime.update(queuingTime);
+        if (queue.isExpired(request)) {
+          droppedOnExpiryCount.inc();
+          sharedChannel.rejectRequest(request, true);
+          continue;
+        }
+        return request;
+      }
+    }
+
+    @Override
+    public void sendResponse(Send payloadToSend, NetworkRequest originalRequest,
+        ServerNetworkResponseMetrics metrics) throws InterruptedException {
+      sharedChannel.sendResponse(payloadToSend, originalRequest, metrics);
+    }
+
+    @Override
+    public void closeConnection(NetworkRequest originalRequest) throws InterruptedException {
+      sharedChannel.closeConnection(originalRequest);
+    }
+
+    @Override
+    public void shutdown() {
+      queue.close();
+    }
+  }
+}
@@ -42,19 +42,7 @@ public class NettyServerRequestResponseChannel implements RequestResponseChannel
       ServerMetrics serverMetrics, ServerRequestResponseHelper requestResponseHelper) {
     this.serverMetrics = serverMetrics;
     this.requestResponseHelper = requestResponseHelper;
-    switch (config.requestQueueType) {
-      case ADAPTIVE_QUEUE_WITH_LIFO_CO_DEL:
-        this.networkRequestQueue = new AdaptiveLifoCoDelNetworkRequestQueue(config.adaptiveLifoQueueThreshold,
-            config.adaptiveLifoQueueCodelTargetDelayMs, config.requestQueueTimeoutMs, SystemTime.getInstance(),
-            config.requestQueueCapacity);
-        break;
-      case BASIC_QUEUE_WITH_FIFO:
-        this.networkRequestQueue = new FifoNetworkRequestQueue(config.requestQueueTimeoutMs, SystemTime.getInstance(),
-            config.requestQueueCapacity);
-        break;
-      default:
-        throw new IllegalArgumentException("Queue type not supported by channel: " + config.requestQueueType);
-    }
+    this.networkRequestQueue = createNetworkRequestQueue(config);
     this.http2ServerMetrics = http2ServerMetrics;
     serverMetrics.registerRequestQueuesMetrics(networkRequestQueue::size);
   }
@@ -70,6 +58,25 @@ public class NettyServerRequestResponseChannel implements RequestResponseChannel
     this.requestResponseHelper = requestResponseHelper;
   }
 
+  /**
+   * Creates the {@link NetworkRequestQueue} of the type set in the {@link NetworkConfig}.
+   * @param config the {@link NetworkConfig} to use.
+   * @return the {@link NetworkRequestQueue}.
+   */
+  static NetworkRequestQueue createNetworkRequestQueue(NetworkConfig config) {
+    switch (config.requestQueueType) {
+      case ADAPTIVE_QUEUE_WITH_LIFO_CO_DEL:
+        return new AdaptiveLifoCoDelNetworkRequestQueue(config.adaptiveLifoQueueThreshold,
+            config.adaptiveLifoQueueCodelTargetDelayMs, config.requestQueueTimeoutMs, SystemTime.getInstance(),
+            config.requestQueueCapacity);
+      case BASIC_QUEUE_WITH_FIFO:
+        return new FifoNetworkRequestQueue(config.requestQueueTimeoutMs, SystemTime.getInstance(),
+            config.requestQueueCapacity);
+      default:
+        throw new IllegalArgumentException("Queue type not supported by channel: " + config.requestQueueType);
+    }
+  }
+
   /** Send a request to be handled */
   @Override
   public void sendRequest(NetworkRequest request) throws InterruptedException {
@@ -15,10 +15,16 @@
 package com.github.ambry.network;
 
 import com.github.ambry.clustermap.ClusterMap;
+import com.github.ambry.clustermap.PartitionId;
+import com.github.ambry.commons.BlobId;
 import com.github.ambry.protocol.AdminRequest;
 import com.github.ambry.protocol.AdminResponse;
 import com.github.ambry.protocol.DeleteRequest;
 import com.github.ambry.protocol.DeleteResponse;
+import com.github.ambry.protocol.FileCopyChunkRequest;
+import com.github.ambry.protocol.FileCopyChunkResponse;
+import com.github.ambry.protocol.FileCopyMetadataRequest;
+import com.github.ambry.protocol.FileCopyMetadataResponse;
 import com.github.ambry.protocol.GetRequest;
 import com.github.ambry.protocol.GetResponse;
 import com.github.ambry.protocol.PurgeRequest;
@@ -38,6 +44,8 @@ import com.github.ambry.protocol.UndeleteRequest;
 import com.github.ambry.protocol.UndeleteResponse;
 import com.github.ambry.replication.FindTokenHelper;
 import com.github.ambry.server.ServerErrorCode;
+import com.github.ambry.utils.NettyByteBufDataInputStream;
+import com.github.ambry.utils.Utils;
 import io.netty.buffer.ByteBufInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
@@ -96,6 +104,12 @@ public class ServerRequestResponseHelper {
         case PurgeRequest:
           request = PurgeRequest.readFrom(dis, clusterMap);
           break;
+        case FileCopyMetadataRequest:
+          request = FileCopyMetadataRequest.readFrom(dis, clusterMap);
+          break;
+        case FileCopyChunkRequest:
+          request = FileCopyChunkRequest.readFrom(dis, clusterMap);
+          break;
         default:
           throw new UnsupportedOperationException("Request type not supported");
       }
@@ -115,6 +129,51 @@ public class ServerRequestResponseHelper {
     return request;
   }
 
+  /**
+   * Reads the {@link PartitionId} a request is for without consuming the request. Only requests received over the
+   * network that are for a single blob, or GET requests for a single partition, have a partition.
+   * @param networkRequest incoming network request
+   * @return the {@link PartitionId} of the request, or {@code null} if the request is not for a single partition.
+   * @throws IOException if the request could not be read.
+   */
+  public PartitionId peekPartitionId(NetworkRequest networkRequest) throws IOException {
+    if (!(networkRequest instanceof NettyServerRequest)) {
+      return null;
+    }
+    DataInputStream dis = new NettyByteBufDataInputStream(((NettyServerRequest) networkRequest).content().duplicate());
+    RequestOrResponseType requestType = RequestOrResponseType.values()[dis.readShort()];
+    switch (requestType) {
+      case PutRequest:
+      case DeleteRequest:
+      case TtlUpdateRequest:
+      case UndeleteRequest:
+      case ReplicateBlobRequest:
+        skipRequestHeader(dis);
+        return new BlobId(dis, clusterMap).getPartition();
+      case GetRequest:
+        skipRequestHeader(dis);
+        // message format flags
+        dis.readShort();
+        if (dis.readInt() != 1 || dis.readInt() < 1) {
+          return null;
+        }
+        return new BlobId(dis, clusterMap).getPartition();
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Skips the version, correlation id and client id that follow the request type in every request.
+   * @param dis the {@link DataInputStream} positioned after the request type.
+   * @throws IOException if the header could not be read.
+   */
+  private void skipRequestHeader(DataInputStream dis) throws IOException {
+    dis.readShort();
+    dis.readInt();
+    Utils.readIntString(dis);
+  }
+
   /**
    * Creates {@link Response} for errors.
    * @param request incoming request
@@ -153,6 +212,12 @@ public class ServerRequestResponseHelper {
       case PurgeRequest:
         response = new PurgeResponse(request.getCorrelationId(), request.getClientId(), serverErrorCode);
         break;
+      case FileCopyMetadataRequest:
+        response = new FileCopyMetadataResponse(request.getCorrelationId(), request.getClientId(), serverErrorCode);
+        break;
+      case FileCopyChunkRequest:
+        response = new FileCopyChunkResponse(request.getCorrelationId(), request.getClientId(), serverErrorCode);
+        break;
       default:
         throw new UnsupportedOperationException("Request type not supported");
     }
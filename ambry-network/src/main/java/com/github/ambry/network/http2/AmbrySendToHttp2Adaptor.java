@@ -78,6 +78,10 @@ public class AmbrySendToHttp2Adaptor extends ChannelOutboundHandlerAdapter {
     DefaultHttp2HeadersFrame headersFrame = new DefaultHttp2HeadersFrame(http2Headers, false);
     ctx.write(headersFrame);
 
+    // The content is always sent as ByteBuf slices, so blob data is copied out of the log even for large GETs. A
+    // FileRegion can't be used here: DATA frames only carry ByteBufs, and HTTP/2 connections are always TLS, which
+    // encrypts in user space. Zero copy with FileChannel.transferTo is only done by StoreMessageReadSet on plaintext
+    // SocketServer connections.
     // Referencing counting for derived {@link ByteBuf}: https://netty.io/wiki/reference-counted-objects.html#derived-buffers
     try {
       while (send.content().isReadable(maxFrameSize)) {
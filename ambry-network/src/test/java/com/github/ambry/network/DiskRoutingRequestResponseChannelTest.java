@@ -0,0 +1,148 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.network;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.clustermap.ClusterMap;
+import com.github.ambry.clustermap.DiskId;
+import com.github.ambry.clustermap.MockClusterMap;
+import com.github.ambry.clustermap.PartitionId;
+import com.github.ambry.commons.BlobId;
+import com.github.ambry.commons.CommonTestUtils;
+import com.github.ambry.commons.ServerMetrics;
+import com.github.ambry.config.NetworkConfig;
+import com.github.ambry.config.VerifiableProperties;
+import com.github.ambry.messageformat.MessageFormatFlags;
+import com.github.ambry.network.http2.Http2ServerMetrics;
+import com.github.ambry.protocol.AdminRequest;
+import com.github.ambry.protocol.AdminRequestOrResponseType;
+import com.github.ambry.protocol.DeleteRequest;
+import com.github.ambry.protocol.GetOption;
+import com.github.ambry.protocol.GetRequest;
+import com.github.ambry.protocol.PartitionRequestInfo;
+import com.github.ambry.protocol.RequestOrResponse;
+import com.github.ambry.protocol.RequestOrResponseType;
+import com.github.ambry.utils.ByteBufferChannel;
+import io.netty.buffer.Unpooled;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Unit test for {@link DiskRoutingRequestResponseChannel}.
+ */
+public class DiskRoutingRequestResponseChannelTest {
+  private final MockClusterMap clusterMap;
+  private final ServerRequestResponseHelper requestResponseHelper;
+  private final PartitionId partitionId;
+  private final DiskId diskId;
+  private final BlobId blobId;
+
+  public DiskRoutingRequestResponseChannelTest() throws IOException {
+    clusterMap = new MockClusterMap();
+    requestResponseHelper = new ServerRequestResponseHelper(clusterMap, null);
+    partitionId = clusterMap.getWritablePartitionIds(MockClusterMap.DEFAULT_PARTITION_CLASS).get(0);
+    diskId = partitionId.getReplicaIds().get(0).getDiskId();
+    blobId = new BlobId(CommonTestUtils.getCurrentBlobIdVersion(), BlobId.BlobIdType.NATIVE,
+        ClusterMap.UNKNOWN_DATACENTER_ID, (short) 1, (short) 1, partitionId, false, BlobId.BlobDataType.DATACHUNK);
+  }
+
+  /**
+   * Test reading the partition of a request without consuming it.
+   * @throws IOException
+   */
+  @Test
+  public void peekPartitionIdTest() throws IOException {
+    NettyServerRequest deleteRequest =
+        toNettyServerRequest(new DeleteRequest(1, "client", blobId, System.currentTimeMillis()));
+    assertEquals("Unexpected partition", partitionId, requestResponseHelper.peekPartitionId(deleteRequest));
+    RequestOrResponse decoded = requestResponseHelper.getDecodedRequest(deleteRequest);
+    assertEquals("Request should still be readable", RequestOrResponseType.DeleteRequest, decoded.getRequestType());
+
+    GetRequest getRequest = new GetRequest(1, "client", MessageFormatFlags.Blob,
+        Collections.singletonList(new PartitionRequestInfo(partitionId, Collections.singletonList(blobId))),
+        GetOption.None);
+    assertEquals("Unexpected partition", partitionId,
+        requestResponseHelper.peekPartitionId(toNettyServerRequest(getRequest)));
+
+    PartitionId otherPartitionId = clusterMap.getWritablePartitionIds(MockClusterMap.DEFAULT_PARTITION_CLASS).get(1);
+    BlobId otherBlobId = new BlobId(CommonTestUtils.getCurrentBlobIdVersion(), BlobId.BlobIdType.NATIVE,
+        ClusterMap.UNKNOWN_DATACENTER_ID, (short) 1, (short) 1, otherPartitionId, false,
+        BlobId.BlobDataType.DATACHUNK);
+    GetRequest multiPartitionGetRequest = new GetRequest(1, "client", MessageFormatFlags.Blob,
+        Arrays.asList(new PartitionRequestInfo(partitionId, Collections.singletonList(blobId)),
+            new PartitionRequestInfo(otherPartitionId, Collections.singletonList(otherBlobId))), GetOption.None);
+    assertNull("A GET for several partitions has no single partition",
+        requestResponseHelper.peekPartitionId(toNettyServerRequest(multiPartitionGetRequest)));
+
+    AdminRequest adminRequest = new AdminRequest(AdminRequestOrResponseType.HealthCheck, null, 1, "client");
+    assertNull("An admin request should not be routed",
+        requestResponseHelper.peekPartitionId(toNettyServerRequest(adminRequest)));
+  }
+
+  /**
+   * Test that requests are routed to the queue of their disk, and other requests to the shared queue.
+   * @throws Exception
+   */
+  @Test
+  public void routingTest() throws Exception {
+    NetworkConfig config = new NetworkConfig(new VerifiableProperties(new Properties()));
+    Http2ServerMetrics http2ServerMetrics = new Http2ServerMetrics(new MetricRegistry());
+    NettyServerRequestResponseChannel sharedChannel = new NettyServerRequestResponseChannel(config, http2ServerMetrics,
+        new ServerMetrics(new MetricRegistry(), this.getClass()), requestResponseHelper);
+    DiskRoutingRequestResponseChannel channel =
+        new DiskRoutingRequestResponseChannel(config, sharedChannel, requestResponseHelper,
+            Collections.singletonList(diskId), partition -> partition.equals(partitionId) ? diskId : null,
+            http2ServerMetrics, new MetricRegistry());
+    assertEquals("Unexpected disks", Collections.singletonList(diskId), Arrays.asList(channel.getDisks().toArray()));
+
+    NettyServerRequest deleteRequest =
+        toNettyServerRequest(new DeleteRequest(1, "client", blobId, System.currentTimeMillis()));
+    NettyServerRequest adminRequest =
+        toNettyServerRequest(new AdminRequest(AdminRequestOrResponseType.HealthCheck, null, 1, "client"));
+    channel.sendRequest(deleteRequest);
+    channel.sendRequest(adminRequest);
+    assertSame("Request should be in the disk queue", deleteRequest,
+        channel.getDiskChannel(diskId).receiveRequest());
+    assertSame("Request should be in the shared queue", adminRequest, channel.receiveRequest());
+    channel.shutdown();
+  }
+
+  /**
+   * @param request the {@link RequestOrResponse} to serialize.
+   * @return a {@link NettyServerRequest} with the content the server receives for the given request.
+   * @throws IOException
+   */
+  private NettyServerRequest toNettyServerRequest(RequestOrResponse request) throws IOException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    do {
+      ByteBufferChannel channel = new ByteBufferChannel(ByteBuffer.allocate((int) request.sizeInBytes()));
+      request.writeTo(channel);
+      ByteBuffer underlyingBuf = channel.getBuffer();
+      underlyingBuf.flip();
+      outputStream.write(underlyingBuf.array(), underlyingBuf.arrayOffset(), underlyingBuf.remaining());
+    } while (!request.isSendComplete());
+    request.release();
+    byte[] bytes = outputStream.toByteArray();
+    // skip the size of the request
+    return new NettyServerRequest(null, Unpooled.wrappedBuffer(bytes, Long.BYTES, bytes.length - Long.BYTES));
+  }
+}
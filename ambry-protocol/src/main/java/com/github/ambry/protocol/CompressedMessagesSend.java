@@ -0,0 +1,311 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.protocol;
+
+import com.github.ambry.compression.Compression;
+import com.github.ambry.compression.CompressionException;
+import com.github.ambry.compression.CompressionMap;
+import com.github.ambry.compression.LZ4Compression;
+import com.github.ambry.compression.ZstdCompression;
+import com.github.ambry.messageformat.BlobProperties;
+import com.github.ambry.messageformat.MessageFormatRecord;
+import com.github.ambry.network.Send;
+import com.github.ambry.store.MessageInfo;
+import com.github.ambry.utils.AbstractByteBufHolder;
+import com.github.ambry.utils.ByteBufferInputStream;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * The messages of a {@link GetResponse}, each of them compressed on its own. Every message is written as a one byte
+ * flag that tells whether it is compressed, the size of the bytes that follow, and the bytes of the message, either as
+ * they are or as a buffer returned by {@link Compression#compress}, which records the algorithm and the original size.
+ * <p/>
+ * Compressing every message on its own lets the messages that do not benefit from it be sent as they are: messages
+ * smaller than a minimum size, messages of blobs that are encrypted or already have a content encoding, and messages
+ * that do not compress better than a minimum ratio.
+ */
+public class CompressedMessagesSend extends AbstractByteBufHolder<CompressedMessagesSend> implements Send {
+  static final byte UNCOMPRESSED_MESSAGE = 0;
+  static final byte COMPRESSED_MESSAGE = 1;
+  static final int MESSAGE_HEADER_SIZE_IN_BYTES = 1 + 4;
+  // the algorithms a compressed message can be decompressed with.
+  static final CompressionMap COMPRESSIONS = CompressionMap.of(new LZ4Compression(), new ZstdCompression());
+  private static final Logger logger = LoggerFactory.getLogger(CompressedMessagesSend.class);
+
+  private ByteBuf content;
+  private final long sizeInBytes;
+  private final long originalSizeInBytes;
+  private final int compressedMessageCount;
+  private final int skippedMessageCount;
+  private final long compressionTimeInMicroseconds;
+
+  private CompressedMessagesSend(ByteBuf content, long originalSizeInBytes, int compressedMessageCount,
+      int skippedMessageCount, long compressionTimeInMicroseconds) {
+    this.content = content;
+    this.sizeInBytes = content.readableBytes();
+    this.originalSizeInBytes = originalSizeInBytes;
+    this.compressedMessageCount = compressedMessageCount;
+    this.skippedMessageCount = skippedMessageCount;
+    this.compressionTimeInMicroseconds = compressionTimeInMicroseconds;
+  }
+
+  /**
+   * Compresses the messages of a {@link GetResponse}. The messages must be complete, as returned for
+   * {@link com.github.ambry.messageformat.MessageFormatFlags#All}, so that the size of every message is the size in its
+   * {@link MessageInfo}.
+   * @param messages the messages of all the partitions of the response, in the order of the partitions. It is not
+   *                 released.
+   * @param partitionResponseInfoList the {@link PartitionResponseInfo}s of the response.
+   * @param compressionAlgorithm the name of the compression algorithm to use.
+   * @param minMessageSizeInBytes the minimum size of a message for it to be compressed.
+   * @param minCompressRatio the minimum ratio of the original to the compressed size for a compressed message to be
+   *                         sent.
+   * @return the {@link CompressedMessagesSend}, or {@code null} if the algorithm is not known or the sizes of the
+   *         messages do not add up to the size of {@code messages}, in which case they should be sent as they are.
+   */
+  public static CompressedMessagesSend compress(ByteBuf messages, List<PartitionResponseInfo> partitionResponseInfoList,
+      String compressionAlgorithm, int minMessageSizeInBytes, double minCompressRatio) {
+    Compression compression = COMPRESSIONS.get(compressionAlgorithm);
+    if (compression == null) {
+      return null;
+    }
+    long totalSize = 0;
+    int messageCount = 0;
+    for (PartitionResponseInfo partitionResponseInfo : partitionResponseInfoList) {
+      for (MessageInfo messageInfo : partitionResponseInfo.getMessageInfoList()) {
+        totalSize += messageInfo.getSize();
+        messageCount++;
+      }
+    }
+    if (totalSize != messages.readableBytes()) {
+      logger.warn("Size of the messages {} does not match the size of the message infos {}", messages.readableBytes(),
+          totalSize);
+      return null;
+    }
+    ByteBuf content =
+        PooledByteBufAllocator.DEFAULT.heapBuffer((int) totalSize + messageCount * MESSAGE_HEADER_SIZE_IN_BYTES);
+    int compressedMessageCount = 0;
+    int skippedMessageCount = 0;
+    long compressionTimeInMicroseconds = 0;
+    int offset = messages.readerIndex();
+    try {
+      for (PartitionResponseInfo partitionResponseInfo : partitionResponseInfoList) {
+        for (MessageInfo messageInfo : partitionResponseInfo.getMessageInfoList()) {
+          int messageSize = (int) messageInfo.getSize();
+          ByteBuffer message = ByteBuffer.allocate(messageSize);
+          messages.getBytes(offset, message);
+          message.flip();
+          offset += messageSize;
+          ByteBuffer compressedMessage = null;
+          if (messageSize >= minMessageSizeInBytes) {
+            if (isEncryptedOrEncoded(message)) {
+              skippedMessageCount++;
+            } else {
+              long startTime = System.nanoTime();
+              compressedMessage = ByteBuffer.allocate(compression.getCompressBufferSize(messageSize));
+              int compressedSize = compression.compress(message.duplicate(), compressedMessage);
+              compressionTimeInMicroseconds += (System.nanoTime() - startTime) / 1000;
+              if (messageSize < compressedSize * minCompressRatio) {
+                compressedMessage = null;
+              } else {
+                compressedMessage.flip();
+              }
+            }
+          }
+          if (compressedMessage != null) {
+            content.writeByte(COMPRESSED_MESSAGE);
+            content.writeInt(compressedMessage.remaining());
+            content.writeBytes(compressedMessage);
+            compressedMessageCount++;
+          } else {
+            content.writeByte(UNCOMPRESSED_MESSAGE);
+            content.writeInt(messageSize);
+            content.writeBytes(message);
+          }
+        }
+      }
+    } catch (CompressionException e) {
+      logger.error("Failed to compress messages with {}", compressionAlgorithm, e);
+      content.release();
+      return null;
+    }
+    return new CompressedMessagesSend(content, totalSize, compressedMessageCount, skippedMessageCount,
+        compressionTimeInMicroseconds);
+  }
+
+  /**
+   * Reads the messages written by a {@link CompressedMessagesSend} and decompresses the ones that are compressed.
+   * @param stream the stream to read the messages from.
+   * @param messageSizes the size of each message to read, from its {@link MessageInfo}. Every message must have
+   *                     exactly this size once decompressed.
+   * @param messages the buffer to write the messages to, as they would have been sent without compression. All of it
+   *                 must be filled.
+   * @return the number of bytes read from {@code stream}.
+   * @throws IOException if the messages could not be read or decompressed, or if a message does not have the size of
+   *                     its {@link MessageInfo}.
+   */
+  static long decompress(DataInputStream stream, List<Long> messageSizes, ByteBuffer messages) throws IOException {
+    long bytesRead = 0;
+    try {
+      for (int i = 0; i < messageSizes.size(); i++) {
+        long expectedSize = messageSizes.get(i);
+        if (expectedSize > messages.remaining()) {
+          throw new IOException("Size " + expectedSize + " of message " + i + " is larger than the remaining "
+              + messages.remaining() + " bytes of the messages");
+        }
+        byte flag = stream.readByte();
+        byte[] bytes = new byte[stream.readInt()];
+        stream.readFully(bytes);
+        bytesRead += MESSAGE_HEADER_SIZE_IN_BYTES + bytes.length;
+        int messageSize;
+        if (flag == UNCOMPRESSED_MESSAGE) {
+          messageSize = bytes.length;
+          if (messageSize == expectedSize) {
+            messages.put(bytes);
+          }
+        } else if (flag == COMPRESSED_MESSAGE) {
+          ByteBuffer compressedMessage = ByteBuffer.wrap(bytes);
+          Compression compression = COMPRESSIONS.get(getAlgorithmName(compressedMessage));
+          if (compression == null) {
+            throw new IOException("Unknown compression algorithm of message " + i);
+          }
+          // a message larger than its message info fails to decompress instead of overwriting the next message.
+          ByteBuffer message = messages.slice();
+          message.limit((int) expectedSize);
+          messageSize = compression.decompress(compressedMessage, message.slice());
+          messages.position(messages.position() + messageSize);
+        } else {
+          throw new IOException("Unknown flag " + flag + " of message " + i);
+        }
+        if (messageSize != expectedSize) {
+          throw new IOException(
+              "Message " + i + " is " + messageSize + " bytes but its message info has size " + expectedSize);
+        }
+      }
+    } catch (CompressionException | RuntimeException e) {
+      throw new IOException("Failed to decompress messages", e);
+    }
+    if (messages.hasRemaining()) {
+      throw new IOException(
+          "Decompressed messages are " + messages.remaining() + " bytes shorter than the size of their message infos");
+    }
+    return bytesRead;
+  }
+
+  /**
+   * @return the size of the messages before they were compressed.
+   */
+  public long getOriginalSizeInBytes() {
+    return originalSizeInBytes;
+  }
+
+  /**
+   * @return the number of messages that are sent compressed.
+   */
+  public int getCompressedMessageCount() {
+    return compressedMessageCount;
+  }
+
+  /**
+   * @return the number of messages that are not compressed because their blobs are encrypted or already encoded.
+   */
+  public int getSkippedMessageCount() {
+    return skippedMessageCount;
+  }
+
+  /**
+   * @return the time spent compressing the messages.
+   */
+  public long getCompressionTimeInMicroseconds() {
+    return compressionTimeInMicroseconds;
+  }
+
+  @Override
+  public long writeTo(WritableByteChannel channel) throws IOException {
+    long written = channel.write(content.nioBuffer());
+    content.skipBytes((int) written);
+    return written;
+  }
+
+  @Override
+  public boolean isSendComplete() {
+    return content.readableBytes() == 0;
+  }
+
+  @Override
+  public long sizeInBytes() {
+    return sizeInBytes;
+  }
+
+  @Override
+  public ByteBuf content() {
+    return content;
+  }
+
+  @Override
+  public CompressedMessagesSend replace(ByteBuf content) {
+    return null;
+  }
+
+  /**
+   * @param message a complete message.
+   * @return {@code true} if the message is a put of a blob that is encrypted or has a content encoding, such as a blob
+   *         that is already compressed. Compressing those is unlikely to make them smaller.
+   */
+  private static boolean isEncryptedOrEncoded(ByteBuffer message) {
+    try {
+      short version = message.getShort(message.position());
+      if (!MessageFormatRecord.isValidHeaderVersion(version)) {
+        return false;
+      }
+      ByteBuffer header = message.duplicate();
+      header.limit(header.position() + MessageFormatRecord.getHeaderSizeForVersion(version));
+      MessageFormatRecord.MessageHeader_Format headerFormat =
+          MessageFormatRecord.getMessageHeader(version, header.slice());
+      if (!headerFormat.isPutRecord()) {
+        return false;
+      }
+      if (headerFormat.hasEncryptionKeyRecord()) {
+        return true;
+      }
+      ByteBuffer blobPropertiesRecord = message.duplicate();
+      blobPropertiesRecord.position(message.position() + headerFormat.getBlobPropertiesRecordRelativeOffset());
+      BlobProperties blobProperties =
+          MessageFormatRecord.deserializeBlobProperties(new ByteBufferInputStream(blobPropertiesRecord));
+      return blobProperties.isEncrypted() || (blobProperties.getContentEncoding() != null
+          && !blobProperties.getContentEncoding().isEmpty());
+    } catch (Exception e) {
+      // a message that cannot be parsed is still sent, the receiver decides what to do with it.
+      logger.trace("Failed to parse the header of a message", e);
+      return false;
+    }
+  }
+
+  /**
+   * Reads the algorithm name of a buffer returned by {@link Compression#compress} without changing its position.
+   */
+  private static String getAlgorithmName(ByteBuffer compressedMessage) {
+    return COMPRESSIONS.getAlgorithmName(Unpooled.wrappedBuffer(compressedMessage.duplicate()));
+  }
+}
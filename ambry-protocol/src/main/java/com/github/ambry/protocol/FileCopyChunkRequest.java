@@ -0,0 +1,136 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.protocol;
+
+import com.github.ambry.clustermap.ClusterMap;
+import com.github.ambry.clustermap.PartitionId;
+import com.github.ambry.utils.Utils;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+
+/**
+ * Request for a range of one of the store files listed by a {@link FileCopyMetadataResponse}.
+ */
+public class FileCopyChunkRequest extends RequestOrResponse {
+  static final short FILE_COPY_CHUNK_REQUEST_VERSION_V1 = 1;
+  private static final short CURRENT_VERSION = FILE_COPY_CHUNK_REQUEST_VERSION_V1;
+  private static final int Start_Offset_Size_In_Bytes = 8;
+  private static final int Chunk_Size_Size_In_Bytes = 4;
+
+  private final PartitionId partitionId;
+  private final String fileName;
+  private final long startOffset;
+  private final int chunkSizeInBytes;
+
+  /**
+   * @param correlationId the correlation id for the request.
+   * @param clientId the id of the client generating the request.
+   * @param partitionId the {@link PartitionId} the file belongs to.
+   * @param fileName the name of the file, as listed by the {@link FileCopyMetadataResponse}.
+   * @param startOffset the offset in the file to read from.
+   * @param chunkSizeInBytes the maximum number of bytes to read.
+   */
+  public FileCopyChunkRequest(int correlationId, String clientId, PartitionId partitionId, String fileName,
+      long startOffset, int chunkSizeInBytes) {
+    super(RequestOrResponseType.FileCopyChunkRequest, CURRENT_VERSION, correlationId, clientId);
+    if (partitionId == null || fileName == null) {
+      throw new IllegalArgumentException(
+          "A parameter in the file copy chunk request is null: [Partition: " + partitionId + ", fileName: " + fileName
+              + "]");
+    }
+    this.partitionId = partitionId;
+    this.fileName = fileName;
+    this.startOffset = startOffset;
+    this.chunkSizeInBytes = chunkSizeInBytes;
+  }
+
+  /**
+   * Helper to construct a {@link FileCopyChunkRequest} from a stream whose request type has already been read.
+   * @param stream the stream to read data from.
+   * @param clusterMap the {@link ClusterMap} to use.
+   * @return a {@link FileCopyChunkRequest} based on data read off of the stream.
+   * @throws IOException if there were any problems reading the stream.
+   */
+  public static FileCopyChunkRequest readFrom(DataInputStream stream, ClusterMap clusterMap) throws IOException {
+    short version = stream.readShort();
+    if (version != FILE_COPY_CHUNK_REQUEST_VERSION_V1) {
+      throw new IllegalStateException("Unknown FileCopyChunkRequest version: " + version);
+    }
+    int correlationId = stream.readInt();
+    String clientId = Utils.readIntString(stream);
+    PartitionId partitionId = clusterMap.getPartitionIdFromStream(stream);
+    String fileName = Utils.readIntString(stream);
+    long startOffset = stream.readLong();
+    int chunkSizeInBytes = stream.readInt();
+    return new FileCopyChunkRequest(correlationId, clientId, partitionId, fileName, startOffset, chunkSizeInBytes);
+  }
+
+  @Override
+  public void accept(RequestVisitor visitor) {
+    visitor.visit(this);
+  }
+
+  @Override
+  protected void prepareBuffer() {
+    super.prepareBuffer();
+    bufferToSend.writeBytes(partitionId.getBytes());
+    Utils.serializeString(bufferToSend, fileName, Charset.defaultCharset());
+    bufferToSend.writeLong(startOffset);
+    bufferToSend.writeInt(chunkSizeInBytes);
+  }
+
+  /**
+   * @return the {@link PartitionId} the file belongs to.
+   */
+  public PartitionId getPartitionId() {
+    return partitionId;
+  }
+
+  /**
+   * @return the name of the file, as listed by the {@link FileCopyMetadataResponse}.
+   */
+  public String getFileName() {
+    return fileName;
+  }
+
+  /**
+   * @return the offset in the file to read from.
+   */
+  public long getStartOffset() {
+    return startOffset;
+  }
+
+  /**
+   * @return the maximum number of bytes to read.
+   */
+  public int getChunkSizeInBytes() {
+    return chunkSizeInBytes;
+  }
+
+  @Override
+  public long sizeInBytes() {
+    // header + partitionId + fileName + startOffset + chunkSize
+    return super.sizeInBytes() + partitionId.getBytes().length + Utils.getIntStringLength(fileName)
+        + Start_Offset_Size_In_Bytes + Chunk_Size_Size_In_Bytes;
+  }
+
+  @Override
+  public String toString() {
+    return "FileCopyChunkRequest[PartitionId=" + partitionId + ", FileName=" + fileName + ", StartOffset="
+        + startOffset + ", ChunkSizeInBytes=" + chunkSizeInBytes + ", ClientId=" + clientId + ", CorrelationId="
+        + correlationId + "]";
+  }
+}
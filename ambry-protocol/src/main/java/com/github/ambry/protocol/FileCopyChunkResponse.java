@@ -0,0 +1,162 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.protocol;
+
+import com.github.ambry.server.ServerErrorCode;
+import com.github.ambry.utils.Crc32;
+import com.github.ambry.utils.Utils;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+
+/**
+ * Response to a {@link FileCopyChunkRequest}. It carries the bytes read from the file and their CRC, so that the
+ * receiver can verify that the chunk was not corrupted on the way. A chunk shorter than requested means that the end
+ * of the file was reached.
+ */
+public class FileCopyChunkResponse extends Response {
+  private static final short FILE_COPY_CHUNK_RESPONSE_VERSION_V1 = 1;
+  private static final int Start_Offset_Size_In_Bytes = 8;
+  private static final int Data_Size_Size_In_Bytes = 4;
+  private static final int Crc_Size_In_Bytes = 8;
+
+  private final String fileName;
+  private final long startOffset;
+  private final byte[] data;
+  private final long crc;
+
+  /**
+   * Constructs a successful response and computes the CRC of the {@code data}.
+   * @param correlationId the correlation id from the {@link FileCopyChunkRequest}.
+   * @param clientId the id of the client from the {@link FileCopyChunkRequest}.
+   * @param fileName the name of the file the chunk was read from.
+   * @param startOffset the offset in the file the chunk was read from.
+   * @param data the bytes read from the file.
+   */
+  public FileCopyChunkResponse(int correlationId, String clientId, String fileName, long startOffset, byte[] data) {
+    this(correlationId, clientId, ServerErrorCode.No_Error, fileName, startOffset, data, computeCrc(data));
+  }
+
+  /**
+   * Constructs a response with an error.
+   * @param correlationId the correlation id from the {@link FileCopyChunkRequest}.
+   * @param clientId the id of the client from the {@link FileCopyChunkRequest}.
+   * @param error the {@link ServerErrorCode} for the operation.
+   */
+  public FileCopyChunkResponse(int correlationId, String clientId, ServerErrorCode error) {
+    this(correlationId, clientId, error, "", 0, new byte[0], computeCrc(new byte[0]));
+  }
+
+  private FileCopyChunkResponse(int correlationId, String clientId, ServerErrorCode error, String fileName,
+      long startOffset, byte[] data, long crc) {
+    super(RequestOrResponseType.FileCopyChunkResponse, FILE_COPY_CHUNK_RESPONSE_VERSION_V1, correlationId, clientId,
+        error);
+    this.fileName = fileName;
+    this.startOffset = startOffset;
+    this.data = data;
+    this.crc = crc;
+  }
+
+  /**
+   * Helper to construct a {@link FileCopyChunkResponse} from the {@code stream}. The CRC is not verified here, see
+   * {@link #isCrcValid()}.
+   * @param stream the stream to read bytes from.
+   * @return a {@link FileCopyChunkResponse} based on data read from the {@code stream}.
+   * @throws IOException if there was any problem reading the stream.
+   */
+  public static FileCopyChunkResponse readFrom(DataInputStream stream) throws IOException {
+    RequestOrResponseType type = RequestOrResponseType.values()[stream.readShort()];
+    if (type != RequestOrResponseType.FileCopyChunkResponse) {
+      throw new IllegalArgumentException("The type of request response is not compatible");
+    }
+    short version = stream.readShort();
+    if (version != FILE_COPY_CHUNK_RESPONSE_VERSION_V1) {
+      throw new IllegalStateException("Unknown FileCopyChunkResponse version: " + version);
+    }
+    int correlationId = stream.readInt();
+    String clientId = Utils.readIntString(stream);
+    ServerErrorCode error = ServerErrorCode.values()[stream.readShort()];
+    String fileName = Utils.readIntString(stream);
+    long startOffset = stream.readLong();
+    byte[] data = new byte[stream.readInt()];
+    stream.readFully(data);
+    long crc = stream.readLong();
+    return new FileCopyChunkResponse(correlationId, clientId, error, fileName, startOffset, data, crc);
+  }
+
+  @Override
+  protected void prepareBuffer() {
+    super.prepareBuffer();
+    Utils.serializeString(bufferToSend, fileName, Charset.defaultCharset());
+    bufferToSend.writeLong(startOffset);
+    bufferToSend.writeInt(data.length);
+    bufferToSend.writeBytes(data);
+    bufferToSend.writeLong(crc);
+  }
+
+  /**
+   * @return the name of the file the chunk was read from.
+   */
+  public String getFileName() {
+    return fileName;
+  }
+
+  /**
+   * @return the offset in the file the chunk was read from.
+   */
+  public long getStartOffset() {
+    return startOffset;
+  }
+
+  /**
+   * @return the bytes read from the file.
+   */
+  public byte[] getData() {
+    return data;
+  }
+
+  /**
+   * @return the CRC of the data computed by the sender.
+   */
+  public long getCrc() {
+    return crc;
+  }
+
+  /**
+   * @return {@code true} if the CRC computed over the received data matches the one computed by the sender.
+   */
+  public boolean isCrcValid() {
+    return computeCrc(data) == crc;
+  }
+
+  @Override
+  public long sizeInBytes() {
+    // header + error + fileName + startOffset + data + crc
+    return super.sizeInBytes() + Utils.getIntStringLength(fileName) + Start_Offset_Size_In_Bytes
+        + Data_Size_Size_In_Bytes + data.length + Crc_Size_In_Bytes;
+  }
+
+  @Override
+  public String toString() {
+    return "FileCopyChunkResponse[ServerErrorCode=" + getError() + ", FileName=" + fileName + ", StartOffset="
+        + startOffset + ", DataSize=" + data.length + "]";
+  }
+
+  private static long computeCrc(byte[] data) {
+    Crc32 crc32 = new Crc32();
+    crc32.update(data, 0, data.length);
+    return crc32.getValue();
+  }
+}
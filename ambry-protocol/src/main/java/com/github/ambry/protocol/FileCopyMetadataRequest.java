@@ -0,0 +1,93 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.protocol;
+
+import com.github.ambry.clustermap.ClusterMap;
+import com.github.ambry.clustermap.PartitionId;
+import com.github.ambry.utils.Utils;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+
+/**
+ * Request for the list of store files of a partition that can be copied to bootstrap a new replica. The files are
+ * then fetched with {@link FileCopyChunkRequest}s.
+ */
+public class FileCopyMetadataRequest extends RequestOrResponse {
+  static final short FILE_COPY_METADATA_REQUEST_VERSION_V1 = 1;
+  private static final short CURRENT_VERSION = FILE_COPY_METADATA_REQUEST_VERSION_V1;
+
+  private final PartitionId partitionId;
+
+  /**
+   * @param correlationId the correlation id for the request.
+   * @param clientId the id of the client generating the request.
+   * @param partitionId the {@link PartitionId} whose files are requested.
+   */
+  public FileCopyMetadataRequest(int correlationId, String clientId, PartitionId partitionId) {
+    super(RequestOrResponseType.FileCopyMetadataRequest, CURRENT_VERSION, correlationId, clientId);
+    if (partitionId == null) {
+      throw new IllegalArgumentException("Partition of the file copy metadata request cannot be null");
+    }
+    this.partitionId = partitionId;
+  }
+
+  /**
+   * Helper to construct a {@link FileCopyMetadataRequest} from a stream whose request type has already been read.
+   * @param stream the stream to read data from.
+   * @param clusterMap the {@link ClusterMap} to use.
+   * @return a {@link FileCopyMetadataRequest} based on data read off of the stream.
+   * @throws IOException if there were any problems reading the stream.
+   */
+  public static FileCopyMetadataRequest readFrom(DataInputStream stream, ClusterMap clusterMap) throws IOException {
+    short version = stream.readShort();
+    if (version != FILE_COPY_METADATA_REQUEST_VERSION_V1) {
+      throw new IllegalStateException("Unknown FileCopyMetadataRequest version: " + version);
+    }
+    int correlationId = stream.readInt();
+    String clientId = Utils.readIntString(stream);
+    PartitionId partitionId = clusterMap.getPartitionIdFromStream(stream);
+    return new FileCopyMetadataRequest(correlationId, clientId, partitionId);
+  }
+
+  @Override
+  public void accept(RequestVisitor visitor) {
+    visitor.visit(this);
+  }
+
+  @Override
+  protected void prepareBuffer() {
+    super.prepareBuffer();
+    bufferToSend.writeBytes(partitionId.getBytes());
+  }
+
+  /**
+   * @return the {@link PartitionId} whose files are requested.
+   */
+  public PartitionId getPartitionId() {
+    return partitionId;
+  }
+
+  @Override
+  public long sizeInBytes() {
+    // header + partitionId
+    return super.sizeInBytes() + partitionId.getBytes().length;
+  }
+
+  @Override
+  public String toString() {
+    return "FileCopyMetadataRequest[PartitionId=" + partitionId + ", ClientId=" + clientId + ", CorrelationId="
+        + correlationId + "]";
+  }
+}
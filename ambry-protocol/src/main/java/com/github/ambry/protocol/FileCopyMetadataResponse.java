@@ -0,0 +1,142 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.protocol;
+
+import com.github.ambry.clustermap.ReplicaType;
+import com.github.ambry.replication.FindToken;
+import com.github.ambry.replication.FindTokenHelper;
+import com.github.ambry.server.ServerErrorCode;
+import com.github.ambry.utils.Utils;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Response to a {@link FileCopyMetadataRequest}. It lists the files to copy in log order, and the token from which the
+ * new replica should replicate once it has copied them.
+ */
+public class FileCopyMetadataResponse extends Response {
+  private static final short FILE_COPY_METADATA_RESPONSE_VERSION_V1 = 1;
+  private static final int File_Count_Size_In_Bytes = 4;
+
+  private final List<FileInfo> fileInfos;
+  private final FindToken findToken;
+
+  /**
+   * Constructs a successful response.
+   * @param correlationId the correlation id from the {@link FileCopyMetadataRequest}.
+   * @param clientId the id of the client from the {@link FileCopyMetadataRequest}.
+   * @param fileInfos the {@link FileInfo}s of the files to copy, in log order.
+   * @param findToken the {@link FindToken} to replicate from once the files are copied.
+   */
+  public FileCopyMetadataResponse(int correlationId, String clientId, List<FileInfo> fileInfos, FindToken findToken) {
+    super(RequestOrResponseType.FileCopyMetadataResponse, FILE_COPY_METADATA_RESPONSE_VERSION_V1, correlationId,
+        clientId, ServerErrorCode.No_Error);
+    this.fileInfos = fileInfos;
+    this.findToken = findToken;
+  }
+
+  /**
+   * Constructs a response with an error.
+   * @param correlationId the correlation id from the {@link FileCopyMetadataRequest}.
+   * @param clientId the id of the client from the {@link FileCopyMetadataRequest}.
+   * @param error the {@link ServerErrorCode} for the operation.
+   */
+  public FileCopyMetadataResponse(int correlationId, String clientId, ServerErrorCode error) {
+    super(RequestOrResponseType.FileCopyMetadataResponse, FILE_COPY_METADATA_RESPONSE_VERSION_V1, correlationId,
+        clientId, error);
+    this.fileInfos = Collections.emptyList();
+    this.findToken = null;
+  }
+
+  /**
+   * Helper to construct a {@link FileCopyMetadataResponse} from the {@code stream}.
+   * @param stream the stream to read bytes from.
+   * @param findTokenHelper the {@link FindTokenHelper} to deserialize the token with.
+   * @return a {@link FileCopyMetadataResponse} based on data read from the {@code stream}.
+   * @throws IOException if there was any problem reading the stream.
+   */
+  public static FileCopyMetadataResponse readFrom(DataInputStream stream, FindTokenHelper findTokenHelper)
+      throws IOException {
+    RequestOrResponseType type = RequestOrResponseType.values()[stream.readShort()];
+    if (type != RequestOrResponseType.FileCopyMetadataResponse) {
+      throw new IllegalArgumentException("The type of request response is not compatible");
+    }
+    short version = stream.readShort();
+    if (version != FILE_COPY_METADATA_RESPONSE_VERSION_V1) {
+      throw new IllegalStateException("Unknown FileCopyMetadataResponse version: " + version);
+    }
+    int correlationId = stream.readInt();
+    String clientId = Utils.readIntString(stream);
+    ServerErrorCode error = ServerErrorCode.values()[stream.readShort()];
+    if (error != ServerErrorCode.No_Error) {
+      return new FileCopyMetadataResponse(correlationId, clientId, error);
+    }
+    int fileCount = stream.readInt();
+    List<FileInfo> fileInfos = new ArrayList<>(fileCount);
+    for (int i = 0; i < fileCount; i++) {
+      fileInfos.add(FileInfo.readFrom(stream));
+    }
+    FindToken findToken =
+        findTokenHelper.getFindTokenFactoryFromReplicaType(ReplicaType.DISK_BACKED).getFindToken(stream);
+    return new FileCopyMetadataResponse(correlationId, clientId, fileInfos, findToken);
+  }
+
+  @Override
+  protected void prepareBuffer() {
+    super.prepareBuffer();
+    if (getError() == ServerErrorCode.No_Error) {
+      bufferToSend.writeInt(fileInfos.size());
+      for (FileInfo fileInfo : fileInfos) {
+        fileInfo.writeTo(bufferToSend);
+      }
+      bufferToSend.writeBytes(findToken.toBytes());
+    }
+  }
+
+  /**
+   * @return the {@link FileInfo}s of the files to copy, in log order.
+   */
+  public List<FileInfo> getFileInfos() {
+    return fileInfos;
+  }
+
+  /**
+   * @return the {@link FindToken} to replicate from once the files are copied, or {@code null} if there was an error.
+   */
+  public FindToken getFindToken() {
+    return findToken;
+  }
+
+  @Override
+  public long sizeInBytes() {
+    long size = super.sizeInBytes();
+    if (getError() == ServerErrorCode.No_Error) {
+      size += File_Count_Size_In_Bytes + findToken.toBytes().length;
+      for (FileInfo fileInfo : fileInfos) {
+        size += fileInfo.sizeInBytes();
+      }
+    }
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    return "FileCopyMetadataResponse[ServerErrorCode=" + getError() + ", FileCount=" + fileInfos.size()
+        + ", FindToken=" + findToken + "]";
+  }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.protocol;
+
+import com.github.ambry.utils.Utils;
+import io.netty.buffer.ByteBuf;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+
+/**
+ * The name and the size of a store file that is copied to bootstrap a new replica.
+ */
+public class FileInfo {
+  private static final int File_Size_In_Bytes = 8;
+  private final String fileName;
+  private final long fileSizeInBytes;
+
+  /**
+   * @param fileName the name of the file, relative to the directory of the store.
+   * @param fileSizeInBytes the size of the file in bytes.
+   */
+  public FileInfo(String fileName, long fileSizeInBytes) {
+    this.fileName = fileName;
+    this.fileSizeInBytes = fileSizeInBytes;
+  }
+
+  /**
+   * Reads a {@link FileInfo} from the {@code stream}.
+   * @param stream the stream to read from.
+   * @return the {@link FileInfo} read from the {@code stream}.
+   * @throws IOException if there was any problem reading the stream.
+   */
+  public static FileInfo readFrom(DataInputStream stream) throws IOException {
+    String fileName = Utils.readIntString(stream);
+    long fileSizeInBytes = stream.readLong();
+    return new FileInfo(fileName, fileSizeInBytes);
+  }
+
+  /**
+   * Writes this {@link FileInfo} to the {@code buf}.
+   * @param buf the {@link ByteBuf} to write to.
+   */
+  public void writeTo(ByteBuf buf) {
+    Utils.serializeString(buf, fileName, Charset.defaultCharset());
+    buf.writeLong(fileSizeInBytes);
+  }
+
+  /**
+   * @return the size of this {@link FileInfo} in serialized form.
+   */
+  public long sizeInBytes() {
+    return Utils.getIntStringLength(fileName) + File_Size_In_Bytes;
+  }
+
+  /**
+   * @return the name of the file, relative to the directory of the store.
+   */
+  public String getFileName() {
+    return fileName;
+  }
+
+  /**
+   * @return the size of the file in bytes.
+   */
+  public long getFileSizeInBytes() {
+    return fileSizeInBytes;
+  }
+
+  @Override
+  public String toString() {
+    return "FileInfo[FileName=" + fileName + ", FileSizeInBytes=" + fileSizeInBytes + "]";
+  }
+}
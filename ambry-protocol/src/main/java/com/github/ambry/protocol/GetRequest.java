@@ -21,6 +21,7 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -34,19 +35,35 @@ public class GetRequest extends RequestOrResponse {
   private GetOption getOption;
   private List<PartitionRequestInfo> partitionRequestInfoList;
   private int totalPartitionRequestInfoListSize;
+  private final String acceptedCompressionAlgorithm;
 
   private static final int MessageFormat_Size_In_Bytes = 2;
   private static final int GetOption_Size_In_Bytes = 2;
   private static final int Partition_Request_Info_List_Size = 4;
+  private static final int Compression_Algorithm_Size_In_Bytes = 4;
   private static final short Get_Request_Version_V2 = 2;
+  private static final short Get_Request_Version_V3 = 3;
   public static final String Replication_Client_Id_Prefix = "replication-fetch-";
 
   public GetRequest(int correlationId, String clientId, MessageFormatFlags flags,
       List<PartitionRequestInfo> partitionRequestInfoList, GetOption getOption) {
-    super(RequestOrResponseType.GetRequest, Get_Request_Version_V2, correlationId, clientId);
+    this(correlationId, clientId, flags, partitionRequestInfoList, getOption, null);
+  }
+
+  /**
+   * @param acceptedCompressionAlgorithm the name of the compression algorithm the messages of the response may be
+   *                                     compressed with, or {@code null} if they must not be compressed. Only servers
+   *                                     that understand version 3 of this request should be sent one that sets it.
+   */
+  public GetRequest(int correlationId, String clientId, MessageFormatFlags flags,
+      List<PartitionRequestInfo> partitionRequestInfoList, GetOption getOption, String acceptedCompressionAlgorithm) {
+    super(RequestOrResponseType.GetRequest,
+        acceptedCompressionAlgorithm == null ? Get_Request_Version_V2 : Get_Request_Version_V3, correlationId,
+        clientId);
 
     this.flags = flags;
     this.getOption = getOption;
+    this.acceptedCompressionAlgorithm = acceptedCompressionAlgorithm;
     if (partitionRequestInfoList == null) {
       throw new IllegalArgumentException("No partition info specified in GetRequest");
     }
@@ -68,6 +85,14 @@ public class GetRequest extends RequestOrResponse {
     return getOption;
   }
 
+  /**
+   * @return the name of the compression algorithm the messages of the response may be compressed with, or {@code null}
+   *         if they must not be compressed.
+   */
+  public String getAcceptedCompressionAlgorithm() {
+    return acceptedCompressionAlgorithm;
+  }
+
   public static GetRequest readFrom(DataInputStream stream, ClusterMap clusterMap) throws IOException {
     RequestOrResponseType type = RequestOrResponseType.GetRequest;
     Short versionId = stream.readShort();
@@ -82,11 +107,15 @@ public class GetRequest extends RequestOrResponse {
       partitionRequestInfoList.add(partitionRequestInfo);
     }
     GetOption getOption = GetOption.None;
-    if (versionId == Get_Request_Version_V2) {
+    String acceptedCompressionAlgorithm = null;
+    if (versionId >= Get_Request_Version_V2) {
       getOption = GetOption.values()[stream.readShort()];
     }
-    // ignore version for now
-    return new GetRequest(correlationId, clientId, messageType, partitionRequestInfoList, getOption);
+    if (versionId >= Get_Request_Version_V3) {
+      acceptedCompressionAlgorithm = Utils.readIntString(stream);
+    }
+    return new GetRequest(correlationId, clientId, messageType, partitionRequestInfoList, getOption,
+        acceptedCompressionAlgorithm);
   }
 
   @Override
@@ -103,13 +132,21 @@ public class GetRequest extends RequestOrResponse {
       partitionRequestInfo.writeTo(bufferToSend);
     }
     bufferToSend.writeShort((short) getOption.ordinal());
+    if (acceptedCompressionAlgorithm != null) {
+      Utils.serializeString(bufferToSend, acceptedCompressionAlgorithm, StandardCharsets.UTF_8);
+    }
   }
 
   @Override
   public long sizeInBytes() {
     // header + message format size + partition request info size + total partition request info list size
-    return super.sizeInBytes() + MessageFormat_Size_In_Bytes + Partition_Request_Info_List_Size
+    long size = super.sizeInBytes() + MessageFormat_Size_In_Bytes + Partition_Request_Info_List_Size
         + totalPartitionRequestInfoListSize + GetOption_Size_In_Bytes;
+    if (acceptedCompressionAlgorithm != null) {
+      size +=
+          Compression_Algorithm_Size_In_Bytes + acceptedCompressionAlgorithm.getBytes(StandardCharsets.UTF_8).length;
+    }
+    return size;
   }
 
   @Override
@@ -123,6 +160,9 @@ public class GetRequest extends RequestOrResponse {
     sb.append(", ").append("CorrelationId=").append(correlationId);
     sb.append(", ").append("MessageFormatFlags=").append(flags);
     sb.append(", ").append("GetOption=").append(getOption);
+    if (acceptedCompressionAlgorithm != null) {
+      sb.append(", ").append("AcceptedCompressionAlgorithm=").append(acceptedCompressionAlgorithm);
+    }
     sb.append("]");
     return sb.toString();
   }
@@ -18,6 +18,8 @@ import com.github.ambry.network.Send;
 import com.github.ambry.router.AsyncWritableChannel;
 import com.github.ambry.commons.Callback;
 import com.github.ambry.server.ServerErrorCode;
+import com.github.ambry.store.MessageInfo;
+import com.github.ambry.utils.ByteBufferDataInputStream;
 import com.github.ambry.utils.Utils;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.CompositeByteBuf;
@@ -45,6 +47,9 @@ public class GetResponse extends Response {
   private InputStream stream = null;
   private final List<PartitionResponseInfo> partitionResponseInfoList;
   private int partitionResponseInfoSize;
+  private long compressedMessagesSizeInBytes = -1;
+  private long decompressedMessagesSizeInBytes = -1;
+  private long decompressionTimeInMicroseconds = 0;
 
   private static int Partition_Response_Info_List_Size = 4;
   static final short GET_RESPONSE_VERSION_V_1 = 1;
@@ -52,6 +57,8 @@ public class GetResponse extends Response {
   static final short GET_RESPONSE_VERSION_V_3 = 3;
   static final short GET_RESPONSE_VERSION_V_4 = 4;
   static final short GET_RESPONSE_VERSION_V_5 = 5;
+  // the messages are written by a CompressedMessagesSend. Only sent in response to a request that accepts compression.
+  static final short GET_RESPONSE_VERSION_V_6 = 6;
 
   static short CURRENT_VERSION = GET_RESPONSE_VERSION_V_5;
 
@@ -66,9 +73,29 @@ public class GetResponse extends Response {
     this.toSend = send;
   }
 
+  /**
+   * Creates a response whose messages are compressed. It should only be sent in response to a {@link GetRequest} that
+   * accepts compression.
+   */
+  public GetResponse(int correlationId, String clientId, List<PartitionResponseInfo> partitionResponseInfoList,
+      CompressedMessagesSend send, ServerErrorCode error) {
+    super(RequestOrResponseType.GetResponse, GET_RESPONSE_VERSION_V_6, correlationId, clientId, error);
+    this.partitionResponseInfoList = partitionResponseInfoList;
+    this.partitionResponseInfoSize = 0;
+    for (PartitionResponseInfo partitionResponseInfo : partitionResponseInfoList) {
+      this.partitionResponseInfoSize += partitionResponseInfo.sizeInBytes();
+    }
+    this.toSend = send;
+  }
+
   public GetResponse(int correlationId, String clientId, List<PartitionResponseInfo> partitionResponseInfoList,
       InputStream stream, ServerErrorCode error) {
-    super(RequestOrResponseType.GetResponse, CURRENT_VERSION, correlationId, clientId, error);
+    this(correlationId, clientId, partitionResponseInfoList, stream, error, CURRENT_VERSION);
+  }
+
+  private GetResponse(int correlationId, String clientId, List<PartitionResponseInfo> partitionResponseInfoList,
+      InputStream stream, ServerErrorCode error, short versionId) {
+    super(RequestOrResponseType.GetResponse, versionId, correlationId, clientId, error);
     this.partitionResponseInfoList = partitionResponseInfoList;
     this.partitionResponseInfoSize = 0;
     for (PartitionResponseInfo partitionResponseInfo : partitionResponseInfoList) {
@@ -95,14 +122,42 @@ public class GetResponse extends Response {
     return partitionResponseInfoList;
   }
 
+  /**
+   * @return {@code true} if the messages of this response were received compressed. {@link #getInputStream()} returns
+   *         them decompressed.
+   */
+  public boolean isCompressed() {
+    return compressedMessagesSizeInBytes >= 0;
+  }
+
+  /**
+   * @return the size of the messages as they were received, if they were compressed.
+   */
+  public long getCompressedMessagesSizeInBytes() {
+    return compressedMessagesSizeInBytes;
+  }
+
+  /**
+   * @return the size of the messages once decompressed, if they were compressed.
+   */
+  public long getDecompressedMessagesSizeInBytes() {
+    return decompressedMessagesSizeInBytes;
+  }
+
+  /**
+   * @return the time spent decompressing the messages, if they were compressed.
+   */
+  public long getDecompressionTimeInMicroseconds() {
+    return decompressionTimeInMicroseconds;
+  }
+
   public static GetResponse readFrom(DataInputStream stream, ClusterMap map) throws IOException {
     short typeval = stream.readShort();
     RequestOrResponseType type = RequestOrResponseType.values()[typeval];
     if (type != RequestOrResponseType.GetResponse) {
       throw new IllegalArgumentException("The type of request response is not compatible");
     }
-    Short versionId = stream.readShort();
-    // ignore version for now
+    short versionId = stream.readShort();
     int correlationId = stream.readInt();
     String clientId = Utils.readIntString(stream);
     ServerErrorCode error = ServerErrorCode.values()[stream.readShort()];
@@ -117,7 +172,32 @@ public class GetResponse extends Response {
         PartitionResponseInfo partitionResponseInfo = PartitionResponseInfo.readFrom(stream, map, versionId);
         partitionResponseInfoList.add(partitionResponseInfo);
       }
-      return new GetResponse(correlationId, clientId, partitionResponseInfoList, stream, error);
+      if (versionId < GET_RESPONSE_VERSION_V_6) {
+        return new GetResponse(correlationId, clientId, partitionResponseInfoList, stream, error);
+      }
+      // decompress the messages up front, so that they are read the same way as the messages of older versions.
+      long messagesSize = 0;
+      List<Long> messageSizes = new ArrayList<>();
+      for (PartitionResponseInfo partitionResponseInfo : partitionResponseInfoList) {
+        for (MessageInfo messageInfo : partitionResponseInfo.getMessageInfoList()) {
+          messagesSize += messageInfo.getSize();
+          messageSizes.add(messageInfo.getSize());
+        }
+      }
+      if (messagesSize > Integer.MAX_VALUE) {
+        throw new IOException("Size of the messages " + messagesSize + " is too large");
+      }
+      ByteBuffer messages = ByteBuffer.allocate((int) messagesSize);
+      long startTime = System.nanoTime();
+      long compressedMessagesSize = CompressedMessagesSend.decompress(stream, messageSizes, messages);
+      messages.flip();
+      GetResponse response =
+          new GetResponse(correlationId, clientId, partitionResponseInfoList, new ByteBufferDataInputStream(messages),
+              error, versionId);
+      response.decompressionTimeInMicroseconds = (System.nanoTime() - startTime) / 1000;
+      response.compressedMessagesSizeInBytes = compressedMessagesSize;
+      response.decompressedMessagesSizeInBytes = messagesSize;
+      return response;
     }
   }
 
@@ -125,6 +125,7 @@ public class PartitionResponseInfo {
       case GetResponse.GET_RESPONSE_VERSION_V_4:
         return MessageInfoAndMetadataListSerde.VERSION_4;
       case GetResponse.GET_RESPONSE_VERSION_V_5:
+      case GetResponse.GET_RESPONSE_VERSION_V_6:
         return MessageInfoAndMetadataListSerde.DETERMINE_VERSION;
       default:
         throw new IllegalArgumentException("Unknown GetResponse version encountered: " + getResponseVersion);
@@ -35,5 +35,9 @@ public enum RequestOrResponseType {
   ReplicateBlobRequest,
   ReplicateBlobResponse,
   PurgeRequest,
-  PurgeResponse
+  PurgeResponse,
+  FileCopyMetadataRequest,
+  FileCopyMetadataResponse,
+  FileCopyChunkRequest,
+  FileCopyChunkResponse
 }
@@ -65,4 +65,16 @@ public interface RequestVisitor {
    * @param adminRequest to visit.
    */
   void visit(AdminRequest adminRequest);
+
+  /**
+   * Performs any actions related to File copy metadata request.
+   * @param fileCopyMetadataRequest to visit.
+   */
+  void visit(FileCopyMetadataRequest fileCopyMetadataRequest);
+
+  /**
+   * Performs any actions related to File copy chunk request.
+   * @param fileCopyChunkRequest to visit.
+   */
+  void visit(FileCopyChunkRequest fileCopyChunkRequest);
 }
@@ -42,6 +42,7 @@ import com.github.ambry.utils.SystemTime;
 import com.github.ambry.utils.TestUtils;
 import com.github.ambry.utils.Utils;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
@@ -551,6 +552,95 @@ public class RequestResponseTest {
     }
   }
 
+  /**
+   * Tests a {@link GetRequest} that accepts compression and a {@link GetResponse} with {@link CompressedMessagesSend}.
+   * @throws IOException
+   */
+  @Test
+  public void compressedGetRequestResponseTest() throws IOException {
+    MockClusterMap clusterMap = new MockClusterMap();
+    PartitionId partitionId = clusterMap.getWritablePartitionIds(MockClusterMap.DEFAULT_PARTITION_CLASS).get(0);
+    short accountId = Utils.getRandomShort(TestUtils.RANDOM);
+    short containerId = Utils.getRandomShort(TestUtils.RANDOM);
+    BlobId id1 = new BlobId(CommonTestUtils.getCurrentBlobIdVersion(), BlobId.BlobIdType.NATIVE,
+        ClusterMap.UNKNOWN_DATACENTER_ID, accountId, containerId, partitionId, false, BlobId.BlobDataType.DATACHUNK);
+    BlobId id2 = new BlobId(CommonTestUtils.getCurrentBlobIdVersion(), BlobId.BlobIdType.NATIVE,
+        ClusterMap.UNKNOWN_DATACENTER_ID, accountId, containerId, partitionId, false, BlobId.BlobDataType.DATACHUNK);
+    GetRequest getRequest = new GetRequest(1234, "clientId", MessageFormatFlags.All,
+        Collections.singletonList(new PartitionRequestInfo(partitionId, Arrays.asList(id1, id2))),
+        GetOption.Include_All, "LZ4");
+    DataInputStream stream = serAndPrepForRead(getRequest, -1, true);
+    GetRequest deserializedGetRequest = GetRequest.readFrom(stream, clusterMap);
+    Assert.assertEquals("GetOption mismatch", GetOption.Include_All, deserializedGetRequest.getGetOption());
+    Assert.assertEquals("Compression algorithm mismatch", "LZ4",
+        deserializedGetRequest.getAcceptedCompressionAlgorithm());
+    getRequest.release();
+
+    // a message that compresses well and one that does not
+    byte[] compressibleMessage = new byte[4000];
+    Arrays.fill(compressibleMessage, (byte) 0);
+    byte[] randomMessage = TestUtils.getRandomBytes(2000);
+    List<MessageInfo> messageInfoList = Arrays.asList(
+        new MessageInfo(id1, compressibleMessage.length, Utils.Infinite_Time, accountId, containerId,
+            Utils.Infinite_Time),
+        new MessageInfo(id2, randomMessage.length, Utils.Infinite_Time, accountId, containerId, Utils.Infinite_Time));
+    List<PartitionResponseInfo> partitionResponseInfoList = Collections.singletonList(
+        new PartitionResponseInfo(partitionId, messageInfoList, Arrays.asList(null, null)));
+    ByteBuf messages = Unpooled.wrappedBuffer(compressibleMessage, randomMessage);
+    Assert.assertNull("Unknown algorithm should not compress",
+        CompressedMessagesSend.compress(messages, partitionResponseInfoList, "unknown", 100, 1.1));
+    CompressedMessagesSend compressedSend =
+        CompressedMessagesSend.compress(messages, partitionResponseInfoList, "LZ4", 100, 1.1);
+    messages.release();
+    Assert.assertNotNull(compressedSend);
+    Assert.assertEquals("Only one message should be compressed", 1, compressedSend.getCompressedMessageCount());
+    Assert.assertEquals(compressibleMessage.length + randomMessage.length, compressedSend.getOriginalSizeInBytes());
+    Assert.assertTrue("Messages should be smaller",
+        compressedSend.sizeInBytes() < compressedSend.getOriginalSizeInBytes());
+
+    GetResponse response =
+        new GetResponse(1234, "clientId", partitionResponseInfoList, compressedSend, ServerErrorCode.No_Error);
+    stream = serAndPrepForRead(response, -1, false);
+    GetResponse deserializedGetResponse = GetResponse.readFrom(stream, clusterMap);
+    Assert.assertTrue("Response should be compressed", deserializedGetResponse.isCompressed());
+    Assert.assertEquals(compressedSend.sizeInBytes(), deserializedGetResponse.getCompressedMessagesSizeInBytes());
+    Assert.assertEquals(compressedSend.getOriginalSizeInBytes(),
+        deserializedGetResponse.getDecompressedMessagesSizeInBytes());
+    Assert.assertEquals(2, deserializedGetResponse.getPartitionResponseInfoList().get(0).getMessageInfoList().size());
+    byte[] decompressed = new byte[compressibleMessage.length + randomMessage.length];
+    DataInputStream messageStream = new DataInputStream(deserializedGetResponse.getInputStream());
+    messageStream.readFully(decompressed);
+    Assert.assertEquals("There should be no more data", -1, messageStream.read());
+    Assert.assertArrayEquals("Compressible message mismatch", compressibleMessage,
+        Arrays.copyOfRange(decompressed, 0, compressibleMessage.length));
+    Assert.assertArrayEquals("Random message mismatch", randomMessage,
+        Arrays.copyOfRange(decompressed, compressibleMessage.length, decompressed.length));
+    response.release();
+
+    // messages that do not have the sizes of their message infos should fail, even if the total size matches
+    for (int[] sizes : new int[][]{{randomMessage.length, compressibleMessage.length},
+        {compressibleMessage.length - 1, randomMessage.length + 1},
+        {compressibleMessage.length + 1, randomMessage.length - 1}}) {
+      messages = Unpooled.wrappedBuffer(compressibleMessage, randomMessage);
+      compressedSend = CompressedMessagesSend.compress(messages, partitionResponseInfoList, "LZ4", 100, 1.1);
+      messages.release();
+      List<MessageInfo> wrongMessageInfoList = Arrays.asList(
+          new MessageInfo(id1, sizes[0], Utils.Infinite_Time, accountId, containerId, Utils.Infinite_Time),
+          new MessageInfo(id2, sizes[1], Utils.Infinite_Time, accountId, containerId, Utils.Infinite_Time));
+      response = new GetResponse(1234, "clientId", Collections.singletonList(
+          new PartitionResponseInfo(partitionId, wrongMessageInfoList, Arrays.asList(null, null))), compressedSend,
+          ServerErrorCode.No_Error);
+      stream = serAndPrepForRead(response, -1, false);
+      try {
+        GetResponse.readFrom(stream, clusterMap);
+        Assert.fail("Messages that do not have the sizes of their message infos should fail");
+      } catch (IOException e) {
+        // expected
+      }
+      response.release();
+    }
+  }
+
   @Test
   public void deleteRequestResponseTest() throws IOException {
     MockClusterMap clusterMap = new MockClusterMap();
@@ -1149,6 +1239,83 @@ public class RequestResponseTest {
     }
   }
 
+  /**
+   * Tests for {@link FileCopyMetadataRequest}, {@link FileCopyMetadataResponse}, {@link FileCopyChunkRequest} and
+   * {@link FileCopyChunkResponse}.
+   * @throws IOException
+   */
+  @Test
+  public void fileCopyRequestResponseTest() throws IOException {
+    MockClusterMap clusterMap = new MockClusterMap();
+    PartitionId partitionId = clusterMap.getWritablePartitionIds(MockClusterMap.DEFAULT_PARTITION_CLASS).get(0);
+    int correlationId = TestUtils.RANDOM.nextInt();
+
+    FileCopyMetadataRequest metadataRequest = new FileCopyMetadataRequest(correlationId, "client", partitionId);
+    DataInputStream stream = serAndPrepForRead(metadataRequest, -1, true);
+    FileCopyMetadataRequest deserializedMetadataRequest = FileCopyMetadataRequest.readFrom(stream, clusterMap);
+    Assert.assertEquals("Correlation ID mismatch", correlationId, deserializedMetadataRequest.getCorrelationId());
+    Assert.assertEquals("Client ID mismatch", "client", deserializedMetadataRequest.getClientId());
+    Assert.assertEquals("Partition mismatch", partitionId, deserializedMetadataRequest.getPartitionId());
+    metadataRequest.release();
+
+    List<FileInfo> fileInfos = Arrays.asList(new FileInfo("0_0_log", 1000), new FileInfo("0_0_18_index", 200));
+    MockFindToken token = new MockFindToken(5, 1000);
+    FileCopyMetadataResponse metadataResponse =
+        new FileCopyMetadataResponse(correlationId, "client", fileInfos, token);
+    stream = serAndPrepForRead(metadataResponse, -1, false);
+    FileCopyMetadataResponse deserializedMetadataResponse =
+        FileCopyMetadataResponse.readFrom(stream, new MockFindTokenHelper());
+    Assert.assertEquals("Server error code mismatch", ServerErrorCode.No_Error,
+        deserializedMetadataResponse.getError());
+    Assert.assertEquals("File count mismatch", fileInfos.size(), deserializedMetadataResponse.getFileInfos().size());
+    for (int i = 0; i < fileInfos.size(); i++) {
+      FileInfo fileInfo = deserializedMetadataResponse.getFileInfos().get(i);
+      Assert.assertEquals("File name mismatch", fileInfos.get(i).getFileName(), fileInfo.getFileName());
+      Assert.assertEquals("File size mismatch", fileInfos.get(i).getFileSizeInBytes(), fileInfo.getFileSizeInBytes());
+    }
+    Assert.assertArrayEquals("Token mismatch", token.toBytes(), deserializedMetadataResponse.getFindToken().toBytes());
+    metadataResponse.release();
+
+    metadataResponse = new FileCopyMetadataResponse(correlationId, "client", ServerErrorCode.Partition_Unknown);
+    stream = serAndPrepForRead(metadataResponse, -1, false);
+    deserializedMetadataResponse = FileCopyMetadataResponse.readFrom(stream, new MockFindTokenHelper());
+    Assert.assertEquals("Server error code mismatch", ServerErrorCode.Partition_Unknown,
+        deserializedMetadataResponse.getError());
+    Assert.assertNull("There should be no token", deserializedMetadataResponse.getFindToken());
+    metadataResponse.release();
+
+    FileCopyChunkRequest chunkRequest =
+        new FileCopyChunkRequest(correlationId, "client", partitionId, "0_0_log", 100, 500);
+    stream = serAndPrepForRead(chunkRequest, -1, true);
+    FileCopyChunkRequest deserializedChunkRequest = FileCopyChunkRequest.readFrom(stream, clusterMap);
+    Assert.assertEquals("Partition mismatch", partitionId, deserializedChunkRequest.getPartitionId());
+    Assert.assertEquals("File name mismatch", "0_0_log", deserializedChunkRequest.getFileName());
+    Assert.assertEquals("Start offset mismatch", 100, deserializedChunkRequest.getStartOffset());
+    Assert.assertEquals("Chunk size mismatch", 500, deserializedChunkRequest.getChunkSizeInBytes());
+    chunkRequest.release();
+
+    byte[] data = TestUtils.getRandomBytes(500);
+    FileCopyChunkResponse chunkResponse = new FileCopyChunkResponse(correlationId, "client", "0_0_log", 100, data);
+    stream = serAndPrepForRead(chunkResponse, -1, false);
+    FileCopyChunkResponse deserializedChunkResponse = FileCopyChunkResponse.readFrom(stream);
+    Assert.assertEquals("Server error code mismatch", ServerErrorCode.No_Error, deserializedChunkResponse.getError());
+    Assert.assertEquals("File name mismatch", "0_0_log", deserializedChunkResponse.getFileName());
+    Assert.assertEquals("Start offset mismatch", 100, deserializedChunkResponse.getStartOffset());
+    Assert.assertArrayEquals("Data mismatch", data, deserializedChunkResponse.getData());
+    Assert.assertTrue("CRC should be valid", deserializedChunkResponse.isCrcValid());
+    chunkResponse.release();
+
+    // a corrupted chunk fails the CRC check
+    chunkResponse = new FileCopyChunkResponse(correlationId, "client", "0_0_log", 100, data);
+    ByteBuf content = chunkResponse.content();
+    int dataIndex = (int) chunkResponse.sizeInBytes() - Long.BYTES - 1;
+    content.setByte(dataIndex, content.getByte(dataIndex) + 1);
+    stream = new DataInputStream(new ByteArrayInputStream(ByteBufUtil.getBytes(content)));
+    stream.readLong();
+    Assert.assertFalse("CRC should not be valid", FileCopyChunkResponse.readFrom(stream).isCrcValid());
+    chunkResponse.release();
+  }
+
   /**
    * Verify the two {@link ReplicateBlobRequest} are the same
    * @param orgReq the original {@link ReplicateBlobRequest}
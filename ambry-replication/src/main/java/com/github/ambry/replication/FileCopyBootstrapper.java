@@ -0,0 +1,231 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.replication;
+
+import com.github.ambry.clustermap.PartitionId;
+import com.github.ambry.config.ReplicationConfig;
+import com.github.ambry.network.ChannelOutput;
+import com.github.ambry.network.ConnectedChannel;
+import com.github.ambry.protocol.FileCopyChunkRequest;
+import com.github.ambry.protocol.FileCopyChunkResponse;
+import com.github.ambry.protocol.FileCopyMetadataRequest;
+import com.github.ambry.protocol.FileCopyMetadataResponse;
+import com.github.ambry.protocol.FileInfo;
+import com.github.ambry.server.ServerErrorCode;
+import com.github.ambry.store.BlobStore;
+import com.github.ambry.utils.NettyByteBufDataInputStream;
+import com.github.ambry.utils.Utils;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Bootstraps a new replica by copying the sealed log segment, index segment and bloom filter files of a peer replica,
+ * instead of replicating the blobs one by one.
+ * <p/>
+ * The files are fetched in chunks of {@link ReplicationConfig#replicationFileCopyChunkSizeInBytes} and the CRC of
+ * every chunk is verified before it is written. A file is written to a temporary file that is renamed once it is
+ * complete and synced to disk. A marker file in the directory of the replica records that a bootstrap is in progress,
+ * so that a bootstrap that failed in this process resumes from the chunks already written and does not fetch the
+ * files that are already complete again. If the process stopped instead, {@link BlobStore#start()} finds the marker
+ * file and deletes the copied files, so that the store is never opened on a partial copy. Once all the files are
+ * copied, replication from the peer should start from the {@link FindToken} returned by {@link #bootstrap}, which
+ * points at the end of the copied log segments.
+ */
+public class FileCopyBootstrapper {
+  static final String TEMP_FILE_SUFFIX = BlobStore.FILE_COPY_TEMP_FILE_SUFFIX;
+  static final String IN_PROGRESS_FILE_NAME = BlobStore.FILE_COPY_IN_PROGRESS_FILE_NAME;
+  private static final Logger logger = LoggerFactory.getLogger(FileCopyBootstrapper.class);
+
+  private final ReplicationConfig replicationConfig;
+  private final FindTokenHelper findTokenHelper;
+  private final String clientId;
+  private final AtomicInteger correlationIdGenerator = new AtomicInteger(0);
+
+  /**
+   * @param replicationConfig the {@link ReplicationConfig} with the chunk size to request.
+   * @param findTokenHelper the {@link FindTokenHelper} to deserialize the token of the peer with.
+   * @param clientId the client id to send the requests with.
+   */
+  public FileCopyBootstrapper(ReplicationConfig replicationConfig, FindTokenHelper findTokenHelper, String clientId) {
+    this.replicationConfig = replicationConfig;
+    this.findTokenHelper = findTokenHelper;
+    this.clientId = clientId;
+  }
+
+  /**
+   * Copies the files of the replica of {@code partitionId} on the peer that {@code connectedChannel} is connected to
+   * into {@code storeDir}. The store must not be started on {@code storeDir} until this returns.
+   * @param connectedChannel the {@link ConnectedChannel} to the peer.
+   * @param partitionId the {@link PartitionId} of the replica to bootstrap.
+   * @param storeDir the directory of the new replica.
+   * @return the {@link FindToken} of the peer to replicate from once the files are copied.
+   * @throws ReplicationException if the peer returned an error or a chunk failed its CRC check.
+   * @throws IOException if there was any problem talking to the peer or writing the files.
+   */
+  public FindToken bootstrap(ConnectedChannel connectedChannel, PartitionId partitionId, File storeDir)
+      throws ReplicationException, IOException {
+    if (!storeDir.exists() && !storeDir.mkdirs()) {
+      throw new IOException("Could not create directory " + storeDir);
+    }
+    File inProgressFile = new File(storeDir, IN_PROGRESS_FILE_NAME);
+    if (!inProgressFile.exists()) {
+      // not resuming, so the files in the directory were not written by an earlier attempt and cannot be trusted.
+      deleteStoreFiles(storeDir, Collections.emptySet());
+      if (!inProgressFile.createNewFile()) {
+        throw new IOException("Could not create " + inProgressFile);
+      }
+    }
+    FileCopyMetadataRequest metadataRequest =
+        new FileCopyMetadataRequest(correlationIdGenerator.incrementAndGet(), clientId, partitionId);
+    ChannelOutput channelOutput = connectedChannel.sendAndReceive(metadataRequest);
+    FileCopyMetadataResponse metadataResponse;
+    try {
+      metadataResponse = FileCopyMetadataResponse.readFrom(channelOutput.getInputStream(), findTokenHelper);
+    } finally {
+      release(channelOutput);
+    }
+    if (metadataResponse.getError() != ServerErrorCode.No_Error) {
+      throw new ReplicationException("File copy metadata response error " + metadataResponse.getError(),
+          metadataResponse.getError());
+    }
+    Set<String> fileNames = new HashSet<>();
+    long bytesCopied = 0;
+    for (FileInfo fileInfo : metadataResponse.getFileInfos()) {
+      String fileName = fileInfo.getFileName();
+      if (fileName.isEmpty() || !fileName.equals(new File(fileName).getName())) {
+        throw new ReplicationException("Peer listed an invalid file name " + fileName);
+      }
+      fileNames.add(fileName);
+      bytesCopied += copyFile(connectedChannel, partitionId, fileInfo, storeDir);
+    }
+    // files of an earlier attempt that are not listed anymore, for example because compaction replaced them.
+    deleteStoreFiles(storeDir, fileNames);
+    Utils.deleteFileOrDirectory(inProgressFile);
+    logger.info("Copied {} bytes of {} files of partition {} from {}", bytesCopied, fileNames.size(), partitionId,
+        connectedChannel.getRemoteHost());
+    return metadataResponse.getFindToken();
+  }
+
+  /**
+   * @param storeDir the directory of a replica.
+   * @return {@code true} if a bootstrap of the replica was started and has not completed yet.
+   */
+  public static boolean isBootstrapInProgress(File storeDir) {
+    return new File(storeDir, IN_PROGRESS_FILE_NAME).exists();
+  }
+
+  /**
+   * Deletes the files copied by a bootstrap of the replica in {@code storeDir} and its marker file, so that the store
+   * can be started empty, or bootstrapped again from another peer.
+   * @param storeDir the directory of the replica.
+   * @throws IOException if a file could not be deleted.
+   */
+  public static void abandon(File storeDir) throws IOException {
+    BlobStore.abandonFileCopy(storeDir);
+  }
+
+  /**
+   * Copies a file, resuming from the data already written to its temporary file.
+   * @return the number of bytes fetched from the peer.
+   */
+  private long copyFile(ConnectedChannel connectedChannel, PartitionId partitionId, FileInfo fileInfo, File storeDir)
+      throws ReplicationException, IOException {
+    File file = new File(storeDir, fileInfo.getFileName());
+    long fileSize = fileInfo.getFileSizeInBytes();
+    if (file.exists() && file.length() == fileSize) {
+      logger.debug("{} is already copied", file);
+      return 0;
+    }
+    File tempFile = new File(storeDir, fileInfo.getFileName() + TEMP_FILE_SUFFIX);
+    long bytesFetched = 0;
+    try (FileChannel fileChannel = Utils.openChannel(tempFile, true)) {
+      long offset = Math.min(fileChannel.size(), fileSize);
+      fileChannel.truncate(offset);
+      if (offset > 0) {
+        logger.info("Resuming the copy of {} from offset {}", file, offset);
+      }
+      while (offset < fileSize) {
+        int chunkSize = (int) Math.min(fileSize - offset, replicationConfig.replicationFileCopyChunkSizeInBytes);
+        FileCopyChunkRequest chunkRequest =
+            new FileCopyChunkRequest(correlationIdGenerator.incrementAndGet(), clientId, partitionId,
+                fileInfo.getFileName(), offset, chunkSize);
+        ChannelOutput channelOutput = connectedChannel.sendAndReceive(chunkRequest);
+        FileCopyChunkResponse chunkResponse;
+        try {
+          chunkResponse = FileCopyChunkResponse.readFrom(channelOutput.getInputStream());
+        } finally {
+          release(channelOutput);
+        }
+        if (chunkResponse.getError() != ServerErrorCode.No_Error) {
+          throw new ReplicationException("File copy chunk response error " + chunkResponse.getError() + " for "
+              + chunkRequest, chunkResponse.getError());
+        }
+        byte[] data = chunkResponse.getData();
+        if (!chunkResponse.getFileName().equals(fileInfo.getFileName()) || chunkResponse.getStartOffset() != offset
+            || data.length == 0) {
+          throw new ReplicationException(
+              "Unexpected file copy chunk response " + chunkResponse + " for " + chunkRequest);
+        }
+        if (!chunkResponse.isCrcValid()) {
+          throw new ReplicationException("CRC mismatch in file copy chunk response " + chunkResponse,
+              ServerErrorCode.Data_Corrupt);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.hasRemaining()) {
+          fileChannel.write(buffer, offset + buffer.position());
+        }
+        offset += data.length;
+        bytesFetched += data.length;
+      }
+      fileChannel.force(true);
+    }
+    Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    return bytesFetched;
+  }
+
+  /**
+   * Releases the buffer of a response received over a channel that is backed by a netty buffer.
+   */
+  private static void release(ChannelOutput channelOutput) {
+    if (channelOutput.getInputStream() instanceof NettyByteBufDataInputStream) {
+      ((NettyByteBufDataInputStream) channelOutput.getInputStream()).getBuffer().release();
+    }
+  }
+
+  /**
+   * Deletes the files of {@code storeDir} that are copied, or temporary files of them, unless they are listed.
+   * @param storeDir the directory of the replica.
+   * @param fileNames the names of the files to keep.
+   */
+  private static void deleteStoreFiles(File storeDir, Set<String> fileNames) throws IOException {
+    File[] files = storeDir.listFiles((dir, name) -> !fileNames.contains(name) && BlobStore.isFileCopyFile(name));
+    if (files != null) {
+      for (File file : files) {
+        logger.info("Deleting {} that is not copied from the peer", file);
+        Utils.deleteFileOrDirectory(file);
+      }
+    }
+  }
+}
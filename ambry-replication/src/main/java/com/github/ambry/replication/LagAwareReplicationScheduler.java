@@ -0,0 +1,226 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.replication;
+
+import com.github.ambry.clustermap.DataNodeId;
+import com.github.ambry.config.ReplicationConfig;
+import com.github.ambry.utils.Time;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Schedules the replication of a {@link ReplicaThread} by how far the local replicas lag behind the remote ones, so
+ * that the replicas that are far behind do not get the same share as the ones that are caught up.
+ * <p/>
+ * The lag of a remote replica is the local lag from the remote store reported in the last metadata exchange. A replica
+ * with a lag above {@link ReplicationConfig#replicationLagAwareCaughtUpThresholdInBytes} is lagging: it is replicated
+ * first, without the throttle sleep of the thread, and its fetch size grows with its lag, up to
+ * {@link ReplicationConfig#replicationLagAwareMaxFetchSizeMultiplier} times
+ * {@link ReplicationConfig#replicationFetchSizeInBytes}. A replica at or below the threshold is caught up and is backed
+ * off for {@link ReplicationConfig#replicationLagAwareCaughtUpBackoffDurationMs}.
+ * <p/>
+ * The fetch sizes only grow while the bytes replicated from the remote host stay within
+ * {@link ReplicationConfig#replicationLagAwarePerHostBandwidthBytesPerSec}. This class is not thread safe, it is only
+ * used by the thread of its {@link ReplicaThread}.
+ */
+class LagAwareReplicationScheduler {
+  // Unknown lags are -1, so they are ranked after all known lags.
+  private static final Comparator<RemoteReplicaInfo> MOST_LAGGING_FIRST =
+      Comparator.comparingLong(RemoteReplicaInfo::getLocalLagFromRemoteInBytes).reversed();
+  private final ReplicationConfig replicationConfig;
+  private final ReplicationMetrics replicationMetrics;
+  private final boolean replicatingFromRemoteColo;
+  private final String datacenterName;
+  private final Time time;
+  private final Map<DataNodeId, BandwidthBudget> hostBandwidthBudgets = new HashMap<>();
+
+  /**
+   * @param replicationConfig the {@link ReplicationConfig} with the thresholds of the scheduling.
+   * @param replicationMetrics the {@link ReplicationMetrics} to record the scheduling decisions and catch up times.
+   * @param replicatingFromRemoteColo {@code true} if the remote replicas are in a remote datacenter.
+   * @param datacenterName the datacenter of the remote replicas.
+   * @param time the {@link Time} instance to use.
+   */
+  LagAwareReplicationScheduler(ReplicationConfig replicationConfig, ReplicationMetrics replicationMetrics,
+      boolean replicatingFromRemoteColo, String datacenterName, Time time) {
+    this.replicationConfig = replicationConfig;
+    this.replicationMetrics = replicationMetrics;
+    this.replicatingFromRemoteColo = replicatingFromRemoteColo;
+    this.datacenterName = datacenterName;
+    this.time = time;
+  }
+
+  /**
+   * Sorts the remote replicas so that the replicas the local replicas lag the most behind come first.
+   * @param remoteReplicaInfos the {@link RemoteReplicaInfo}s to sort.
+   */
+  void rankByLag(List<RemoteReplicaInfo> remoteReplicaInfos) {
+    remoteReplicaInfos.sort(MOST_LAGGING_FIRST);
+  }
+
+  /**
+   * @param remoteReplicaInfo the {@link RemoteReplicaInfo} to check.
+   * @return {@code true} if the local replica is known to lag behind the remote replica by more than the threshold.
+   */
+  boolean isLagging(RemoteReplicaInfo remoteReplicaInfo) {
+    return remoteReplicaInfo.getLocalLagFromRemoteInBytes()
+        > replicationConfig.replicationLagAwareCaughtUpThresholdInBytes;
+  }
+
+  /**
+   * @param remoteReplicaInfos the {@link RemoteReplicaInfo}s to check.
+   * @return {@code true} if any of the remote replicas is lagging.
+   */
+  boolean hasLaggingReplica(Collection<RemoteReplicaInfo> remoteReplicaInfos) {
+    return remoteReplicaInfos.stream().anyMatch(this::isLagging);
+  }
+
+  /**
+   * @param remoteReplicaInfo the {@link RemoteReplicaInfo} to get the fetch size of.
+   * @return the fetch size for the remote replica if the bandwidth of its host is not limited.
+   */
+  long getFetchSizeInBytes(RemoteReplicaInfo remoteReplicaInfo) {
+    long baseFetchSize = replicationConfig.replicationFetchSizeInBytes;
+    if (!isLagging(remoteReplicaInfo)) {
+      return baseFetchSize;
+    }
+    int multiplier = replicationConfig.replicationLagAwareMaxFetchSizeMultiplier;
+    long maxFetchSize = baseFetchSize > Long.MAX_VALUE / multiplier ? Long.MAX_VALUE : baseFetchSize * multiplier;
+    return Math.min(maxFetchSize, Math.max(baseFetchSize, remoteReplicaInfo.getLocalLagFromRemoteInBytes()));
+  }
+
+  /**
+   * Plans the fetch sizes of the requests sent to a remote host in this cycle. Every request gets at least
+   * {@link ReplicationConfig#replicationFetchSizeInBytes}, and the requests for the most lagging replicas get their
+   * larger fetch sizes first, for as long as the bandwidth budget of the host allows it.
+   * @param remoteNode the remote host.
+   * @param replicaGroups the replicas of each request, each ranked by {@link #rankByLag}, in the order they were
+   *                      ranked.
+   * @return the fetch size of each request.
+   */
+  List<Long> planFetchSizes(DataNodeId remoteNode, List<List<RemoteReplicaInfo>> replicaGroups) {
+    long baseFetchSize = replicationConfig.replicationFetchSizeInBytes;
+    long availableBytes = Long.MAX_VALUE;
+    if (replicationConfig.replicationLagAwarePerHostBandwidthBytesPerSec > 0) {
+      // every request is allowed the base fetch size, only the growth beyond it is limited.
+      long baseBytes = replicaGroups.stream().mapToLong(group -> baseFetchSize * group.size()).sum();
+      availableBytes = Math.max(0, getBandwidthBudget(remoteNode).getAvailableBytes() - baseBytes);
+    }
+    List<Long> fetchSizes = new ArrayList<>(replicaGroups.size());
+    for (List<RemoteReplicaInfo> group : replicaGroups) {
+      long fetchSize = getFetchSizeInBytes(group.get(0));
+      if (fetchSize > baseFetchSize) {
+        // the fetch size applies to every replica in the request.
+        long extraBytes = (fetchSize - baseFetchSize) * group.size();
+        if (extraBytes > availableBytes) {
+          fetchSize = baseFetchSize + availableBytes / group.size();
+          extraBytes = availableBytes;
+          replicationMetrics.lagAwareBandwidthLimitedFetchCount.inc();
+        }
+        availableBytes -= extraBytes;
+        if (fetchSize > baseFetchSize) {
+          replicationMetrics.lagAwareBoostedFetchCount.inc();
+        }
+      }
+      fetchSizes.add(fetchSize);
+    }
+    return fetchSizes;
+  }
+
+  /**
+   * Records the lag of the local replica behind a remote replica seen in a metadata exchange. Once a lagging replica
+   * catches up, the time it took is recorded, and a caught up replica is backed off.
+   * @param remoteReplicaInfo the {@link RemoteReplicaInfo} of the remote replica.
+   * @param localLagFromRemoteInBytes the lag of the local replica in bytes.
+   */
+  void onLagUpdated(RemoteReplicaInfo remoteReplicaInfo, long localLagFromRemoteInBytes) {
+    if (localLagFromRemoteInBytes < 0) {
+      return;
+    }
+    long now = time.milliseconds();
+    if (localLagFromRemoteInBytes > replicationConfig.replicationLagAwareCaughtUpThresholdInBytes) {
+      if (remoteReplicaInfo.getLaggingSinceMs() < 0) {
+        remoteReplicaInfo.setLaggingSinceMs(now);
+      }
+      return;
+    }
+    if (remoteReplicaInfo.getLaggingSinceMs() >= 0) {
+      replicationMetrics.updateReplicaCatchUpTime(now - remoteReplicaInfo.getLaggingSinceMs(),
+          replicatingFromRemoteColo, datacenterName);
+      remoteReplicaInfo.setLaggingSinceMs(-1);
+    }
+    long backoffDurationMs = replicationConfig.replicationLagAwareCaughtUpBackoffDurationMs;
+    if (backoffDurationMs > 0 && remoteReplicaInfo.getReEnableReplicationTime() < now + backoffDurationMs) {
+      remoteReplicaInfo.setReEnableReplicationTime(now + backoffDurationMs);
+      replicationMetrics.lagAwareCaughtUpBackoffCount.inc();
+    }
+  }
+
+  /**
+   * Records the bytes replicated from a remote host against its bandwidth budget.
+   * @param remoteNode the remote host.
+   * @param bytes the number of bytes replicated.
+   */
+  void onBytesReplicated(DataNodeId remoteNode, long bytes) {
+    if (replicationConfig.replicationLagAwarePerHostBandwidthBytesPerSec > 0 && bytes > 0) {
+      getBandwidthBudget(remoteNode).consume(bytes);
+    }
+  }
+
+  private BandwidthBudget getBandwidthBudget(DataNodeId remoteNode) {
+    return hostBandwidthBudgets.computeIfAbsent(remoteNode,
+        node -> new BandwidthBudget(replicationConfig.replicationLagAwarePerHostBandwidthBytesPerSec));
+  }
+
+  /**
+   * A token bucket that refills at the bandwidth of a host and holds at most one second of it.
+   */
+  private class BandwidthBudget {
+    private final long bytesPerSec;
+    private long availableBytes;
+    private long lastRefillTimeMs;
+
+    BandwidthBudget(long bytesPerSec) {
+      this.bytesPerSec = bytesPerSec;
+      this.availableBytes = bytesPerSec;
+      this.lastRefillTimeMs = time.milliseconds();
+    }
+
+    long getAvailableBytes() {
+      refill();
+      return Math.max(0, availableBytes);
+    }
+
+    void consume(long bytes) {
+      refill();
+      // allow a debt of at most one second, so a large response does not stall the host for long.
+      availableBytes = Math.max(-bytesPerSec, availableBytes - bytes);
+    }
+
+    private void refill() {
+      long now = time.milliseconds();
+      long elapsedMs = now - lastRefillTimeMs;
+      long refillBytes = elapsedMs >= 1000 ? bytesPerSec : bytesPerSec * elapsedMs / 1000;
+      if (refillBytes > 0) {
+        availableBytes = Math.min(bytesPerSec, availableBytes + refillBytes);
+        lastRefillTimeMs = now;
+      }
+    }
+  }
+}
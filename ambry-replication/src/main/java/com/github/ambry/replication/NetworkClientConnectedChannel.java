@@ -0,0 +1,136 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.replication;
+
+import com.github.ambry.clustermap.ReplicaId;
+import com.github.ambry.network.ChannelOutput;
+import com.github.ambry.network.ConnectedChannel;
+import com.github.ambry.network.NetworkClient;
+import com.github.ambry.network.Port;
+import com.github.ambry.network.RequestInfo;
+import com.github.ambry.network.ResponseInfo;
+import com.github.ambry.network.Send;
+import com.github.ambry.network.SendWithCorrelationId;
+import com.github.ambry.utils.NettyByteBufDataInputStream;
+import com.github.ambry.utils.Time;
+import io.netty.buffer.ByteBuf;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * A {@link ConnectedChannel} to the host of a remote replica that sends one request at a time through a
+ * {@link NetworkClient} and waits for its response. The {@link NetworkClient} is owned by the caller.
+ * <p/>
+ * The stream of a {@link ChannelOutput} returned by {@link #receive()} is backed by a netty buffer that the caller
+ * has to release.
+ */
+class NetworkClientConnectedChannel implements ConnectedChannel {
+  private final NetworkClient networkClient;
+  private final ReplicaId remoteReplica;
+  private final Port port;
+  private final long requestTimeoutMs;
+  private final int pollTimeoutMs;
+  private final Time time;
+  private RequestInfo pendingRequest = null;
+
+  /**
+   * @param networkClient the {@link NetworkClient} to send the requests with.
+   * @param remoteReplica the {@link ReplicaId} of the remote replica the requests are for.
+   * @param requestTimeoutMs the time in milliseconds to wait for a response.
+   * @param pollTimeoutMs the time in milliseconds to wait in a single poll of the {@link NetworkClient}.
+   * @param time the {@link Time} instance to use.
+   */
+  NetworkClientConnectedChannel(NetworkClient networkClient, ReplicaId remoteReplica, long requestTimeoutMs,
+      int pollTimeoutMs, Time time) {
+    this.networkClient = networkClient;
+    this.remoteReplica = remoteReplica;
+    this.port = remoteReplica.getDataNodeId().getPortToConnectTo();
+    this.requestTimeoutMs = requestTimeoutMs;
+    this.pollTimeoutMs = pollTimeoutMs;
+    this.time = time;
+  }
+
+  @Override
+  public void connect() {
+    // the network client manages its connections.
+  }
+
+  @Override
+  public void disconnect() {
+    // the network client manages its connections.
+  }
+
+  @Override
+  public void send(Send request) throws IOException {
+    if (pendingRequest != null) {
+      throw new IOException("A request to " + getRemoteHost() + " is already waiting for its response");
+    }
+    if (!(request instanceof SendWithCorrelationId)) {
+      throw new IllegalArgumentException("Request " + request + " has no correlation id");
+    }
+    pendingRequest = new RequestInfo(getRemoteHost(), port, (SendWithCorrelationId) request, remoteReplica, null,
+        time.milliseconds(), requestTimeoutMs, requestTimeoutMs);
+  }
+
+  @Override
+  public ChannelOutput receive() throws IOException {
+    if (pendingRequest == null) {
+      throw new IOException("No request to " + getRemoteHost() + " is waiting for its response");
+    }
+    int correlationId = pendingRequest.getRequest().getCorrelationId();
+    long deadlineMs = time.milliseconds() + requestTimeoutMs;
+    List<RequestInfo> requestsToSend = Collections.singletonList(pendingRequest);
+    pendingRequest = null;
+    while (true) {
+      List<ResponseInfo> responseInfos =
+          networkClient.sendAndPoll(requestsToSend, Collections.emptySet(), pollTimeoutMs);
+      requestsToSend = Collections.emptyList();
+      ResponseInfo response = null;
+      for (ResponseInfo responseInfo : responseInfos) {
+        if (response == null && responseInfo.getRequestInfo() != null
+            && responseInfo.getRequestInfo().getRequest().getCorrelationId() == correlationId) {
+          response = responseInfo;
+        } else {
+          responseInfo.release();
+        }
+      }
+      if (response != null) {
+        if (response.getError() != null) {
+          response.release();
+          throw new IOException("Request " + correlationId + " to " + getRemoteHost() + " failed with "
+              + response.getError());
+        }
+        ByteBuf content = response.content();
+        return new ChannelOutput(new NettyByteBufDataInputStream(content), content.readableBytes());
+      }
+      if (time.milliseconds() > deadlineMs) {
+        networkClient.sendAndPoll(Collections.emptyList(), Collections.singleton(correlationId), 0)
+            .forEach(ResponseInfo::release);
+        throw new IOException("Request " + correlationId + " to " + getRemoteHost() + " timed out");
+      }
+    }
+  }
+
+  @Override
+  public String getRemoteHost() {
+    return remoteReplica.getDataNodeId().getHostname();
+  }
+
+  @Override
+  public int getRemotePort() {
+    return port.getPort();
+  }
+}
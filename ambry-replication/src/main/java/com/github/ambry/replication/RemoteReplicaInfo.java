@@ -67,6 +67,8 @@ public class RemoteReplicaInfo {
   private long totalBytesReadFromLocalStore;
   private long localLagFromRemoteStore = -1;
   private long reEnableReplicationTime = 0;
+  // The time at which the local replica was first seen lagging behind this replica, -1 if it is caught up.
+  private long laggingSinceMs = -1;
   private ReplicaThread replicaThread;
   private int replicationRetryCount;
   // Configurable
@@ -178,6 +180,22 @@ public class RemoteReplicaInfo {
     this.reEnableReplicationTime = reEnableReplicationTime;
   }
 
+  /**
+   * @return the time in ms at which the local replica was first seen lagging behind this replica in the current
+   *         episode, or -1 if it is caught up.
+   */
+  long getLaggingSinceMs() {
+    return laggingSinceMs;
+  }
+
+  /**
+   * @param laggingSinceMs the time in ms at which the local replica was first seen lagging behind this replica, or -1
+   *                       if it is caught up.
+   */
+  void setLaggingSinceMs(long laggingSinceMs) {
+    this.laggingSinceMs = laggingSinceMs;
+  }
+
   long getRemoteLagFromLocalInBytes() {
     if (localStore != null) {
       return this.localStore.getSizeInBytes() - this.totalBytesReadFromLocalStore;
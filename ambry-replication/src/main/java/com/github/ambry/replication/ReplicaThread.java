@@ -64,6 +64,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -123,6 +124,8 @@ public class ReplicaThread implements Runnable {
   private final Predicate<MessageInfo> skipPredicate;
   private volatile boolean allDisabled = false;
   private final ReplicationManager.LeaderBasedReplicationAdmin leaderBasedReplicationAdmin;
+  // null unless lag aware scheduling is enabled.
+  private final LagAwareReplicationScheduler lagAwareScheduler;
 
   // This is used in the test cases
   private Map<DataNodeId, List<ExchangeMetadataResponse>> exchangeMetadataResponsesInEachCycle = null;
@@ -180,6 +183,8 @@ public class ReplicaThread implements Runnable {
     }
     this.maxReplicaCountPerRequest = replicationConfig.replicationMaxPartitionCountPerRequest;
     this.leaderBasedReplicationAdmin = leaderBasedReplicationAdmin;
+    this.lagAwareScheduler = replicationConfig.replicationEnableLagAwareScheduling ? new LagAwareReplicationScheduler(
+        replicationConfig, replicationMetrics, replicatingFromRemoteColo, datacenterName, time) : null;
   }
 
   /**
@@ -377,6 +382,7 @@ public class ReplicaThread implements Runnable {
     logger.trace("Thread name: {} Start RemoteReplicaGroup replication", threadName);
     List<RemoteReplicaGroup> remoteReplicaGroups = new ArrayList<>();
     int remoteReplicaGroupId = 0;
+    boolean anyLagging = false;
 
     try {
       // Before each cycle of replication, we clean up the cache in key converter.
@@ -391,12 +397,22 @@ public class ReplicaThread implements Runnable {
             standbyReplicasWithNoProgress);
 
         if (activeReplicasPerNode.size() > 0) {
+          if (lagAwareScheduler != null) {
+            // put the most lagging replicas together in the first requests, so that they get the larger fetch sizes.
+            lagAwareScheduler.rankByLag(activeReplicasPerNode);
+            anyLagging |= lagAwareScheduler.hasLaggingReplica(activeReplicasPerNode);
+          }
           List<List<RemoteReplicaInfo>> activeReplicaSubLists =
               maxReplicaCountPerRequest > 0 ? Utils.partitionList(activeReplicasPerNode, maxReplicaCountPerRequest)
                   : Collections.singletonList(activeReplicasPerNode);
-          for (List<RemoteReplicaInfo> replicaSubList : activeReplicaSubLists) {
+          List<Long> fetchSizes =
+              lagAwareScheduler != null ? lagAwareScheduler.planFetchSizes(remoteNode, activeReplicaSubLists) : null;
+          for (int i = 0; i < activeReplicaSubLists.size(); i++) {
             RemoteReplicaGroup group =
-                new RemoteReplicaGroup(replicaSubList, remoteNode, false, remoteReplicaGroupId++);
+                new RemoteReplicaGroup(activeReplicaSubLists.get(i), remoteNode, false, remoteReplicaGroupId++);
+            if (fetchSizes != null) {
+              group.setFetchSizeInBytes(fetchSizes.get(i));
+            }
             remoteReplicaGroups.add(group);
           }
         }
@@ -410,6 +426,11 @@ public class ReplicaThread implements Runnable {
           }
         }
       }
+      if (lagAwareScheduler != null) {
+        // send the requests of the most lagging replicas of all the hosts first.
+        remoteReplicaGroups.sort(Comparator.comparingLong(
+            (RemoteReplicaGroup g) -> g.getRemoteReplicaInfos().get(0).getLocalLagFromRemoteInBytes()).reversed());
+      }
       // A map from correlation id to RemoteReplicaGroup. This is used to find the group when response comes back.
       Map<Integer, RemoteReplicaGroup> correlationIdToReplicaGroup = new HashMap<>();
       // A map from correlation id to RequestInfo. This is used to find timed out RequestInfos.
@@ -455,7 +476,7 @@ public class ReplicaThread implements Runnable {
       replicationMetrics.updateOneCycleReplicationTime(time.milliseconds() - oneRoundStartTimeMs,
           replicatingFromRemoteColo, datacenterName);
     }
-    maybeSleepAfterReplication(remoteReplicaGroups.isEmpty());
+    maybeSleepAfterReplication(remoteReplicaGroups.isEmpty(), anyLagging);
   }
 
   void setExchangeMetadataListener(ExchangeMetadataListener exchangeMetadataListener) {
@@ -608,13 +629,15 @@ public class ReplicaThread implements Runnable {
    * Maybe sleep for a while after one round of replication. If all the replicas are caught up and the configuration
    * shows we should sleep, then sleep for a while so we can save some CPU.
    * @param allCaughtUp True when all replicas are caught up.
+   * @param anyLagging True when lag aware scheduling found a lagging replica in this round, in which case the thread
+   *                   is not throttled so that the lagging replicas are replicated more often.
    */
-  private void maybeSleepAfterReplication(boolean allCaughtUp) {
+  private void maybeSleepAfterReplication(boolean allCaughtUp, boolean anyLagging) {
     long sleepDurationMs = 0;
     if (allCaughtUp && replicationConfig.replicationReplicaThreadIdleSleepDurationMs > 0) {
       sleepDurationMs = replicationConfig.replicationReplicaThreadIdleSleepDurationMs;
       idleCount.inc();
-    } else if (threadThrottleDurationMs > 0) {
+    } else if (threadThrottleDurationMs > 0 && !anyLagging) {
       sleepDurationMs = threadThrottleDurationMs;
       throttleCount.inc();
     }
@@ -739,6 +762,9 @@ public class ReplicaThread implements Runnable {
                   time.milliseconds() + replicationConfig.replicationSyncedReplicaBackoffDurationMs);
               syncedBackOffCount.inc();
             }
+            if (lagAwareScheduler != null) {
+              lagAwareScheduler.onLagUpdated(remoteReplicaInfo, exchangeMetadataResponse.localLagFromRemoteInBytes);
+            }
 
             // trace replication status to track progress of recovery from cloud
             logReplicationStatus(remoteReplicaInfo, exchangeMetadataResponse);
@@ -822,6 +848,18 @@ public class ReplicaThread implements Runnable {
    */
   ReplicaMetadataRequest createReplicaMetadataRequest(List<RemoteReplicaInfo> replicasToReplicatePerNode,
       DataNodeId remoteNode) {
+    return createReplicaMetadataRequest(replicasToReplicatePerNode, remoteNode, 0);
+  }
+
+  /**
+   * Create a {@link ReplicaMetadataRequest} with a fetch size of at least {@code minFetchSizeInBytes}.
+   * @param replicasToReplicatePerNode The list of remote replicas for a node
+   * @param remoteNode The remote {@link DataNodeId}.
+   * @param minFetchSizeInBytes The minimum fetch size, such as the one planned by lag aware scheduling.
+   * @return A {@link ReplicaMetadataRequest} to send out later.
+   */
+  ReplicaMetadataRequest createReplicaMetadataRequest(List<RemoteReplicaInfo> replicasToReplicatePerNode,
+      DataNodeId remoteNode, long minFetchSizeInBytes) {
     boolean allLocalStoreInBootstrap = true;
     List<ReplicaMetadataRequestInfo> replicaMetadataRequestInfoList = new ArrayList<>();
     for (RemoteReplicaInfo remoteReplicaInfo : replicasToReplicatePerNode) {
@@ -843,6 +881,7 @@ public class ReplicaThread implements Runnable {
           "All local stores are at bootstrap mode, and this is intro colo replication, set the fetch size to {}",
           fetchSize);
     }
+    fetchSize = Math.max(fetchSize, minFetchSizeInBytes);
     return new ReplicaMetadataRequest(correlationIdGenerator.incrementAndGet(),
         "replication-metadata-" + dataNodeId.getHostname() + "[" + dataNodeId.getDatacenterName() + "]",
         replicaMetadataRequestInfoList, fetchSize, replicationConfig.replicaMetadataRequestVersion);
@@ -1140,10 +1179,14 @@ public class ReplicaThread implements Runnable {
       }
     }
     if (!partitionRequestInfoList.isEmpty()) {
+      // only the messages fetched from the servers of remote datacenters are worth the cpu to compress them.
+      String compressionAlgorithm = replicatingFromRemoteColo && !(remoteNode instanceof CloudDataNode)
+          && !replicationConfig.replicationInterColoGetCompressionAlgorithm.isEmpty()
+          ? replicationConfig.replicationInterColoGetCompressionAlgorithm : null;
       return new GetRequest(correlationIdGenerator.incrementAndGet(),
           GetRequest.Replication_Client_Id_Prefix + dataNodeId.getHostname() + "[" + dataNodeId.getDatacenterName()
               + "]", MessageFormatFlags.All, partitionRequestInfoList,
-          replicationConfig.replicationIncludeAll ? GetOption.Include_All : GetOption.None);
+          replicationConfig.replicationIncludeAll ? GetOption.Include_All : GetOption.None, compressionAlgorithm);
     }
     return null;
   }
@@ -1211,6 +1254,10 @@ public class ReplicaThread implements Runnable {
     long totalBytesFixed = 0;
     long totalBlobsFixed = 0;
     long startTime = time.milliseconds();
+    if (getResponse != null && getResponse.isCompressed()) {
+      replicationMetrics.updateGetResponseDecompression(getResponse.getCompressedMessagesSizeInBytes(),
+          getResponse.getDecompressedMessagesSizeInBytes(), getResponse.getDecompressionTimeInMicroseconds());
+    }
     for (int i = 0; i < exchangeMetadataResponseList.size(); i++) {
       ExchangeMetadataResponse exchangeMetadataResponse = exchangeMetadataResponseList.get(i);
       RemoteReplicaInfo remoteReplicaInfo = replicasToReplicatePerNode.get(i);
@@ -1347,6 +1394,9 @@ public class ReplicaThread implements Runnable {
     long batchStoreWriteTime = time.milliseconds() - startTime;
     replicationMetrics.updateBatchStoreWriteTime(batchStoreWriteTime, totalBytesFixed, totalBlobsFixed,
         replicatingFromRemoteColo, replicatingOverSsl, datacenterName, remoteColoGetRequestForStandby);
+    if (lagAwareScheduler != null) {
+      lagAwareScheduler.onBytesReplicated(remoteNode, totalBytesFixed);
+    }
   }
 
   /**
@@ -1935,6 +1985,7 @@ public class ReplicaThread implements Runnable {
     private long getRequestStartTimeMs;
     private long exchangeMetadataStartTimeInMs;
     private long fixMissingStoreKeysStartTimeInMs;
+    private long fetchSizeInBytes = 0;
 
     /**
      * Constructor of {@link RemoteReplicaGroup}.
@@ -1999,6 +2050,14 @@ public class ReplicaThread implements Runnable {
       return exchangeMetadataResponseList;
     }
 
+    /**
+     * Sets the minimum fetch size of the {@link ReplicaMetadataRequest} of this group.
+     * @param fetchSizeInBytes the fetch size in bytes.
+     */
+    void setFetchSizeInBytes(long fetchSizeInBytes) {
+      this.fetchSizeInBytes = fetchSizeInBytes;
+    }
+
     /**
      * Polling the {@link RequestInfo} from this group to send out. Each group has two requests to send out, one is
      * ReplicaMetadataRequest the other is GetRequest. Group only sends ReplicaMetadataRequest when it's in STARTED
@@ -2014,7 +2073,8 @@ public class ReplicaThread implements Runnable {
         // When the state is STARTED, we will send the ReplicaMetadataRequest out.
         replicaMetadataRequestStartTimeMs = time.milliseconds();
         exchangeMetadataStartTimeInMs = replicaMetadataRequestStartTimeMs;
-        ReplicaMetadataRequest request = createReplicaMetadataRequest(remoteReplicaInfos, remoteDataNode);
+        ReplicaMetadataRequest request =
+            createReplicaMetadataRequest(remoteReplicaInfos, remoteDataNode, fetchSizeInBytes);
         RequestInfo requestInfo =
             new RequestInfo(remoteDataNode.getHostname(), port, request, remoteReplicaInfos.get(0).getReplicaId(), null,
                 time.milliseconds(), timeout, timeout);
@@ -28,22 +28,27 @@ import com.github.ambry.commons.ResponseHandler;
 import com.github.ambry.config.ClusterMapConfig;
 import com.github.ambry.config.ReplicationConfig;
 import com.github.ambry.config.StoreConfig;
+import com.github.ambry.network.ConnectedChannel;
 import com.github.ambry.network.NetworkClient;
 import com.github.ambry.network.NetworkClientFactory;
 import com.github.ambry.notification.NotificationSystem;
 import com.github.ambry.server.StoreManager;
+import com.github.ambry.store.BlobStore;
 import com.github.ambry.store.MessageInfo;
 import com.github.ambry.store.Store;
 import com.github.ambry.store.StoreKeyConverter;
 import com.github.ambry.store.StoreKeyConverterFactory;
 import com.github.ambry.store.StoreKeyFactory;
 import com.github.ambry.store.Transformer;
+import com.github.ambry.utils.Pair;
 import com.github.ambry.utils.SystemTime;
 import com.github.ambry.utils.Time;
 import com.github.ambry.utils.Utils;
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -198,11 +203,38 @@ public class ReplicationManager extends ReplicationEngine {
   }
 
   /**
-   * Add given replica into replication manager.
+   * Add given replica into replication manager. If {@link ReplicationConfig#replicationFileCopyBootstrapEnabled} is
+   * set and the store of the replica is empty, the store is bootstrapped from the files of a peer first (see
+   * {@link #bootstrapFromPeer(ReplicaId)}) and replication from that peer starts at the end of the copied files.
    * @param replicaId the replica to add
    * @return {@code true} if addition succeeded, {@code false} failed to add replica because it already exists.
    */
   public boolean addReplica(ReplicaId replicaId) {
+    if (partitionToPartitionInfo.containsKey(replicaId.getPartitionId())) {
+      logger.warn("Partition {} already exists in replication manager, rejecting adding replica request.",
+          replicaId.getPartitionId());
+      return false;
+    }
+    Pair<ReplicaId, FindToken> copiedFrom = null;
+    Store store = storeManager.getStore(replicaId.getPartitionId());
+    if (replicationConfig.replicationFileCopyBootstrapEnabled && store != null && store.isEmpty()) {
+      ReplicaState state = store.getCurrentState();
+      copiedFrom = bootstrapFromPeer(replicaId);
+      // the store was restarted on the copied files
+      storeManager.getStore(replicaId.getPartitionId()).setCurrentState(state);
+    }
+    return copiedFrom == null ? addReplica(replicaId, null, null)
+        : addReplica(replicaId, copiedFrom.getFirst(), copiedFrom.getSecond());
+  }
+
+  /**
+   * Add given replica into replication manager, replicating from {@code copiedPeer} starting at {@code copiedToken}.
+   * @param replicaId the replica to add
+   * @param copiedPeer the peer replica the files of {@code replicaId} were copied from, or {@code null}.
+   * @param copiedToken the {@link FindToken} of {@code copiedPeer} that points at the end of the copied files.
+   * @return {@code true} if addition succeeded, {@code false} failed to add replica because it already exists.
+   */
+  private boolean addReplica(ReplicaId replicaId, ReplicaId copiedPeer, FindToken copiedToken) {
     if (partitionToPartitionInfo.containsKey(replicaId.getPartitionId())) {
       logger.warn("Partition {} already exists in replication manager, rejecting adding replica request.",
           replicaId.getPartitionId());
@@ -216,6 +248,14 @@ public class ReplicationManager extends ReplicationEngine {
         remoteReplicaInfos = createRemoteReplicaInfos(peerReplicas, replicaId);
         updatePartitionInfoMaps(remoteReplicaInfos, replicaId);
       }
+      if (copiedPeer != null) {
+        // set the token before the replica threads see the remote replica, so that they never start from the beginning
+        remoteReplicaInfos.stream()
+            .filter(remoteReplicaInfo -> remoteReplicaInfo.getReplicaId().equals(copiedPeer))
+            .forEach(remoteReplicaInfo -> remoteReplicaInfo.initializeTokens(copiedToken));
+        logger.info("Replication of {} from {} starts from token {}", replicaId.getPartitionId(), copiedPeer,
+            copiedToken);
+      }
       logger.info("Assigning thread for {}", replicaId.getPartitionId());
       addRemoteReplicaInfoToReplicaThread(remoteReplicaInfos, true);
       // No need to update persistor to explicitly persist tokens for new replica because background persistor will
@@ -291,6 +331,74 @@ public class ReplicationManager extends ReplicationEngine {
     return remoteReplicaInfos;
   }
 
+  /**
+   * Bootstraps a new replica by copying the sealed files of one of its peers, trying the peers in the local datacenter
+   * first. The store of the replica is shut down while the files are copied. It is then started on the copied files and
+   * verified before it serves any request. If no peer could be copied from, the copied files are deleted and the store
+   * is started empty, so that the replica replicates the whole log from its peers.
+   * @param replicaId the new replica, whose store is started and empty.
+   * @return the peer the files were copied from and its {@link FindToken} that points at the end of the copied files,
+   *         or {@code null} if the files of no peer were copied.
+   * @throws StateTransitionException if the store could not be restarted.
+   */
+  Pair<ReplicaId, FindToken> bootstrapFromPeer(ReplicaId replicaId) {
+    PartitionId partitionId = replicaId.getPartitionId();
+    List<ReplicaId> peers = new ArrayList<>(replicaId.getPeerReplicaIds());
+    if (peers.isEmpty()) {
+      return null;
+    }
+    peers.sort(Comparator.comparing(
+        peer -> !peer.getDataNodeId().getDatacenterName().equals(dataNodeId.getDatacenterName())));
+    if (!storeManager.shutdownBlobStore(partitionId)) {
+      logger.error("Failed to shut down store {} to copy the files of a peer", partitionId);
+      return null;
+    }
+    File storeDir = new File(replicaId.getReplicaPath());
+    FileCopyBootstrapper bootstrapper =
+        new FileCopyBootstrapper(replicationConfig, tokenHelper, "replication-file-copy-" + dataNodeId.getHostname());
+    for (ReplicaId peer : peers) {
+      try (NetworkClient networkClient = networkClientFactory.getNetworkClient()) {
+        ConnectedChannel channel = new NetworkClientConnectedChannel(networkClient, peer,
+            replicationConfig.replicationRequestNetworkTimeoutMs,
+            (int) replicationConfig.replicationRequestNetworkPollTimeoutMs, time);
+        FindToken token = bootstrapper.bootstrap(channel, partitionId, storeDir);
+        if (!storeManager.startBlobStore(partitionId)) {
+          throw new ReplicationException("Failed to start store " + partitionId + " on the copied files");
+        }
+        Store store = storeManager.getStore(partitionId);
+        if (store instanceof BlobStore) {
+          ((BlobStore) store).verifyCopiedFiles();
+        }
+        replicationMetrics.fileCopyBootstrapCount.inc();
+        logger.info("Bootstrapped {} from the files of {}", partitionId, peer);
+        return new Pair<>(peer, token);
+      } catch (Exception e) {
+        replicationMetrics.fileCopyBootstrapErrorCount.inc();
+        logger.error("Failed to bootstrap {} from the files of {}", partitionId, peer, e);
+        storeManager.shutdownBlobStore(partitionId);
+        try {
+          // files of different peers differ, so the next peer has to copy everything again
+          FileCopyBootstrapper.abandon(storeDir);
+        } catch (IOException ioe) {
+          logger.error("Failed to delete the files copied to {}", storeDir, ioe);
+          break;
+        }
+      }
+    }
+    replicationMetrics.fileCopyBootstrapFallbackCount.inc();
+    logger.info("Could not copy the files of any peer of {}, replicating the whole log instead", partitionId);
+    try {
+      FileCopyBootstrapper.abandon(storeDir);
+    } catch (IOException e) {
+      logger.error("Failed to delete the files copied to {}", storeDir, e);
+    }
+    if (!storeManager.startBlobStore(partitionId)) {
+      throw new StateTransitionException("Failed to restart store " + partitionId + " after copying files failed",
+          StoreNotStarted);
+    }
+    return null;
+  }
+
   /**
    * {@link PartitionStateChangeListener} to capture changes in partition state.
    */
@@ -116,6 +116,8 @@ public class ReplicationMetrics {
   public final Map<String, Histogram> interColoOneCycleReplicationTime = new HashMap<>();
   public final Histogram intraColoTotalReplicationTime;
   public final Histogram intraColoOneCycleReplicationTime;
+  public final Map<String, Histogram> interColoReplicaCatchUpTime = new HashMap<>();
+  public final Histogram intraColoReplicaCatchUpTime;
   public final Map<String, Histogram> plainTextInterColoTotalReplicationTime = new HashMap<String, Histogram>();
   public final Histogram plainTextIntraColoTotalReplicationTime;
   public final Map<String, Histogram> sslInterColoTotalReplicationTime = new HashMap<String, Histogram>();
@@ -128,6 +130,15 @@ public class ReplicationMetrics {
   public final Counter interColoReplicaThreadIdleCount;
   public final Counter intraColoReplicaThreadThrottleCount;
   public final Counter interColoReplicaThreadThrottleCount;
+  public final Counter lagAwareBoostedFetchCount;
+  public final Counter lagAwareBandwidthLimitedFetchCount;
+  public final Counter lagAwareCaughtUpBackoffCount;
+  public final Histogram interColoGetResponseCompressionRatioPercent;
+  public final Histogram interColoGetResponseDecompressionTimeInMicroseconds;
+  public final Counter interColoGetResponseCompressionSavedBytes;
+  public final Counter fileCopyBootstrapCount;
+  public final Counter fileCopyBootstrapErrorCount;
+  public final Counter fileCopyBootstrapFallbackCount;
   public final Counter remoteReplicaInfoRemoveError;
   public final Counter remoteReplicaInfoAddError;
   public final Counter allResponsedKeysExist;
@@ -257,6 +268,8 @@ public class ReplicationMetrics {
         registry.histogram(MetricRegistry.name(ReplicaThread.class, "IntraColoTotalReplicationTime"));
     intraColoOneCycleReplicationTime =
         registry.histogram(MetricRegistry.name(ReplicaThread.class, "IntraColoOneCycleReplicationTime"));
+    intraColoReplicaCatchUpTime =
+        registry.histogram(MetricRegistry.name(ReplicaThread.class, "IntraColoReplicaCatchUpTime"));
     plainTextIntraColoTotalReplicationTime =
         registry.histogram(MetricRegistry.name(ReplicaThread.class, "PlainTextIntraColoTotalReplicationTime"));
     sslIntraColoTotalReplicationTime =
@@ -276,6 +289,23 @@ public class ReplicationMetrics {
         registry.counter(MetricRegistry.name(ReplicaThread.class, "IntraColoReplicaThreadThrottleCount"));
     interColoReplicaThreadThrottleCount =
         registry.counter(MetricRegistry.name(ReplicaThread.class, "InterColoReplicaThreadThrottleCount"));
+    lagAwareBoostedFetchCount =
+        registry.counter(MetricRegistry.name(LagAwareReplicationScheduler.class, "LagAwareBoostedFetchCount"));
+    lagAwareBandwidthLimitedFetchCount =
+        registry.counter(MetricRegistry.name(LagAwareReplicationScheduler.class, "LagAwareBandwidthLimitedFetchCount"));
+    lagAwareCaughtUpBackoffCount =
+        registry.counter(MetricRegistry.name(LagAwareReplicationScheduler.class, "LagAwareCaughtUpBackoffCount"));
+    interColoGetResponseCompressionRatioPercent =
+        registry.histogram(MetricRegistry.name(ReplicaThread.class, "InterColoGetResponseCompressionRatioPercent"));
+    interColoGetResponseDecompressionTimeInMicroseconds = registry.histogram(
+        MetricRegistry.name(ReplicaThread.class, "InterColoGetResponseDecompressionTimeInMicroseconds"));
+    interColoGetResponseCompressionSavedBytes =
+        registry.counter(MetricRegistry.name(ReplicaThread.class, "InterColoGetResponseCompressionSavedBytes"));
+    fileCopyBootstrapCount = registry.counter(MetricRegistry.name(ReplicationManager.class, "FileCopyBootstrapCount"));
+    fileCopyBootstrapErrorCount =
+        registry.counter(MetricRegistry.name(ReplicationManager.class, "FileCopyBootstrapErrorCount"));
+    fileCopyBootstrapFallbackCount =
+        registry.counter(MetricRegistry.name(ReplicationManager.class, "FileCopyBootstrapFallbackCount"));
     remoteReplicaInfoRemoveError =
         registry.counter(MetricRegistry.name(ReplicaThread.class, "RemoteReplicaInfoRemoveError"));
     remoteReplicaInfoAddError = registry.counter(MetricRegistry.name(ReplicaThread.class, "RemoteReplicaInfoAddError"));
@@ -396,6 +426,9 @@ public class ReplicationMetrics {
     Histogram interColoOneCycleReplicationTimePerDC = registry.histogram(
         MetricRegistry.name(ReplicaThread.class, "Inter-" + datacenter + "-OneCycleReplicationTime"));
     interColoOneCycleReplicationTime.put(datacenter, interColoOneCycleReplicationTimePerDC);
+    Histogram interColoReplicaCatchUpTimePerDC =
+        registry.histogram(MetricRegistry.name(ReplicaThread.class, "Inter-" + datacenter + "-ReplicaCatchUpTime"));
+    interColoReplicaCatchUpTime.put(datacenter, interColoReplicaCatchUpTimePerDC);
     Histogram plainTextInterColoTotalReplicationTimePerDC = registry.histogram(
         MetricRegistry.name(ReplicaThread.class, "PlainTextInter-" + datacenter + "-TotalReplicationTime"));
     plainTextInterColoTotalReplicationTime.put(datacenter, plainTextInterColoTotalReplicationTimePerDC);
@@ -701,6 +734,36 @@ public class ReplicationMetrics {
     }
   }
 
+  /**
+   * Updates the time it took a remote replica to catch up, from the time its lag was first seen above the threshold of
+   * {@link LagAwareReplicationScheduler} until it was seen below it.
+   * @param catchUpTimeMs the time to catch up in ms.
+   * @param remoteColo {@code true} if the replica is in a remote datacenter.
+   * @param datacenter the datacenter of the replica.
+   */
+  public void updateReplicaCatchUpTime(long catchUpTimeMs, boolean remoteColo, String datacenter) {
+    if (remoteColo) {
+      interColoReplicaCatchUpTime.get(datacenter).update(catchUpTimeMs);
+    } else {
+      intraColoReplicaCatchUpTime.update(catchUpTimeMs);
+    }
+  }
+
+  /**
+   * Updates the metrics of a get response whose messages were received compressed.
+   * @param compressedSizeInBytes the size of the messages as they were received.
+   * @param decompressedSizeInBytes the size of the messages once decompressed.
+   * @param decompressionTimeInMicroseconds the time spent decompressing the messages.
+   */
+  public void updateGetResponseDecompression(long compressedSizeInBytes, long decompressedSizeInBytes,
+      long decompressionTimeInMicroseconds) {
+    if (compressedSizeInBytes > 0) {
+      interColoGetResponseCompressionRatioPercent.update(100 * decompressedSizeInBytes / compressedSizeInBytes);
+    }
+    interColoGetResponseDecompressionTimeInMicroseconds.update(decompressionTimeInMicroseconds);
+    interColoGetResponseCompressionSavedBytes.inc(Math.max(0, decompressedSizeInBytes - compressedSizeInBytes));
+  }
+
   public void updateTotalReplicationTime(long totalReplicationTime, boolean remoteColo, boolean sslEnabled,
       String datacenter) {
     if (remoteColo) {
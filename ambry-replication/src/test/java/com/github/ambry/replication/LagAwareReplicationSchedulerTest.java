@@ -0,0 +1,153 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.replication;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.clustermap.DataNodeId;
+import com.github.ambry.clustermap.MockReplicaId;
+import com.github.ambry.clustermap.ReplicaType;
+import com.github.ambry.config.ReplicationConfig;
+import com.github.ambry.config.VerifiableProperties;
+import com.github.ambry.network.Port;
+import com.github.ambry.network.PortType;
+import com.github.ambry.utils.MockTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+
+/**
+ * Tests for {@link LagAwareReplicationScheduler}.
+ */
+public class LagAwareReplicationSchedulerTest {
+  private static final long FETCH_SIZE = 1000;
+  private static final long THRESHOLD = 2000;
+  private final MockTime time = new MockTime();
+  private final ReplicationMetrics replicationMetrics =
+      new ReplicationMetrics(new MetricRegistry(), Collections.emptyList());
+
+  /**
+   * Tests that the replicas are ranked by lag and that the fetch sizes grow with the lag up to the multiplier.
+   */
+  @Test
+  public void rankAndFetchSizeTest() {
+    LagAwareReplicationScheduler scheduler = createScheduler(0);
+    RemoteReplicaInfo unknown = createRemoteReplicaInfo(-1);
+    RemoteReplicaInfo caughtUp = createRemoteReplicaInfo(THRESHOLD);
+    RemoteReplicaInfo lagging = createRemoteReplicaInfo(THRESHOLD + 1);
+    RemoteReplicaInfo farBehind = createRemoteReplicaInfo(100 * FETCH_SIZE);
+    List<RemoteReplicaInfo> replicas = new ArrayList<>(Arrays.asList(unknown, caughtUp, lagging, farBehind));
+    scheduler.rankByLag(replicas);
+    assertEquals("Unexpected order", Arrays.asList(farBehind, lagging, caughtUp, unknown), replicas);
+
+    assertFalse("Unknown lag is not lagging", scheduler.isLagging(unknown));
+    assertFalse("Lag at the threshold is caught up", scheduler.isLagging(caughtUp));
+    assertTrue("Lag above the threshold is lagging", scheduler.hasLaggingReplica(replicas));
+    assertEquals(FETCH_SIZE, scheduler.getFetchSizeInBytes(unknown));
+    assertEquals(FETCH_SIZE, scheduler.getFetchSizeInBytes(caughtUp));
+    assertEquals(THRESHOLD + 1, scheduler.getFetchSizeInBytes(lagging));
+    assertEquals("Fetch size should be capped by the multiplier", 4 * FETCH_SIZE,
+        scheduler.getFetchSizeInBytes(farBehind));
+
+    List<Long> fetchSizes = scheduler.planFetchSizes(mock(DataNodeId.class),
+        Arrays.asList(Arrays.asList(farBehind, lagging), Collections.singletonList(unknown)));
+    assertEquals(Arrays.asList(4 * FETCH_SIZE, FETCH_SIZE), fetchSizes);
+    assertEquals(1, replicationMetrics.lagAwareBoostedFetchCount.getCount());
+  }
+
+  /**
+   * Tests that the fetch sizes only grow within the bandwidth budget of the host.
+   */
+  @Test
+  public void bandwidthBudgetTest() {
+    // the budget covers the base fetch sizes of 2 replicas and 2000 bytes more.
+    LagAwareReplicationScheduler scheduler = createScheduler(4 * FETCH_SIZE);
+    DataNodeId remoteNode = mock(DataNodeId.class);
+    RemoteReplicaInfo farBehind = createRemoteReplicaInfo(100 * FETCH_SIZE);
+    RemoteReplicaInfo alsoFarBehind = createRemoteReplicaInfo(100 * FETCH_SIZE);
+    List<List<RemoteReplicaInfo>> groups =
+        Arrays.asList(Collections.singletonList(farBehind), Collections.singletonList(alsoFarBehind));
+    assertEquals("The first group should get the budget", Arrays.asList(3 * FETCH_SIZE, FETCH_SIZE),
+        scheduler.planFetchSizes(remoteNode, groups));
+    assertEquals(2, replicationMetrics.lagAwareBandwidthLimitedFetchCount.getCount());
+
+    // once the budget is used, the fetch sizes stay at the base size until it refills.
+    scheduler.onBytesReplicated(remoteNode, 4 * FETCH_SIZE);
+    assertEquals(Arrays.asList(FETCH_SIZE, FETCH_SIZE), scheduler.planFetchSizes(remoteNode, groups));
+    // other hosts have their own budget.
+    assertEquals(Arrays.asList(3 * FETCH_SIZE, FETCH_SIZE), scheduler.planFetchSizes(mock(DataNodeId.class), groups));
+    time.sleep(500);
+    assertEquals(Arrays.asList(FETCH_SIZE, FETCH_SIZE), scheduler.planFetchSizes(remoteNode, groups));
+    time.sleep(500);
+    assertEquals(Arrays.asList(3 * FETCH_SIZE, FETCH_SIZE), scheduler.planFetchSizes(remoteNode, groups));
+  }
+
+  /**
+   * Tests that the catch up time is recorded and that caught up replicas are backed off.
+   */
+  @Test
+  public void catchUpTest() {
+    LagAwareReplicationScheduler scheduler = createScheduler(0);
+    RemoteReplicaInfo remoteReplicaInfo = createRemoteReplicaInfo(-1);
+    long startTimeMs = time.milliseconds();
+    scheduler.onLagUpdated(remoteReplicaInfo, THRESHOLD + 1);
+    assertEquals(startTimeMs, remoteReplicaInfo.getLaggingSinceMs());
+    assertEquals("Lagging replica should not be backed off", 0, remoteReplicaInfo.getReEnableReplicationTime());
+    time.sleep(3000);
+    scheduler.onLagUpdated(remoteReplicaInfo, THRESHOLD + 1);
+    assertEquals("Lagging since time should not change", startTimeMs, remoteReplicaInfo.getLaggingSinceMs());
+
+    scheduler.onLagUpdated(remoteReplicaInfo, 0);
+    assertEquals(-1, remoteReplicaInfo.getLaggingSinceMs());
+    assertEquals(1, replicationMetrics.intraColoReplicaCatchUpTime.getCount());
+    assertEquals(3000, replicationMetrics.intraColoReplicaCatchUpTime.getSnapshot().getMax());
+    assertEquals(time.milliseconds() + 100, remoteReplicaInfo.getReEnableReplicationTime());
+    assertEquals(1, replicationMetrics.lagAwareCaughtUpBackoffCount.getCount());
+
+    // a longer backoff is not shortened.
+    remoteReplicaInfo.setReEnableReplicationTime(time.milliseconds() + 1000);
+    scheduler.onLagUpdated(remoteReplicaInfo, 0);
+    assertEquals(time.milliseconds() + 1000, remoteReplicaInfo.getReEnableReplicationTime());
+    assertEquals("Catch up time should only be recorded once", 1,
+        replicationMetrics.intraColoReplicaCatchUpTime.getCount());
+  }
+
+  private LagAwareReplicationScheduler createScheduler(long bandwidthBytesPerSec) {
+    Properties properties = new Properties();
+    properties.setProperty("replication.fetch.size.in.bytes", Long.toString(FETCH_SIZE));
+    properties.setProperty(ReplicationConfig.REPLICATION_ENABLE_LAG_AWARE_SCHEDULING, "true");
+    properties.setProperty(ReplicationConfig.REPLICATION_LAG_AWARE_CAUGHT_UP_THRESHOLD_IN_BYTES,
+        Long.toString(THRESHOLD));
+    properties.setProperty(ReplicationConfig.REPLICATION_LAG_AWARE_MAX_FETCH_SIZE_MULTIPLIER, "4");
+    properties.setProperty(ReplicationConfig.REPLICATION_LAG_AWARE_CAUGHT_UP_BACKOFF_DURATION_MS, "100");
+    properties.setProperty(ReplicationConfig.REPLICATION_LAG_AWARE_PER_HOST_BANDWIDTH_BYTES_PER_SEC,
+        Long.toString(bandwidthBytesPerSec));
+    ReplicationConfig replicationConfig = new ReplicationConfig(new VerifiableProperties(properties));
+    return new LagAwareReplicationScheduler(replicationConfig, replicationMetrics, false, "localDC", time);
+  }
+
+  private RemoteReplicaInfo createRemoteReplicaInfo(long localLagFromRemoteInBytes) {
+    RemoteReplicaInfo remoteReplicaInfo =
+        new RemoteReplicaInfo(new MockReplicaId(ReplicaType.DISK_BACKED), new MockReplicaId(ReplicaType.DISK_BACKED),
+            null, new MockFindToken(0, 0), 100, time, new Port(5000, PortType.PLAINTEXT));
+    remoteReplicaInfo.setLocalLagFromRemoteInBytes(localLagFromRemoteInBytes);
+    return remoteReplicaInfo;
+  }
+}
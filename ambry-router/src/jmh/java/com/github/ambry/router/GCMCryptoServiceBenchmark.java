@@ -0,0 +1,115 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.router;
+
+import com.github.ambry.config.CryptoServiceConfig;
+import com.github.ambry.config.VerifiableProperties;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.security.GeneralSecurityException;
+import java.security.Security;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks {@link GCMCryptoService} with the BouncyCastle and the JDK providers on chunks of different sizes.
+ * {@link #encryptWithNewCipher()} encrypts the way the service did before ciphers were reused: with a new BouncyCastle
+ * cipher for every chunk. Run with {@code -t} to measure the service on several threads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GCMCryptoServiceBenchmark {
+  @Param({"BC", "SunJCE"})
+  public String provider;
+
+  @Param({"4096", "65536", "4194304"})
+  public int size;
+
+  private GCMCryptoService cryptoService;
+  private SecretKeySpec key;
+  private ByteBuf plainContent;
+  private ByteBuf encryptedContent;
+
+  @Setup
+  public void setup() throws GeneralSecurityException {
+    Security.addProvider(new BouncyCastleProvider());
+    Properties properties = new Properties();
+    properties.setProperty("crypto.service.provider", provider);
+    cryptoService = new GCMCryptoService(new CryptoServiceConfig(new VerifiableProperties(properties)));
+    byte[] keyBytes = new byte[32];
+    ThreadLocalRandom.current().nextBytes(keyBytes);
+    key = new SecretKeySpec(keyBytes, "AES");
+    byte[] bytes = new byte[size];
+    ThreadLocalRandom.current().nextBytes(bytes);
+    plainContent = PooledByteBufAllocator.DEFAULT.ioBuffer(size);
+    plainContent.writeBytes(bytes);
+    encryptedContent = cryptoService.encrypt(plainContent.duplicate(), key);
+  }
+
+  @TearDown
+  public void tearDown() {
+    plainContent.release();
+    encryptedContent.release();
+  }
+
+  @Benchmark
+  public int encrypt() throws GeneralSecurityException {
+    ByteBuf encrypted = cryptoService.encrypt(plainContent.duplicate(), key);
+    int size = encrypted.readableBytes();
+    encrypted.release();
+    return size;
+  }
+
+  @Benchmark
+  public int decrypt() throws GeneralSecurityException {
+    ByteBuf decrypted = cryptoService.decrypt(encryptedContent.duplicate(), key);
+    int size = decrypted.readableBytes();
+    decrypted.release();
+    return size;
+  }
+
+  @Benchmark
+  public int encryptWithNewCipher() throws GeneralSecurityException {
+    Cipher encrypter = Cipher.getInstance("AES/GCM/NoPadding", "BC");
+    byte[] iv = new byte[12];
+    ThreadLocalRandom.current().nextBytes(iv);
+    encrypter.init(Cipher.ENCRYPT_MODE, key, new IvParameterSpec(iv));
+    ByteBuf encrypted = PooledByteBufAllocator.DEFAULT.ioBuffer(encrypter.getOutputSize(size));
+    int size = encrypter.doFinal(plainContent.nioBuffer(), encrypted.nioBuffer(0, encrypted.capacity()));
+    encrypted.release();
+    return size;
+  }
+}
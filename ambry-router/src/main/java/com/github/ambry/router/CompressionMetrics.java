@@ -111,6 +111,16 @@ public class CompressionMetrics {
   public final Meter compressErrorRate;     // The overall compress failure rate, eg: compress() throws exception.
   public final Meter compressAcceptRate;    // The rate compression is applied and accepted after filtering.
   public final Counter compressReduceSizeBytes;  // For accepted, bytes reduce = OriginalSize - CompressedSize.
+  public final Histogram compressCpuTimeInMicroseconds;  // Time spent in compress() per chunk, accepted or not.
+
+  // Streaming compression metrics.  A chunk falls back to regular compression when streaming is aborted.
+  public final Meter compressStreamingRate;
+  public final Counter compressStreamingAbortCount;
+
+  // Dictionary compression metrics.
+  public final Meter compressDictionaryRate;
+  public final Histogram compressDictionaryRatioPercent;
+  public final Counter compressDictionaryMissingCount;  // The dictionary of a container is not loaded.
 
   // Compression error metrics.  These metrics must be monitored and raise alarm if as soon as they occurred.
   public final Counter compressErrorConfigInvalidCompressorName;
@@ -143,6 +153,16 @@ public class CompressionMetrics {
     compressErrorRate = registry.meter(MetricRegistry.name(MetricNamePrefix,"CompressErrorRate"));
     compressAcceptRate = registry.meter(MetricRegistry.name(MetricNamePrefix,"CompressAcceptRate"));
     compressReduceSizeBytes = registry.counter(MetricRegistry.name(MetricNamePrefix, "CompressReduceSizeBytes"));
+    compressCpuTimeInMicroseconds =
+        registry.histogram(MetricRegistry.name(MetricNamePrefix, "CompressCpuTimeInMicroseconds"));
+    compressStreamingRate = registry.meter(MetricRegistry.name(MetricNamePrefix, "CompressStreamingRate"));
+    compressStreamingAbortCount =
+        registry.counter(MetricRegistry.name(MetricNamePrefix, "CompressStreamingAbortCount"));
+    compressDictionaryRate = registry.meter(MetricRegistry.name(MetricNamePrefix, "CompressDictionaryRate"));
+    compressDictionaryRatioPercent =
+        registry.histogram(MetricRegistry.name(MetricNamePrefix, "CompressDictionaryRatioPercent"));
+    compressDictionaryMissingCount =
+        registry.counter(MetricRegistry.name(MetricNamePrefix, "CompressDictionaryMissingCount"));
     compressErrorConfigInvalidCompressorName = registry.counter(MetricRegistry.name(MetricNamePrefix,"CompressErrorInvalidCompressorName"));
     compressErrorCompressFailed = registry.counter(MetricRegistry.name(MetricNamePrefix,"CompressErrorCompressFailed"));
     compressSkipContentEncoding = registry.counter(MetricRegistry.name(MetricNamePrefix,"CompressSkipContentEncoding"));
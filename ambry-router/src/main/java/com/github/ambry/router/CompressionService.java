@@ -13,20 +13,26 @@
  */
 package com.github.ambry.router;
 
+import com.github.ambry.account.Container;
 import com.github.ambry.compression.Compression;
 import com.github.ambry.compression.CompressionException;
 import com.github.ambry.compression.CompressionMap;
 import com.github.ambry.compression.LZ4Compression;
 import com.github.ambry.compression.ZstdCompression;
+import com.github.ambry.compression.ZstdDictionaries;
 import com.github.ambry.config.CompressionConfig;
 import com.github.ambry.messageformat.BlobProperties;
 import com.github.ambry.protocol.PutRequest;
 import com.github.ambry.utils.Utils;
+import com.github.luben.zstd.ZstdDictCompress;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.PooledByteBufAllocator;
+import java.io.File;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.HashSet;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import org.slf4j.Logger;
@@ -90,6 +96,11 @@ public class CompressionService {
    */
   public final Set<String> compressibleContentTypes;
 
+  /**
+   * Whether the data of a chunk is compressed as it arrives.  It only applies when the default compressor is Zstd.
+   */
+  public boolean isStreamingEnabled;
+
     /**
      * Create an instance of the compression service using the compression config and metrics.
      * Initialize the compressor properties using config.  If the default compressor in config is invalid or missing,
@@ -124,6 +135,20 @@ public class CompressionService {
           + ", specified in config does not exist.  This default has changed to " + compressor.getAlgorithmName());
     }
     defaultCompressor = compressor;
+    isStreamingEnabled = config.isStreamingEnabled;
+
+    // Load the Zstd dictionaries.  Without them, the containers that refer to dictionaries are compressed without one.
+    if (!Utils.isNullOrEmpty(config.dictionaryDirectory)) {
+      ZstdCompression zstdCompression = getZstdCompression();
+      try {
+        zstdCompression.setDictionaries(
+            ZstdDictionaries.load(new File(config.dictionaryDirectory), zstdCompression.getCompressionLevel()));
+        logger.info("Loaded Zstd dictionaries " + zstdCompression.getDictionaries().getDictionaryIds() + " from "
+            + config.dictionaryDirectory);
+      } catch (IOException | RuntimeException ex) {
+        logger.error("Failed to load the Zstd dictionaries from " + config.dictionaryDirectory, ex);
+      }
+    }
   }
 
   /**
@@ -266,6 +291,7 @@ public class CompressionService {
       actualCompressedByteBufferSize = defaultCompressor.compress(sourceByteBuffer, compressedByteBuffer);
       compressedByteBuf.writerIndex(compressedByteBuf.writerIndex() + actualCompressedByteBufferSize);
       durationMicroseconds = (System.nanoTime() - startTime)/1000;
+      compressionMetrics.compressCpuTimeInMicroseconds.update(durationMicroseconds);
     } catch (Exception ex) {
       logger.error(String.format("Compress failed.  sourceBuffer.capacity = %d, offset = %d, size = %d.",
           newChunkByteBuf.capacity(), newChunkByteBuf.readerIndex(), sourceDataSize), ex);
@@ -313,6 +339,164 @@ public class CompressionService {
     return compressedByteBuf;
   }
 
+  /**
+   * Get the id of the Zstd dictionary to compress a blob with.  The container assigns dictionaries by content type,
+   * looked up by the full content type first and then without its options.
+   *
+   * @param container The container of the blob.  Can be null.
+   * @param contentType The content type of the blob.  Can be null.
+   * @return The id of the dictionary, or 0 if the blob should be compressed without a dictionary.
+   */
+  public long getDictionaryId(Container container, String contentType) {
+    if (container == null || Utils.isNullOrEmpty(contentType) || container.getCompressionDictionaryIds().isEmpty()) {
+      return 0;
+    }
+    Map<String, Long> dictionaryIds = container.getCompressionDictionaryIds();
+    String contentTypeLower = contentType.trim().toLowerCase(Locale.US);
+    Long dictionaryId = dictionaryIds.get(contentTypeLower);
+    int mimeSeparatorIndex = contentTypeLower.indexOf(';');
+    if (dictionaryId == null && mimeSeparatorIndex > 0) {
+      dictionaryId = dictionaryIds.get(contentTypeLower.substring(0, mimeSeparatorIndex).trim());
+    }
+    if (dictionaryId == null || dictionaryId == 0) {
+      return 0;
+    }
+
+    // The dictionary must be loaded on this host.  If not, compress without it rather than failing the upload.
+    ZstdDictionaries dictionaries = getZstdCompression().getDictionaries();
+    if (dictionaries == null || dictionaries.getCompressDictionary(dictionaryId) == null) {
+      logger.trace("Zstd dictionary " + dictionaryId + " of content-type " + contentType + " is not loaded.");
+      compressionMetrics.compressDictionaryMissingCount.inc();
+      return 0;
+    }
+    return dictionaryId;
+  }
+
+  /**
+   * Create a compressor that compresses the data of a chunk as it arrives.
+   * Streaming compression is used when streaming is enabled and the default compressor is Zstd, or when the blob is
+   * compressed with a dictionary, since dictionaries are only supported by Zstd.
+   *
+   * @param dictionaryId The id of the dictionary returned by {@link #getDictionaryId}, or 0 for no dictionary.
+   * @return The compressor to write the chunk to, or null if the chunk should be compressed by compressChunk().
+   *         The caller is responsible for finishing or releasing the compressor.
+   */
+  StreamingChunkCompressor createStreamingCompressor(long dictionaryId) {
+    ZstdCompression zstdCompression = getZstdCompression();
+    ZstdDictCompress dictionary = null;
+    if (dictionaryId != 0) {
+      ZstdDictionaries dictionaries = zstdCompression.getDictionaries();
+      dictionary = dictionaries == null ? null : dictionaries.getCompressDictionary(dictionaryId);
+    }
+    if (dictionary == null && !(isStreamingEnabled && defaultCompressor == zstdCompression)) {
+      return null;
+    }
+    try {
+      return new StreamingChunkCompressor(zstdCompression, dictionary, dictionary == null ? 0 : dictionaryId);
+    } catch (Exception ex) {
+      logger.error("Failed to create the streaming compressor.", ex);
+      compressionMetrics.compressStreamingAbortCount.inc();
+      return null;
+    }
+  }
+
+  /**
+   * Write the next part of a chunk to a streaming compressor.  If the compression fails, the compressor is released
+   * and the chunk should be compressed by compressChunk() when it is complete.
+   *
+   * @param compressor The compressor created by {@link #createStreamingCompressor}.
+   * @param data The next part of the chunk.  Its indexes are not changed.
+   * @return True if the data was compressed; False if the compressor failed and was released.
+   */
+  boolean writeStreamingCompressor(StreamingChunkCompressor compressor, ByteBuf data) {
+    try {
+      compressor.write(data);
+      return true;
+    } catch (Exception ex) {
+      logger.error("Streaming compression failed after " + compressor.getSourceDataSize() + " bytes.", ex);
+      compressionMetrics.compressStreamingAbortCount.inc();
+      compressor.release();
+      return false;
+    }
+  }
+
+  /**
+   * Complete the compression of a chunk that was written to a streaming compressor.  It applies the same rules and
+   * emits the same metrics as compressChunk().  The compressor is finished or released in all cases.
+   *
+   * @param compressor The compressor the whole chunk was written to.
+   * @param isFullChunk Whether this is a full size chunk (4MB) or smaller.
+   * @return Returns the compressed buffer.  It returns null if the compression is not accepted or failed, in which
+   *         case the chunk should be sent as is, or compressed by compressChunk() after a failure.
+   */
+  ByteBuf finishStreamingCompression(StreamingChunkCompressor compressor, boolean isFullChunk) {
+    int sourceDataSize = compressor.getSourceDataSize();
+    if (sourceDataSize < minimalSourceDataSizeInBytes) {
+      compressor.release();
+      compressionMetrics.compressSkipRate.mark();
+      compressionMetrics.compressSkipSizeTooSmall.inc();
+      return null;
+    }
+
+    CompressionMetrics.AlgorithmMetrics algorithmMetrics =
+        compressionMetrics.getAlgorithmMetrics(ZstdCompression.ALGORITHM_NAME);
+    algorithmMetrics.compressRate.mark();
+    ByteBuf compressedByteBuf;
+    try {
+      compressedByteBuf = compressor.finish();
+    } catch (Exception ex) {
+      logger.error("Streaming compression failed to finish.  Source data size = " + sourceDataSize, ex);
+      algorithmMetrics.compressError.inc();
+      compressionMetrics.compressErrorRate.mark();
+      compressionMetrics.compressErrorCompressFailed.inc();
+      compressor.release();
+      return null;
+    }
+    long durationMicroseconds = compressor.getCompressTimeInNanos() / 1000;
+    compressionMetrics.compressCpuTimeInMicroseconds.update(durationMicroseconds);
+    compressionMetrics.compressStreamingRate.mark();
+    if (compressor.getDictionaryId() != 0) {
+      compressionMetrics.compressDictionaryRate.mark();
+    }
+
+    // Check whether the compression ratio is greater than threshold.
+    int compressedDataSize = compressedByteBuf.readableBytes();
+    double compressionRatio = sourceDataSize / (double) compressedDataSize;
+    if (compressionRatio < minimalCompressRatio) {
+      logger.trace("Streaming compression discarded because compression ratio " + compressionRatio
+          + " is smaller than config's minimal ratio " + minimalCompressRatio);
+      compressionMetrics.compressSkipRate.mark();
+      compressionMetrics.compressSkipRatioTooSmall.inc();
+      compressedByteBuf.release();
+      return null;
+    }
+
+    // Compress accepted, emit metrics.
+    long speedInMBPerSec = durationMicroseconds == 0 ? 0
+        : (long) (BytePerMicrosecondToMBPerSec * sourceDataSize / (double) durationMicroseconds);
+    if (isFullChunk) {
+      algorithmMetrics.fullSizeCompressTimeInMicroseconds.update(durationMicroseconds);
+      algorithmMetrics.fullSizeCompressSpeedMBPerSec.update(speedInMBPerSec);
+    } else {
+      algorithmMetrics.smallSizeCompressTimeInMicroseconds.update(durationMicroseconds);
+      algorithmMetrics.smallSizeCompressSpeedMBPerSec.update(speedInMBPerSec);
+    }
+    algorithmMetrics.compressRatioPercent.update((long) (100.0 * compressionRatio));
+    if (compressor.getDictionaryId() != 0) {
+      compressionMetrics.compressDictionaryRatioPercent.update((long) (100.0 * compressionRatio));
+    }
+    compressionMetrics.compressAcceptRate.mark();
+    compressionMetrics.compressReduceSizeBytes.inc(sourceDataSize - compressedDataSize);
+    return compressedByteBuf;
+  }
+
+  /**
+   * @return The Zstd compression registered in allCompressions.  It holds the loaded dictionaries.
+   */
+  private ZstdCompression getZstdCompression() {
+    return (ZstdCompression) allCompressions.getByName(ZstdCompression.ALGORITHM_NAME);
+  }
+
   /**
    * Decompress the specified compressed buffer.  compressedBuffer index will not be updated.
    *
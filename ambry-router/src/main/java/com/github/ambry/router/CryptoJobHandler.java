@@ -40,10 +40,13 @@ public class CryptoJobHandler implements Closeable {
 
   /**
    * Instantiates {@link CryptoJobHandler}
+   * @param threadCount the number of threads running the jobs. Jobs submitted for different chunks of a blob run in
+   *                    parallel on these threads. If 0 or less, there is one thread per available processor.
    */
   public CryptoJobHandler(int threadCount) {
     enabled.set(true);
-    scheduler = Executors.newFixedThreadPool(threadCount);
+    scheduler =
+        Executors.newFixedThreadPool(threadCount > 0 ? threadCount : Runtime.getRuntime().availableProcessors());
   }
 
   /**
@@ -43,6 +43,7 @@ import org.slf4j.LoggerFactory;
  */
 class DeleteManager {
   private final Set<DeleteOperation> deleteOperations;
+  private final OperationReadinessTracker<DeleteOperation> readinessTracker;
   private final HashMap<Integer, DeleteOperation> correlationIdToDeleteOperation;
   private final NotificationSystem notificationSystem;
   private final Time time;
@@ -80,6 +81,8 @@ class DeleteManager {
     this.routerMetrics = routerMetrics;
     this.routerCallback = routerCallback;
     this.time = time;
+    readinessTracker =
+        new OperationReadinessTracker<>(routerConfig, time, routerMetrics.deleteManagerPolledOperationCount);
     deleteOperations = ConcurrentHashMap.newKeySet();
     correlationIdToDeleteOperation = new HashMap<>();
     requestRegistrationCallback = new RequestRegistrationCallback<>(correlationIdToDeleteOperation);
@@ -105,6 +108,7 @@ class DeleteManager {
         new DeleteOperation(clusterMap, routerConfig, routerMetrics, responseHandler, blobId, serviceId, callback, time,
             futureResult, quotaChargeCallback, nonBlockingRouter);
     deleteOperations.add(deleteOperation);
+    readinessTracker.markReady(deleteOperation);
   }
 
   /**
@@ -117,7 +121,7 @@ class DeleteManager {
     long startTime = time.milliseconds();
     requestRegistrationCallback.setRequestsToSend(requestsToSend);
     requestRegistrationCallback.setRequestsToDrop(requestsToDrop);
-    for (DeleteOperation op : deleteOperations) {
+    for (DeleteOperation op : readinessTracker.getOperationsToPoll(deleteOperations)) {
       boolean exceptionEncountered = false;
       try {
         op.poll(requestRegistrationCallback);
@@ -164,6 +168,8 @@ class DeleteManager {
         if (deleteOperations.remove(deleteOperation)) {
           onComplete(deleteOperation);
         }
+      } else {
+        readinessTracker.markReady(deleteOperation);
       }
       routerMetrics.deleteManagerHandleResponseTimeMs.update(time.milliseconds() - startTime);
     } else {
@@ -27,10 +27,11 @@ import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
+import java.security.InvalidAlgorithmParameterException;
 import java.security.SecureRandom;
 import java.security.Security;
 import javax.crypto.Cipher;
-import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.slf4j.Logger;
@@ -39,7 +40,8 @@ import org.slf4j.LoggerFactory;
 
 /**
  * {@link CryptoService} which is capable of encrypting or decrypting bytes based on the given key.
- * This implementation uses GCM for encryption and decryption
+ * This implementation uses GCM for encryption and decryption, with the cipher of the JCE provider set in
+ * {@link CryptoServiceConfig#cryptoServiceProvider}. Each thread reuses its own {@link Cipher} instance.
  */
 public class GCMCryptoService implements CryptoService<SecretKeySpec> {
 
@@ -47,8 +49,12 @@ public class GCMCryptoService implements CryptoService<SecretKeySpec> {
   private static final short KEY_RECORD_VERSION_V_1 = 1;
   private static final short IV_RECORD_VERSION_V_1 = 1;
   private static final String GCM_CRYPTO_INSTANCE = "AES/GCM/NoPadding";
+  private static final String BOUNCY_CASTLE_PROVIDER = "BC";
+  private static final int GCM_TAG_SIZE_IN_BITS = 128;
   private final SecureRandom random = new SecureRandom();
   private final int ivValSize;
+  private final String provider;
+  private final ThreadLocal<Cipher> cipherCache = new ThreadLocal<>();
   private final CryptoServiceConfig config;
 
   private static final Logger logger = LoggerFactory.getLogger(GCMCryptoService.class);
@@ -56,11 +62,19 @@ public class GCMCryptoService implements CryptoService<SecretKeySpec> {
   public GCMCryptoService(CryptoServiceConfig cryptoServiceConfig) {
     config = cryptoServiceConfig;
     ivValSize = cryptoServiceConfig.cryptoServiceIvSizeInBytes;
-    Security.addProvider(new BouncyCastleProvider());
+    provider = cryptoServiceConfig.cryptoServiceProvider;
+    if (provider.equals(BOUNCY_CASTLE_PROVIDER)) {
+      Security.addProvider(new BouncyCastleProvider());
+    }
     if (!config.cryptoServiceEncryptionDecryptionMode.equals("GCM")) {
       throw new IllegalArgumentException(
           "Unrecognized Encryption Decryption Mode " + config.cryptoServiceEncryptionDecryptionMode);
     }
+    try {
+      Cipher.getInstance(GCM_CRYPTO_INSTANCE, provider);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalArgumentException("Unrecognized crypto provider " + provider, e);
+    }
   }
 
   @Override
@@ -80,12 +94,11 @@ public class GCMCryptoService implements CryptoService<SecretKeySpec> {
    */
   ByteBuffer encrypt(ByteBuffer toEncrypt, SecretKeySpec key, byte[] iv) throws GeneralSecurityException {
     try {
-      Cipher encrypter = Cipher.getInstance(GCM_CRYPTO_INSTANCE, "BC");
       if (iv == null) {
         iv = new byte[ivValSize];
         random.nextBytes(iv);
       }
-      encrypter.init(Cipher.ENCRYPT_MODE, key, new IvParameterSpec(iv));
+      Cipher encrypter = getCipher(Cipher.ENCRYPT_MODE, key, iv);
       int outputSize = encrypter.getOutputSize(toEncrypt.remaining());
       ByteBuffer encryptedContent = ByteBuffer.allocate(IVRecord_Format_V1.getIVRecordSize(iv) + outputSize);
       IVRecord_Format_V1.serializeIVRecord(encryptedContent, iv);
@@ -114,30 +127,19 @@ public class GCMCryptoService implements CryptoService<SecretKeySpec> {
    */
   public ByteBuf encrypt(ByteBuf toEncrypt, SecretKeySpec key, byte[] iv) throws GeneralSecurityException {
     ByteBuf encryptedContent = null;
-    ByteBuf temp = null;
     try {
-      Cipher encrypter = Cipher.getInstance(GCM_CRYPTO_INSTANCE, "BC");
       if (iv == null) {
         iv = new byte[ivValSize];
         random.nextBytes(iv);
       }
-      encrypter.init(Cipher.ENCRYPT_MODE, key, new IvParameterSpec(iv));
+      Cipher encrypter = getCipher(Cipher.ENCRYPT_MODE, key, iv);
       int outputSize = encrypter.getOutputSize(toEncrypt.readableBytes());
 
       encryptedContent = PooledByteBufAllocator.DEFAULT.ioBuffer(IVRecord_Format_V1.getIVRecordSize(iv) + outputSize);
       IVRecord_Format_V1.serializeIVRecord(encryptedContent, iv);
-
-      ByteBuffer toEncryptBuffer;
-      if (toEncrypt.nioBufferCount() != 1) {
-        temp = PooledByteBufAllocator.DEFAULT.ioBuffer(toEncrypt.readableBytes());
-        temp.writeBytes(toEncrypt);
-        toEncryptBuffer = temp.nioBuffer();
-      } else {
-        toEncryptBuffer = toEncrypt.nioBuffer();
-      }
       ByteBuffer encryptedContentBuffer = encryptedContent.nioBuffer(encryptedContent.writerIndex(),
           encryptedContent.capacity() - encryptedContent.writerIndex());
-      int n = encrypter.doFinal(toEncryptBuffer, encryptedContentBuffer);
+      int n = doFinal(encrypter, toEncrypt, encryptedContentBuffer);
       encryptedContent.writerIndex(encryptedContent.writerIndex() + n);
       toEncrypt.skipBytes(toEncrypt.readableBytes());
       return encryptedContent;
@@ -146,19 +148,14 @@ public class GCMCryptoService implements CryptoService<SecretKeySpec> {
         encryptedContent.release();
       }
       throw new GeneralSecurityException("Exception thrown while encrypting data", e);
-    } finally {
-      if (temp != null) {
-        temp.release();
-      }
     }
   }
 
   @Override
   public ByteBuffer decrypt(ByteBuffer toDecrypt, SecretKeySpec key) throws GeneralSecurityException {
     try {
-      Cipher decrypter = Cipher.getInstance(GCM_CRYPTO_INSTANCE, "BC");
       byte[] iv = deserializeIV(new ByteBufferInputStream(toDecrypt));
-      decrypter.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(iv));
+      Cipher decrypter = getCipher(Cipher.DECRYPT_MODE, key, iv);
       ByteBuffer decryptedContent = ByteBuffer.allocate(decrypter.getOutputSize(toDecrypt.remaining()));
       decrypter.doFinal(toDecrypt, decryptedContent);
       decryptedContent.flip();
@@ -171,25 +168,14 @@ public class GCMCryptoService implements CryptoService<SecretKeySpec> {
   @Override
   public ByteBuf decrypt(ByteBuf toDecrypt, SecretKeySpec key) throws GeneralSecurityException {
     ByteBuf decryptedContent = null;
-    ByteBuf temp = null;
     try {
-      Cipher decrypter = Cipher.getInstance(GCM_CRYPTO_INSTANCE, "BC");
       byte[] iv = deserializeIV(new ByteBufInputStream(toDecrypt));
-      decrypter.init(Cipher.DECRYPT_MODE, key, new IvParameterSpec(iv));
+      Cipher decrypter = getCipher(Cipher.DECRYPT_MODE, key, iv);
       int outputSize = decrypter.getOutputSize(toDecrypt.readableBytes());
       decryptedContent = PooledByteBufAllocator.DEFAULT.ioBuffer(outputSize);
 
-      ByteBuffer toDecryptBuffer;
-      if (toDecrypt.nioBufferCount() != 1) {
-        temp = PooledByteBufAllocator.DEFAULT.ioBuffer(toDecrypt.readableBytes());
-        temp.writeBytes(toDecrypt);
-        toDecryptBuffer = temp.nioBuffer();
-      } else {
-        toDecryptBuffer = toDecrypt.nioBuffer();
-      }
-
       ByteBuffer decryptedContentBuffer = decryptedContent.nioBuffer(0, outputSize);
-      int n = decrypter.doFinal(toDecryptBuffer, decryptedContentBuffer);
+      int n = doFinal(decrypter, toDecrypt, decryptedContentBuffer);
       decryptedContent.writerIndex(decryptedContent.writerIndex() + n);
       toDecrypt.skipBytes(toDecrypt.readableBytes());
       return decryptedContent;
@@ -197,11 +183,10 @@ public class GCMCryptoService implements CryptoService<SecretKeySpec> {
       if (toDecrypt != null) {
         toDecrypt.release();
       }
-      throw new GeneralSecurityException("Exception thrown while decrypting data", e);
-    } finally {
-      if (temp != null) {
-        temp.release();
+      if (decryptedContent != null) {
+        decryptedContent.release();
       }
+      throw new GeneralSecurityException("Exception thrown while decrypting data", e);
     }
   }
 
@@ -227,6 +212,54 @@ public class GCMCryptoService implements CryptoService<SecretKeySpec> {
     return new SecretKeySpec(deserializedKey.getEncodedKey(), deserializedKey.getKeyGenAlgo());
   }
 
+  /**
+   * Returns the {@link Cipher} of the calling thread, initialized with the given mode, key and iv.
+   * @param mode the mode of the cipher. Either {@link Cipher#ENCRYPT_MODE} or {@link Cipher#DECRYPT_MODE}.
+   * @param key the secret key to initialize the cipher with.
+   * @param iv the iv to initialize the cipher with.
+   * @return the initialized {@link Cipher}.
+   * @throws GeneralSecurityException
+   */
+  private Cipher getCipher(int mode, SecretKeySpec key, byte[] iv) throws GeneralSecurityException {
+    GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_SIZE_IN_BITS, iv);
+    Cipher cipher = cipherCache.get();
+    if (cipher != null) {
+      try {
+        cipher.init(mode, key, parameterSpec);
+        return cipher;
+      } catch (InvalidAlgorithmParameterException e) {
+        // GCM ciphers refuse to encrypt again with the key and iv of their last encryption, which only happens when
+        // the iv is fixed. A new cipher does not know about the previous encryption.
+        logger.trace("Failed to reinitialize the cached cipher, creating a new one", e);
+      }
+    }
+    cipher = Cipher.getInstance(GCM_CRYPTO_INSTANCE, provider);
+    cipher.init(mode, key, parameterSpec);
+    cipherCache.set(cipher);
+    return cipher;
+  }
+
+  /**
+   * Encrypts or decrypts all the readable bytes of {@code input} into {@code output}. The components of a composite
+   * {@link ByteBuf} are passed to the cipher one after the other, instead of being copied into a contiguous buffer.
+   * @param cipher the initialized {@link Cipher}.
+   * @param input the {@link ByteBuf} to encrypt or decrypt. Its reader index is not changed.
+   * @param output the {@link ByteBuffer} to write the result to.
+   * @return the number of bytes written to {@code output}.
+   * @throws GeneralSecurityException
+   */
+  private static int doFinal(Cipher cipher, ByteBuf input, ByteBuffer output) throws GeneralSecurityException {
+    ByteBuffer[] inputBuffers = input.nioBuffers();
+    if (inputBuffers.length == 0) {
+      return cipher.doFinal(ByteBuffer.allocate(0), output);
+    }
+    int n = 0;
+    for (int i = 0; i < inputBuffers.length - 1; i++) {
+      n += cipher.update(inputBuffers[i], output);
+    }
+    return n + cipher.doFinal(inputBuffers[inputBuffers.length - 1], output);
+  }
+
   /**
    * Deserialize IV from the stream
    * @param stream the stream from which IV needs to be deserialized
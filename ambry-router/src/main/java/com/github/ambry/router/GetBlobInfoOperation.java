@@ -447,7 +447,7 @@ class GetBlobInfoOperation extends GetOperation {
                   progressTracker.setCryptoJobFailed();
                 }
                 decryptJobMetricsTracker.onJobResultProcessingComplete();
-                routerCallback.onPollReady();
+                routerCallback.onPollReady(this);
               }));
     }
   }
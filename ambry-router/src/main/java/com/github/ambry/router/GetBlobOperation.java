@@ -20,6 +20,7 @@ import com.github.ambry.commons.BlobId;
 import com.github.ambry.commons.BlobIdFactory;
 import com.github.ambry.commons.Callback;
 import com.github.ambry.commons.ResponseHandler;
+import com.github.ambry.commons.RetainingAsyncWritableChannel;
 import com.github.ambry.config.RouterConfig;
 import com.github.ambry.messageformat.BlobAll;
 import com.github.ambry.messageformat.BlobData;
@@ -329,10 +330,13 @@ class GetBlobOperation extends GetOperation {
           // poll it periodically. If any exception is encountered while processing subsequent chunks, those will be
           // notified during the channel read.
           long timeElapsed = time.milliseconds() - submissionTimeMs;
-          if (isEncrypted) {
-            routerMetrics.getEncryptedBlobOperationLatencyMs.update(timeElapsed);
-          } else {
-            routerMetrics.getBlobOperationLatencyMs.update(timeElapsed);
+          // the latency of a data chunk fetched on behalf of a composite blob GET is part of the latency of that GET.
+          if (!options.isDataChunk) {
+            if (isEncrypted) {
+              routerMetrics.getEncryptedBlobOperationLatencyMs.update(timeElapsed);
+            } else {
+              routerMetrics.getBlobOperationLatencyMs.update(timeElapsed);
+            }
           }
           if (e == null) {
             if (blobInfo != null) {
@@ -527,7 +531,7 @@ class GetBlobOperation extends GetOperation {
         }
         lastChunkWrittenDoneTime.set(SystemTime.getInstance().milliseconds());
         numChunksWrittenOut.incrementAndGet();
-        routerCallback.onPollReady();
+        routerCallback.onPollReady(GetBlobOperation.this);
       }
     };
     // the index of the next chunk that is to be written out to the asyncWritableChannel.
@@ -557,7 +561,7 @@ class GetBlobOperation extends GetOperation {
       if (operationException.get() != null) {
         completeRead();
       }
-      routerCallback.onPollReady();
+      routerCallback.onPollReady(GetBlobOperation.this);
       return readIntoFuture;
     }
 
@@ -631,25 +635,36 @@ class GetBlobOperation extends GetOperation {
         if (readIntoCallback != null) {
           readIntoCallback.onCompletion(bytesWritten.get(), e);
         }
-        if (e == null) {
-          updateChunkingAndSizeMetricsOnSuccessfulGet();
-        } else {
-          logger.warn(
-              "GetBlobOperationError BlobId: {}, numChunksRetrieved:{}, numChunksWrittenOut: {}. Time since last chunk write done: {}ms",
-              blobId, numChunksRetrieved, numChunksWrittenOut,
-              SystemTime.getInstance().milliseconds() - lastChunkWrittenDoneTime.get(), e);
-          routerMetrics.onGetBlobError(e, options, isEncrypted);
-        }
-        long totalTime = time.milliseconds() - submissionTimeMs;
-        if (isEncrypted) {
-          routerMetrics.getEncryptedBlobOperationTotalTimeMs.update(totalTime);
-        } else {
-          routerMetrics.getBlobOperationTotalTimeMs.update(totalTime);
+        // a data chunk fetched on behalf of a composite blob GET is accounted for by that GET.
+        if (!options.isDataChunk) {
+          updateMetricsOnReadComplete(e);
         }
       }
       setOperationCompleted();
     }
 
+    /**
+     * Update the metrics of the GET once the read from this channel is complete.
+     * @param e the exception the read completed with, if any.
+     */
+    private void updateMetricsOnReadComplete(Exception e) {
+      if (e == null) {
+        updateChunkingAndSizeMetricsOnSuccessfulGet();
+      } else {
+        logger.warn(
+            "GetBlobOperationError BlobId: {}, numChunksRetrieved:{}, numChunksWrittenOut: {}. Time since last chunk write done: {}ms",
+            blobId, numChunksRetrieved, numChunksWrittenOut,
+            SystemTime.getInstance().milliseconds() - lastChunkWrittenDoneTime.get(), e);
+        routerMetrics.onGetBlobError(e, options, isEncrypted);
+      }
+      long totalTime = time.milliseconds() - submissionTimeMs;
+      if (isEncrypted) {
+        routerMetrics.getEncryptedBlobOperationTotalTimeMs.update(totalTime);
+      } else {
+        routerMetrics.getBlobOperationTotalTimeMs.update(totalTime);
+      }
+    }
+
     /**
      * Update chunking and size related metrics - blob size, chunk count, and whether the blob is simple or composite.
      */
@@ -708,7 +723,7 @@ class GetBlobOperation extends GetOperation {
     // the operation tracker used to track the operation on the current chunk.
     private OperationTracker chunkOperationTracker;
     // the blob id of the current chunk.
-    private BlobId chunkBlobId;
+    protected BlobId chunkBlobId;
     // byte offset of the data in the chunk relative to the entire blob
     private long offset;
     // size of the chunk
@@ -1254,7 +1269,7 @@ class GetBlobOperation extends GetOperation {
             return;
           }
           decryptCallbackResultInfo.setResultAndException(result, exception);
-          routerCallback.onPollReady();
+          routerCallback.onPollReady(GetBlobOperation.this);
           decryptJobMetricsTracker.onJobCallbackProcessingComplete();
         }));
         return true;
@@ -1454,7 +1469,7 @@ class GetBlobOperation extends GetOperation {
      * @param errorCode the error code to use.
      * @return a {@link RouterException} with additional info about the chunk that failed.
      */
-    private RouterException buildChunkException(String message, Throwable cause, RouterErrorCode errorCode) {
+    protected RouterException buildChunkException(String message, Throwable cause, RouterErrorCode errorCode) {
       return new RouterException(message + ". Chunk ID: " + chunkBlobId, cause, errorCode);
     }
 
@@ -1480,6 +1495,147 @@ class GetBlobOperation extends GetOperation {
     }
   }
 
+  /**
+   * A GetChunk that fetches its data chunk through a GET operation submitted with
+   * {@link NonBlockingRouter#getDataChunk}, instead of sending the requests itself. This spreads the data chunks of a
+   * composite blob over all the {@link OperationController}s, while this operation still writes them out in order.
+   * The GET of the data chunk takes care of retries, decryption and decompression.
+   */
+  private class DelegatedGetChunk extends GetChunk {
+    // the fetch of the current data chunk, if one was submitted.
+    private DataChunkFetch fetch;
+
+    /**
+     * Construct a DelegatedGetChunk
+     * @param index the index (in the overall blob) of the initial data chunk that this GetChunk has to fetch.
+     * @param chunkMetadata the {@link BlobId}, data content size, and offset relative to the total blob
+     *                           of the initial data chunk that this GetChunk has to fetch.
+     */
+    DelegatedGetChunk(int index, CompositeBlobInfo.ChunkMetadata chunkMetadata) {
+      super(index, chunkMetadata);
+    }
+
+    @Override
+    void reset() {
+      maybeReleaseDecryptionResultBuffer();
+      fetch = null;
+      super.reset();
+    }
+
+    /**
+     * Submit the GET of the data chunk if it was not submitted yet, and take over the data once it is fetched.
+     */
+    @Override
+    void poll(RequestRegistrationCallback<GetOperation> requestRegistrationCallback) {
+      if (state == ChunkState.Ready) {
+        fetch = new DataChunkFetch();
+        state = ChunkState.InProgress;
+        GetBlobOptions chunkOptions = new GetBlobOptionsBuilder().operationType(GetBlobOptions.OperationType.Data)
+            .getOption(getGetOption())
+            .build();
+        nonBlockingRouter.getDataChunk(chunkBlobId.getID(), blobId.hashCode() + chunkIndex,
+            new GetBlobOptionsInternal(chunkOptions, false, options.ageAtAccessTracker, true), fetch,
+            quotaChargeCallback);
+      }
+      if (fetch != null && fetch.isDone()) {
+        ByteBuf content = fetch.takeContent();
+        if (content != null) {
+          routerMetrics.getDataChunkLatencyMs.update(time.milliseconds() - initializedTimeMs);
+          chunkIndexToBuf.put(chunkIndex, filterChunkToRange(content));
+          numChunksRetrieved.incrementAndGet();
+        } else {
+          Exception exception = fetch.getException();
+          setChunkException(exception instanceof RouterException ? (RouterException) exception
+              : buildChunkException("Fetching the data chunk failed", exception,
+                  RouterErrorCode.UnexpectedInternalError));
+        }
+        fetch = null;
+        chunkCompleted = true;
+        setOperationException(chunkException);
+        state = ChunkState.Complete;
+      }
+    }
+
+    /**
+     * Abandon the fetch in progress, if any, so that its data is released when it arrives.
+     */
+    @Override
+    protected void maybeReleaseDecryptionResultBuffer() {
+      DataChunkFetch currentFetch = fetch;
+      if (currentFetch != null) {
+        currentFetch.abandon();
+      }
+    }
+  }
+
+  /**
+   * The {@link Callback} of the GET of a data chunk submitted by a {@link DelegatedGetChunk}. It reads the data of the
+   * chunk out of the {@link GetBlobResult} and wakes this operation up.
+   */
+  private class DataChunkFetch implements Callback<GetBlobResult> {
+    private final AtomicReference<ByteBuf> content = new AtomicReference<>();
+    private volatile Exception exception;
+    private volatile boolean done = false;
+    private volatile boolean abandoned = false;
+
+    @Override
+    public void onCompletion(GetBlobResult result, Exception e) {
+      if (e != null) {
+        complete(null, e);
+        return;
+      }
+      RetainingAsyncWritableChannel channel = new RetainingAsyncWritableChannel();
+      result.getBlobDataChannel().readInto(channel, (bytesRead, readException) -> {
+        if (readException != null) {
+          channel.close();
+          complete(null, readException);
+        } else {
+          complete(channel.consumeContentAsByteBuf(), null);
+        }
+      });
+    }
+
+    /**
+     * @return {@code true} if the data was fetched or the fetch failed.
+     */
+    boolean isDone() {
+      return done;
+    }
+
+    /**
+     * @return the data of the chunk, to be released by the caller, or {@code null} if the fetch failed.
+     */
+    ByteBuf takeContent() {
+      return content.getAndSet(null);
+    }
+
+    /**
+     * @return the exception the fetch failed with, if any.
+     */
+    Exception getException() {
+      return exception;
+    }
+
+    /**
+     * Release the data of the chunk, now or when it arrives.
+     */
+    void abandon() {
+      abandoned = true;
+      ReferenceCountUtil.safeRelease(takeContent());
+    }
+
+    private void complete(ByteBuf data, Exception e) {
+      content.set(data);
+      exception = e;
+      done = true;
+      if (abandoned) {
+        ReferenceCountUtil.safeRelease(takeContent());
+      } else {
+        routerCallback.onPollReady(GetBlobOperation.this);
+      }
+    }
+  }
+
   /**
    * Special GetChunk used to retrieve and hold the first chunk of a blob. The first chunk is special because it
    * could either be a metadata chunk of a composite blob, or the single chunk of a simple blob,
@@ -1806,7 +1962,7 @@ class GetBlobOperation extends GetOperation {
                           "Handling decrypt job call back for Metadata chunk {} to set decrypt callback results",
                           blobId);
                       decryptCallbackResultInfo.setResultAndException(result, exception);
-                      routerCallback.onPollReady();
+                      routerCallback.onPollReady(GetBlobOperation.this);
                       decryptJobMetricsTracker.onJobCallbackProcessingComplete();
                     }
                   }));
@@ -1830,7 +1986,8 @@ class GetBlobOperation extends GetOperation {
         for (int i = 0; i < dataChunks.length; i++) {
           int idx = chunkIdIterator.nextIndex();
           CompositeBlobInfo.ChunkMetadata keyAndOffset = chunkIdIterator.next();
-          dataChunks[i] = new GetChunk(idx, keyAndOffset);
+          dataChunks[i] = nonBlockingRouter.isDataChunkSpreadingEnabled() ? new DelegatedGetChunk(idx, keyAndOffset)
+              : new GetChunk(idx, keyAndOffset);
         }
       }
     }
@@ -46,6 +46,7 @@ class GetManager {
   private static final Logger logger = LoggerFactory.getLogger(GetManager.class);
 
   private final Set<GetOperation> getOperations;
+  private final OperationReadinessTracker<GetOperation> readinessTracker;
   private final KeyManagementService kms;
   private final CryptoService cryptoService;
   private final CryptoJobHandler cryptoJobHandler;
@@ -100,6 +101,8 @@ class GetManager {
     this.cryptoJobHandler = cryptoJobHandler;
     this.time = time;
     getOperations = ConcurrentHashMap.newKeySet();
+    readinessTracker =
+        new OperationReadinessTracker<>(routerConfig, time, routerMetrics.getManagerPolledOperationCount);
     correlationIdToGetOperation = new HashMap<>();
     requestRegistrationCallback = new RequestRegistrationCallback<>(correlationIdToGetOperation);
     this.blobMetadataCache = blobMetadataCache;
@@ -131,7 +134,9 @@ class GetManager {
         && blobId.getDatacenterId() != clusterMap.getLocalDatacenterId()) {
       routerMetrics.getBlobNotOriginateLocalOperationRate.mark();
     }
-    trackGetBlobRateMetrics(options.getBlobOptions, isEncrypted);
+    if (!options.isDataChunk) {
+      trackGetBlobRateMetrics(options.getBlobOptions, isEncrypted);
+    }
 
     if (!routerConfig.routerUseGetBlobOperationForBlobInfo
         && options.getBlobOptions.getOperationType() == GetBlobOptions.OperationType.BlobInfo) {
@@ -145,6 +150,15 @@ class GetManager {
               quotaChargeCallback, blobMetadataCache, nonBlockingRouter, compressionService);
     }
     getOperations.add(getOperation);
+    readinessTracker.markReady(getOperation);
+  }
+
+  /**
+   * Mark a get operation as ready to make progress, so that it gets polled in the next poll.
+   * @param op the {@link GetOperation} that is ready.
+   */
+  void markReady(GetOperation op) {
+    readinessTracker.markReady(op);
   }
 
   /**
@@ -202,7 +216,7 @@ class GetManager {
     long startTime = time.milliseconds();
     requestRegistrationCallback.setRequestsToSend(requestsToSend);
     requestRegistrationCallback.setRequestsToDrop(requestsToDrop);
-    for (GetOperation op : getOperations) {
+    for (GetOperation op : readinessTracker.getOperationsToPoll(getOperations)) {
       try {
         op.poll(requestRegistrationCallback);
         if (op.isOperationComplete()) {
@@ -239,6 +253,8 @@ class GetManager {
         getOperation.handleResponse(responseInfo, getResponse);
         if (getOperation.isOperationComplete()) {
           remove(getOperation);
+        } else {
+          readinessTracker.markReady(getOperation);
         }
       } catch (Exception e) {
         removeAndAbort(getOperation, new RouterException("Get handleResponse encountered unexpected error", e,
@@ -285,6 +301,7 @@ class GetBlobOptionsInternal {
   final GetBlobOptions getBlobOptions;
   final boolean getChunkIdsOnly;
   final NonBlockingRouterMetrics.AgeAtAccessMetrics ageAtAccessTracker;
+  final boolean isDataChunk;
 
   /**
    * Construct an GetBlobOptionsInternal instance
@@ -294,8 +311,22 @@ class GetBlobOptionsInternal {
    */
   GetBlobOptionsInternal(GetBlobOptions getBlobOptions, boolean getChunkIdsOnly,
       NonBlockingRouterMetrics.AgeAtAccessMetrics ageAtAccessTracker) {
+    this(getBlobOptions, getChunkIdsOnly, ageAtAccessTracker, false);
+  }
+
+  /**
+   * Construct an GetBlobOptionsInternal instance
+   * @param getBlobOptions the {@link GetBlobOptions} associated with this instance.
+   * @param getChunkIdsOnly {@code true} if this operation is to fetch just the chunk ids of a composite blob.
+   * @param ageAtAccessTracker the {@link NonBlockingRouterMetrics.AgeAtAccessMetrics} tracker to use.
+   * @param isDataChunk {@code true} if this operation fetches a data chunk on behalf of the GET of a composite blob.
+   *                    Such operations are not counted as blob GETs in the metrics.
+   */
+  GetBlobOptionsInternal(GetBlobOptions getBlobOptions, boolean getChunkIdsOnly,
+      NonBlockingRouterMetrics.AgeAtAccessMetrics ageAtAccessTracker, boolean isDataChunk) {
     this.getBlobOptions = getBlobOptions;
     this.getChunkIdsOnly = getChunkIdsOnly;
     this.ageAtAccessTracker = ageAtAccessTracker;
+    this.isDataChunk = isDataChunk;
   }
 }
@@ -114,7 +114,8 @@ public class NonBlockingRouter implements Router {
      * as it will be passed further down.
      */
     this.blobMetadataCache = blobMetadataCache;
-    ocCount = routerConfig.routerScalingUnitCount;
+    ocCount = routerConfig.routerScalingUnitCount == 0 ? Runtime.getRuntime().availableProcessors()
+        : routerConfig.routerScalingUnitCount;
     ocList = new ArrayList<>();
     for (int i = 0; i < ocCount; i++) {
       ocList.add(
@@ -275,6 +276,40 @@ public class NonBlockingRouter implements Router {
     return ocList.get(ThreadLocalRandom.current().nextInt(ocCount));
   }
 
+  /**
+   * @return {@code true} if the data chunks of composite blob GETs should be fetched through
+   *         {@link #getDataChunk}, so that they are spread over all the {@link OperationController}s.
+   */
+  boolean isDataChunkSpreadingEnabled() {
+    return routerConfig.routerGetDataChunkSpreadingEnabled && ocCount > 1;
+  }
+
+  /**
+   * Submits the GET of a data chunk of a composite blob on behalf of a {@link GetBlobOperation}. The chunk is fetched
+   * by the {@link OperationController} at the given index (modulo the number of controllers), so that consecutive
+   * chunks of a blob are fetched by different controllers.
+   * @param chunkIdStr the ID of the data chunk.
+   * @param controllerIndex the index of the {@link OperationController} to fetch the chunk with.
+   * @param options the {@link GetBlobOptionsInternal} of the GET of the data chunk.
+   * @param callback the {@link Callback} to invoke when the data of the chunk is available, or on failure.
+   * @param quotaChargeCallback the {@link QuotaChargeCallback} of the GET of the composite blob.
+   */
+  void getDataChunk(String chunkIdStr, int controllerIndex, GetBlobOptionsInternal options,
+      Callback<GetBlobResult> callback, QuotaChargeCallback quotaChargeCallback) {
+    currentOperationsCount.incrementAndGet();
+    routerMetrics.getDataChunkSpreadCount.inc();
+    if (!isOpen.get()) {
+      completeOperation(null, callback, null,
+          new RouterException("Cannot accept operation because Router is closed", RouterErrorCode.RouterClosed));
+      return;
+    }
+    try {
+      ocList.get(Math.floorMod(controllerIndex, ocCount)).getBlob(chunkIdStr, options, callback, quotaChargeCallback);
+    } catch (RouterException e) {
+      completeOperation(null, callback, null, e);
+    }
+  }
+
   /**
    * Requests for the blob data asynchronously with user-set {@link GetBlobOptions} and invokes the {@link Callback}
    * when the request completes.
@@ -175,6 +175,15 @@ public class NonBlockingRouterMetrics {
   public final Histogram undeleteManagerHandleResponseTimeMs;
   public final Histogram ttlUpdateManagerHandleResponseTimeMs;
   public final Histogram replicateBlobManagerHandleResponseTimeMs;
+  // number of operations polled by each operation manager in a poll.
+  public final Histogram putManagerPolledOperationCount;
+  public final Histogram getManagerPolledOperationCount;
+  public final Histogram deleteManagerPolledOperationCount;
+  public final Histogram undeleteManagerPolledOperationCount;
+  public final Histogram ttlUpdateManagerPolledOperationCount;
+  public final Histogram replicateBlobManagerPolledOperationCount;
+  // time spent in a loop of the RequestResponseHandler thread, excluding the time waiting on the network.
+  public final Histogram operationControllerLoopTimeMs;
   // time spent in getting a chunk filled once it is available.
   public final Histogram chunkFillTimeMs;
   // time spent in encrypting a chunk once filling is complete
@@ -204,6 +213,7 @@ public class NonBlockingRouterMetrics {
   public final Counter simpleUnencryptedBlobSizeMismatchCount;
   public final Counter compositeBlobSizeMismatchCount;
   public final Counter unknownPartitionClassCount;
+  public final Counter putPartitionSelectedByLoadCount;
   public final Counter updateOptimizedCount;
   public final Counter updateUnOptimizedCount;
   // Number of unnecessary blob gets avoided via use of BlobDataType
@@ -211,6 +221,7 @@ public class NonBlockingRouterMetrics {
   public Gauge<Long> chunkFillerThreadRunning;
   public Gauge<Long> requestResponseHandlerThreadRunning;
   public final Counter getBlobRetryCount;
+  public final Counter getDataChunkSpreadCount;
 
   // metrics for tracking blob sizes and chunking.
   public final Histogram putBlobSizeBytes;
@@ -514,6 +525,20 @@ public class NonBlockingRouterMetrics {
         metricRegistry.histogram(MetricRegistry.name(TtlUpdateManager.class, "TtlUpdateManagerHandleResponseTimeMs"));
     replicateBlobManagerHandleResponseTimeMs = metricRegistry.histogram(
         MetricRegistry.name(ReplicateBlobManager.class, "ReplicateBlobManagerHandleResponseTimeMs"));
+    putManagerPolledOperationCount =
+        metricRegistry.histogram(MetricRegistry.name(PutManager.class, "PutManagerPolledOperationCount"));
+    getManagerPolledOperationCount =
+        metricRegistry.histogram(MetricRegistry.name(GetManager.class, "GetManagerPolledOperationCount"));
+    deleteManagerPolledOperationCount =
+        metricRegistry.histogram(MetricRegistry.name(DeleteManager.class, "DeleteManagerPolledOperationCount"));
+    undeleteManagerPolledOperationCount =
+        metricRegistry.histogram(MetricRegistry.name(UndeleteManager.class, "UndeleteManagerPolledOperationCount"));
+    ttlUpdateManagerPolledOperationCount =
+        metricRegistry.histogram(MetricRegistry.name(TtlUpdateManager.class, "TtlUpdateManagerPolledOperationCount"));
+    replicateBlobManagerPolledOperationCount = metricRegistry.histogram(
+        MetricRegistry.name(ReplicateBlobManager.class, "ReplicateBlobManagerPolledOperationCount"));
+    operationControllerLoopTimeMs =
+        metricRegistry.histogram(MetricRegistry.name(OperationController.class, "OperationControllerLoopTimeMs"));
     chunkFillTimeMs = metricRegistry.histogram(MetricRegistry.name(PutManager.class, "ChunkFillTimeMs"));
     encryptTimeMs = metricRegistry.histogram(MetricRegistry.name(PutManager.class, "EncryptTimeMs"));
     decryptTimeMs = metricRegistry.histogram(MetricRegistry.name(GetManager.class, "DecryptTimeMs"));
@@ -545,11 +570,15 @@ public class NonBlockingRouterMetrics {
         metricRegistry.counter(MetricRegistry.name(GetBlobOperation.class, "CompositeBlobSizeMismatchCount"));
     unknownPartitionClassCount =
         metricRegistry.counter(MetricRegistry.name(PutOperation.class, "UnknownPartitionClassCount"));
+    putPartitionSelectedByLoadCount =
+        metricRegistry.counter(MetricRegistry.name(PutPartitionSelector.class, "PartitionSelectedByLoadCount"));
     updateOptimizedCount =
         metricRegistry.counter(MetricRegistry.name(OperationController.class, "UpdateOptimizedCount"));
     updateUnOptimizedCount =
         metricRegistry.counter(MetricRegistry.name(OperationController.class, "UpdateUnOptimizedCount"));
     getBlobRetryCount = metricRegistry.counter(MetricRegistry.name(GetBlobOperation.class, "GetBlobRetryCount"));
+    getDataChunkSpreadCount =
+        metricRegistry.counter(MetricRegistry.name(GetBlobOperation.class, "GetDataChunkSpreadCount"));
 
     // metrics to track blob sizes and chunking.
     putBlobSizeBytes = metricRegistry.histogram(MetricRegistry.name(PutManager.class, "PutBlobSizeBytes"));
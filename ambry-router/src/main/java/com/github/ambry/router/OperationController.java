@@ -69,6 +69,7 @@ public class OperationController implements Runnable {
   private final NetworkClient networkClient;
   private final ResponseHandler responseHandler;
   private final RouterConfig routerConfig;
+  private final Time time;
   private final Thread requestResponseHandlerThread;
   private final CountDownLatch shutDownLatch = new CountDownLatch(1);
   private final List<BackgroundDeleteRequest> backgroundDeleteRequests = new ArrayList<>();
@@ -104,6 +105,7 @@ public class OperationController implements Runnable {
       NonBlockingRouter nonBlockingRouter) throws IOException {
     networkClient = networkClientFactory.getNetworkClient();
     this.routerConfig = routerConfig;
+    this.time = time;
     this.routerMetrics = routerMetrics;
     this.responseHandler = responseHandler;
     this.nonBlockingRouter = nonBlockingRouter;
@@ -152,6 +154,14 @@ public class OperationController implements Runnable {
             routerMetrics, time, nonBlockingRouter);
     undeleteManager = new UndeleteManager(clusterMap, responseHandler, notificationSystem, accountService, routerConfig,
         routerMetrics, time, nonBlockingRouter);
+    // Chunk fills and crypto jobs of puts and gets complete in other threads, and make their operations ready.
+    routerCallback.setReadinessListener(operation -> {
+      if (operation instanceof PutOperation) {
+        putManager.markReady((PutOperation) operation);
+      } else if (operation instanceof GetOperation) {
+        getManager.markReady((GetOperation) operation);
+      }
+    });
     requestResponseHandlerThread = Utils.newThread("RequestResponseHandlerThread-" + suffix, this, true);
   }
 
@@ -617,14 +627,18 @@ public class OperationController implements Runnable {
       while (nonBlockingRouter.isOpen.get()) {
         List<RequestInfo> requestsToSend = new ArrayList<>();
         Set<Integer> requestsToDrop = new HashSet<>();
+        long pollStartTime = time.milliseconds();
         pollForRequests(requestsToSend, requestsToDrop);
+        long loopTimeMs = time.milliseconds() - pollStartTime;
 
         List<ResponseInfo> responseInfoList = networkClient.sendAndPoll(requestsToSend,
             routerConfig.routerDropRequestOnTimeout ? requestsToDrop : Collections.emptySet(),
             NETWORK_CLIENT_POLL_TIMEOUT);
+        long responseStartTime = time.milliseconds();
         responseInfoList.addAll(getNonQuotaCompliantResponses());
         onResponse(responseInfoList);
         responseInfoList.forEach(ResponseInfo::release);
+        routerMetrics.operationControllerLoopTimeMs.update(loopTimeMs + time.milliseconds() - responseStartTime);
       }
     } catch (Throwable e) {
       logger.error("Aborting, as requestResponseHandlerThread received an unexpected error: ", e);
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.router;
+
+import com.codahale.metrics.Histogram;
+import com.github.ambry.config.RouterConfig;
+import com.github.ambry.utils.Time;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Tracks the operations of an operation manager that are ready to make progress, so that a poll only has to go over
+ * them instead of all the operations of the manager. An operation is ready when it is submitted, when it receives a
+ * response, and when an asynchronous event such as a chunk fill or a crypto job completes for it.
+ * <p/>
+ * Request and operation timeouts are not signalled by any event, so all the operations are still polled once every
+ * {@link RouterConfig#routerOperationControllerFullPollIntervalMs}. If readiness tracking is disabled, every poll goes
+ * over all the operations.
+ * <p/>
+ * {@link #markReady} can be called from any thread. {@link #getOperationsToPoll} is only called from the
+ * RequestResponseHandler thread.
+ * @param <T> the type of the operations.
+ */
+class OperationReadinessTracker<T> {
+  private final boolean enabled;
+  private final long fullPollIntervalMs;
+  private final Time time;
+  private final Histogram readyOperationCount;
+  private final Set<T> readyOperations = ConcurrentHashMap.newKeySet();
+  private long lastFullPollTimeMs;
+
+  /**
+   * @param routerConfig the {@link RouterConfig} to tell whether readiness tracking is enabled.
+   * @param time the {@link Time} instance to use.
+   * @param readyOperationCount the {@link Histogram} to record the number of operations polled in each poll.
+   */
+  OperationReadinessTracker(RouterConfig routerConfig, Time time, Histogram readyOperationCount) {
+    this.enabled = routerConfig.routerOperationControllerReadinessTrackingEnabled;
+    this.fullPollIntervalMs = routerConfig.routerOperationControllerFullPollIntervalMs;
+    this.time = time;
+    this.readyOperationCount = readyOperationCount;
+    this.lastFullPollTimeMs = time.milliseconds();
+  }
+
+  /**
+   * Mark the operation as ready, so that it is polled in the next poll.
+   * @param operation the operation that is ready.
+   */
+  void markReady(T operation) {
+    if (enabled) {
+      readyOperations.add(operation);
+    }
+  }
+
+  /**
+   * Get the operations to poll, and reset the set of ready operations.
+   * @param operations all the operations of the manager. Ready operations that are not in this set any more have
+   *                   completed, and are not returned.
+   * @return all the operations if readiness tracking is disabled or a full poll is due, the ready operations otherwise.
+   */
+  Collection<T> getOperationsToPoll(Set<T> operations) {
+    Collection<T> operationsToPoll;
+    if (!enabled) {
+      operationsToPoll = operations;
+    } else if (time.milliseconds() - lastFullPollTimeMs >= fullPollIntervalMs) {
+      // clear before going over the operations, so that an operation marked ready concurrently is either polled now
+      // or stays in the ready set for the next poll.
+      readyOperations.clear();
+      lastFullPollTimeMs = time.milliseconds();
+      operationsToPoll = operations;
+    } else {
+      List<T> ready = new ArrayList<>();
+      Iterator<T> iterator = readyOperations.iterator();
+      while (iterator.hasNext()) {
+        T operation = iterator.next();
+        iterator.remove();
+        if (operations.contains(operation)) {
+          ready.add(operation);
+        }
+      }
+      operationsToPoll = ready;
+    }
+    readyOperationCount.update(operationsToPoll.size());
+    return operationsToPoll;
+  }
+}
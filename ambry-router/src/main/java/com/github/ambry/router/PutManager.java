@@ -50,6 +50,7 @@ class PutManager {
   private static final Logger logger = LoggerFactory.getLogger(PutManager.class);
 
   private final Set<PutOperation> putOperations;
+  private final OperationReadinessTracker<PutOperation> readinessTracker;
   private final NotificationSystem notificationSystem;
   private final KeyManagementService kms;
   private final CryptoService cryptoService;
@@ -82,6 +83,7 @@ class PutManager {
   private final RequestRegistrationCallback<PutOperation> requestRegistrationCallback;
   private final NonBlockingRouter nonBlockingRouter;
   private final CompressionService compressionService;
+  private final PutPartitionSelector partitionSelector;
 
   /**
    * Create a PutManager
@@ -129,6 +131,8 @@ class PutManager {
     this.accountService = accountService;
     this.time = time;
     putOperations = ConcurrentHashMap.newKeySet();
+    readinessTracker =
+        new OperationReadinessTracker<>(routerConfig, time, routerMetrics.putManagerPolledOperationCount);
     correlationIdToPutOperation = new HashMap<>();
     requestRegistrationCallback = new RequestRegistrationCallback<>(correlationIdToPutOperation);
     chunkFillerThread = Utils.newThread("ChunkFillerThread-" + suffix, new ChunkFiller(), true);
@@ -138,6 +142,7 @@ class PutManager {
 
     // TODO - use dependency injection when available.
     compressionService = new CompressionService(routerConfig.getCompressionConfig(), routerMetrics.compressionMetrics);
+    partitionSelector = new PutPartitionSelector(clusterMap, routerConfig, routerMetrics);
   }
 
   /**
@@ -159,7 +164,9 @@ class PutManager {
             userMetaData, channel, options, futureResult, callback, routerCallback, chunkArrivalListener, kms,
             cryptoService, cryptoJobHandler, time, blobProperties, partitionClass, quotaChargeCallback, compressionService);
     // TODO: netty send this request
+    putOperation.setPartitionSelector(partitionSelector);
     putOperations.add(putOperation);
+    readinessTracker.markReady(putOperation);
     putOperation.startOperation();
   }
 
@@ -179,7 +186,9 @@ class PutManager {
         PutOperation.forStitching(routerConfig, routerMetrics, clusterMap, notificationSystem, accountService,
             userMetaData, chunksToStitch, futureResult, callback, routerCallback, kms, cryptoService, cryptoJobHandler,
             time, blobProperties, partitionClass, quotaChargeCallback, compressionService);
+    putOperation.setPartitionSelector(partitionSelector);
     putOperations.add(putOperation);
+    readinessTracker.markReady(putOperation);
     putOperation.startOperation();
   }
 
@@ -201,7 +210,9 @@ class PutManager {
         PutOperation.forStitching(routerConfig, routerMetrics, clusterMap, notificationSystem, accountService,
             userMetaData, chunksToStitch, options, futureResult, callback, routerCallback, kms, cryptoService,
             cryptoJobHandler, time, blobProperties, partitionClass, quotaChargeCallback, compressionService);
+    putOperation.setPartitionSelector(partitionSelector);
     putOperations.add(putOperation);
+    readinessTracker.markReady(putOperation);
     putOperation.startOperation();
   }
 
@@ -226,9 +237,11 @@ class PutManager {
    */
   void poll(List<RequestInfo> requestsToSend, Set<Integer> requestsToDrop) {
     long startTime = time.milliseconds();
+    // the lists are shared with the other managers, so only the requests added from here on are PUT requests.
+    int firstRequestToSend = requestsToSend.size();
     requestRegistrationCallback.setRequestsToSend(requestsToSend);
     requestRegistrationCallback.setRequestsToDrop(requestsToDrop);
-    for (PutOperation op : putOperations) {
+    for (PutOperation op : readinessTracker.getOperationsToPoll(putOperations)) {
       try {
         op.poll(requestRegistrationCallback);
       } catch (Exception e) {
@@ -241,6 +254,11 @@ class PutManager {
         onComplete(op);
       }
     }
+    for (int i = firstRequestToSend; i < requestsToSend.size(); i++) {
+      RequestInfo requestInfo = requestsToSend.get(i);
+      partitionSelector.onRequestSent(requestInfo.getRequest().getCorrelationId(), requestInfo.getReplicaId());
+    }
+    requestsToDrop.forEach(partitionSelector::onRequestCompleted);
     routerMetrics.putManagerPollTimeMs.update(time.milliseconds() - startTime);
   }
 
@@ -255,6 +273,7 @@ class PutManager {
             PutResponse::readFrom, PutResponse::getError);
     RequestInfo routerRequestInfo = responseInfo.getRequestInfo();
     int correlationId = routerRequestInfo.getRequest().getCorrelationId();
+    partitionSelector.onRequestCompleted(correlationId);
     // Get the PutOperation that generated the request.
     PutOperation putOperation = correlationIdToPutOperation.remove(correlationId);
     // If it is still an active operation, hand over the response. Otherwise, ignore.
@@ -269,6 +288,8 @@ class PutManager {
       }
       if (putOperation.isOperationComplete() && putOperations.remove(putOperation)) {
         onComplete(putOperation);
+      } else {
+        readinessTracker.markReady(putOperation);
       }
       routerMetrics.putManagerHandleResponseTimeMs.update(time.milliseconds() - startTime);
     } else {
@@ -350,6 +371,14 @@ class PutManager {
     return Collections.unmodifiableSet(putOperations);
   }
 
+  /**
+   * Mark a put operation as ready to make progress, so that it gets polled in the next poll.
+   * @param op the {@link PutOperation} that is ready.
+   */
+  void markReady(PutOperation op) {
+    readinessTracker.markReady(op);
+  }
+
   void forceChunkFillerThreadToSleep() {
     forceChunkFillerThreadToSleep = true;
   }
@@ -132,6 +132,10 @@ class PutOperation {
   // All chunk compression will check this field and skip compression if this value FALSE.
   private boolean isBlobCompressible;
 
+  // The id of the Zstd dictionary to compress the chunks with, based on the container and the content-type of the
+  // blob, or 0 to compress without a dictionary.
+  private final long compressionDictionaryId;
+
   // Parameters associated with the state.
 
   // the list of PutChunks that will be used to hold chunks that are sent out. A PutChunk will only hold one chunk at
@@ -185,6 +189,8 @@ class PutOperation {
   private final CompressionService compressionService;
   private final ReservedMetadataIdMetrics reservedMetadataIdMetrics;
   private boolean isSimpleBlob;
+  // selects the partitions of the chunks if set, otherwise they are selected at random by the cluster map.
+  private PutPartitionSelector partitionSelector;
 
   private static final Logger logger = LoggerFactory.getLogger(PutOperation.class);
 
@@ -359,6 +365,9 @@ class PutOperation {
     this.quotaChargeCallback = quotaChargeCallback;
     this.compressionService = compressionService;
     this.isBlobCompressible = compressionService.isBlobCompressible(blobProperties);
+    this.compressionDictionaryId = isBlobCompressible && accountService != null ? compressionService.getDictionaryId(
+        RouterUtils.getAccountContainer(accountService, blobProperties.getAccountId(), blobProperties.getContainerId())
+            .getSecond(), blobProperties.getContentType()) : 0;
     bytesFilledSoFar = 0;
     chunkCounter = -1;
     putChunks = new ConcurrentLinkedQueue<>();
@@ -383,6 +392,15 @@ class PutOperation {
     this.metadataPutChunk = metadataPutChunk;
   }
 
+  /**
+   * Sets the {@link PutPartitionSelector} used to select the partitions of the chunks. Must be called before the
+   * operation is started.
+   * @param partitionSelector the {@link PutPartitionSelector} to use.
+   */
+  void setPartitionSelector(PutPartitionSelector partitionSelector) {
+    this.partitionSelector = partitionSelector;
+  }
+
   /**
    * @return {@code true} if blob needs to be encrypted. {@code false} otherwise
    */
@@ -414,7 +432,7 @@ class PutOperation {
     } finally {
       if (exception != null) {
         setOperationExceptionAndComplete(exception);
-        routerCallback.onPollReady();
+        routerCallback.onPollReady(this);
       }
     }
   }
@@ -430,7 +448,7 @@ class PutOperation {
       if (exception != null) {
         logger.info("{}: ChannelRead has exception, will terminate the operation", loggingContext, exception);
         setOperationExceptionAndComplete(exception);
-        routerCallback.onPollReady();
+        routerCallback.onPollReady(this);
       } else {
         blobSize = result;
         chunkFillingCompletedSuccessfully = true;
@@ -696,7 +714,7 @@ class PutOperation {
             enforceMaxUploadSize();
 
             if (chunkToFill.isReady() && !chunkToFill.chunkBlobProperties.isEncrypted()) {
-              routerCallback.onPollReady();
+              routerCallback.onPollReady(this);
             }
             if (!channelReadBuf.isReadable()) {
               chunkFillerChannel.resolveOldestChunk(null);
@@ -732,7 +750,7 @@ class PutOperation {
             updateChunkFillerWaitTimeMetrics();
           }
           if (lastChunk.isReady()) {
-            routerCallback.onPollReady();
+            routerCallback.onPollReady(this);
           }
         }
       }
@@ -758,7 +776,7 @@ class PutOperation {
       }
       routerMetrics.chunkFillerUnexpectedErrorCount.inc();
       setOperationExceptionAndComplete(routerException);
-      routerCallback.onPollReady();
+      routerCallback.onPollReady(this);
     }
   }
 
@@ -771,7 +789,7 @@ class PutOperation {
     if (resolutionAwaitingChunk != null) {
       resolutionAwaitingChunk.onFillComplete(true);
       if (resolutionAwaitingChunk.isReady()) {
-        routerCallback.onPollReady();
+        routerCallback.onPollReady(this);
       }
     }
   }
@@ -1191,6 +1209,10 @@ class PutOperation {
     // This value is set after compression has completed.  It is used to create PutRequest.
     private boolean isChunkCompressed;
 
+    // The compressor that the data of this chunk is written to as it is filled, when streaming compression applies.
+    // It is null if the chunk is compressed when it is complete.
+    private StreamingChunkCompressor streamingCompressor;
+
     /**
      * Construct a PutChunk
      */
@@ -1226,6 +1248,10 @@ class PutOperation {
      * This method might be called in main thread, encryption job thread or chunk filler thread, so it has to be protected.
      */
     synchronized void releaseBlobContent() {
+      if (streamingCompressor != null) {
+        streamingCompressor.release();
+        streamingCompressor = null;
+      }
       if (buf != null) {
         logger.trace("{}: releasing the chunk data for chunk {}", loggingContext, chunkIndex);
         ReferenceCountUtil.safeRelease(buf);
@@ -1472,7 +1498,7 @@ class PutOperation {
       }
       routerMetrics.encryptTimeMs.update(time.milliseconds() - chunkEncryptReadyAtMs);
       encryptJobMetricsTracker.onJobResultProcessingComplete();
-      routerCallback.onPollReady();
+      routerCallback.onPollReady(PutOperation.this);
       // double check if the operation is not completed. If so, we have to release the buf here, since in
       // main thread, chunk might already be released.
       if (isOperationComplete()) {
@@ -1496,9 +1522,20 @@ class PutOperation {
         return;
       }
 
-      // Note: compress() returns null if it failed.
+      // A chunk that is compressed with a dictionary but was not streamed, because streaming failed, is written to the
+      // compressor at once.  The compressor output is direct memory, which the encryption also accepts.
       boolean isFullChunk = (buf.readableBytes() == routerConfig.routerMaxPutChunkSizeBytes);
-      ByteBuf newBuffer = compressionService.compressChunk(buf, isFullChunk, outputDirectMemory);
+      StreamingChunkCompressor compressor = takeStreamingCompressor();
+      if (compressor == null && compressionDictionaryId != 0) {
+        compressor = compressionService.createStreamingCompressor(compressionDictionaryId);
+        if (compressor != null && !compressionService.writeStreamingCompressor(compressor, buf)) {
+          compressor = null;
+        }
+      }
+
+      // Note: compress() returns null if it failed.
+      ByteBuf newBuffer = compressor != null ? compressionService.finishStreamingCompression(compressor, isFullChunk)
+          : compressionService.compressChunk(buf, isFullChunk, outputDirectMemory);
       if (newBuffer != null) {
         buf.release();
         buf = newBuffer;
@@ -1506,6 +1543,38 @@ class PutOperation {
       }
     }
 
+    /**
+     * Writes the data just added to this chunk to its streaming compressor, so that it is compressed while the rest of
+     * the chunk is read. The compressor is created with the first data of the chunk. On failure, streaming is abandoned
+     * and the chunk is compressed when it is complete.
+     * @param data the data just added to this chunk.
+     * @param isFirstData {@code true} if this is the first data of the chunk.
+     */
+    private synchronized void writeToStreamingCompressor(ByteBuf data, boolean isFirstData) {
+      if (isFirstData) {
+        if (streamingCompressor != null) {
+          streamingCompressor.release();
+          streamingCompressor = null;
+        }
+        if (isMetadataChunk() || !isBlobCompressible) {
+          return;
+        }
+        streamingCompressor = compressionService.createStreamingCompressor(compressionDictionaryId);
+      }
+      if (streamingCompressor != null && !compressionService.writeStreamingCompressor(streamingCompressor, data)) {
+        streamingCompressor = null;
+      }
+    }
+
+    /**
+     * @return the streaming compressor of this chunk, which the caller is now responsible for, or {@code null}.
+     */
+    private synchronized StreamingChunkCompressor takeStreamingCompressor() {
+      StreamingChunkCompressor compressor = streamingCompressor;
+      streamingCompressor = null;
+      return compressor;
+    }
+
     /**
      * Submits encrypt job for the given {@link PutChunk} and processes the callback for the same
      */
@@ -1566,11 +1635,13 @@ class PutOperation {
         toWrite = Math.min(channelReadBuf.readableBytes(), routerConfig.routerMaxPutChunkSizeBytes);
         buf = channelReadBuf.readRetainedSlice(toWrite);
         buf.touch(loggingContext);
+        writeToStreamingCompressor(buf, true);
       } else {
         int remainingSize = routerConfig.routerMaxPutChunkSizeBytes - buf.readableBytes();
         toWrite = Math.min(channelReadBuf.readableBytes(), remainingSize);
         ByteBuf remainingSlice = channelReadBuf.readRetainedSlice(toWrite);
         remainingSlice.touch(loggingContext);
+        writeToStreamingCompressor(remainingSlice, false);
         // buf already has some bytes
         if (buf instanceof CompositeByteBuf) {
           // Buf is already a CompositeByteBuf, then just add the slice from
@@ -1772,7 +1843,8 @@ class PutOperation {
      */
     protected PartitionId getPartitionForPut(String partitionClass, List<PartitionId> partitionIdsToExclude)
         throws RouterException {
-      PartitionId selected = clusterMap.getRandomWritablePartition(partitionClass, partitionIdsToExclude);
+      PartitionId selected = partitionSelector != null ? partitionSelector.getPartitionForPut(partitionClass,
+          partitionIdsToExclude) : clusterMap.getRandomWritablePartition(partitionClass, partitionIdsToExclude);
       if (selected == null) {
         throw new RouterException("No writable partitions of class '" + partitionClass + "' or default available.",
             RouterErrorCode.AmbryUnavailable);
@@ -0,0 +1,169 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.router;
+
+import com.github.ambry.clustermap.ClusterMap;
+import com.github.ambry.clustermap.DataNodeId;
+import com.github.ambry.clustermap.PartitionId;
+import com.github.ambry.clustermap.ReplicaId;
+import com.github.ambry.config.RouterConfig;
+import com.github.ambry.utils.CachedHistogram;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Selects the partition of each chunk of a PUT according to {@link RouterConfig#routerPutPartitionSelectionStrategy}.
+ * <p/>
+ * With {@link PartitionSelectionStrategy#PowerOfTwoChoices}, the {@link ClusterMap} picks two writable partitions at
+ * random and the one with the lower load is used. The load of a partition is the highest expected latency of its local
+ * replicas. The expected latency of a replica is its recent PUT latency, as tracked for the
+ * {@link AdaptiveOperationTracker}, multiplied by one plus the number of PUT requests in flight to its data node. A
+ * partition with a local replica that is down is only used if the other partition has one as well.
+ * <p/>
+ * Partitions are selected by the chunk filler thread while requests are tracked by the operation controller thread, so
+ * this class is thread safe.
+ */
+class PutPartitionSelector {
+  // the lowest latency assumed for a replica, so that requests in flight count even if no latency was recorded.
+  private static final double MIN_LATENCY_MS = 1;
+  private final ClusterMap clusterMap;
+  private final RouterConfig routerConfig;
+  private final NonBlockingRouterMetrics routerMetrics;
+  private final String localDatacenterName;
+  private final boolean loadAware;
+  private final ConcurrentHashMap<DataNodeId, AtomicInteger> inFlightRequestCounts = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Integer, DataNodeId> inFlightRequests = new ConcurrentHashMap<>();
+
+  /**
+   * @param clusterMap the {@link ClusterMap} to select writable partitions from.
+   * @param routerConfig the {@link RouterConfig} that specifies the selection strategy.
+   * @param routerMetrics the {@link NonBlockingRouterMetrics} that contains the PUT latency histograms.
+   */
+  PutPartitionSelector(ClusterMap clusterMap, RouterConfig routerConfig, NonBlockingRouterMetrics routerMetrics) {
+    this.clusterMap = clusterMap;
+    this.routerConfig = routerConfig;
+    this.routerMetrics = routerMetrics;
+    localDatacenterName = clusterMap.getDatacenterName(clusterMap.getLocalDatacenterId());
+    loadAware = routerConfig.routerPutPartitionSelectionStrategy == PartitionSelectionStrategy.PowerOfTwoChoices;
+  }
+
+  /**
+   * Selects a writable partition for a chunk.
+   * @param partitionClass the partition class to choose partitions from.
+   * @param partitionsToExclude the partitions that should not be selected. Can be {@code null} or empty.
+   * @return the selected {@link PartitionId}, or {@code null} if there is no writable partition.
+   */
+  PartitionId getPartitionForPut(String partitionClass, List<PartitionId> partitionsToExclude) {
+    PartitionId first = clusterMap.getRandomWritablePartition(partitionClass, partitionsToExclude);
+    if (first == null || !loadAware) {
+      return first;
+    }
+    List<PartitionId> secondPartitionsToExclude = new ArrayList<>();
+    if (partitionsToExclude != null) {
+      secondPartitionsToExclude.addAll(partitionsToExclude);
+    }
+    secondPartitionsToExclude.add(first);
+    PartitionId second = clusterMap.getRandomWritablePartition(partitionClass, secondPartitionsToExclude);
+    if (second != null && getLoad(second) < getLoad(first)) {
+      routerMetrics.putPartitionSelectedByLoadCount.inc();
+      return second;
+    }
+    return first;
+  }
+
+  /**
+   * Records that a PUT request is sent to a replica.
+   * @param correlationId the correlation id of the request.
+   * @param replicaId the {@link ReplicaId} the request is sent to.
+   */
+  void onRequestSent(int correlationId, ReplicaId replicaId) {
+    if (!loadAware) {
+      return;
+    }
+    DataNodeId dataNodeId = replicaId.getDataNodeId();
+    if (inFlightRequests.put(correlationId, dataNodeId) == null) {
+      inFlightRequestCounts.computeIfAbsent(dataNodeId, k -> new AtomicInteger()).incrementAndGet();
+    }
+  }
+
+  /**
+   * Records that a request got a response or was dropped. Correlation ids of requests that were not recorded by
+   * {@link #onRequestSent} are ignored.
+   * @param correlationId the correlation id of the request.
+   */
+  void onRequestCompleted(int correlationId) {
+    if (!loadAware) {
+      return;
+    }
+    DataNodeId dataNodeId = inFlightRequests.remove(correlationId);
+    if (dataNodeId != null) {
+      inFlightRequestCounts.get(dataNodeId).decrementAndGet();
+    }
+  }
+
+  /**
+   * @param dataNodeId the {@link DataNodeId} to get the count for.
+   * @return the number of PUT requests in flight to the data node.
+   */
+  int getInFlightRequestCount(DataNodeId dataNodeId) {
+    AtomicInteger count = inFlightRequestCounts.get(dataNodeId);
+    return count == null ? 0 : count.get();
+  }
+
+  /**
+   * @param partitionId the {@link PartitionId} to get the load of.
+   * @return the highest expected latency of the local replicas of the partition, or {@link Double#MAX_VALUE} if one
+   *         of them is down.
+   */
+  double getLoad(PartitionId partitionId) {
+    double load = 0;
+    for (ReplicaId replicaId : partitionId.getReplicaIds()) {
+      if (!replicaId.getDataNodeId().getDatacenterName().equals(localDatacenterName)) {
+        continue;
+      }
+      if (replicaId.isDown()) {
+        return Double.MAX_VALUE;
+      }
+      double latencyMs = Math.max(getLatencyHistogram(replicaId).getCachedValue(), MIN_LATENCY_MS);
+      load = Math.max(load, latencyMs * (1 + getInFlightRequestCount(replicaId.getDataNodeId())));
+    }
+    return load;
+  }
+
+  /**
+   * @param replicaId the {@link ReplicaId} to get the histogram of.
+   * @return the histogram of PUT latencies of the resource of the replica, as defined by
+   *         {@link RouterConfig#routerOperationTrackerMetricScope}, or of the whole datacenter if there is none.
+   */
+  private CachedHistogram getLatencyHistogram(ReplicaId replicaId) {
+    CachedHistogram histogram = null;
+    switch (routerConfig.routerOperationTrackerMetricScope) {
+      case Partition:
+        histogram = routerMetrics.putBlobResourceToLatency.get(replicaId.getPartitionId());
+        break;
+      case DataNode:
+        histogram = routerMetrics.putBlobResourceToLatency.get(replicaId.getDataNodeId());
+        break;
+      case Disk:
+        histogram = routerMetrics.putBlobResourceToLatency.get(replicaId.getDiskId());
+        break;
+      default:
+        break;
+    }
+    return histogram != null ? histogram : routerMetrics.putBlobLatencyMs;
+  }
+}
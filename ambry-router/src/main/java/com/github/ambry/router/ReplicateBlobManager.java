@@ -40,6 +40,7 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 class ReplicateBlobManager {
   private final Set<ReplicateBlobOperation> replicateBlobOperations;
+  private final OperationReadinessTracker<ReplicateBlobOperation> readinessTracker;
   private final HashMap<Integer, ReplicateBlobOperation> correlationIdToReplicateBlobOperation;
   private final NotificationSystem notificationSystem;
   private final Time time;
@@ -73,6 +74,8 @@ class ReplicateBlobManager {
     this.routerConfig = routerConfig;
     this.routerMetrics = routerMetrics;
     this.time = time;
+    readinessTracker =
+        new OperationReadinessTracker<>(routerConfig, time, routerMetrics.replicateBlobManagerPolledOperationCount);
     this.nonBlockingRouter = nonBlockingRouter;
     replicateBlobOperations = ConcurrentHashMap.newKeySet();
     correlationIdToReplicateBlobOperation = new HashMap<>();
@@ -95,6 +98,7 @@ class ReplicateBlobManager {
         new ReplicateBlobOperation(clusterMap, routerConfig, routerMetrics, blobId, serviceId, sourceDataNode, callback,
             time, futureResult);
     replicateBlobOperations.add(replicateBlobOperation);
+    readinessTracker.markReady(replicateBlobOperation);
   }
 
   /**
@@ -107,7 +111,7 @@ class ReplicateBlobManager {
     long startTime = time.milliseconds();
     requestRegistrationCallback.setRequestsToSend(requestsToSend);
     requestRegistrationCallback.setRequestsToDrop(requestsToDrop);
-    for (ReplicateBlobOperation op : replicateBlobOperations) {
+    for (ReplicateBlobOperation op : readinessTracker.getOperationsToPoll(replicateBlobOperations)) {
       boolean exceptionEncountered = false;
       try {
         op.poll(requestRegistrationCallback);
@@ -154,6 +158,8 @@ class ReplicateBlobManager {
         if (replicateBlobOperations.remove(replicateBlobOperation)) {
           onComplete(replicateBlobOperation);
         }
+      } else {
+        readinessTracker.markReady(replicateBlobOperation);
       }
       routerMetrics.replicateBlobManagerHandleResponseTimeMs.update(time.milliseconds() - startTime);
     } else {
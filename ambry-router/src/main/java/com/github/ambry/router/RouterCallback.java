@@ -17,6 +17,7 @@ import com.github.ambry.network.NetworkClient;
 import com.github.ambry.quota.QuotaChargeCallback;
 import com.github.ambry.store.StoreKey;
 import java.util.List;
+import java.util.function.Consumer;
 
 
 /**
@@ -26,6 +27,7 @@ import java.util.List;
 class RouterCallback {
   private final NetworkClient networkClient;
   private final List<BackgroundDeleteRequest> backgroundDeleteRequests;
+  private volatile Consumer<Object> readinessListener = null;
 
   /**
    * Construct a RouterCallback object
@@ -51,6 +53,27 @@ class RouterCallback {
     networkClient.wakeup();
   }
 
+  /**
+   * Same as {@link #onPollReady()}, but also notifies the readiness listener that the given operation has work to do,
+   * so that it is polled in the next iteration even if the operation controller only polls ready operations.
+   * @param operation the operation for which the poll-eligible event occurred.
+   */
+  void onPollReady(Object operation) {
+    Consumer<Object> listener = readinessListener;
+    if (listener != null) {
+      listener.accept(operation);
+    }
+    onPollReady();
+  }
+
+  /**
+   * Set the listener to notify of the operations passed to {@link #onPollReady(Object)}.
+   * @param readinessListener the listener to notify.
+   */
+  void setReadinessListener(Consumer<Object> readinessListener) {
+    this.readinessListener = readinessListener;
+  }
+
   /**
    * Schedule the deletes of ids in the given list.
    * @param idsToDelete the list of ids that need to be deleted.
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.router;
+
+import com.github.ambry.compression.ZstdCompression;
+import com.github.luben.zstd.EndDirective;
+import com.github.luben.zstd.ZstdCompressCtx;
+import com.github.luben.zstd.ZstdDictCompress;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import java.nio.ByteBuffer;
+
+
+/**
+ * Compresses the data of a chunk with Zstd as it arrives, instead of combining the chunk into a single buffer and
+ * compressing it at once when it is complete.  Each {@link ByteBuf} written to the compressor is compressed right away,
+ * so the compression of a chunk overlaps with the reads of the rest of its data.  The output has the same format as
+ * {@link ZstdCompression#compress}, and is decompressed the same way.
+ * <p/>
+ * The output is a composite of fixed size direct buffers that are allocated as the compressed data grows, so a small
+ * chunk does not hold a buffer sized for a full chunk.  Zstd compresses from direct memory only, so heap data is
+ * copied to a small direct staging buffer on its way to the compressor.
+ * <p/>
+ * This class is not thread safe.
+ */
+class StreamingChunkCompressor {
+  static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+  private static final ByteBuffer EMPTY_BUFFER = ByteBuffer.allocateDirect(0);
+  private final ZstdCompression compression;
+  private final long dictionaryId;
+  private final ZstdCompressCtx context;
+  private final CompositeByteBuf compressedBuf;
+  private ByteBuffer outputBuffer;
+  private ByteBuf outputBuf;
+  private ByteBuf stagingBuf;
+  private int sourceDataSize = 0;
+  private long compressTimeInNanos = 0;
+  private boolean closed = false;
+
+  /**
+   * @param compression the {@link ZstdCompression} that defines the compression level and the output format.
+   * @param dictionary the dictionary to compress with. Can be {@code null}.
+   * @param dictionaryId the id of {@code dictionary}, or 0 if there is no dictionary.
+   */
+  StreamingChunkCompressor(ZstdCompression compression, ZstdDictCompress dictionary, long dictionaryId) {
+    this.compression = compression;
+    this.dictionaryId = dictionaryId;
+    context = new ZstdCompressCtx();
+    context.setLevel(compression.getCompressionLevel());
+    if (dictionary != null) {
+      context.loadDict(dictionary);
+    }
+    compressedBuf = PooledByteBufAllocator.DEFAULT.compositeDirectBuffer(Integer.MAX_VALUE);
+    addOutputBuffer();
+    // the header is written when the size of the source data is known.
+    outputBuffer.position(compression.getCompressedHeaderSize());
+  }
+
+  /**
+   * Compresses the readable bytes of {@code data}. The indexes of {@code data} are not changed. Zstd copies the data
+   * it has not compressed yet to its own window, so {@code data} can be released as soon as this method returns.
+   * @param data the next bytes of the chunk.
+   */
+  void write(ByteBuf data) {
+    long startTime = System.nanoTime();
+    for (ByteBuffer sourceBuffer : data.nioBuffers()) {
+      if (sourceBuffer.isDirect()) {
+        compressAll(sourceBuffer);
+      } else {
+        writeFromHeap(sourceBuffer);
+      }
+    }
+    compressTimeInNanos += System.nanoTime() - startTime;
+    sourceDataSize += data.readableBytes();
+  }
+
+  /**
+   * Ends the compression and returns the compressed data. The compressor cannot be used anymore after that.
+   * @return the compressed data. The caller is responsible for releasing it.
+   */
+  ByteBuf finish() {
+    long startTime = System.nanoTime();
+    while (!compress(EMPTY_BUFFER.duplicate(), EndDirective.END)) {
+      // the frame is flushed in as many calls as needed.
+    }
+    compressTimeInNanos += System.nanoTime() - startTime;
+    outputBuf.writerIndex(outputBuffer.position());
+    compressedBuf.addComponent(true, outputBuf);
+    outputBuf = null;
+    ByteBuffer headerBuffer = ByteBuffer.allocate(compression.getCompressedHeaderSize());
+    compression.writeCompressedHeader(headerBuffer, sourceDataSize);
+    headerBuffer.flip();
+    compressedBuf.setBytes(0, headerBuffer);
+    closed = true;
+    releaseContext();
+    return compressedBuf;
+  }
+
+  /**
+   * Releases the resources of the compressor if {@link #finish()} was not called.
+   */
+  void release() {
+    if (!closed) {
+      closed = true;
+      releaseContext();
+      if (outputBuf != null) {
+        outputBuf.release();
+      }
+      compressedBuf.release();
+    }
+  }
+
+  /**
+   * @return the number of bytes written to the compressor.
+   */
+  int getSourceDataSize() {
+    return sourceDataSize;
+  }
+
+  /**
+   * @return the time spent compressing, in nanoseconds.
+   */
+  long getCompressTimeInNanos() {
+    return compressTimeInNanos;
+  }
+
+  /**
+   * @return the id of the dictionary used to compress, or 0 if there is none.
+   */
+  long getDictionaryId() {
+    return dictionaryId;
+  }
+
+  /**
+   * Copies heap data to the staging buffer, one staging buffer at a time, and compresses it from there.
+   */
+  private void writeFromHeap(ByteBuffer sourceBuffer) {
+    if (stagingBuf == null) {
+      stagingBuf = PooledByteBufAllocator.DEFAULT.directBuffer(OUTPUT_BUFFER_SIZE, OUTPUT_BUFFER_SIZE);
+    }
+    ByteBuffer stagingBuffer = stagingBuf.nioBuffer(0, OUTPUT_BUFFER_SIZE);
+    while (sourceBuffer.hasRemaining()) {
+      int length = Math.min(sourceBuffer.remaining(), OUTPUT_BUFFER_SIZE);
+      ByteBuffer source = sourceBuffer.duplicate();
+      source.limit(source.position() + length);
+      stagingBuffer.clear();
+      stagingBuffer.put(source);
+      stagingBuffer.flip();
+      compressAll(stagingBuffer);
+      sourceBuffer.position(sourceBuffer.position() + length);
+    }
+  }
+
+  /**
+   * Compresses all the remaining bytes of a direct buffer.
+   */
+  private void compressAll(ByteBuffer sourceBuffer) {
+    while (sourceBuffer.hasRemaining()) {
+      compress(sourceBuffer, EndDirective.CONTINUE);
+    }
+  }
+
+  /**
+   * Releases the native context and the staging buffer.
+   */
+  private void releaseContext() {
+    context.close();
+    if (stagingBuf != null) {
+      stagingBuf.release();
+      stagingBuf = null;
+    }
+  }
+
+  /**
+   * Runs one step of the compression, and moves to a new output buffer when the current one is full.
+   * @return {@code true} if the step completed the given directive.
+   */
+  private boolean compress(ByteBuffer sourceBuffer, EndDirective directive) {
+    if (!outputBuffer.hasRemaining()) {
+      outputBuf.writerIndex(outputBuffer.position());
+      compressedBuf.addComponent(true, outputBuf);
+      addOutputBuffer();
+    }
+    return context.compressDirectByteBufferStream(outputBuffer, sourceBuffer, directive);
+  }
+
+  /**
+   * Allocates a new output buffer.
+   */
+  private void addOutputBuffer() {
+    outputBuf = PooledByteBufAllocator.DEFAULT.directBuffer(OUTPUT_BUFFER_SIZE, OUTPUT_BUFFER_SIZE);
+    outputBuffer = outputBuf.nioBuffer(0, OUTPUT_BUFFER_SIZE);
+  }
+}
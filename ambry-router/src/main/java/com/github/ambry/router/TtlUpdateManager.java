@@ -54,6 +54,7 @@ class TtlUpdateManager {
   private final NonBlockingRouterMetrics routerMetrics;
   private final RouterConfig routerConfig;
   private final Set<TtlUpdateOperation> ttlUpdateOperations = ConcurrentHashMap.newKeySet();
+  private final OperationReadinessTracker<TtlUpdateOperation> readinessTracker;
   private final Map<Integer, TtlUpdateOperation> correlationIdToTtlUpdateOperation = new HashMap<>();
   private final RequestRegistrationCallback<TtlUpdateOperation> requestRegistrationCallback =
       new RequestRegistrationCallback<>(correlationIdToTtlUpdateOperation);
@@ -80,6 +81,8 @@ class TtlUpdateManager {
     this.routerConfig = routerConfig;
     this.routerMetrics = routerMetrics;
     this.time = time;
+    readinessTracker =
+        new OperationReadinessTracker<>(routerConfig, time, routerMetrics.ttlUpdateManagerPolledOperationCount);
     this.nonBlockingRouter = nonBlockingRouter;
   }
 
@@ -122,6 +125,7 @@ class TtlUpdateManager {
           new TtlUpdateOperation(clusterMap, routerConfig, routerMetrics, blobId, serviceId, expiresAtMs,
               time.milliseconds(), callback, time, futureResult, quotaChargeCallback, nonBlockingRouter);
       ttlUpdateOperations.add(ttlUpdateOperation);
+      readinessTracker.markReady(ttlUpdateOperation);
       return;
     }
 
@@ -134,6 +138,7 @@ class TtlUpdateManager {
                       time.milliseconds(), callBack, time, BatchOperationCallbackTracker.DUMMY_FUTURE,
                       quotaChargeCallback, nonBlockingRouter);
               ttlUpdateOperations.add(ttlUpdateOperation);
+              readinessTracker.markReady(ttlUpdateOperation);
             }, nonBlockingRouter);
     long operationTimeMs = time.milliseconds();
     for (BlobId chunkId : chunkIds) {
@@ -142,6 +147,7 @@ class TtlUpdateManager {
               operationTimeMs, tracker.getCallback(chunkId), time, BatchOperationCallbackTracker.DUMMY_FUTURE,
               quotaChargeCallback, nonBlockingRouter);
       ttlUpdateOperations.add(ttlUpdateOperation);
+      readinessTracker.markReady(ttlUpdateOperation);
     }
   }
 
@@ -155,7 +161,7 @@ class TtlUpdateManager {
     long startTime = time.milliseconds();
     requestRegistrationCallback.setRequestsToSend(requestsToSend);
     requestRegistrationCallback.setRequestsToDrop(requestsToDrop);
-    for (TtlUpdateOperation op : ttlUpdateOperations) {
+    for (TtlUpdateOperation op : readinessTracker.getOperationsToPoll(ttlUpdateOperations)) {
       boolean exceptionEncountered = false;
       try {
         op.poll(requestRegistrationCallback);
@@ -207,6 +213,8 @@ class TtlUpdateManager {
         if (ttlUpdateOperations.remove(ttlUpdateOperation)) {
           onComplete(ttlUpdateOperation);
         }
+      } else {
+        readinessTracker.markReady(ttlUpdateOperation);
       }
       routerMetrics.ttlUpdateManagerHandleResponseTimeMs.update(time.milliseconds() - startTime);
     } else {
@@ -54,6 +54,7 @@ public class UndeleteManager {
   private final NonBlockingRouterMetrics routerMetrics;
   private final RouterConfig routerConfig;
   private final Set<UndeleteOperation> undeleteOperations = ConcurrentHashMap.newKeySet();
+  private final OperationReadinessTracker<UndeleteOperation> readinessTracker;
   private final Map<Integer, UndeleteOperation> correlationIdToUndeleteOperation = new HashMap<>();
   private final AtomicBoolean isOpen = new AtomicBoolean(true);
   private final RequestRegistrationCallback<UndeleteOperation> requestRegistrationCallback =
@@ -80,6 +81,8 @@ public class UndeleteManager {
     this.routerConfig = routerConfig;
     this.routerMetrics = routerMetrics;
     this.time = time;
+    readinessTracker =
+        new OperationReadinessTracker<>(routerConfig, time, routerMetrics.undeleteManagerPolledOperationCount);
     this.nonBlockingRouter = nonBlockingRouter;
   }
 
@@ -126,6 +129,7 @@ public class UndeleteManager {
           new UndeleteOperation(clusterMap, routerConfig, routerMetrics, blobId, serviceId, time.milliseconds(),
               callback, time, futureResult, quotaChargeCallback);
       undeleteOperations.add(undeleteOperation);
+      readinessTracker.markReady(undeleteOperation);
       return;
     }
 
@@ -137,6 +141,7 @@ public class UndeleteManager {
                   new UndeleteOperation(clusterMap, routerConfig, routerMetrics, bId, serviceId, time.milliseconds(),
                       callBack, time, futureResult, quotaChargeCallback);
               undeleteOperations.add(undeleteOperation);
+              readinessTracker.markReady(undeleteOperation);
             }, nonBlockingRouter);
     long operationTimeMs = time.milliseconds();
     for (BlobId chunkId : chunkIds) {
@@ -144,6 +149,7 @@ public class UndeleteManager {
           new UndeleteOperation(clusterMap, routerConfig, routerMetrics, chunkId, serviceId, operationTimeMs,
               tracker.getCallback(chunkId), time, BatchOperationCallbackTracker.DUMMY_FUTURE, quotaChargeCallback);
       undeleteOperations.add(undeleteOperation);
+      readinessTracker.markReady(undeleteOperation);
     }
   }
 
@@ -157,7 +163,7 @@ public class UndeleteManager {
     long startTime = time.milliseconds();
     requestRegistrationCallback.setRequestsToSend(requestsToSend);
     requestRegistrationCallback.setRequestsToDrop(requestsToDrop);
-    for (UndeleteOperation op : undeleteOperations) {
+    for (UndeleteOperation op : readinessTracker.getOperationsToPoll(undeleteOperations)) {
       boolean exceptionEncountered = false;
       try {
         op.poll(requestRegistrationCallback);
@@ -204,6 +210,8 @@ public class UndeleteManager {
         if (undeleteOperations.remove(undeleteOperation)) {
           onComplete(undeleteOperation);
         }
+      } else {
+        readinessTracker.markReady(undeleteOperation);
       }
       routerMetrics.undeleteManagerHandleResponseTimeMs.update(time.milliseconds() - startTime);
     } else {
@@ -14,9 +14,12 @@
 package com.github.ambry.router;
 
 import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.account.Container;
+import com.github.ambry.account.ContainerBuilder;
 import com.github.ambry.compression.CompressionException;
 import com.github.ambry.compression.LZ4Compression;
 import com.github.ambry.compression.ZstdCompression;
+import com.github.ambry.compression.ZstdDictionaries;
 import com.github.ambry.config.CompressionConfig;
 import com.github.ambry.config.VerifiableProperties;
 import com.github.ambry.messageformat.BlobProperties;
@@ -24,8 +27,16 @@ import com.github.ambry.utils.TestUtils;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
+import java.io.File;
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.Random;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -321,6 +332,127 @@ public class CompressionServiceTest {
     Assert.assertTrue(algorithmMetrics.fullSizeDecompressTimeInMicroseconds.getCount() > 0);
   }
 
+  @Test
+  public void testStreamingCompressThenDecompress() throws CompressionException {
+    CompressionMetrics metrics = new CompressionMetrics(new MetricRegistry());
+    CompressionService service = new CompressionService(config, metrics);
+    Assert.assertNull("Streaming is disabled by default", service.createStreamingCompressor(0));
+
+    Properties properties = new Properties();
+    properties.put("router.compression.streaming.enabled", "true");
+    service = new CompressionService(new CompressionConfig(new VerifiableProperties(properties)), metrics);
+    service.minimalSourceDataSizeInBytes = 1;
+    service.minimalCompressRatio = 1.0;
+
+    // The chunk arrives in heap and direct parts, and compresses to more than one output buffer.
+    Random random = new Random();
+    byte[] source = new byte[4 * StreamingChunkCompressor.OUTPUT_BUFFER_SIZE];
+    for (int i = 0; i < source.length; i++) {
+      source[i] = (byte) ('a' + random.nextInt(4));
+    }
+    int partSize = source.length / 4;
+    ByteBuf heapPart = Unpooled.wrappedBuffer(source, 0, partSize);
+    ByteBuf directPart = PooledByteBufAllocator.DEFAULT.directBuffer(source.length - partSize);
+    directPart.writeBytes(source, partSize, source.length - partSize);
+    StreamingChunkCompressor compressor = service.createStreamingCompressor(0);
+    Assert.assertNotNull(compressor);
+    Assert.assertTrue(service.writeStreamingCompressor(compressor, heapPart));
+    Assert.assertTrue(service.writeStreamingCompressor(compressor, directPart));
+    Assert.assertEquals("Indexes of the source should not change", source.length - partSize,
+        directPart.readableBytes());
+    directPart.release();
+
+    ByteBuf compressedBuffer = service.finishStreamingCompression(compressor, true);
+    Assert.assertNotNull(compressedBuffer);
+    Assert.assertTrue(compressedBuffer.readableBytes() > StreamingChunkCompressor.OUTPUT_BUFFER_SIZE);
+    Assert.assertTrue(compressedBuffer.readableBytes() < source.length);
+    Assert.assertEquals(1, metrics.compressStreamingRate.getCount());
+    Assert.assertEquals(1, metrics.compressAcceptRate.getCount());
+    Assert.assertEquals(1, metrics.compressCpuTimeInMicroseconds.getCount());
+    Assert.assertEquals(source.length - compressedBuffer.readableBytes(), metrics.compressReduceSizeBytes.getCount());
+    assertDecompressed(service, compressedBuffer, source);
+
+    // A chunk smaller than the minimal size is not compressed.
+    service.minimalSourceDataSizeInBytes = source.length + 1;
+    compressor = service.createStreamingCompressor(0);
+    Assert.assertTrue(service.writeStreamingCompressor(compressor, Unpooled.wrappedBuffer(source)));
+    Assert.assertNull(service.finishStreamingCompression(compressor, true));
+    Assert.assertEquals(1, metrics.compressSkipSizeTooSmall.getCount());
+  }
+
+  @Test
+  public void testCompressWithDictionary() throws CompressionException, IOException {
+    List<byte[]> samples = new ArrayList<>();
+    Random random = new Random();
+    for (int i = 0; i < 2000; i++) {
+      samples.add(("{\"id\":" + i + ",\"name\":\"user" + random.nextInt(100) + "\",\"status\":\"active\"}").getBytes(
+          StandardCharsets.UTF_8));
+    }
+    byte[] dictionary = ZstdDictionaries.train(samples, 4096);
+    long dictionaryId = new ZstdDictionaries(Collections.singletonList(dictionary), 1).getDictionaryIds()
+        .iterator()
+        .next();
+    Container container =
+        new ContainerBuilder((short) 1, "container", Container.ContainerStatus.ACTIVE, "", (short) 1)
+            .setCompressionDictionaryIds(Collections.singletonMap("application/json", dictionaryId))
+            .build();
+
+    // The dictionary is not loaded.
+    CompressionMetrics metrics = new CompressionMetrics(new MetricRegistry());
+    CompressionService service = new CompressionService(config, metrics);
+    Assert.assertEquals(0, service.getDictionaryId(container, "application/json"));
+    Assert.assertEquals(1, metrics.compressDictionaryMissingCount.getCount());
+
+    // Load the dictionary from a directory.
+    File directory = Files.createTempDirectory("zstd-dictionaries").toFile();
+    File dictionaryFile = new File(directory, "json" + ZstdDictionaries.DICTIONARY_FILE_EXTENSION);
+    try {
+      Files.write(dictionaryFile.toPath(), dictionary);
+      Properties properties = new Properties();
+      properties.put("router.compression.dictionary.directory", directory.getAbsolutePath());
+      service = new CompressionService(new CompressionConfig(new VerifiableProperties(properties)), metrics);
+    } finally {
+      dictionaryFile.delete();
+      directory.delete();
+    }
+    service.minimalSourceDataSizeInBytes = 1;
+    service.minimalCompressRatio = 1.0;
+    Assert.assertEquals(dictionaryId, service.getDictionaryId(container, "application/json; charset=UTF-8"));
+    Assert.assertEquals(0, service.getDictionaryId(container, "text/plain"));
+    Assert.assertEquals(0, service.getDictionaryId(null, "application/json"));
+
+    // Small documents compress well with the dictionary, even though streaming is disabled.
+    byte[] source = samples.get(0);
+    StreamingChunkCompressor compressor = service.createStreamingCompressor(dictionaryId);
+    Assert.assertNotNull(compressor);
+    Assert.assertTrue(service.writeStreamingCompressor(compressor, Unpooled.wrappedBuffer(source)));
+    ByteBuf compressedBuffer = service.finishStreamingCompression(compressor, false);
+    Assert.assertNotNull(compressedBuffer);
+    Assert.assertTrue(compressedBuffer.readableBytes() < source.length);
+    Assert.assertEquals(1, metrics.compressDictionaryRate.getCount());
+    Assert.assertEquals(1, metrics.compressDictionaryRatioPercent.getCount());
+    assertDecompressed(service, compressedBuffer, source);
+  }
+
+  /**
+   * Decompress the buffer, compare the result with the expected source, and release both buffers.
+   */
+  private void assertDecompressed(CompressionService service, ByteBuf compressedBuffer, byte[] expected)
+      throws CompressionException {
+    ByteBuf decompressedBuffer = null;
+    try {
+      decompressedBuffer = service.decompress(compressedBuffer, expected.length, true);
+      byte[] decompressedArray = new byte[decompressedBuffer.readableBytes()];
+      decompressedBuffer.readBytes(decompressedArray);
+      Assert.assertArrayEquals(expected, decompressedArray);
+    } finally {
+      compressedBuffer.release();
+      if (decompressedBuffer != null) {
+        decompressedBuffer.release();
+      }
+    }
+  }
+
   @Test
   public void testIsCompressibleContentType() {
     CompressionMetrics metrics = new CompressionMetrics(new MetricRegistry());
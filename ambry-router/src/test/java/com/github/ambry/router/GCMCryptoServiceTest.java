@@ -252,6 +252,56 @@ public class GCMCryptoServiceTest {
     }
   }
 
+  /**
+   * Tests that the BouncyCastle and the JDK providers produce the same content, and that content encrypted with one is
+   * decrypted with the other, including when the cipher of a thread is reused with the same iv.
+   * @throws Exception Any unexpected error
+   */
+  @Test
+  public void testEncryptDecryptAcrossProviders() throws Exception {
+    String key = TestUtils.getRandomKey(DEFAULT_KEY_SIZE_IN_CHARS);
+    SecretKeySpec secretKeySpec = new SecretKeySpec(Hex.decode(key), "AES");
+    Properties props = getKMSProperties(key, DEFAULT_KEY_SIZE_IN_CHARS);
+    GCMCryptoService bcCryptoService =
+        (GCMCryptoService) (new GCMCryptoServiceFactory(new VerifiableProperties(props), REGISTRY).getCryptoService());
+    props.setProperty("crypto.service.provider", "SunJCE");
+    GCMCryptoService jdkCryptoService =
+        (GCMCryptoService) (new GCMCryptoServiceFactory(new VerifiableProperties(props), REGISTRY).getCryptoService());
+    byte[] fixedIv = new byte[12];
+    for (int i = 0; i < 5; i++) {
+      int size = TestUtils.RANDOM.nextInt(MAX_DATA_SIZE - MIN_DATA_SIZE) + MIN_DATA_SIZE;
+      byte[] randomData = new byte[size];
+      TestUtils.RANDOM.nextBytes(randomData);
+
+      ByteBuffer bcEncrypted = bcCryptoService.encrypt(ByteBuffer.wrap(randomData), secretKeySpec, fixedIv);
+      CompositeByteBuf toEncryptComposite = PooledByteBufAllocator.DEFAULT.compositeBuffer(2);
+      toEncryptComposite.addComponent(true, Unpooled.wrappedBuffer(randomData, 0, size / 2));
+      toEncryptComposite.addComponent(true, Unpooled.wrappedBuffer(randomData, size / 2, size - size / 2));
+      ByteBuf jdkEncrypted = jdkCryptoService.encrypt(toEncryptComposite, secretKeySpec, fixedIv);
+      byte[] jdkEncryptedBytes = new byte[jdkEncrypted.readableBytes()];
+      jdkEncrypted.getBytes(jdkEncrypted.readerIndex(), jdkEncryptedBytes);
+      Assert.assertArrayEquals("Providers should produce the same content", bcEncrypted.array(), jdkEncryptedBytes);
+
+      ByteBuffer jdkDecrypted = jdkCryptoService.decrypt(bcEncrypted, secretKeySpec);
+      Assert.assertArrayEquals("Unexpected decrypted content", randomData, jdkDecrypted.array());
+      ByteBuf bcDecrypted = bcCryptoService.decrypt(jdkEncrypted, secretKeySpec);
+      byte[] bcDecryptedBytes = new byte[bcDecrypted.readableBytes()];
+      bcDecrypted.getBytes(bcDecrypted.readerIndex(), bcDecryptedBytes);
+      Assert.assertArrayEquals("Unexpected decrypted content", randomData, bcDecryptedBytes);
+
+      toEncryptComposite.release();
+      jdkEncrypted.release();
+      bcDecrypted.release();
+    }
+
+    props.setProperty("crypto.service.provider", "NoSuchProvider");
+    try {
+      new GCMCryptoServiceFactory(new VerifiableProperties(props), REGISTRY).getCryptoService();
+      Assert.fail("IllegalArgumentException should have thrown for un-recognized provider");
+    } catch (IllegalArgumentException e) {
+    }
+  }
+
   /**
    * Tests encryption and decryption of keys with random data
    */
@@ -1801,6 +1801,50 @@ public class NonBlockingRouterTest extends NonBlockingRouterTestBase {
     }
   }
 
+  /**
+   * Test that the data chunks of a composite blob fetched by all the scaling units are written out in order.
+   */
+  @Test
+  public void testCompositeBlobGetWithDataChunkSpreading() throws Exception {
+    try {
+      maxPutChunkSize = PUT_CONTENT_SIZE / 10;
+      Properties props = getNonBlockingRouterProperties(localDcName);
+      props.setProperty("router.scaling.unit.count", "3");
+      props.setProperty(RouterConfig.ROUTER_GET_DATA_CHUNK_SPREADING_ENABLED, "true");
+      setRouter(props, new MockServerLayout(mockClusterMap), new LoggingNotificationSystem());
+      setOperationParams();
+      String blobId =
+          router.putBlob(putBlobProperties, putUserMetadata, putChannel, new PutBlobOptionsBuilder().build())
+              .get(AWAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+      long spreadCountBefore = routerMetrics.getDataChunkSpreadCount.getCount();
+
+      GetBlobResult result = router.getBlob(blobId, new GetBlobOptionsBuilder().build()).get();
+      RetainingAsyncWritableChannel channel = new RetainingAsyncWritableChannel();
+      result.getBlobDataChannel().readInto(channel, null).get(AWAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+      InputStream input = channel.consumeContentAsInputStream();
+      channel.close();
+      assertArrayEquals("Unexpected content", putContent, Utils.readBytesFromStream(input, PUT_CONTENT_SIZE));
+      input.close();
+      assertEquals("All the data chunks should have been spread", 10,
+          routerMetrics.getDataChunkSpreadCount.getCount() - spreadCountBefore);
+
+      // a range that starts and ends in the middle of data chunks.
+      result = router.getBlob(blobId,
+          new GetBlobOptionsBuilder().range(ByteRanges.fromOffsetRange(150, 649)).build()).get();
+      channel = new RetainingAsyncWritableChannel();
+      result.getBlobDataChannel().readInto(channel, null).get(AWAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+      input = channel.consumeContentAsInputStream();
+      channel.close();
+      assertArrayEquals("Unexpected range content", Arrays.copyOfRange(putContent, 150, 650),
+          Utils.readBytesFromStream(input, 500));
+      input.close();
+    } finally {
+      if (router != null) {
+        router.close();
+      }
+    }
+  }
+
   /**
    * Test that Response Handler correctly handles disconnected connections after warming up.
    */
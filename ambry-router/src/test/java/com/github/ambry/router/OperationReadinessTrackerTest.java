@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.router;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.config.RouterConfig;
+import com.github.ambry.config.VerifiableProperties;
+import com.github.ambry.utils.MockTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests for {@link OperationReadinessTracker}.
+ */
+public class OperationReadinessTrackerTest {
+  private static final long FULL_POLL_INTERVAL_MS = 100;
+  private final MockTime time = new MockTime();
+  private final Histogram readyOperationCount = new MetricRegistry().histogram("readyOperationCount");
+  private final Set<String> operations = new HashSet<>(Arrays.asList("op0", "op1", "op2"));
+
+  /**
+   * Tests that only the ready operations that are still active are polled, and that all the operations are polled
+   * once the full poll interval elapses.
+   */
+  @Test
+  public void readinessTrackingTest() {
+    OperationReadinessTracker<String> tracker = new OperationReadinessTracker<>(createRouterConfig(true), time,
+        readyOperationCount);
+    assertEquals("No operation should be ready", Collections.emptyList(), tracker.getOperationsToPoll(operations));
+    tracker.markReady("op0");
+    tracker.markReady("op1");
+    tracker.markReady("op0");
+    // completed operations are not polled even if they were marked ready.
+    tracker.markReady("completed");
+    assertEquals("Unexpected operations to poll", new HashSet<>(Arrays.asList("op0", "op1")),
+        new HashSet<>(tracker.getOperationsToPoll(operations)));
+    assertEquals("The ready operations should have been reset", Collections.emptyList(),
+        tracker.getOperationsToPoll(operations));
+
+    tracker.markReady("op2");
+    time.sleep(FULL_POLL_INTERVAL_MS);
+    assertEquals("All the operations should be polled", operations,
+        new HashSet<>(tracker.getOperationsToPoll(operations)));
+    assertEquals("The ready operations should have been reset by the full poll", Collections.emptyList(),
+        tracker.getOperationsToPoll(operations));
+    assertEquals("Unexpected number of polls", 5, readyOperationCount.getCount());
+  }
+
+  /**
+   * Tests that all the operations are polled every time if readiness tracking is disabled.
+   */
+  @Test
+  public void trackingDisabledTest() {
+    OperationReadinessTracker<String> tracker = new OperationReadinessTracker<>(createRouterConfig(false), time,
+        readyOperationCount);
+    assertEquals("All the operations should be polled", operations,
+        new HashSet<>(tracker.getOperationsToPoll(operations)));
+    tracker.markReady("op0");
+    assertEquals("All the operations should be polled", operations,
+        new HashSet<>(tracker.getOperationsToPoll(operations)));
+  }
+
+  /**
+   * @param trackingEnabled {@code true} to enable readiness tracking.
+   * @return the {@link RouterConfig} to use.
+   */
+  private RouterConfig createRouterConfig(boolean trackingEnabled) {
+    Properties props = new Properties();
+    props.setProperty("router.hostname", "localhost");
+    props.setProperty("router.datacenter.name", "dc-0");
+    props.setProperty(RouterConfig.ROUTER_OPERATION_CONTROLLER_READINESS_TRACKING_ENABLED,
+        Boolean.toString(trackingEnabled));
+    props.setProperty(RouterConfig.ROUTER_OPERATION_CONTROLLER_FULL_POLL_INTERVAL_MS,
+        Long.toString(FULL_POLL_INTERVAL_MS));
+    return new RouterConfig(new VerifiableProperties(props));
+  }
+}
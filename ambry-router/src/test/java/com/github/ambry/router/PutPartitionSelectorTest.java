@@ -0,0 +1,146 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.router;
+
+import com.github.ambry.clustermap.MockClusterMap;
+import com.github.ambry.clustermap.MockDataNodeId;
+import com.github.ambry.clustermap.MockPartitionId;
+import com.github.ambry.clustermap.PartitionId;
+import com.github.ambry.clustermap.ReplicaId;
+import com.github.ambry.config.RouterConfig;
+import com.github.ambry.config.VerifiableProperties;
+import com.github.ambry.network.Port;
+import com.github.ambry.network.PortType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests for {@link PutPartitionSelector}.
+ */
+public class PutPartitionSelectorTest {
+  private static final String LOCAL_DC = "dc-0";
+  private static final int NUM_SELECTIONS = 100;
+  private final MockPartitionId partition0;
+  private final MockPartitionId partition1;
+  private final MockClusterMap clusterMap;
+
+  public PutPartitionSelectorTest() {
+    List<Port> portList = Collections.singletonList(new Port(6667, PortType.PLAINTEXT));
+    List<String> mountPaths = Collections.singletonList("mockMountPath0");
+    List<MockDataNodeId> dataNodes = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      dataNodes.add(new MockDataNodeId("host" + i, portList, mountPaths, LOCAL_DC));
+    }
+    // the partitions are on different data nodes, so that the requests in flight to one do not count for the other.
+    partition0 = new MockPartitionId(0, MockClusterMap.DEFAULT_PARTITION_CLASS, dataNodes.subList(0, 3), 0);
+    partition1 = new MockPartitionId(1, MockClusterMap.DEFAULT_PARTITION_CLASS, dataNodes.subList(3, 6), 0);
+    clusterMap = new MockClusterMap(false, dataNodes, 1, Arrays.asList(partition0, partition1), LOCAL_DC);
+  }
+
+  /**
+   * Tests that the random strategy selects any writable partition.
+   */
+  @Test
+  public void randomSelectionTest() throws Exception {
+    RouterConfig routerConfig = createRouterConfig("Random", "Datacenter");
+    PutPartitionSelector selector =
+        new PutPartitionSelector(clusterMap, routerConfig, new NonBlockingRouterMetrics(clusterMap, routerConfig));
+    // requests in flight are not tracked by the random strategy.
+    selector.onRequestSent(1, partition0.getReplicaIds().get(0));
+    assertEquals("Requests should not be tracked", 0,
+        selector.getInFlightRequestCount(partition0.getReplicaIds().get(0).getDataNodeId()));
+    Set<PartitionId> selected = new HashSet<>();
+    for (int i = 0; i < NUM_SELECTIONS; i++) {
+      selected.add(selector.getPartitionForPut(MockClusterMap.DEFAULT_PARTITION_CLASS, null));
+    }
+    assertEquals("Both partitions should have been selected", new HashSet<>(Arrays.asList(partition0, partition1)),
+        selected);
+    assertEquals("Excluded partition should not be selected", partition1,
+        selector.getPartitionForPut(MockClusterMap.DEFAULT_PARTITION_CLASS, Collections.singletonList(partition0)));
+  }
+
+  /**
+   * Tests that the power of two choices strategy avoids the partition with higher latencies.
+   */
+  @Test
+  public void latencyAwareSelectionTest() throws Exception {
+    RouterConfig routerConfig = createRouterConfig("PowerOfTwoChoices", "Partition");
+    NonBlockingRouterMetrics routerMetrics = new NonBlockingRouterMetrics(clusterMap, routerConfig);
+    for (int i = 0; i < 1000; i++) {
+      routerMetrics.putBlobResourceToLatency.get(partition0).update(500);
+    }
+    PutPartitionSelector selector = new PutPartitionSelector(clusterMap, routerConfig, routerMetrics);
+    for (int i = 0; i < NUM_SELECTIONS; i++) {
+      assertEquals("Partition with lower latency should be selected", partition1,
+          selector.getPartitionForPut(MockClusterMap.DEFAULT_PARTITION_CLASS, null));
+    }
+    assertEquals("Excluded partition should not be selected", partition0,
+        selector.getPartitionForPut(MockClusterMap.DEFAULT_PARTITION_CLASS, Collections.singletonList(partition1)));
+  }
+
+  /**
+   * Tests that the power of two choices strategy avoids the partition with more requests in flight, and that requests
+   * stop counting once they complete.
+   */
+  @Test
+  public void inFlightAwareSelectionTest() throws Exception {
+    RouterConfig routerConfig = createRouterConfig("PowerOfTwoChoices", "Datacenter");
+    PutPartitionSelector selector =
+        new PutPartitionSelector(clusterMap, routerConfig, new NonBlockingRouterMetrics(clusterMap, routerConfig));
+    ReplicaId replica = partition1.getReplicaIds().get(0);
+    selector.onRequestSent(1, replica);
+    selector.onRequestSent(2, replica);
+    // sending the same request twice counts once.
+    selector.onRequestSent(2, replica);
+    assertEquals("Unexpected requests in flight", 2, selector.getInFlightRequestCount(replica.getDataNodeId()));
+    for (int i = 0; i < NUM_SELECTIONS; i++) {
+      assertEquals("Partition with fewer requests in flight should be selected", partition0,
+          selector.getPartitionForPut(MockClusterMap.DEFAULT_PARTITION_CLASS, null));
+    }
+    selector.onRequestCompleted(1);
+    selector.onRequestCompleted(2);
+    // unknown requests are ignored.
+    selector.onRequestCompleted(3);
+    assertEquals("Unexpected requests in flight", 0, selector.getInFlightRequestCount(replica.getDataNodeId()));
+    Set<PartitionId> selected = new HashSet<>();
+    for (int i = 0; i < NUM_SELECTIONS; i++) {
+      selected.add(selector.getPartitionForPut(MockClusterMap.DEFAULT_PARTITION_CLASS, null));
+    }
+    assertEquals("Both partitions should be selected once the load is even",
+        new HashSet<>(Arrays.asList(partition0, partition1)), selected);
+  }
+
+  /**
+   * @param strategy the {@link PartitionSelectionStrategy} to use.
+   * @param scope the {@link OperationTrackerScope} of the latency histograms.
+   * @return the {@link RouterConfig} with the given strategy and scope.
+   */
+  private RouterConfig createRouterConfig(String strategy, String scope) {
+    Properties props = new Properties();
+    props.setProperty("router.hostname", "localhost");
+    props.setProperty("router.datacenter.name", LOCAL_DC);
+    props.setProperty(RouterConfig.ROUTER_PUT_PARTITION_SELECTION_STRATEGY, strategy);
+    props.setProperty("router.operation.tracker.metric.scope", scope);
+    return new RouterConfig(new VerifiableProperties(props));
+  }
+}
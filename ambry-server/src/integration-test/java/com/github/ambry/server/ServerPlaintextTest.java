@@ -17,6 +17,7 @@ import com.github.ambry.clustermap.DataNodeId;
 import com.github.ambry.clustermap.MockClusterMap;
 import com.github.ambry.commons.SSLFactory;
 import com.github.ambry.commons.TestSSLUtils;
+import com.github.ambry.config.ReplicationConfig;
 import com.github.ambry.network.Port;
 import com.github.ambry.network.PortType;
 import com.github.ambry.utils.MockTime;
@@ -114,6 +115,26 @@ public class ServerPlaintextTest {
     }
   }
 
+  /**
+   * Test replication between datacenters with compressed get responses.
+   * @throws Exception
+   */
+  @Test
+  public void interColoReplicationWithCompressionTest() throws Exception {
+    // encrypted blobs are not compressed
+    assumeTrue(!testEncryption);
+    plaintextCluster.cleanup();
+    Properties serverProperties = new Properties();
+    TestSSLUtils.addHttp2Properties(serverProperties, SSLFactory.Mode.SERVER, true);
+    serverProperties.setProperty("server.get.response.compression.enabled", "true");
+    serverProperties.setProperty(ReplicationConfig.REPLICATION_INTER_COLO_GET_COMPRESSION_ALGORITHM, "LZ4");
+    plaintextCluster = new MockCluster(serverProperties, false, new MockTime(SystemTime.getInstance().milliseconds()));
+    notificationSystem = new MockNotificationSystem(plaintextCluster.getClusterMap());
+    plaintextCluster.initializeServers(notificationSystem);
+    plaintextCluster.startServers();
+    ServerTestUtil.interColoReplicationWithCompressionTest(plaintextCluster, notificationSystem, "LZ4");
+  }
+
   /**
    * Test some corner cases of undelete
    * @throws Exception
@@ -137,4 +158,37 @@ public class ServerPlaintextTest {
     ServerTestUtil.undeleteRecoveryTest(new Port(dataNodeId.getPort(), PortType.PLAINTEXT), plaintextCluster, null,
         null);
   }
+
+  /**
+   * Test bootstrapping a replica by copying the sealed files of a peer replica.
+   * @throws Exception
+   */
+  @Test
+  public void fileCopyBootstrapTest() throws Exception {
+    assumeTrue(!testEncryption);
+    plaintextCluster.startServers();
+    DataNodeId dataNodeId = plaintextCluster.getGeneralDataNode();
+    ServerTestUtil.fileCopyBootstrapTest(new Port(dataNodeId.getPort(), PortType.PLAINTEXT), plaintextCluster, null,
+        null);
+  }
+
+  /**
+   * Test that a replica added with file copy bootstrap enabled is copied from a peer and then replicates from it.
+   * @throws Exception
+   */
+  @Test
+  public void fileCopyBootstrapReplicaAdditionTest() throws Exception {
+    assumeTrue(!testEncryption);
+    plaintextCluster.cleanup();
+    Properties serverProperties = new Properties();
+    TestSSLUtils.addHttp2Properties(serverProperties, SSLFactory.Mode.SERVER, true);
+    serverProperties.setProperty(ReplicationConfig.REPLICATION_FILE_COPY_BOOTSTRAP_ENABLED, "true");
+    plaintextCluster = new MockCluster(serverProperties, false, new MockTime(SystemTime.getInstance().milliseconds()));
+    notificationSystem = new MockNotificationSystem(plaintextCluster.getClusterMap());
+    plaintextCluster.initializeServers(notificationSystem);
+    plaintextCluster.startServers();
+    DataNodeId dataNodeId = plaintextCluster.getGeneralDataNode();
+    ServerTestUtil.fileCopyBootstrapReplicaAdditionTest(new Port(dataNodeId.getPort(), PortType.PLAINTEXT),
+        plaintextCluster, null, null);
+  }
 }
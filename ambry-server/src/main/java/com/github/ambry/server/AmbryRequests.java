@@ -54,8 +54,14 @@ import com.github.ambry.protocol.AdminRequestOrResponseType;
 import com.github.ambry.protocol.AdminResponseWithContent;
 import com.github.ambry.protocol.BlobIndexAdminRequest;
 import com.github.ambry.protocol.CompositeSend;
+import com.github.ambry.protocol.CompressedMessagesSend;
 import com.github.ambry.protocol.DeleteRequest;
 import com.github.ambry.protocol.DeleteResponse;
+import com.github.ambry.protocol.FileCopyChunkRequest;
+import com.github.ambry.protocol.FileCopyChunkResponse;
+import com.github.ambry.protocol.FileCopyMetadataRequest;
+import com.github.ambry.protocol.FileCopyMetadataResponse;
+import com.github.ambry.protocol.FileInfo;
 import com.github.ambry.protocol.GetOption;
 import com.github.ambry.protocol.GetRequest;
 import com.github.ambry.protocol.GetResponse;
@@ -83,6 +89,7 @@ import com.github.ambry.replication.BackupCheckerThread;
 import com.github.ambry.replication.FindToken;
 import com.github.ambry.replication.FindTokenHelper;
 import com.github.ambry.replication.ReplicationAPI;
+import com.github.ambry.store.BlobStore;
 import com.github.ambry.store.FindInfo;
 import com.github.ambry.store.IdUndeletedStoreException;
 import com.github.ambry.store.Message;
@@ -91,6 +98,7 @@ import com.github.ambry.store.MessageReadSet;
 import com.github.ambry.store.Store;
 import com.github.ambry.store.StoreErrorCodes;
 import com.github.ambry.store.StoreException;
+import com.github.ambry.store.StoreFileCopyInfo;
 import com.github.ambry.store.StoreGetOptions;
 import com.github.ambry.store.StoreInfo;
 import com.github.ambry.store.StoreKey;
@@ -105,8 +113,11 @@ import com.github.ambry.utils.SystemTime;
 import com.github.ambry.utils.Utils;
 import io.netty.buffer.ByteBufInputStream;
 import java.io.DataInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
@@ -225,6 +236,12 @@ public class AmbryRequests implements RequestAPI {
         case ReplicateBlobRequest:
           handleReplicateBlobRequest(networkRequest);
           break;
+        case FileCopyMetadataRequest:
+          handleFileCopyMetadataRequest(networkRequest);
+          break;
+        case FileCopyChunkRequest:
+          handleFileCopyChunkRequest(networkRequest);
+          break;
         default:
           throw new UnsupportedOperationException("Request type not supported");
       }
@@ -398,8 +415,15 @@ public class AmbryRequests implements RequestAPI {
         }
       }
       CompositeSend compositeSend = new CompositeSend(messagesToSendList);
-      response = new GetResponse(getRequest.getCorrelationId(), getRequest.getClientId(), partitionResponseInfoList,
-          compositeSend, ServerErrorCode.No_Error);
+      CompressedMessagesSend compressedSend =
+          maybeCompressMessages(getRequest, compositeSend, partitionResponseInfoList);
+      if (compressedSend != null) {
+        response = new GetResponse(getRequest.getCorrelationId(), getRequest.getClientId(), partitionResponseInfoList,
+            compressedSend, ServerErrorCode.No_Error);
+      } else {
+        response = new GetResponse(getRequest.getCorrelationId(), getRequest.getClientId(), partitionResponseInfoList,
+            compositeSend, ServerErrorCode.No_Error);
+      }
     } catch (Exception e) {
       logger.error("Unknown exception for request {}", getRequest, e);
       response =
@@ -783,6 +807,140 @@ public class AmbryRequests implements RequestAPI {
             metrics.replicaMetadataSendTimeInMs, metrics.replicaMetadataTotalTimeInMs, null, null, totalTimeSpent));
   }
 
+  @Override
+  public void handleFileCopyMetadataRequest(NetworkRequest request) throws IOException, InterruptedException {
+    FileCopyMetadataRequest fileCopyMetadataRequest =
+        FileCopyMetadataRequest.readFrom(new DataInputStream(request.getInputStream()), clusterMap);
+    long requestQueueTime = SystemTime.getInstance().milliseconds() - request.getStartTimeInMs();
+    long totalTimeSpent = requestQueueTime;
+    long startTimeInMs = SystemTime.getInstance().milliseconds();
+    FileCopyMetadataResponse response = null;
+    try {
+      PartitionId partitionId = fileCopyMetadataRequest.getPartitionId();
+      ServerErrorCode error = validateRequest(partitionId, RequestOrResponseType.FileCopyMetadataRequest, false);
+      if (error != ServerErrorCode.No_Error) {
+        logger.error("Validating file copy metadata request failed with error {} for partition {}", error,
+            partitionId);
+        response = new FileCopyMetadataResponse(fileCopyMetadataRequest.getCorrelationId(),
+            fileCopyMetadataRequest.getClientId(), error);
+      } else {
+        StoreFileCopyInfo fileCopyInfo = getFileCopyInfo(partitionId);
+        List<FileInfo> fileInfos = fileCopyInfo.getFiles()
+            .stream()
+            .map(file -> new FileInfo(file.getName(), file.length()))
+            .collect(Collectors.toList());
+        response = new FileCopyMetadataResponse(fileCopyMetadataRequest.getCorrelationId(),
+            fileCopyMetadataRequest.getClientId(), fileInfos, fileCopyInfo.getFindToken());
+      }
+    } catch (StoreException e) {
+      logger.error("Store exception on a file copy metadata request with error code {} for request {}",
+          e.getErrorCode(), fileCopyMetadataRequest, e);
+      response = new FileCopyMetadataResponse(fileCopyMetadataRequest.getCorrelationId(),
+          fileCopyMetadataRequest.getClientId(), ErrorMapping.getStoreErrorMapping(e.getErrorCode()));
+    } catch (Exception e) {
+      logger.error("Unknown exception for request {}", fileCopyMetadataRequest, e);
+      response = new FileCopyMetadataResponse(fileCopyMetadataRequest.getCorrelationId(),
+          fileCopyMetadataRequest.getClientId(), ServerErrorCode.Unknown_Error);
+    } finally {
+      long processingTime = SystemTime.getInstance().milliseconds() - startTimeInMs;
+      totalTimeSpent += processingTime;
+      publicAccessLogger.info("{} {} processingTime {}", fileCopyMetadataRequest, response, processingTime);
+      long responseSizeInBytes = response != null ? response.sizeInBytes() : 0L;
+      // Update request metrics.
+      RequestMetricsUpdater metricsUpdater =
+          new RequestMetricsUpdater(requestQueueTime, processingTime, 0, responseSizeInBytes, false);
+      fileCopyMetadataRequest.accept(metricsUpdater);
+    }
+    requestResponseChannel.sendResponse(response, request,
+        new ServerNetworkResponseMetrics(metrics.fileCopyMetadataResponseQueueTimeInMs,
+            metrics.fileCopyMetadataSendTimeInMs, metrics.fileCopyMetadataTotalTimeInMs, null, null, totalTimeSpent));
+  }
+
+  @Override
+  public void handleFileCopyChunkRequest(NetworkRequest request) throws IOException, InterruptedException {
+    FileCopyChunkRequest fileCopyChunkRequest =
+        FileCopyChunkRequest.readFrom(new DataInputStream(request.getInputStream()), clusterMap);
+    long requestQueueTime = SystemTime.getInstance().milliseconds() - request.getStartTimeInMs();
+    long totalTimeSpent = requestQueueTime;
+    long startTimeInMs = SystemTime.getInstance().milliseconds();
+    FileCopyChunkResponse response = null;
+    long dataSizeInBytes = 0;
+    try {
+      PartitionId partitionId = fileCopyChunkRequest.getPartitionId();
+      ServerErrorCode error = validateRequest(partitionId, RequestOrResponseType.FileCopyChunkRequest, false);
+      if (error != ServerErrorCode.No_Error) {
+        logger.error("Validating file copy chunk request failed with error {} for partition {}", error, partitionId);
+        response = new FileCopyChunkResponse(fileCopyChunkRequest.getCorrelationId(),
+            fileCopyChunkRequest.getClientId(), error);
+      } else {
+        // only the files that are currently listed can be read. A file that was removed by compaction since it was
+        // listed fails the request and the client has to start over from a new listing.
+        File file = getFileCopyInfo(partitionId).getFiles()
+            .stream()
+            .filter(f -> f.getName().equals(fileCopyChunkRequest.getFileName()))
+            .findFirst()
+            .orElse(null);
+        long startOffset = fileCopyChunkRequest.getStartOffset();
+        if (file == null || startOffset < 0 || startOffset > file.length()
+            || fileCopyChunkRequest.getChunkSizeInBytes() <= 0) {
+          logger.error("File copy chunk request {} is not for a range of a copyable file", fileCopyChunkRequest);
+          metrics.badRequestError.inc();
+          response = new FileCopyChunkResponse(fileCopyChunkRequest.getCorrelationId(),
+              fileCopyChunkRequest.getClientId(), ServerErrorCode.Bad_Request);
+        } else {
+          int size = (int) Math.min(file.length() - startOffset,
+              Math.min(fileCopyChunkRequest.getChunkSizeInBytes(), serverConfig.serverFileCopyMaxChunkSizeInBytes));
+          ByteBuffer buffer = ByteBuffer.allocate(size);
+          try (FileChannel fileChannel = Utils.openChannel(file, false)) {
+            Utils.readFileToByteBuffer(fileChannel, startOffset, buffer);
+          }
+          dataSizeInBytes = size;
+          response = new FileCopyChunkResponse(fileCopyChunkRequest.getCorrelationId(),
+              fileCopyChunkRequest.getClientId(), file.getName(), startOffset, buffer.array());
+        }
+      }
+    } catch (StoreException e) {
+      logger.error("Store exception on a file copy chunk request with error code {} for request {}",
+          e.getErrorCode(), fileCopyChunkRequest, e);
+      response = new FileCopyChunkResponse(fileCopyChunkRequest.getCorrelationId(), fileCopyChunkRequest.getClientId(),
+          ErrorMapping.getStoreErrorMapping(e.getErrorCode()));
+    } catch (IOException e) {
+      logger.error("IO exception on a file copy chunk request {}", fileCopyChunkRequest, e);
+      metrics.storeIOError.inc();
+      response = new FileCopyChunkResponse(fileCopyChunkRequest.getCorrelationId(), fileCopyChunkRequest.getClientId(),
+          ServerErrorCode.IO_Error);
+    } catch (Exception e) {
+      logger.error("Unknown exception for request {}", fileCopyChunkRequest, e);
+      response = new FileCopyChunkResponse(fileCopyChunkRequest.getCorrelationId(), fileCopyChunkRequest.getClientId(),
+          ServerErrorCode.Unknown_Error);
+    } finally {
+      long processingTime = SystemTime.getInstance().milliseconds() - startTimeInMs;
+      totalTimeSpent += processingTime;
+      publicAccessLogger.info("{} {} processingTime {}", fileCopyChunkRequest, response, processingTime);
+      // Update request metrics.
+      RequestMetricsUpdater metricsUpdater =
+          new RequestMetricsUpdater(requestQueueTime, processingTime, 0, dataSizeInBytes, false);
+      fileCopyChunkRequest.accept(metricsUpdater);
+    }
+    requestResponseChannel.sendResponse(response, request,
+        new ServerNetworkResponseMetrics(metrics.fileCopyChunkResponseQueueTimeInMs, metrics.fileCopyChunkSendTimeInMs,
+            metrics.fileCopyChunkTotalTimeInMs, null, null, totalTimeSpent));
+  }
+
+  /**
+   * @param partitionId the {@link PartitionId} of the store.
+   * @return the {@link StoreFileCopyInfo} of the store of the partition.
+   * @throws StoreException if the store is not available or does not support copying its files.
+   */
+  private StoreFileCopyInfo getFileCopyInfo(PartitionId partitionId) throws StoreException {
+    Store store = storeManager.getStore(partitionId);
+    if (!(store instanceof BlobStore)) {
+      throw new StoreException("Store of partition " + partitionId + " does not support copying its files",
+          StoreErrorCodes.Store_Not_Started);
+    }
+    return ((BlobStore) store).getFileCopyInfo();
+  }
+
   /**
    * If the replicateBlob is replicating from this node or the local store has the key already, return true.
    * @param replicateBlobRequest the {@link ReplicateBlobRequest}
@@ -1484,6 +1642,43 @@ public class AmbryRequests implements RequestAPI {
     return new MessageFormatWriteSet(stream, infoList, false);
   }
 
+  /**
+   * Compresses the messages of a get response if the request accepts compression. Only complete messages can be
+   * compressed, since the receiver needs their sizes to tell them apart.
+   * @param getRequest the {@link GetRequest} to respond to.
+   * @param messages the messages of the response. They are released if they are compressed.
+   * @param partitionResponseInfoList the {@link PartitionResponseInfo}s of the response.
+   * @return the compressed messages, or {@code null} if the messages should be sent as they are.
+   */
+  private CompressedMessagesSend maybeCompressMessages(GetRequest getRequest, CompositeSend messages,
+      List<PartitionResponseInfo> partitionResponseInfoList) {
+    if (getRequest.getAcceptedCompressionAlgorithm() == null || serverConfig == null
+        || !serverConfig.serverGetResponseCompressionEnabled
+        || getRequest.getMessageFormatFlag() != MessageFormatFlags.All) {
+      return null;
+    }
+    CompressedMessagesSend compressedMessages = messages.content() == null ? null
+        : CompressedMessagesSend.compress(messages.content(), partitionResponseInfoList,
+            getRequest.getAcceptedCompressionAlgorithm(),
+            serverConfig.serverGetResponseCompressionMinMessageSizeInBytes,
+            serverConfig.serverGetResponseCompressionMinCompressRatio);
+    if (compressedMessages == null) {
+      metrics.getResponseCompressionFallbackCount.inc();
+      return null;
+    }
+    long originalSize = compressedMessages.getOriginalSizeInBytes();
+    long compressedSize = compressedMessages.sizeInBytes();
+    if (compressedSize > 0) {
+      metrics.getResponseCompressionRatioPercent.update(100 * originalSize / compressedSize);
+    }
+    metrics.getResponseCompressionTimeInMicroseconds.update(compressedMessages.getCompressionTimeInMicroseconds());
+    metrics.getResponseCompressedMessageCount.inc(compressedMessages.getCompressedMessageCount());
+    metrics.getResponseCompressionSkippedMessageCount.inc(compressedMessages.getSkippedMessageCount());
+    metrics.getResponseCompressionSavedBytes.inc(Math.max(0, originalSize - compressedSize));
+    messages.release();
+    return compressedMessages;
+  }
+
   /**
    *
    * @param getRequest
@@ -1991,6 +2186,35 @@ public class AmbryRequests implements RequestAPI {
       }
     }
 
+    @Override
+    public void visit(FileCopyMetadataRequest fileCopyMetadataRequest) {
+      metrics.fileCopyMetadataRequestQueueTimeInMs.update(requestQueueTime);
+      metrics.fileCopyMetadataRequestRate.mark();
+      metrics.fileCopyMetadataRequestProcessingTimeInMs.update(requestProcessingTime);
+      responseQueueTimeHistogram = metrics.fileCopyMetadataResponseQueueTimeInMs;
+      responseSendTimeHistogram = metrics.fileCopyMetadataSendTimeInMs;
+      requestTotalTimeHistogram = metrics.fileCopyMetadataTotalTimeInMs;
+      if (isRequestDropped) {
+        metrics.fileCopyMetadataDroppedRate.mark();
+        metrics.totalRequestDroppedRate.mark();
+      }
+    }
+
+    @Override
+    public void visit(FileCopyChunkRequest fileCopyChunkRequest) {
+      metrics.fileCopyChunkRequestQueueTimeInMs.update(requestQueueTime);
+      metrics.fileCopyChunkRequestRate.mark();
+      metrics.fileCopyChunkRequestProcessingTimeInMs.update(requestProcessingTime);
+      metrics.fileCopyChunkBytesRate.mark(responseBlobSize);
+      responseQueueTimeHistogram = metrics.fileCopyChunkResponseQueueTimeInMs;
+      responseSendTimeHistogram = metrics.fileCopyChunkSendTimeInMs;
+      requestTotalTimeHistogram = metrics.fileCopyChunkTotalTimeInMs;
+      if (isRequestDropped) {
+        metrics.fileCopyChunkDroppedRate.mark();
+        metrics.totalRequestDroppedRate.mark();
+      }
+    }
+
     /**
      * Get the histogram object used for tracking response queue time. This should be called only after corresponding
      * visit(Request request) method is invoked.
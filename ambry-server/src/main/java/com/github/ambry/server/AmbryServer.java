@@ -30,7 +30,9 @@ import com.github.ambry.clustermap.ClusterMap;
 import com.github.ambry.clustermap.ClusterParticipant;
 import com.github.ambry.clustermap.CompositeClusterManager;
 import com.github.ambry.clustermap.DataNodeId;
+import com.github.ambry.clustermap.DiskId;
 import com.github.ambry.clustermap.HelixClusterManager;
+import com.github.ambry.clustermap.ReplicaId;
 import com.github.ambry.clustermap.StaticClusterManager;
 import com.github.ambry.clustermap.VcrClusterAgentsFactory;
 import com.github.ambry.commons.Callback;
@@ -57,6 +59,7 @@ import com.github.ambry.messageformat.BlobStoreHardDelete;
 import com.github.ambry.messageformat.BlobStoreRecovery;
 import com.github.ambry.network.BlockingChannelConnectionPool;
 import com.github.ambry.network.ConnectionPool;
+import com.github.ambry.network.DiskRoutingRequestResponseChannel;
 import com.github.ambry.network.LocalNetworkClientFactory;
 import com.github.ambry.network.LocalRequestResponseChannel;
 import com.github.ambry.network.NettyServerRequestResponseChannel;
@@ -65,6 +68,7 @@ import com.github.ambry.network.NetworkMetrics;
 import com.github.ambry.network.NetworkServer;
 import com.github.ambry.network.Port;
 import com.github.ambry.network.PortType;
+import com.github.ambry.network.RequestResponseChannel;
 import com.github.ambry.network.ServerRequestResponseHelper;
 import com.github.ambry.network.SocketNetworkClientFactory;
 import com.github.ambry.network.SocketServer;
@@ -104,6 +108,7 @@ import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import org.apache.logging.log4j.core.util.Assert;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -139,6 +144,7 @@ public class AmbryServer {
   private ServerMetrics metrics = null;
   private Time time;
   private RequestHandlerPool requestHandlerPoolForHttp2;
+  private final List<RequestHandlerPool> requestHandlerPoolsPerDisk = new ArrayList<>();
   private NioServer nettyHttp2Server;
   private ParticipantsConsistencyChecker consistencyChecker = null;
   private ScheduledFuture<?> consistencyCheckerTask = null;
@@ -393,9 +399,23 @@ public class AmbryServer {
           Http2ClientConfig http2ClientConfig = new Http2ClientConfig(properties);
 
           logger.info("Http2 port {} is enabled. Starting HTTP/2 service.", nodeId.getHttp2Port());
-          NettyServerRequestResponseChannel requestResponseChannel =
-              new NettyServerRequestResponseChannel(networkConfig, http2ServerMetrics, metrics,
-                  new ServerRequestResponseHelper(clusterMap, findTokenHelper));
+          ServerRequestResponseHelper requestResponseHelper =
+              new ServerRequestResponseHelper(clusterMap, findTokenHelper);
+          NettyServerRequestResponseChannel nettyRequestResponseChannel =
+              new NettyServerRequestResponseChannel(networkConfig, http2ServerMetrics, metrics, requestResponseHelper);
+          RequestResponseChannel requestResponseChannel = nettyRequestResponseChannel;
+          DiskRoutingRequestResponseChannel diskRoutingRequestResponseChannel = null;
+          if (serverConfig.serverRequestHandlerPerDiskEnabled) {
+            Set<DiskId> disks =
+                clusterMap.getReplicaIds(nodeId).stream().map(ReplicaId::getDiskId).collect(Collectors.toSet());
+            diskRoutingRequestResponseChannel =
+                new DiskRoutingRequestResponseChannel(networkConfig, nettyRequestResponseChannel,
+                    requestResponseHelper, disks, partitionId -> {
+                  ReplicaId replica = storageManager.getReplica(partitionId.toPathString());
+                  return replica != null ? replica.getDiskId() : null;
+                }, http2ServerMetrics, registry);
+            requestResponseChannel = diskRoutingRequestResponseChannel;
+          }
           AmbryServerRequests ambryServerRequestsForHttp2 =
               new AmbryServerRequests(storageManager, requestResponseChannel, clusterMap, nodeId, registry, metrics,
                   findTokenHelper, notificationSystem, replicationManager, storeKeyFactory, serverConfig,
@@ -403,6 +423,16 @@ public class AmbryServer {
           requestHandlerPoolForHttp2 =
               new RequestHandlerPool(serverConfig.serverRequestHandlerNumOfThreads, requestResponseChannel,
                   ambryServerRequestsForHttp2);
+          if (diskRoutingRequestResponseChannel != null) {
+            int diskIndex = 0;
+            for (DiskId disk : diskRoutingRequestResponseChannel.getDisks()) {
+              logger.info("Starting {} request handlers for disk {}",
+                  serverConfig.serverRequestHandlerNumOfThreadsPerDisk, disk.getMountPath());
+              requestHandlerPoolsPerDisk.add(new RequestHandlerPool(serverConfig.serverRequestHandlerNumOfThreadsPerDisk,
+                  diskRoutingRequestResponseChannel.getDiskChannel(disk), ambryServerRequestsForHttp2,
+                  "Disk-" + diskIndex++ + "-"));
+            }
+          }
 
           NioServerFactory nioServerFactory =
               new StorageServerNettyFactory(nodeId.getHttp2Port(), requestResponseChannel, sslHttp2Factory, nettyConfig,
@@ -516,6 +546,8 @@ public class AmbryServer {
       if (nettyHttp2Server != null) {
         nettyHttp2Server.shutdown();
       }
+      requestHandlerPoolsPerDisk.forEach(RequestHandlerPool::shutdown);
+      requestHandlerPoolsPerDisk.clear();
       if (requestHandlerPoolForHttp2 != null) {
         requestHandlerPoolForHttp2.shutdown();
       }
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.store;
+
+import com.github.ambry.utils.TestUtils;
+import com.github.ambry.utils.Utils;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks {@link BlobStore#get(java.util.List, EnumSet)} of single blobs and of batches of blobs, including the
+ * read of the blob content from the log. The store files are on tmpfs when it is available, see
+ * {@link StoreBenchmarkUtils#createTempDirectory(String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlobStoreGetBenchmark {
+  private static final int NUM_BLOBS = 10000;
+  private static final int BATCH_SIZE = 16;
+  private static final EnumSet<StoreGetOptions> GET_OPTIONS = EnumSet.noneOf(StoreGetOptions.class);
+
+  @Param({"1024", "16384"})
+  public int blobSize;
+
+  private File tempDir;
+  private ScheduledExecutorService scheduler;
+  private BlobStore store;
+  private MockId[] ids;
+  private int next = 0;
+
+  @Setup
+  public void setup() throws IOException, StoreException {
+    tempDir = StoreBenchmarkUtils.createTempDirectory("blobStoreGetBenchmark");
+    scheduler = Utils.newScheduler(1, false);
+    // twice the bytes of the blobs leaves room for the headers of the records and the index files
+    store = StoreBenchmarkUtils.createAndStartBlobStore(tempDir, 2L * NUM_BLOBS * blobSize, scheduler);
+    byte[] blob = TestUtils.getRandomBytes(blobSize);
+    ids = new MockId[NUM_BLOBS];
+    for (int i = 0; i < NUM_BLOBS; i++) {
+      ids[i] = new MockId(UUID.randomUUID().toString());
+      StoreBenchmarkUtils.putBlob(store, ids[i], blob);
+    }
+  }
+
+  @TearDown
+  public void cleanup() throws IOException, StoreException {
+    store.shutdown();
+    Utils.shutDownExecutorService(scheduler, 30, TimeUnit.SECONDS);
+    StoreBenchmarkUtils.deleteDirectory(tempDir);
+  }
+
+  @Benchmark
+  public long get() throws StoreException, IOException {
+    return read(store.get(Collections.singletonList(ids[nextIndex()]), GET_OPTIONS));
+  }
+
+  @Benchmark
+  public long getBatch() throws StoreException, IOException {
+    int start = nextIndex() / BATCH_SIZE * BATCH_SIZE;
+    return read(store.get(Arrays.asList(Arrays.copyOfRange(ids, start, start + BATCH_SIZE)), GET_OPTIONS));
+  }
+
+  /**
+   * Reads the content of all the blobs that were found.
+   * @return the total number of bytes read.
+   */
+  private long read(StoreInfo storeInfo) throws IOException {
+    MessageReadSet readSet = storeInfo.getMessageReadSet();
+    long bytesRead = 0;
+    for (int i = 0; i < readSet.count(); i++) {
+      readSet.doPrefetch(i, 0, readSet.sizeInBytes(i));
+      bytesRead += readSet.getPrefetchedData(i).readableBytes();
+      readSet.getPrefetchedData(i).release();
+    }
+    return bytesRead;
+  }
+
+  private int nextIndex() {
+    next = (next + 1) % NUM_BLOBS;
+    return next;
+  }
+}
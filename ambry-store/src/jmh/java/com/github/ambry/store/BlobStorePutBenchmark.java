@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.store;
+
+import com.github.ambry.utils.TestUtils;
+import com.github.ambry.utils.Utils;
+import java.io.File;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks {@link BlobStore#put(MessageWriteSet)} of single blobs. Every iteration puts a fixed number of blobs in a
+ * new store, so that the size of the store files is bounded. The store files are on tmpfs when it is available, see
+ * {@link StoreBenchmarkUtils#createTempDirectory(String)}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = BlobStorePutBenchmark.PUTS_PER_ITERATION)
+@Measurement(iterations = 10, batchSize = BlobStorePutBenchmark.PUTS_PER_ITERATION)
+@Fork(1)
+public class BlobStorePutBenchmark {
+  static final int PUTS_PER_ITERATION = 10000;
+
+  @Param({"1024", "16384"})
+  public int blobSize;
+
+  private byte[] blob;
+  private File tempDir;
+  private ScheduledExecutorService scheduler;
+  private BlobStore store;
+
+  @Setup(Level.Trial)
+  public void setupTrial() {
+    blob = TestUtils.getRandomBytes(blobSize);
+    scheduler = Utils.newScheduler(1, false);
+  }
+
+  @Setup(Level.Iteration)
+  public void setupIteration() throws IOException, StoreException {
+    tempDir = StoreBenchmarkUtils.createTempDirectory("blobStorePutBenchmark");
+    // twice the bytes of the blobs leaves room for the headers of the records and the index files
+    store = StoreBenchmarkUtils.createAndStartBlobStore(tempDir, 2L * PUTS_PER_ITERATION * blobSize, scheduler);
+  }
+
+  @TearDown(Level.Iteration)
+  public void cleanupIteration() throws IOException, StoreException {
+    store.shutdown();
+    StoreBenchmarkUtils.deleteDirectory(tempDir);
+  }
+
+  @TearDown(Level.Trial)
+  public void cleanupTrial() {
+    Utils.shutDownExecutorService(scheduler, 30, TimeUnit.SECONDS);
+  }
+
+  @Benchmark
+  public void put() throws StoreException {
+    StoreBenchmarkUtils.putBlob(store, new MockId(UUID.randomUUID().toString()), blob);
+  }
+}
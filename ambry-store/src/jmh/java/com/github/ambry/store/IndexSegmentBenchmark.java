@@ -0,0 +1,121 @@
+/*
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.store;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.config.StoreConfig;
+import com.github.ambry.config.VerifiableProperties;
+import com.github.ambry.utils.SystemTime;
+import com.github.ambry.utils.Utils;
+import java.io.File;
+import java.io.IOException;
+import java.util.NavigableSet;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks {@link IndexSegment#find(StoreKey)} on an unsealed segment, which searches the in memory map, and on a
+ * sealed segment, which probes the bloom filter and searches the mapped index file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IndexSegmentBenchmark {
+  private static final int RECORD_SIZE = 1000;
+  private static final int NUM_PROBE_KEYS = 1024;
+
+  @Param({"10000", "100000"})
+  public int numEntries;
+
+  @Param({"false", "true"})
+  public boolean sealed;
+
+  private File tempDir;
+  private IndexSegment indexSegment;
+  private MockId[] presentKeys;
+  private MockId[] absentKeys;
+  private int next = 0;
+
+  @Setup
+  public void setup() throws IOException, StoreException {
+    tempDir = StoreBenchmarkUtils.createTempDirectory("indexSegmentBenchmark");
+    Properties properties = new Properties();
+    properties.setProperty("store.index.max.number.of.inmem.elements", Integer.toString(numEntries));
+    StoreConfig config = new StoreConfig(new VerifiableProperties(properties));
+    StoreMetrics metrics = new StoreMetrics(new MetricRegistry());
+    LogSegmentName logSegmentName = LogSegmentName.generateFirstSegmentName(false);
+    // all the keys have the same size
+    int keySize = new MockId(UUID.randomUUID().toString()).sizeInBytes();
+    indexSegment = new IndexSegment(tempDir.getAbsolutePath(), new Offset(logSegmentName, 0), new MockIdFactory(),
+        keySize + IndexValue.INDEX_VALUE_SIZE_IN_BYTES_V3_V4, IndexValue.INDEX_VALUE_SIZE_IN_BYTES_V3_V4, config,
+        metrics, SystemTime.getInstance());
+    presentKeys = new MockId[NUM_PROBE_KEYS];
+    long now = SystemTime.getInstance().milliseconds();
+    for (int i = 0; i < numEntries; i++) {
+      MockId id = new MockId(UUID.randomUUID().toString());
+      IndexValue value =
+          new IndexValue(RECORD_SIZE, new Offset(logSegmentName, (long) i * RECORD_SIZE), Utils.Infinite_Time, now,
+              id.getAccountId(), id.getContainerId());
+      indexSegment.addEntry(new IndexEntry(id, value), new Offset(logSegmentName, (long) (i + 1) * RECORD_SIZE));
+      if (i < NUM_PROBE_KEYS) {
+        presentKeys[i] = id;
+      }
+    }
+    if (sealed) {
+      indexSegment.writeIndexSegmentToFile(indexSegment.getEndOffset());
+      indexSegment.seal();
+    }
+    absentKeys = new MockId[NUM_PROBE_KEYS];
+    for (int i = 0; i < NUM_PROBE_KEYS; i++) {
+      absentKeys[i] = new MockId(UUID.randomUUID().toString());
+    }
+  }
+
+  @TearDown
+  public void cleanup() throws IOException {
+    StoreBenchmarkUtils.deleteDirectory(tempDir);
+  }
+
+  @Benchmark
+  public NavigableSet<IndexValue> findPresentKey() throws StoreException {
+    return indexSegment.find(presentKeys[nextIndex()]);
+  }
+
+  @Benchmark
+  public NavigableSet<IndexValue> findAbsentKey() throws StoreException {
+    return indexSegment.find(absentKeys[nextIndex()]);
+  }
+
+  private int nextIndex() {
+    next = (next + 1) % NUM_PROBE_KEYS;
+    return next;
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.store;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.config.StoreConfig;
+import com.github.ambry.config.VerifiableProperties;
+import com.github.ambry.utils.SystemTime;
+import com.github.ambry.utils.Utils;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks {@link PersistentIndex#findKey(StoreKey)} and {@link PersistentIndex#findKeys(java.util.Collection)} on
+ * an index with a given number of sealed index segments, with and without the key locator. Keys are looked up
+ * uniformly across all the segments.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersistentIndexBenchmark {
+  private static final int RECORD_SIZE = 100;
+  private static final int NUM_PROBE_KEYS = 1024;
+  private static final int BATCH_SIZE = 32;
+
+  @Param({"1", "16", "64"})
+  public int numSegments;
+
+  @Param({"5000"})
+  public int entriesPerSegment;
+
+  @Param({"false", "true"})
+  public boolean keyLocatorEnabled;
+
+  private File tempDir;
+  private ScheduledExecutorService scheduler;
+  private Log log;
+  private PersistentIndex index;
+  private MockId[] presentKeys;
+  private MockId[] absentKeys;
+  private List<List<StoreKey>> batches;
+  private int next = 0;
+
+  @Setup
+  public void setup() throws IOException, StoreException {
+    tempDir = StoreBenchmarkUtils.createTempDirectory("persistentIndexBenchmark");
+    String dataDir = tempDir.getAbsolutePath();
+    int numEntries = numSegments * entriesPerSegment;
+    long capacity = (long) numEntries * RECORD_SIZE;
+    StoreMetrics metrics = new StoreMetrics(new MetricRegistry());
+    log = new Log(dataDir, capacity, StoreTestUtils.DEFAULT_DISK_SPACE_ALLOCATOR,
+        StoreTestUtils.createStoreConfig(capacity, false), metrics, null);
+    Properties properties = new Properties();
+    properties.setProperty("store.index.max.number.of.inmem.elements", Integer.toString(entriesPerSegment));
+    properties.setProperty(StoreConfig.storeKeyLocatorEnabledName, Boolean.toString(keyLocatorEnabled));
+    StoreConfig config = new StoreConfig(new VerifiableProperties(properties));
+    scheduler = Utils.newScheduler(1, false);
+    index = new PersistentIndex(dataDir, dataDir, scheduler, log, config, new MockIdFactory(),
+        new DummyMessageStoreRecovery(), null, new DiskIOScheduler(null), metrics, SystemTime.getInstance(),
+        UUID.randomUUID(), UUID.randomUUID());
+
+    byte[] record = new byte[RECORD_SIZE];
+    presentKeys = new MockId[NUM_PROBE_KEYS];
+    int probeKeyInterval = Math.max(1, numEntries / NUM_PROBE_KEYS);
+    for (int i = 0; i < numEntries; i++) {
+      MockId id = new MockId(UUID.randomUUID().toString());
+      Offset endOffsetOfPrevMessage = log.getEndOffset();
+      log.appendFrom(ByteBuffer.wrap(record));
+      FileSpan fileSpan = log.getFileSpanForMessage(endOffsetOfPrevMessage, RECORD_SIZE);
+      IndexValue value =
+          new IndexValue(RECORD_SIZE, fileSpan.getStartOffset(), Utils.Infinite_Time, SystemTime.getInstance()
+              .milliseconds(), id.getAccountId(), id.getContainerId());
+      index.addToIndex(new IndexEntry(id, value), fileSpan);
+      if (i % probeKeyInterval == 0 && i / probeKeyInterval < NUM_PROBE_KEYS) {
+        presentKeys[i / probeKeyInterval] = id;
+      }
+    }
+    // seals all the index segments but the last one
+    index.persistIndex();
+    absentKeys = new MockId[NUM_PROBE_KEYS];
+    for (int i = 0; i < NUM_PROBE_KEYS; i++) {
+      absentKeys[i] = new MockId(UUID.randomUUID().toString());
+    }
+    batches = new ArrayList<>();
+    for (int i = 0; i + BATCH_SIZE <= NUM_PROBE_KEYS; i += BATCH_SIZE) {
+      batches.add(Arrays.asList(Arrays.copyOfRange(presentKeys, i, i + BATCH_SIZE)));
+    }
+  }
+
+  @TearDown
+  public void cleanup() throws IOException, StoreException {
+    index.close(false);
+    log.close(false);
+    Utils.shutDownExecutorService(scheduler, 30, TimeUnit.SECONDS);
+    StoreBenchmarkUtils.deleteDirectory(tempDir);
+  }
+
+  @Benchmark
+  public IndexValue findPresentKey() throws StoreException {
+    return index.findKey(presentKeys[nextIndex()]);
+  }
+
+  @Benchmark
+  public IndexValue findAbsentKey() throws StoreException {
+    return index.findKey(absentKeys[nextIndex()]);
+  }
+
+  @Benchmark
+  public Map<StoreKey, IndexValue> findKeysBatch() throws StoreException {
+    return index.findKeys(batches.get(nextIndex() % batches.size()));
+  }
+
+  private int nextIndex() {
+    next = (next + 1) % NUM_PROBE_KEYS;
+    return next;
+  }
+}
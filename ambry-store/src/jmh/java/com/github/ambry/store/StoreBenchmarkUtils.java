@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.store;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.config.StoreConfig;
+import com.github.ambry.config.VerifiableProperties;
+import com.github.ambry.utils.SystemTime;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.ScheduledExecutorService;
+
+
+/**
+ * Utilities shared by the store benchmarks.
+ */
+class StoreBenchmarkUtils {
+  /**
+   * The system property that sets the directory in which the benchmarks create their files. Defaults to /dev/shm when
+   * it exists, so that the benchmarks measure the store rather than the disk, and to the default temporary directory
+   * otherwise.
+   */
+  static final String BENCHMARK_DIR_PROPERTY = "ambry.benchmark.dir";
+  private static final String TMPFS_DIR = "/dev/shm";
+
+  /**
+   * Creates a new directory for the files of a benchmark.
+   * @param prefix the prefix of the name of the directory.
+   * @return the new directory.
+   * @throws IOException
+   */
+  static File createTempDirectory(String prefix) throws IOException {
+    String parent = System.getProperty(BENCHMARK_DIR_PROPERTY);
+    if (parent == null && new File(TMPFS_DIR).canWrite()) {
+      parent = TMPFS_DIR;
+    }
+    File dir = parent != null ? Files.createTempDirectory(new File(parent).toPath(), prefix).toFile()
+        : Files.createTempDirectory(prefix).toFile();
+    dir.deleteOnExit();
+    return dir;
+  }
+
+  /**
+   * Deletes the directory of a benchmark and all its files.
+   * @param dir the directory to delete.
+   * @throws IOException
+   */
+  static void deleteDirectory(File dir) throws IOException {
+    if (!StoreTestUtils.cleanDirectory(dir, true)) {
+      throw new IOException("Could not delete " + dir);
+    }
+  }
+
+  /**
+   * Creates and starts a {@link BlobStore} with a single log segment.
+   * @param dir the directory of the store.
+   * @param capacityInBytes the capacity of the store.
+   * @param scheduler the {@link ScheduledExecutorService} for the tasks of the store.
+   * @return the started {@link BlobStore}.
+   * @throws StoreException
+   */
+  static BlobStore createAndStartBlobStore(File dir, long capacityInBytes, ScheduledExecutorService scheduler)
+      throws StoreException {
+    Properties properties = new Properties();
+    properties.setProperty("store.segment.size.in.bytes", Long.toString(capacityInBytes));
+    StoreConfig config = new StoreConfig(new VerifiableProperties(properties));
+    StoreMetrics metrics = new StoreMetrics(new MetricRegistry());
+    BlobStore store = new BlobStore(dir.getName(), config, scheduler, scheduler, null, new DiskIOScheduler(null),
+        StoreTestUtils.DEFAULT_DISK_SPACE_ALLOCATOR, metrics, metrics, dir.getAbsolutePath(), capacityInBytes,
+        new MockIdFactory(), new DummyMessageStoreRecovery(), null, SystemTime.getInstance(), scheduler);
+    store.start();
+    return store;
+  }
+
+  /**
+   * Puts a blob in a store.
+   * @param store the {@link BlobStore} to put the blob in.
+   * @param id the id of the blob.
+   * @param blob the content of the blob.
+   * @throws StoreException
+   */
+  static void putBlob(BlobStore store, MockId id, byte[] blob) throws StoreException {
+    MessageInfo info = new MessageInfo(id, blob.length, id.getAccountId(), id.getContainerId(),
+        SystemTime.getInstance().milliseconds());
+    store.put(new MockMessageWriteSet(Collections.singletonList(info),
+        Collections.singletonList(ByteBuffer.wrap(blob))));
+  }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.store;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.netty.buffer.ByteBuf;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * A size bounded cache of the log records of recently read blobs, shared by all the stores of a host. The records are
+ * kept in direct memory and are keyed by {@link StoreKey}.
+ * <p/>
+ * An entry holds the record of a blob at a given {@link Offset} of the log of a store, or a prefix of it when the whole
+ * record is too large to cache. Since the index is always consulted before the cache, an entry is only used when the
+ * index still points to the same offset, so entries of compacted segments are never served. Entries are explicitly
+ * invalidated when the blob is deleted, its TTL is updated or it is undeleted, and when compaction removes its segment.
+ * The entries are also indexed by store and log segment, so that invalidating a store or some of its segments does not
+ * scan the whole cache.
+ * <p/>
+ * Entries are kept in a concurrent Caffeine cache bounded by the size of the records. Its eviction policy admits a new
+ * entry only if it is likely to be hit more often than the entry it would evict, so that a scan of blobs that are read
+ * once does not flush the hot blobs. Evicted and invalidated entries are released on the thread that removes them.
+ * <p/>
+ * A reader that finds the index entry of a blob may race with an invalidation of the same blob. To prevent caching
+ * the record of a blob that was invalidated in between, the reader gets the generation of the key before reading the
+ * index and {@link #put} ignores the record if the generation changed since.
+ */
+class BlobReadCache {
+  private static final int GENERATION_STRIPES = 1024;
+  private final long capacityInBytes;
+  private final int maxEntrySizeInBytes;
+  private final StoreMetrics metrics;
+  private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+  private final Cache<StoreKey, Entry> entries;
+  // the entries by store id and log segment.
+  private final ConcurrentMap<String, ConcurrentMap<LogSegmentName, ConcurrentMap<StoreKey, Entry>>> segmentEntries =
+      new ConcurrentHashMap<>();
+
+  /**
+   * @param capacityInBytes the maximum number of bytes of all the records in the cache.
+   * @param maxEntrySizeInBytes the maximum number of bytes of a single record in the cache.
+   * @param metrics the {@link StoreMetrics} to record the hits, misses and evictions of the cache.
+   */
+  BlobReadCache(long capacityInBytes, int maxEntrySizeInBytes, StoreMetrics metrics) {
+    this.capacityInBytes = capacityInBytes;
+    this.maxEntrySizeInBytes = maxEntrySizeInBytes;
+    this.metrics = metrics;
+    this.entries = Caffeine.newBuilder()
+        .maximumWeight(capacityInBytes)
+        .weigher((StoreKey key, Entry entry) -> (int) entry.size())
+        .executor(Runnable::run)
+        .removalListener(this::onRemoval)
+        .build();
+  }
+
+  /**
+   * @return the maximum number of bytes of a single record in the cache.
+   */
+  int getMaxEntrySizeInBytes() {
+    return maxEntrySizeInBytes;
+  }
+
+  /**
+   * @param key the {@link StoreKey} to get the generation of.
+   * @return the generation of the key, to be passed to {@link #put} when caching a record of the key.
+   */
+  long getGeneration(StoreKey key) {
+    return generations.get(getStripe(key));
+  }
+
+  /**
+   * Gets a part of the record of a blob from the cache.
+   * @param storeId the id of the store of the blob.
+   * @param key the {@link StoreKey} of the blob.
+   * @param offset the {@link Offset} of the record of the blob in the log.
+   * @param relativeOffset the offset of the part to get, relative to the start of the record.
+   * @param size the size of the part to get.
+   * @param recordAccess {@code true} to count this lookup in the metrics and in the eviction policy.
+   * @return a retained slice of the cached record that the caller has to release, or {@code null} if the part is not
+   *         cached.
+   */
+  ByteBuf get(String storeId, StoreKey key, Offset offset, long relativeOffset, long size, boolean recordAccess) {
+    Entry entry = recordAccess ? entries.getIfPresent(key) : entries.policy().getIfPresentQuietly(key);
+    ByteBuf data = null;
+    if (entry != null && entry.matches(storeId, offset) && relativeOffset + size <= entry.size()) {
+      // null if the entry was evicted or invalidated since it was looked up
+      data = entry.retainedSlice((int) relativeOffset, (int) size);
+    }
+    if (recordAccess) {
+      if (data != null) {
+        metrics.blobReadCacheHitCount.inc();
+      } else {
+        metrics.blobReadCacheMissCount.inc();
+      }
+    }
+    return data;
+  }
+
+  /**
+   * Caches the record, or a prefix of the record, of a blob. The cache retains its own reference of {@code data}.
+   * @param storeId the id of the store of the blob.
+   * @param key the {@link StoreKey} of the blob.
+   * @param offset the {@link Offset} of the record of the blob in the log.
+   * @param data the bytes of the record, starting from the beginning of the record.
+   * @param generation the generation of the key returned by {@link #getGeneration} before the index was read.
+   */
+  void put(String storeId, StoreKey key, Offset offset, ByteBuf data, long generation) {
+    int size = data.readableBytes();
+    int stripe = getStripe(key);
+    if (size > maxEntrySizeInBytes || size > capacityInBytes || generations.get(stripe) != generation) {
+      return;
+    }
+    Entry existing = entries.policy().getIfPresentQuietly(key);
+    if (existing != null && existing.matches(storeId, offset) && existing.size() >= size) {
+      // a longer prefix of the same record is already cached.
+      return;
+    }
+    Entry entry = new Entry(storeId, offset, data.retainedSlice());
+    segmentEntries.computeIfAbsent(storeId, id -> new ConcurrentHashMap<>())
+        .computeIfAbsent(offset.getName(), name -> new ConcurrentHashMap<>())
+        .put(key, entry);
+    entries.put(key, entry);
+    if (generations.get(stripe) != generation) {
+      // the key was invalidated while the entry was added, and the invalidation may have missed it.
+      entries.asMap().remove(key, entry);
+    }
+  }
+
+  /**
+   * Invalidates the cached record of a blob, and makes sure that a reader that found the index entry of the blob
+   * before the invalidation does not cache it again.
+   * @param key the {@link StoreKey} of the blob.
+   */
+  void invalidate(StoreKey key) {
+    generations.incrementAndGet(getStripe(key));
+    entries.invalidate(key);
+  }
+
+  /**
+   * Invalidates the cached records that are in the given log segments of a store.
+   * @param storeId the id of the store.
+   * @param logSegmentNames the names of the log segments.
+   */
+  void invalidateSegments(String storeId, Set<LogSegmentName> logSegmentNames) {
+    ConcurrentMap<LogSegmentName, ConcurrentMap<StoreKey, Entry>> storeEntries = segmentEntries.get(storeId);
+    if (storeEntries != null) {
+      logSegmentNames.forEach(logSegmentName -> invalidateAll(storeEntries.remove(logSegmentName)));
+    }
+  }
+
+  /**
+   * Invalidates all the cached records of a store.
+   * @param storeId the id of the store.
+   */
+  void invalidateStore(String storeId) {
+    ConcurrentMap<LogSegmentName, ConcurrentMap<StoreKey, Entry>> storeEntries = segmentEntries.remove(storeId);
+    if (storeEntries != null) {
+      storeEntries.values().forEach(this::invalidateAll);
+    }
+  }
+
+  /**
+   * Releases all the cached records.
+   */
+  void close() {
+    entries.invalidateAll();
+    segmentEntries.clear();
+  }
+
+  /**
+   * @return the number of bytes of all the records in the cache.
+   */
+  long getSizeInBytes() {
+    return entries.policy().eviction().get().weightedSize().orElse(0);
+  }
+
+  /**
+   * @return the number of records in the cache.
+   */
+  int getEntryCount() {
+    return (int) entries.estimatedSize();
+  }
+
+  /**
+   * Removes the given entries from the cache, unless their keys were cached again since.
+   * @param entriesToInvalidate the entries by {@link StoreKey}, or {@code null}.
+   */
+  private void invalidateAll(Map<StoreKey, Entry> entriesToInvalidate) {
+    if (entriesToInvalidate != null) {
+      entriesToInvalidate.forEach((key, entry) -> entries.asMap().remove(key, entry));
+    }
+  }
+
+  /**
+   * Releases an entry that was removed from the cache, and removes it from the entries of its segment.
+   */
+  private void onRemoval(StoreKey key, Entry entry, RemovalCause cause) {
+    if (cause.wasEvicted()) {
+      metrics.blobReadCacheEvictionCount.inc();
+    } else if (cause == RemovalCause.EXPLICIT) {
+      metrics.blobReadCacheInvalidationCount.inc();
+    }
+    ConcurrentMap<LogSegmentName, ConcurrentMap<StoreKey, Entry>> storeEntries = segmentEntries.get(entry.storeId);
+    ConcurrentMap<StoreKey, Entry> entriesOfSegment =
+        storeEntries == null ? null : storeEntries.get(entry.offset.getName());
+    if (entriesOfSegment != null) {
+      entriesOfSegment.remove(key, entry);
+    }
+    entry.release();
+  }
+
+  private int getStripe(StoreKey key) {
+    return (key.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+  }
+
+  /**
+   * The cached record of a blob.
+   */
+  private static class Entry {
+    final String storeId;
+    final Offset offset;
+    final ByteBuf data;
+    // one reference for the cache, and one for each reader that is slicing the data.
+    private final AtomicInteger refCount = new AtomicInteger(1);
+
+    Entry(String storeId, Offset offset, ByteBuf data) {
+      this.storeId = storeId;
+      this.offset = offset;
+      this.data = data;
+    }
+
+    boolean matches(String storeId, Offset offset) {
+      return this.storeId.equals(storeId) && this.offset.equals(offset);
+    }
+
+    long size() {
+      return data.readableBytes();
+    }
+
+    /**
+     * @return a retained slice of the data, or {@code null} if the entry has been released.
+     */
+    ByteBuf retainedSlice(int index, int length) {
+      int count;
+      do {
+        count = refCount.get();
+        if (count == 0) {
+          return null;
+        }
+      } while (!refCount.compareAndSet(count, count + 1));
+      try {
+        return data.retainedSlice(index, length);
+      } finally {
+        release();
+      }
+    }
+
+    void release() {
+      if (refCount.decrementAndGet() == 0) {
+        data.release();
+      }
+    }
+  }
+}
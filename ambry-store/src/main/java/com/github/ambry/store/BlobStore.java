@@ -48,6 +48,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -68,17 +71,24 @@ public class BlobStore implements Store {
   static final String SEPARATOR = "_";
   static final String BOOTSTRAP_FILE_NAME = "bootstrap_in_progress";
   static final String DECOMMISSION_FILE_NAME = "decommission_in_progress";
+  public static final String FILE_COPY_IN_PROGRESS_FILE_NAME = "file_copy_in_progress";
+  public static final String FILE_COPY_TEMP_FILE_SUFFIX = ".filecopy";
+  private static final String[] FILE_COPY_FILE_SUFFIXES =
+      {LogSegmentName.SUFFIX, SEPARATOR + IndexSegment.INDEX_SEGMENT_FILE_NAME_SUFFIX,
+          SEPARATOR + IndexSegment.BLOOM_FILE_NAME_SUFFIX, FILE_COPY_TEMP_FILE_SUFFIX};
   final static String LockFile = ".lock";
 
   private final String storeId;
   private final String dataDir;
   private final DiskMetrics diskMetrics;
+  private final BlobReadCache blobReadCache;
   private final ScheduledExecutorService taskScheduler;
   private final ScheduledExecutorService longLivedTaskScheduler;
   private final DiskManager diskManager;
   private final DiskIOScheduler diskIOScheduler;
   private final DiskSpaceAllocator diskSpaceAllocator;
   private final Object storeWriteLock = new Object();
+  private final ConcurrentLinkedQueue<PendingPut> pendingPuts = new ConcurrentLinkedQueue<>();
   private final StoreConfig config;
   private final long capacityInBytes;
   private final StoreKeyFactory factory;
@@ -128,6 +138,22 @@ public class BlobStore implements Store {
     SOME_NOT_ALL_DUPLICATE, // At least one of the message is a duplicate, but not all.
   }
 
+  /**
+   * A put that is waiting to be committed by {@link #commitPendingPuts()}.
+   */
+  private static class PendingPut {
+    final MessageWriteSet messageSetToWrite;
+    final Offset indexEndOffsetBeforeCheck;
+    final long enqueueTimeMs;
+    final CompletableFuture<MessageWriteSetStateInStore> future = new CompletableFuture<>();
+
+    PendingPut(MessageWriteSet messageSetToWrite, Offset indexEndOffsetBeforeCheck, long enqueueTimeMs) {
+      this.messageSetToWrite = messageSetToWrite;
+      this.indexEndOffsetBeforeCheck = indexEndOffsetBeforeCheck;
+      this.enqueueTimeMs = enqueueTimeMs;
+    }
+  }
+
   /**
    * Constructor for BlobStore, used in ambry-server
    *
@@ -212,6 +238,7 @@ public class BlobStore implements Store {
     this.taskScheduler = taskScheduler;
     this.longLivedTaskScheduler = longLivedTaskScheduler;
     this.diskManager = diskManager;
+    this.blobReadCache = diskManager != null ? diskManager.getBlobReadCache() : null;
     this.diskIOScheduler = diskIOScheduler;
     this.diskSpaceAllocator = diskSpaceAllocator;
     this.metrics = metrics;
@@ -283,13 +310,25 @@ public class BlobStore implements Store {
               StoreErrorCodes.Initialization_Error);
         }
 
+        // a file copy that was interrupted, for example by a crash, leaves a partial copy of the files of a peer
+        // behind. They are deleted before the log is loaded, so the store starts empty instead of serving them.
+        if (new File(dataDir, FILE_COPY_IN_PROGRESS_FILE_NAME).exists()) {
+          logger.warn("Store : {} has an interrupted file copy, deleting the copied files", dataDir);
+          abandonFileCopy(dataFile);
+        }
+
         StoreDescriptor storeDescriptor = new StoreDescriptor(dataDir, config);
+        final Timer.Context logLoadContext = metrics.logLoadTime.time();
         log = new Log(dataDir, capacityInBytes, diskSpaceAllocator, config, metrics, diskMetrics);
+        logLoadContext.stop();
         compactor = new BlobStoreCompactor(dataDir, storeId, factory, config, metrics, storeUnderCompactionMetrics,
             diskIOScheduler, diskSpaceAllocator, log, time, sessionId, storeDescriptor.getIncarnationId(),
             accountService, remoteTokenTracker, diskMetrics);
         index = new PersistentIndex(dataDir, storeId, indexPersistScheduler, log, config, factory, recovery, hardDelete,
             diskIOScheduler, metrics, time, sessionId, storeDescriptor.getIncarnationId());
+        if (blobReadCache != null) {
+          index.enableBlobReadCache(blobReadCache, storeId);
+        }
         compactor.initialize(index);
         if (config.storeRebuildTokenBasedOnCompactionHistory) {
           compactor.enablePersistIndexSegmentOffsets();
@@ -314,6 +353,9 @@ public class BlobStore implements Store {
           replicaId.markDiskUp();
         }
         enableReplicaIfNeeded();
+        if (config.storeDeferSealedIndexSegmentValidation) {
+          scheduleDeferredIndexValidation();
+        }
       } catch (Exception e) {
         if (fileLock != null) {
           // Release the file lock
@@ -415,8 +457,22 @@ public class BlobStore implements Store {
     try {
       List<BlobReadOptions> readOptions = new ArrayList<BlobReadOptions>(ids.size());
       Map<StoreKey, MessageInfo> indexMessages = new HashMap<StoreKey, MessageInfo>(ids.size());
-      for (StoreKey key : ids) {
-        BlobReadOptions readInfo = index.getBlobReadInfo(key, storeGetOptions);
+      // the generations have to be read before the index, see BlobReadCache.
+      long[] cacheGenerations = new long[ids.size()];
+      for (int i = 0; i < ids.size() && blobReadCache != null; i++) {
+        cacheGenerations[i] = blobReadCache.getGeneration(ids.get(i));
+      }
+      // a batch is looked up together, so that each index segment is searched once for all the keys.
+      List<BlobReadOptions> readInfos =
+          ids.size() == 1 ? Collections.singletonList(index.getBlobReadInfo(ids.get(0), storeGetOptions))
+              : index.getBlobReadInfo(ids, storeGetOptions);
+      for (int i = 0; i < ids.size(); i++) {
+        StoreKey key = ids.get(i);
+        BlobReadOptions readInfo = readInfos.get(i);
+        if (blobReadCache != null && !readInfo.getMessageInfo().isDeleted() && !readInfo.getMessageInfo()
+            .isExpired()) {
+          readInfo.enableReadCache(blobReadCache, storeId, cacheGenerations[i]);
+        }
         readOptions.add(readInfo);
         indexMessages.put(key, readInfo.getMessageInfo());
         // validate accountId and containerId
@@ -556,7 +612,9 @@ public class BlobStore implements Store {
       Offset indexEndOffsetBeforeCheck = index.getCurrentEndOffset();
       MessageWriteSetStateInStore state =
           checkWriteSetStateInStore(messageSetToWrite, new FileSpan(index.getStartOffset(), indexEndOffsetBeforeCheck));
-      if (state == MessageWriteSetStateInStore.ALL_ABSENT) {
+      if (state == MessageWriteSetStateInStore.ALL_ABSENT && config.storeGroupCommitEnabled) {
+        state = groupCommitPut(messageSetToWrite, indexEndOffsetBeforeCheck);
+      } else if (state == MessageWriteSetStateInStore.ALL_ABSENT) {
         synchronized (storeWriteLock) {
           // Validate that log end offset was not changed. If changed, check once again for existing
           // keys in store
@@ -568,12 +626,11 @@ public class BlobStore implements Store {
 
           if (state == MessageWriteSetStateInStore.ALL_ABSENT) {
             Offset endOffsetOfLastMessage = log.getEndOffset();
-            long diskWriteStartTime = time.milliseconds();
+            long diskWriteStartTimeNs = time.nanoseconds();
             long sizeWritten = messageSetToWrite.writeTo(log);
 
             if (diskMetrics != null) {
-              diskMetrics.diskWriteTimePerMbInMs.update(
-                  ((time.milliseconds() - diskWriteStartTime) << 20) / sizeWritten);
+              diskMetrics.recordApplicationWrite(time.nanoseconds() - diskWriteStartTimeNs, sizeWritten);
             }
             logger.trace("Store : {} message set written to log", dataDir);
 
@@ -632,6 +689,163 @@ public class BlobStore implements Store {
     }
   }
 
+  /**
+   * Enqueues the given {@link MessageWriteSet} for a group commit and waits until it is committed. The thread that
+   * acquires {@link #storeWriteLock} first commits all the puts that are pending at that point, so concurrent puts
+   * share the lock acquisition and the index update instead of taking turns.
+   * @param messageSetToWrite the {@link MessageWriteSet} that was found to be absent in the store.
+   * @param indexEndOffsetBeforeCheck the index end offset at the time the write set was checked against the store.
+   * @return the {@link MessageWriteSetStateInStore} of the write set at the time it was committed.
+   * @throws StoreException if the write set could not be committed.
+   */
+  private MessageWriteSetStateInStore groupCommitPut(MessageWriteSet messageSetToWrite,
+      Offset indexEndOffsetBeforeCheck) throws StoreException {
+    PendingPut pendingPut = new PendingPut(messageSetToWrite, indexEndOffsetBeforeCheck, time.milliseconds());
+    pendingPuts.add(pendingPut);
+    while (!pendingPut.future.isDone()) {
+      synchronized (storeWriteLock) {
+        if (!pendingPut.future.isDone()) {
+          commitPendingPuts();
+        }
+      }
+    }
+    try {
+      return pendingPut.future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof StoreException) {
+        throw (StoreException) e.getCause();
+      }
+      throw new StoreException("Unknown error while trying to put blobs to store " + dataDir, e.getCause(),
+          StoreErrorCodes.Unknown_Error);
+    }
+  }
+
+  /**
+   * Commits up to {@link StoreConfig#storeGroupCommitMaxBatchSize} pending puts. Each put is validated again against the
+   * entries added to the index after it was first checked. Puts whose keys collide with a put earlier in the same batch
+   * are only validated after the earlier puts are in the index.
+   * Has to be called with {@link #storeWriteLock} held.
+   */
+  private void commitPendingPuts() {
+    List<PendingPut> batch = new ArrayList<>();
+    PendingPut pendingPut;
+    while (batch.size() < config.storeGroupCommitMaxBatchSize && (pendingPut = pendingPuts.poll()) != null) {
+      batch.add(pendingPut);
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+    if (!started) {
+      StoreException e = new StoreException("Store not started", StoreErrorCodes.Store_Not_Started);
+      batch.forEach(put -> put.future.completeExceptionally(e));
+      return;
+    }
+    Exception failure = null;
+    try {
+      metrics.putGroupCommitBatchSize.update(batch.size());
+      long commitStartTimeMs = time.milliseconds();
+      List<PendingPut> group = new ArrayList<>(batch.size());
+      Set<StoreKey> keysInGroup = new HashSet<>();
+      for (PendingPut put : batch) {
+        metrics.putGroupCommitQueueWaitTimeInMs.update(commitStartTimeMs - put.enqueueTimeMs);
+        List<MessageInfo> messageInfos = put.messageSetToWrite.getMessageSetInfo();
+        if (messageInfos.stream().anyMatch(info -> keysInGroup.contains(info.getStoreKey()))) {
+          writePutGroup(group);
+          group.clear();
+          keysInGroup.clear();
+        }
+        try {
+          MessageWriteSetStateInStore state = MessageWriteSetStateInStore.ALL_ABSENT;
+          Offset currentIndexEndOffset = index.getCurrentEndOffset();
+          if (!currentIndexEndOffset.equals(put.indexEndOffsetBeforeCheck)) {
+            state = checkWriteSetStateInStore(put.messageSetToWrite,
+                new FileSpan(put.indexEndOffsetBeforeCheck, currentIndexEndOffset));
+          }
+          if (state == MessageWriteSetStateInStore.ALL_ABSENT) {
+            group.add(put);
+            messageInfos.forEach(info -> keysInGroup.add(info.getStoreKey()));
+          } else {
+            put.future.complete(state);
+          }
+        } catch (Exception e) {
+          put.future.completeExceptionally(e);
+        }
+      }
+      writePutGroup(group);
+      checkCapacityAndUpdateReplicaStatusDelegate();
+    } catch (Exception e) {
+      logger.error("Store : {} failed to commit a group of puts", dataDir, e);
+      failure = e;
+    } finally {
+      // A put that was polled but not completed would leave its caller waiting forever
+      Exception cause = failure != null ? failure
+          : new StoreException("Group commit of puts to store " + dataDir + " did not complete",
+              StoreErrorCodes.Unknown_Error);
+      batch.stream().filter(put -> !put.future.isDone()).forEach(put -> put.future.completeExceptionally(cause));
+    }
+  }
+
+  /**
+   * Writes the given puts to the log one after another and adds all their entries to the index in one call. If writing
+   * a put fails, that put and the ones after it are failed and only the puts written before it are added to the index.
+   * Any other exception is thrown to {@link #commitPendingPuts()}, which fails the puts of the group that are not
+   * complete. Once the entries are in the index, the puts succeed even if updating the stats fails.
+   * Has to be called with {@link #storeWriteLock} held.
+   * @param group the validated puts to write.
+   */
+  private void writePutGroup(List<PendingPut> group) {
+    if (group.isEmpty()) {
+      return;
+    }
+    Offset endOffsetOfLastMessage = log.getEndOffset();
+    long diskWriteStartTimeNs = time.nanoseconds();
+    long sizeWritten = 0;
+    List<IndexEntry> indexEntries = new ArrayList<>();
+    List<PendingPut> writtenPuts = new ArrayList<>(group.size());
+    for (PendingPut put : group) {
+      try {
+        sizeWritten += put.messageSetToWrite.writeTo(log);
+      } catch (Exception e) {
+        logger.error("Store : {} failed to write a message set of a group commit to log", dataDir, e);
+        group.subList(writtenPuts.size(), group.size()).forEach(failed -> failed.future.completeExceptionally(e));
+        break;
+      }
+      for (MessageInfo info : put.messageSetToWrite.getMessageSetInfo()) {
+        FileSpan fileSpan = log.getFileSpanForMessage(endOffsetOfLastMessage, info.getSize());
+        short lifeVersion = IndexValue.hasLifeVersion(info.getLifeVersion()) ? info.getLifeVersion() : (short) 0;
+        IndexValue value = new IndexValue(info.getSize(), fileSpan.getStartOffset(), IndexValue.FLAGS_DEFAULT_VALUE,
+            info.getExpirationTimeInMs(), info.getOperationTimeMs(), info.getAccountId(), info.getContainerId(),
+            lifeVersion);
+        indexEntries.add(new IndexEntry(info.getStoreKey(), value, info.getCrc()));
+        endOffsetOfLastMessage = fileSpan.getEndOffset();
+      }
+      writtenPuts.add(put);
+    }
+    if (writtenPuts.isEmpty()) {
+      return;
+    }
+    if (diskMetrics != null && sizeWritten > 0) {
+      diskMetrics.recordApplicationWrite(time.nanoseconds() - diskWriteStartTimeNs, sizeWritten);
+    }
+    logger.trace("Store : {} {} message sets of a group commit written to log", dataDir, writtenPuts.size());
+    try {
+      index.addToIndex(indexEntries,
+          new FileSpan(indexEntries.get(0).getValue().getOffset(), endOffsetOfLastMessage));
+    } catch (Exception e) {
+      writtenPuts.forEach(put -> put.future.completeExceptionally(e));
+      return;
+    }
+    logger.trace("Store : {} message sets of a group commit written to index", dataDir);
+    writtenPuts.forEach(put -> put.future.complete(MessageWriteSetStateInStore.ALL_ABSENT));
+    try {
+      for (IndexEntry newEntry : indexEntries) {
+        blobStoreStats.handleNewPutEntry(newEntry.getKey(), newEntry.getValue());
+      }
+    } catch (Exception e) {
+      logger.error("Store : {} failed to update stats for the puts of a group commit", dataDir, e);
+    }
+  }
+
   @Override
   public void delete(List<MessageInfo> infosToDelete) throws StoreException {
     checkStarted();
@@ -755,6 +969,7 @@ public class BlobStore implements Store {
           blobStoreStats.handleNewDeleteEntry(info.getStoreKey(), deleteIndexValue,
               originalPuts.get(correspondingPutIndex), indexValuesPriorToDelete.get(correspondingPutIndex));
           correspondingPutIndex++;
+          invalidateBlobReadCache(info.getStoreKey());
         }
         logger.trace("Store : {} delete has been marked in the index ", dataDir);
       }
@@ -948,6 +1163,7 @@ public class BlobStore implements Store {
           endOffsetOfLastMessage = fileSpan.getEndOffset();
           blobStoreStats.handleNewTtlUpdateEntry(info.getStoreKey(), ttlUpdateValue,
               indexValuesToUpdate.get(correspondingPutIndex++));
+          invalidateBlobReadCache(info.getStoreKey());
         }
         logger.trace("Store : {} ttl update has been marked in the index ", dataDir);
       }
@@ -1036,6 +1252,7 @@ public class BlobStore implements Store {
         IndexValue newUndelete = index.markAsUndeleted(info.getStoreKey(), fileSpan, null, info.getOperationTimeMs(),
             lifeVersionFromMessageInfo);
         blobStoreStats.handleNewUndeleteEntry(info.getStoreKey(), newUndelete, originalPut, latestValue);
+        invalidateBlobReadCache(info.getStoreKey());
       }
       onSuccess("UNDELETE");
       return revisedLifeVersion;
@@ -1501,6 +1718,9 @@ public class BlobStore implements Store {
         compactor.close(30);
         index.close(skipDiskFlush);
         log.close(skipDiskFlush);
+        if (blobReadCache != null) {
+          blobReadCache.invalidateStore(storeId);
+        }
         remoteTokenTracker.close();
         metrics.deregisterMetrics(storeId);
         setCurrentState(ReplicaState.OFFLINE);
@@ -1518,6 +1738,71 @@ public class BlobStore implements Store {
     }
   }
 
+  /**
+   * Schedules the validation of the sealed index segments that were loaded with their validation deferred on the index
+   * validation scheduler of the disk.
+   */
+  private void scheduleDeferredIndexValidation() {
+    final PersistentIndex indexToValidate = index;
+    Runnable validationTask = () -> {
+      try {
+        indexToValidate.completeDeferredValidation();
+      } catch (Exception e) {
+        onDeferredIndexValidationFailure(indexToValidate, e);
+      }
+    };
+    ScheduledExecutorService validationScheduler =
+        diskManager != null ? diskManager.getIndexValidationScheduler() : taskScheduler;
+    if (validationScheduler != null) {
+      validationScheduler.execute(validationTask);
+    } else {
+      validationTask.run();
+    }
+  }
+
+  /**
+   * Handles a failure of the deferred validation of the index like too many I/O errors: the store is shut down, its
+   * replica is disabled and the disk is checked. The next start of the store validates its whole index, so a store
+   * whose index is still corrupt fails to start and may be recovered by its {@link DiskManager}.
+   * @param validatedIndex the {@link PersistentIndex} that failed the validation.
+   * @param e the cause of the failure.
+   */
+  private void onDeferredIndexValidationFailure(PersistentIndex validatedIndex, Exception e) {
+    logger.error("Store : {} index failed the deferred validation, shutting down the store", storeId, e);
+    synchronized (storeWriteLock) {
+      if (!started || index != validatedIndex) {
+        return;
+      }
+      try {
+        shutdown(true);
+      } catch (StoreException se) {
+        logger.error("Store : {} failed to shut down after the deferred validation failed", storeId, se);
+      }
+    }
+    // Explicitly disable replica to trigger Helix state transition: LEADER -> STANDBY -> INACTIVE -> OFFLINE
+    if (config.storeSetLocalPartitionStateEnabled && !isDisabled.getAndSet(true) && replicaStatusDelegates != null) {
+      try {
+        replicaStatusDelegates.forEach(delegate -> delegate.disableReplica(replicaId));
+      } catch (Exception ex) {
+        logger.error("Failed to disable replica {} due to exception ", replicaId, ex);
+      }
+    }
+    metrics.deferredIndexValidationTriggeredShutdownCount.inc();
+    if (diskManager != null) {
+      diskManager.onBlobStoreIOError();
+    }
+  }
+
+  /**
+   * Invalidates the cached record of a blob after an update of the blob was added to the index.
+   * @param key the {@link StoreKey} of the blob.
+   */
+  private void invalidateBlobReadCache(StoreKey key) {
+    if (blobReadCache != null) {
+      blobReadCache.invalidate(key);
+    }
+  }
+
   /**
    * On an exception/error, if error count exceeds threshold, properly shutdown store.
    */
@@ -1600,6 +1885,70 @@ public class BlobStore implements Store {
     return started;
   }
 
+  /**
+   * Gets the files of the sealed log segments of this store, which can be copied to bootstrap a new replica instead of
+   * replicating the blobs one by one.
+   * @return the {@link StoreFileCopyInfo} of this store.
+   * @throws StoreException if the store is not started or the files could not be listed.
+   */
+  public StoreFileCopyInfo getFileCopyInfo() throws StoreException {
+    checkStarted();
+    return index.getFileCopyInfo();
+  }
+
+  /**
+   * Verifies the index and the log of a store that was started on files copied from a peer, before it serves any
+   * request. All the sealed index segments are validated, including the ones whose validation was deferred at startup,
+   * and the index has to cover the log up to its end offset.
+   * @throws StoreException if the store is not started, or its index or log failed the verification.
+   */
+  public void verifyCopiedFiles() throws StoreException {
+    checkStarted();
+    index.completeDeferredValidation();
+    Offset indexEndOffset = index.getCurrentEndOffset();
+    Offset logEndOffset = log.getEndOffset();
+    if (!indexEndOffset.equals(logEndOffset)) {
+      throw new StoreException(
+          "Index end offset " + indexEndOffset + " of copied store " + storeId + " does not match log end offset "
+              + logEndOffset, StoreErrorCodes.Log_End_Offset_Error);
+    }
+  }
+
+  /**
+   * @param fileName the name of a file in the directory of a store.
+   * @return {@code true} if the file is a log segment, index segment or bloom filter file, which are the files copied
+   *         from a peer, or the temporary file of one.
+   */
+  public static boolean isFileCopyFile(String fileName) {
+    if (fileName.equals(LogSegmentName.SINGLE_SEGMENT_LOG_FILE_NAME)) {
+      return true;
+    }
+    for (String suffix : FILE_COPY_FILE_SUFFIXES) {
+      if (fileName.endsWith(suffix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Deletes the files copied from a peer into {@code storeDir}, the hard delete token that points into them and the
+   * marker file of the copy, so that the store starts empty. The marker file is deleted last, so that the files are
+   * deleted again if this is interrupted.
+   * @param storeDir the directory of the store, which must not be started.
+   * @throws IOException if a file could not be deleted.
+   */
+  public static void abandonFileCopy(File storeDir) throws IOException {
+    File[] files = storeDir.listFiles((dir, name) -> isFileCopyFile(name));
+    if (files != null) {
+      for (File file : files) {
+        Utils.deleteFileOrDirectory(file);
+      }
+    }
+    Utils.deleteFileOrDirectory(new File(storeDir, HardDeleter.Cleanup_Token_Filename));
+    Utils.deleteFileOrDirectory(new File(storeDir, FILE_COPY_IN_PROGRESS_FILE_NAME));
+  }
+
   /**
    * Compacts the store data based on {@code details}.
    * @param details the {@link CompactionDetails} describing what needs to be compacted.
@@ -27,9 +27,11 @@ import java.io.FilenameFilter;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -42,6 +44,10 @@ import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -63,6 +69,7 @@ import static com.github.ambry.store.StoreFindToken.*;
 class BlobStoreCompactor {
   static final String COMPACTION_CLEANUP_JOB_NAME = "blob_store_compactor_cleanup";
   static final String INDEX_SEGMENT_READ_JOB_NAME = "blob_store_compactor_index_segment_read";
+  static final String COMPACTION_READ_AHEAD_THREAD_NAME_PREFIX = "compaction-read-ahead-";
   static final String TARGET_INDEX_CLEAN_SHUTDOWN_FILE_NAME = "compactor_clean_shutdown";
   static final String TEMP_LOG_SEGMENT_NAME_SUFFIX = BlobStore.SEPARATOR + "temp";
   static final FilenameFilter TEMP_LOG_SEGMENTS_FILTER = new FilenameFilter() {
@@ -104,6 +111,8 @@ class BlobStoreCompactor {
   private CompactionLog compactionLog;
   private volatile CountDownLatch runningLatch = new CountDownLatch(0);
   private byte[] bundleReadBuffer;
+  private ExecutorService readAheadExecutor;
+  private List<byte[]> readAheadBuffers;
   private long lastCompactionTimestampInSec = 0;
   private final AtomicReference<CompactionDetails> currentCompactionDetails = new AtomicReference();
   private final AtomicInteger compactedLogCount = new AtomicInteger(0);
@@ -301,6 +310,7 @@ class BlobStoreCompactor {
       getDeprecatedContainers();
       logger.info("Deprecated containers are {} for {}", deprecatedContainers, storeId);
     }
+    startReadAhead();
     try {
       while (isActive && !compactionLog.getCompactionPhase().equals(CompactionLog.Phase.DONE)) {
         CompactionLog.Phase phase = compactionLog.getCompactionPhase();
@@ -339,6 +349,7 @@ class BlobStoreCompactor {
       }
       throw new StoreException("Exception during compaction", e, StoreErrorCodes.Unknown_Error);
     } finally {
+      stopReadAhead();
       compactionInProgress.set(false);
       runningLatch.countDown();
       logger.trace("resumeCompaction() ended for {}", storeId);
@@ -706,8 +717,11 @@ class BlobStoreCompactor {
     boolean checkAlreadyCopied = isIndexSegmentUnderCopy(indexSegmentToCopy.getStartOffset());
     logger.trace("Should check already copied for {}: {} ", indexSegmentToCopy.getFile(), checkAlreadyCopied);
 
+    long filterStartTime = SystemTime.getInstance().milliseconds();
     List<IndexEntry> indexEntriesToCopy =
         validEntryFilter.getValidEntry(indexSegmentToCopy, duplicateSearchSpan, checkAlreadyCopied);
+    srcMetrics.compactionValidEntryFilterTimeInMs.update(SystemTime.getInstance().milliseconds() - filterStartTime,
+        TimeUnit.MILLISECONDS);
     long dataSize = indexEntriesToCopy.stream().mapToLong(entry -> entry.getValue().getSize()).sum();
     logger.trace("{} entries/{} bytes need to be copied in {} with {}", indexEntriesToCopy.size(), dataSize,
         indexSegmentToCopy.getFile(), storeId);
@@ -740,6 +754,49 @@ class BlobStoreCompactor {
     return isFromDeprecatedContainer;
   }
 
+  /**
+   * Gets the latest states of the keys of the given index entries. If
+   * {@link StoreConfig#storeCompactionBatchLatestStateLookupEnabled} is set, all the keys are searched in a single
+   * batch, so every index segment of the source index is visited once instead of once per key.
+   * @param indexEntries the {@link IndexEntry}s whose keys will be looked up.
+   * @return the {@link LatestStates} of the keys.
+   * @throws StoreException if there are problems reading the index.
+   */
+  private LatestStates getLatestStates(Iterable<IndexEntry> indexEntries) throws StoreException {
+    if (!config.storeCompactionBatchLatestStateLookupEnabled) {
+      return new LatestStates(null);
+    }
+    Set<StoreKey> keys = new HashSet<>();
+    for (IndexEntry indexEntry : indexEntries) {
+      keys.add(indexEntry.getKey());
+    }
+    return new LatestStates(srcIndex.findKeys(keys));
+  }
+
+  /**
+   * The latest states of keys in the source index, either looked up in a batch or searched one key at a time.
+   */
+  private class LatestStates {
+    private final Map<StoreKey, IndexValue> values;
+
+    /**
+     * @param values the latest states of the keys found by a batched lookup, or {@code null} to search the source index
+     *               for every key.
+     */
+    LatestStates(Map<StoreKey, IndexValue> values) {
+      this.values = values;
+    }
+
+    /**
+     * @param key the {@link StoreKey} to get the latest state of.
+     * @return the {@link IndexValue} that represents the latest state of the key, or {@code null} if it is not found.
+     * @throws StoreException if there are problems reading the index.
+     */
+    IndexValue get(StoreKey key) throws StoreException {
+      return values != null ? values.get(key) : srcIndex.findKey(key);
+    }
+  }
+
   /**
    * Determines if {@code copyCandidate} is a duplicate.
    * @param copyCandidate the {@link IndexEntry} to check
@@ -858,7 +915,10 @@ class BlobStoreCompactor {
     boolean copiedAll = true;
     long totalCapacity = tgtLog.getCapacityInBytes();
     long writtenLastTime = 0;
-    try (FileChannel fileChannel = Utils.openChannel(logSegmentToCopy.getView().getFirst(), false)) {
+    try (FileChannel fileChannel = Utils.openChannel(logSegmentToCopy.getView().getFirst(), false);
+        // closed before the channel, so that no read ahead outlives it.
+        ReadAhead readAhead = readAheadExecutor == null ? null
+            : new ReadAhead(logSegmentToCopy, fileChannel, srcIndexEntries)) {
       // byte[] for both general IO and direct IO.
       byte[] byteArrayToUse;
       // ByteBuffer for general IO
@@ -869,34 +929,16 @@ class BlobStoreCompactor {
       int readSize;
       while (start < srcIndexEntries.size()) {
         // try to do a bundle of read to reduce disk IO
-        long startOffset = srcIndexEntries.get(start).getValue().getOffset().getOffset();
-        if (bundleReadBuffer == null || srcIndexEntries.get(start).getValue().getSize() > bundleReadBuffer.length) {
-          end = start;
-          readSize = (int) srcIndexEntries.get(start).getValue().getSize();
-          byteArrayToUse = new byte[readSize];
-          srcMetrics.compactionBundleReadBufferNotFitIn.inc();
-          logger.trace("Record size greater than bundleReadBuffer capacity, key: {} size: {}",
-              srcIndexEntries.get(start).getKey(), srcIndexEntries.get(start).getValue().getSize());
-        } else {
-          end = getBundleReadEndIndex(srcIndexEntries, start);
-          readSize = (int) (srcIndexEntries.get(end).getValue().getOffset().getOffset() + srcIndexEntries.get(end)
-              .getValue()
-              .getSize() - startOffset);
-          byteArrayToUse = bundleReadBuffer;
-          srcMetrics.compactionBundleReadBufferUsed.inc();
-        }
-        if (useDirectIO) {
-          // do direct IO read
-          logSegmentToCopy.readIntoDirectly(byteArrayToUse, startOffset, readSize);
-        } else {
-          // do general IO read
+        ReadBundle bundle = readAhead != null ? readAhead.next()
+            : readBundle(logSegmentToCopy, fileChannel, srcIndexEntries, start,
+                getBundleEndIndex(srcIndexEntries, start), bundleReadBuffer);
+        long startOffset = bundle.startOffset;
+        end = bundle.end;
+        readSize = bundle.readSize;
+        byteArrayToUse = bundle.buffer;
+        if (!useDirectIO) {
           bufferToUse = ByteBuffer.wrap(byteArrayToUse);
-          bufferToUse.position(0);
-          bufferToUse.limit(readSize);
-          int ioCount = Utils.readFileToByteBuffer(fileChannel, startOffset, bufferToUse);
-          srcMetrics.compactionBundleReadBufferIoCount.inc(ioCount);
         }
-        srcMetrics.compactionBufferReadSize.update(readSize);
 
         // copy from buffer to tgtLog
         int effectiveBytes = 0;
@@ -1046,6 +1088,9 @@ class BlobStoreCompactor {
         if (readSize != 0) {
           srcMetrics.compactionBufferReadUtilizationRate.update((int) (effectiveBytes * 1.0 / readSize * 100));
         }
+        if (readAhead != null) {
+          readAhead.release(bundle);
+        }
         if (!copiedAll) {
           // break outer while loop
           break;
@@ -1059,6 +1104,93 @@ class BlobStoreCompactor {
     return copiedAll;
   }
 
+  /**
+   * Gets the farthest index that can be read together with the entry at {@code start}. A record that does not fit in
+   * the bundle read buffer is read on its own.
+   * @param sortedSrcIndexEntries all available entries, which are ordered by offset.
+   * @param start the starting index for the given list.
+   * @return the farthest index, inclusively, which can be read together with {@code start}.
+   */
+  private int getBundleEndIndex(List<IndexEntry> sortedSrcIndexEntries, int start) {
+    if (bundleReadBuffer == null || sortedSrcIndexEntries.get(start).getValue().getSize() > bundleReadBuffer.length) {
+      return start;
+    }
+    return getBundleReadEndIndex(sortedSrcIndexEntries, start);
+  }
+
+  /**
+   * Reads the records of the entries from {@code start} to {@code end} of the given log segment in a single read.
+   * @param logSegmentToCopy the {@link LogSegment} to read from.
+   * @param fileChannel the {@link FileChannel} of {@code logSegmentToCopy}, used for general IO reads.
+   * @param srcIndexEntries the {@link IndexEntry}s to copy, ordered by offset.
+   * @param start the index of the first entry to read.
+   * @param end the index of the last entry to read, as returned by {@link #getBundleEndIndex}.
+   * @param pooledBuffer the buffer to read into, or {@code null} if there is none. A buffer is allocated for a record
+   *                     that does not fit in it.
+   * @return the {@link ReadBundle} with the records that were read.
+   * @throws IOException if there were I/O errors reading the log segment.
+   */
+  private ReadBundle readBundle(LogSegment logSegmentToCopy, FileChannel fileChannel, List<IndexEntry> srcIndexEntries,
+      int start, int end, byte[] pooledBuffer) throws IOException {
+    long startOffset = srcIndexEntries.get(start).getValue().getOffset().getOffset();
+    int readSize;
+    byte[] byteArrayToUse;
+    if (pooledBuffer == null || srcIndexEntries.get(start).getValue().getSize() > pooledBuffer.length) {
+      readSize = (int) srcIndexEntries.get(start).getValue().getSize();
+      byteArrayToUse = new byte[readSize];
+      srcMetrics.compactionBundleReadBufferNotFitIn.inc();
+      logger.trace("Record size greater than bundleReadBuffer capacity, key: {} size: {}",
+          srcIndexEntries.get(start).getKey(), srcIndexEntries.get(start).getValue().getSize());
+    } else {
+      readSize = (int) (srcIndexEntries.get(end).getValue().getOffset().getOffset() + srcIndexEntries.get(end)
+          .getValue()
+          .getSize() - startOffset);
+      byteArrayToUse = pooledBuffer;
+      srcMetrics.compactionBundleReadBufferUsed.inc();
+    }
+    if (useDirectIO) {
+      // do direct IO read
+      logSegmentToCopy.readIntoDirectly(byteArrayToUse, startOffset, readSize);
+    } else {
+      // do general IO read
+      ByteBuffer bufferToUse = ByteBuffer.wrap(byteArrayToUse);
+      bufferToUse.limit(readSize);
+      int ioCount = Utils.readFileToByteBuffer(fileChannel, startOffset, bufferToUse);
+      srcMetrics.compactionBundleReadBufferIoCount.inc(ioCount);
+    }
+    srcMetrics.compactionBufferReadSize.update(readSize);
+    return new ReadBundle(end, startOffset, readSize, byteArrayToUse, pooledBuffer);
+  }
+
+  /**
+   * Starts the thread that reads ahead the records to copy, if {@link StoreConfig#storeCompactionReadAheadBundleCount}
+   * is set and bundle reads are enabled. Every bundle read ahead gets its own buffer of the size of the bundle read
+   * buffer.
+   */
+  private void startReadAhead() {
+    if (config.storeCompactionReadAheadBundleCount <= 0 || bundleReadBuffer == null) {
+      return;
+    }
+    readAheadBuffers = new ArrayList<>();
+    readAheadBuffers.add(bundleReadBuffer);
+    for (int i = 0; i < config.storeCompactionReadAheadBundleCount; i++) {
+      readAheadBuffers.add(new byte[bundleReadBuffer.length]);
+    }
+    readAheadExecutor = Executors.newSingleThreadExecutor(
+        runnable -> Utils.newThread(COMPACTION_READ_AHEAD_THREAD_NAME_PREFIX + storeId, runnable, true));
+  }
+
+  /**
+   * Stops the thread that reads ahead the records to copy and releases its buffers.
+   */
+  private void stopReadAhead() {
+    if (readAheadExecutor != null) {
+      readAheadExecutor.shutdownNow();
+      readAheadExecutor = null;
+      readAheadBuffers = null;
+    }
+  }
+
   /**
    * Cleans up any unused temporary segments. Can happen only if there were no entries to be copied and all the segments
    * under compaction can be just dropped.
@@ -1461,6 +1593,122 @@ class BlobStoreCompactor {
     return true;
   }
 
+  /**
+   * The records of consecutive index entries that were read from a log segment in a single read.
+   */
+  private static class ReadBundle {
+    final int end;
+    final long startOffset;
+    final int readSize;
+    final byte[] buffer;
+    final byte[] pooledBuffer;
+
+    /**
+     * @param end the index of the last entry that was read.
+     * @param startOffset the offset in the log segment of the first record that was read.
+     * @param readSize the number of bytes that were read.
+     * @param buffer the buffer that holds the records.
+     * @param pooledBuffer the buffer that was handed to the read, to be reused once the records are copied.
+     */
+    ReadBundle(int end, long startOffset, int readSize, byte[] buffer, byte[] pooledBuffer) {
+      this.end = end;
+      this.startOffset = startOffset;
+      this.readSize = readSize;
+      this.buffer = buffer;
+      this.pooledBuffer = pooledBuffer;
+    }
+  }
+
+  /**
+   * Reads the records of a log segment ahead of the copy on the read ahead thread, so that the reads of the next
+   * bundles overlap with the writes of the current one. Reads are submitted as long as there is a free buffer, so the
+   * reader never gets more than {@link StoreConfig#storeCompactionReadAheadBundleCount} bundles ahead of the writer
+   * and the reads are throttled along with the writes.
+   */
+  private class ReadAhead implements AutoCloseable {
+    private final LogSegment logSegmentToCopy;
+    private final FileChannel fileChannel;
+    private final List<IndexEntry> srcIndexEntries;
+    private final Deque<byte[]> freeBuffers;
+    private final Deque<Future<ReadBundle>> pendingReads = new ArrayDeque<>();
+    private int nextStart = 0;
+
+    /**
+     * @param logSegmentToCopy the {@link LogSegment} to read from.
+     * @param fileChannel the {@link FileChannel} of {@code logSegmentToCopy}, used for general IO reads.
+     * @param srcIndexEntries the {@link IndexEntry}s to copy, ordered by offset.
+     */
+    ReadAhead(LogSegment logSegmentToCopy, FileChannel fileChannel, List<IndexEntry> srcIndexEntries) {
+      this.logSegmentToCopy = logSegmentToCopy;
+      this.fileChannel = fileChannel;
+      this.srcIndexEntries = srcIndexEntries;
+      freeBuffers = new ArrayDeque<>(readAheadBuffers);
+      submitReads();
+    }
+
+    /**
+     * @return the next {@link ReadBundle}, waiting for its read to complete if required.
+     * @throws IOException if there were I/O errors reading the log segment.
+     * @throws StoreException if the wait was interrupted or the read failed.
+     */
+    ReadBundle next() throws IOException, StoreException {
+      long startTime = SystemTime.getInstance().milliseconds();
+      try {
+        return pendingReads.remove().get();
+      } catch (InterruptedException e) {
+        throw new StoreException("Interrupted while waiting for compaction read ahead in " + storeId, e,
+            StoreErrorCodes.Unknown_Error);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof IOException) {
+          throw (IOException) e.getCause();
+        }
+        throw new StoreException("Compaction read ahead failed in " + storeId, e.getCause(),
+            StoreErrorCodes.Unknown_Error);
+      } finally {
+        srcMetrics.compactionReadAheadWaitTimeInMs.update(SystemTime.getInstance().milliseconds() - startTime,
+            TimeUnit.MILLISECONDS);
+      }
+    }
+
+    /**
+     * Returns the buffer of a {@link ReadBundle} whose records were copied, and reads ahead into it.
+     * @param bundle the {@link ReadBundle} returned by {@link #next()}.
+     */
+    void release(ReadBundle bundle) {
+      freeBuffers.add(bundle.pooledBuffer);
+      submitReads();
+    }
+
+    /**
+     * Waits for the reads in flight, so that none of them uses the channel or the buffers after the copy is done.
+     */
+    @Override
+    public void close() {
+      for (Future<ReadBundle> pendingRead : pendingReads) {
+        try {
+          pendingRead.get();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        } catch (ExecutionException e) {
+          logger.trace("Ignoring failed compaction read ahead in {}", storeId, e.getCause());
+        }
+      }
+      pendingReads.clear();
+    }
+
+    private void submitReads() {
+      while (nextStart < srcIndexEntries.size() && !freeBuffers.isEmpty()) {
+        int start = nextStart;
+        int end = getBundleEndIndex(srcIndexEntries, start);
+        byte[] buffer = freeBuffers.remove();
+        pendingReads.add(readAheadExecutor.submit(
+            () -> readBundle(logSegmentToCopy, fileChannel, srcIndexEntries, start, end, buffer)));
+        nextStart = end + 1;
+      }
+    }
+  }
+
   /**
    * IndexSegmentValidEntryFilter without undelete log records.
    */
@@ -1519,6 +1767,10 @@ class BlobStoreCompactor {
       // PUT + TTL update -> PUT (the one relevant to this comment)
       // PUT + TTL update + DELETE -> DELETE
       long deleteReferenceTime = compactionLog.getCompactionDetails().getReferenceTimeMs();
+      // only the PUT entries need the latest state of their keys.
+      LatestStates latestStates = getLatestStates(allIndexEntries.stream()
+          .filter(indexEntry -> !indexEntry.getValue().isDelete() && !indexEntry.getValue().isTtlUpdate())
+          .collect(Collectors.toList()));
       List<IndexEntry> validEntries = new ArrayList<>();
       for (IndexEntry indexEntry : allIndexEntries) {
         IndexValue value = indexEntry.getValue();
@@ -1560,7 +1812,7 @@ class BlobStoreCompactor {
             validEntries.add(indexEntry);
           }
         } else {
-          IndexValue valueFromIdx = srcIndex.findKey(indexEntry.getKey());
+          IndexValue valueFromIdx = latestStates.get(indexEntry.getKey());
           // Doesn't matter whether we get the PUT or DELETE entry for the expiry test
           if (!srcIndex.isExpired(valueFromIdx)) {
             // unexpired PUT entry.
@@ -1746,6 +1998,7 @@ class BlobStoreCompactor {
       //                     | Undelete(f)       | c==f&&!isExpired(Uf)?true:false              |
       // ----------------------------------------------------------------------------------------
       List<IndexEntry> validEntries = new ArrayList<>();
+      LatestStates latestStates = getLatestStates(indexSegment);
       StoreKey previousKey = null;
       IndexValue previousLatestState = null;
       for (IndexEntry entry : indexSegment) {
@@ -1768,7 +2021,7 @@ class BlobStoreCompactor {
           currentLatestState = previousLatestState;
         } else {
           previousKey = currentKey;
-          previousLatestState = currentLatestState = srcIndex.findKey(currentKey);
+          previousLatestState = currentLatestState = latestStates.get(currentKey);
         }
 
         if (currentValue.isUndelete()) {
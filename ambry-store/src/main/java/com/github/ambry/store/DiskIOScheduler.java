@@ -14,9 +14,18 @@
 
 package com.github.ambry.store;
 
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Histogram;
+import com.github.ambry.utils.SystemTime;
 import com.github.ambry.utils.Throttler;
+import com.github.ambry.utils.Time;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 /**
@@ -25,18 +34,57 @@ import java.util.Map;
  * 1. Application reads/writes from/to the log.
  * 2. Hard delete
  * 3. Compaction
- * The initial implementation simply returns MAX_VALUE for the application and uses the throttler for the other 2.
- * In the future this will have functions to submit feedback so that more intelligent decisions can be made.
+ * Application I/O always has priority and is never throttled. The other job types use throttlers. When
+ * {@link IOClass}es are provided, the rates of the throttlers are adjusted periodically by {@link #adjustBudgets()}:
+ * all background rates are scaled down when the latency of application I/O on the disk is above the target and scaled
+ * back up when it recovers, and job types with a weight share a common budget by weight, so that an idle job type
+ * leaves its share to the active ones.
  */
 public class DiskIOScheduler {
+  private static final Logger logger = LoggerFactory.getLogger(DiskIOScheduler.class);
+  static final double BUDGET_DECREASE_FACTOR = 0.5;
+  static final double BUDGET_INCREASE_STEP = 0.1;
   private final Map<String, Throttler> throttlers;
+  private final Map<String, IOClass> ioClasses;
+  private final DiskMetrics diskMetrics;
+  private final Time time;
+  private final double targetLatencyPerMbMs;
+  private final double minBudgetFactor;
+  private volatile double budgetFactor = 1.0;
 
   /**
    * Create a {@link DiskIOScheduler}.
    * @param throttlers the {@link Throttler}s to use for each job type.
    */
   public DiskIOScheduler(Map<String, Throttler> throttlers) {
+    this(throttlers, null, null, SystemTime.getInstance(), Double.MAX_VALUE, 1.0);
+  }
+
+  /**
+   * Create a {@link DiskIOScheduler} that adapts the rates of its throttlers.
+   * @param throttlers the {@link Throttler}s to use for each job type.
+   * @param ioClasses the {@link IOClass} of each job type whose throttler rate is adjusted.
+   * @param diskMetrics the {@link DiskMetrics} of the disk, used for the latency of application I/O and to register
+   *                    the metrics of the I/O classes. Can be {@code null}, in which case budgets are not adjusted.
+   * @param time the {@link Time} instance to use.
+   * @param targetLatencyPerMbMs the disk read/write time per MB above which background I/O is slowed down.
+   * @param minBudgetFactor the lowest fraction of the configured rates that background I/O can be slowed down to.
+   */
+  DiskIOScheduler(Map<String, Throttler> throttlers, Map<String, IOClass> ioClasses, DiskMetrics diskMetrics,
+      Time time, double targetLatencyPerMbMs, double minBudgetFactor) {
     this.throttlers = throttlers != null ? throttlers : new HashMap<String, Throttler>();
+    this.ioClasses = ioClasses != null ? ioClasses : Collections.emptyMap();
+    this.diskMetrics = diskMetrics;
+    this.time = time;
+    this.targetLatencyPerMbMs = targetLatencyPerMbMs;
+    this.minBudgetFactor = minBudgetFactor;
+    if (diskMetrics != null) {
+      diskMetrics.registry.gauge(diskMetrics.getDiskIOSchedulerMetricName("BackgroundBudgetPercentage"),
+          () -> () -> budgetFactor * 100);
+      for (Map.Entry<String, IOClass> entry : this.ioClasses.entrySet()) {
+        entry.getValue().registerMetrics(entry.getKey(), diskMetrics);
+      }
+    }
   }
 
   /**
@@ -49,15 +97,78 @@ public class DiskIOScheduler {
   long getSlice(String jobType, String jobId, long usedSinceLastCall) {
     Throttler throttler = throttlers.get(jobType);
     if (throttler != null) {
+      IOClass ioClass = ioClasses.get(jobType);
+      long startTimeMs = time.milliseconds();
+      if (ioClass != null) {
+        ioClass.onRequest(usedSinceLastCall);
+      }
       try {
         throttler.maybeThrottle(usedSinceLastCall);
       } catch (InterruptedException e) {
         throw new IllegalStateException("Throttler call interrupted", e);
+      } finally {
+        if (ioClass != null) {
+          ioClass.onRequestDone(time.milliseconds() - startTimeMs);
+        }
       }
     }
     return Long.MAX_VALUE;
   }
 
+  /**
+   * Adjusts the rates of the throttlers of all {@link IOClass}es based on the latency of the disk and on which job types
+   * were active since the last adjustment. Meant to be called periodically.
+   */
+  void adjustBudgets() {
+    if (diskMetrics == null || ioClasses.isEmpty()) {
+      return;
+    }
+    // application I/O since the last adjustment, weighted by size. No application I/O leaves nothing to protect.
+    double latencyPerMbMs = diskMetrics.getAndResetApplicationIoTimePerMbInMs();
+    double oldBudgetFactor = budgetFactor;
+    if (latencyPerMbMs > targetLatencyPerMbMs) {
+      budgetFactor = Math.max(minBudgetFactor, budgetFactor * BUDGET_DECREASE_FACTOR);
+    } else {
+      budgetFactor = Math.min(1.0, budgetFactor + BUDGET_INCREASE_STEP);
+    }
+    if (budgetFactor != oldBudgetFactor) {
+      logger.debug("Background I/O budget changed from {} to {} as disk latency per MB is {} ms", oldBudgetFactor,
+          budgetFactor, latencyPerMbMs);
+    }
+    double sharedBudget = 0;
+    double activeWeight = 0;
+    Map<String, Boolean> activeClasses = new HashMap<>();
+    for (Map.Entry<String, IOClass> entry : ioClasses.entrySet()) {
+      IOClass ioClass = entry.getValue();
+      boolean active = ioClass.checkAndResetActive();
+      activeClasses.put(entry.getKey(), active);
+      if (ioClass.weight > 0) {
+        sharedBudget += ioClass.baseRatePerSec;
+        activeWeight += active ? ioClass.weight : 0;
+      }
+    }
+    for (Map.Entry<String, IOClass> entry : ioClasses.entrySet()) {
+      IOClass ioClass = entry.getValue();
+      double rate = ioClass.baseRatePerSec;
+      if (ioClass.weight > 0 && activeWeight > 0 && activeClasses.get(entry.getKey())) {
+        rate = sharedBudget * ioClass.weight / activeWeight;
+      }
+      rate = Math.max(1, rate * budgetFactor);
+      ioClass.currentRatePerSec = rate;
+      Throttler throttler = throttlers.get(entry.getKey());
+      if (throttler != null) {
+        throttler.updateDesiredRatePerSecond(rate);
+      }
+    }
+  }
+
+  /**
+   * @return the fraction of the configured rates that background I/O is currently allowed.
+   */
+  double getBudgetFactor() {
+    return budgetFactor;
+  }
+
   /**
    * Disables the DiskIOScheduler i.e. there will be no more blocking calls
    */
@@ -75,8 +186,82 @@ public class DiskIOScheduler {
   void updateThrottlerDesiredRate(String jobType, double newDesiredRatePerSec) {
     Throttler throttler = throttlers.get(jobType);
     if (throttler != null) {
+      IOClass ioClass = ioClasses.get(jobType);
+      if (ioClass != null) {
+        ioClass.baseRatePerSec = newDesiredRatePerSec;
+        newDesiredRatePerSec = Math.max(1, newDesiredRatePerSec * budgetFactor);
+        ioClass.currentRatePerSec = newDesiredRatePerSec;
+      }
       throttler.updateDesiredRatePerSecond(newDesiredRatePerSec);
     }
   }
-}
 
+  /**
+   * The scheduling parameters and state of a background job type.
+   */
+  static class IOClass {
+    final int weight;
+    volatile double baseRatePerSec;
+    volatile double currentRatePerSec;
+    private final AtomicLong usedSinceLastAdjustment = new AtomicLong(0);
+    private final AtomicInteger waitingRequests = new AtomicInteger(0);
+    private Counter usedUnitsCount;
+    private Histogram throttleTimeInMs;
+
+    /**
+     * @param baseRatePerSec the configured rate of the job type.
+     * @param weight the weight of the job type when it shares the background budget with other job types. 0 if the job
+     *               type does not share its budget, for instance because its rate is not in bytes.
+     */
+    IOClass(double baseRatePerSec, int weight) {
+      this.baseRatePerSec = baseRatePerSec;
+      this.currentRatePerSec = baseRatePerSec;
+      this.weight = weight;
+    }
+
+    /**
+     * Registers the metrics of this I/O class.
+     * @param jobType the job type of this I/O class.
+     * @param diskMetrics the {@link DiskMetrics} of the disk.
+     */
+    private void registerMetrics(String jobType, DiskMetrics diskMetrics) {
+      usedUnitsCount = diskMetrics.registry.counter(diskMetrics.getDiskIOSchedulerMetricName(jobType + "UsedUnits"));
+      throttleTimeInMs =
+          diskMetrics.registry.histogram(diskMetrics.getDiskIOSchedulerMetricName(jobType + "ThrottleTimeInMs"));
+      diskMetrics.registry.gauge(diskMetrics.getDiskIOSchedulerMetricName(jobType + "WaitingRequests"),
+          () -> waitingRequests::get);
+      diskMetrics.registry.gauge(diskMetrics.getDiskIOSchedulerMetricName(jobType + "RatePerSec"),
+          () -> () -> currentRatePerSec);
+    }
+
+    /**
+     * Records a request for an I/O slice.
+     * @param used the amount of capacity used since the last request.
+     */
+    private void onRequest(long used) {
+      waitingRequests.incrementAndGet();
+      usedSinceLastAdjustment.addAndGet(used);
+      if (usedUnitsCount != null) {
+        usedUnitsCount.inc(used);
+      }
+    }
+
+    /**
+     * Records the completion of a request for an I/O slice.
+     * @param throttledMs the time the request was throttled for.
+     */
+    private void onRequestDone(long throttledMs) {
+      waitingRequests.decrementAndGet();
+      if (throttleTimeInMs != null) {
+        throttleTimeInMs.update(throttledMs);
+      }
+    }
+
+    /**
+     * @return {@code true} if this I/O class used any capacity or had requests waiting since the last call.
+     */
+    private boolean checkAndResetActive() {
+      return usedSinceLastAdjustment.getAndSet(0) > 0 || waitingRequests.get() > 0;
+    }
+  }
+}
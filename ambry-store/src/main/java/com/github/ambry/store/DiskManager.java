@@ -43,8 +43,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -86,12 +89,17 @@ public class DiskManager {
   private final MessageStoreHardDelete hardDelete;
   private final List<String> unexpectedDirs = new ArrayList<>();
   private final AccountService accountService;
+  private final BlobReadCache blobReadCache;
   private final DiskManagerConfig diskManagerConfig;
   private volatile boolean running = false;
+  private ScheduledFuture<?> ioBudgetAdjustmentFuture = null;
   private DiskHealthStatus diskHealthStatus;
   private final DiskHealthCheck diskHealthCheck;
   // Have a dedicated scheduler for persisting index segments to ensure index segments are always persisted
   private final ScheduledExecutorService indexPersistScheduler;
+  // Have a dedicated scheduler for the deferred validation of index segments, so that it runs for one store of the disk
+  // at a time and does not hold up the tasks on the long lived task scheduler.
+  private final ScheduledExecutorService indexValidationScheduler;
   private final EnumSet<StoreErrorCodes> recoverableStoreErrorCodes =
       EnumSet.of(StoreErrorCodes.Log_File_Format_Error, StoreErrorCodes.Index_File_Format_Error,
           StoreErrorCodes.Log_End_Offset_Error, StoreErrorCodes.Index_Recovery_Error);
@@ -118,12 +126,14 @@ public class DiskManager {
    * @param stoppedReplicas a set of replicas that have been stopped (which should be skipped during startup).
    * @param time the {@link Time} instance to use.
    * @param accountService the {@link AccountService} instance to use.
+   * @param blobReadCache the {@link BlobReadCache} shared by the stores of the host, or {@code null} if disabled.
    */
   DiskManager(DiskId disk, List<ReplicaId> replicas, StoreConfig storeConfig, DiskManagerConfig diskManagerConfig,
       ScheduledExecutorService scheduler, StorageManagerMetrics metrics, StoreMetrics storeMainMetrics,
       StoreMetrics storeUnderCompactionMetrics, StoreKeyFactory keyFactory, MessageStoreRecovery recovery,
       MessageStoreHardDelete hardDelete, List<ReplicaStatusDelegate> replicaStatusDelegates,
-      Set<String> stoppedReplicas, Time time, AccountService accountService) throws StoreException {
+      Set<String> stoppedReplicas, Time time, AccountService accountService, BlobReadCache blobReadCache)
+      throws StoreException {
     this.disk = disk;
     this.storeConfig = storeConfig;
     this.diskManagerConfig = diskManagerConfig;
@@ -135,10 +145,12 @@ public class DiskManager {
     this.recovery = recovery;
     this.hardDelete = hardDelete;
     this.accountService = accountService;
+    this.blobReadCache = blobReadCache;
     this.time = time;
-    diskIOScheduler = new DiskIOScheduler(getThrottlers(storeConfig, time));
     longLivedTaskScheduler = Utils.newScheduler(1, true);
     indexPersistScheduler = Utils.newScheduler(1, "index-persistor-for-disk-" + disk.getMountPath(), false);
+    indexValidationScheduler = storeConfig.storeDeferSealedIndexSegmentValidation ? Utils.newScheduler(1,
+        "index-validation-for-disk-" + disk.getMountPath(), true) : null;
     File reserveFileDir = new File(disk.getMountPath(), diskManagerConfig.diskManagerReserveFileDirName);
     diskSpaceAllocator = new DiskSpaceAllocator(diskManagerConfig.diskManagerEnableSegmentPooling, reserveFileDir,
         diskManagerConfig.diskManagerRequiredSwapSegmentsPerSize, metrics);
@@ -149,6 +161,14 @@ public class DiskManager {
     expectedDirs.add(reserveFileDir.getAbsolutePath());
     diskMetrics = new DiskMetrics(storeMainMetrics.getRegistry(), disk.getMountPath(),
         storeConfig.storeDiskIoReservoirTimeWindowMs);
+    if (storeConfig.storeDiskIoSchedulerAdaptiveEnabled) {
+      diskIOScheduler =
+          new DiskIOScheduler(getThrottlers(storeConfig, time), getIOClasses(storeConfig), diskMetrics, time,
+              storeConfig.storeDiskIoSchedulerTargetLatencyPerMbMs,
+              storeConfig.storeDiskIoSchedulerMinBudgetPercentage / 100.0);
+    } else {
+      diskIOScheduler = new DiskIOScheduler(getThrottlers(storeConfig, time));
+    }
     for (ReplicaId replica : replicas) {
       if (disk.equals(replica.getDiskId())) {
         BlobStore store = new BlobStore(replica, storeConfig, scheduler, longLivedTaskScheduler, this, diskIOScheduler,
@@ -186,12 +206,16 @@ public class DiskManager {
 
       ConcurrentHashMap<PartitionId, Exception> startExceptions = new ConcurrentHashMap<>();
       List<Thread> startupThreads = new ArrayList<>();
+      // stores are either started by a bounded pool of the disk, or each by its own thread.
+      ExecutorService startupExecutor = storeConfig.storeStartupThreadsPerDisk > 0 ? Executors.newFixedThreadPool(
+          storeConfig.storeStartupThreadsPerDisk,
+          runnable -> Utils.newThread("store-startup-for-disk-" + disk.getMountPath(), runnable, false)) : null;
       for (final Map.Entry<PartitionId, BlobStore> partitionAndStore : stores.entrySet()) {
         if (stoppedReplicas.contains(partitionAndStore.getKey().toPathString())) {
           logger.info("Skip the store {} because it is on the stopped list", partitionAndStore.getKey());
           continue;
         }
-        Thread thread = Utils.newThread("store-startup-" + partitionAndStore.getKey(), () -> {
+        Runnable startupTask = () -> {
           try {
             partitionAndStore.getValue().start();
           } catch (Exception e) {
@@ -199,13 +223,22 @@ public class DiskManager {
             logger.error("Exception while starting store for the {}", partitionAndStore.getKey(), e);
             startExceptions.put(partitionAndStore.getKey(), e);
           }
-        }, false);
-        thread.start();
-        startupThreads.add(thread);
+        };
+        if (startupExecutor != null) {
+          startupExecutor.execute(startupTask);
+        } else {
+          Thread thread = Utils.newThread("store-startup-" + partitionAndStore.getKey(), startupTask, false);
+          thread.start();
+          startupThreads.add(thread);
+        }
       }
       for (Thread startupThread : startupThreads) {
         startupThread.join();
       }
+      if (startupExecutor != null) {
+        startupExecutor.shutdown();
+        startupExecutor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+      }
       if (numStoreFailures.get() > 0) {
         logger.error("Could not start {} out of {} stores on the disk {}", numStoreFailures.get(), stores.size(), disk);
         maybeRecoverBlobStores(numStoreFailures.get(), startExceptions);
@@ -225,6 +258,11 @@ public class DiskManager {
       diskSpaceAllocator.initializePool(requirementsList);
       compactionManager.enable();
       running = true;
+      if (storeConfig.storeDiskIoSchedulerAdaptiveEnabled && ioBudgetAdjustmentFuture == null) {
+        ioBudgetAdjustmentFuture = scheduler.scheduleAtFixedRate(diskIOScheduler::adjustBudgets,
+            storeConfig.storeDiskIoSchedulerAdjustIntervalMs, storeConfig.storeDiskIoSchedulerAdjustIntervalMs,
+            TimeUnit.MILLISECONDS);
+      }
       if (diskHealthCheck.isEnabled()) {
         logger.info("Starting Disk Healthchecker");
         scheduler.scheduleAtFixedRate(() -> diskHealthCheck.diskHealthTest(), 0,
@@ -309,6 +347,10 @@ public class DiskManager {
     try {
       running = false;
       compactionManager.disable();
+      if (ioBudgetAdjustmentFuture != null) {
+        ioBudgetAdjustmentFuture.cancel(false);
+        ioBudgetAdjustmentFuture = null;
+      }
       diskIOScheduler.disable();
       final AtomicInteger numFailures = new AtomicInteger(0);
       List<Thread> shutdownThreads = new ArrayList<>();
@@ -342,6 +384,9 @@ public class DiskManager {
       if (indexPersistScheduler != null) {
         shutDownExecutorService(indexPersistScheduler, 30, TimeUnit.SECONDS);
       }
+      if (indexValidationScheduler != null) {
+        shutDownExecutorService(indexValidationScheduler, 30, TimeUnit.SECONDS);
+      }
     } finally {
       rwLock.readLock().unlock();
       metrics.diskShutdownTimeMs.update(time.milliseconds() - startTimeMs);
@@ -381,6 +426,21 @@ public class DiskManager {
     return compactionManager.isCompactionExecutorRunning();
   }
 
+  /**
+   * @return the {@link BlobReadCache} shared by the stores of the host, or {@code null} if it is disabled.
+   */
+  BlobReadCache getBlobReadCache() {
+    return blobReadCache;
+  }
+
+  /**
+   * @return the {@link ScheduledExecutorService} that runs the deferred validation of the index segments of the stores
+   *         on this disk, or {@code null} if the validation is not deferred.
+   */
+  ScheduledExecutorService getIndexValidationScheduler() {
+    return indexValidationScheduler;
+  }
+
   /**
    * @return the {@link DiskId} that is managed by this {@link DiskManager}.
    */
@@ -617,9 +677,31 @@ public class DiskManager {
     // stats
     Throttler statsIndexScanThrottler = new Throttler(config.storeStatsIndexEntriesPerSecond, 1000, true, time);
     throttlers.put(BlobStoreStats.IO_SCHEDULER_JOB_TYPE, statsIndexScanThrottler);
+    // deferred validation of sealed index segments
+    Throttler deferredValidationThrottler = new Throttler(config.storeDeferredValidationBytesPerSec, -1, true, time);
+    throttlers.put(PersistentIndex.DEFERRED_VALIDATION_JOB_NAME, deferredValidationThrottler);
     return throttlers;
   }
 
+  /**
+   * Gets the {@link DiskIOScheduler.IOClass}es of the background job types whose rates are adapted by the
+   * {@link DiskIOScheduler}. Compaction and hard delete share their budget by weight as both are rated in bytes.
+   * @param config the {@link StoreConfig} with the configured rates and weights.
+   * @return a map from job type to {@link DiskIOScheduler.IOClass}.
+   */
+  private Map<String, DiskIOScheduler.IOClass> getIOClasses(StoreConfig config) {
+    Map<String, DiskIOScheduler.IOClass> ioClasses = new HashMap<>();
+    ioClasses.put(BlobStoreCompactor.COMPACTION_CLEANUP_JOB_NAME,
+        new DiskIOScheduler.IOClass(config.storeCompactionOperationsBytesPerSec,
+            config.storeDiskIoSchedulerCompactionWeight));
+    ioClasses.put(HardDeleter.HARD_DELETE_CLEANUP_JOB_NAME,
+        new DiskIOScheduler.IOClass(config.storeHardDeleteOperationsBytesPerSec,
+            config.storeDiskIoSchedulerHardDeleteWeight));
+    ioClasses.put(BlobStoreStats.IO_SCHEDULER_JOB_TYPE,
+        new DiskIOScheduler.IOClass(config.storeStatsIndexEntriesPerSecond, 0));
+    return ioClasses;
+  }
+
   /**
    * @throws StoreException if the disk's mount path is inaccessible.
    *
@@ -20,6 +20,7 @@ import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.SlidingTimeWindowArrayReservoir;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 
 /**
@@ -28,15 +29,19 @@ import java.util.concurrent.TimeUnit;
 public class DiskMetrics {
   private static final String SEPARATOR = ".";
   public final MetricRegistry registry;
+  private final String prefix;
   public final Histogram diskReadTimePerMbInMs;
   public final Histogram diskWriteTimePerMbInMs;
   public final Meter diskCompactionCopyRateInBytes;
   public final Counter diskCompactionErrorDueToDiskFailureCount;
+  // application reads and writes since the last call to getAndResetApplicationIoTimePerMbInMs().
+  private final LongAdder applicationIoTimeInNs = new LongAdder();
+  private final LongAdder applicationIoSizeInBytes = new LongAdder();
 
   public DiskMetrics(MetricRegistry registry, String diskMountPath, int diskIoHistogramReservoirTimeWindow) {
     this.registry = registry;
     // Should be initialized only once per disk.
-    String prefix = diskMountPath + SEPARATOR;
+    prefix = diskMountPath + SEPARATOR;
     diskReadTimePerMbInMs = registry.histogram(MetricRegistry.name(BlobStore.class, prefix + "DiskReadTimePerMbInMs"),
         () -> new Histogram(
             new SlidingTimeWindowArrayReservoir(diskIoHistogramReservoirTimeWindow, TimeUnit.MILLISECONDS)));
@@ -49,4 +54,53 @@ public class DiskMetrics {
     diskCompactionErrorDueToDiskFailureCount =
         registry.counter(MetricRegistry.name(BlobStoreCompactor.class, prefix + "DiskCompactionErrorDueToDiskFailureCount"));
   }
+
+  /**
+   * Records a read of application data from the disk.
+   * @param timeInNs the time the read took, in nanoseconds.
+   * @param sizeInBytes the number of bytes read.
+   */
+  void recordApplicationRead(long timeInNs, long sizeInBytes) {
+    diskReadTimePerMbInMs.update(getTimePerMbInMs(timeInNs, sizeInBytes));
+    applicationIoTimeInNs.add(timeInNs);
+    applicationIoSizeInBytes.add(sizeInBytes);
+  }
+
+  /**
+   * Records a write of application data to the disk.
+   * @param timeInNs the time the write took, in nanoseconds.
+   * @param sizeInBytes the number of bytes written.
+   */
+  void recordApplicationWrite(long timeInNs, long sizeInBytes) {
+    diskWriteTimePerMbInMs.update(getTimePerMbInMs(timeInNs, sizeInBytes));
+    applicationIoTimeInNs.add(timeInNs);
+    applicationIoSizeInBytes.add(sizeInBytes);
+  }
+
+  /**
+   * Returns the time per MB of the application reads and writes since the last call. Since it is the total time over
+   * the total size, each read or write is weighted by its size, and small reads timed at a fraction of a millisecond
+   * do not skew it the way they skew a percentile of the per-read times.
+   * @return the time per MB of application I/O since the last call in milliseconds, or 0 if there was none.
+   */
+  double getAndResetApplicationIoTimePerMbInMs() {
+    long sizeInBytes = applicationIoSizeInBytes.sumThenReset();
+    long timeInNs = applicationIoTimeInNs.sumThenReset();
+    return sizeInBytes <= 0 ? 0 : (double) timeInNs * (1 << 20) / sizeInBytes / TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /**
+   * @return the time per MB of a read or write in milliseconds, computed from its time in nanoseconds.
+   */
+  private static long getTimePerMbInMs(long timeInNs, long sizeInBytes) {
+    return sizeInBytes <= 0 ? 0 : (timeInNs << 20) / sizeInBytes / TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /**
+   * @param metricName the name of a metric of the {@link DiskIOScheduler} of this disk.
+   * @return the full name of the metric, qualified by the mount path of this disk.
+   */
+  String getDiskIOSchedulerMetricName(String metricName) {
+    return MetricRegistry.name(DiskIOScheduler.class, prefix + metricName);
+  }
 }
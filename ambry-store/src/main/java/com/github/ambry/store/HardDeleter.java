@@ -50,7 +50,7 @@ public class HardDeleter implements Runnable {
 
   public static final short Cleanup_Token_Version_V0 = 0;
   public static final short Cleanup_Token_Version_V1 = 1;
-  private static final String Cleanup_Token_Filename = "cleanuptoken";
+  static final String Cleanup_Token_Filename = "cleanuptoken";
   //how long to sleep if token does not advance.
   static final long HARD_DELETE_SLEEP_TIME_ON_CAUGHT_UP_MS = 60 * Time.MsPerSec;
 
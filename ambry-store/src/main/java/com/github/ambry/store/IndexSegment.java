@@ -38,6 +38,7 @@ import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -104,7 +105,9 @@ class IndexSegment implements Iterable<IndexEntry> {
   private final AtomicLong lastModifiedTimeSec = new AtomicLong(0);
   private int indexSizeExcludingEntries;
   private int firstKeyRelativeOffset;
-  private IFilter bloomFilter = null;
+  private volatile IFilter bloomFilter = null;
+  // set when the CRC check and the bloom filter rebuild of a sealed segment were deferred on load.
+  private final AtomicBoolean validationPending = new AtomicBoolean(false);
   private int valueSize = VALUE_SIZE_INVALID_VALUE;
   private int maxEntrySize = 0;
   private short version;
@@ -145,8 +148,7 @@ class IndexSegment implements Iterable<IndexEntry> {
     endOffset = new AtomicReference<>(startOffset);
     index = new ConcurrentSkipListMap<>();
     version = PersistentIndex.CURRENT_VERSION;
-    bloomFilter = FilterFactory.getFilter(config.storeIndexMaxNumberOfInmemElements,
-        config.storeIndexBloomMaxFalsePositiveProbability, config.storeBloomFilterMaximumPageCount);
+    bloomFilter = createBloomFilter(config.storeIndexMaxNumberOfInmemElements);
     lastModifiedTimeSec.set(time.seconds());
     indexSegmentFilenamePrefix = generateIndexSegmentFilenamePrefix(startOffset);
     indexFile = new File(dataDir, indexSegmentFilenamePrefix + INDEX_SEGMENT_FILE_NAME_SUFFIX);
@@ -167,6 +169,27 @@ class IndexSegment implements Iterable<IndexEntry> {
    */
   IndexSegment(File indexFile, boolean sealed, StoreKeyFactory factory, StoreConfig config, StoreMetrics metrics,
       Journal journal, Time time) throws StoreException {
+    this(indexFile, sealed, factory, config, metrics, journal, time, false);
+  }
+
+  /**
+   * Initializes an existing segment. Memory maps the segment or reads the segment into memory. Also reads the
+   * persisted bloom filter from disk.
+   * @param indexFile The index file that the segment needs to be initialized from
+   * @param sealed Indicates that the segment is sealed
+   * @param factory The store key factory used to create new store keys
+   * @param config The store config used to initialize the index segment
+   * @param metrics The store metrics used to track metrics
+   * @param journal The journal to use
+   * @param time the {@link Time} instance to use
+   * @param deferValidation if {@code true} and the segment is sealed, the CRC of the segment is not checked and a
+   *                        missing or corrupt bloom filter is not rebuilt. Both are done later by
+   *                        {@link #completeDeferredValidation()}, and lookups fall back to searching the segment until
+   *                        then.
+   * @throws StoreException
+   */
+  IndexSegment(File indexFile, boolean sealed, StoreKeyFactory factory, StoreConfig config, StoreMetrics metrics,
+      Journal journal, Time time, boolean deferValidation) throws StoreException {
     try {
       this.config = config;
       this.indexFile = indexFile;
@@ -190,12 +213,12 @@ class IndexSegment implements Iterable<IndexEntry> {
       //  maxEntrySize may increase if we hit one new entry with bigger key size.
       //  valueSize won't change. It's guaranteed by PersistentIndex.needToRollOverIndex
       if (sealed) {
-        sealedIndex.map();
-        sealedIndex.loadBloomFile();
+        sealedIndex.map(!deferValidation);
+        sealedIndex.loadBloomFile(deferValidation);
+        validationPending.set(deferValidation);
       } else {
         index = new ConcurrentSkipListMap<>();
-        bloomFilter = FilterFactory.getFilter(config.storeIndexMaxNumberOfInmemElements,
-            config.storeIndexBloomMaxFalsePositiveProbability, config.storeBloomFilterMaximumPageCount);
+        bloomFilter = createBloomFilter(config.storeIndexMaxNumberOfInmemElements);
         try {
           readFromFile(indexFile, journal);
         } catch (StoreException e) {
@@ -259,6 +282,13 @@ class IndexSegment implements Iterable<IndexEntry> {
     return indexFile;
   }
 
+  /**
+   * @return The bloom filter file of this segment. It only exists once the segment is sealed.
+   */
+  File getBloomFile() {
+    return bloomFile;
+  }
+
   /**
    * @return number of IndexEntry items in this segment.
    */
@@ -406,6 +436,51 @@ class IndexSegment implements Iterable<IndexEntry> {
     return toReturn != null ? Collections.unmodifiableNavigableSet(toReturn) : null;
   }
 
+  /**
+   * Finds the entries of several keys at once. It finds from the in memory map or, for a sealed segment, probes the
+   * bloom filter for all the keys and then does a single pass of binary searches over the mapped persistent segment.
+   * @param sortedKeysToFind the keys to find, sorted in ascending order.
+   * @return a map from each key that was found to the values that represent it.
+   * @throws StoreException
+   */
+  Map<StoreKey, NavigableSet<IndexValue>> find(List<StoreKey> sortedKeysToFind) throws StoreException {
+    Map<StoreKey, NavigableSet<IndexValue>> toReturn = new HashMap<>();
+    NavigableMap<StoreKey, ConcurrentSkipListSet<IndexValue>> indexCopy = index;
+    rwLock.readLock().lock();
+    try {
+      if (!sealed.get()) {
+        for (StoreKey keyToFind : sortedKeysToFind) {
+          ConcurrentSkipListSet<IndexValue> values = indexCopy.get(keyToFind);
+          if (values != null) {
+            metrics.blobFoundInMemSegmentCount.inc();
+            toReturn.put(keyToFind, Collections.unmodifiableNavigableSet(values.clone()));
+          }
+        }
+      } else {
+        sealedIndex.find(sortedKeysToFind, toReturn);
+      }
+    } catch (StoreException e) {
+      throw new StoreException(String.format("IndexSegment %s : %s", indexFile.getAbsolutePath(), e.getMessage()), e,
+          e.getErrorCode());
+    } finally {
+      rwLock.readLock().unlock();
+    }
+    return toReturn;
+  }
+
+  /**
+   * Creates an empty bloom filter of the type given by {@link StoreConfig#storeBlockedBloomFilterEnabled}. As a bloom
+   * filter is persisted in the format of its type, a regenerated bloom filter migrates to the configured type.
+   * @param numElements the number of elements the filter is sized for.
+   * @return the bloom filter.
+   */
+  private IFilter createBloomFilter(long numElements) {
+    return config.storeBlockedBloomFilterEnabled ? FilterFactory.getBlockedFilter(numElements,
+        config.storeIndexBloomMaxFalsePositiveProbability)
+        : FilterFactory.getFilter(numElements, config.storeIndexBloomMaxFalsePositiveProbability,
+            config.storeBloomFilterMaximumPageCount);
+  }
+
   /**
    * According to config, get the {@link ByteBuffer} of {@link StoreKey} for bloom filter. The store config specifies
    * whether to populate bloom filter with key's UUID only.
@@ -681,7 +756,7 @@ class IndexSegment implements Iterable<IndexEntry> {
     rwLock.writeLock().lock();
     try {
       sealed.set(true);
-      sealedIndex.map();
+      sealedIndex.map(true);
     } catch (StoreException e) {
       sealed.set(false);
       throw e;
@@ -692,6 +767,26 @@ class IndexSegment implements Iterable<IndexEntry> {
     sealedIndex.persistBloomFilter();
   }
 
+  /**
+   * @return {@code true} if the segment was loaded with its validation deferred and
+   *         {@link #completeDeferredValidation()} has not completed yet.
+   */
+  boolean isValidationPending() {
+    return validationPending.get();
+  }
+
+  /**
+   * Checks the CRC of a sealed segment that was loaded with its validation deferred, and rebuilds and persists its
+   * bloom filter if it could not be loaded. Does nothing if the validation of the segment is not pending.
+   * @throws StoreException if the CRC of the segment does not match or if the bloom filter could not be persisted.
+   */
+  void completeDeferredValidation() throws StoreException {
+    if (validationPending.get()) {
+      sealedIndex.completeDeferredValidation();
+      validationPending.set(false);
+    }
+  }
+
   /**
    * @return index value of last PUT record in this index segment. Return {@code null} if no PUT is found
    */
@@ -1150,12 +1245,14 @@ class IndexSegment implements Iterable<IndexEntry> {
       // This is a workaround since we found higher than intended false positive rates with small bloom filter sizes. Note
       // that the number of entries in each index segment varies (from hundreds to thousands), the workaround ensures bloom
       // filter uses at least storeIndexMaxNumberOfInmemElements for creation to achieve decent performance.
-      bloomFilter = FilterFactory.getFilter(Math.max(numOfIndexEntries, config.storeIndexMaxNumberOfInmemElements),
-          config.storeIndexBloomMaxFalsePositiveProbability, config.storeBloomFilterMaximumPageCount);
+      // the filter is only published once it is complete, since lookups may run concurrently with a deferred rebuild.
+      IFilter filter = createBloomFilter(Math.max(numOfIndexEntries, config.storeIndexMaxNumberOfInmemElements));
+      ByteBuffer mmap = serEntries.duplicate();
       for (int i = 0; i < numOfIndexEntries; i++) {
-        StoreKey key = getKeyAt(serEntries, i);
-        bloomFilter.add(getStoreKeyBytes(key));
+        StoreKey key = getKeyAt(mmap, i);
+        filter.add(getStoreKeyBytes(key));
       }
+      bloomFilter = filter;
       persistBloomFilter();
     }
 
@@ -1196,8 +1293,10 @@ class IndexSegment implements Iterable<IndexEntry> {
       byte[] buf = new byte[persistedValueSize];
       // add the value at the positive match and anything after that matches
       int end = positiveMatchInd;
-      for (; end < totalEntries && getKeyAt(mmap, end).equals(keyToFind); end++) {
+      for (; end < totalEntries && compareKeyAt(mmap, end, keyToFind) == 0; end++) {
         logger.trace("Index Segment {}: found {} at {}", indexFile.getAbsolutePath(), keyToFind, end);
+        // reading the key positions the buffer at the value.
+        getKeyAt(mmap, end);
         mmap.get(buf);
         values.add(new IndexValue(startOffset.getName(), ByteBuffer.wrap(buf), getVersion()));
       }
@@ -1205,8 +1304,9 @@ class IndexSegment implements Iterable<IndexEntry> {
 
       // add any values before the match
       int start = positiveMatchInd - 1;
-      for (; start >= 0 && getKeyAt(mmap, start).equals(keyToFind); start--) {
+      for (; start >= 0 && compareKeyAt(mmap, start, keyToFind) == 0; start--) {
         logger.trace("Index Segment {}: found {} at {}", indexFile.getAbsolutePath(), keyToFind, start);
+        getKeyAt(mmap, start);
         mmap.get(buf);
         values.add(new IndexValue(startOffset.getName(), ByteBuffer.wrap(buf), getVersion()));
       }
@@ -1246,6 +1346,24 @@ class IndexSegment implements Iterable<IndexEntry> {
       return storeKey;
     }
 
+    /**
+     * Compares the key at the given index with {@code keyToFind}. The key is compared in its serialized form if
+     * {@code keyToFind} supports it, so that a search does not create a key for every entry it visits. The position
+     * of {@code mmap} is undefined after this call.
+     * @param mmap the serEntries to read the key from.
+     * @param index the index of the entry of the key.
+     * @param keyToFind the {@link StoreKey} to compare with.
+     * @return the result of comparing the key at the given index with {@code keyToFind}.
+     * @throws StoreException if the key has to be deserialized and there are problems reading it.
+     */
+    private int compareKeyAt(ByteBuffer mmap, int index, StoreKey keyToFind) throws StoreException {
+      int result = keyToFind.compareToSerialized(mmap, firstKeyRelativeOffset + index * persistedEntrySize);
+      if (result == StoreKey.SERIALIZED_COMPARISON_UNSUPPORTED) {
+        return getKeyAt(mmap, index).compareTo(keyToFind);
+      }
+      return -result;
+    }
+
     private int findIndex(StoreKey keyToFind, ByteBuffer mmap) throws StoreException {
       // binary search on the mapped file
       int low = 0;
@@ -1253,9 +1371,8 @@ class IndexSegment implements Iterable<IndexEntry> {
       logger.trace("IndexSegment {} binary search low : {} high : {}", indexFile.getAbsolutePath(), low, high);
       while (low <= high) {
         int mid = (int) (Math.ceil(high / 2.0 + low / 2.0));
-        StoreKey found = getKeyAt(mmap, mid);
-        logger.trace("IndexSegment {} binary search - key found on iteration {}", indexFile.getAbsolutePath(), found);
-        int result = found.compareTo(keyToFind);
+        logger.trace("IndexSegment {} binary search - comparing key at {}", indexFile.getAbsolutePath(), mid);
+        int result = compareKeyAt(mmap, mid, keyToFind);
         if (result == 0) {
           return mid;
         } else if (result < 0) {
@@ -1269,9 +1386,10 @@ class IndexSegment implements Iterable<IndexEntry> {
 
     /**
      * Maps the segment of index either as a memory map or a in memory buffer depending on config.
+     * @param checkIntegrity {@code true} to check the CRC of the segment.
      * @throws StoreException if there are problems with the index
      */
-    private void map() throws StoreException {
+    private void map(boolean checkIntegrity) throws StoreException {
       try (RandomAccessFile raf = new RandomAccessFile(indexFile, "r")) {
         switch (config.storeIndexMemState) {
           case IN_DIRECT_MEM:
@@ -1288,9 +1406,12 @@ class IndexSegment implements Iterable<IndexEntry> {
             serEntries = buf;
             break;
         }
-        checkDataIntegrity();
+        if (checkIntegrity) {
+          checkDataIntegrity();
+        }
         // We've checked the CRC and it matches, which means this index segment file is intact. All the errors from here
-        // on are logical errors, not format errors.
+        // on are logical errors, not format errors. When the check is deferred, a corrupt segment is detected by
+        // completeDeferredValidation() instead.
         serEntries.position(0);
         setVersion(serEntries.getShort());
         StoreKey storeKey;
@@ -1399,12 +1520,39 @@ class IndexSegment implements Iterable<IndexEntry> {
       return null;
     }
 
+    /**
+     * Checks the CRC of the segment and rebuilds the bloom filter if it could not be loaded.
+     * @throws StoreException if the CRC does not match or if the bloom filter could not be persisted.
+     */
+    private void completeDeferredValidation() throws StoreException {
+      if (!checkDataIntegrityInByteBufferWithCRC(serEntries.duplicate())) {
+        throw new StoreException("IndexSegment : " + indexFile.getAbsolutePath() + " crc check does not match",
+            StoreErrorCodes.Index_File_Format_Error);
+      }
+      if (bloomFilter == null) {
+        logger.info("Rebuilding deferred bloom filter for index segment: {}", indexFile.getAbsolutePath());
+        generateBloomFilterAndPersist();
+        if (config.storeSetFilePermissionEnabled) {
+          try {
+            Files.setPosixFilePermissions(bloomFile.toPath(), config.storeDataFilePermission);
+          } catch (IOException e) {
+            StoreErrorCodes errorCode = StoreException.resolveErrorCode(e);
+            throw new StoreException(errorCode.toString() + " while setting permissions of bloom filter", e, errorCode);
+          }
+        }
+      }
+    }
+
     /**
      * Load the bloom filter file.
+     * @param deferRebuild if {@code true}, a missing or corrupt bloom filter is left to be rebuilt by
+     *                     {@link #completeDeferredValidation()}.
      */
-    private void loadBloomFile() throws StoreException, IOException {
+    private void loadBloomFile(boolean deferRebuild) throws StoreException, IOException {
       if (!bloomFile.exists()) {
-        generateBloomFilterAndPersist();
+        if (!deferRebuild) {
+          generateBloomFilterAndPersist();
+        }
       } else {
         // Load the bloom filter for this index
         // We need to load the bloom filter only for mapped indexes
@@ -1425,6 +1573,9 @@ class IndexSegment implements Iterable<IndexEntry> {
         }
         if (rebuildBloomFilter) {
           metrics.bloomRebuildOnLoadFailureCount.inc();
+          bloomFilter = null;
+        }
+        if (rebuildBloomFilter && !deferRebuild) {
           logger.info("Rebuilding bloom filter for index segment: {}", indexFile.getAbsolutePath());
           Utils.deleteFileOrDirectory(bloomFile);
           generateBloomFilterAndPersist();
@@ -1432,7 +1583,8 @@ class IndexSegment implements Iterable<IndexEntry> {
         }
       }
       if (config.storeSetFilePermissionEnabled) {
-        Utils.setFilesPermission(Arrays.asList(indexFile, bloomFile), config.storeDataFilePermission);
+        Utils.setFilesPermission(bloomFilter != null ? Arrays.asList(indexFile, bloomFile)
+            : Collections.singletonList(indexFile), config.storeDataFilePermission);
       }
     }
 
@@ -1544,10 +1696,8 @@ class IndexSegment implements Iterable<IndexEntry> {
         logger.trace("binary search low : {} high : {}", low, high);
         while (low <= high) {
           int mid = (int) (Math.ceil(high / 2.0 + low / 2.0));
-          StoreKey found = getKeyAt(duplicate, mid);
-          logger.trace("Index Segment {} binary search - key found on iteration {}", indexFile.getAbsolutePath(),
-              found);
-          int result = found.compareTo(keyToFind);
+          logger.trace("Index Segment {} binary search - comparing key at {}", indexFile.getAbsolutePath(), mid);
+          int result = compareKeyAt(duplicate, mid, keyToFind);
           if (result == 0) {
             toReturn = new TreeSet<>();
             getAllValuesFromMmap(duplicate, keyToFind, mid, totalEntries, toReturn);
@@ -1565,6 +1715,54 @@ class IndexSegment implements Iterable<IndexEntry> {
       return toReturn;
     }
 
+    /**
+     * Finds the entries of several keys. The bloom filter is probed for every key first, and the keys that may be
+     * present are then searched in ascending order. Since the entries are sorted as well, the search for a key starts
+     * where the search for the previous key ended.
+     * @param sortedKeysToFind the keys to find, sorted in ascending order.
+     * @param found the map to which each key that is found is added, with the values that represent it.
+     * @throws StoreException
+     */
+    void find(List<StoreKey> sortedKeysToFind, Map<StoreKey, NavigableSet<IndexValue>> found) throws StoreException {
+      List<StoreKey> keysToSearch = sortedKeysToFind;
+      if (bloomFilter != null) {
+        keysToSearch = new ArrayList<>(sortedKeysToFind.size());
+        for (StoreKey keyToFind : sortedKeysToFind) {
+          metrics.bloomAccessedCount.inc();
+          if (bloomFilter.isPresent(getStoreKeyBytes(keyToFind))) {
+            metrics.bloomPositiveCount.inc();
+            keysToSearch.add(keyToFind);
+          }
+        }
+      }
+      ByteBuffer duplicate = serEntries.duplicate();
+      int totalEntries = numberOfEntries(duplicate);
+      int low = 0;
+      for (StoreKey keyToFind : keysToSearch) {
+        int high = totalEntries - 1;
+        NavigableSet<IndexValue> values = null;
+        while (low <= high) {
+          int mid = (int) (Math.ceil(high / 2.0 + low / 2.0));
+          int result = compareKeyAt(duplicate, mid, keyToFind);
+          if (result == 0) {
+            values = new TreeSet<>();
+            // the next key can only be after the last entry of this key.
+            low = getAllValuesFromMmap(duplicate, keyToFind, mid, totalEntries, values).getSecond() + 1;
+            break;
+          } else if (result < 0) {
+            low = mid + 1;
+          } else {
+            high = mid - 1;
+          }
+        }
+        if (values != null) {
+          found.put(keyToFind, Collections.unmodifiableNavigableSet(values));
+        } else if (bloomFilter != null) {
+          metrics.bloomFalsePositiveCount.inc();
+        }
+      }
+    }
+
     /**
      * @return The direct memory usage for this Index Segment in bytes.
      */
@@ -27,6 +27,7 @@ import java.nio.file.Files;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.EnumSet;
@@ -52,6 +53,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -77,6 +79,8 @@ public class PersistentIndex implements LogSegmentSizeProvider {
   static final short VERSION_4 = 4;
   static short CURRENT_VERSION = VERSION_4;
   static final String CLEAN_SHUTDOWN_FILENAME = "cleanshutdown";
+  static final String DEFERRED_VALIDATION_JOB_NAME = "index_segment_deferred_validation";
+  static final String DEFERRED_VALIDATION_FAILED_FILENAME = "deferred_validation_failed";
 
   static final FilenameFilter INDEX_SEGMENT_FILE_FILTER = new FilenameFilter() {
     @Override
@@ -130,6 +134,10 @@ public class PersistentIndex implements LogSegmentSizeProvider {
   private static final Logger logger = LoggerFactory.getLogger(PersistentIndex.class);
   private final IndexPersistor persistor = new IndexPersistor();
   private final ScheduledFuture<?> persistorTask;
+  // Locates the index segments that may contain a key. Null if the key locator is disabled.
+  private final StoreKeyLocator keyLocator;
+  private volatile BlobReadCache blobReadCache = null;
+  private String blobReadCacheStoreId;
   // When undelete is enabled, DELETE is not the final state of the blob, since a DELETEd blob can be UNDELTEd.
   private final boolean isDeleteFinalStateOfBlob;
 
@@ -166,6 +174,7 @@ public class PersistentIndex implements LogSegmentSizeProvider {
 
   private volatile boolean shouldRebuildTokenBasedOnCompactionHistory = false;
   private volatile boolean sanityCheckFailed = false;
+  private volatile boolean closed = false;
   // A map from index segment start offset before compaction to index segment start offset after compaction.
   // This map will only be modified in the compaction thread and accessed in the replication threads.
   private final NavigableMap<Offset, Offset> beforeAndAfterCompactionIndexSegmentOffsets =
@@ -250,19 +259,39 @@ public class PersistentIndex implements LogSegmentSizeProvider {
     } else {
       isDeleteFinalStateOfBlob = false;
     }
+    keyLocator =
+        config.storeKeyLocatorEnabled ? new StoreKeyLocator(datadir, StoreKeyLocator.DEFAULT_INITIAL_CAPACITY, metrics)
+            : null;
 
     List<File> indexFiles = getAllIndexSegmentFiles();
+    // a store whose deferred validation failed validates all its segments when it starts again, so that it fails to
+    // start if its index is still corrupt.
+    File deferredValidationFailedFile = new File(datadir, DEFERRED_VALIDATION_FAILED_FILENAME);
+    boolean deferValidation = config.storeDeferSealedIndexSegmentValidation && !deferredValidationFailedFile.exists();
     try {
       journal.startBootstrap();
+      final Timer.Context loadContext = metrics.indexSegmentsLoadTime.time();
       for (int i = 0; i < indexFiles.size(); i++) {
         // We mark as sealed all the index segments except the most recent index segment.
         // The recent index segment would go through recovery after they have been
         // read into memory
         boolean sealed = determineSealStatusForIndexFiles(i, indexFiles);
-        IndexSegment info = new IndexSegment(indexFiles.get(i), sealed, factory, config, metrics, journal, time);
+        IndexSegment info =
+            new IndexSegment(indexFiles.get(i), sealed, factory, config, metrics, journal, time, deferValidation);
         logger.info("Index : {} loaded index segment {} with start offset {} and end offset {} ", datadir,
             indexFiles.get(i), info.getStartOffset(), info.getEndOffset());
         validIndexSegments.put(info.getStartOffset(), info);
+        if (keyLocator != null) {
+          keyLocator.addSegment(info);
+        }
+      }
+      loadContext.stop();
+      if (!deferValidation && deferredValidationFailedFile.exists()) {
+        logger.info("Index : {} validated the index segments that failed the deferred validation", datadir);
+        deferredValidationFailedFile.delete();
+      }
+      if (keyLocator != null) {
+        logger.info("Index : {} key locator built with {} slots in use", datadir, keyLocator.getUsedSlots());
       }
       // delete the shutdown file
       cleanShutdownFile = new File(datadir, cleanShutdownFileName);
@@ -517,6 +546,56 @@ public class PersistentIndex implements LogSegmentSizeProvider {
     return result;
   }
 
+  /**
+   * Gets the files of the log segments that can be copied to bootstrap a new replica of this store. A log segment can
+   * be copied once the log has moved on to a later segment and all its index segments are sealed. The files are
+   * returned in log order, each log segment followed by its index segments and their bloom filters.
+   * @return the {@link StoreFileCopyInfo} with the files and the token to replicate from once they are copied.
+   * @throws StoreException if the last key of an index segment could not be read.
+   */
+  StoreFileCopyInfo getFileCopyInfo() throws StoreException {
+    LogSegmentName activeSegmentName = log.getLastSegment().getName();
+    List<File> files = new ArrayList<>();
+    List<File> currentFiles = new ArrayList<>();
+    IndexSegment lastCopiedSegment = null;
+    IndexSegment currentSegment = null;
+    for (IndexSegment indexSegment : validIndexSegments.values()) {
+      LogSegmentName logSegmentName = indexSegment.getLogSegmentName();
+      if (currentSegment != null && !currentSegment.getLogSegmentName().equals(logSegmentName)) {
+        files.addAll(currentFiles);
+        currentFiles.clear();
+        lastCopiedSegment = currentSegment;
+      }
+      if (logSegmentName.equals(activeSegmentName) || !indexSegment.isSealed()) {
+        currentSegment = null;
+        currentFiles.clear();
+        break;
+      }
+      if (currentFiles.isEmpty()) {
+        currentFiles.add(new File(dataDir, logSegmentName.toFilename()));
+      }
+      currentFiles.add(indexSegment.getFile());
+      if (indexSegment.getBloomFile().exists()) {
+        currentFiles.add(indexSegment.getBloomFile());
+      }
+      currentSegment = indexSegment;
+    }
+    if (currentSegment != null) {
+      files.addAll(currentFiles);
+      lastCopiedSegment = currentSegment;
+    }
+    StoreFindToken token = new StoreFindToken();
+    if (lastCopiedSegment != null && lastCopiedSegment.size() > 0) {
+      // the token points at the last key of the last copied index segment, so that replication continues with the
+      // entries that come after the copied log segments.
+      StoreKey lastKey = lastCopiedSegment.listIterator(lastCopiedSegment.size()).previous().getKey();
+      token = new StoreFindToken(lastKey, lastCopiedSegment.getStartOffset(), sessionId, incarnationId,
+          lastCopiedSegment.getResetKey(), lastCopiedSegment.getResetKeyType(),
+          lastCopiedSegment.getResetKeyLifeVersion());
+    }
+    return new StoreFileCopyInfo(files, token);
+  }
+
   /**
    * Update the partial log segment info including the partialLogSegmentCount and wastedLogSegmentSpace
    */
@@ -577,6 +656,13 @@ public class PersistentIndex implements LogSegmentSizeProvider {
         }
       }
 
+      // the new segments have to be locatable before they become visible to lookups.
+      if (keyLocator != null) {
+        for (IndexSegment indexSegment : segmentsToAdd.values()) {
+          keyLocator.addSegment(indexSegment);
+        }
+      }
+
       // first update the influx index segments reference
       inFluxIndexSegments = new ConcurrentSkipListMap<>();
       // now copy over all valid segments to the influx reference, remove ones that need removing and add the new ones.
@@ -585,6 +671,13 @@ public class PersistentIndex implements LogSegmentSizeProvider {
       inFluxIndexSegments.putAll(segmentsToAdd);
       // change the reference (this is guaranteed to be atomic by java)
       validIndexSegments = inFluxIndexSegments;
+      if (keyLocator != null) {
+        keyLocator.removeSegments(segmentsToRemove);
+      }
+      if (blobReadCache != null) {
+        blobReadCache.invalidateSegments(blobReadCacheStoreId,
+            segmentsToRemove.stream().map(Offset::getName).collect(Collectors.toSet()));
+      }
     } finally {
       rwLock.writeLock().unlock();
     }
@@ -693,6 +786,16 @@ public class PersistentIndex implements LogSegmentSizeProvider {
     return Collections.unmodifiableMap(compactionTimestampToIndexSegmentOffsets);
   }
 
+  /**
+   * Invalidate the records cached in the given {@link BlobReadCache} when compaction removes their segments.
+   * @param blobReadCache the {@link BlobReadCache} of the store.
+   * @param storeId the id of the store.
+   */
+  void enableBlobReadCache(BlobReadCache blobReadCache, String storeId) {
+    this.blobReadCacheStoreId = storeId;
+    this.blobReadCache = blobReadCache;
+  }
+
   /**
    * Enable RebuildTokenBasedOnCompactionHistory
    */
@@ -723,13 +826,20 @@ public class PersistentIndex implements LogSegmentSizeProvider {
       int entrySize = entry.getKey().sizeInBytes() + valueSize;
       IndexSegment info =
           new IndexSegment(dataDir, entry.getValue().getOffset(), factory, entrySize, valueSize, config, metrics, time);
+      if (keyLocator != null) {
+        keyLocator.add(entry.getKey(), info.getStartOffset());
+      }
       info.addEntry(entry, fileSpan.getEndOffset());
       // always add to both valid and in-flux index segment map to account for the fact that changeIndexSegments()
       // might be in the process of updating the reference to validIndexSegments
       validIndexSegments.put(info.getStartOffset(), info);
       inFluxIndexSegments.put(info.getStartOffset(), info);
     } else {
-      validIndexSegments.lastEntry().getValue().addEntry(entry, fileSpan.getEndOffset());
+      IndexSegment lastSegment = validIndexSegments.lastEntry().getValue();
+      if (keyLocator != null) {
+        keyLocator.add(entry.getKey(), lastSegment.getStartOffset());
+      }
+      lastSegment.addEntry(entry, fileSpan.getEndOffset());
     }
     journal.addEntry(entry.getValue().getOffset(), entry.getKey(), entry.getCrc());
   }
@@ -872,11 +982,10 @@ public class PersistentIndex implements LogSegmentSizeProvider {
     if (fileSpan != null && fileSpan.isEmpty()) {
       return null;
     }
-    IndexValue latest = null;
-    IndexValue retCandidate = null;
+    LatestValueSearch search = new LatestValueSearch(fileSpan, types);
     final Timer.Context context = metrics.findTime.time();
     try {
-      ConcurrentNavigableMap<Offset, IndexSegment> segmentsMapToSearch;
+      NavigableMap<Offset, IndexSegment> segmentsMapToSearch;
       if (fileSpan == null) {
         logger.trace("Searching for {} in the entire index", key);
         segmentsMapToSearch = indexSegments.descendingMap();
@@ -894,62 +1003,21 @@ public class PersistentIndex implements LogSegmentSizeProvider {
         }
         metrics.segmentSizeForExists.update(segmentsMapToSearch.size());
       }
+      segmentsMapToSearch = filterSegmentsByKeyLocator(key, segmentsMapToSearch);
       int segmentsSearched = 0;
       for (Map.Entry<Offset, IndexSegment> entry : segmentsMapToSearch.entrySet()) {
         segmentsSearched++;
         logger.trace("Index : {} searching index with start offset {}", dataDir, entry.getKey());
         NavigableSet<IndexValue> values = entry.getValue().find(key);
-        if (values != null) {
-          Iterator<IndexValue> it = values.descendingIterator();
-          while (it.hasNext()) {
-            IndexValue value = it.next();
-            if (fileSpan != null) {
-              // Start <= value.offset < End
-              if (value.getOffset().compareTo(fileSpan.getEndOffset()) >= 0) {
-                continue;
-              }
-              if (value.getOffset().compareTo(fileSpan.getStartOffset()) < 0) {
-                break;
-              }
-            }
-            if (latest == null) {
-              latest = value;
-            }
-            logger.trace("Index : {} found value offset {} size {} ttl {}", dataDir, value.getOffset(), value.getSize(),
-                value.getExpiresAtMs());
-            if (types.contains(IndexEntryType.DELETE) && value.isDelete()) {
-              retCandidate = value;
-              break;
-            } else if (types.contains(IndexEntryType.UNDELETE) && value.isUndelete()) {
-              retCandidate = value;
-              break;
-            } else if (types.contains(IndexEntryType.TTL_UPDATE) && !value.isDelete() && !value.isUndelete()
-                && value.isTtlUpdate()) {
-              retCandidate = value;
-              break;
-            } else if (types.contains(IndexEntryType.PUT) && value.isPut()) {
-              retCandidate = value;
-              break;
-            }
-            // note that it is not possible for a TTL update record to exist for a key but not have a PUT or DELETE
-            // record.
-          }
-          if (retCandidate != null) {
-            // merge entries if required to account for updated fields
-            if (latest.isTtlUpdate() && !retCandidate.isTtlUpdate()) {
-              retCandidate = new IndexValue(retCandidate.getOffset().getName(), retCandidate.getBytes(),
-                  retCandidate.getFormatVersion());
-              retCandidate.setFlag(IndexValue.Flags.Ttl_Update_Index);
-              retCandidate.setExpiresAtMs(latest.getExpiresAtMs());
-            }
-            break;
-          }
+        if (values != null && search.addValues(values)) {
+          break;
         }
       }
       metrics.segmentsAccessedPerBlobCount.update(segmentsSearched);
     } finally {
       context.stop();
     }
+    IndexValue retCandidate = search.getResult();
     if (retCandidate != null) {
       logger.trace("Index : {} Returning value offset {} size {} ttl {}", dataDir, retCandidate.getOffset(),
           retCandidate.getSize(), retCandidate.getExpiresAtMs());
@@ -957,6 +1025,185 @@ public class PersistentIndex implements LogSegmentSizeProvider {
     return retCandidate;
   }
 
+  /**
+   * Finds the {@link IndexValue}s that represent the latest state of each of the given {@code keys}, like
+   * {@link #findKey(StoreKey)} does for a single key. Instead of walking the index segments once per key, every index
+   * segment is visited once, from the most recent to the least recent, and searched for all the keys that are still
+   * outstanding at once. A key is no longer outstanding once its final state is found.
+   * @param keys the keys to find in the index.
+   * @return a map from each key that was found to the {@link IndexValue} that represents its latest state. Keys that
+   *         are not found are not in the map.
+   * @throws StoreException
+   */
+  Map<StoreKey, IndexValue> findKeys(Collection<? extends StoreKey> keys) throws StoreException {
+    Map<StoreKey, IndexValue> result = new HashMap<>();
+    if (keys.isEmpty()) {
+      return result;
+    }
+    EnumSet<IndexEntryType> types = EnumSet.of(IndexEntryType.PUT, IndexEntryType.DELETE, IndexEntryType.UNDELETE);
+    // sorted, so that each sealed segment can be searched for all the keys in a single pass.
+    TreeMap<StoreKey, LatestValueSearch> outstandingKeys = new TreeMap<>();
+    for (StoreKey key : keys) {
+      outstandingKeys.put(key, new LatestValueSearch(null, types));
+    }
+    // take the index segments before asking the key locator, like findKey does, so that segments added by a
+    // concurrent compaction are in the candidate segments of their keys.
+    ConcurrentSkipListMap<Offset, IndexSegment> indexSegments = validIndexSegments;
+    Map<StoreKey, Set<Offset>> locatedSegments = null;
+    if (keyLocator != null) {
+      locatedSegments = new HashMap<>();
+      for (StoreKey key : outstandingKeys.keySet()) {
+        List<Offset> candidateSegments = keyLocator.getCandidateSegments(key);
+        if (candidateSegments == null) {
+          // the locator is disabled, all the segments are searched.
+          locatedSegments = null;
+          break;
+        }
+        locatedSegments.put(key, new HashSet<>(candidateSegments));
+      }
+    }
+    final Timer.Context context = metrics.findKeysTime.time();
+    try {
+      int segmentsSearched = 0;
+      for (Map.Entry<Offset, IndexSegment> entry : indexSegments.descendingMap().entrySet()) {
+        if (outstandingKeys.isEmpty()) {
+          break;
+        }
+        List<StoreKey> keysToSearch = new ArrayList<>(outstandingKeys.size());
+        for (StoreKey key : outstandingKeys.keySet()) {
+          if (locatedSegments == null || locatedSegments.get(key).contains(entry.getKey())) {
+            keysToSearch.add(key);
+          }
+        }
+        if (keysToSearch.isEmpty()) {
+          continue;
+        }
+        segmentsSearched++;
+        logger.trace("Index : {} searching index with start offset {} for {} keys", dataDir, entry.getKey(),
+            keysToSearch.size());
+        for (Map.Entry<StoreKey, NavigableSet<IndexValue>> found : entry.getValue().find(keysToSearch).entrySet()) {
+          LatestValueSearch search = outstandingKeys.get(found.getKey());
+          if (search.addValues(found.getValue())) {
+            result.put(found.getKey(), search.getResult());
+            outstandingKeys.remove(found.getKey());
+          }
+        }
+      }
+      metrics.findKeysBatchSize.update(keys.size());
+      metrics.segmentsAccessedPerFindKeysCount.update(segmentsSearched);
+    } finally {
+      context.stop();
+    }
+    return result;
+  }
+
+  /**
+   * The search for the latest {@link IndexValue} of a key, of one of the given types and within the given file span,
+   * across the index segments from the most recent to the least recent.
+   */
+  private class LatestValueSearch {
+    private final FileSpan fileSpan;
+    private final EnumSet<IndexEntryType> types;
+    private IndexValue latest = null;
+    private IndexValue result = null;
+
+    /**
+     * @param fileSpan {@link FileSpan} which specifies the range within which search should be made. {@code null}
+     *                 to search the entire index.
+     * @param types the types of {@link IndexEntryType} to look for.
+     */
+    LatestValueSearch(FileSpan fileSpan, EnumSet<IndexEntryType> types) {
+      this.fileSpan = fileSpan;
+      this.types = types;
+    }
+
+    /**
+     * Adds the values of the key found in the next index segment.
+     * @param values the values of the key in the index segment.
+     * @return {@code true} if the search is complete and {@link #getResult()} returns the value that was found.
+     */
+    boolean addValues(NavigableSet<IndexValue> values) {
+      Iterator<IndexValue> it = values.descendingIterator();
+      while (it.hasNext()) {
+        IndexValue value = it.next();
+        if (fileSpan != null) {
+          // Start <= value.offset < End
+          if (value.getOffset().compareTo(fileSpan.getEndOffset()) >= 0) {
+            continue;
+          }
+          if (value.getOffset().compareTo(fileSpan.getStartOffset()) < 0) {
+            break;
+          }
+        }
+        if (latest == null) {
+          latest = value;
+        }
+        logger.trace("Index : {} found value offset {} size {} ttl {}", dataDir, value.getOffset(), value.getSize(),
+            value.getExpiresAtMs());
+        if (types.contains(IndexEntryType.DELETE) && value.isDelete()) {
+          result = value;
+          break;
+        } else if (types.contains(IndexEntryType.UNDELETE) && value.isUndelete()) {
+          result = value;
+          break;
+        } else if (types.contains(IndexEntryType.TTL_UPDATE) && !value.isDelete() && !value.isUndelete()
+            && value.isTtlUpdate()) {
+          result = value;
+          break;
+        } else if (types.contains(IndexEntryType.PUT) && value.isPut()) {
+          result = value;
+          break;
+        }
+        // note that it is not possible for a TTL update record to exist for a key but not have a PUT or DELETE
+        // record.
+      }
+      if (result == null) {
+        return false;
+      }
+      // merge entries if required to account for updated fields
+      if (latest.isTtlUpdate() && !result.isTtlUpdate()) {
+        result = new IndexValue(result.getOffset().getName(), result.getBytes(), result.getFormatVersion());
+        result.setFlag(IndexValue.Flags.Ttl_Update_Index);
+        result.setExpiresAtMs(latest.getExpiresAtMs());
+      }
+      return true;
+    }
+
+    /**
+     * @return the latest value of the key of one of the types, or {@code null} if it has not been found (yet).
+     */
+    IndexValue getResult() {
+      return result;
+    }
+  }
+
+  /**
+   * Restricts {@code segmentsMapToSearch} to the index segments that the key locator reports as possibly containing
+   * {@code key}. Returns {@code segmentsMapToSearch} as is if the key locator is disabled.
+   * @param key the {@link StoreKey} to search for.
+   * @param segmentsMapToSearch the index segments to search, ordered from the most recent to the least recent.
+   * @return the index segments that need to be searched for {@code key}, in the same order.
+   */
+  private NavigableMap<Offset, IndexSegment> filterSegmentsByKeyLocator(StoreKey key,
+      NavigableMap<Offset, IndexSegment> segmentsMapToSearch) {
+    if (keyLocator == null || segmentsMapToSearch.isEmpty()) {
+      return segmentsMapToSearch;
+    }
+    List<Offset> candidateSegments = keyLocator.getCandidateSegments(key);
+    if (candidateSegments == null) {
+      // the locator is disabled, all the segments are searched.
+      return segmentsMapToSearch;
+    }
+    NavigableMap<Offset, IndexSegment> locatedSegments = new TreeMap<>(Collections.reverseOrder());
+    for (Offset offset : candidateSegments) {
+      IndexSegment indexSegment = segmentsMapToSearch.get(offset);
+      if (indexSegment != null) {
+        locatedSegments.put(offset, indexSegment);
+      }
+    }
+    return locatedSegments;
+  }
+
   /**
    * Finds all the {@link IndexValue}s associated with the given {@code key} that matches any of the provided {@code types}
    * if present in the index with the given {@code fileSpan} and return them in reversed chronological order. If there is
@@ -990,7 +1237,7 @@ public class PersistentIndex implements LogSegmentSizeProvider {
     }
     final Timer.Context context = metrics.findTime.time();
     try {
-      ConcurrentNavigableMap<Offset, IndexSegment> segmentsMapToSearch;
+      NavigableMap<Offset, IndexSegment> segmentsMapToSearch;
       if (fileSpan == null) {
         logger.trace("Searching all indexes for {} in the entire index", key);
         segmentsMapToSearch = indexSegments.descendingMap();
@@ -1008,6 +1255,7 @@ public class PersistentIndex implements LogSegmentSizeProvider {
         }
         metrics.segmentSizeForExists.update(segmentsMapToSearch.size());
       }
+      segmentsMapToSearch = filterSegmentsByKeyLocator(key, segmentsMapToSearch);
       int segmentsSearched = 0;
       for (Map.Entry<Offset, IndexSegment> entry : segmentsMapToSearch.entrySet()) {
         segmentsSearched++;
@@ -1365,33 +1613,71 @@ public class PersistentIndex implements LogSegmentSizeProvider {
     rwLock.readLock().lock();
     try {
       ConcurrentSkipListMap<Offset, IndexSegment> indexSegments = validIndexSegments;
-      IndexValue value = findKey(id);
-      BlobReadOptions readOptions;
-      if (value == null) {
-        throw new StoreException("Id " + id + " not present in index " + dataDir, StoreErrorCodes.ID_Not_Found);
-      } else if (value.isDelete()) {
-        if (!getOptions.contains(StoreGetOptions.Store_Include_Deleted)) {
-          throw new StoreException("Id " + id + " has been deleted in index " + dataDir, StoreErrorCodes.ID_Deleted);
-        } else {
-          readOptions = getDeletedBlobReadOptions(value, id, indexSegments);
-        }
-      } else if (isExpired(value) && !getOptions.contains(StoreGetOptions.Store_Include_Expired)) {
-        throw new StoreException("Id " + id + " has expired ttl in index " + dataDir, StoreErrorCodes.TTL_Expired);
-      } else if (value.isUndelete()) {
-        readOptions = getUndeletedBlobReadOptions(value, id, indexSegments);
-      } else {
-        // This is only for test
-        if (getBlobReadInfoTestCallback != null) {
-          getBlobReadInfoTestCallback.run();
-        }
-        readOptions = fromIndexValue(id, value);
+      return getBlobReadInfo(id, findKey(id), getOptions, indexSegments);
+    } finally {
+      rwLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the blob read info for the given keys. The latest states of all the keys are looked up together with
+   * {@link #findKeys(Collection)}, so each index segment is searched once for all the keys.
+   * @param ids The ids of the entries whose info is required
+   * @param getOptions the get options that indicate whether blob read info for deleted/expired blobs are to be returned.
+   * @return The blob read info of each of the given keys, in the same order as {@code ids}.
+   * @throws StoreException if the info of any of the keys could not be returned. The error is the one of the first such
+   *                        key in {@code ids}.
+   */
+  List<BlobReadOptions> getBlobReadInfo(List<? extends StoreKey> ids, EnumSet<StoreGetOptions> getOptions)
+      throws StoreException {
+    rwLock.readLock().lock();
+    try {
+      ConcurrentSkipListMap<Offset, IndexSegment> indexSegments = validIndexSegments;
+      Map<StoreKey, IndexValue> values = findKeys(ids);
+      List<BlobReadOptions> readOptionsList = new ArrayList<>(ids.size());
+      for (StoreKey id : ids) {
+        readOptionsList.add(getBlobReadInfo(id, values.get(id), getOptions, indexSegments));
       }
-      return readOptions;
+      return readOptionsList;
     } finally {
       rwLock.readLock().unlock();
     }
   }
 
+  /**
+   * Returns the blob read info for a given key from the {@link IndexValue} that represents its latest state.
+   * @param id The id of the entry whose info is required
+   * @param value the latest {@link IndexValue} of {@code id}, or {@code null} if it was not found.
+   * @param getOptions the get options that indicate whether blob read info for deleted/expired blobs are to be returned.
+   * @param indexSegments the map of index segment start {@link Offset} to {@link IndexSegment} instances
+   * @return The blob read info that contains the information for the given key
+   * @throws StoreException
+   */
+  private BlobReadOptions getBlobReadInfo(StoreKey id, IndexValue value, EnumSet<StoreGetOptions> getOptions,
+      ConcurrentSkipListMap<Offset, IndexSegment> indexSegments) throws StoreException {
+    BlobReadOptions readOptions;
+    if (value == null) {
+      throw new StoreException("Id " + id + " not present in index " + dataDir, StoreErrorCodes.ID_Not_Found);
+    } else if (value.isDelete()) {
+      if (!getOptions.contains(StoreGetOptions.Store_Include_Deleted)) {
+        throw new StoreException("Id " + id + " has been deleted in index " + dataDir, StoreErrorCodes.ID_Deleted);
+      } else {
+        readOptions = getDeletedBlobReadOptions(value, id, indexSegments);
+      }
+    } else if (isExpired(value) && !getOptions.contains(StoreGetOptions.Store_Include_Expired)) {
+      throw new StoreException("Id " + id + " has expired ttl in index " + dataDir, StoreErrorCodes.TTL_Expired);
+    } else if (value.isUndelete()) {
+      readOptions = getUndeletedBlobReadOptions(value, id, indexSegments);
+    } else {
+      // This is only for test
+      if (getBlobReadInfoTestCallback != null) {
+        getBlobReadInfoTestCallback.run();
+      }
+      readOptions = fromIndexValue(id, value);
+    }
+    return readOptions;
+  }
+
   /**
    * Gets {@link BlobReadOptions} for a deleted blob.
    * @param value the {@link IndexValue} of the delete index entry for the blob.
@@ -1467,9 +1753,10 @@ public class PersistentIndex implements LogSegmentSizeProvider {
    * @throws StoreException
    */
   Set<StoreKey> findMissingKeys(List<StoreKey> keys) throws StoreException {
+    Map<StoreKey, IndexValue> foundKeys = findKeys(keys);
     Set<StoreKey> missingKeys = new HashSet<StoreKey>();
     for (StoreKey key : keys) {
-      if (findKey(key) == null) {
+      if (!foundKeys.containsKey(key)) {
         missingKeys.add(key);
       }
     }
@@ -1712,7 +1999,8 @@ public class PersistentIndex implements LogSegmentSizeProvider {
    * @return The direct memory usage for this persistent index in bytes.
    */
   long getDirectMemoryUsage() {
-    return validIndexSegments.values().stream().mapToLong(IndexSegment::getDirectMemoryUsage).sum();
+    long keyLocatorUsage = keyLocator == null ? 0 : keyLocator.getDirectMemoryUsage();
+    return validIndexSegments.values().stream().mapToLong(IndexSegment::getDirectMemoryUsage).sum() + keyLocatorUsage;
   }
 
   /**
@@ -2248,6 +2536,7 @@ public class PersistentIndex implements LogSegmentSizeProvider {
    */
   void close(boolean skipDiskFlush) throws StoreException {
     long startTimeInMs = time.milliseconds();
+    closed = true;
     try {
       if (persistorTask != null) {
         persistorTask.cancel(false);
@@ -2275,6 +2564,57 @@ public class PersistentIndex implements LogSegmentSizeProvider {
     }
   }
 
+  /**
+   * Completes the validation of the sealed index segments that were loaded with their validation deferred, from the
+   * most recent segment to the oldest. Segments removed by compaction in the meantime are skipped. Stops early if the
+   * index is closed.
+   * @throws StoreException if a segment fails its validation, in which case the next start of the index validates all
+   *                        the sealed segments instead of deferring their validation.
+   */
+  void completeDeferredValidation() throws StoreException {
+    final Timer.Context context = metrics.deferredIndexValidationTime.time();
+    try {
+      for (IndexSegment segment : validIndexSegments.descendingMap().values()) {
+        if (closed) {
+          logger.info("Index : {} is closed, stopping the deferred validation of index segments", dataDir);
+          return;
+        }
+        if (!segment.isValidationPending()) {
+          continue;
+        }
+        // hold the read lock so that compaction does not remove the files of the segment while it is validated.
+        rwLock.readLock().lock();
+        try {
+          if (validIndexSegments.get(segment.getStartOffset()) != segment) {
+            continue;
+          }
+          segment.completeDeferredValidation();
+        } catch (StoreException e) {
+          metrics.deferredIndexValidationFailureCount.inc();
+          markDeferredValidationFailed();
+          throw e;
+        } finally {
+          rwLock.readLock().unlock();
+        }
+        diskIOScheduler.getSlice(DEFERRED_VALIDATION_JOB_NAME, dataDir, segment.getFile().length());
+      }
+      logger.info("Index : {} completed the deferred validation of index segments", dataDir);
+    } finally {
+      context.stop();
+    }
+  }
+
+  /**
+   * Leaves a file in the data directory that makes the next start of the index validate all its sealed segments.
+   */
+  private void markDeferredValidationFailed() {
+    try {
+      new File(dataDir, DEFERRED_VALIDATION_FAILED_FILENAME).createNewFile();
+    } catch (IOException e) {
+      logger.error("Index : {} failed to record that the deferred validation failed", dataDir, e);
+    }
+  }
+
   /**
    * @return the start offset of the index.
    */
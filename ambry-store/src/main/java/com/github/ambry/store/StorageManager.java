@@ -75,6 +75,7 @@ public class StorageManager implements StoreManager {
   private final ScheduledExecutorService scheduler;
   private final StoreMetrics storeMainMetrics;
   private final StoreMetrics storeUnderCompactionMetrics;
+  private final BlobReadCache blobReadCache;
   private final StoreKeyFactory keyFactory;
   private final ClusterMap clusterMap;
   private final DataNodeId currentNode;
@@ -131,6 +132,13 @@ public class StorageManager implements StoreManager {
     metrics = new StorageManagerMetrics(registry);
     storeMainMetrics = new StoreMetrics(registry);
     storeUnderCompactionMetrics = new StoreMetrics("UnderCompaction", registry);
+    if (storeConfig.storeBlobReadCacheSizeInBytes > 0) {
+      blobReadCache = new BlobReadCache(storeConfig.storeBlobReadCacheSizeInBytes,
+          storeConfig.storeBlobReadCacheMaxEntrySizeInBytes, storeMainMetrics);
+      storeMainMetrics.initializeBlobReadCacheGauges(blobReadCache);
+    } else {
+      blobReadCache = null;
+    }
     if (clusterParticipants != null && !clusterParticipants.isEmpty()) {
       replicaStatusDelegates = new ArrayList<>();
       for (ClusterParticipant clusterParticipant : clusterParticipants) {
@@ -153,7 +161,7 @@ public class StorageManager implements StoreManager {
       DiskManager diskManager =
           new DiskManager(disk, replicasForDisk, storeConfig, diskManagerConfig, scheduler, metrics, storeMainMetrics,
               storeUnderCompactionMetrics, keyFactory, recovery, hardDelete, replicaStatusDelegates, stoppedReplicas,
-              time, accountService);
+              time, accountService, blobReadCache);
       diskToDiskManager.put(disk, diskManager);
       for (ReplicaId replica : replicasForDisk) {
         partitionToDiskManager.put(replica.getPartitionId(), diskManager);
@@ -457,6 +465,9 @@ public class StorageManager implements StoreManager {
       }
       metrics.deregisterCompactionThreadsTracker();
       metrics.deregisterHostUtilizationTracker();
+      if (blobReadCache != null) {
+        blobReadCache.close();
+      }
       logger.info("Shutting down storage manager complete");
     } finally {
       metrics.storageManagerShutdownTimeMs.update(time.milliseconds() - startTimeMs);
@@ -469,7 +480,7 @@ public class StorageManager implements StoreManager {
         DiskManager newDiskManager =
             new DiskManager(disk, Collections.emptyList(), storeConfig, diskManagerConfig, scheduler, metrics,
                 storeMainMetrics, storeUnderCompactionMetrics, keyFactory, recovery, hardDelete, replicaStatusDelegates,
-                stoppedReplicas, time, accountService);
+                stoppedReplicas, time, accountService, blobReadCache);
         logger.info("Creating new DiskManager on {} for new added store", diskId.getMountPath());
         newDiskManager.start(
             storeConfig.storeRemoveUnexpectedDirsInFullAuto && clusterMap.isDataNodeInFullAutoMode(currentNode));
@@ -0,0 +1,51 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.store;
+
+import com.github.ambry.replication.FindToken;
+import java.io.File;
+import java.util.List;
+
+
+/**
+ * The files of a {@link BlobStore} that can be copied to bootstrap a new replica, and the token to replicate from
+ * once they are copied.
+ */
+public class StoreFileCopyInfo {
+  private final List<File> files;
+  private final FindToken findToken;
+
+  /**
+   * @param files the log segment, index segment and bloom filter files that can be copied, in log order.
+   * @param findToken the {@link FindToken} that points at the end of the copied log segments.
+   */
+  StoreFileCopyInfo(List<File> files, FindToken findToken) {
+    this.files = files;
+    this.findToken = findToken;
+  }
+
+  /**
+   * @return the log segment, index segment and bloom filter files that can be copied, in log order.
+   */
+  public List<File> getFiles() {
+    return files;
+  }
+
+  /**
+   * @return the {@link FindToken} that points at the end of the copied log segments.
+   */
+  public FindToken getFindToken() {
+    return findToken;
+  }
+}
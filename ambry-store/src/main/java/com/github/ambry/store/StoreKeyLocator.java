@@ -0,0 +1,399 @@
+/*
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.store;
+
+import com.github.ambry.utils.MurmurHash;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * A compact, off-heap hash index that maps a fingerprint of a {@link StoreKey} to the start {@link Offset}s of the
+ * {@link IndexSegment}s that hold entries for that key. {@link PersistentIndex} uses it to restrict the segments it
+ * searches on a lookup to the ones that may actually contain the key, instead of probing the bloom filter of every
+ * segment from the newest to the oldest.
+ * <p/>
+ * The table is an open addressing hash table with linear probing. Every slot is {@link #SLOT_SIZE} bytes: an 8 byte
+ * fingerprint followed by a 4 byte segment id. A key that has entries in several segments occupies one slot per
+ * segment. Fingerprint collisions only cause extra segments to be searched, they never cause a segment to be missed.
+ * <p/>
+ * Lookups are lock free in the common case (optimistic reads of a {@link StampedLock}). Mutations are expected to come
+ * from the single thread that writes to the index and from the compaction thread.
+ * <p/>
+ * The locator is only an accelerator, so it never fails a write to the index. If the table is full and cannot grow any
+ * more, the locator disables itself and frees its table. From then on, lookups return {@code null} and the caller
+ * searches all the segments.
+ */
+class StoreKeyLocator {
+  static final int SLOT_SIZE = 12;
+  static final int DEFAULT_INITIAL_CAPACITY = 1 << 16;
+  private static final int MAX_SLOT_COUNT = 1 << 27;
+  private static final int FINGERPRINT_FIELD_LENGTH = 8;
+  private static final long EMPTY_FINGERPRINT = 0;
+  private static final long FINGERPRINT_SEED = 0x9747b28cL;
+  private static final double MAX_LOAD_FACTOR = 0.75;
+  private static final Logger logger = LoggerFactory.getLogger(StoreKeyLocator.class);
+
+  private final StampedLock lock = new StampedLock();
+  private final String dataDir;
+  private final int maxSlotCount;
+  private final StoreMetrics metrics;
+  // the following are only modified under the write lock.
+  private final Map<Offset, Integer> segmentIds = new HashMap<>();
+  private Set<Integer> retiredSegmentIds = new HashSet<>();
+  private int nextSegmentId = 0;
+  private int usedSlots = 0;
+  // the following are read without holding the lock, hence volatile.
+  private volatile Offset[] segmentsById = new Offset[16];
+  private volatile ByteBuffer table;
+  private volatile boolean disabled = false;
+
+  /**
+   * @param dataDir the data directory of the store this locator belongs to. Only used for logging.
+   * @param initialCapacity the initial number of slots in the table. Will be rounded up to a power of two.
+   * @param metrics the {@link StoreMetrics} of the store.
+   */
+  StoreKeyLocator(String dataDir, int initialCapacity, StoreMetrics metrics) {
+    this(dataDir, initialCapacity, MAX_SLOT_COUNT, metrics);
+  }
+
+  /**
+   * @param dataDir the data directory of the store this locator belongs to. Only used for logging.
+   * @param initialCapacity the initial number of slots in the table. Will be rounded up to a power of two.
+   * @param maxSlotCount the number of slots the table can grow to, a power of two. The locator is disabled once they
+   *                     are used up.
+   * @param metrics the {@link StoreMetrics} of the store.
+   */
+  StoreKeyLocator(String dataDir, int initialCapacity, int maxSlotCount, StoreMetrics metrics) {
+    this.dataDir = dataDir;
+    this.maxSlotCount = maxSlotCount;
+    this.metrics = metrics;
+    table = allocateTable(Math.min(tableSizeFor(initialCapacity), maxSlotCount));
+  }
+
+  /**
+   * Records all the keys in {@code indexSegment}. Used when an existing {@link IndexSegment} is loaded.
+   * @param indexSegment the {@link IndexSegment} whose keys need to be located.
+   */
+  void addSegment(IndexSegment indexSegment) {
+    if (indexSegment.size() == 0) {
+      return;
+    }
+    Offset segmentStartOffset = indexSegment.getStartOffset();
+    long stamp = lock.writeLock();
+    try {
+      if (disabled) {
+        return;
+      }
+      int segmentId = getOrAssignSegmentId(segmentStartOffset);
+      for (IndexEntry entry : indexSegment) {
+        if (!insert(getFingerprint(entry.getKey()), segmentId)) {
+          break;
+        }
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Records that {@code key} has an entry in the {@link IndexSegment} starting at {@code segmentStartOffset}. This has
+   * to happen before the entry is added to the segment so that a concurrent lookup never misses a visible entry.
+   * @param key the {@link StoreKey} that is being added to the index.
+   * @param segmentStartOffset the start {@link Offset} of the {@link IndexSegment} the entry is added to.
+   */
+  void add(StoreKey key, Offset segmentStartOffset) {
+    long fingerprint = getFingerprint(key);
+    long stamp = lock.writeLock();
+    try {
+      if (!disabled) {
+        insert(fingerprint, getOrAssignSegmentId(segmentStartOffset));
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Retires the segments starting at {@code segmentStartOffsets}, which have been removed from the index (usually
+   * because of compaction). The slots of the retired segments are not purged right away because lookups that started
+   * against the old map of index segments may still need them. They are purged the next time this method is called.
+   * @param segmentStartOffsets the start {@link Offset}s of the {@link IndexSegment}s that were removed.
+   */
+  void removeSegments(Collection<Offset> segmentStartOffsets) {
+    long stamp = lock.writeLock();
+    try {
+      if (disabled) {
+        return;
+      }
+      Set<Integer> segmentIdsToPurge = retiredSegmentIds;
+      retiredSegmentIds = new HashSet<>();
+      for (Offset offset : segmentStartOffsets) {
+        Integer segmentId = segmentIds.get(offset);
+        if (segmentId != null && !segmentIdsToPurge.contains(segmentId)) {
+          retiredSegmentIds.add(segmentId);
+        }
+      }
+      if (!segmentIdsToPurge.isEmpty()) {
+        purge(segmentIdsToPurge);
+      }
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Gets the start {@link Offset}s of all the {@link IndexSegment}s that may contain entries for {@code key}. Offsets
+   * of segments that have been retired may be present in the result and have to be ignored by the caller if they are
+   * not in the map of segments being searched.
+   * @param key the {@link StoreKey} to locate.
+   * @return the start {@link Offset}s of the {@link IndexSegment}s that may contain {@code key}, in no specific order,
+   *         or {@code null} if the locator is disabled and all the segments have to be searched.
+   */
+  List<Offset> getCandidateSegments(StoreKey key) {
+    long fingerprint = getFingerprint(key);
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        List<Offset> candidates = disabled ? null : probe(fingerprint);
+        if (lock.validate(stamp)) {
+          return candidates;
+        }
+      } catch (RuntimeException e) {
+        // a concurrent modification may produce an inconsistent view, the lookup is done again under the read lock.
+      }
+    }
+    stamp = lock.readLock();
+    try {
+      return disabled ? null : probe(fingerprint);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * @return {@code true} if the locator disabled itself because its table could not grow any more.
+   */
+  boolean isDisabled() {
+    return disabled;
+  }
+
+  /**
+   * @return the number of bytes of direct memory used by the table.
+   */
+  long getDirectMemoryUsage() {
+    return table.capacity();
+  }
+
+  /**
+   * @return the number of occupied slots in the table.
+   */
+  int getUsedSlots() {
+    return usedSlots;
+  }
+
+  /**
+   * Finds all the segments recorded against {@code fingerprint}.
+   * @param fingerprint the fingerprint of the key.
+   * @return the start {@link Offset}s of the segments recorded against {@code fingerprint}.
+   */
+  private List<Offset> probe(long fingerprint) {
+    ByteBuffer tableRef = table;
+    Offset[] segmentsByIdRef = segmentsById;
+    int slotCount = tableRef.capacity() / SLOT_SIZE;
+    int mask = slotCount - 1;
+    List<Offset> candidates = Collections.emptyList();
+    int slot = spread(fingerprint) & mask;
+    for (int probes = 0; probes < slotCount; probes++) {
+      int position = slot * SLOT_SIZE;
+      long slotFingerprint = tableRef.getLong(position);
+      if (slotFingerprint == EMPTY_FINGERPRINT) {
+        break;
+      }
+      if (slotFingerprint == fingerprint) {
+        int segmentId = tableRef.getInt(position + FINGERPRINT_FIELD_LENGTH);
+        Offset offset = segmentId < segmentsByIdRef.length ? segmentsByIdRef[segmentId] : null;
+        if (offset != null) {
+          if (candidates.isEmpty()) {
+            candidates = new ArrayList<>(2);
+          }
+          candidates.add(offset);
+        }
+      }
+      slot = (slot + 1) & mask;
+    }
+    return candidates;
+  }
+
+  /**
+   * Inserts the pair of {@code fingerprint} and {@code segmentId} if it is not already present, or disables the
+   * locator if the table is full and cannot grow any more. Must be called with the write lock held.
+   * @param fingerprint the fingerprint of the key.
+   * @param segmentId the id of the segment.
+   * @return {@code false} if the locator is disabled.
+   */
+  private boolean insert(long fingerprint, int segmentId) {
+    int slotCount = table.capacity() / SLOT_SIZE;
+    if (usedSlots >= slotCount * MAX_LOAD_FACTOR && slotCount >= maxSlotCount) {
+      disable();
+      return false;
+    }
+    if (insert(table, fingerprint, segmentId)) {
+      usedSlots++;
+      if (usedSlots > slotCount * MAX_LOAD_FACTOR && slotCount < maxSlotCount) {
+        rehash(slotCount * 2, Collections.emptySet());
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Disables the locator and frees its table, so that all lookups search all the segments. Must be called with the
+   * write lock held.
+   */
+  private void disable() {
+    logger.warn("Index : {} key locator is full with {} slots in use, disabling it. Lookups will search all the index "
+        + "segments until the store is restarted", dataDir, usedSlots);
+    disabled = true;
+    table = allocateTable(0);
+    segmentsById = new Offset[0];
+    segmentIds.clear();
+    retiredSegmentIds = new HashSet<>();
+    usedSlots = 0;
+    metrics.keyLocatorDisabledCount.inc();
+  }
+
+  /**
+   * Inserts the pair of {@code fingerprint} and {@code segmentId} into {@code target} if it is not already present.
+   * @param target the table to insert into.
+   * @param fingerprint the fingerprint of the key.
+   * @param segmentId the id of the segment.
+   * @return {@code true} if a new slot was used. {@code false} if the pair was already present.
+   */
+  private static boolean insert(ByteBuffer target, long fingerprint, int segmentId) {
+    int slotCount = target.capacity() / SLOT_SIZE;
+    int mask = slotCount - 1;
+    int slot = spread(fingerprint) & mask;
+    for (int probes = 0; probes < slotCount; probes++) {
+      int position = slot * SLOT_SIZE;
+      long slotFingerprint = target.getLong(position);
+      if (slotFingerprint == EMPTY_FINGERPRINT) {
+        // write the segment id before the fingerprint so that a reader never pairs the fingerprint with a stale id.
+        target.putInt(position + FINGERPRINT_FIELD_LENGTH, segmentId);
+        target.putLong(position, fingerprint);
+        return true;
+      }
+      if (slotFingerprint == fingerprint && target.getInt(position + FINGERPRINT_FIELD_LENGTH) == segmentId) {
+        return false;
+      }
+      slot = (slot + 1) & mask;
+    }
+    throw new IllegalStateException("Key locator has no free slots left for " + slotCount + " slots");
+  }
+
+  /**
+   * Removes all slots that belong to {@code segmentIdsToPurge}. Must be called with the write lock held.
+   * @param segmentIdsToPurge the ids of the segments to purge.
+   */
+  private void purge(Set<Integer> segmentIdsToPurge) {
+    rehash(table.capacity() / SLOT_SIZE, segmentIdsToPurge);
+    Offset[] newSegmentsById = Arrays.copyOf(segmentsById, segmentsById.length);
+    for (Integer segmentId : segmentIdsToPurge) {
+      segmentIds.remove(newSegmentsById[segmentId]);
+      newSegmentsById[segmentId] = null;
+    }
+    segmentsById = newSegmentsById;
+    logger.info("Index : {} purged {} retired segments from the key locator, {} slots in use", dataDir,
+        segmentIdsToPurge.size(), usedSlots);
+  }
+
+  /**
+   * Copies all slots except the ones belonging to {@code segmentIdsToSkip} into a new table of {@code newSlotCount}
+   * slots and makes it the current table. Must be called with the write lock held.
+   * @param newSlotCount the number of slots in the new table.
+   * @param segmentIdsToSkip the ids of the segments whose slots should not be copied.
+   */
+  private void rehash(int newSlotCount, Set<Integer> segmentIdsToSkip) {
+    ByteBuffer oldTable = table;
+    ByteBuffer newTable = allocateTable(newSlotCount);
+    int newUsedSlots = 0;
+    for (int position = 0; position < oldTable.capacity(); position += SLOT_SIZE) {
+      long fingerprint = oldTable.getLong(position);
+      int segmentId = oldTable.getInt(position + FINGERPRINT_FIELD_LENGTH);
+      if (fingerprint != EMPTY_FINGERPRINT && !segmentIdsToSkip.contains(segmentId)) {
+        insert(newTable, fingerprint, segmentId);
+        newUsedSlots++;
+      }
+    }
+    table = newTable;
+    usedSlots = newUsedSlots;
+  }
+
+  /**
+   * Gets the id of the segment starting at {@code segmentStartOffset}, assigning a new one if required. Must be called
+   * with the write lock held.
+   * @param segmentStartOffset the start {@link Offset} of the segment.
+   * @return the id of the segment.
+   */
+  private int getOrAssignSegmentId(Offset segmentStartOffset) {
+    Integer segmentId = segmentIds.get(segmentStartOffset);
+    if (segmentId == null) {
+      segmentId = nextSegmentId++;
+      Offset[] newSegmentsById = segmentsById;
+      if (segmentId >= newSegmentsById.length) {
+        newSegmentsById = Arrays.copyOf(newSegmentsById, newSegmentsById.length * 2);
+      }
+      newSegmentsById[segmentId] = segmentStartOffset;
+      segmentsById = newSegmentsById;
+      segmentIds.put(segmentStartOffset, segmentId);
+    }
+    return segmentId;
+  }
+
+  /**
+   * Computes the fingerprint of {@code key}. The fingerprint is derived from the UUID of the key since keys with the
+   * same UUID may be considered equal even if their serialized forms differ.
+   * @param key the {@link StoreKey} to compute the fingerprint for.
+   * @return the fingerprint, which is never {@link #EMPTY_FINGERPRINT}.
+   */
+  static long getFingerprint(StoreKey key) {
+    byte[] uuidBytes = key.getUuidBytesArray();
+    long fingerprint = MurmurHash.hash2_64(ByteBuffer.wrap(uuidBytes), 0, uuidBytes.length, FINGERPRINT_SEED);
+    return fingerprint == EMPTY_FINGERPRINT ? 1 : fingerprint;
+  }
+
+  private static int spread(long fingerprint) {
+    return (int) (fingerprint ^ (fingerprint >>> 32)) & Integer.MAX_VALUE;
+  }
+
+  private static int tableSizeFor(int capacity) {
+    int slotCount = Integer.highestOneBit(Math.max(capacity, 16) - 1) << 1;
+    return Math.min(slotCount, MAX_SLOT_COUNT);
+  }
+
+  private static ByteBuffer allocateTable(int slotCount) {
+    return ByteBuffer.allocateDirect(slotCount * SLOT_SIZE);
+  }
+}
@@ -49,6 +49,9 @@ class BlobReadOptions implements Comparable<BlobReadOptions>, Closeable {
   private static final Logger logger = LoggerFactory.getLogger(BlobReadOptions.class);
   private ByteBuf prefetchedData;
   private long prefetchedDataRelativeOffset = -1;
+  private BlobReadCache readCache = null;
+  private String readCacheStoreId;
+  private long readCacheGeneration;
 
   static final short VERSION_0 = 0;
   static final short VERSION_1 = 1;
@@ -161,30 +164,99 @@ class BlobReadOptions implements Comparable<BlobReadOptions>, Closeable {
     }
   }
 
+  /**
+   * Serves the reads of this blob from the given {@link BlobReadCache}, and caches the record of the blob on a miss.
+   * @param readCache the {@link BlobReadCache} to use.
+   * @param storeId the id of the store of this blob.
+   * @param generation the generation of the key of this blob, got from the cache before the index was read.
+   */
+  void enableReadCache(BlobReadCache readCache, String storeId, long generation) {
+    this.readCache = readCache;
+    this.readCacheStoreId = storeId;
+    this.readCacheGeneration = generation;
+  }
+
   /**
    * Do data doPrefetch: from disk to memory buffer.
+   * <p/>
+   * If the read cache is enabled, the data is served from the cache when possible, and a miss that fits into the
+   * cache reads the whole record, or the prefix of the record up to the end of the requested data, into the cache.
    * @param relativeOffset the relativeOffset to start.
    * @param size The size requested to doPrefetch.
    * @throws IOException
    */
   void doPrefetch(long relativeOffset, long size) throws IOException {
     long sizeToRead = Math.min(size, getMessageInfo().getSize() - relativeOffset);
-    prefetchedData = PooledByteBufAllocator.DEFAULT.ioBuffer((int) sizeToRead);
-    long fetchStartTime = SystemTime.getInstance().milliseconds();
+    if (readCache != null && prefetchThroughReadCache(relativeOffset, sizeToRead)) {
+      return;
+    }
+    prefetchedData = readFromLog(relativeOffset, sizeToRead);
+    prefetchedDataRelativeOffset = relativeOffset;
+  }
+
+  /**
+   * @param relativeOffset the offset of the data, relative to the start of the record of this blob.
+   * @param size the size of the data.
+   * @return a retained slice of the data from the read cache, without recording the access, or {@code null} if the
+   *         read cache is disabled or the data is not cached.
+   */
+  ByteBuf getFromReadCache(long relativeOffset, long size) {
+    return readCache == null ? null
+        : readCache.get(readCacheStoreId, info.getStoreKey(), offset, relativeOffset, size, false);
+  }
+
+  /**
+   * Prefetches the data from the read cache, reading the record into the cache on a miss.
+   * @param relativeOffset the relativeOffset to start.
+   * @param sizeToRead the size of the data to prefetch.
+   * @return {@code true} if the data was prefetched. {@code false} if the data is too large to be cached.
+   * @throws IOException
+   */
+  private boolean prefetchThroughReadCache(long relativeOffset, long sizeToRead) throws IOException {
+    ByteBuf cached = readCache.get(readCacheStoreId, info.getStoreKey(), offset, relativeOffset, sizeToRead, true);
+    if (cached == null) {
+      long sizeToCache = info.getSize() <= readCache.getMaxEntrySizeInBytes() ? info.getSize()
+          : relativeOffset + sizeToRead;
+      if (sizeToCache > readCache.getMaxEntrySizeInBytes()) {
+        return false;
+      }
+      ByteBuf record = readFromLog(0, sizeToCache);
+      try {
+        readCache.put(readCacheStoreId, info.getStoreKey(), offset, record, readCacheGeneration);
+        cached = record.retainedSlice((int) relativeOffset, (int) sizeToRead);
+      } finally {
+        record.release();
+      }
+    }
+    prefetchedData = cached;
+    prefetchedDataRelativeOffset = relativeOffset;
+    return true;
+  }
+
+  /**
+   * Reads data of this blob from the log into a pooled buffer.
+   * @param relativeOffset the offset of the data, relative to the start of the record of this blob.
+   * @param sizeToRead the size of the data.
+   * @return the buffer with the data.
+   * @throws IOException
+   */
+  private ByteBuf readFromLog(long relativeOffset, long sizeToRead) throws IOException {
+    ByteBuf data = PooledByteBufAllocator.DEFAULT.ioBuffer((int) sizeToRead);
+    long fetchStartTimeNs = SystemTime.getInstance().nanoseconds();
     FileChannel fileChannel = getChannel();
     long fileOffset = offset.getOffset() + relativeOffset;
-    int sizeRead = Utils.readFileToByteBuf(fileChannel, prefetchedData, fileOffset, (int) sizeToRead);
+    int sizeRead = Utils.readFileToByteBuf(fileChannel, data, fileOffset, (int) sizeToRead);
     if (sizeRead != sizeToRead) {
+      data.release();
       throw new IOException(
           "Reading from " + getFile().getAbsolutePath() + " at offset " + fileOffset + ", expect " + sizeToRead
               + " bytes, but get " + sizeRead);
     }
 
     if (diskMetrics != null) {
-      diskMetrics.diskReadTimePerMbInMs.update(
-          ((SystemTime.getInstance().milliseconds() - fetchStartTime) << 20) / sizeToRead);
+      diskMetrics.recordApplicationRead(SystemTime.getInstance().nanoseconds() - fetchStartTimeNs, sizeToRead);
     }
-    prefetchedDataRelativeOffset = relativeOffset;
+    return data;
   }
 
   ByteBuf getPrefetchedData() {
@@ -201,7 +273,6 @@ class BlobReadOptions implements Comparable<BlobReadOptions>, Closeable {
  * offsets from the underlying file channel
  */
 class StoreMessageReadSet implements MessageReadSet {
-
   private final List<BlobReadOptions> readOptions;
   private static final Logger logger = LoggerFactory.getLogger(StoreMessageReadSet.class);
   private final IOPHandler handler;
@@ -225,9 +296,18 @@ class StoreMessageReadSet implements MessageReadSet {
     long sizeToRead = Math.min(maxSize, options.getMessageInfo().getSize() - relativeOffset);
     long written = 0;
     if (options.getPrefetchedDataRelativeOffset() == -1) {
-      long startOffset = options.getOffset() + relativeOffset;
-      logger.trace("Blob Message Read Set position {} count {}", startOffset, sizeToRead);
-      written = options.getChannel().transferTo(startOffset, sizeToRead, channel);
+      ByteBuf cached = options.getFromReadCache(relativeOffset, sizeToRead);
+      if (cached != null) {
+        try {
+          written = channel.write(cached.nioBuffer());
+        } finally {
+          cached.release();
+        }
+      } else {
+        long startOffset = options.getOffset() + relativeOffset;
+        logger.trace("Blob Message Read Set position {} count {}", startOffset, sizeToRead);
+        written = options.getChannel().transferTo(startOffset, sizeToRead, channel);
+      }
     } else {
       ByteBuffer buf = options.getPrefetchedData().nioBuffer();
       long bufStartOffset = relativeOffset - options.getPrefetchedDataRelativeOffset();
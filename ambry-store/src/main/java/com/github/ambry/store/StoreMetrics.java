@@ -38,6 +38,12 @@ public class StoreMetrics {
   public final Timer putResponse;
   public final Timer deleteResponse;
   public final Timer ttlUpdateResponse;
+  public final Histogram putGroupCommitBatchSize;
+  public final Histogram putGroupCommitQueueWaitTimeInMs;
+  public final Counter blobReadCacheHitCount;
+  public final Counter blobReadCacheMissCount;
+  public final Counter blobReadCacheEvictionCount;
+  public final Counter blobReadCacheInvalidationCount;
   public final Timer undeleteResponse;
   public final Timer findEntriesSinceResponse;
   public final Timer findMissingKeysResponse;
@@ -45,6 +51,11 @@ public class StoreMetrics {
   public final Timer findAllMessageInfosResponse;
   public final Timer isKeyDeletedResponse;
   public final Timer storeStartTime;
+  public final Timer logLoadTime;
+  public final Timer indexSegmentsLoadTime;
+  public final Timer deferredIndexValidationTime;
+  public final Counter deferredIndexValidationFailureCount;
+  public final Counter deferredIndexValidationTriggeredShutdownCount;
   public final Histogram getRandomPutEntryReadOptionsInMs;
   public final Histogram storeShutdownTimeInMs;
   public final Histogram indexShutdownTimeInMs;
@@ -66,6 +77,9 @@ public class StoreMetrics {
   public final Counter beforeAndAfterOffsetSanityCheckFailureCount;
   public final Timer recoveryTime;
   public final Timer findTime;
+  public final Timer findKeysTime;
+  public final Histogram findKeysBatchSize;
+  public final Counter keyLocatorDisabledCount;
   public final Timer indexFlushTime;
   public final Timer cleanupTokenFlushTime;
   public final Timer hardDeleteTime;
@@ -85,6 +99,7 @@ public class StoreMetrics {
   public final Counter hardDeleteExceptionsCount;
   public final Histogram segmentSizeForExists;
   public final Histogram segmentsAccessedPerBlobCount;
+  public final Histogram segmentsAccessedPerFindKeysCount;
   public final Counter identicalPutAttemptCount;
   public final Counter getAuthorizationFailureCount;
   public final Counter deleteAuthorizationFailureCount;
@@ -113,6 +128,8 @@ public class StoreMetrics {
   public final Histogram compactionBufferReadSize;
   public final Histogram compactionBufferReadUtilizationRate;
   public final Timer compactionCopyRecordTimeInMs;
+  public final Timer compactionReadAheadWaitTimeInMs;
+  public final Timer compactionValidEntryFilterTimeInMs;
   public final Timer compactionCopyDataByIndexSegmentTimeInMs;
   public final Timer compactionCopyDataByLogSegmentTimeInMs;
 
@@ -148,6 +165,17 @@ public class StoreMetrics {
     putResponse = registry.timer(MetricRegistry.name(BlobStore.class, name + "StorePutResponse"));
     deleteResponse = registry.timer(MetricRegistry.name(BlobStore.class, name + "StoreDeleteResponse"));
     ttlUpdateResponse = registry.timer(MetricRegistry.name(BlobStore.class, name + "StoreTtlUpdateResponse"));
+    putGroupCommitBatchSize =
+        registry.histogram(MetricRegistry.name(BlobStore.class, name + "PutGroupCommitBatchSize"));
+    putGroupCommitQueueWaitTimeInMs =
+        registry.histogram(MetricRegistry.name(BlobStore.class, name + "PutGroupCommitQueueWaitTimeInMs"));
+    blobReadCacheHitCount = registry.counter(MetricRegistry.name(BlobReadCache.class, name + "BlobReadCacheHitCount"));
+    blobReadCacheMissCount =
+        registry.counter(MetricRegistry.name(BlobReadCache.class, name + "BlobReadCacheMissCount"));
+    blobReadCacheEvictionCount =
+        registry.counter(MetricRegistry.name(BlobReadCache.class, name + "BlobReadCacheEvictionCount"));
+    blobReadCacheInvalidationCount =
+        registry.counter(MetricRegistry.name(BlobReadCache.class, name + "BlobReadCacheInvalidationCount"));
     undeleteResponse = registry.timer(MetricRegistry.name(BlobStore.class, name + "StoreUndeleteResponse"));
     findEntriesSinceResponse =
         registry.timer(MetricRegistry.name(BlobStore.class, name + "StoreFindEntriesSinceResponse"));
@@ -158,6 +186,14 @@ public class StoreMetrics {
         registry.timer(MetricRegistry.name(BlobStore.class, name + "StoreFindAllMessageInfosResponse"));
     isKeyDeletedResponse = registry.timer(MetricRegistry.name(BlobStore.class, name + "IsKeyDeletedResponse"));
     storeStartTime = registry.timer(MetricRegistry.name(BlobStore.class, name + "StoreStartTime"));
+    logLoadTime = registry.timer(MetricRegistry.name(BlobStore.class, name + "LogLoadTime"));
+    indexSegmentsLoadTime = registry.timer(MetricRegistry.name(PersistentIndex.class, name + "IndexSegmentsLoadTime"));
+    deferredIndexValidationTime =
+        registry.timer(MetricRegistry.name(PersistentIndex.class, name + "DeferredIndexValidationTime"));
+    deferredIndexValidationFailureCount =
+        registry.counter(MetricRegistry.name(PersistentIndex.class, name + "DeferredIndexValidationFailureCount"));
+    deferredIndexValidationTriggeredShutdownCount =
+        registry.counter(MetricRegistry.name(BlobStore.class, name + "DeferredIndexValidationTriggeredShutdownCount"));
     storeShutdownTimeInMs = registry.histogram(MetricRegistry.name(BlobStore.class, name + "StoreShutdownTimeInMs"));
     getRandomPutEntryReadOptionsInMs =
         registry.histogram(MetricRegistry.name(PersistentIndex.class, name + "GetRandomPutEntryReadOptionsInMs"));
@@ -188,6 +224,10 @@ public class StoreMetrics {
         MetricRegistry.name(PersistentIndex.class, name + "BeforeAndAfterOffsetSanityCheckFailureCount"));
     recoveryTime = registry.timer(MetricRegistry.name(PersistentIndex.class, name + "IndexRecoveryTime"));
     findTime = registry.timer(MetricRegistry.name(PersistentIndex.class, name + "IndexFindTime"));
+    findKeysTime = registry.timer(MetricRegistry.name(PersistentIndex.class, name + "IndexFindKeysTime"));
+    findKeysBatchSize = registry.histogram(MetricRegistry.name(PersistentIndex.class, name + "IndexFindKeysBatchSize"));
+    keyLocatorDisabledCount =
+        registry.counter(MetricRegistry.name(PersistentIndex.class, name + "KeyLocatorDisabledCount"));
     indexFlushTime = registry.timer(MetricRegistry.name(PersistentIndex.class, name + "IndexFlushTime"));
     cleanupTokenFlushTime = registry.timer(MetricRegistry.name(PersistentIndex.class, name + "CleanupTokenFlushTime"));
     hardDeleteTime = registry.timer(MetricRegistry.name(PersistentIndex.class, name + "HardDeleteTime"));
@@ -218,6 +258,8 @@ public class StoreMetrics {
     segmentSizeForExists = registry.histogram(MetricRegistry.name(IndexSegment.class, name + "SegmentSizeForExists"));
     segmentsAccessedPerBlobCount =
         registry.histogram(MetricRegistry.name(IndexSegment.class, name + "SegmentsAccessedPerBlobCount"));
+    segmentsAccessedPerFindKeysCount =
+        registry.histogram(MetricRegistry.name(IndexSegment.class, name + "SegmentsAccessedPerFindKeysCount"));
     identicalPutAttemptCount =
         registry.counter(MetricRegistry.name(PersistentIndex.class, name + "IdenticalPutAttemptCount"));
     getAuthorizationFailureCount =
@@ -256,6 +298,10 @@ public class StoreMetrics {
         registry.counter(MetricRegistry.name(BlobStoreCompactor.class, name + "PermanentDeleteTombstonePurgeCount"));
     compactionCopyRecordTimeInMs =
         registry.timer(MetricRegistry.name(BlobStoreCompactor.class, name + "CompactionCopyRecordTimeInMs"));
+    compactionReadAheadWaitTimeInMs =
+        registry.timer(MetricRegistry.name(BlobStoreCompactor.class, name + "CompactionReadAheadWaitTimeInMs"));
+    compactionValidEntryFilterTimeInMs =
+        registry.timer(MetricRegistry.name(BlobStoreCompactor.class, name + "CompactionValidEntryFilterTimeInMs"));
     compactionCopyDataByIndexSegmentTimeInMs = registry.timer(
         MetricRegistry.name(BlobStoreCompactor.class, name + "CompactionCopyDataByIndexSegmentTimeInMs"));
     compactionCopyDataByLogSegmentTimeInMs =
@@ -294,6 +340,19 @@ public class StoreMetrics {
         byteBufferForAppendTotalCountGauge);
   }
 
+  /**
+   * Registers the gauges of the {@link BlobReadCache} of the host.
+   * @param blobReadCache the {@link BlobReadCache} shared by the stores of the host.
+   */
+  void initializeBlobReadCacheGauges(BlobReadCache blobReadCache) {
+    Gauge<Long> sizeInBytes = blobReadCache::getSizeInBytes;
+    registry.gauge(MetricRegistry.name(BlobReadCache.class, hostMetricPrefix + "BlobReadCacheSizeInBytes"),
+        () -> sizeInBytes);
+    Gauge<Integer> entryCount = blobReadCache::getEntryCount;
+    registry.gauge(MetricRegistry.name(BlobReadCache.class, hostMetricPrefix + "BlobReadCacheEntryCount"),
+        () -> entryCount);
+  }
+
   void initializeIndexGauges(String storeId, final PersistentIndex index, final long capacityInBytes,
       BlobStoreStats blobStoreStats, boolean enableStoreCurrentInvalidSize,
       boolean enableStoreIndexDirectMemoryUsageMetric) {
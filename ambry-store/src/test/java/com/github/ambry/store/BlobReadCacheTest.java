@@ -0,0 +1,249 @@
+/*
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.store;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.utils.ByteBufferInputStream;
+import com.github.ambry.utils.TestUtils;
+import com.github.ambry.utils.Utils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Test;
+
+import static com.github.ambry.store.StoreTestUtils.*;
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests for {@link BlobReadCache}.
+ */
+public class BlobReadCacheTest {
+  private static final String STORE_ID = "store";
+  private final StoreMetrics metrics = new StoreMetrics(new MetricRegistry());
+  private final LogSegmentName logSegmentName = LogSegmentName.generateFirstSegmentName(true);
+  private final File tempDir;
+
+  public BlobReadCacheTest() throws IOException {
+    tempDir = StoreTestUtils.createTempDirectory("blobReadCacheDir-" + TestUtils.getRandomString(10));
+  }
+
+  /**
+   * Deletes the temporary directory.
+   * @throws IOException
+   */
+  @After
+  public void cleanup() throws IOException {
+    assertTrue(tempDir.getAbsolutePath() + " could not be deleted", StoreTestUtils.cleanDirectory(tempDir, true));
+  }
+
+  /**
+   * Tests caching records and prefixes of records, and getting parts of them.
+   */
+  @Test
+  public void putAndGetTest() {
+    BlobReadCache cache = new BlobReadCache(1000, 100, metrics);
+    MockId id = new MockId(TestUtils.getRandomString(10));
+    Offset offset = new Offset(logSegmentName, 0);
+    byte[] record = TestUtils.getRandomBytes(100);
+    ByteBuf prefix = Unpooled.wrappedBuffer(record, 0, 50);
+    cache.put(STORE_ID, id, offset, prefix, cache.getGeneration(id));
+    assertEquals("Cache should hold a reference of the data", 2, prefix.refCnt());
+    assertNull("Data past the cached prefix should not be found", cache.get(STORE_ID, id, offset, 40, 20, true));
+    assertNull("Data of another offset should not be found",
+        cache.get(STORE_ID, id, new Offset(logSegmentName, 100), 0, 10, true));
+    assertNull("Data of another store should not be found", cache.get("other", id, offset, 0, 10, true));
+    ByteBuf part = cache.get(STORE_ID, id, offset, 10, 20, true);
+    assertArrayEquals("Unexpected data", Arrays.copyOfRange(record, 10, 30), ByteBufUtil.getBytes(part));
+    part.release();
+    assertEquals("Unexpected hit count", 1, metrics.blobReadCacheHitCount.getCount());
+    assertEquals("Unexpected miss count", 3, metrics.blobReadCacheMissCount.getCount());
+
+    // the whole record replaces the prefix
+    ByteBuf whole = Unpooled.wrappedBuffer(record);
+    cache.put(STORE_ID, id, offset, whole, cache.getGeneration(id));
+    assertEquals("Prefix should have been released", 1, prefix.refCnt());
+    assertEquals("Unexpected size", record.length, cache.getSizeInBytes());
+    part = cache.get(STORE_ID, id, offset, 40, 60, true);
+    assertArrayEquals("Unexpected data", Arrays.copyOfRange(record, 40, 100), ByteBufUtil.getBytes(part));
+    part.release();
+
+    // records larger than an entry are not cached
+    MockId largeId = new MockId(TestUtils.getRandomString(10));
+    cache.put(STORE_ID, largeId, offset, Unpooled.wrappedBuffer(TestUtils.getRandomBytes(101)),
+        cache.getGeneration(largeId));
+    assertEquals("Unexpected entry count", 1, cache.getEntryCount());
+    cache.close();
+    assertEquals("Record should have been released", 1, whole.refCnt());
+    assertEquals("Unexpected size", 0, cache.getSizeInBytes());
+  }
+
+  /**
+   * Tests that entries hit more than once survive a scan of entries that are read once.
+   */
+  @Test
+  public void evictionTest() {
+    BlobReadCache cache = new BlobReadCache(1000, 100, metrics);
+    Offset offset = new Offset(logSegmentName, 0);
+    MockId hotId = new MockId(TestUtils.getRandomString(10));
+    cache.put(STORE_ID, hotId, offset, Unpooled.wrappedBuffer(new byte[100]), cache.getGeneration(hotId));
+    cache.get(STORE_ID, hotId, offset, 0, 100, true).release();
+    for (int i = 0; i < 20; i++) {
+      MockId id = new MockId(TestUtils.getRandomString(10));
+      cache.put(STORE_ID, id, offset, Unpooled.wrappedBuffer(new byte[100]), cache.getGeneration(id));
+    }
+    assertEquals("Cache should be full", 1000, cache.getSizeInBytes());
+    assertEquals("Unexpected eviction count", 11, metrics.blobReadCacheEvictionCount.getCount());
+    ByteBuf hot = cache.get(STORE_ID, hotId, offset, 0, 100, true);
+    assertNotNull("Hot entry should not have been evicted", hot);
+    hot.release();
+  }
+
+  /**
+   * Tests invalidating entries by key, segment and store, and that a record read before an invalidation of its key is
+   * not cached.
+   */
+  @Test
+  public void invalidationTest() {
+    BlobReadCache cache = new BlobReadCache(1000, 100, metrics);
+    Offset offset = new Offset(logSegmentName, 0);
+    Offset compactedOffset = new Offset(logSegmentName.getNextGenerationName(), 0);
+    MockId id = new MockId(TestUtils.getRandomString(10));
+    long generation = cache.getGeneration(id);
+    cache.put(STORE_ID, id, offset, Unpooled.wrappedBuffer(new byte[10]), generation);
+    cache.invalidate(id);
+    assertNull("Entry should have been invalidated", cache.get(STORE_ID, id, offset, 0, 10, true));
+    cache.put(STORE_ID, id, offset, Unpooled.wrappedBuffer(new byte[10]), generation);
+    assertEquals("Record read before the invalidation should not be cached", 0, cache.getEntryCount());
+
+    MockId otherId = new MockId(TestUtils.getRandomString(10));
+    cache.put(STORE_ID, id, offset, Unpooled.wrappedBuffer(new byte[10]), cache.getGeneration(id));
+    cache.put(STORE_ID, otherId, compactedOffset, Unpooled.wrappedBuffer(new byte[10]),
+        cache.getGeneration(otherId));
+    cache.invalidateSegments(STORE_ID, Collections.singleton(logSegmentName));
+    assertNull("Entry of removed segment should have been invalidated", cache.get(STORE_ID, id, offset, 0, 10, true));
+    ByteBuf data = cache.get(STORE_ID, otherId, compactedOffset, 0, 10, true);
+    assertNotNull("Entry of other segment should still be cached", data);
+    data.release();
+    cache.invalidateStore("other");
+    assertEquals("Entries of other stores should still be cached", 1, cache.getEntryCount());
+    cache.invalidateStore(STORE_ID);
+    assertEquals("All entries should have been invalidated", 0, cache.getEntryCount());
+    assertEquals("Unexpected invalidation count", 3, metrics.blobReadCacheInvalidationCount.getCount());
+  }
+
+  /**
+   * Tests that concurrent reads, writes, evictions and invalidations neither serve released data nor leak records.
+   * @throws Exception
+   */
+  @Test
+  public void concurrentAccessTest() throws Exception {
+    BlobReadCache cache = new BlobReadCache(1000, 100, metrics);
+    Offset offset = new Offset(logSegmentName, 0);
+    List<MockId> ids = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      ids.add(new MockId(TestUtils.getRandomString(10)));
+    }
+    List<ByteBuf> records = Collections.synchronizedList(new ArrayList<>());
+    int numThreads = 4;
+    ExecutorService executorService = Executors.newFixedThreadPool(numThreads);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < numThreads; t++) {
+      futures.add(executorService.submit(() -> {
+        for (int i = 0; i < 2000; i++) {
+          MockId id = ids.get(TestUtils.RANDOM.nextInt(ids.size()));
+          switch (TestUtils.RANDOM.nextInt(4)) {
+            case 0:
+              ByteBuf record = Unpooled.wrappedBuffer(new byte[100]);
+              records.add(record);
+              cache.put(STORE_ID, id, offset, record, cache.getGeneration(id));
+              break;
+            case 1:
+              cache.invalidate(id);
+              break;
+            default:
+              ByteBuf data = cache.get(STORE_ID, id, offset, 0, 100, true);
+              if (data != null) {
+                assertEquals("Unexpected data size", 100, data.readableBytes());
+                data.release();
+              }
+          }
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get(1, TimeUnit.MINUTES);
+    }
+    executorService.shutdown();
+    assertTrue("Cache should be within its capacity", cache.getSizeInBytes() <= 1000);
+    cache.close();
+    assertEquals("Unexpected entry count", 0, cache.getEntryCount());
+    for (ByteBuf record : records) {
+      assertEquals("Record should have been released", 1, record.refCnt());
+    }
+  }
+
+  /**
+   * Tests that {@link StoreMessageReadSet} serves prefetches of a blob from the cache.
+   * @throws IOException
+   * @throws StoreException
+   */
+  @Test
+  public void readSetTest() throws IOException, StoreException {
+    int segCapacity = 1000;
+    Log log = new Log(tempDir.getAbsolutePath(), segCapacity, StoreTestUtils.DEFAULT_DISK_SPACE_ALLOCATOR,
+        createStoreConfig(segCapacity, false), metrics, null);
+    try {
+      LogSegment segment = log.getFirstSegment();
+      int size = (int) (segCapacity - segment.getStartOffset());
+      byte[] srcOfTruth = TestUtils.getRandomBytes(size);
+      log.appendFrom(Channels.newChannel(new ByteBufferInputStream(ByteBuffer.wrap(srcOfTruth))), size);
+      MockId id = new MockId(TestUtils.getRandomString(10));
+      Offset offset = new Offset(segment.getName(), segment.getStartOffset());
+      MessageInfo info = new MessageInfo(id, size, 1, Utils.getRandomShort(TestUtils.RANDOM),
+          Utils.getRandomShort(TestUtils.RANDOM), System.currentTimeMillis());
+      BlobReadCache cache = new BlobReadCache(segCapacity, size, metrics);
+
+      for (int i = 0; i < 2; i++) {
+        BlobReadOptions options = new BlobReadOptions(log, offset, info);
+        options.enableReadCache(cache, STORE_ID, cache.getGeneration(id));
+        MessageReadSet readSet = new StoreMessageReadSet(Collections.singletonList(options));
+        readSet.doPrefetch(0, 10, 100);
+        assertArrayEquals("Unexpected prefetched data", Arrays.copyOfRange(srcOfTruth, 10, 110),
+            ByteBufUtil.getBytes(readSet.getPrefetchedData(0)));
+        readSet.getPrefetchedData(0).release();
+        options.close();
+      }
+      assertEquals("Whole record should have been cached", size, cache.getSizeInBytes());
+      assertEquals("Unexpected miss count", 1, metrics.blobReadCacheMissCount.getCount());
+      assertEquals("Unexpected hit count", 1, metrics.blobReadCacheHitCount.getCount());
+      cache.close();
+    } finally {
+      log.close(false);
+    }
+  }
+}
@@ -102,6 +102,7 @@ public class BlobStoreCompactorTest {
   private final boolean directIOWithBuffer;
   private final boolean withUndelete;
   private final boolean purgeDeleteTombstone;
+  private final boolean batchLatestStateLookup;
   private final StoreConfig config;
   private final Time time = new MockTime();
   private static final String COMPACT_POLICY_INFO_FILE_NAME_V2 = "compactionPolicyInfoV2.json";
@@ -134,10 +135,12 @@ public class BlobStoreCompactorTest {
     //@formatter:off
     return Arrays.asList(
         new Object[][]{
-              {true, true, true, false},
-              {false, false, true, false},
-              {false, true, false, false},
-              {true, true, true, true}
+              {true, true, true, false, false},
+              {false, false, true, false, false},
+              {false, true, false, false, false},
+              {false, true, false, false, true},
+              {true, true, true, true, false},
+              {false, false, true, false, true}
         });
     //@formatter:on
   }
@@ -147,7 +150,7 @@ public class BlobStoreCompactorTest {
    * @throws Exception
    */
   public BlobStoreCompactorTest(boolean doDirectIO, boolean withUndelete, boolean purgeDeleteTombstone,
-      boolean directIOWithBuffer) throws Exception {
+      boolean directIOWithBuffer, boolean batchLatestStateLookup) throws Exception {
     tempDir = StoreTestUtils.createTempDirectory("compactorDir-" + TestUtils.getRandomString(10));
     tempDirStr = tempDir.getAbsolutePath();
     config = new StoreConfig(new VerifiableProperties(new Properties()));
@@ -158,6 +161,7 @@ public class BlobStoreCompactorTest {
       assumeTrue(Utils.isLinux());
     }
     this.directIOWithBuffer = directIOWithBuffer;
+    this.batchLatestStateLookup = batchLatestStateLookup;
     accountService = Mockito.mock(AccountService.class);
   }
 
@@ -1117,6 +1121,23 @@ public class BlobStoreCompactorTest {
     compactAndVerify(segmentsUnderCompaction, deleteReferenceTimeMs, true);
   }
 
+  /**
+   * A test similar to basicTest but reads the records to copy ahead on a separate thread.
+   * @throws Exception
+   */
+  @Test
+  public void basicTestWithReadAhead() throws Exception {
+    refreshState(false, true, false);
+    state.properties.put("store.compaction.read.ahead.bundle.count", "2");
+    List<LogSegmentName> segmentsUnderCompaction = getLogSegments(0, 2);
+    long deleteReferenceTimeMs = reduceValidDataSizeInLogSegments(segmentsUnderCompaction,
+        state.log.getSegmentCapacity() - LogSegment.HEADER_SIZE);
+    compactAndVerify(segmentsUnderCompaction, deleteReferenceTimeMs, true);
+    assertTrue("Records should have been read ahead", metricRegistry.getTimers()
+        .get(MetricRegistry.name(BlobStoreCompactor.class, "CompactionReadAheadWaitTimeInMs"))
+        .getCount() > 0);
+  }
+
   /**
    * Compacts the whole log (except the last log segment) but without any changes expected i.e all data is valid and is
    * simply copied over from the old log segments to the new log segments.
@@ -3464,6 +3485,8 @@ public class BlobStoreCompactorTest {
       state.properties.put("store.container.deletion.enabled", Boolean.toString(enableAutoCloseLastLogSegment));
     }
     state.properties.put("store.compaction.purge.delete.tombstone", Boolean.toString(purgeDeleteTombstone));
+    state.properties.put("store.compaction.batch.latest.state.lookup.enabled",
+        Boolean.toString(batchLatestStateLookup));
     StoreConfig config = new StoreConfig(new VerifiableProperties(state.properties));
     metricRegistry = new MetricRegistry();
     StoreMetrics metrics = new StoreMetrics(metricRegistry);
@@ -61,12 +61,14 @@ import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import org.apache.hadoop.io.nativeio.NativeIO;
@@ -706,6 +708,121 @@ public class BlobStoreTest {
     verifyPutFutures(putters, futures);
   }
 
+  /**
+   * Tests the case where there are many concurrent PUTs with group commit enabled.
+   * @throws Exception
+   */
+  @Test
+  public void concurrentPutWithGroupCommitTest() throws Exception {
+    properties.put(StoreConfig.storeGroupCommitEnabledName, "true");
+    properties.put(StoreConfig.storeGroupCommitMaxBatchSizeName, "4");
+    reloadStore();
+    int blobCount = 4000 / PUT_RECORD_SIZE + 1;
+    List<Putter> putters = new ArrayList<>(blobCount);
+    for (int i = 0; i < blobCount; i++) {
+      putters.add(new Putter());
+    }
+    ExecutorService executorService = Executors.newFixedThreadPool(putters.size());
+    List<Future<CallableResult>> futures = executorService.invokeAll(putters);
+    verifyPutFutures(putters, futures);
+    assertTrue("Group commits should have been recorded", storeMetrics.putGroupCommitBatchSize.getCount() > 0);
+    assertTrue("No group commit should exceed the max batch size",
+        storeMetrics.putGroupCommitBatchSize.getSnapshot().getMax() <= 4);
+    // the committed entries have to survive a restart
+    reloadStore();
+    verifyPutFutures(putters, futures);
+    executorService.shutdown();
+  }
+
+  /**
+   * Tests that a failure after a put of a group commit is written to the log completes the puts of the group instead
+   * of leaving their callers waiting.
+   * @throws Exception
+   */
+  @Test
+  public void groupCommitFailureAfterLogWriteTest() throws Exception {
+    properties.put(StoreConfig.storeGroupCommitEnabledName, "true");
+    reloadStore();
+    CountDownLatch blockingWriteStarted = new CountDownLatch(1);
+    CountDownLatch releaseBlockingWrite = new CountDownLatch(1);
+    // holds the store write lock until the other puts are queued
+    MockMessageWriteSet blockingWriteSet =
+        new MockMessageWriteSet(Collections.singletonList(newPutInfo(getUniqueId())),
+            Collections.singletonList(ByteBuffer.wrap(TestUtils.getRandomBytes(PUT_RECORD_SIZE)))) {
+          @Override
+          public long writeTo(Write writeChannel) throws StoreException {
+            blockingWriteStarted.countDown();
+            try {
+              releaseBlockingWrite.await();
+            } catch (InterruptedException e) {
+              throw new IllegalStateException(e);
+            }
+            return super.writeTo(writeChannel);
+          }
+        };
+    MockMessageWriteSet goodWriteSet = new MockMessageWriteSet(Collections.singletonList(newPutInfo(getUniqueId())),
+        Collections.singletonList(ByteBuffer.wrap(TestUtils.getRandomBytes(PUT_RECORD_SIZE))));
+    // fails once its bytes are in the log, while the entries for the index are built
+    AtomicBoolean written = new AtomicBoolean(false);
+    MockMessageWriteSet failingWriteSet =
+        new MockMessageWriteSet(Collections.singletonList(newPutInfo(getUniqueId())),
+            Collections.singletonList(ByteBuffer.wrap(TestUtils.getRandomBytes(PUT_RECORD_SIZE)))) {
+          @Override
+          public long writeTo(Write writeChannel) throws StoreException {
+            long sizeWritten = super.writeTo(writeChannel);
+            written.set(true);
+            return sizeWritten;
+          }
+
+          @Override
+          public List<MessageInfo> getMessageSetInfo() {
+            if (written.get()) {
+              throw new IllegalStateException("Injected failure after the log write");
+            }
+            return super.getMessageSetInfo();
+          }
+        };
+
+    ExecutorService executorService = Executors.newFixedThreadPool(3);
+    try {
+      Future<?> blockingPut = executorService.submit(() -> {
+        store.put(blockingWriteSet);
+        return null;
+      });
+      assertTrue("Blocking put did not start", blockingWriteStarted.await(10, TimeUnit.SECONDS));
+      Future<?> goodPut = executorService.submit(() -> {
+        store.put(goodWriteSet);
+        return null;
+      });
+      Future<?> failingPut = executorService.submit(() -> {
+        store.put(failingWriteSet);
+        return null;
+      });
+      releaseBlockingWrite.countDown();
+      blockingPut.get(10, TimeUnit.SECONDS);
+      try {
+        failingPut.get(10, TimeUnit.SECONDS);
+        fail("Put should have failed");
+      } catch (ExecutionException e) {
+        assertEquals("Unexpected error code", StoreErrorCodes.Unknown_Error,
+            ((StoreException) e.getCause()).getErrorCode());
+      }
+      // depending on whether it was committed with the failing put, the other put either failed or succeeded, but it
+      // has to be complete
+      try {
+        goodPut.get(10, TimeUnit.SECONDS);
+      } catch (ExecutionException e) {
+        assertTrue("Unexpected exception", e.getCause() instanceof StoreException);
+      }
+    } finally {
+      executorService.shutdownNow();
+    }
+    // the store keeps accepting puts
+    MockId id = put(1, PUT_RECORD_SIZE, Utils.Infinite_Time).get(0);
+    checkStoreInfo(store.get(Collections.singletonList(id), EnumSet.noneOf(StoreGetOptions.class)),
+        Collections.singleton(id));
+  }
+
   /**
    * Tests the case where there are many concurrent GETs.
    * @throws Exception
@@ -2218,6 +2335,29 @@ public class BlobStoreTest {
     assertFalse("Bootstrap file should be deleted", bootstrapFile.exists());
   }
 
+  /**
+   * Test that a store whose directory has the marker file of a file copy that was interrupted by a restart deletes the
+   * copied files and starts empty instead of opening them.
+   */
+  @Test
+  public void interruptedFileCopyTest() throws Exception {
+    assertFalse("Expected nonempty store", store.isEmpty());
+    store.shutdown();
+    // the files of the store stand in for a partial copy, like the ones a crash in the middle of a copy leaves behind
+    File fileCopyFile = new File(tempDirStr, BlobStore.FILE_COPY_IN_PROGRESS_FILE_NAME);
+    assertTrue("Couldn't create a file copy file", fileCopyFile.createNewFile());
+    File tempFile = new File(tempDirStr, "0_0_log" + BlobStore.FILE_COPY_TEMP_FILE_SUFFIX);
+    assertTrue("Couldn't create a temporary file", tempFile.createNewFile());
+    reloadStore();
+    assertTrue("Expected empty store", store.isEmpty());
+    assertFalse("File copy file should be deleted", fileCopyFile.exists());
+    assertFalse("Temporary file should be deleted", tempFile.exists());
+    // the marker file is gone, so the next restart keeps what is written to the store
+    put(1, PUT_RECORD_SIZE, Utils.Infinite_Time);
+    reloadStore();
+    assertFalse("Expected nonempty store", store.isEmpty());
+  }
+
   /**
    * Test store in decommission process.
    */
@@ -2939,6 +3079,15 @@ public class BlobStoreTest {
     return ids;
   }
 
+  /**
+   * @param id the {@link MockId} of the blob.
+   * @return the {@link MessageInfo} of a PUT of {@link #PUT_RECORD_SIZE} bytes that does not expire.
+   */
+  private MessageInfo newPutInfo(MockId id) {
+    return new MessageInfo(id, PUT_RECORD_SIZE, false, false, false, Utils.Infinite_Time, random.nextLong(),
+        id.getAccountId(), id.getContainerId(), Utils.Infinite_Time, MessageInfo.LIFE_VERSION_FROM_FRONTEND);
+  }
+
   /**
    * Puts one blob with the given {@link MockId} into the {@link BlobStore}.
    * @param id the id of the blob.
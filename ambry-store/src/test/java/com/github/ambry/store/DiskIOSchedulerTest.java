@@ -14,13 +14,16 @@
 
 package com.github.ambry.store;
 
+import com.codahale.metrics.MetricRegistry;
 import com.github.ambry.utils.MockTime;
 import com.github.ambry.utils.Throttler;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 
+import static com.github.ambry.store.DiskIOScheduler.*;
 import static org.junit.Assert.*;
 
 
@@ -78,6 +81,90 @@ public class DiskIOSchedulerTest {
     assertEquals("Unexpected i/o slice availability returned", Long.MAX_VALUE, scheduler.getSlice("jobType", "job", 0));
   }
 
+  /**
+   * Test that the rates of the throttlers are shared by weight and adapted to the disk latency.
+   */
+  @Test
+  public void adaptiveBudgetTest() {
+    String compaction = "compaction";
+    String hardDelete = "hardDelete";
+    String stats = "stats";
+    Map<String, Throttler> throttlers = new HashMap<>();
+    Map<String, DiskIOScheduler.IOClass> ioClasses = new HashMap<>();
+    throttlers.put(compaction, new MockThrottler());
+    ioClasses.put(compaction, new DiskIOScheduler.IOClass(300, 3));
+    throttlers.put(hardDelete, new MockThrottler());
+    ioClasses.put(hardDelete, new DiskIOScheduler.IOClass(100, 1));
+    throttlers.put(stats, new MockThrottler());
+    ioClasses.put(stats, new DiskIOScheduler.IOClass(50, 0));
+    DiskMetrics diskMetrics = new DiskMetrics(new MetricRegistry(), "/mnt0", 60 * 1000);
+    DiskIOScheduler scheduler = new DiskIOScheduler(throttlers, ioClasses, diskMetrics, new MockTime(), 100, 0.1);
+
+    // compaction is the only active job type that shares the budget, so it gets all of it
+    scheduler.getSlice(compaction, "job", 10);
+    scheduler.adjustBudgets();
+    assertEquals("Unexpected budget factor", 1.0, scheduler.getBudgetFactor(), 0.0);
+    assertEquals("Compaction should get the whole shared budget", 400, getDesiredRate(throttlers, compaction), 0.0);
+    assertEquals("Idle hard delete should get its configured rate", 100, getDesiredRate(throttlers, hardDelete), 0.0);
+    assertEquals("Stats should get its configured rate", 50, getDesiredRate(throttlers, stats), 0.0);
+
+    // both active, the budget is shared by weight
+    scheduler.getSlice(compaction, "job", 10);
+    scheduler.getSlice(hardDelete, "job", 10);
+    scheduler.adjustBudgets();
+    assertEquals("Unexpected compaction rate", 300, getDesiredRate(throttlers, compaction), 0.0);
+    assertEquals("Unexpected hard delete rate", 100, getDesiredRate(throttlers, hardDelete), 0.0);
+
+    // disk latency goes above the target, background rates are scaled down
+    diskMetrics.recordApplicationRead(TimeUnit.SECONDS.toNanos(1), 1 << 20);
+    scheduler.getSlice(compaction, "job", 10);
+    scheduler.getSlice(hardDelete, "job", 10);
+    scheduler.adjustBudgets();
+    assertEquals("Unexpected budget factor", BUDGET_DECREASE_FACTOR, scheduler.getBudgetFactor(), 0.0);
+    assertEquals("Unexpected compaction rate", 150, getDesiredRate(throttlers, compaction), 0.0);
+    assertEquals("Unexpected hard delete rate", 50, getDesiredRate(throttlers, hardDelete), 0.0);
+    assertEquals("Unexpected stats rate", 25, getDesiredRate(throttlers, stats), 0.0);
+
+    // the budget does not go below the minimum
+    for (int i = 0; i < 10; i++) {
+      diskMetrics.recordApplicationWrite(TimeUnit.SECONDS.toNanos(1), 1 << 20);
+      scheduler.adjustBudgets();
+    }
+    assertEquals("Unexpected budget factor", 0.1, scheduler.getBudgetFactor(), 0.0);
+    assertEquals("Unexpected stats rate", 5, getDesiredRate(throttlers, stats), 0.001);
+
+    // no application I/O since the last adjustment, the budget recovers
+    scheduler.adjustBudgets();
+    assertEquals("Unexpected budget factor", 0.1 + BUDGET_INCREASE_STEP, scheduler.getBudgetFactor(), 0.001);
+
+    // small reads that take less than a millisecond each are still slow per MB: 4 KB in 0.5 ms is 125 ms per MB
+    for (int i = 0; i < 100; i++) {
+      diskMetrics.recordApplicationRead(TimeUnit.MICROSECONDS.toNanos(500), 4096);
+    }
+    assertEquals("Unexpected read time per MB", 125, diskMetrics.diskReadTimePerMbInMs.getSnapshot().getMin());
+    scheduler.adjustBudgets();
+    assertEquals("Unexpected budget factor", 0.1, scheduler.getBudgetFactor(), 0.001);
+
+    // a few slow small reads do not outweigh a large fast read
+    diskMetrics.recordApplicationRead(TimeUnit.MILLISECONDS.toNanos(2), 4096);
+    diskMetrics.recordApplicationRead(TimeUnit.MILLISECONDS.toNanos(10), 10 << 20);
+    scheduler.adjustBudgets();
+    assertEquals("Unexpected budget factor", 0.1 + BUDGET_INCREASE_STEP, scheduler.getBudgetFactor(), 0.001);
+
+    // a new base rate is scaled by the current budget
+    scheduler.updateThrottlerDesiredRate(stats, 200);
+    assertEquals("Unexpected stats rate", 20, getDesiredRate(throttlers, stats), 0.001);
+  }
+
+  /**
+   * @param throttlers the map of throttlers.
+   * @param jobType the job type of the throttler.
+   * @return the desired rate last set on the {@link MockThrottler} of the job type.
+   */
+  private double getDesiredRate(Map<String, Throttler> throttlers, String jobType) {
+    return ((MockThrottler) throttlers.get(jobType)).desiredRatePerSec;
+  }
+
   /**
    * A mock of {@link Throttler} for testing purposes.
    */
@@ -85,6 +172,7 @@ public class DiskIOSchedulerTest {
     boolean called;
     boolean closed;
     double observedUnits;
+    double desiredRatePerSec;
 
     /**
      * Build a {@link MockThrottler}.
@@ -105,6 +193,11 @@ public class DiskIOSchedulerTest {
       closed = true;
     }
 
+    @Override
+    public void updateDesiredRatePerSecond(double desiredRatePerSec) {
+      this.desiredRatePerSec = desiredRatePerSec;
+    }
+
     /**
      * Reset the testing related variables to their default values.
      */
@@ -16,6 +16,7 @@ package com.github.ambry.store;
 import com.codahale.metrics.MetricRegistry;
 import com.github.ambry.config.StoreConfig;
 import com.github.ambry.config.VerifiableProperties;
+import com.github.ambry.utils.BlockedBloomFilter;
 import com.github.ambry.utils.CrcInputStream;
 import com.github.ambry.utils.CrcOutputStream;
 import com.github.ambry.utils.FilterFactory;
@@ -32,6 +33,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -589,6 +591,88 @@ public class IndexSegmentTest {
     assertEquals("Bloom filter rebuild count mismatch", 1, metrics.bloomRebuildOnLoadFailureCount.getCount());
   }
 
+  /**
+   * Test that a regenerated bloom filter migrates to the blocked bloom filter when it is enabled.
+   * @throws Exception
+   */
+  @Test
+  public void blockedBloomFilterMigrationTest() throws Exception {
+    LogSegmentName logSegmentName = StoreTestUtils.getRandomLogSegmentName(null);
+    Offset startOffset = new Offset(logSegmentName, 0);
+    IndexSegment indexSegment = generateIndexSegment(startOffset, STORE_KEY_FACTORY);
+    List<Long> offsets = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      offsets.add((long) i * 100);
+    }
+    NavigableMap<MockId, NavigableSet<IndexValue>> referenceIndex = new TreeMap<>();
+    addPutEntries(offsets, 100, indexSegment, referenceIndex, false, false);
+    indexSegment.writeIndexSegmentToFile(indexSegment.getEndOffset());
+    indexSegment.seal();
+    File bloomFile = new File(tempDir, generateIndexSegmentFilenamePrefix(startOffset) + BLOOM_FILE_NAME_SUFFIX);
+    assertFalse("Bloom filter should not be blocked", readBloomFile(bloomFile) instanceof BlockedBloomFilter);
+
+    // an existing bloom filter keeps its format until it is rebuilt
+    properties.setProperty(StoreConfig.storeBlockedBloomFilterEnabledName, Boolean.toString(true));
+    StoreConfig blockedConfig = new StoreConfig(new VerifiableProperties(properties));
+    IndexSegment fromDisk =
+        new IndexSegment(indexSegment.getFile(), true, STORE_KEY_FACTORY, blockedConfig, metrics, null, time);
+    assertFalse("Bloom filter should not be blocked", readBloomFile(bloomFile) instanceof BlockedBloomFilter);
+    verifyFind(referenceIndex, fromDisk);
+
+    properties.setProperty("store.index.rebuild.bloom.filter.enabled", Boolean.toString(true));
+    blockedConfig = new StoreConfig(new VerifiableProperties(properties));
+    fromDisk = new IndexSegment(indexSegment.getFile(), true, STORE_KEY_FACTORY, blockedConfig, metrics, null, time);
+    assertTrue("Bloom filter should be blocked", readBloomFile(bloomFile) instanceof BlockedBloomFilter);
+    verifyFind(referenceIndex, fromDisk);
+  }
+
+  /**
+   * Test loading a sealed index segment with its validation deferred, and completing the validation later.
+   * @throws Exception
+   */
+  @Test
+  public void deferredValidationTest() throws Exception {
+    LogSegmentName logSegmentName = StoreTestUtils.getRandomLogSegmentName(null);
+    Offset startOffset = new Offset(logSegmentName, 0);
+    IndexSegment indexSegment = generateIndexSegment(startOffset, STORE_KEY_FACTORY);
+    List<Long> offsets = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      offsets.add((long) i * 100);
+    }
+    NavigableMap<MockId, NavigableSet<IndexValue>> referenceIndex = new TreeMap<>();
+    addPutEntries(offsets, 100, indexSegment, referenceIndex, false, false);
+    indexSegment.writeIndexSegmentToFile(indexSegment.getEndOffset());
+    indexSegment.seal();
+    File bloomFile = new File(tempDir, generateIndexSegmentFilenamePrefix(startOffset) + BLOOM_FILE_NAME_SUFFIX);
+    assertTrue("The bloom file could not be deleted", bloomFile.delete());
+
+    // the missing bloom filter is not rebuilt on load, and the segment can be searched meanwhile
+    IndexSegment fromDisk =
+        new IndexSegment(indexSegment.getFile(), true, STORE_KEY_FACTORY, config, metrics, null, time, true);
+    assertTrue("Validation should be pending", fromDisk.isValidationPending());
+    assertFalse("The bloom file should not have been rebuilt", bloomFile.exists());
+    verifyFind(referenceIndex, fromDisk);
+    fromDisk.completeDeferredValidation();
+    assertFalse("Validation should not be pending", fromDisk.isValidationPending());
+    assertTrue("The bloom file should have been rebuilt", bloomFile.exists());
+    verifyFind(referenceIndex, fromDisk);
+
+    // corrupt the last entry of the segment (avoid the last 8 bytes as they are the crc value)
+    File indexFile = indexSegment.getFile();
+    byte[] bytes = Files.readAllBytes(indexFile.toPath());
+    bytes[bytes.length - 9] ^= 0xff;
+    Files.write(indexFile.toPath(), bytes);
+    fromDisk = new IndexSegment(indexFile, true, STORE_KEY_FACTORY, config, metrics, null, time, true);
+    assertTrue("Validation should be pending", fromDisk.isValidationPending());
+    try {
+      fromDisk.completeDeferredValidation();
+      fail("Should fail as the sealed index file is corrupted");
+    } catch (StoreException e) {
+      assertEquals("Mismatch in error code", StoreErrorCodes.Index_File_Format_Error, e.getErrorCode());
+    }
+    assertTrue("Validation should still be pending", fromDisk.isValidationPending());
+  }
+
   /**
    * Test Iterator and ListIterator of index segment.
    * @throws Exception
@@ -972,6 +1056,17 @@ public class IndexSegmentTest {
     assertNull(indexSegment.getFirstPutEntry());
   }
 
+  /**
+   * @param bloomFile the bloom file of an index segment.
+   * @return the {@link IFilter} persisted in the bloom file.
+   * @throws IOException
+   */
+  private IFilter readBloomFile(File bloomFile) throws IOException {
+    try (DataInputStream stream = new DataInputStream(new FileInputStream(bloomFile))) {
+      return FilterFactory.deserialize(stream, config.storeBloomFilterMaximumPageCount);
+    }
+  }
+
   /**
    * @param state the value for {@link StoreConfig#storeIndexMemStateName}
    */
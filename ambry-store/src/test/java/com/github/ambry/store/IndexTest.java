@@ -224,6 +224,47 @@ public class IndexTest {
     verifyValue(nonExistentId, state.index.findKey(nonExistentId));
   }
 
+  /**
+   * Tests for {@link PersistentIndex#findKey(StoreKey)} and {@link PersistentIndex#findKey(StoreKey, FileSpan, EnumSet)}
+   * when the key locator is enabled. Lookups have to return the same values as without the locator, both for keys that
+   * were loaded from disk and for keys that were added after the index was loaded.
+   * @throws StoreException
+   */
+  @Test
+  public void findKeyWithKeyLocatorTest() throws StoreException {
+    state.properties.setProperty(StoreConfig.storeKeyLocatorEnabledName, "true");
+    state.reloadIndex(true, false);
+    for (MockId id : state.allKeys.keySet()) {
+      verifyValue(id, state.index.findKey(id));
+      doFindKeyWithFileSpanTest(id, EnumSet.allOf(PersistentIndex.IndexEntryType.class));
+    }
+    MockId nonExistentId = state.getUniqueId();
+    verifyValue(nonExistentId, state.index.findKey(nonExistentId));
+
+    // keys added after load should be located as well, including updates that land in a different segment
+    MockId newId = (MockId) state.addPutEntries(1, PUT_RECORD_SIZE, Utils.Infinite_Time).get(0).getKey();
+    verifyValue(newId, state.index.findKey(newId));
+    MockId liveId = state.getIdToDeleteFromIndexSegment(state.referenceIndex.firstKey(), false);
+    if (liveId != null) {
+      state.addDeleteEntry(liveId);
+      verifyValue(liveId, state.index.findKey(liveId));
+    }
+    assertTrue("Key locator should use direct memory", state.index.getDirectMemoryUsage() > 0);
+  }
+
+  /**
+   * Tests for {@link PersistentIndex#findKeys(Collection)}. The batched lookup has to return the same values as
+   * {@link PersistentIndex#findKey(StoreKey)}, with and without the key locator, and no values for non existent keys.
+   * @throws StoreException
+   */
+  @Test
+  public void findKeysTest() throws StoreException {
+    doFindKeysTest();
+    state.properties.setProperty(StoreConfig.storeKeyLocatorEnabledName, "true");
+    state.reloadIndex(true, false);
+    doFindKeysTest();
+  }
+
   /**
    * Tests for {@link PersistentIndex#findKey(StoreKey, FileSpan, EnumSet)}.
    * Cases:
@@ -357,6 +398,36 @@ public class IndexTest {
     state.reloadIndex(true, false);
   }
 
+  /**
+   * Looks up all the keys and some non existent keys with {@link PersistentIndex#findKeys(Collection)} and verifies
+   * the values against {@link PersistentIndex#findKey(StoreKey)}.
+   * @throws StoreException
+   */
+  private void doFindKeysTest() throws StoreException {
+    List<StoreKey> idsToProvide = new ArrayList<>(state.allKeys.keySet());
+    Set<StoreKey> nonExistentIds = new HashSet<>();
+    for (int i = 0; i < 10; i++) {
+      nonExistentIds.add(state.getUniqueId());
+    }
+    idsToProvide.addAll(nonExistentIds);
+    Collections.shuffle(idsToProvide);
+    Map<StoreKey, IndexValue> values = state.index.findKeys(idsToProvide);
+    assertEquals("Unexpected number of values", state.allKeys.size(), values.size());
+    for (StoreKey id : idsToProvide) {
+      IndexValue expected = state.index.findKey(id);
+      IndexValue value = values.get(id);
+      if (expected == null) {
+        assertNull("There should be no value for " + id, value);
+      } else {
+        assertNotNull("There should be a value for " + id, value);
+        assertEquals("Offset mismatch for " + id, expected.getOffset(), value.getOffset());
+        assertEquals("Flags mismatch for " + id, expected.getFlags(), value.getFlags());
+        assertEquals("Expiration mismatch for " + id, expected.getExpiresAtMs(), value.getExpiresAtMs());
+        assertEquals("Life version mismatch for " + id, expected.getLifeVersion(), value.getLifeVersion());
+      }
+    }
+  }
+
   /**
    * Tests {@link PersistentIndex#findMissingKeys(List)}.
    * @throws StoreException
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.store;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.ambry.utils.TestUtils;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests for {@link StoreKeyLocator}.
+ */
+public class StoreKeyLocatorTest {
+  private final LogSegmentName logSegmentName = LogSegmentName.generateFirstSegmentName(true);
+  private final StoreMetrics metrics = new StoreMetrics(new MetricRegistry());
+
+  /**
+   * Tests adding keys, growing the table and looking the keys up again.
+   */
+  @Test
+  public void addAndLocateTest() {
+    StoreKeyLocator locator = new StoreKeyLocator("", 16, metrics);
+    Offset firstSegment = new Offset(logSegmentName, 0);
+    Offset secondSegment = new Offset(logSegmentName, 1000);
+    List<MockId> ids = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      MockId id = new MockId(TestUtils.getRandomString(10));
+      ids.add(id);
+      locator.add(id, i % 2 == 0 ? firstSegment : secondSegment);
+    }
+    // adding the same key to the same segment again should not use another slot
+    int usedSlots = locator.getUsedSlots();
+    locator.add(ids.get(0), firstSegment);
+    assertEquals("Slots used should not change", usedSlots, locator.getUsedSlots());
+    // a key updated in another segment is located in both
+    locator.add(ids.get(0), secondSegment);
+    assertEquals("Key should be located in both segments", new HashSet<>(Arrays.asList(firstSegment, secondSegment)),
+        new HashSet<>(locator.getCandidateSegments(ids.get(0))));
+    for (int i = 1; i < ids.size(); i++) {
+      Offset expected = i % 2 == 0 ? firstSegment : secondSegment;
+      assertTrue("Segment of key not located", locator.getCandidateSegments(ids.get(i)).contains(expected));
+    }
+    assertTrue("Table should have grown", locator.getDirectMemoryUsage() > 16 * StoreKeyLocator.SLOT_SIZE);
+  }
+
+  /**
+   * Tests that removed segments are only purged on the next removal.
+   */
+  @Test
+  public void removeSegmentsTest() {
+    StoreKeyLocator locator = new StoreKeyLocator("", StoreKeyLocator.DEFAULT_INITIAL_CAPACITY, metrics);
+    Offset oldSegment = new Offset(logSegmentName, 0);
+    Offset compactedSegment = new Offset(logSegmentName.getNextGenerationName(), 0);
+    MockId id = new MockId(TestUtils.getRandomString(10));
+    locator.add(id, oldSegment);
+    locator.add(id, compactedSegment);
+
+    locator.removeSegments(Collections.singleton(oldSegment));
+    assertTrue("Retired segment should still be located until purged",
+        locator.getCandidateSegments(id).contains(oldSegment));
+
+    locator.removeSegments(Collections.emptySet());
+    assertEquals("Only the compacted segment should be located", Collections.singletonList(compactedSegment),
+        locator.getCandidateSegments(id));
+    assertEquals("Retired slot should have been purged", 1, locator.getUsedSlots());
+    assertTrue("Unknown key should not be located",
+        locator.getCandidateSegments(new MockId(TestUtils.getRandomString(10))).isEmpty());
+  }
+
+  /**
+   * Tests that a locator whose table cannot grow any more disables itself instead of failing the adds, and that its
+   * lookups then ask for all the segments to be searched.
+   */
+  @Test
+  public void exhaustedLocatorTest() {
+    StoreKeyLocator locator = new StoreKeyLocator("", 16, 64, metrics);
+    Offset segment = new Offset(logSegmentName, 0);
+    List<MockId> ids = new ArrayList<>();
+    for (int i = 0; i < 48; i++) {
+      MockId id = new MockId(TestUtils.getRandomString(10));
+      ids.add(id);
+      locator.add(id, segment);
+    }
+    assertFalse("Locator should not be disabled yet", locator.isDisabled());
+    assertEquals("Key should be located", Collections.singletonList(segment), locator.getCandidateSegments(ids.get(0)));
+
+    // the table is full, the next adds disable the locator instead of failing
+    for (int i = 0; i < 100; i++) {
+      locator.add(new MockId(TestUtils.getRandomString(10)), segment);
+    }
+    assertTrue("Locator should be disabled", locator.isDisabled());
+    assertEquals("Disabling should have been counted once", 1, metrics.keyLocatorDisabledCount.getCount());
+    assertNull("Disabled locator should not locate keys", locator.getCandidateSegments(ids.get(0)));
+    assertEquals("Disabled locator should not use any slots", 0, locator.getUsedSlots());
+    assertEquals("Disabled locator should free its table", 0, locator.getDirectMemoryUsage());
+    locator.removeSegments(Collections.singleton(segment));
+    locator.add(ids.get(0), segment);
+    assertNull("Disabled locator should not locate keys", locator.getCandidateSegments(ids.get(0)));
+  }
+}
@@ -41,6 +41,7 @@ import com.github.ambry.config.ClusterMapConfig;
 import com.github.ambry.config.ConnectionPoolConfig;
 import com.github.ambry.config.Http2ClientConfig;
 import com.github.ambry.config.MysqlRepairRequestsDbConfig;
+import com.github.ambry.config.ReplicationConfig;
 import com.github.ambry.config.RouterConfig;
 import com.github.ambry.config.SSLConfig;
 import com.github.ambry.config.VerifiableProperties;
@@ -72,6 +73,9 @@ import com.github.ambry.protocol.BlobStoreControlAction;
 import com.github.ambry.protocol.BlobStoreControlAdminRequest;
 import com.github.ambry.protocol.DeleteRequest;
 import com.github.ambry.protocol.DeleteResponse;
+import com.github.ambry.protocol.FileCopyMetadataRequest;
+import com.github.ambry.protocol.FileCopyMetadataResponse;
+import com.github.ambry.protocol.FileInfo;
 import com.github.ambry.protocol.ForceDeleteAdminRequest;
 import com.github.ambry.protocol.GetOption;
 import com.github.ambry.protocol.GetRequest;
@@ -93,7 +97,11 @@ import com.github.ambry.repair.MysqlRepairRequestsDb;
 import com.github.ambry.repair.MysqlRepairRequestsDbFactory;
 import com.github.ambry.repair.RepairRequestRecord;
 import com.github.ambry.repair.RepairRequestsDb;
+import com.github.ambry.replication.FileCopyBootstrapper;
+import com.github.ambry.replication.FindToken;
 import com.github.ambry.replication.FindTokenFactory;
+import com.github.ambry.replication.FindTokenHelper;
+import com.github.ambry.replication.FindTokenType;
 import com.github.ambry.router.GetBlobOptionsBuilder;
 import com.github.ambry.router.GetBlobResult;
 import com.github.ambry.router.NonBlockingRouterFactory;
@@ -125,6 +133,8 @@ import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -136,6 +146,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -1446,6 +1457,77 @@ public final class ServerTestUtil {
     channel3.disconnect();
   }
 
+  /**
+   * Tests that replication between datacenters fetches compressed get responses, and that the blobs of all the nodes
+   * are the blobs that were put, whether they are fetched with or without compression. The servers of the cluster must
+   * compress get responses and ask for compression when they replicate from another datacenter.
+   * @param cluster the {@link MockCluster} with nodes in DC1, DC2 and DC3.
+   * @param notificationSystem the {@link MockNotificationSystem} of the cluster.
+   * @param compressionAlgorithm the compression algorithm that the get requests accept.
+   * @throws Exception
+   */
+  static void interColoReplicationWithCompressionTest(MockCluster cluster, MockNotificationSystem notificationSystem,
+      String compressionAlgorithm) throws Exception {
+    MockClusterMap clusterMap = cluster.getClusterMap();
+    BlobIdFactory blobIdFactory = new BlobIdFactory(clusterMap);
+    byte[] usermetadata = new byte[100];
+    TestUtils.RANDOM.nextBytes(usermetadata);
+    // a blob that compresses well, so that its messages are sent compressed
+    byte[] data = new byte[4000];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (i % 16);
+    }
+    short accountId = Utils.getRandomShort(TestUtils.RANDOM);
+    short containerId = Utils.getRandomShort(TestUtils.RANDOM);
+    BlobProperties properties =
+        new BlobProperties(data.length, "serviceid1", accountId, containerId, false, cluster.time.milliseconds());
+    List<ConnectedChannel> channels = new ArrayList<>();
+    for (DataNodeId dataNode : cluster.getOneDataNodeFromEachDatacenter(Utils.splitString("DC1,DC2,DC3", ","))) {
+      ConnectedChannel channel =
+          getBlockingChannelBasedOnPortType(new Port(dataNode.getPort(), PortType.PLAINTEXT), "localhost", null, null);
+      channel.connect();
+      channels.add(channel);
+    }
+
+    // put the blobs in DC1 and wait until they are replicated to all the nodes
+    CountDownLatch latch = new CountDownLatch(1);
+    DirectSender sender = new DirectSender(cluster, channels.get(0), 10, data, usermetadata, properties, null, latch);
+    sender.run();
+    assertTrue("Did not put all blobs in 1 minute", latch.await(1, TimeUnit.MINUTES));
+    List<BlobId> blobIds = sender.getBlobIds();
+    for (BlobId blobId : blobIds) {
+      notificationSystem.awaitBlobCreations(blobId.getID());
+    }
+    long compressedMessageCount = 0;
+    for (AmbryServer server : cluster.getServers()) {
+      compressedMessageCount += server.getServerMetrics().getResponseCompressedMessageCount.getCount();
+    }
+    assertTrue("Replication between datacenters should fetch compressed messages", compressedMessageCount > 0);
+
+    // verify the blobs of all the nodes, fetched with and without compression
+    for (ConnectedChannel channel : channels) {
+      for (BlobId blobId : blobIds) {
+        for (String algorithm : new String[]{null, compressionAlgorithm}) {
+          List<PartitionRequestInfo> partitionRequestInfoList = Collections.singletonList(
+              new PartitionRequestInfo(blobId.getPartition(), Collections.singletonList(blobId)));
+          GetRequest getRequest = new GetRequest(1, "clientid2", MessageFormatFlags.All, partitionRequestInfoList,
+              GetOption.None, algorithm);
+          DataInputStream stream = channel.sendAndReceive(getRequest).getInputStream();
+          GetResponse resp = GetResponse.readFrom(stream, clusterMap);
+          assertEquals("Unexpected compression of the response", algorithm != null, resp.isCompressed());
+          BlobAll blobAll = MessageFormatRecord.deserializeBlobAll(resp.getInputStream(), blobIdFactory);
+          assertEquals("Blob size mismatch", data.length, blobAll.getBlobInfo().getBlobProperties().getBlobSize());
+          assertArrayEquals("User metadata mismatch", usermetadata, blobAll.getBlobInfo().getUserMetadata());
+          assertArrayEquals("Blob mismatch", data, getBlobData(blobAll.getBlobData()));
+          releaseNettyBufUnderneathStream(stream);
+        }
+      }
+    }
+    for (ConnectedChannel channel : channels) {
+      channel.disconnect();
+    }
+  }
+
   static void endToEndReplicationWithMultiNodeMultiPartitionMultiDCTest(String sourceDatacenter,
       String sslEnabledDatacenters, PortType portType, MockCluster cluster, MockNotificationSystem notificationSystem,
       Properties routerProps) throws Exception {
@@ -2510,6 +2592,290 @@ public final class ServerTestUtil {
     }
   }
 
+  /**
+   * Test that a replica can be bootstrapped by copying the sealed files of a peer replica.
+   * 1. the copied files are identical to the files of the peer.
+   * 2. an interrupted copy resumes from the temporary file and files that are not listed anymore are deleted.
+   * 3. files left by an earlier bootstrap that did not complete are not trusted and are copied again.
+   */
+  static void fileCopyBootstrapTest(Port targetPort, MockCluster cluster, SSLConfig clientSSLConfig,
+      SSLSocketFactory clientSSLSocketFactory) throws IOException {
+    File bootstrapDir = null;
+    try {
+      MockClusterMap clusterMap = cluster.getClusterMap();
+      PartitionId partitionId = clusterMap.getWritablePartitionIds(MockClusterMap.DEFAULT_PARTITION_CLASS).get(0);
+      MockDataNodeId dataNode = (MockDataNodeId) clusterMap.getDataNodeId("localhost", targetPort.getPort());
+      ReplicaId replica = partitionId.getReplicaIds()
+          .stream()
+          .filter(replicaId -> replicaId.getDataNodeId().equals(dataNode))
+          .findFirst()
+          .orElseThrow(() -> new IllegalStateException("No replica of " + partitionId + " on " + dataNode));
+      ConnectedChannel channel =
+          getBlockingChannelBasedOnPortType(targetPort, "localhost", clientSSLSocketFactory, clientSSLConfig);
+      channel.connect();
+
+      // put enough blobs to fill the first log segment, so that its files are sealed and can be copied.
+      short accountId = Utils.getRandomShort(TestUtils.RANDOM);
+      short containerId = Utils.getRandomShort(TestUtils.RANDOM);
+      int blobSize = 1024 * 1024;
+      long segmentSize = MockReplicaId.MOCK_REPLICA_CAPACITY / 10;
+      for (int i = 0; i <= segmentSize / blobSize; i++) {
+        byte[] data = TestUtils.getRandomBytes(blobSize);
+        BlobProperties properties =
+            new BlobProperties(blobSize, "serviceid1", accountId, containerId, false, cluster.time.milliseconds());
+        BlobId blobId = new BlobId(CommonTestUtils.getCurrentBlobIdVersion(), BlobId.BlobIdType.NATIVE,
+            clusterMap.getLocalDatacenterId(), accountId, containerId, partitionId, false,
+            BlobId.BlobDataType.DATACHUNK);
+        PutRequest putRequest = new PutRequest(1, "client1", blobId, properties, ByteBuffer.wrap(new byte[100]),
+            Unpooled.wrappedBuffer(data), blobSize, BlobType.DataBlob, null);
+        DataInputStream stream = channel.sendAndReceive(putRequest).getInputStream();
+        PutResponse response = PutResponse.readFrom(stream);
+        releaseNettyBufUnderneathStream(stream);
+        assertEquals(ServerErrorCode.No_Error, response.getError());
+      }
+
+      Properties properties = new Properties();
+      properties.setProperty(ReplicationConfig.REPLICATION_FILE_COPY_CHUNK_SIZE_IN_BYTES, Integer.toString(blobSize));
+      ReplicationConfig replicationConfig = new ReplicationConfig(new VerifiableProperties(properties));
+      FindTokenHelper findTokenHelper = new FindTokenHelper(new BlobIdFactory(clusterMap), replicationConfig);
+      // the index segments are sealed once the persistor runs.
+      long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+      List<FileInfo> fileInfos;
+      while (true) {
+        DataInputStream stream =
+            channel.sendAndReceive(new FileCopyMetadataRequest(1, "client1", partitionId)).getInputStream();
+        FileCopyMetadataResponse response = FileCopyMetadataResponse.readFrom(stream, findTokenHelper);
+        releaseNettyBufUnderneathStream(stream);
+        assertEquals(ServerErrorCode.No_Error, response.getError());
+        fileInfos = response.getFileInfos();
+        if (!fileInfos.isEmpty()) {
+          break;
+        }
+        if (System.currentTimeMillis() > deadline) {
+          throw new TimeoutException("No sealed files of " + partitionId + " at " + channel.getRemoteHost());
+        }
+        Thread.sleep(1000);
+      }
+
+      bootstrapDir = Files.createTempDirectory("fileCopyBootstrapTest").toFile();
+      FileCopyBootstrapper bootstrapper = new FileCopyBootstrapper(replicationConfig, findTokenHelper, "client1");
+      FindToken token = bootstrapper.bootstrap(channel, partitionId, bootstrapDir);
+      assertEquals("Unexpected token type", FindTokenType.IndexBased, token.getType());
+      assertFalse("Bootstrap should have completed", FileCopyBootstrapper.isBootstrapInProgress(bootstrapDir));
+      verifyCopiedFiles(fileInfos, replica, bootstrapDir);
+
+      // resume an interrupted copy of the log file, which is the first file listed.
+      File logFile = new File(bootstrapDir, fileInfos.get(0).getFileName());
+      File tempFile = new File(bootstrapDir, logFile.getName() + ".filecopy");
+      try (FileChannel fileChannel = Utils.openChannel(logFile, true)) {
+        fileChannel.truncate(blobSize + 1);
+      }
+      Files.move(logFile.toPath(), tempFile.toPath());
+      File staleFile = new File(bootstrapDir, "0_0_index_stale_index");
+      assertTrue("Could not create " + staleFile, staleFile.createNewFile());
+      assertTrue("Could not create the marker", new File(bootstrapDir, "file_copy_in_progress").createNewFile());
+      bootstrapper.bootstrap(channel, partitionId, bootstrapDir);
+      assertFalse("Temporary file should have been renamed", tempFile.exists());
+      assertFalse("File that is not listed should have been deleted", staleFile.exists());
+      verifyCopiedFiles(fileInfos, replica, bootstrapDir);
+
+      // without the marker, a file of the same size is not trusted.
+      try (FileChannel fileChannel = Utils.openChannel(logFile, true)) {
+        fileChannel.write(ByteBuffer.wrap(TestUtils.getRandomBytes(100)), 0);
+      }
+      bootstrapper.bootstrap(channel, partitionId, bootstrapDir);
+      verifyCopiedFiles(fileInfos, replica, bootstrapDir);
+      channel.disconnect();
+    } catch (Exception e) {
+      e.printStackTrace();
+      fail();
+    } finally {
+      if (bootstrapDir != null) {
+        Utils.deleteFileOrDirectory(bootstrapDir);
+      }
+    }
+  }
+
+  /**
+   * Verifies that the listed files are copied into {@code bootstrapDir} and are identical to the files of the replica.
+   * @param fileInfos the {@link FileInfo}s listed by the peer.
+   * @param replica the {@link ReplicaId} of the peer.
+   * @param bootstrapDir the directory the files are copied to.
+   */
+  private static void verifyCopiedFiles(List<FileInfo> fileInfos, ReplicaId replica, File bootstrapDir)
+      throws IOException {
+    Set<String> expectedFileNames = new HashSet<>();
+    for (FileInfo fileInfo : fileInfos) {
+      expectedFileNames.add(fileInfo.getFileName());
+      byte[] expected = Files.readAllBytes(new File(replica.getReplicaPath(), fileInfo.getFileName()).toPath());
+      byte[] actual = Files.readAllBytes(new File(bootstrapDir, fileInfo.getFileName()).toPath());
+      assertEquals("Unexpected size of " + fileInfo.getFileName(), fileInfo.getFileSizeInBytes(), actual.length);
+      assertArrayEquals("Content mismatch of " + fileInfo.getFileName(), expected, actual);
+    }
+    String[] fileNames = bootstrapDir.list();
+    assertNotNull(fileNames);
+    assertEquals("Unexpected files in " + bootstrapDir, expectedFileNames, new HashSet<>(Arrays.asList(fileNames)));
+  }
+
+  /**
+   * Tests that a replica added to a node with file copy bootstrap enabled is bootstrapped from the sealed files of a
+   * peer, serves the copied blobs once it is added and then replicates blobs put after the copy from the token handed
+   * over by the copy.
+   * @param sourcePort the {@link Port} of the node the blobs are put to.
+   * @param cluster the {@link MockCluster} whose servers have file copy bootstrap enabled.
+   * @param clientSSLConfig the {@link SSLConfig} of the client.
+   * @param clientSSLSocketFactory the {@link SSLSocketFactory} of the client.
+   */
+  static void fileCopyBootstrapReplicaAdditionTest(Port sourcePort, MockCluster cluster, SSLConfig clientSSLConfig,
+      SSLSocketFactory clientSSLSocketFactory) {
+    try {
+      MockClusterMap clusterMap = cluster.getClusterMap();
+      PartitionId partitionId = clusterMap.getWritablePartitionIds(MockClusterMap.DEFAULT_PARTITION_CLASS).get(0);
+      MockDataNodeId sourceNode = (MockDataNodeId) clusterMap.getDataNodeId("localhost", sourcePort.getPort());
+      ReplicaId targetReplica = partitionId.getReplicaIds()
+          .stream()
+          .filter(replicaId -> !replicaId.getDataNodeId().equals(sourceNode) && replicaId.getDataNodeId()
+              .getDatacenterName()
+              .equals(sourceNode.getDatacenterName()))
+          .findFirst()
+          .orElseThrow(() -> new IllegalStateException("No other replica of " + partitionId + " in the local dc"));
+      DataNodeId targetNode = targetReplica.getDataNodeId();
+      ConnectedChannel sourceChannel =
+          getBlockingChannelBasedOnPortType(sourcePort, "localhost", clientSSLSocketFactory, clientSSLConfig);
+      sourceChannel.connect();
+      ConnectedChannel targetChannel =
+          getBlockingChannelBasedOnPortType(new Port(targetNode.getPort(), PortType.PLAINTEXT), "localhost",
+              clientSSLSocketFactory, clientSSLConfig);
+      targetChannel.connect();
+
+      // put enough blobs to fill the first log segment, so that its files are sealed and can be copied.
+      short accountId = Utils.getRandomShort(TestUtils.RANDOM);
+      short containerId = Utils.getRandomShort(TestUtils.RANDOM);
+      int blobSize = 1024 * 1024;
+      long segmentSize = MockReplicaId.MOCK_REPLICA_CAPACITY / 10;
+      Map<BlobId, byte[]> blobs = new LinkedHashMap<>();
+      for (int i = 0; i <= segmentSize / blobSize; i++) {
+        byte[] data = TestUtils.getRandomBytes(blobSize);
+        blobs.put(putBlob(sourceChannel, clusterMap, partitionId, accountId, containerId, data, cluster.time), data);
+      }
+      ReplicationConfig replicationConfig = new ReplicationConfig(new VerifiableProperties(new Properties()));
+      FindTokenHelper findTokenHelper = new FindTokenHelper(new BlobIdFactory(clusterMap), replicationConfig);
+      // the peers have to have sealed files for the new replica to copy.
+      for (ReplicaId peer : targetReplica.getPeerReplicaIds()) {
+        if (!peer.getDataNodeId().getDatacenterName().equals(sourceNode.getDatacenterName())) {
+          continue;
+        }
+        ConnectedChannel peerChannel =
+            getBlockingChannelBasedOnPortType(new Port(peer.getDataNodeId().getPort(), PortType.PLAINTEXT),
+                "localhost", clientSSLSocketFactory, clientSSLConfig);
+        peerChannel.connect();
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (true) {
+          DataInputStream stream =
+              peerChannel.sendAndReceive(new FileCopyMetadataRequest(1, "client1", partitionId)).getInputStream();
+          FileCopyMetadataResponse response = FileCopyMetadataResponse.readFrom(stream, findTokenHelper);
+          releaseNettyBufUnderneathStream(stream);
+          if (response.getError() == ServerErrorCode.No_Error && !response.getFileInfos().isEmpty()) {
+            break;
+          }
+          if (System.currentTimeMillis() > deadline) {
+            throw new TimeoutException("No sealed files of " + partitionId + " at " + peer.getDataNodeId());
+          }
+          Thread.sleep(1000);
+        }
+        peerChannel.disconnect();
+      }
+
+      // remove the replica from the target node and add it back, which bootstraps it from the files of a peer.
+      controlBlobStore(targetChannel, partitionId, false);
+      assertEquals("Remove store should succeed", ServerErrorCode.No_Error,
+          sendBlobStoreControlRequest(targetChannel, partitionId, BlobStoreControlAction.RemoveStore));
+      assertEquals("Add store should succeed", ServerErrorCode.No_Error,
+          sendBlobStoreControlRequest(targetChannel, partitionId, BlobStoreControlAction.AddStore));
+      assertFalse("Bootstrap should have completed",
+          FileCopyBootstrapper.isBootstrapInProgress(new File(targetReplica.getReplicaPath())));
+      controlBlobStore(targetChannel, partitionId, true);
+
+      // the first blob is in the copied log segment, so it is served without waiting for replication.
+      Map.Entry<BlobId, byte[]> firstBlob = blobs.entrySet().iterator().next();
+      checkBlobContent(clusterMap, firstBlob.getKey(), targetChannel, firstBlob.getValue(), null);
+      for (Map.Entry<BlobId, byte[]> blob : blobs.entrySet()) {
+        waitForBlobContent(clusterMap, blob.getKey(), targetChannel, blob.getValue());
+      }
+
+      // a blob put after the copy is replicated from the token handed over by the copy.
+      byte[] data = TestUtils.getRandomBytes(blobSize);
+      BlobId blobId = putBlob(sourceChannel, clusterMap, partitionId, accountId, containerId, data, cluster.time);
+      waitForBlobContent(clusterMap, blobId, targetChannel, data);
+      sourceChannel.disconnect();
+      targetChannel.disconnect();
+    } catch (Exception e) {
+      e.printStackTrace();
+      fail();
+    }
+  }
+
+  /**
+   * Puts a data blob with the given content to the given partition.
+   * @return the {@link BlobId} of the blob.
+   */
+  private static BlobId putBlob(ConnectedChannel channel, MockClusterMap clusterMap, PartitionId partitionId,
+      short accountId, short containerId, byte[] data, Time time) throws IOException {
+    BlobProperties properties =
+        new BlobProperties(data.length, "serviceid1", accountId, containerId, false, time.milliseconds());
+    BlobId blobId = new BlobId(CommonTestUtils.getCurrentBlobIdVersion(), BlobId.BlobIdType.NATIVE,
+        clusterMap.getLocalDatacenterId(), accountId, containerId, partitionId, false, BlobId.BlobDataType.DATACHUNK);
+    PutRequest putRequest = new PutRequest(1, "client1", blobId, properties, ByteBuffer.wrap(new byte[100]),
+        Unpooled.wrappedBuffer(data), data.length, BlobType.DataBlob, null);
+    DataInputStream stream = channel.sendAndReceive(putRequest).getInputStream();
+    PutResponse response = PutResponse.readFrom(stream);
+    releaseNettyBufUnderneathStream(stream);
+    assertEquals(ServerErrorCode.No_Error, response.getError());
+    return blobId;
+  }
+
+  /**
+   * Waits until the blob is served by the node at the other end of {@code channel} and verifies its content.
+   */
+  private static void waitForBlobContent(MockClusterMap clusterMap, BlobId blobId, ConnectedChannel channel,
+      byte[] data) throws Exception {
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+    while (true) {
+      GetRequest getRequest = new GetRequest(1, "client1", MessageFormatFlags.Blob,
+          getPartitionRequestInfoListFromBlobId(blobId), GetOption.None);
+      DataInputStream stream = channel.sendAndReceive(getRequest).getInputStream();
+      GetResponse response = GetResponse.readFrom(stream, clusterMap);
+      ServerErrorCode error = response.getPartitionResponseInfoList().isEmpty() ? response.getError()
+          : response.getPartitionResponseInfoList().get(0).getErrorCode();
+      if (response.getError() == ServerErrorCode.No_Error && error == ServerErrorCode.No_Error) {
+        BlobData blobData = MessageFormatRecord.deserializeBlob(response.getInputStream());
+        assertArrayEquals("Content mismatch of " + blobId, data, getBlobData(blobData));
+        releaseNettyBufUnderneathStream(stream);
+        return;
+      }
+      releaseNettyBufUnderneathStream(stream);
+      if (System.currentTimeMillis() > deadline) {
+        throw new TimeoutException(blobId + " is not served by " + channel.getRemoteHost() + ": " + error);
+      }
+      Thread.sleep(500);
+    }
+  }
+
+  /**
+   * Sends a {@link BlobStoreControlAdminRequest} with the given action.
+   * @return the {@link ServerErrorCode} of the response.
+   */
+  private static ServerErrorCode sendBlobStoreControlRequest(ConnectedChannel channel, PartitionId partitionId,
+      BlobStoreControlAction action) throws IOException {
+    AdminRequest adminRequest =
+        new AdminRequest(AdminRequestOrResponseType.BlobStoreControl, partitionId, 1, "clientid");
+    BlobStoreControlAdminRequest controlRequest = new BlobStoreControlAdminRequest((short) 0, action, adminRequest);
+    DataInputStream stream = channel.sendAndReceive(controlRequest).getInputStream();
+    AdminResponse adminResponse = AdminResponse.readFrom(stream);
+    releaseNettyBufUnderneathStream(stream);
+    return adminResponse.getError();
+  }
+
   /**
    * Test ReplicateBlob under different conditions.
    * 1. test the data correctness of the on-demand replication on the target DataNode.
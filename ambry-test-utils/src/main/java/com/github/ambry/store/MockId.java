@@ -98,6 +98,11 @@ public class MockId extends StoreKey {
     return id.compareTo(otherId.id);
   }
 
+  @Override
+  public int compareToSerialized(ByteBuffer buffer, int position) {
+    return compareToSerializedString(id.getBytes(), buffer, position + Id_Size_In_Bytes, buffer.getShort(position));
+  }
+
   @Override
   public int hashCode() {
     return Utils.hashcode(new Object[]{id});
@@ -78,6 +78,7 @@ import org.json.JSONArray;
  *  >      --parallelism 10 // number of connections to create
  *  >      --target_row 10  // number of millions of rows to create before performance test
  *  >      --include_list false // true of false to include list operations in the performance test
+ *  >      --write_batch_size 20 // optional, maximum number of puts and ttl updates to write in one transaction
  *
  *  Or you can provide a property file to include all the arguments in the above command, for example:
  *  > cat named_blob.props
@@ -89,6 +90,7 @@ import org.json.JSONArray;
  *  parallelism=10
  *  target_rows=10
  *  include_list=false
+ *  write_batch_size=20
  *  > java -cp "*" com.github.ambry.tools.perf.NamedBlobMysqlDatabasePerf --props named_blob.props
  */
 public class NamedBlobMysqlDatabasePerf {
@@ -116,6 +118,7 @@ public class NamedBlobMysqlDatabasePerf {
   public static final String PARALLELISM = "parallelism";
   public static final String TARGET_ROWS = "target_rows";
   public static final String INCLUDE_LIST = "include_list";
+  public static final String WRITE_BATCH_SIZE = "write_batch_size";
 
   public static void main(String[] args) throws Exception {
     OptionParser parser = new OptionParser();
@@ -155,6 +158,12 @@ public class NamedBlobMysqlDatabasePerf {
         .describedAs("target_rows")
         .ofType(Integer.class);
 
+    ArgumentAcceptingOptionSpec<Integer> writeBatchSizeOpt = parser.accepts(WRITE_BATCH_SIZE,
+            "Maximum number of puts and ttl updates to coalesce into one transaction. 1 writes each of them on its own")
+        .withRequiredArg()
+        .describedAs("write_batch_size")
+        .ofType(Integer.class);
+
     OptionSpec<Void> includeListTestOpt = parser.accepts(INCLUDE_LIST, "Including list operation in the performance tests.");
 
     OptionSet options = parser.parse(args);
@@ -185,6 +194,9 @@ public class NamedBlobMysqlDatabasePerf {
     if (options.has(targetMRowsOpt)) {
       props.setProperty(TARGET_ROWS, String.valueOf(options.valueOf(targetMRowsOpt)));
     }
+    if (options.has(writeBatchSizeOpt)) {
+      props.setProperty(WRITE_BATCH_SIZE, String.valueOf(options.valueOf(writeBatchSizeOpt)));
+    }
     if (options.has(includeListTestOpt)) {
       props.setProperty(INCLUDE_LIST, "true");
     }
@@ -218,6 +230,7 @@ public class NamedBlobMysqlDatabasePerf {
     newProperties.setProperty(MySqlNamedBlobDbConfig.DB_INFO, jsonArray.toString());
     newProperties.setProperty(MySqlNamedBlobDbConfig.DB_RELY_ON_NEW_TABLE, "true");
     newProperties.setProperty(MySqlNamedBlobDbConfig.LOCAL_POOL_SIZE, String.valueOf(2 * Integer.valueOf(props.getProperty(PARALLELISM))));
+    newProperties.setProperty(MySqlNamedBlobDbConfig.WRITE_BATCH_MAX_SIZE, props.getProperty(WRITE_BATCH_SIZE, "1"));
     newProperties.setProperty(ClusterMapConfig.CLUSTERMAP_DATACENTER_NAME, props.getProperty(DB_DATACENTER));
 
     int numThreads = Integer.valueOf(props.getProperty(PARALLELISM));
@@ -349,6 +362,7 @@ public class NamedBlobMysqlDatabasePerf {
     System.out.println("All the RowFillWorkers are finished");
     stop.set(true);
     printHistogramMetric(registry, "com.github.ambry.named.MySqlNamedBlobDb.NamedBlobPutTimeInMs");
+    printHistogramMetric(registry, "com.github.ambry.named.MySqlNamedBlobDb.NamedBlobWriteBatchSize");
   }
 
   /**
@@ -473,6 +487,7 @@ public class NamedBlobMysqlDatabasePerf {
     printHistogramMetric(registry, "com.github.ambry.named.MySqlNamedBlobDb.NamedTtlupdateTimeInMs");
     printHistogramMetric(registry, "com.github.ambry.named.MySqlNamedBlobDb.NamedBlobListTimeInMs");
     printHistogramMetric(registry, "com.github.ambry.named.MySqlNamedBlobDb.NamedBlobDeleteTimeInMs");
+    printHistogramMetric(registry, "com.github.ambry.named.MySqlNamedBlobDb.NamedBlobWriteBatchSize");
   }
 
   /**
@@ -508,17 +523,21 @@ public class NamedBlobMysqlDatabasePerf {
     public void run() {
       ThreadLocalRandom random = ThreadLocalRandom.current();
       try {
+        long startTime = System.currentTimeMillis();
         for (long l = 0; l < numberOfPuts; l++) {
           NamedBlobRecord record = generateRandomNamedBlobRecord(random, accountService, allAccounts);
-          namedBlobDb.put(record, NamedBlobState.IN_PROGRESS, true).get();
-          allRecords.add(record);
+          // keep the inserted record, the ttl update needs its version.
+          allRecords.add(namedBlobDb.put(record, NamedBlobState.IN_PROGRESS, true).get().getInsertedRecord());
         }
-        System.out.println("PerformanceTestWorker " + id + " finishes writing " + numberOfPuts + " records");
+        System.out.println("PerformanceTestWorker " + id + " finishes writing " + numberOfPuts + " records in "
+            + (System.currentTimeMillis() - startTime) + "ms");
 
+        startTime = System.currentTimeMillis();
         for (NamedBlobRecord record : allRecords) {
           namedBlobDb.updateBlobTtlAndStateToReady(record).get();
         }
-        System.out.println("PerformanceTestWorker " + id + " finishes updating " + numberOfPuts + " records");
+        System.out.println("PerformanceTestWorker " + id + " finishes updating " + numberOfPuts + " records in "
+            + (System.currentTimeMillis() - startTime) + "ms");
 
         for (NamedBlobRecord record : allRecords) {
           namedBlobDb.get(record.getAccountName(), record.getContainerName(), record.getBlobName()).get();
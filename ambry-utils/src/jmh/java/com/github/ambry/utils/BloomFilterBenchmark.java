@@ -0,0 +1,100 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.utils;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks probes of the {@link Murmur3BloomFilter} and the {@link BlockedBloomFilter} created by
+ * {@link FilterFactory}, with the sizes and false positive probability that index segments use, for keys that were
+ * added and keys that were not.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BloomFilterBenchmark {
+  private static final int KEY_SIZE = 32;
+  private static final int NUM_PROBE_KEYS = 1024;
+
+  @Param({"10000", "1000000"})
+  public int numElements;
+
+  @Param({"0.01"})
+  public double maxFalsePositiveProbability;
+
+  @Param({"murmur3", "blocked"})
+  public String filterType;
+
+  private IFilter filter;
+  private ByteBuffer[] presentKeys;
+  private ByteBuffer[] absentKeys;
+  private int next = 0;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(1);
+    filter = filterType.equals("blocked") ? FilterFactory.getBlockedFilter(numElements, maxFalsePositiveProbability)
+        : FilterFactory.getFilter(numElements, maxFalsePositiveProbability, 128);
+    presentKeys = new ByteBuffer[NUM_PROBE_KEYS];
+    for (int i = 0; i < numElements; i++) {
+      ByteBuffer key = randomKey(random);
+      filter.add(key);
+      if (i < NUM_PROBE_KEYS) {
+        presentKeys[i] = key;
+      }
+    }
+    absentKeys = new ByteBuffer[NUM_PROBE_KEYS];
+    for (int i = 0; i < NUM_PROBE_KEYS; i++) {
+      absentKeys[i] = randomKey(random);
+    }
+  }
+
+  @Benchmark
+  public boolean probePresentKey() {
+    return filter.isPresent(presentKeys[nextIndex()]);
+  }
+
+  @Benchmark
+  public boolean probeAbsentKey() {
+    return filter.isPresent(absentKeys[nextIndex()]);
+  }
+
+  private int nextIndex() {
+    next = (next + 1) % NUM_PROBE_KEYS;
+    return next;
+  }
+
+  private static ByteBuffer randomKey(Random random) {
+    byte[] bytes = new byte[KEY_SIZE];
+    random.nextBytes(bytes);
+    return ByteBuffer.wrap(bytes);
+  }
+}
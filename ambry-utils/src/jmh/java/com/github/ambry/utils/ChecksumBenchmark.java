@@ -0,0 +1,74 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.utils;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Benchmarks {@link Crc32} against {@link CRC32} on heap and direct buffers of different sizes. This is the
+ * reproducible version of the Crc32Benchmark tool in ambry-tools.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChecksumBenchmark {
+  @Param({"100", "4096", "65536", "4194304"})
+  public int size;
+
+  @Param({"true", "false"})
+  public boolean direct;
+
+  private ByteBuffer buffer;
+
+  @Setup
+  public void setup() {
+    byte[] bytes = new byte[size];
+    ThreadLocalRandom.current().nextBytes(bytes);
+    buffer = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    buffer.put(bytes);
+    buffer.flip();
+  }
+
+  @Benchmark
+  public long ambryCrc32() {
+    Crc32 crc = new Crc32();
+    crc.update(buffer.duplicate());
+    return crc.getValue();
+  }
+
+  @Benchmark
+  public long javaCrc32() {
+    CRC32 crc = new CRC32();
+    crc.update(buffer.duplicate());
+    return crc.getValue();
+  }
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright 2024 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.utils;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+
+/**
+ * A bloom filter that keeps all the bits of a key in a single block of 512 bits, the size of a cache line, so that a
+ * probe touches one cache line instead of one per hash function. The block of a key and its bits in the block are all
+ * derived from a single murmur3 hash of the key.
+ * <p/>
+ * Keys are not spread evenly over the blocks, so this filter needs a few more bits per element than a
+ * {@link Murmur3BloomFilter} for the same false positive probability. {@link FilterFactory#getBlockedFilter} accounts
+ * for it when sizing the filter.
+ */
+public class BlockedBloomFilter implements IFilter {
+  static final int BLOCK_SIZE_IN_BITS = 512;
+  private static final int WORDS_PER_BLOCK = BLOCK_SIZE_IN_BITS / Long.SIZE;
+  static final int MAX_NUM_BLOCKS = Integer.MAX_VALUE / WORDS_PER_BLOCK;
+  private static final int BITS_PER_INDEX = 9;
+  private static final int BITS_FROM_SECOND_HALF = Long.SIZE / BITS_PER_INDEX;
+  /**
+   * The maximum number of bits set per key, so that each bit takes distinct bits of the 128 bit hash.
+   */
+  static final int MAX_HASH_COUNT = BITS_FROM_SECOND_HALF + Integer.SIZE / BITS_PER_INDEX;
+
+  private final int hashCount;
+  private final int numBlocks;
+  private final long[] words;
+
+  /**
+   * @param hashCount the number of bits set in the block of a key.
+   * @param numBlocks the number of blocks of the filter.
+   */
+  BlockedBloomFilter(int hashCount, int numBlocks) {
+    this(hashCount, numBlocks, new long[numBlocks * WORDS_PER_BLOCK]);
+  }
+
+  private BlockedBloomFilter(int hashCount, int numBlocks, long[] words) {
+    if (hashCount < 1 || hashCount > MAX_HASH_COUNT || numBlocks < 1 || numBlocks > MAX_NUM_BLOCKS) {
+      throw new IllegalArgumentException(
+          "Invalid blocked bloom filter with " + hashCount + " hashes and " + numBlocks + " blocks");
+    }
+    this.hashCount = hashCount;
+    this.numBlocks = numBlocks;
+    this.words = words;
+  }
+
+  @Override
+  public void add(ByteBuffer key) {
+    long[] hash = MurmurHash.hash3_x64_128(key, key.position(), key.remaining(), 0L);
+    int blockStart = getBlockStart(hash[0]);
+    for (int i = 0; i < hashCount; i++) {
+      int bitInBlock = getBitInBlock(hash, i);
+      words[blockStart + (bitInBlock >>> 6)] |= 1L << bitInBlock;
+    }
+  }
+
+  @Override
+  public boolean isPresent(ByteBuffer key) {
+    long[] hash = MurmurHash.hash3_x64_128(key, key.position(), key.remaining(), 0L);
+    int blockStart = getBlockStart(hash[0]);
+    for (int i = 0; i < hashCount; i++) {
+      int bitInBlock = getBitInBlock(hash, i);
+      if ((words[blockStart + (bitInBlock >>> 6)] & (1L << bitInBlock)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(words, 0L);
+  }
+
+  @Override
+  public void close() {
+  }
+
+  /**
+   * @return the number of bits set in the block of a key.
+   */
+  public int getHashCount() {
+    return hashCount;
+  }
+
+  /**
+   * @return the number of blocks of the filter.
+   */
+  public int getNumBlocks() {
+    return numBlocks;
+  }
+
+  /**
+   * Serializes the filter as its hash count, its number of blocks and the words of all the blocks.
+   * @param out the {@link DataOutput} to write to.
+   * @throws IOException
+   */
+  void serialize(DataOutput out) throws IOException {
+    out.writeInt(hashCount);
+    out.writeInt(numBlocks);
+    for (long word : words) {
+      out.writeLong(word);
+    }
+  }
+
+  /**
+   * @param in the {@link DataInput} to read a filter serialized by {@link #serialize(DataOutput)} from.
+   * @return the deserialized {@link BlockedBloomFilter}.
+   * @throws IOException
+   */
+  static BlockedBloomFilter deserialize(DataInput in) throws IOException {
+    int hashCount = in.readInt();
+    int numBlocks = in.readInt();
+    if (hashCount < 1 || hashCount > MAX_HASH_COUNT || numBlocks < 1 || numBlocks > MAX_NUM_BLOCKS) {
+      throw new IOException("Invalid blocked bloom filter with " + hashCount + " hashes and " + numBlocks + " blocks");
+    }
+    long[] words = new long[numBlocks * WORDS_PER_BLOCK];
+    for (int i = 0; i < words.length; i++) {
+      words[i] = in.readLong();
+    }
+    return new BlockedBloomFilter(hashCount, numBlocks, words);
+  }
+
+  /**
+   * Takes the i-th bit of a key from its own 9 bits of the hash: the 7 lowest groups of the second half of the hash,
+   * then the 3 lowest groups of the first half, whose high 32 bits select the block.
+   * @return the index in the block of the i-th bit of the key with the given hash.
+   */
+  private static int getBitInBlock(long[] hash, int i) {
+    long bits = i < BITS_FROM_SECOND_HALF ? hash[1] >>> (i * BITS_PER_INDEX)
+        : hash[0] >>> ((i - BITS_FROM_SECOND_HALF) * BITS_PER_INDEX);
+    return (int) bits & (BLOCK_SIZE_IN_BITS - 1);
+  }
+
+  /**
+   * Maps a hash to a block without a division, using the high 32 bits of the hash.
+   * @return the index of the first word of the block of the given hash.
+   */
+  private int getBlockStart(long hash) {
+    return (int) (((hash >>> 32) * numBlocks) >>> 32) * WORDS_PER_BLOCK;
+  }
+}
@@ -28,6 +28,7 @@ class BloomCalculations {
   private static final int minK = 1;
 
   private static final int EXCESS = 20;
+  private static final int maxBlockedBucketsPerElement = 32;
 
   /**
    * In the following keyspaceName, the row 'i' shows false positive rates if i buckets
@@ -138,6 +139,46 @@ class BloomCalculations {
     return new BloomSpecification(K, bucketsPerElement);
   }
 
+  /**
+   * Computes the specification of a {@link BlockedBloomFilter} with the fewest buckets per element, and then the fewest
+   * hash functions, that gives less than the specified false positive rate.
+   *
+   * @param maxFalsePosProb The maximum tolerable false positive rate.
+   * @param blockSizeInBits The number of bits of a block of the filter.
+   * @param maxK The maximum number of hash functions the filter supports.
+   * @return A Bloom Specification which would result in a false positive rate less than specified.
+   * @throws UnsupportedOperationException if a filter satisfying the parameters cannot be met
+   */
+  public static BloomSpecification computeBlockedBloomSpec(double maxFalsePosProb, int blockSizeInBits, int maxK) {
+    for (int bucketsPerElement = minBuckets; bucketsPerElement <= maxBlockedBucketsPerElement; bucketsPerElement++) {
+      for (int k = minK; k <= maxK; k++) {
+        if (blockedFalsePositiveProbability(bucketsPerElement, k, blockSizeInBits) <= maxFalsePosProb) {
+          return new BloomSpecification(k, bucketsPerElement);
+        }
+      }
+    }
+    throw new UnsupportedOperationException(
+        String.format("Unable to satisfy %s with %s buckets per element", maxFalsePosProb,
+            maxBlockedBucketsPerElement));
+  }
+
+  /**
+   * The number of elements in a block of a blocked filter follows a Poisson distribution, so its false positive rate
+   * is the false positive rate of a block with j elements, weighted by the probability that a block has j elements.
+   * @return the false positive rate of a blocked filter with the given parameters.
+   */
+  static double blockedFalsePositiveProbability(int bucketsPerElement, int k, int blockSizeInBits) {
+    double elementsPerBlock = blockSizeInBits / (double) bucketsPerElement;
+    double bitUnsetProbability = 1 - 1.0 / blockSizeInBits;
+    double elementCountProbability = Math.exp(-elementsPerBlock);
+    double falsePosProb = 0;
+    for (int j = 0; j < 4 * elementsPerBlock + 50; j++) {
+      falsePosProb += elementCountProbability * Math.pow(1 - Math.pow(bitUnsetProbability, (double) k * j), k);
+      elementCountProbability *= elementsPerBlock / (j + 1);
+    }
+    return falsePosProb;
+  }
+
   /**
    * Calculates the maximum number of buckets per element that this implementation
    * can support.  Crucially, it will lower the bucket count if necessary to meet
@@ -25,7 +25,13 @@ abstract class BloomFilterSerializer {
   }
 
   public BloomFilter deserialize(DataInput in, int maxPageCount) throws IOException {
-    int hashes = in.readInt();
+    return deserialize(in.readInt(), in, maxPageCount);
+  }
+
+  /**
+   * Deserializes a filter whose hash count was already read from {@code in}.
+   */
+  public BloomFilter deserialize(int hashes, DataInput in, int maxPageCount) throws IOException {
     IBitSet bs = OpenBitSet.deserialize(in, maxPageCount);
     return createFilter(hashes, bs);
   }
@@ -16,6 +16,7 @@ package com.github.ambry.utils;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,13 +25,35 @@ public class FilterFactory {
 
   private static final Logger logger = LoggerFactory.getLogger(FilterFactory.class);
   private static final long BITSET_EXCESS = 20;
+  // A serialized Murmur3BloomFilter starts with its hash count, which is positive. Other filters start with this
+  // marker followed by the version of their format.
+  private static final int VERSIONED_FORMAT_MARKER = -1;
+  static final short BLOCKED_BLOOM_FILTER_VERSION_1 = 1;
+  private static final ConcurrentHashMap<Double, BloomCalculations.BloomSpecification> blockedBloomSpecs =
+      new ConcurrentHashMap<>();
 
   public static void serialize(IFilter bf, DataOutput output) throws IOException {
-    Murmur3BloomFilter.serializer.serialize((Murmur3BloomFilter) bf, output);
+    if (bf instanceof BlockedBloomFilter) {
+      output.writeInt(VERSIONED_FORMAT_MARKER);
+      output.writeShort(BLOCKED_BLOOM_FILTER_VERSION_1);
+      ((BlockedBloomFilter) bf).serialize(output);
+    } else {
+      Murmur3BloomFilter.serializer.serialize((Murmur3BloomFilter) bf, output);
+    }
   }
 
   public static IFilter deserialize(DataInput input, int maxPageCount) throws IOException {
-    return Murmur3BloomFilter.serializer.deserialize(input, maxPageCount);
+    int header = input.readInt();
+    if (header != VERSIONED_FORMAT_MARKER) {
+      return Murmur3BloomFilter.serializer.deserialize(header, input, maxPageCount);
+    }
+    short version = input.readShort();
+    switch (version) {
+      case BLOCKED_BLOOM_FILTER_VERSION_1:
+        return BlockedBloomFilter.deserialize(input);
+      default:
+        throw new IOException("Unknown bloom filter format version " + version);
+    }
   }
 
   /**
@@ -62,6 +85,24 @@ public class FilterFactory {
     return createFilter(spec.K, numElements, spec.bucketsPerElement, maxPageCount);
   }
 
+  /**
+   * @return The smallest {@link BlockedBloomFilter} that can provide the given false positive probability rate for the
+   *         given number of elements.
+   */
+  public static IFilter getBlockedFilter(long numElements, double maxFalsePosProbability) {
+    BloomCalculations.BloomSpecification spec = blockedBloomSpecs.computeIfAbsent(maxFalsePosProbability,
+        probability -> BloomCalculations.computeBlockedBloomSpec(probability, BlockedBloomFilter.BLOCK_SIZE_IN_BITS,
+            BlockedBloomFilter.MAX_HASH_COUNT));
+    long numBits = Math.max(1, numElements) * spec.bucketsPerElement;
+    long numBlocks = (numBits + BlockedBloomFilter.BLOCK_SIZE_IN_BITS - 1) / BlockedBloomFilter.BLOCK_SIZE_IN_BITS;
+    if (numBlocks > BlockedBloomFilter.MAX_NUM_BLOCKS) {
+      logger.warn("Cannot provide a blocked bloom filter of {} blocks for {} elements, using {} blocks", numBlocks,
+          numElements, BlockedBloomFilter.MAX_NUM_BLOCKS);
+      numBlocks = BlockedBloomFilter.MAX_NUM_BLOCKS;
+    }
+    return new BlockedBloomFilter(spec.K, (int) numBlocks);
+  }
+
   private static IFilter createFilter(int hash, long numElements, int bucketsPer, int maxPageCount) {
     long numBits = (numElements * bucketsPer) + BITSET_EXCESS;
     IBitSet bitset = new OpenBitSet(numBits, maxPageCount);
@@ -0,0 +1,108 @@
+/**
+ * Copyright 2016 LinkedIn Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ */
+package com.github.ambry.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.junit.Test;
+
+import static com.github.ambry.utils.FilterTestHelper.*;
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests for {@link BlockedBloomFilter}.
+ */
+public class BlockedBloomFilterTest {
+  private static final double MAX_FALSE_POSITIVE_PROBABILITY = 0.01;
+
+  /**
+   * Test that keys added to the filter are present and that the false positive rate is close to the expected one.
+   */
+  @Test
+  public void falsePositivesTest() {
+    IFilter filter = FilterFactory.getBlockedFilter(ELEMENTS, MAX_FALSE_POSITIVE_PROBABILITY);
+    ResetableIterator<ByteBuffer> keys = randomKeys();
+    while (keys.hasNext()) {
+      filter.add(keys.next());
+    }
+    keys.reset();
+    while (keys.hasNext()) {
+      assertTrue("Added key should be present", filter.isPresent(keys.next()));
+    }
+    ResetableIterator<ByteBuffer> otherKeys = randomKeys2();
+    int falsePositives = 0;
+    while (otherKeys.hasNext()) {
+      if (filter.isPresent(otherKeys.next())) {
+        falsePositives++;
+      }
+    }
+    assertTrue("Too many false positives: " + falsePositives,
+        falsePositives < ELEMENTS * MAX_FALSE_POSITIVE_PROBABILITY * 1.5);
+    filter.clear();
+    assertFalse("Filter should be empty", filter.isPresent(ByteBuffer.wrap("a".getBytes())));
+  }
+
+  /**
+   * Test that the specification of a blocked filter is the smallest that gives the requested false positive rate.
+   */
+  @Test
+  public void blockedBloomSpecTest() {
+    for (double probability : new double[]{0.1, 0.01, 0.001}) {
+      BloomCalculations.BloomSpecification spec =
+          BloomCalculations.computeBlockedBloomSpec(probability, BlockedBloomFilter.BLOCK_SIZE_IN_BITS,
+              BlockedBloomFilter.MAX_HASH_COUNT);
+      assertTrue("Spec should satisfy the probability " + spec,
+          BloomCalculations.blockedFalsePositiveProbability(spec.bucketsPerElement, spec.K,
+              BlockedBloomFilter.BLOCK_SIZE_IN_BITS) <= probability);
+      for (int k = 1; k <= BlockedBloomFilter.MAX_HASH_COUNT; k++) {
+        assertTrue("A smaller spec satisfies the probability " + spec,
+            BloomCalculations.blockedFalsePositiveProbability(spec.bucketsPerElement - 1, k,
+                BlockedBloomFilter.BLOCK_SIZE_IN_BITS) > probability);
+      }
+    }
+  }
+
+  /**
+   * Test that blocked and murmur3 filters are serialized in their own formats and read back by
+   * {@link FilterFactory#deserialize}.
+   * @throws IOException
+   */
+  @Test
+  public void serializationTest() throws IOException {
+    IFilter blocked = BloomFilterTest.testSerialize(FilterFactory.getBlockedFilter(ELEMENTS, 0.01));
+    assertTrue("Unexpected filter type", blocked instanceof BlockedBloomFilter);
+    IFilter murmur3 =
+        BloomFilterTest.testSerialize(FilterFactory.getFilter(ELEMENTS, 0.01, BLOOM_FILTER_MAX_PAGE_COUNT));
+    assertTrue("Unexpected filter type", murmur3 instanceof Murmur3BloomFilter);
+
+    // unknown versions of the format are rejected
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    FilterFactory.serialize(FilterFactory.getBlockedFilter(ELEMENTS, 0.01), out);
+    out.close();
+    byte[] serialized = bytes.toByteArray();
+    serialized[Integer.BYTES + 1] = (byte) (FilterFactory.BLOCKED_BLOOM_FILTER_VERSION_1 + 1);
+    try {
+      FilterFactory.deserialize(new DataInputStream(new ByteArrayInputStream(serialized)), BLOOM_FILTER_MAX_PAGE_COUNT);
+      fail("Deserialization of an unknown version should fail");
+    } catch (IOException e) {
+      // expected
+    }
+  }
+}
@@ -98,6 +98,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -143,6 +144,7 @@ public class CloudBlobStoreTest {
   private short refContainerId = 100;
   private long operationTime = System.currentTimeMillis();
   private final int defaultCacheLimit = 1000;
+  private int azureSyncMaxConcurrentRequests = 1;
   private CloudConfig cloudConfig;
 
   protected String ambryBackupVersion;
@@ -194,6 +196,8 @@ public class CloudBlobStoreTest {
       properties.setProperty(CloudConfig.CLOUD_COMPACTION_DRY_RUN_ENABLED, String.valueOf(this.compactionDryRun));
       properties.setProperty(CloudConfig.CLOUD_COMPACTION_GRACE_PERIOD_DAYS, String.valueOf(0));
       properties.setProperty(AzureCloudConfig.AZURE_BLOB_STORAGE_MAX_RESULTS_PER_PAGE, String.valueOf(1));
+      properties.setProperty(AzureCloudConfig.AZURE_SYNC_MAX_CONCURRENT_REQUESTS,
+          String.valueOf(azureSyncMaxConcurrentRequests));
       /*
        * snalli@:
        * Just disable the cache. It just adds another layer of complexity and more of a nuisance than any help.
@@ -1140,6 +1144,31 @@ public class CloudBlobStoreTest {
     }
   }
 
+  /** Test that findMissingKeys finds the missing keys when the destination looks them up concurrently. */
+  @Test
+  public void testFindMissingKeysConcurrently() throws Exception {
+    azureSyncMaxConcurrentRequests = 4;
+    setupCloudStore(true, true, defaultCacheLimit, true);
+    MockMessageWriteSet messageWriteSet = new MockMessageWriteSet();
+    List<StoreKey> keys = new ArrayList<>();
+    Set<StoreKey> expectedMissingKeys = new HashSet<>();
+    long now = System.currentTimeMillis();
+    for (int j = 0; j < 10; j++) {
+      BlobId existentBlobId = getUniqueId(refAccountId, refContainerId, false, partitionId);
+      MessageInfo info = new MessageInfo(existentBlobId, SMALL_BLOB_SIZE, refAccountId, refContainerId, now, (short) 0);
+      messageWriteSet.add(info, ByteBuffer.wrap(TestUtils.getRandomBytes(SMALL_BLOB_SIZE)));
+      keys.add(existentBlobId);
+      BlobId nonexistentBlobId = getUniqueId(refAccountId, refContainerId, false, partitionId);
+      keys.add(nonexistentBlobId);
+      expectedMissingKeys.add(nonexistentBlobId);
+    }
+    store.put(messageWriteSet);
+    assertEquals("Unexpected missing keys", expectedMissingKeys, store.findMissingKeys(keys));
+    assertEquals("Keys should be looked up in one batch", 1,
+        metricRegistry.timer(MetricRegistry.name(AzureMetrics.class, AzureMetrics.BLOB_BATCH_METADATA_LATENCY))
+            .getCount());
+  }
+
   /** Test the CloudBlobStore findEntriesSince method. */
   @Test
   public void testFindEntriesSince() throws Exception {